@@ -0,0 +1,257 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.core;
+
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.pentaho.di.core.row.RowMetaInterface;
+
+/**
+ * A blocking buffer of rows that is sized in bytes instead of rows.
+ * <p>
+ * The number of rows that fit is worked out from the average size of the rows, estimated from a sample of them, so
+ * wide rows don't take more memory than narrow ones. The buffer starts at its base share of the
+ * {@link RowSetMemoryBudget} of the transformation. When the writing step finds it full, the step reading from it is a
+ * bottleneck and the buffer grows with bytes borrowed from the budget. When the reading step finds it empty, it keeps
+ * up and the buffer gives half of the borrowed bytes back.
+ */
+public class AdaptiveRowSet extends BaseRowSet implements Comparable<RowSet>, RowSet {
+
+  static final int MIN_ROWS = 16;
+
+  static final int MAX_ROWS = 1000000;
+
+  /** Estimate the size of every so many rows */
+  private static final int SAMPLE_INTERVAL = 64;
+
+  private final RowSetMemoryBudget budget;
+  private final Deque<Object[]> queue = new ArrayDeque<>();
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition notEmpty = lock.newCondition();
+  private final Condition notFull = lock.newCondition();
+
+  private final int timeoutPut;
+  private final int timeoutGet;
+
+  private long borrowedBytes;
+  private long averageRowBytes;
+  private long rowCount;
+  private long fullWaits;
+  private int peakSize;
+
+  public AdaptiveRowSet( RowSetMemoryBudget budget ) {
+    super();
+    this.budget = budget;
+    budget.register();
+
+    timeoutGet = Const.toInt( System.getProperty( Const.KETTLE_ROWSET_GET_TIMEOUT ), Const.TIMEOUT_GET_MILLIS );
+    timeoutPut = Const.toInt( System.getProperty( Const.KETTLE_ROWSET_PUT_TIMEOUT ), Const.TIMEOUT_PUT_MILLIS );
+  }
+
+  @Override
+  public boolean putRow( RowMetaInterface rowMeta, Object[] rowData ) {
+    return putRowWait( rowMeta, rowData, timeoutPut, TimeUnit.MILLISECONDS );
+  }
+
+  @Override
+  public boolean putRowWait( RowMetaInterface rowMeta, Object[] rowData, long time, TimeUnit tu ) {
+    this.rowMeta = rowMeta;
+    if ( rowData == null ) {
+      return false;
+    }
+    long nanos = tu.toNanos( time );
+    lock.lock();
+    try {
+      if ( rowCount++ % SAMPLE_INTERVAL == 0 ) {
+        long rowBytes = estimateBytes( rowData );
+        averageRowBytes = averageRowBytes == 0 ? rowBytes : ( averageRowBytes * 7 + rowBytes ) / 8;
+      }
+      if ( queue.size() >= getCapacityLocked() ) {
+        // The step reading from us is behind, give it a bigger buffer if the budget allows it
+        borrowedBytes += budget.borrow( Math.max( budget.getBaseBytes(), borrowedBytes ) );
+        if ( queue.size() >= getCapacityLocked() ) {
+          fullWaits++;
+          while ( queue.size() >= getCapacityLocked() ) {
+            if ( nanos <= 0L ) {
+              return false;
+            }
+            nanos = notFull.awaitNanos( nanos );
+          }
+        }
+      }
+      queue.addLast( rowData );
+      peakSize = Math.max( peakSize, queue.size() );
+      notEmpty.signal();
+      return true;
+    } catch ( InterruptedException e ) {
+      return false;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public Object[] getRow() {
+    return getRowWait( timeoutGet, TimeUnit.MILLISECONDS );
+  }
+
+  @Override
+  public Object[] getRowImmediate() {
+    lock.lock();
+    try {
+      return takeFirst();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public Object[] getRowWait( long timeout, TimeUnit tu ) {
+    long nanos = tu.toNanos( timeout );
+    lock.lock();
+    try {
+      if ( queue.isEmpty() ) {
+        // We keep up with the step writing to us, we don't need what we borrowed
+        long giveBack = borrowedBytes / 2 < budget.getBaseBytes() ? borrowedBytes : borrowedBytes / 2;
+        borrowedBytes -= giveBack;
+        budget.giveBack( giveBack );
+
+        while ( queue.isEmpty() ) {
+          if ( nanos <= 0L ) {
+            return null;
+          }
+          nanos = notEmpty.awaitNanos( nanos );
+        }
+      }
+      return takeFirst();
+    } catch ( InterruptedException e ) {
+      return null;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private Object[] takeFirst() {
+    Object[] row = queue.pollFirst();
+    if ( row != null ) {
+      notFull.signal();
+    }
+    return row;
+  }
+
+  @Override
+  public int size() {
+    lock.lock();
+    try {
+      return queue.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void clear() {
+    lock.lock();
+    try {
+      queue.clear();
+      budget.giveBack( borrowedBytes );
+      borrowedBytes = 0L;
+      notFull.signalAll();
+    } finally {
+      lock.unlock();
+    }
+    done.set( false );
+  }
+
+  /**
+   * @return the number of rows that fit in the buffer right now
+   */
+  public int getCapacity() {
+    lock.lock();
+    try {
+      return getCapacityLocked();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private int getCapacityLocked() {
+    long bytes = budget.getBaseBytes() + borrowedBytes;
+    long rows = bytes / Math.max( 1L, averageRowBytes );
+    return (int) Math.max( MIN_ROWS, Math.min( MAX_ROWS, rows ) );
+  }
+
+  /**
+   * @return the estimated number of bytes taken by the rows in the buffer
+   */
+  public long getBufferedBytes() {
+    lock.lock();
+    try {
+      return queue.size() * averageRowBytes;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * @return the number of times the writing step had to wait for room in the buffer
+   */
+  public long getFullWaits() {
+    lock.lock();
+    try {
+      return fullWaits;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * @return the largest number of rows that was in the buffer
+   */
+  public int getPeakSize() {
+    lock.lock();
+    try {
+      return peakSize;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * A rough estimate of the heap used by a row: the array and the values in it.
+   */
+  static long estimateBytes( Object[] row ) {
+    long bytes = 16L + 8L * row.length;
+    for ( Object value : row ) {
+      if ( value == null ) {
+        continue;
+      }
+      if ( value instanceof String ) {
+        bytes += 40L + ( (String) value ).length();
+      } else if ( value instanceof byte[] ) {
+        bytes += 16L + ( (byte[]) value ).length;
+      } else if ( value instanceof BigDecimal ) {
+        bytes += 64L;
+      } else {
+        bytes += 24L;
+      }
+    }
+    return bytes;
+  }
+}
@@ -890,6 +890,18 @@ public class Const {
    */
   public static final String KETTLE_MAX_JOB_ENTRIES_LOGGED = "KETTLE_MAX_JOB_ENTRIES_LOGGED";
 
+  /**
+   * System wide flag to write the interval transformation and step performance log table records on a shared
+   * background writer instead of the timer threads of the transformation. Set to "Y" to enable.
+   */
+  public static final String KETTLE_LOG_TABLE_ASYNC_WRITES = "KETTLE_LOG_TABLE_ASYNC_WRITES";
+
+  /**
+   * The maximum number of log table writes queued per logging connection by the background writer. Step performance
+   * records submitted while the queue is full are dropped, status records are always written.
+   */
+  public static final String KETTLE_LOG_TABLE_ASYNC_QUEUE_SIZE = "KETTLE_LOG_TABLE_ASYNC_QUEUE_SIZE";
+
   /**
    * A variable to configure the maximum number of logging registry entries kept in memory for logging purposes.
    */
@@ -1042,6 +1054,13 @@ public class Const {
    */
   public static final String KETTLE_BATCHING_ROWSET = "KETTLE_BATCHING_ROWSET";
 
+  /**
+   * The memory in MB that the row sets of a transformation can use to buffer rows. When set, the row sets are sized in
+   * bytes and grow in front of slow steps within this budget, instead of holding a fixed number of rows. (default = 0,
+   * fixed size row sets)
+   */
+  public static final String KETTLE_ROWSET_MEMORY_BUDGET = "KETTLE_ROWSET_MEMORY_BUDGET";
+
   /**
    * Set this variable to limit max number of files the Text File Output step can have open at one time.
    */
@@ -1073,6 +1092,18 @@ public class Const {
   @SuppressWarnings( "squid:S2068" )
   public static final String KETTLE_PASSWORD = "KETTLE_PASSWORD";
 
+  /**
+   * The number of transformations whose rows a database repository keeps in memory after loading them. A cached
+   * transformation is only read again when its modification date changes. 0, the default, disables the cache.
+   */
+  public static final String KETTLE_REPOSITORY_TRANS_CACHE_SIZE = "KETTLE_REPOSITORY_TRANS_CACHE_SIZE";
+
+  /**
+   * The number of bytes of rows a step of a single threaded transformation processes before the next steps take over
+   * those rows, while they're still in the CPU cache. 0 makes every step process all the rows of a batch in one go.
+   */
+  public static final String KETTLE_SINGLE_THREADED_CHUNK_BYTES = "KETTLE_SINGLE_THREADED_CHUNK_BYTES";
+
   /**
    * The XML file that contains the list of native Kettle job entries
    */
@@ -0,0 +1,81 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.core;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The memory that the row sets of one transformation can use to buffer rows, in bytes.
+ * <p>
+ * Half of the budget is shared out evenly over the row sets as their base size. The other half is free: a row set
+ * borrows from it when the step reading from it can't keep up, and gives it back when that step catches up again.
+ */
+public class RowSetMemoryBudget {
+
+  private final long totalBytes;
+  private final AtomicLong freeBytes;
+  private final AtomicInteger rowSets = new AtomicInteger();
+
+  public RowSetMemoryBudget( long totalBytes ) {
+    this.totalBytes = Math.max( 0L, totalBytes );
+    this.freeBytes = new AtomicLong( this.totalBytes / 2 );
+  }
+
+  /**
+   * Registers a row set that uses this budget.
+   */
+  public void register() {
+    rowSets.incrementAndGet();
+  }
+
+  /**
+   * @return the number of bytes every row set can use without borrowing
+   */
+  public long getBaseBytes() {
+    return totalBytes / 2 / Math.max( 1, rowSets.get() );
+  }
+
+  /**
+   * Borrows bytes from the free part of the budget.
+   *
+   * @return the number of bytes borrowed, less than asked for or 0 when the budget runs out
+   */
+  public long borrow( long bytes ) {
+    while ( true ) {
+      long free = freeBytes.get();
+      long granted = Math.min( free, Math.max( 0L, bytes ) );
+      if ( granted == 0 || freeBytes.compareAndSet( free, free - granted ) ) {
+        return granted;
+      }
+    }
+  }
+
+  /**
+   * Gives borrowed bytes back.
+   */
+  public void giveBack( long bytes ) {
+    if ( bytes > 0 ) {
+      freeBytes.addAndGet( bytes );
+    }
+  }
+
+  public long getTotalBytes() {
+    return totalBytes;
+  }
+
+  public long getFreeBytes() {
+    return freeBytes.get();
+  }
+}
@@ -40,6 +40,7 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Hashtable;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
@@ -82,7 +83,6 @@ import org.pentaho.di.core.logging.Metrics;
 import org.pentaho.di.core.plugins.DatabasePluginType;
 import org.pentaho.di.core.plugins.PluginInterface;
 import org.pentaho.di.core.plugins.PluginRegistry;
-import org.pentaho.di.core.row.RowDataUtil;
 import org.pentaho.di.core.row.RowMeta;
 import org.pentaho.di.core.row.RowMetaInterface;
 import org.pentaho.di.core.row.ValueMeta;
@@ -130,6 +130,8 @@ public class Database implements VariableSpace, LoggingObjectInterface, Closeabl
   private static final String DATA_SERVICES_PLUGIN_ID = "KettleThin";
 
   private int rowlimit;
+
+  private int fetchSize;
   private int commitsize;
 
   private Connection connection;
@@ -146,6 +148,18 @@ public class Database implements VariableSpace, LoggingObjectInterface, Closeabl
 
   private RowMetaInterface rowMeta;
 
+  /**
+   * The column setters per row metadata that is bound to prepared statements, see {@link #getRowBinder}
+   */
+  private final Map<RowMetaInterface, PreparedStatementRowBinder> rowBinders = new IdentityHashMap<>();
+
+  private static final int MAX_ROW_BINDERS = 16;
+
+  /**
+   * The column getters for the last row metadata read from a result set
+   */
+  private ResultSetRowExtractor rowExtractor;
+
   private int written;
 
   private LogChannelInterface log;
@@ -317,6 +331,22 @@ public class Database implements VariableSpace, LoggingObjectInterface, Closeabl
     rowlimit = rows;
   }
 
+  /**
+   * Sets the number of rows fetched per round trip by the queries opened after this call.
+   *
+   * @param fetchSize the fetch size, 0 or less to use the default of {@link Const#FETCH_SIZE}
+   */
+  public void setFetchSize( int fetchSize ) {
+    this.fetchSize = fetchSize;
+  }
+
+  /**
+   * @return the fetch size used for queries, {@link Const#FETCH_SIZE} unless set otherwise
+   */
+  public int getFetchSize() {
+    return fetchSize > 0 ? fetchSize : Const.FETCH_SIZE;
+  }
+
   /**
    * @return Returns the prepStatementInsert.
    */
@@ -1100,15 +1130,24 @@ public class Database implements VariableSpace, LoggingObjectInterface, Closeabl
   public void setValues( RowMetaInterface rowMeta, Object[] data, PreparedStatement ps )
     throws KettleDatabaseException {
     // now set the values in the row!
-    for ( int i = 0; i < rowMeta.size(); i++ ) {
-      ValueMetaInterface v = rowMeta.getValueMeta( i );
-      Object object = data[ i ];
+    getRowBinder( rowMeta ).setValues( data, ps );
+  }
 
-      try {
-        setValue( ps, v, object, i + 1 );
-      } catch ( KettleDatabaseException e ) {
-        throw new KettleDatabaseException( "offending row : " + rowMeta, e );
+  /**
+   * The setters are chosen once per row metadata. Steps typically bind one or two row layouts (lookup and update for
+   * example) for the lifetime of the connection, so a handful of binders is kept around.
+   */
+  private PreparedStatementRowBinder getRowBinder( RowMetaInterface rowMeta ) {
+    synchronized ( rowBinders ) {
+      PreparedStatementRowBinder binder = rowBinders.get( rowMeta );
+      if ( binder == null || !binder.isFor( rowMeta ) ) {
+        if ( rowBinders.size() >= MAX_ROW_BINDERS ) {
+          rowBinders.clear();
+        }
+        binder = new PreparedStatementRowBinder( databaseMeta, rowMeta );
+        rowBinders.put( rowMeta, binder );
       }
+      return binder;
     }
   }
 
@@ -1724,7 +1763,7 @@ public class Database implements VariableSpace, LoggingObjectInterface, Closeabl
 
         if ( canWeSetFetchSize( pstmt ) ) {
           int maxRows = pstmt.getMaxRows();
-          int fs = Math.max( Const.FETCH_SIZE, maxRows );
+          int fs = Math.max( getFetchSize(), maxRows );
           if ( databaseMeta.isMySQLVariant() ) {
             setMysqlFetchSize( pstmt, fs, maxRows );
           } else {
@@ -1746,7 +1785,7 @@ public class Database implements VariableSpace, LoggingObjectInterface, Closeabl
         selStmt = connection.createStatement();
         log.snap( Metrics.METRIC_DATABASE_CREATE_SQL_STOP, databaseMeta.getName() );
         if ( canWeSetFetchSize( selStmt ) ) {
-          int fs = Math.max( Const.FETCH_SIZE, selStmt.getMaxRows() );
+          int fs = Math.max( getFetchSize(), selStmt.getMaxRows() );
           if ( databaseMeta.getDatabaseInterface().isMySQLVariant()
             && databaseMeta.isStreamingResults() ) {
             selStmt.setFetchSize( Integer.MIN_VALUE );
@@ -1781,7 +1820,8 @@ public class Database implements VariableSpace, LoggingObjectInterface, Closeabl
 
   private boolean canWeSetFetchSize( Statement statement ) throws SQLException {
     return databaseMeta.isFetchSizeSupported()
-      && ( statement.getMaxRows() > 0
+      && ( fetchSize > 0
+      || statement.getMaxRows() > 0
       || databaseMeta.getDatabaseInterface() instanceof PostgreSQLDatabaseMeta
       || ( databaseMeta.isMySQLVariant() && databaseMeta.isStreamingResults() ) );
   }
@@ -1800,7 +1840,7 @@ public class Database implements VariableSpace, LoggingObjectInterface, Closeabl
 
       if ( canWeSetFetchSize( ps ) ) {
         int maxRows = ps.getMaxRows();
-        int fs = Math.max( Const.FETCH_SIZE, maxRows );
+        int fs = Math.max( getFetchSize(), maxRows );
         // mysql have some restriction on fetch size assignment
         if ( databaseMeta.isMySQLVariant() ) {
           setMysqlFetchSize( ps, fs, maxRows );
@@ -2731,20 +2771,15 @@ public class Database implements VariableSpace, LoggingObjectInterface, Closeabl
       // PDI-19750 - synchronize on the connection to prevent data inconsistency
       // when multiple Database objects share the same connection and access ResultSets concurrently
       synchronized ( connection ) {
-        int nrcols = rowInfo.size();
-        Object[] data = RowDataUtil.allocateRowData( nrcols );
+        if ( rowExtractor == null || !rowExtractor.isFor( rowInfo ) ) {
+          rowExtractor = new ResultSetRowExtractor( databaseMeta, rowInfo );
+        }
 
         if ( rs.next() ) {
-          for ( int i = 0; i < nrcols; i++ ) {
-            ValueMetaInterface val = rowInfo.getValueMeta( i );
-
-            data[ i ] = databaseMeta.getValueFromResultSet( rs, val, i );
-          }
+          return rowExtractor.getRow( rs );
         } else {
-          data = null;
+          return null;
         }
-
-        return data;
       }
     } catch ( Exception ex ) {
       throw new KettleDatabaseException( "Couldn't get row from result set", ex );
@@ -3565,6 +3600,56 @@ public class Database implements VariableSpace, LoggingObjectInterface, Closeabl
     }
   }
 
+  /**
+   * Writes the log records of a list of subjects (steps, logging hierarchy entries, ...) to a log table. Records that
+   * are inserted are sent as a single batch over one prepared statement, records that update an existing row are
+   * written one by one.
+   *
+   * @param logTable the log table to write to
+   * @param status   the logging status
+   * @param subjects the subjects to write a log record for
+   * @param parent   the parent object, passed to the log table
+   * @throws KettleDatabaseException in case the exception strategy of the log table says so
+   */
+  public void writeLogRecords( LogTableCoreInterface logTable, LogStatus status, List<?> subjects, Object parent )
+    throws KettleDatabaseException {
+    if ( ( logTable.getKeyField() != null ) && !status.equals( LogStatus.START ) ) {
+      for ( Object subject : subjects ) {
+        writeLogRecord( logTable, status, subject, parent );
+      }
+      return;
+    }
+
+    try {
+      RowMetaInterface rowMeta = null;
+      for ( Object subject : subjects ) {
+        RowMetaAndData logRecord = logTable.getLogRecord( status, subject, parent );
+        if ( logRecord == null ) {
+          continue;
+        }
+        if ( rowMeta == null ) {
+          rowMeta = logRecord.getRowMeta();
+          prepareInsert( rowMeta, environmentSubstitute( logTable.getActualSchemaName() ),
+            environmentSubstitute( logTable.getActualTableName() ) );
+        }
+        setValuesInsert( rowMeta, logRecord.getData() );
+        insertRow( true );
+      }
+      if ( rowMeta != null ) {
+        insertFinished( true );
+      }
+    } catch ( Exception e ) {
+      try {
+        closeInsert();
+      } catch ( KettleDatabaseException closeException ) {
+        // Ignore, the original exception is the one to report
+      }
+      DatabaseLogExceptionFactory.getExceptionStrategy( logTable, e )
+        .registerException( log, e, PKG, "Database.Error.WriteLogTable",
+          environmentSubstitute( logTable.getActualTableName() ) );
+    }
+  }
+
   public void cleanupLogRecords( LogTableCoreInterface logTable, String transJobName ) throws KettleDatabaseException {
     double timeout = Const.toDouble( Const.trim( environmentSubstitute( logTable.getTimeoutInDays() ) ), 0.0 );
     if ( timeout < 0.000001 ) {
@@ -0,0 +1,215 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.core.database;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+
+import org.pentaho.di.core.Const;
+import org.pentaho.di.core.exception.KettleDatabaseException;
+import org.pentaho.di.core.exception.KettleValueException;
+import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.di.core.row.ValueMetaInterface;
+import org.pentaho.di.core.row.value.ValueMetaBase;
+
+/**
+ * Sets the values of a row on a prepared statement with a setter per column that is chosen once for a row metadata,
+ * instead of going through the type switch and database checks of
+ * {@link ValueMetaInterface#setPreparedStatementValue} for every value of every row.
+ * <p>
+ * The specialized setters only handle the common case: normal storage and the native Java type of the value. Other
+ * values, and value types that override the standard conversion of {@link ValueMetaBase}, are passed on to
+ * {@link ValueMetaInterface#setPreparedStatementValue} so the statement always receives the same parameters as before.
+ */
+public class PreparedStatementRowBinder {
+
+  private static final ClassValue<Boolean> STANDARD_VALUE_CONVERSION = new ClassValue<Boolean>() {
+    @Override
+    protected Boolean computeValue( Class<?> type ) {
+      return ResultSetRowExtractor.isDeclaredBy( type, ValueMetaBase.class, "setPreparedStatementValue",
+        DatabaseMeta.class, PreparedStatement.class, int.class, Object.class );
+    }
+  };
+
+  @FunctionalInterface
+  interface ColumnSetter {
+    /**
+     * @return false if the value couldn't be set by this setter
+     */
+    boolean set( PreparedStatement ps, int index, Object data ) throws SQLException, KettleValueException;
+  }
+
+  private final DatabaseMeta databaseMeta;
+  private final RowMetaInterface rowMeta;
+  private final ValueMetaInterface[] valueMetas;
+  private final ColumnSetter[] setters;
+
+  /**
+   * @param databaseMeta the database the statement is prepared on
+   * @param rowMeta      the metadata of the rows to bind
+   */
+  public PreparedStatementRowBinder( DatabaseMeta databaseMeta, RowMetaInterface rowMeta ) {
+    this.databaseMeta = databaseMeta;
+    this.rowMeta = rowMeta;
+    int size = rowMeta.size();
+    valueMetas = new ValueMetaInterface[ size ];
+    setters = new ColumnSetter[ size ];
+
+    boolean standardDatabase = databaseMeta.getClass() == DatabaseMeta.class
+      && databaseMeta.getDatabaseInterface() != null;
+    for ( int i = 0; i < size; i++ ) {
+      ValueMetaInterface valueMeta = rowMeta.getValueMeta( i );
+      valueMetas[ i ] = valueMeta;
+      if ( standardDatabase && valueMeta.getStorageType() == ValueMetaInterface.STORAGE_TYPE_NORMAL
+        && STANDARD_VALUE_CONVERSION.get( valueMeta.getClass() ) ) {
+        setters[ i ] = getTypedSetter( databaseMeta, valueMeta );
+      }
+    }
+  }
+
+  /**
+   * @return true if this binder was built for the given row metadata, in its current state
+   */
+  public boolean isFor( RowMetaInterface rowMeta ) {
+    if ( rowMeta != this.rowMeta || rowMeta.size() != valueMetas.length ) {
+      return false;
+    }
+    for ( int i = 0; i < valueMetas.length; i++ ) {
+      ValueMetaInterface valueMeta = rowMeta.getValueMeta( i );
+      if ( valueMeta != valueMetas[ i ]
+        || ( setters[ i ] != null && valueMeta.getStorageType() != ValueMetaInterface.STORAGE_TYPE_NORMAL ) ) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Sets the values of the row as parameters 1 to n of the prepared statement.
+   *
+   * @param data the row data
+   * @param ps   the prepared statement
+   */
+  public void setValues( Object[] data, PreparedStatement ps ) throws KettleDatabaseException {
+    for ( int i = 0; i < setters.length; i++ ) {
+      ValueMetaInterface valueMeta = valueMetas[ i ];
+      ColumnSetter setter = setters[ i ];
+      try {
+        if ( setter == null || !setter.set( ps, i + 1, data[ i ] ) ) {
+          valueMeta.setPreparedStatementValue( databaseMeta, ps, i + 1, data[ i ] );
+        }
+      } catch ( SQLException | KettleValueException e ) {
+        throw new KettleDatabaseException( "offending row : " + rowMeta, new KettleDatabaseException(
+          "Error setting value #" + ( i + 1 ) + " [" + valueMeta.toStringMeta() + "] on prepared statement", e ) );
+      } catch ( KettleDatabaseException e ) {
+        throw new KettleDatabaseException( "offending row : " + rowMeta, e );
+      }
+    }
+  }
+
+  private static ColumnSetter getTypedSetter( DatabaseMeta databaseMeta, ValueMetaInterface valueMeta ) {
+    switch ( valueMeta.getType() ) {
+      case ValueMetaInterface.TYPE_NUMBER:
+        int precision = valueMeta.getPrecision();
+        boolean round = databaseMeta.supportsFloatRoundingOnUpdate() && precision >= 0;
+        return ( ps, index, data ) -> {
+          if ( data == null ) {
+            ps.setNull( index, Types.DOUBLE );
+          } else if ( data instanceof Double ) {
+            double num = (Double) data;
+            ps.setDouble( index, round ? Const.round( num, precision ) : num );
+          } else {
+            return false;
+          }
+          return true;
+        };
+      case ValueMetaInterface.TYPE_INTEGER:
+        if ( !databaseMeta.supportsSetLong() ) {
+          return null;
+        }
+        return ( ps, index, data ) -> {
+          if ( data == null ) {
+            ps.setNull( index, Types.INTEGER );
+          } else if ( data instanceof Long ) {
+            ps.setLong( index, (Long) data );
+          } else {
+            return false;
+          }
+          return true;
+        };
+      case ValueMetaInterface.TYPE_STRING:
+        // Long texts are truncated or streamed, trimming needs the trim type of the value: leave those to the value
+        //
+        if ( valueMeta.getLength() == DatabaseMeta.CLOB_LENGTH
+          || valueMeta.getLength() > databaseMeta.getMaxTextFieldLength()
+          || valueMeta.getTrimType() != ValueMetaInterface.TRIM_TYPE_NONE ) {
+          return null;
+        }
+        return ( ps, index, data ) -> {
+          if ( valueMeta.isNull( data ) ) {
+            ps.setNull( index, Types.VARCHAR );
+          } else if ( data instanceof String ) {
+            ps.setString( index, (String) data );
+          } else {
+            return false;
+          }
+          return true;
+        };
+      case ValueMetaInterface.TYPE_BIGNUMBER:
+        return ( ps, index, data ) -> {
+          if ( data == null ) {
+            ps.setNull( index, Types.DECIMAL );
+          } else if ( data instanceof BigDecimal ) {
+            ps.setBigDecimal( index, (BigDecimal) data );
+          } else {
+            return false;
+          }
+          return true;
+        };
+      case ValueMetaInterface.TYPE_BOOLEAN:
+        boolean booleanDataType = databaseMeta.supportsBooleanDataType();
+        return ( ps, index, data ) -> {
+          if ( data == null ) {
+            ps.setNull( index, booleanDataType ? Types.BOOLEAN : Types.CHAR );
+          } else if ( data instanceof Boolean ) {
+            if ( booleanDataType ) {
+              ps.setBoolean( index, (Boolean) data );
+            } else {
+              ps.setString( index, (Boolean) data ? "Y" : "N" );
+            }
+          } else {
+            return false;
+          }
+          return true;
+        };
+      case ValueMetaInterface.TYPE_BINARY:
+        return ( ps, index, data ) -> {
+          if ( data == null ) {
+            ps.setNull( index, Types.BINARY );
+          } else if ( data instanceof byte[] ) {
+            ps.setBytes( index, (byte[]) data );
+          } else {
+            return false;
+          }
+          return true;
+        };
+      default:
+        // Dates depend on the time zone handling of the value, those go through the value metadata
+        //
+        return null;
+    }
+  }
+}
@@ -0,0 +1,181 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.core.database;
+
+import java.sql.Blob;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.pentaho.di.core.exception.KettleDatabaseException;
+import org.pentaho.di.core.row.RowDataUtil;
+import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.di.core.row.ValueMetaInterface;
+import org.pentaho.di.core.row.value.ValueMetaBase;
+
+/**
+ * Reads rows from a result set with a getter per column that is chosen once for a row metadata, instead of going
+ * through the type switch of {@link ValueMetaInterface#getValueFromResultSet} for every value of every row.
+ * <p>
+ * Only value types and databases that use the standard conversion of {@link ValueMetaBase} and
+ * {@link BaseDatabaseMeta} get a specialized getter. Columns of other value types (or of databases that override the
+ * conversion) are read through the regular {@link DatabaseMeta#getValueFromResultSet} call, so the result is always
+ * the same as before.
+ */
+public class ResultSetRowExtractor {
+
+  private static final ClassValue<Boolean> STANDARD_VALUE_CONVERSION = new ClassValue<Boolean>() {
+    @Override
+    protected Boolean computeValue( Class<?> type ) {
+      return isDeclaredBy( type, ValueMetaBase.class, "getValueFromResultSet", DatabaseInterface.class,
+        ResultSet.class, int.class );
+    }
+  };
+
+  private static final ClassValue<Boolean> STANDARD_DATABASE_CONVERSION = new ClassValue<Boolean>() {
+    @Override
+    protected Boolean computeValue( Class<?> type ) {
+      return isDeclaredBy( type, BaseDatabaseMeta.class, "getValueFromResultSet", ResultSet.class,
+        ValueMetaInterface.class, int.class );
+    }
+  };
+
+  @FunctionalInterface
+  interface ColumnReader {
+    /**
+     * @param resultSet the result set, positioned on the row to read
+     * @param column    the column index (1-based)
+     */
+    Object read( ResultSet resultSet, int column ) throws SQLException, KettleDatabaseException;
+  }
+
+  private final RowMetaInterface rowMeta;
+  private final ValueMetaInterface[] valueMetas;
+  private final ColumnReader[] readers;
+
+  /**
+   * @param databaseMeta the database the result set is coming from
+   * @param rowMeta      the metadata of the rows to read
+   */
+  public ResultSetRowExtractor( DatabaseMeta databaseMeta, RowMetaInterface rowMeta ) {
+    this.rowMeta = rowMeta;
+    int size = rowMeta.size();
+    valueMetas = new ValueMetaInterface[ size ];
+    readers = new ColumnReader[ size ];
+
+    DatabaseInterface databaseInterface = databaseMeta.getDatabaseInterface();
+    boolean standardDatabase = databaseMeta.getClass() == DatabaseMeta.class && databaseInterface != null
+      && STANDARD_DATABASE_CONVERSION.get( databaseInterface.getClass() );
+
+    for ( int i = 0; i < size; i++ ) {
+      ValueMetaInterface valueMeta = rowMeta.getValueMeta( i );
+      valueMetas[ i ] = valueMeta;
+      ColumnReader reader = null;
+      if ( standardDatabase && STANDARD_VALUE_CONVERSION.get( valueMeta.getClass() ) ) {
+        reader = getTypedReader( databaseInterface, valueMeta );
+      }
+      if ( reader == null ) {
+        final int index = i;
+        reader = ( resultSet, column ) -> databaseMeta.getValueFromResultSet( resultSet, valueMeta, index );
+      }
+      readers[ i ] = reader;
+    }
+  }
+
+  /**
+   * @return true if this extractor was built for the given row metadata, in its current state
+   */
+  public boolean isFor( RowMetaInterface rowMeta ) {
+    if ( rowMeta != this.rowMeta || rowMeta.size() != valueMetas.length ) {
+      return false;
+    }
+    for ( int i = 0; i < valueMetas.length; i++ ) {
+      if ( rowMeta.getValueMeta( i ) != valueMetas[ i ] ) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Reads the current row of the result set. The caller is responsible for positioning the result set.
+   *
+   * @param resultSet the result set to read from
+   * @return the row data
+   */
+  public Object[] getRow( ResultSet resultSet ) throws SQLException, KettleDatabaseException {
+    Object[] data = RowDataUtil.allocateRowData( readers.length );
+    for ( int i = 0; i < readers.length; i++ ) {
+      data[ i ] = readers[ i ].read( resultSet, i + 1 );
+    }
+    return data;
+  }
+
+  private static ColumnReader getTypedReader( DatabaseInterface databaseInterface, ValueMetaInterface valueMeta ) {
+    switch ( valueMeta.getType() ) {
+      case ValueMetaInterface.TYPE_BOOLEAN:
+        return ( resultSet, column ) -> {
+          boolean value = resultSet.getBoolean( column );
+          return resultSet.wasNull() ? null : Boolean.valueOf( value );
+        };
+      case ValueMetaInterface.TYPE_NUMBER:
+        return ( resultSet, column ) -> {
+          double value = resultSet.getDouble( column );
+          return resultSet.wasNull() ? null : Double.valueOf( value );
+        };
+      case ValueMetaInterface.TYPE_INTEGER:
+        return ( resultSet, column ) -> {
+          long value = resultSet.getLong( column );
+          return resultSet.wasNull() ? null : Long.valueOf( value );
+        };
+      case ValueMetaInterface.TYPE_BIGNUMBER:
+        return ( resultSet, column ) -> nullIfWasNull( resultSet, resultSet.getBigDecimal( column ) );
+      case ValueMetaInterface.TYPE_STRING:
+        if ( valueMeta.isStorageBinaryString() ) {
+          return ( resultSet, column ) -> nullIfWasNull( resultSet, resultSet.getBytes( column ) );
+        }
+        return ( resultSet, column ) -> nullIfWasNull( resultSet, resultSet.getString( column ) );
+      case ValueMetaInterface.TYPE_BINARY:
+        if ( databaseInterface.supportsGetBlob() ) {
+          return ( resultSet, column ) -> {
+            Blob blob = resultSet.getBlob( column );
+            Object value = blob == null ? null : blob.getBytes( 1L, (int) blob.length() );
+            return nullIfWasNull( resultSet, value );
+          };
+        }
+        return ( resultSet, column ) -> nullIfWasNull( resultSet, resultSet.getBytes( column ) );
+      case ValueMetaInterface.TYPE_DATE:
+        if ( valueMeta.getPrecision() != 1 && databaseInterface.supportsTimeStampToDateConversion() ) {
+          return ( resultSet, column ) -> nullIfWasNull( resultSet, resultSet.getTimestamp( column ) );
+        }
+        if ( databaseInterface instanceof NetezzaDatabaseMeta ) {
+          return null; // needs the column type of the result set
+        }
+        return ( resultSet, column ) -> nullIfWasNull( resultSet, resultSet.getDate( column ) );
+      default:
+        return null;
+    }
+  }
+
+  private static Object nullIfWasNull( ResultSet resultSet, Object value ) throws SQLException {
+    return resultSet.wasNull() ? null : value;
+  }
+
+  static boolean isDeclaredBy( Class<?> type, Class<?> declaringClass, String methodName, Class<?>... parameterTypes ) {
+    try {
+      return type.getMethod( methodName, parameterTypes ).getDeclaringClass() == declaringClass;
+    } catch ( NoSuchMethodException | SecurityException e ) {
+      return false;
+    }
+  }
+}
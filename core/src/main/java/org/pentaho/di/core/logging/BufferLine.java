@@ -21,6 +21,9 @@ public class BufferLine {
   private int nr;
   private KettleLoggingEvent event;
 
+  /** The log channel IDs (own channel first, then its ancestors) this line is indexed under by the LoggingBuffer **/
+  private String[] indexKeys;
+
   public BufferLine( KettleLoggingEvent event ) {
     this.event = event;
     this.nr = sequence.incrementAndGet();
@@ -34,6 +37,14 @@ public class BufferLine {
     return event;
   }
 
+  String[] getIndexKeys() {
+    return indexKeys;
+  }
+
+  void setIndexKeys( String[] indexKeys ) {
+    this.indexKeys = indexKeys;
+  }
+
   @Override
   public String toString() {
     return event.toString();
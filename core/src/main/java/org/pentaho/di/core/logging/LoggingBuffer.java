@@ -18,10 +18,12 @@ import org.apache.commons.lang3.mutable.MutableInt;
 import org.pentaho.di.core.Const;
 import org.pentaho.di.core.util.Utils;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.CopyOnWriteArrayList;
@@ -41,6 +43,14 @@ public class LoggingBuffer {
 
   private ConcurrentSkipListMap<Integer, BufferLine> buffer;
 
+  //Index of the buffered lines per log channel.  A line is filed under its own channel and under all of its ancestor
+  //channels, so the log of a transformation or job including all of its children is a single range lookup instead of
+  //a scan of the whole buffer filtered by the children list from the LoggingRegistry.
+  private Map<String, ConcurrentSkipListMap<Integer, BufferLine>> channelIndex = new ConcurrentHashMap<>();
+
+  //Index of the buffered lines logged on channels of type GENERAL
+  private ConcurrentSkipListMap<Integer, BufferLine> generalIndex = new ConcurrentSkipListMap<>();
+
   //Keeps track of the lead line number sent for a tail.  So the next time it can start from there instead of filtering
   //the entire buffer.  This matters when bufferSize is large
   private Map<String, Integer> tailMap = new ConcurrentHashMap<>();
@@ -155,13 +165,53 @@ public class LoggingBuffer {
    */
   public List<KettleLoggingEvent> getLogBufferFromTo( String parentLogChannelId, boolean includeGeneral, int from,
                                                       int to, int tailLines ) {
+    if ( parentLogChannelId == null ) {
+      return getLogBufferFromTo( Collections.<String>emptyList(), includeGeneral, from, to, tailLines, null );
+    }
+    if ( from > to ) {
+      return Collections.<KettleLoggingEvent>emptyList();
+    }
+    Integer lastLineUsed;
+    if ( tailLines > 0 && ( lastLineUsed = tailMap.get( parentLogChannelId ) ) != null ) {
+      from = Math.max( from, lastLineUsed );
+    }
+
     // Typically, the log channel id is the one from the transformation or job running currently.
     // However, we also want to see the details of the steps etc.
-    // So we need to look at the parents all the way up if needed...
+    // Those are filed under the parent channel in the index as well, so we only need to look at its range.
     //
-    List<String> childIds = loggingRegistry.getLogChannelChildren( parentLogChannelId );
+    List<BufferLine> bl = getIndexedLines( parentLogChannelId, includeGeneral, from, to, 0 );
+    int count = bl.size();
+    if ( tailLines > 0 && count > tailLines ) {
+      bl = bl.subList( count - tailLines, count );
+      tailMap.put( parentLogChannelId, bl.get( 0 ).getNr() ); //remember the first item so we can start there next time
+    }
+    return bl.stream().map( BufferLine::getEvent ).collect( Collectors.toList() );
+  }
 
-    return getLogBufferFromTo( childIds, includeGeneral, from, to, tailLines, parentLogChannelId );
+  /**
+   * Cursor based, incremental retrieval of the log of a channel and all of its children. Only the lines logged after
+   * the given line number are visited, so a poller that passes back the number it received last time pays for the new
+   * lines only.
+   *
+   * @param parentLogChannelId the parent log channel ID to grab
+   * @param includeGeneral     include general log lines
+   * @param lastNr             the number of the last line the caller has seen (0 for all lines). Receives the number of
+   *                           the last line returned, it is left unchanged if no new lines are available.
+   * @param maxLines           the maximum number of lines to return, 0 or lower means: no limit
+   * @return the new log lines, oldest first
+   */
+  public List<KettleLoggingEvent> getLogBufferAfter( String parentLogChannelId, boolean includeGeneral,
+                                                     MutableInt lastNr, int maxLines ) {
+    if ( parentLogChannelId == null || lastNr.intValue() == Integer.MAX_VALUE ) {
+      return Collections.<KettleLoggingEvent>emptyList();
+    }
+    List<BufferLine> bl =
+      getIndexedLines( parentLogChannelId, includeGeneral, lastNr.intValue() + 1, Integer.MAX_VALUE, maxLines );
+    if ( !bl.isEmpty() ) {
+      lastNr.setValue( bl.get( bl.size() - 1 ).getNr() );
+    }
+    return bl.stream().map( BufferLine::getEvent ).collect( Collectors.toList() );
   }
 
   public StringBuffer getBuffer( String parentLogChannelId, boolean includeGeneral, int startLineNr, int endLineNr ) {
@@ -201,6 +251,28 @@ public class LoggingBuffer {
     return getBuffer( parentLogChannelId, includeGeneral, startLine, newLastNr.getValue() );
   }
 
+  /**
+   * Formatted version of {@link #getLogBufferAfter(String, boolean, MutableInt, int)}.
+   *
+   * @param parentLogChannelId the parent log channel ID to grab
+   * @param includeGeneral     include general log lines
+   * @param lastNr             the number of the last line the caller has seen, receives the number of the last line
+   *                           returned
+   * @param maxLines           the maximum number of lines to return, 0 or lower means: no limit
+   * @return the formatted new log lines
+   */
+  public StringBuffer getBufferAfter( String parentLogChannelId, boolean includeGeneral, MutableInt lastNr,
+                                      int maxLines ) {
+    StringBuilder eventBuffer = new StringBuilder( 10000 );
+
+    List<KettleLoggingEvent> events = getLogBufferAfter( parentLogChannelId, includeGeneral, lastNr, maxLines );
+    for ( KettleLoggingEvent event : events ) {
+      eventBuffer.append( layout.format( event ) ).append( Const.CR );
+    }
+
+    return new StringBuffer( eventBuffer );
+  }
+
   public StringBuffer getBuffer() {
     return getBuffer( null, true );
   }
@@ -211,9 +283,14 @@ public class LoggingBuffer {
   public void doAppend( KettleLoggingEvent event ) {
     if ( event.getMessage() instanceof LogMessage ) {
       BufferLine bufferLine = new BufferLine( event );
+      // Index before publishing the line so that whoever evicts it from the buffer also finds it in the index
+      indexLine( bufferLine );
       buffer.put( bufferLine.getNr(), bufferLine );
       while ( bufferSize > 0 && buffer.size() > bufferSize ) {
-        buffer.remove( buffer.firstKey() );
+        Map.Entry<Integer, BufferLine> first = buffer.pollFirstEntry();
+        if ( first != null ) {
+          unindexLine( first.getValue() );
+        }
       }
     }
   }
@@ -240,6 +317,8 @@ public class LoggingBuffer {
 
   public void clear() {
     buffer.clear();
+    channelIndex.clear();
+    generalIndex.clear();
   }
 
   /**
@@ -269,7 +348,10 @@ public class LoggingBuffer {
    * @param id the id of the logging channel to remove
    */
   public void removeChannelFromBuffer( String id ) {
-    buffer.values().stream().filter( line -> id.equals( getLogChId( line ) ) ).forEach( line -> buffer.remove( line.getNr() ) );
+    NavigableMap<Integer, BufferLine> lines = channelIndex.get( id );
+    if ( lines != null ) {
+      lines.values().stream().filter( line -> id.equals( getLogChId( line ) ) ).forEach( this::removeLine );
+    }
     tailMap.remove( id );
 
 /*    for ( BufferLine line : buffer.values() ) {
@@ -286,7 +368,7 @@ public class LoggingBuffer {
   public void removeGeneralMessages() {
     for ( BufferLine line : buffer.values() ) {
       if ( isGeneral( getLogChId( line ) ) ) {
-        buffer.remove( line.getNr() );
+        removeLine( line );
       }
     }
   }
@@ -326,7 +408,7 @@ public class LoggingBuffer {
    */
   @Deprecated
   public void removeBufferLines( List<BufferLine> linesToRemove ) {
-    linesToRemove.stream().forEach( v -> buffer.remove( v.getNr() ) );
+    linesToRemove.stream().forEach( this::removeLine );
   }
 
   /**
@@ -340,7 +422,7 @@ public class LoggingBuffer {
   }
 
   public void removeBufferLinesBefore( long minTimeBoundary ) {
-    buffer.values().stream().filter( v -> v.getEvent().timeStamp < minTimeBoundary ).forEach( v -> buffer.remove( v.getNr() ) );
+    buffer.values().stream().filter( v -> v.getEvent().timeStamp < minTimeBoundary ).forEach( this::removeLine );
   }
 
   public void addLogggingEvent( KettleLoggingEvent loggingEvent ) {
@@ -361,6 +443,89 @@ public class LoggingBuffer {
     return loggingObject != null && LoggingObjectType.GENERAL.equals( loggingObject.getObjectType() );
   }
 
+  /**
+   * Files the line under its own log channel, all ancestors of that channel and, when applicable, the general lines.
+   */
+  private void indexLine( BufferLine line ) {
+    String logChannelId = getLogChId( line );
+    if ( logChannelId == null ) {
+      return;
+    }
+    List<String> keys = new ArrayList<>( 4 );
+    String id = logChannelId;
+    while ( id != null && !keys.contains( id ) ) {
+      LoggingObjectInterface loggingObject = loggingRegistry.getLoggingObject( id );
+      if ( keys.isEmpty() && loggingObject != null
+        && LoggingObjectType.GENERAL.equals( loggingObject.getObjectType() ) ) {
+        generalIndex.put( line.getNr(), line );
+      }
+      keys.add( id );
+      LoggingObjectInterface parent = loggingObject == null ? null : loggingObject.getParent();
+      id = parent == null ? null : parent.getLogChannelId();
+    }
+    line.setIndexKeys( keys.toArray( new String[ keys.size() ] ) );
+    for ( String key : keys ) {
+      channelIndex.compute( key, ( k, lines ) -> {
+        ConcurrentSkipListMap<Integer, BufferLine> result = lines == null ? new ConcurrentSkipListMap<>() : lines;
+        result.put( line.getNr(), line );
+        return result;
+      } );
+    }
+  }
+
+  private void unindexLine( BufferLine line ) {
+    generalIndex.remove( line.getNr() );
+    String[] keys = line.getIndexKeys();
+    if ( keys == null ) {
+      return;
+    }
+    for ( String key : keys ) {
+      channelIndex.computeIfPresent( key, ( k, lines ) -> {
+        lines.remove( line.getNr() );
+        return lines.isEmpty() ? null : lines;
+      } );
+    }
+  }
+
+  private void removeLine( BufferLine line ) {
+    if ( buffer.remove( line.getNr(), line ) ) {
+      unindexLine( line );
+    }
+  }
+
+  /**
+   * Collects the indexed lines of a channel (and optionally the general lines) in the range [from, to], ordered by line
+   * number.
+   *
+   * @param maxLines the maximum number of lines to collect, 0 or lower means: no limit
+   */
+  private List<BufferLine> getIndexedLines( String logChannelId, boolean includeGeneral, int from, int to,
+                                            int maxLines ) {
+    NavigableMap<Integer, BufferLine> channelLines = channelIndex.get( logChannelId );
+    Iterator<BufferLine> channelIt = channelLines == null ? Collections.<BufferLine>emptyIterator()
+      : channelLines.subMap( from, true, to, true ).values().iterator();
+    Iterator<BufferLine> generalIt = includeGeneral
+      ? generalIndex.subMap( from, true, to, true ).values().iterator() : Collections.<BufferLine>emptyIterator();
+
+    List<BufferLine> lines = new ArrayList<>();
+    BufferLine channelLine = channelIt.hasNext() ? channelIt.next() : null;
+    BufferLine generalLine = generalIt.hasNext() ? generalIt.next() : null;
+    while ( ( channelLine != null || generalLine != null ) && ( maxLines <= 0 || lines.size() < maxLines ) ) {
+      if ( generalLine == null || ( channelLine != null && channelLine.getNr() < generalLine.getNr() ) ) {
+        lines.add( channelLine );
+        channelLine = channelIt.hasNext() ? channelIt.next() : null;
+      } else {
+        if ( channelLine != null && channelLine.getNr() == generalLine.getNr() ) {
+          // General line of the channel itself, it's in both indexes
+          channelLine = channelIt.hasNext() ? channelIt.next() : null;
+        }
+        lines.add( generalLine );
+        generalLine = generalIt.hasNext() ? generalIt.next() : null;
+      }
+    }
+    return lines;
+  }
+
   private static String getLogChId( BufferLine bufferLine ) {
     return ( (LogMessage) bufferLine.getEvent().getMessage() ).getLogChannelId();
   }
@@ -0,0 +1,176 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.core.row;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+import org.pentaho.di.core.exception.KettleValueException;
+import org.pentaho.di.core.row.value.ValueMetaBase;
+import org.pentaho.di.core.row.value.ValueMetaBigNumber;
+import org.pentaho.di.core.row.value.ValueMetaDate;
+import org.pentaho.di.core.row.value.ValueMetaInteger;
+import org.pentaho.di.core.row.value.ValueMetaNumber;
+import org.pentaho.di.core.row.value.ValueMetaString;
+
+/**
+ * Compares rows on a number of key fields, with the same result as
+ * {@link RowMetaInterface#compare(Object[], Object[], int[])}.
+ * <p>
+ * The comparison of every key is chosen once, from the metadata: integers, numbers, dates, big numbers and strings that
+ * are stored as normal values, and that don't need a collator or another special treatment, are compared directly
+ * on their Java values. All other keys, and nulls and empty strings, go through {@link ValueMetaInterface#compare}. The
+ * metadata is read at construction, so create the comparator once the sort direction and such are final.
+ */
+public class RowKeyComparator {
+  private static final int GENERIC = 0;
+  private static final int INTEGER = 1;
+  private static final int NUMBER = 2;
+  private static final int STRING = 3;
+  private static final int DATE = 4;
+  private static final int BIGNUMBER = 5;
+
+  private final RowMetaInterface rowMeta;
+  private final int[] keys;
+  private final ValueMetaInterface[] valueMetas;
+  private final int[] kinds;
+  private final boolean[] descending;
+
+  /**
+   * @param rowMeta the metadata of the rows
+   * @param keys    the indexes of the key fields, in order of significance
+   */
+  public RowKeyComparator( RowMetaInterface rowMeta, int[] keys ) {
+    this.rowMeta = rowMeta;
+    this.keys = keys;
+    this.valueMetas = new ValueMetaInterface[ keys.length ];
+    this.kinds = new int[ keys.length ];
+    this.descending = new boolean[ keys.length ];
+    for ( int i = 0; i < keys.length; i++ ) {
+      ValueMetaInterface valueMeta = rowMeta.getValueMeta( keys[ i ] );
+      valueMetas[ i ] = valueMeta;
+      kinds[ i ] = getKind( valueMeta );
+      descending[ i ] = valueMeta.isSortedDescending();
+    }
+  }
+
+  private static int getKind( ValueMetaInterface valueMeta ) {
+    if ( !valueMeta.isStorageNormal() || !( valueMeta instanceof ValueMetaBase )
+      || ( (ValueMetaBase) valueMeta ).hasCustomComparator() ) {
+      return GENERIC;
+    }
+    Class<?> valueMetaClass = valueMeta.getClass();
+    if ( valueMetaClass == ValueMetaInteger.class ) {
+      return INTEGER;
+    }
+    if ( valueMetaClass == ValueMetaNumber.class ) {
+      return NUMBER;
+    }
+    if ( valueMetaClass == ValueMetaDate.class ) {
+      return DATE;
+    }
+    if ( valueMetaClass == ValueMetaBigNumber.class ) {
+      return BIGNUMBER;
+    }
+    if ( valueMetaClass == ValueMetaString.class && valueMeta.isCollatorDisabled() && !valueMeta.isCaseInsensitive()
+      && !valueMeta.isIgnoreWhitespace() ) {
+      return STRING;
+    }
+    return GENERIC;
+  }
+
+  public RowMetaInterface getRowMeta() {
+    return rowMeta;
+  }
+
+  public int[] getKeys() {
+    return keys;
+  }
+
+  /**
+   * Compares two rows with the metadata of this comparator.
+   */
+  public int compare( Object[] row1, Object[] row2 ) throws KettleValueException {
+    for ( int i = 0; i < keys.length; i++ ) {
+      int key = keys[ i ];
+      int cmp = compareValue( i, kinds[ i ], row1[ key ], valueMetas[ i ], row2[ key ] );
+      if ( cmp != 0 ) {
+        return cmp;
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * Compares a row of this comparator with a row of another layout, the same as
+   * {@link RowMetaInterface#compare(Object[], RowMetaInterface, Object[], int[], int[])}.
+   */
+  public int compare( Object[] row1, RowKeyComparator other, Object[] row2 ) throws KettleValueException {
+    int length = Math.min( keys.length, other.keys.length );
+    for ( int i = 0; i < length; i++ ) {
+      Object value1 = row1[ keys[ i ] ];
+      Object value2 = row2[ other.keys[ i ] ];
+      int cmp;
+      if ( kinds[ i ] == other.kinds[ i ] ) {
+        cmp = compareValue( i, kinds[ i ], value1, other.valueMetas[ i ], value2 );
+      } else {
+        cmp = valueMetas[ i ].compare( value1, other.valueMetas[ i ], value2 );
+      }
+      if ( cmp != 0 ) {
+        return cmp;
+      }
+    }
+    return 0;
+  }
+
+  private int compareValue( int i, int kind, Object value1, ValueMetaInterface valueMeta2, Object value2 )
+    throws KettleValueException {
+    if ( kind == GENERIC || value1 == null || value2 == null ) {
+      return compareGeneric( i, value1, valueMeta2, value2 );
+    }
+    int cmp;
+    switch ( kind ) {
+      case INTEGER:
+        cmp = Long.compare( (Long) value1, (Long) value2 );
+        break;
+      case NUMBER:
+        cmp = Double.compare( (Double) value1, (Double) value2 );
+        break;
+      case DATE:
+        cmp = Long.compare( ( (Date) value1 ).getTime(), ( (Date) value2 ).getTime() );
+        break;
+      case BIGNUMBER:
+        cmp = ( (BigDecimal) value1 ).compareTo( (BigDecimal) value2 );
+        break;
+      default:
+        String string1 = (String) value1;
+        String string2 = (String) value2;
+        if ( string1.isEmpty() || string2.isEmpty() ) {
+          // Empty strings can be null, depending on the configuration
+          return compareGeneric( i, value1, valueMeta2, value2 );
+        }
+        cmp = string1.compareTo( string2 );
+        break;
+    }
+    return descending[ i ] ? -cmp : cmp;
+  }
+
+  private int compareGeneric( int i, Object value1, ValueMetaInterface valueMeta2, Object value2 )
+    throws KettleValueException {
+    if ( valueMetas[ i ] == valueMeta2 ) {
+      return valueMetas[ i ].compare( value1, value2 );
+    }
+    return valueMetas[ i ].compare( value1, valueMeta2, value2 );
+  }
+}
@@ -0,0 +1,161 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.core.row;
+
+import org.pentaho.di.core.exception.KettleValueException;
+
+/**
+ * Tournament tree for the k-way merge of sorted inputs. Every input has a slot that holds its current row, or null once
+ * the input is exhausted. Replacing the row of a slot replays the matches on the path to the root only, so the next row
+ * is found with log2(k) comparisons, without any allocation.
+ * <p>
+ * Rows that compare equal are returned in the order of their slots.
+ */
+public class RowMergeTree {
+
+  /**
+   * Compares the current rows of two slots.
+   */
+  public interface SlotComparator {
+    int compare( int slot1, Object[] row1, int slot2, Object[] row2 ) throws KettleValueException;
+  }
+
+  private final int slots;
+  private final SlotComparator comparator;
+  private final Object[][] rows;
+
+  /** The winning slot of every match: the leaves are at slots + slot, the root is at 1 */
+  private final int[] winners;
+
+  private int size;
+
+  /**
+   * @param slots      the number of inputs
+   * @param comparator compares the rows of the inputs
+   */
+  public RowMergeTree( int slots, SlotComparator comparator ) {
+    this.slots = slots;
+    this.comparator = comparator;
+    this.rows = new Object[ slots ][];
+    this.winners = new int[ 2 * Math.max( 1, slots ) ];
+    for ( int slot = 0; slot < slots; slot++ ) {
+      winners[ slots + slot ] = slot;
+    }
+    if ( slots == 1 ) {
+      winners[ 1 ] = 0;
+    }
+  }
+
+  /**
+   * Merges rows that all have the same layout.
+   */
+  public RowMergeTree( int slots, RowKeyComparator comparator ) {
+    this( slots, ( slot1, row1, slot2, row2 ) -> comparator.compare( row1, row2 ) );
+  }
+
+  /**
+   * Sets the current rows of all the slots at once, in linear time.
+   *
+   * @param initialRows the first row of every input, null for an empty input
+   */
+  public void setAll( Object[][] initialRows ) throws KettleValueException {
+    size = 0;
+    for ( int slot = 0; slot < slots; slot++ ) {
+      rows[ slot ] = initialRows[ slot ];
+      if ( rows[ slot ] != null ) {
+        size++;
+      }
+    }
+    for ( int node = slots - 1; node >= 1; node-- ) {
+      winners[ node ] = play( winners[ 2 * node ], winners[ 2 * node + 1 ] );
+    }
+  }
+
+  /**
+   * Replaces the current row of a slot.
+   *
+   * @param slot the slot
+   * @param row  the new row of the slot, null if the input is exhausted
+   */
+  public void set( int slot, Object[] row ) throws KettleValueException {
+    if ( rows[ slot ] != null ) {
+      size--;
+    }
+    if ( row != null ) {
+      size++;
+    }
+    rows[ slot ] = row;
+    for ( int node = ( slots + slot ) >> 1; node >= 1; node >>= 1 ) {
+      winners[ node ] = play( winners[ 2 * node ], winners[ 2 * node + 1 ] );
+    }
+  }
+
+  /**
+   * @return the slot with the smallest row, -1 if all slots are empty
+   */
+  public int peekSlot() {
+    if ( size == 0 ) {
+      return -1;
+    }
+    return winners[ 1 ];
+  }
+
+  /**
+   * @return the smallest row, null if all slots are empty
+   */
+  public Object[] peekRow() {
+    if ( size == 0 ) {
+      return null;
+    }
+    return rows[ winners[ 1 ] ];
+  }
+
+  /**
+   * @return the current row of a slot, null if it is empty
+   */
+  public Object[] getRow( int slot ) {
+    return rows[ slot ];
+  }
+
+  /**
+   * @return the number of slots that have a row
+   */
+  public int size() {
+    return size;
+  }
+
+  public int getSlots() {
+    return slots;
+  }
+
+  public SlotComparator getComparator() {
+    return comparator;
+  }
+
+  private int play( int slot1, int slot2 ) throws KettleValueException {
+    Object[] row1 = rows[ slot1 ];
+    Object[] row2 = rows[ slot2 ];
+    if ( row1 == null ) {
+      return row2 == null ? Math.min( slot1, slot2 ) : slot2;
+    }
+    if ( row2 == null ) {
+      return slot1;
+    }
+    int cmp = comparator.compare( slot1, row1, slot2, row2 );
+    if ( cmp < 0 || ( cmp == 0 && slot1 < slot2 ) ) {
+      return slot1;
+    }
+    return slot2;
+  }
+}
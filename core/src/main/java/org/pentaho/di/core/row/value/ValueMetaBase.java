@@ -763,6 +763,13 @@ public class ValueMetaBase implements ValueMetaInterface {
     this.collatorDisabled = collatorDisabled;
   }
 
+  /**
+   * @return true if the values are compared with the comparator given at construction instead of by data type
+   */
+  public boolean hasCustomComparator() {
+    return comparator != null;
+  }
+
   @Override
   public Locale getCollatorLocale() {
     return this.collatorLocale;
@@ -0,0 +1,272 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.core.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An in-memory pipe between a thread that writes bytes and a thread that reads them, to feed a bulk loader without a
+ * FIFO file or a data file on disk.
+ * <p>
+ * The bytes are passed on in blocks. The writer fills a block while the reader drains the ones before it, so the rows
+ * are formatted and loaded at the same time; the number of blocks limits how far the writer can run ahead. When one
+ * side gives up, the other side gets an IOException instead of waiting forever.
+ */
+public class BufferedPipe {
+
+  public static final int DEFAULT_BLOCK_SIZE = 256 * 1024;
+
+  private static final long POLL_MILLIS = 100L;
+
+  private static final Block END = new Block( 0 );
+
+  private final int blockSize;
+  private final BlockingQueue<Block> filled;
+  private final BlockingQueue<Block> free;
+  private final PipeOutputStream outputStream = new PipeOutputStream();
+  private final PipeInputStream inputStream = new PipeInputStream();
+
+  private volatile String failure;
+
+  /**
+   * @param blockSize the number of bytes handed over at a time
+   * @param blocks    the number of blocks, at least 2: one being written and one being read
+   */
+  public BufferedPipe( int blockSize, int blocks ) {
+    this.blockSize = Math.max( 1, blockSize );
+    int count = Math.max( 2, blocks );
+    filled = new ArrayBlockingQueue<>( count + 1 );
+    free = new ArrayBlockingQueue<>( count );
+    for ( int i = 0; i < count; i++ ) {
+      free.add( new Block( this.blockSize ) );
+    }
+  }
+
+  /**
+   * @return the stream to write to; closing it signals the end of the data to the reader
+   */
+  public OutputStream getOutputStream() {
+    return outputStream;
+  }
+
+  /**
+   * @return the stream to read from; closing it before the end makes the writer fail
+   */
+  public InputStream getInputStream() {
+    return inputStream;
+  }
+
+  /**
+   * Writes all the data to the given stream, a block at a time, until the writer closes the pipe. The given stream is
+   * not closed.
+   */
+  public void writeTo( OutputStream out ) throws IOException {
+    inputStream.writeTo( out );
+  }
+
+  /**
+   * Stops the pipe: the reader fails instead of reading the end of the data, the writer fails on its next block.
+   */
+  public void abort( String message ) {
+    if ( failure == null ) {
+      failure = message;
+    }
+  }
+
+  private Block take( BlockingQueue<Block> queue ) throws IOException {
+    try {
+      while ( true ) {
+        checkFailure();
+        Block block = queue.poll( POLL_MILLIS, TimeUnit.MILLISECONDS );
+        if ( block != null ) {
+          return block;
+        }
+      }
+    } catch ( InterruptedException e ) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException( "Interrupted while waiting for the pipe" );
+    }
+  }
+
+  private void put( BlockingQueue<Block> queue, Block block ) throws IOException {
+    try {
+      while ( true ) {
+        checkFailure();
+        if ( queue.offer( block, POLL_MILLIS, TimeUnit.MILLISECONDS ) ) {
+          return;
+        }
+      }
+    } catch ( InterruptedException e ) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException( "Interrupted while waiting for the pipe" );
+    }
+  }
+
+  private void checkFailure() throws IOException {
+    String message = failure;
+    if ( message != null ) {
+      throw new IOException( message );
+    }
+  }
+
+  private static class Block {
+    private final byte[] data;
+    private int length;
+    private int position;
+
+    Block( int size ) {
+      data = new byte[ size ];
+    }
+  }
+
+  private class PipeOutputStream extends OutputStream {
+    private Block current;
+    private boolean closed;
+
+    @Override
+    public void write( int b ) throws IOException {
+      write( new byte[] { (byte) b }, 0, 1 );
+    }
+
+    @Override
+    public void write( byte[] b, int off, int len ) throws IOException {
+      if ( closed ) {
+        throw new IOException( "The pipe is closed" );
+      }
+      while ( len > 0 ) {
+        if ( current == null ) {
+          current = take( free );
+        }
+        int chunk = Math.min( len, blockSize - current.length );
+        System.arraycopy( b, off, current.data, current.length, chunk );
+        current.length += chunk;
+        off += chunk;
+        len -= chunk;
+        if ( current.length == blockSize ) {
+          handOver();
+        }
+      }
+    }
+
+    /**
+     * Hands the block that is being filled to the reader.
+     */
+    @Override
+    public void flush() throws IOException {
+      if ( !closed ) {
+        handOver();
+      }
+    }
+
+    @Override
+    public void close() throws IOException {
+      if ( closed ) {
+        return;
+      }
+      handOver();
+      put( filled, END );
+      closed = true;
+    }
+
+    private void handOver() throws IOException {
+      if ( current != null && current.length > 0 ) {
+        put( filled, current );
+        current = null;
+      }
+    }
+  }
+
+  private class PipeInputStream extends InputStream {
+    private Block current;
+    private boolean closed;
+
+    @Override
+    public int read() throws IOException {
+      byte[] b = new byte[ 1 ];
+      return read( b, 0, 1 ) < 0 ? -1 : b[ 0 ] & 0xFF;
+    }
+
+    @Override
+    public int read( byte[] b, int off, int len ) throws IOException {
+      if ( len == 0 ) {
+        return 0;
+      }
+      if ( !nextBlock() ) {
+        return -1;
+      }
+      int chunk = Math.min( len, current.length - current.position );
+      System.arraycopy( current.data, current.position, b, off, chunk );
+      current.position += chunk;
+      return chunk;
+    }
+
+    @Override
+    public int available() {
+      return current == null || current == END ? 0 : current.length - current.position;
+    }
+
+    void writeTo( OutputStream out ) throws IOException {
+      try {
+        while ( nextBlock() ) {
+          out.write( current.data, current.position, current.length - current.position );
+          current.position = current.length;
+        }
+      } catch ( IOException e ) {
+        close();
+        throw e;
+      }
+    }
+
+    /**
+     * @return false at the end of the data
+     */
+    private boolean nextBlock() throws IOException {
+      if ( closed ) {
+        throw new IOException( "The pipe is closed" );
+      }
+      if ( current == END ) {
+        return false;
+      }
+      if ( current != null && current.position < current.length ) {
+        return true;
+      }
+      if ( current != null ) {
+        current.length = 0;
+        current.position = 0;
+        free.offer( current );
+      }
+      current = take( filled );
+      return current != END;
+    }
+
+    @Override
+    public void close() {
+      if ( closed ) {
+        return;
+      }
+      closed = true;
+      if ( current != END ) {
+        // The writer can't hand over any more data
+        abort( "The reader closed the pipe before the end of the data" );
+      }
+      filled.clear();
+    }
+  }
+}
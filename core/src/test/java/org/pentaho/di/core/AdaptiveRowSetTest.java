@@ -0,0 +1,104 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class AdaptiveRowSetTest {
+
+  @Test
+  public void testCapacityDependsOnTheRowSize() {
+    RowSetMemoryBudget budget = new RowSetMemoryBudget( 200000 );
+    AdaptiveRowSet narrow = new AdaptiveRowSet( budget );
+    AdaptiveRowSet wide = new AdaptiveRowSet( budget );
+    long base = budget.getBaseBytes();
+
+    Object[] narrowRow = new Object[] { 1L };
+    Object[] wideRow = new Object[] { new String( new char[ 1000 ] ), new String( new char[ 1000 ] ) };
+    assertTrue( narrow.putRow( null, narrowRow ) );
+    assertTrue( wide.putRow( null, wideRow ) );
+
+    assertEquals( base / AdaptiveRowSet.estimateBytes( narrowRow ), narrow.getCapacity() );
+    assertEquals( Math.max( AdaptiveRowSet.MIN_ROWS, base / AdaptiveRowSet.estimateBytes( wideRow ) ),
+      wide.getCapacity() );
+    assertTrue( wide.getCapacity() < narrow.getCapacity() );
+  }
+
+  @Test
+  public void testGrowsWhenFullAndGivesBackWhenEmpty() {
+    RowSetMemoryBudget budget = new RowSetMemoryBudget( 20000 );
+    AdaptiveRowSet rowSet = new AdaptiveRowSet( budget );
+    Object[] row = new Object[] { 1L };
+    int baseCapacity = (int) ( budget.getBaseBytes() / AdaptiveRowSet.estimateBytes( row ) );
+
+    for ( int i = 0; i < baseCapacity; i++ ) {
+      assertTrue( rowSet.putRowWait( null, row, 0, TimeUnit.MILLISECONDS ) );
+    }
+    assertEquals( 10000, budget.getFreeBytes() );
+
+    // The buffer is full: it borrows the free half of the budget
+    assertTrue( rowSet.putRowWait( null, row, 0, TimeUnit.MILLISECONDS ) );
+    assertEquals( 0, budget.getFreeBytes() );
+    assertEquals( 2 * baseCapacity, rowSet.getCapacity() );
+    assertEquals( 0, rowSet.getFullWaits() );
+
+    while ( rowSet.size() < rowSet.getCapacity() ) {
+      assertTrue( rowSet.putRowWait( null, row, 0, TimeUnit.MILLISECONDS ) );
+    }
+    // Nothing left to borrow, the writer has to wait
+    assertFalse( rowSet.putRowWait( null, row, 0, TimeUnit.MILLISECONDS ) );
+    assertEquals( 1, rowSet.getFullWaits() );
+    assertEquals( 2 * baseCapacity, rowSet.getPeakSize() );
+
+    while ( rowSet.getRowImmediate() != null ) {
+      // drain the buffer
+    }
+    // The reader keeps up, the borrowed memory goes back to the budget
+    assertNull( rowSet.getRowWait( 0, TimeUnit.MILLISECONDS ) );
+    assertEquals( 10000, budget.getFreeBytes() );
+    assertEquals( baseCapacity, rowSet.getCapacity() );
+  }
+
+  @Test
+  public void testRowsComeOutInOrderAcrossThreads() throws Exception {
+    final AdaptiveRowSet rowSet = new AdaptiveRowSet( new RowSetMemoryBudget( 4096 ) );
+    final int nrRows = 10000;
+    Thread writer = new Thread( () -> {
+      for ( long i = 0; i < nrRows; i++ ) {
+        while ( !rowSet.putRow( null, new Object[] { i } ) ) {
+          // wait for room
+        }
+      }
+      rowSet.setDone();
+    } );
+    writer.start();
+
+    long expected = 0;
+    while ( !rowSet.isDone() || rowSet.size() > 0 ) {
+      Object[] row = rowSet.getRow();
+      if ( row != null ) {
+        assertEquals( expected++, row[ 0 ] );
+      }
+    }
+    writer.join();
+    assertEquals( nrRows, expected );
+  }
+}
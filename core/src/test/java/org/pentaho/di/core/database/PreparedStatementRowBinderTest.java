@@ -0,0 +1,108 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.core.database;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.Types;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.pentaho.di.core.exception.KettleDatabaseException;
+import org.pentaho.di.core.row.RowMeta;
+import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.di.core.row.ValueMetaInterface;
+import org.pentaho.di.core.row.value.ValueMetaBigNumber;
+import org.pentaho.di.core.row.value.ValueMetaBoolean;
+import org.pentaho.di.core.row.value.ValueMetaInteger;
+import org.pentaho.di.core.row.value.ValueMetaNumber;
+import org.pentaho.di.core.row.value.ValueMetaString;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class PreparedStatementRowBinderTest {
+
+  private DatabaseMeta databaseMeta;
+  private PreparedStatement ps;
+
+  @Before
+  public void setUp() {
+    databaseMeta = new DatabaseMeta();
+    databaseMeta.setDatabaseInterface( new MySQLDatabaseMeta() );
+    ps = mock( PreparedStatement.class );
+  }
+
+  @Test
+  public void testTypedSetters() throws Exception {
+    RowMetaInterface rowMeta = new RowMeta();
+    rowMeta.addValueMeta( new ValueMetaString( "string" ) );
+    rowMeta.addValueMeta( new ValueMetaInteger( "integer" ) );
+    rowMeta.addValueMeta( new ValueMetaNumber( "number" ) );
+    rowMeta.addValueMeta( new ValueMetaBigNumber( "bignumber" ) );
+    rowMeta.addValueMeta( new ValueMetaBoolean( "boolean" ) );
+    rowMeta.addValueMeta( new ValueMetaInteger( "null" ) );
+
+    PreparedStatementRowBinder binder = new PreparedStatementRowBinder( databaseMeta, rowMeta );
+    binder.setValues( new Object[] { "abc", 12L, 1.5d, BigDecimal.TEN, Boolean.TRUE, null }, ps );
+
+    verify( ps ).setString( 1, "abc" );
+    verify( ps ).setLong( 2, 12L );
+    verify( ps ).setDouble( 3, 1.5d );
+    verify( ps ).setBigDecimal( 4, BigDecimal.TEN );
+    verify( ps ).setString( 5, "Y" );
+    verify( ps ).setNull( 6, Types.INTEGER );
+  }
+
+  @Test
+  public void testOtherRepresentationsGoThroughValueMeta() throws Exception {
+    RowMetaInterface rowMeta = new RowMeta();
+    ValueMetaInterface trimmed = new ValueMetaString( "trimmed" );
+    trimmed.setTrimType( ValueMetaInterface.TRIM_TYPE_BOTH );
+    rowMeta.addValueMeta( trimmed );
+
+    PreparedStatementRowBinder binder = new PreparedStatementRowBinder( databaseMeta, rowMeta );
+    binder.setValues( new Object[] { " abc " }, ps );
+
+    verify( ps ).setString( 1, "abc" );
+  }
+
+  @Test
+  public void testIsFor() {
+    RowMetaInterface rowMeta = new RowMeta();
+    rowMeta.addValueMeta( new ValueMetaString( "string" ) );
+    PreparedStatementRowBinder binder = new PreparedStatementRowBinder( databaseMeta, rowMeta );
+    assertTrue( binder.isFor( rowMeta ) );
+    assertFalse( binder.isFor( rowMeta.clone() ) );
+
+    rowMeta.getValueMeta( 0 ).setStorageType( ValueMetaInterface.STORAGE_TYPE_BINARY_STRING );
+    assertFalse( binder.isFor( rowMeta ) );
+
+    rowMeta.setValueMeta( 0, new ValueMetaString( "string" ) );
+    assertFalse( binder.isFor( rowMeta ) );
+  }
+
+  @Test( expected = KettleDatabaseException.class )
+  public void testSqlExceptionIsWrapped() throws Exception {
+    RowMetaInterface rowMeta = new RowMeta();
+    rowMeta.addValueMeta( new ValueMetaInteger( "integer" ) );
+    doThrow( new java.sql.SQLException( "boom" ) ).when( ps ).setLong( anyInt(), eq( 1L ) );
+    new PreparedStatementRowBinder( databaseMeta, rowMeta ).setValues( new Object[] { 1L }, ps );
+  }
+}
@@ -0,0 +1,65 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.core.database;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+
+import org.junit.Test;
+import org.pentaho.di.core.row.RowMeta;
+import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.di.core.row.value.ValueMetaDate;
+import org.pentaho.di.core.row.value.ValueMetaInteger;
+import org.pentaho.di.core.row.value.ValueMetaString;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ResultSetRowExtractorTest {
+
+  @Test
+  public void testGetRow() throws Exception {
+    DatabaseMeta databaseMeta = new DatabaseMeta();
+    databaseMeta.setDatabaseInterface( new MySQLDatabaseMeta() );
+
+    RowMetaInterface rowMeta = new RowMeta();
+    rowMeta.addValueMeta( new ValueMetaString( "string" ) );
+    rowMeta.addValueMeta( new ValueMetaInteger( "integer" ) );
+    rowMeta.addValueMeta( new ValueMetaInteger( "null" ) );
+    rowMeta.addValueMeta( new ValueMetaDate( "date" ) );
+
+    Timestamp timestamp = new Timestamp( 1000L );
+    ResultSet resultSet = mock( ResultSet.class );
+    when( resultSet.getString( 1 ) ).thenReturn( "abc" );
+    when( resultSet.getLong( 2 ) ).thenReturn( 12L );
+    when( resultSet.getLong( 3 ) ).thenReturn( 0L );
+    when( resultSet.getTimestamp( 4 ) ).thenReturn( timestamp );
+    when( resultSet.wasNull() ).thenReturn( false, false, true, false );
+
+    ResultSetRowExtractor extractor = new ResultSetRowExtractor( databaseMeta, rowMeta );
+    assertTrue( extractor.isFor( rowMeta ) );
+    assertFalse( extractor.isFor( rowMeta.clone() ) );
+
+    Object[] row = extractor.getRow( resultSet );
+    assertTrue( row.length >= 4 );
+    assertEquals( "abc", row[ 0 ] );
+    assertEquals( 12L, row[ 1 ] );
+    assertNull( row[ 2 ] );
+    assertEquals( timestamp, row[ 3 ] );
+  }
+}
@@ -16,10 +16,12 @@ package org.pentaho.di.core.logging;
 
 import org.junit.Assert;
 
+import org.apache.commons.lang3.mutable.MutableInt;
 import org.junit.Test;
 import org.pentaho.di.core.Const;
 
 import java.util.Iterator;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -179,4 +181,71 @@ public class LoggingBufferTest {
     Assert.assertEquals( 10, loggingBuffer.size() );
   }
 
+  @Test
+  public void testLogBufferOfParentIncludesChildren() {
+    LoggingRegistry registry = LoggingRegistry.getInstance();
+    SimpleLoggingObject parent = new SimpleLoggingObject( "parent", LoggingObjectType.TRANS, null );
+    String parentId = registry.registerLoggingSource( parent );
+    parent.setLogChannelId( parentId );
+    String childId = registry.registerLoggingSource( new SimpleLoggingObject( "child", LoggingObjectType.STEP, parent ) );
+    String otherId = registry.registerLoggingSource( new SimpleLoggingObject( "other", LoggingObjectType.TRANS, null ) );
+
+    LoggingBuffer loggingBuffer = new LoggingBuffer( 100 );
+    addEvent( loggingBuffer, "parent 1", parentId );
+    addEvent( loggingBuffer, "other 1", otherId );
+    addEvent( loggingBuffer, "child 1", childId );
+    addEvent( loggingBuffer, "parent 2", parentId );
+
+    List<KettleLoggingEvent> events =
+      loggingBuffer.getLogBufferFromTo( parentId, false, 0, loggingBuffer.getLastBufferLineNr() );
+    Assert.assertEquals( 3, events.size() );
+    Assert.assertEquals( "parent 1", ( (LogMessage) events.get( 0 ).getMessage() ).getMessage() );
+    Assert.assertEquals( "child 1", ( (LogMessage) events.get( 1 ).getMessage() ).getMessage() );
+    Assert.assertEquals( "parent 2", ( (LogMessage) events.get( 2 ).getMessage() ).getMessage() );
+    Assert.assertEquals( 1, loggingBuffer.getLogBufferFromTo( childId, false, 0, loggingBuffer.getLastBufferLineNr() ).size() );
+
+    loggingBuffer.removeChannelFromBuffer( childId );
+    Assert.assertEquals( 3, loggingBuffer.size() );
+    Assert.assertEquals( 2, loggingBuffer.getLogBufferFromTo( parentId, false, 0, loggingBuffer.getLastBufferLineNr() ).size() );
+  }
+
+  @Test
+  public void testGetLogBufferAfter() {
+    LoggingRegistry registry = LoggingRegistry.getInstance();
+    String channelId = registry.registerLoggingSource( new SimpleLoggingObject( "cursor", LoggingObjectType.JOB, null ) );
+
+    LoggingBuffer loggingBuffer = new LoggingBuffer( 5 );
+    MutableInt lastNr = new MutableInt( 0 );
+    Assert.assertTrue( loggingBuffer.getLogBufferAfter( channelId, false, lastNr, 0 ).isEmpty() );
+    Assert.assertEquals( 0, lastNr.intValue() );
+
+    for ( int i = 1; i <= 3; i++ ) {
+      addEvent( loggingBuffer, "line " + i, channelId );
+    }
+    List<KettleLoggingEvent> events = loggingBuffer.getLogBufferAfter( channelId, false, lastNr, 2 );
+    Assert.assertEquals( 2, events.size() );
+    Assert.assertEquals( "line 2", ( (LogMessage) events.get( 1 ).getMessage() ).getMessage() );
+
+    events = loggingBuffer.getLogBufferAfter( channelId, false, lastNr, 2 );
+    Assert.assertEquals( 1, events.size() );
+    Assert.assertEquals( "line 3", ( (LogMessage) events.get( 0 ).getMessage() ).getMessage() );
+    Assert.assertEquals( loggingBuffer.getLastBufferLineNr(), lastNr.intValue() );
+
+    // Lines evicted from the buffer are gone from the index as well
+    for ( int i = 4; i <= 10; i++ ) {
+      addEvent( loggingBuffer, "line " + i, channelId );
+    }
+    events = loggingBuffer.getLogBufferAfter( channelId, false, lastNr, 0 );
+    Assert.assertEquals( 5, events.size() );
+    Assert.assertEquals( "line 6", ( (LogMessage) events.get( 0 ).getMessage() ).getMessage() );
+    Assert.assertTrue( loggingBuffer.getLogBufferAfter( channelId, false, lastNr, 0 ).isEmpty() );
+  }
+
+  private static void addEvent( LoggingBuffer loggingBuffer, String text, String logChannelId ) {
+    KettleLoggingEvent event = new KettleLoggingEvent();
+    event.setMessage( new LogMessage( text, logChannelId, LogLevel.BASIC ) );
+    event.setTimeStamp( System.currentTimeMillis() );
+    loggingBuffer.addLogggingEvent( event );
+  }
+
 }
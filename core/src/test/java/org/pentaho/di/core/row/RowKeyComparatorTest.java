@@ -0,0 +1,120 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.core.row;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.Random;
+
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.pentaho.di.core.KettleClientEnvironment;
+import org.pentaho.di.core.row.value.ValueMetaBigNumber;
+import org.pentaho.di.core.row.value.ValueMetaDate;
+import org.pentaho.di.core.row.value.ValueMetaInteger;
+import org.pentaho.di.core.row.value.ValueMetaNumber;
+import org.pentaho.di.core.row.value.ValueMetaString;
+import org.pentaho.di.junit.rules.RestorePDIEnvironment;
+
+import static org.junit.Assert.assertEquals;
+
+public class RowKeyComparatorTest {
+  @ClassRule public static RestorePDIEnvironment env = new RestorePDIEnvironment();
+
+  private static final int[] KEYS = { 4, 0, 1, 2, 3 };
+  private static final String[] STRINGS = { "Ab", "ab", "b" };
+
+  @BeforeClass
+  public static void setUpBeforeClass() throws Exception {
+    KettleClientEnvironment.init();
+  }
+
+  @Test
+  public void testSameResultAsRowMeta() throws Exception {
+    RowMetaInterface rowMeta = createRowMeta( false );
+    assertSameResults( rowMeta, new RowKeyComparator( rowMeta, KEYS ) );
+  }
+
+  @Test
+  public void testDescending() throws Exception {
+    RowMetaInterface rowMeta = createRowMeta( true );
+    assertSameResults( rowMeta, new RowKeyComparator( rowMeta, KEYS ) );
+  }
+
+  @Test
+  public void testCaseInsensitiveStrings() throws Exception {
+    RowMetaInterface rowMeta = createRowMeta( false );
+    rowMeta.getValueMeta( 4 ).setCaseInsensitive( true );
+    assertSameResults( rowMeta, new RowKeyComparator( rowMeta, KEYS ) );
+  }
+
+  @Test
+  public void testOtherLayout() throws Exception {
+    RowMetaInterface rowMeta1 = createRowMeta( false );
+    RowMetaInterface rowMeta2 = new RowMeta();
+    rowMeta2.addValueMeta( new ValueMetaString( "extra" ) );
+    rowMeta2.addRowMeta( rowMeta1 );
+    int[] keys2 = new int[ KEYS.length ];
+    for ( int i = 0; i < KEYS.length; i++ ) {
+      keys2[ i ] = KEYS[ i ] + 1;
+    }
+    RowKeyComparator comparator1 = new RowKeyComparator( rowMeta1, KEYS );
+    RowKeyComparator comparator2 = new RowKeyComparator( rowMeta2, keys2 );
+
+    Random random = new Random( 7 );
+    for ( int i = 0; i < 2000; i++ ) {
+      Object[] row1 = createRow( random );
+      Object[] row2 = createRow( random );
+      Object[] wideRow2 = new Object[ row2.length + 1 ];
+      wideRow2[ 0 ] = "x";
+      System.arraycopy( row2, 0, wideRow2, 1, row2.length );
+      assertEquals( Integer.signum( rowMeta1.compare( row1, rowMeta2, wideRow2, KEYS, keys2 ) ),
+        Integer.signum( comparator1.compare( row1, comparator2, wideRow2 ) ) );
+    }
+  }
+
+  private static void assertSameResults( RowMetaInterface rowMeta, RowKeyComparator comparator ) throws Exception {
+    Random random = new Random( 42 );
+    for ( int i = 0; i < 5000; i++ ) {
+      Object[] row1 = createRow( random );
+      Object[] row2 = random.nextInt( 4 ) == 0 ? row1.clone() : createRow( random );
+      assertEquals( Integer.signum( rowMeta.compare( row1, row2, KEYS ) ),
+        Integer.signum( comparator.compare( row1, row2 ) ) );
+    }
+  }
+
+  private static RowMetaInterface createRowMeta( boolean descending ) {
+    RowMetaInterface rowMeta = new RowMeta();
+    rowMeta.addValueMeta( new ValueMetaInteger( "integer" ) );
+    rowMeta.addValueMeta( new ValueMetaNumber( "number" ) );
+    rowMeta.addValueMeta( new ValueMetaDate( "date" ) );
+    rowMeta.addValueMeta( new ValueMetaBigNumber( "bignumber" ) );
+    rowMeta.addValueMeta( new ValueMetaString( "string" ) );
+    for ( ValueMetaInterface valueMeta : rowMeta.getValueMetaList() ) {
+      valueMeta.setSortedDescending( descending );
+    }
+    return rowMeta;
+  }
+
+  private static Object[] createRow( Random random ) {
+    return new Object[] {
+      random.nextInt( 10 ) == 0 ? null : (long) random.nextInt( 3 ),
+      random.nextInt( 10 ) == 0 ? null : (double) random.nextInt( 3 ),
+      random.nextInt( 10 ) == 0 ? null : new Date( random.nextInt( 3 ) ),
+      random.nextInt( 10 ) == 0 ? null : BigDecimal.valueOf( random.nextInt( 3 ) ),
+      random.nextInt( 10 ) == 0 ? null : random.nextInt( 10 ) == 0 ? "" : STRINGS[ random.nextInt( STRINGS.length ) ],
+    };
+  }
+}
@@ -0,0 +1,138 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.core.row;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.pentaho.di.core.row.value.ValueMetaInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class RowMergeTreeTest {
+
+  @Test
+  public void testMergesSortedInputs() throws Exception {
+    Random random = new Random( 1 );
+    for ( int slots = 1; slots <= 37; slots++ ) {
+      long[][] inputs = createInputs( random, slots, 50 );
+      List<long[]> merged = merge( inputs, new int[ 1 ] );
+
+      List<long[]> expected = new ArrayList<>();
+      for ( int slot = 0; slot < slots; slot++ ) {
+        for ( long value : inputs[ slot ] ) {
+          expected.add( new long[] { value, slot } );
+        }
+      }
+      // Equal values come in the order of the slots
+      expected.sort( ( a, b ) -> a[ 0 ] != b[ 0 ] ? Long.compare( a[ 0 ], b[ 0 ] ) : Long.compare( a[ 1 ], b[ 1 ] ) );
+
+      assertEquals( expected.size(), merged.size() );
+      for ( int i = 0; i < expected.size(); i++ ) {
+        assertTrue( Arrays.equals( expected.get( i ), merged.get( i ) ) );
+      }
+    }
+  }
+
+  @Test
+  public void testSetAnySlot() throws Exception {
+    RowMergeTree tree = new RowMergeTree( 3, createComparator() );
+    tree.setAll( new Object[][] { { 5L }, null, { 3L } } );
+    assertEquals( 2, tree.size() );
+    assertEquals( 2, tree.peekSlot() );
+
+    // Take out the smallest, then put a row back in an empty slot
+    tree.set( 2, null );
+    assertEquals( 0, tree.peekSlot() );
+    tree.set( 1, new Object[] { 1L } );
+    assertEquals( 1, tree.peekSlot() );
+    assertEquals( 1L, tree.peekRow()[ 0 ] );
+
+    tree.set( 0, null );
+    tree.set( 1, null );
+    assertEquals( 0, tree.size() );
+    assertEquals( -1, tree.peekSlot() );
+    assertNull( tree.peekRow() );
+  }
+
+  /**
+   * Merges 2 to 128 inputs and checks that every row costs at most log2(k) comparisons, against the k - 1 of a scan
+   * and the k - 1 + log2(k) of the sorted list the merging steps used before.
+   */
+  @Test
+  public void testComparisonsPerRow() throws Exception {
+    Random random = new Random( 2 );
+    for ( int slots = 2; slots <= 128; slots *= 2 ) {
+      long[][] inputs = createInputs( random, slots, 20000 / slots );
+      int[] comparisons = new int[ 1 ];
+      List<long[]> merged = merge( inputs, comparisons );
+
+      int depth = 32 - Integer.numberOfLeadingZeros( slots - 1 );
+      assertTrue( "k=" + slots + ": " + comparisons[ 0 ] + " comparisons for " + merged.size() + " rows",
+        comparisons[ 0 ] <= slots + merged.size() * depth );
+    }
+  }
+
+  private static long[][] createInputs( Random random, int slots, int maxRows ) {
+    long[][] inputs = new long[ slots ][];
+    for ( int slot = 0; slot < slots; slot++ ) {
+      inputs[ slot ] = new long[ random.nextInt( maxRows + 1 ) ];
+      for ( int i = 0; i < inputs[ slot ].length; i++ ) {
+        inputs[ slot ][ i ] = random.nextInt( 100 );
+      }
+      Arrays.sort( inputs[ slot ] );
+    }
+    return inputs;
+  }
+
+  private static List<long[]> merge( long[][] inputs, int[] comparisons ) throws Exception {
+    RowKeyComparator rowComparator = createComparator();
+    RowMergeTree tree = new RowMergeTree( inputs.length, ( slot1, row1, slot2, row2 ) -> {
+      comparisons[ 0 ]++;
+      return rowComparator.compare( row1, row2 );
+    } );
+    int[] positions = new int[ inputs.length ];
+    Object[][] firstRows = new Object[ inputs.length ][];
+    for ( int slot = 0; slot < inputs.length; slot++ ) {
+      firstRows[ slot ] = nextRow( inputs, positions, slot );
+    }
+    tree.setAll( firstRows );
+
+    List<long[]> merged = new ArrayList<>();
+    while ( tree.size() > 0 ) {
+      int slot = tree.peekSlot();
+      merged.add( new long[] { (Long) tree.peekRow()[ 0 ], slot } );
+      tree.set( slot, nextRow( inputs, positions, slot ) );
+    }
+    return merged;
+  }
+
+  private static Object[] nextRow( long[][] inputs, int[] positions, int slot ) {
+    if ( positions[ slot ] >= inputs[ slot ].length ) {
+      return null;
+    }
+    return new Object[] { inputs[ slot ][ positions[ slot ]++ ] };
+  }
+
+  private static RowKeyComparator createComparator() {
+    RowMetaInterface rowMeta = new RowMeta();
+    rowMeta.addValueMeta( new ValueMetaInteger( "key" ) );
+    return new RowKeyComparator( rowMeta, new int[] { 0 } );
+  }
+}
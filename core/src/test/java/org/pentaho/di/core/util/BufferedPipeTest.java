@@ -0,0 +1,113 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.core.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Random;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+public class BufferedPipeTest {
+
+  @Test
+  public void testRoundTrip() throws Exception {
+    byte[] data = createData( 10000 );
+    BufferedPipe pipe = new BufferedPipe( 64, 2 );
+    Future<?> writer = write( pipe, data );
+
+    ByteArrayOutputStream read = new ByteArrayOutputStream();
+    Random random = new Random( 2 );
+    try ( InputStream in = pipe.getInputStream() ) {
+      byte[] buffer = new byte[ 100 ];
+      int n;
+      while ( ( n = in.read( buffer, 0, 1 + random.nextInt( buffer.length ) ) ) >= 0 ) {
+        read.write( buffer, 0, n );
+      }
+      assertEquals( -1, in.read() );
+    }
+    writer.get();
+    assertArrayEquals( data, read.toByteArray() );
+  }
+
+  @Test
+  public void testWriteTo() throws Exception {
+    byte[] data = createData( 5000 );
+    BufferedPipe pipe = new BufferedPipe( 128, 3 );
+    Future<?> writer = write( pipe, data );
+
+    ByteArrayOutputStream read = new ByteArrayOutputStream();
+    pipe.writeTo( read );
+    writer.get();
+    assertArrayEquals( data, read.toByteArray() );
+  }
+
+  @Test
+  public void testReaderCloseStopsWriter() throws Exception {
+    BufferedPipe pipe = new BufferedPipe( 16, 2 );
+    pipe.getInputStream().close();
+    OutputStream out = pipe.getOutputStream();
+    try {
+      // More than fits in the blocks, nobody takes them
+      out.write( new byte[ 100 ] );
+      fail( "The reader closed the pipe" );
+    } catch ( IOException e ) {
+      // expected
+    }
+  }
+
+  @Test
+  public void testAbortStopsReader() throws Exception {
+    BufferedPipe pipe = new BufferedPipe( 16, 2 );
+    pipe.getOutputStream().write( new byte[ 10 ] );
+    pipe.abort( "stopped" );
+    try {
+      pipe.getInputStream().read();
+      fail( "The pipe was aborted" );
+    } catch ( IOException e ) {
+      assertEquals( "stopped", e.getMessage() );
+    }
+  }
+
+  private static byte[] createData( int size ) {
+    byte[] data = new byte[ size ];
+    new Random( 1 ).nextBytes( data );
+    return data;
+  }
+
+  private static Future<?> write( BufferedPipe pipe, byte[] data ) {
+    return ExecutorUtil.getExecutor().submit( () -> {
+      Random random = new Random( 3 );
+      try ( OutputStream out = pipe.getOutputStream() ) {
+        int offset = 0;
+        while ( offset < data.length ) {
+          int length = Math.min( data.length - offset, 1 + random.nextInt( 200 ) );
+          out.write( data, offset, length );
+          offset += length;
+          if ( random.nextInt( 10 ) == 0 ) {
+            out.flush();
+          }
+        }
+      }
+      return null;
+    } );
+  }
+}
@@ -0,0 +1,74 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.core.columnar;
+
+/**
+ * Statistics of one column chunk: the number of nulls and, when known, the smallest and largest value. Longs compare
+ * as signed numbers, doubles numerically without the NaNs and byte arrays byte by byte as unsigned numbers, except for
+ * big numbers: those are the UTF-8 text of the smallest and largest number.
+ */
+public class ColumnStatistics {
+
+  private final long nullCount;
+  private final boolean hasMinMax;
+  private final long minLong;
+  private final long maxLong;
+  private final byte[] minBytes;
+  private final byte[] maxBytes;
+
+  ColumnStatistics( long nullCount, boolean hasMinMax, long minLong, long maxLong, byte[] minBytes,
+    byte[] maxBytes ) {
+    this.nullCount = nullCount;
+    this.hasMinMax = hasMinMax;
+    this.minLong = minLong;
+    this.maxLong = maxLong;
+    this.minBytes = minBytes;
+    this.maxBytes = maxBytes;
+  }
+
+  public long getNullCount() {
+    return nullCount;
+  }
+
+  /**
+   * @return false when the chunk has only nulls, or the values were too long to keep
+   */
+  public boolean hasMinMax() {
+    return hasMinMax;
+  }
+
+  public long getMinLong() {
+    return minLong;
+  }
+
+  public long getMaxLong() {
+    return maxLong;
+  }
+
+  public double getMinDouble() {
+    return Double.longBitsToDouble( minLong );
+  }
+
+  public double getMaxDouble() {
+    return Double.longBitsToDouble( maxLong );
+  }
+
+  public byte[] getMinBytes() {
+    return minBytes;
+  }
+
+  public byte[] getMaxBytes() {
+    return maxBytes;
+  }
+}
@@ -0,0 +1,61 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.core.columnar;
+
+/**
+ * The values of one column in a row group, by row.
+ */
+public class ColumnVector {
+
+  private final byte kind;
+  private final int rowCount;
+  private final boolean[] nulls;
+  private final long[] longs;
+  private final byte[][] bytes;
+
+  ColumnVector( byte kind, int rowCount, boolean[] nulls, long[] longs, byte[][] bytes ) {
+    this.kind = kind;
+    this.rowCount = rowCount;
+    this.nulls = nulls;
+    this.longs = longs;
+    this.bytes = bytes;
+  }
+
+  public byte getKind() {
+    return kind;
+  }
+
+  public int getRowCount() {
+    return rowCount;
+  }
+
+  public boolean isNull( int row ) {
+    return nulls != null && nulls[ row ];
+  }
+
+  public long getLong( int row ) {
+    return longs[ row ];
+  }
+
+  public double getDouble( int row ) {
+    return Double.longBitsToDouble( longs[ row ] );
+  }
+
+  /**
+   * @return the value, or null for a null. Rows with the same dictionary value share the array.
+   */
+  public byte[] getBytes( int row ) {
+    return bytes[ row ];
+  }
+}
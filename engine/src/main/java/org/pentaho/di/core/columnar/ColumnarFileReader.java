@@ -0,0 +1,425 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.core.columnar;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads a columnar file written by {@link ColumnarFileWriter}. The footer is read when the reader is created; after
+ * that, row groups are read column by column, and only the chunks of the columns that are asked for are read from the
+ * file. The chunks of the other columns are skipped.
+ * <p>
+ * The file is read through plain input streams, so it can be on any file system: the reader opens the file once to
+ * find the footer, once to read it, and once more for the data, reopening it only when it has to go back.
+ */
+public class ColumnarFileReader implements Closeable {
+
+  /**
+   * The file to read.
+   */
+  public interface Source {
+    long getSize() throws IOException;
+
+    /**
+     * @return a new stream reading the file from the start
+     */
+    InputStream open() throws IOException;
+  }
+
+  private final Source source;
+
+  private String[] names;
+  private byte[] kinds;
+  private int[] types;
+  private int[] lengths;
+  private int[] precisions;
+
+  private long[] rowCounts;
+  private long[][] chunkOffsets;
+  private int[][] chunkLengths;
+  private ColumnStatistics[][] statistics;
+
+  private InputStream in;
+  private long inPosition;
+
+  public ColumnarFileReader( Source source ) throws IOException {
+    this.source = source;
+    long size = source.getSize();
+    if ( size < ColumnarFormat.HEADER_LENGTH + ColumnarFormat.TRAILER_LENGTH ) {
+      throw new IOException( "Not a columnar file: it is too short" );
+    }
+
+    int footerLength;
+    try ( InputStream stream = source.open() ) {
+      byte[] header = readFully( stream, ColumnarFormat.HEADER_LENGTH );
+      if ( !hasMagic( header, 0 ) ) {
+        throw new IOException( "Not a columnar file: the header is missing" );
+      }
+      if ( header[ ColumnarFormat.MAGIC.length ] != ColumnarFormat.VERSION ) {
+        throw new IOException( "Unsupported columnar file version " + header[ ColumnarFormat.MAGIC.length ] );
+      }
+      skipFully( stream, size - ColumnarFormat.HEADER_LENGTH - ColumnarFormat.TRAILER_LENGTH );
+      byte[] trailer = readFully( stream, ColumnarFormat.TRAILER_LENGTH );
+      if ( !hasMagic( trailer, 4 ) ) {
+        throw new IOException( "Not a columnar file: the footer is missing" );
+      }
+      footerLength = new ColumnarInputBuffer( trailer ).readInt();
+    }
+    if ( footerLength < 0 || footerLength > size - ColumnarFormat.HEADER_LENGTH - ColumnarFormat.TRAILER_LENGTH ) {
+      throw new IOException( "Invalid columnar footer length " + footerLength );
+    }
+
+    byte[] footer;
+    try ( InputStream stream = source.open() ) {
+      skipFully( stream, size - ColumnarFormat.TRAILER_LENGTH - footerLength );
+      footer = readFully( stream, footerLength );
+    }
+    readFooter( new ColumnarInputBuffer( footer ) );
+  }
+
+  public int getColumnCount() {
+    return names.length;
+  }
+
+  public String getColumnName( int column ) {
+    return names[ column ];
+  }
+
+  /**
+   * @return the index of the column with the given name, or -1 if there is none
+   */
+  public int indexOfColumn( String name ) {
+    for ( int i = 0; i < names.length; i++ ) {
+      if ( names[ i ].equalsIgnoreCase( name ) ) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  public byte getColumnKind( int column ) {
+    return kinds[ column ];
+  }
+
+  public int getColumnType( int column ) {
+    return types[ column ];
+  }
+
+  public int getColumnLength( int column ) {
+    return lengths[ column ];
+  }
+
+  public int getColumnPrecision( int column ) {
+    return precisions[ column ];
+  }
+
+  public int getRowGroupCount() {
+    return rowCounts.length;
+  }
+
+  public long getRowCount( int rowGroup ) {
+    return rowCounts[ rowGroup ];
+  }
+
+  public ColumnStatistics getStatistics( int rowGroup, int column ) {
+    return statistics[ rowGroup ][ column ];
+  }
+
+  int getChunkLength( int rowGroup, int column ) {
+    return chunkLengths[ rowGroup ][ column ];
+  }
+
+  /**
+   * Reads some of the columns of a row group.
+   *
+   * @param rowGroup the row group
+   * @param columns  the indexes of the columns to read
+   * @return the values of the columns, in the order of the indexes
+   */
+  public ColumnVector[] readRowGroup( int rowGroup, int[] columns ) throws IOException {
+    int rowCount = (int) rowCounts[ rowGroup ];
+    ColumnVector[] vectors = new ColumnVector[ columns.length ];
+
+    // Read the chunks in the order of the file, so the stream only moves forward
+    Integer[] order = new Integer[ columns.length ];
+    for ( int i = 0; i < order.length; i++ ) {
+      order[ i ] = i;
+    }
+    Arrays.sort( order, Comparator.comparingLong( i -> chunkOffsets[ rowGroup ][ columns[ i ] ] ) );
+    for ( int i : order ) {
+      int column = columns[ i ];
+      byte[] chunk = readAt( chunkOffsets[ rowGroup ][ column ], chunkLengths[ rowGroup ][ column ] );
+      vectors[ i ] = decodeChunk( chunk, kinds[ column ], rowCount );
+    }
+    return vectors;
+  }
+
+  @Override
+  public void close() throws IOException {
+    if ( in != null ) {
+      in.close();
+      in = null;
+    }
+  }
+
+  private void readFooter( ColumnarInputBuffer footer ) throws IOException {
+    int columnCount = footer.readVarInt();
+    names = new String[ columnCount ];
+    kinds = new byte[ columnCount ];
+    types = new int[ columnCount ];
+    lengths = new int[ columnCount ];
+    precisions = new int[ columnCount ];
+    for ( int i = 0; i < columnCount; i++ ) {
+      names[ i ] = new String( footer.readBytesWithLength(), StandardCharsets.UTF_8 );
+      kinds[ i ] = (byte) footer.readByte();
+      types[ i ] = (int) footer.readZigZag();
+      lengths[ i ] = (int) footer.readZigZag();
+      precisions[ i ] = (int) footer.readZigZag();
+    }
+
+    int rowGroupCount = footer.readVarInt();
+    rowCounts = new long[ rowGroupCount ];
+    chunkOffsets = new long[ rowGroupCount ][ columnCount ];
+    chunkLengths = new int[ rowGroupCount ][ columnCount ];
+    statistics = new ColumnStatistics[ rowGroupCount ][ columnCount ];
+    for ( int group = 0; group < rowGroupCount; group++ ) {
+      rowCounts[ group ] = footer.readVarInt();
+      for ( int i = 0; i < columnCount; i++ ) {
+        chunkOffsets[ group ][ i ] = footer.readVarLong();
+        chunkLengths[ group ][ i ] = footer.readVarInt();
+        long nullCount = footer.readVarLong();
+        boolean hasMinMax = footer.readByte() != 0;
+        if ( !hasMinMax ) {
+          statistics[ group ][ i ] = new ColumnStatistics( nullCount, false, 0L, 0L, null, null );
+        } else if ( kinds[ i ] == ColumnarFormat.KIND_BYTES ) {
+          byte[] min = footer.readBytesWithLength();
+          byte[] max = footer.readBytesWithLength();
+          statistics[ group ][ i ] = new ColumnStatistics( nullCount, true, 0L, 0L, min, max );
+        } else {
+          long min = footer.readLong();
+          long max = footer.readLong();
+          statistics[ group ][ i ] = new ColumnStatistics( nullCount, true, min, max, null, null );
+        }
+      }
+    }
+  }
+
+  private byte[] readAt( long offset, int length ) throws IOException {
+    if ( in == null || offset < inPosition ) {
+      close();
+      in = source.open();
+      inPosition = 0;
+    }
+    skipFully( in, offset - inPosition );
+    byte[] bytes = readFully( in, length );
+    inPosition = offset + length;
+    return bytes;
+  }
+
+  static ColumnVector decodeChunk( byte[] chunk, byte kind, int rowCount ) throws IOException {
+    ColumnarInputBuffer buffer = new ColumnarInputBuffer( chunk );
+    int flags = buffer.readByte();
+    if ( ( flags & ColumnarFormat.FLAG_DEFLATED ) != 0 ) {
+      int length = buffer.readVarInt();
+      buffer = new ColumnarInputBuffer( inflate( chunk, buffer.getPosition(), buffer.remaining(), length ) );
+    }
+
+    long nullCount = buffer.readVarLong();
+    if ( nullCount < 0 || nullCount > rowCount ) {
+      throw new IOException( "Invalid null count " + nullCount + " for " + rowCount + " rows" );
+    }
+    boolean[] nulls = null;
+    if ( nullCount > 0 ) {
+      long[] present = new long[ rowCount ];
+      RleBitPackingHybrid.decode( buffer, 1, present, rowCount );
+      nulls = new boolean[ rowCount ];
+      for ( int row = 0; row < rowCount; row++ ) {
+        nulls[ row ] = present[ row ] == 0;
+      }
+    }
+    int valueCount = rowCount - (int) nullCount;
+
+    int encoding = buffer.readByte();
+    if ( kind == ColumnarFormat.KIND_BYTES ) {
+      byte[][] values = decodeBytes( buffer, encoding, valueCount );
+      return new ColumnVector( kind, rowCount, nulls, null, nulls == null ? values : spread( values, nulls ) );
+    }
+    long[] values = decodeLongs( buffer, encoding, kind, valueCount );
+    return new ColumnVector( kind, rowCount, nulls, nulls == null ? values : spread( values, nulls ), null );
+  }
+
+  private static long[] decodeLongs( ColumnarInputBuffer buffer, int encoding, byte kind, int valueCount )
+    throws IOException {
+    long[] values = new long[ valueCount ];
+    switch ( encoding ) {
+      case ColumnarFormat.ENCODING_PLAIN:
+        for ( int i = 0; i < valueCount; i++ ) {
+          values[ i ] = buffer.readLong();
+        }
+        return values;
+      case ColumnarFormat.ENCODING_DICTIONARY:
+        long[] dictionary = new long[ buffer.readVarInt() ];
+        for ( int i = 0; i < dictionary.length; i++ ) {
+          dictionary[ i ] = buffer.readLong();
+        }
+        RleBitPackingHybrid.decode( buffer, readBitWidth( buffer ), values, valueCount );
+        for ( int i = 0; i < valueCount; i++ ) {
+          values[ i ] = dictionary[ checkIndex( values[ i ], dictionary.length ) ];
+        }
+        return values;
+      case ColumnarFormat.ENCODING_BIT_PACKED:
+        if ( kind != ColumnarFormat.KIND_LONG ) {
+          break;
+        }
+        long min = buffer.readZigZag();
+        RleBitPackingHybrid.decode( buffer, readBitWidth( buffer ), values, valueCount );
+        for ( int i = 0; i < valueCount; i++ ) {
+          values[ i ] += min;
+        }
+        return values;
+      default:
+        break;
+    }
+    throw new IOException( "Unknown encoding " + encoding );
+  }
+
+  private static byte[][] decodeBytes( ColumnarInputBuffer buffer, int encoding, int valueCount )
+    throws IOException {
+    byte[][] values = new byte[ valueCount ][];
+    switch ( encoding ) {
+      case ColumnarFormat.ENCODING_PLAIN:
+        for ( int i = 0; i < valueCount; i++ ) {
+          values[ i ] = buffer.readBytesWithLength();
+        }
+        return values;
+      case ColumnarFormat.ENCODING_DICTIONARY:
+        byte[][] dictionary = new byte[ buffer.readVarInt() ][];
+        for ( int i = 0; i < dictionary.length; i++ ) {
+          dictionary[ i ] = buffer.readBytesWithLength();
+        }
+        long[] indexes = new long[ valueCount ];
+        RleBitPackingHybrid.decode( buffer, readBitWidth( buffer ), indexes, valueCount );
+        for ( int i = 0; i < valueCount; i++ ) {
+          values[ i ] = dictionary[ checkIndex( indexes[ i ], dictionary.length ) ];
+        }
+        return values;
+      default:
+        throw new IOException( "Unknown encoding " + encoding );
+    }
+  }
+
+  private static int readBitWidth( ColumnarInputBuffer buffer ) throws IOException {
+    int width = buffer.readByte();
+    if ( width > 64 ) {
+      throw new IOException( "Invalid bit width " + width );
+    }
+    return width;
+  }
+
+  private static int checkIndex( long index, int size ) throws IOException {
+    if ( index < 0 || index >= size ) {
+      throw new IOException( "Dictionary index " + index + " out of range" );
+    }
+    return (int) index;
+  }
+
+  /**
+   * Puts the values that aren't null on their rows.
+   */
+  private static long[] spread( long[] values, boolean[] nulls ) {
+    long[] rows = new long[ nulls.length ];
+    int next = 0;
+    for ( int row = 0; row < nulls.length; row++ ) {
+      if ( !nulls[ row ] ) {
+        rows[ row ] = values[ next++ ];
+      }
+    }
+    return rows;
+  }
+
+  private static byte[][] spread( byte[][] values, boolean[] nulls ) {
+    byte[][] rows = new byte[ nulls.length ][];
+    int next = 0;
+    for ( int row = 0; row < nulls.length; row++ ) {
+      if ( !nulls[ row ] ) {
+        rows[ row ] = values[ next++ ];
+      }
+    }
+    return rows;
+  }
+
+  private static byte[] inflate( byte[] data, int offset, int length, int inflatedLength ) throws IOException {
+    byte[] inflated = new byte[ inflatedLength ];
+    Inflater inflater = new Inflater();
+    try {
+      inflater.setInput( data, offset, length );
+      int n = 0;
+      while ( n < inflatedLength ) {
+        int read = inflater.inflate( inflated, n, inflatedLength - n );
+        if ( read == 0 && ( inflater.finished() || inflater.needsInput() || inflater.needsDictionary() ) ) {
+          throw new IOException( "Corrupt column chunk" );
+        }
+        n += read;
+      }
+    } catch ( DataFormatException e ) {
+      throw new IOException( "Corrupt column chunk", e );
+    } finally {
+      inflater.end();
+    }
+    return inflated;
+  }
+
+  private static boolean hasMagic( byte[] bytes, int offset ) {
+    for ( int i = 0; i < ColumnarFormat.MAGIC.length; i++ ) {
+      if ( bytes[ offset + i ] != ColumnarFormat.MAGIC[ i ] ) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static byte[] readFully( InputStream stream, int length ) throws IOException {
+    byte[] bytes = new byte[ length ];
+    int n = 0;
+    while ( n < length ) {
+      int read = stream.read( bytes, n, length - n );
+      if ( read < 0 ) {
+        throw new EOFException( "Unexpected end of columnar file" );
+      }
+      n += read;
+    }
+    return bytes;
+  }
+
+  private static void skipFully( InputStream stream, long length ) throws IOException {
+    while ( length > 0 ) {
+      long skipped = stream.skip( length );
+      if ( skipped <= 0 ) {
+        if ( stream.read() < 0 ) {
+          throw new EOFException( "Unexpected end of columnar file" );
+        }
+        skipped = 1;
+      }
+      length -= skipped;
+    }
+  }
+}
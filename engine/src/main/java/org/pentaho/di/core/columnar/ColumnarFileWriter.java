@@ -0,0 +1,551 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.core.columnar;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+import org.pentaho.di.core.row.ValueMetaInterface;
+
+/**
+ * Writes rows to a columnar file, see {@link ColumnarFormat}. The rows are buffered per column until a row group is
+ * full, then every column of the group is encoded and written as one chunk.
+ * <p>
+ * Declare the columns with {@link #addColumn(String, byte, int, int, int)}, then for every row set the values of the
+ * columns and call {@link #endRow()}. Columns that are not set in a row are null.
+ */
+public class ColumnarFileWriter implements Closeable {
+
+  private final OutputStream out;
+  private final int rowGroupSize;
+  private final boolean deflate;
+
+  private final List<ColumnBuilder> columns = new ArrayList<>();
+  private final List<RowGroup> rowGroups = new ArrayList<>();
+
+  private long position;
+  private int rowCount;
+  private long totalRowCount;
+  private boolean closed;
+
+  /**
+   * @param out          the stream to write to; it is closed with the writer
+   * @param rowGroupSize the number of rows per row group
+   * @param deflate      true to deflate the column chunks that get smaller that way
+   */
+  public ColumnarFileWriter( OutputStream out, int rowGroupSize, boolean deflate ) throws IOException {
+    this.out = out;
+    this.rowGroupSize = Math.max( 1, rowGroupSize );
+    this.deflate = deflate;
+    out.write( ColumnarFormat.MAGIC );
+    out.write( ColumnarFormat.VERSION );
+    position = ColumnarFormat.HEADER_LENGTH;
+  }
+
+  /**
+   * Adds a column. The type, length and precision are kept in the file for the reader, they don't change how the
+   * values are stored.
+   *
+   * @param name      the column name
+   * @param kind      one of the ColumnarFormat.KIND_ constants
+   * @param type      the data type
+   * @param length    the length of the data type
+   * @param precision the precision of the data type
+   * @return the index of the column
+   */
+  public int addColumn( String name, byte kind, int type, int length, int precision ) {
+    if ( totalRowCount > 0 || rowCount > 0 ) {
+      throw new IllegalStateException( "Columns can't be added after the first row" );
+    }
+    if ( kind != ColumnarFormat.KIND_LONG && kind != ColumnarFormat.KIND_DOUBLE
+      && kind != ColumnarFormat.KIND_BYTES ) {
+      throw new IllegalArgumentException( "Unknown column kind " + kind );
+    }
+    columns.add( new ColumnBuilder( name, kind, type, length, precision ) );
+    return columns.size() - 1;
+  }
+
+  public void setLong( int column, long value ) {
+    columns.get( column ).addLong( value );
+  }
+
+  public void setDouble( int column, double value ) {
+    columns.get( column ).addDouble( value );
+  }
+
+  /**
+   * @param value the value, null for a null
+   */
+  public void setBytes( int column, byte[] value ) {
+    if ( value != null ) {
+      columns.get( column ).addBytes( value );
+    }
+  }
+
+  /**
+   * Sets a big number, stored as its UTF-8 text. The smallest and largest value of the chunk are found by comparing
+   * the numbers, not their text.
+   *
+   * @param value the value, null for a null
+   */
+  public void setBigNumber( int column, BigDecimal value ) {
+    if ( value != null ) {
+      columns.get( column ).addBigNumber( value );
+    }
+  }
+
+  /**
+   * Finishes the current row; the columns that weren't set are null.
+   */
+  public void endRow() throws IOException {
+    for ( ColumnBuilder column : columns ) {
+      column.endRow();
+    }
+    rowCount++;
+    if ( rowCount >= rowGroupSize ) {
+      writeRowGroup();
+    }
+  }
+
+  /**
+   * @return the number of rows written so far
+   */
+  public long getRowCount() {
+    return totalRowCount + rowCount;
+  }
+
+  /**
+   * Writes the last row group and the footer, and closes the stream.
+   */
+  @Override
+  public void close() throws IOException {
+    if ( closed ) {
+      return;
+    }
+    closed = true;
+    try {
+      if ( rowCount > 0 ) {
+        writeRowGroup();
+      }
+      ColumnarOutputBuffer footer = writeFooter();
+      out.write( footer.getBuffer(), 0, footer.size() );
+      ColumnarOutputBuffer trailer = new ColumnarOutputBuffer( ColumnarFormat.TRAILER_LENGTH );
+      trailer.writeInt( footer.size() );
+      trailer.write( ColumnarFormat.MAGIC, 0, ColumnarFormat.MAGIC.length );
+      out.write( trailer.getBuffer(), 0, trailer.size() );
+    } finally {
+      out.close();
+    }
+  }
+
+  private void writeRowGroup() throws IOException {
+    RowGroup group = new RowGroup( rowCount, columns.size() );
+    for ( int i = 0; i < columns.size(); i++ ) {
+      ColumnBuilder column = columns.get( i );
+      ColumnarOutputBuffer chunk = column.encode( deflate );
+      out.write( chunk.getBuffer(), 0, chunk.size() );
+      group.offsets[ i ] = position;
+      group.lengths[ i ] = chunk.size();
+      group.statistics[ i ] = column.getStatistics();
+      position += chunk.size();
+      column.reset();
+    }
+    rowGroups.add( group );
+    totalRowCount += rowCount;
+    rowCount = 0;
+  }
+
+  private ColumnarOutputBuffer writeFooter() {
+    ColumnarOutputBuffer footer = new ColumnarOutputBuffer();
+    footer.writeVarLong( columns.size() );
+    for ( ColumnBuilder column : columns ) {
+      footer.writeBytesWithLength( column.name.getBytes( StandardCharsets.UTF_8 ) );
+      footer.write( column.kind );
+      footer.writeZigZag( column.type );
+      footer.writeZigZag( column.length );
+      footer.writeZigZag( column.precision );
+    }
+    footer.writeVarLong( rowGroups.size() );
+    for ( RowGroup group : rowGroups ) {
+      footer.writeVarLong( group.rowCount );
+      for ( int i = 0; i < columns.size(); i++ ) {
+        footer.writeVarLong( group.offsets[ i ] );
+        footer.writeVarLong( group.lengths[ i ] );
+        ColumnStatistics statistics = group.statistics[ i ];
+        footer.writeVarLong( statistics.getNullCount() );
+        footer.write( statistics.hasMinMax() ? 1 : 0 );
+        if ( statistics.hasMinMax() ) {
+          if ( columns.get( i ).kind == ColumnarFormat.KIND_BYTES ) {
+            footer.writeBytesWithLength( statistics.getMinBytes() );
+            footer.writeBytesWithLength( statistics.getMaxBytes() );
+          } else {
+            footer.writeLong( statistics.getMinLong() );
+            footer.writeLong( statistics.getMaxLong() );
+          }
+        }
+      }
+    }
+    return footer;
+  }
+
+  private static class RowGroup {
+    final int rowCount;
+    final long[] offsets;
+    final int[] lengths;
+    final ColumnStatistics[] statistics;
+
+    RowGroup( int rowCount, int columnCount ) {
+      this.rowCount = rowCount;
+      this.offsets = new long[ columnCount ];
+      this.lengths = new int[ columnCount ];
+      this.statistics = new ColumnStatistics[ columnCount ];
+    }
+  }
+
+  /**
+   * The values of one column in the current row group.
+   */
+  private static class ColumnBuilder {
+    final String name;
+    final byte kind;
+    final int type;
+    final int length;
+    final int precision;
+
+    private final BitSet nullRows = new BitSet();
+    private long[] longs;
+    private byte[][] bytes;
+    private int valueCount;
+    private int rowCount;
+    private boolean setInRow;
+
+    private boolean hasMinMax;
+    private long min;
+    private long max;
+    private byte[] minBytes;
+    private byte[] maxBytes;
+    private BigDecimal minBigNumber;
+    private BigDecimal maxBigNumber;
+
+    ColumnBuilder( String name, byte kind, int type, int length, int precision ) {
+      this.name = name;
+      this.kind = kind;
+      this.type = type;
+      this.length = length;
+      this.precision = precision;
+      if ( kind == ColumnarFormat.KIND_BYTES ) {
+        bytes = new byte[ 1024 ][];
+      } else {
+        longs = new long[ 1024 ];
+      }
+    }
+
+    void addLong( long value ) {
+      checkKind( ColumnarFormat.KIND_LONG );
+      if ( !hasMinMax || value < min ) {
+        min = value;
+      }
+      if ( !hasMinMax || value > max ) {
+        max = value;
+      }
+      hasMinMax = true;
+      appendLong( value );
+    }
+
+    void addDouble( double value ) {
+      checkKind( ColumnarFormat.KIND_DOUBLE );
+      if ( !Double.isNaN( value ) ) {
+        if ( !hasMinMax || value < Double.longBitsToDouble( min ) ) {
+          min = Double.doubleToLongBits( value );
+        }
+        if ( !hasMinMax || value > Double.longBitsToDouble( max ) ) {
+          max = Double.doubleToLongBits( value );
+        }
+        hasMinMax = true;
+      }
+      appendLong( Double.doubleToRawLongBits( value ) );
+    }
+
+    void addBytes( byte[] value ) {
+      checkKind( ColumnarFormat.KIND_BYTES );
+      checkNotSet();
+      // The text of big numbers doesn't sort like the numbers, those only have statistics from addBigNumber()
+      if ( type != ValueMetaInterface.TYPE_BIGNUMBER ) {
+        if ( minBytes == null || compare( value, minBytes ) < 0 ) {
+          minBytes = value;
+        }
+        if ( maxBytes == null || compare( value, maxBytes ) > 0 ) {
+          maxBytes = value;
+        }
+      }
+      appendBytes( value );
+    }
+
+    void addBigNumber( BigDecimal value ) {
+      checkKind( ColumnarFormat.KIND_BYTES );
+      checkNotSet();
+      if ( minBigNumber == null || value.compareTo( minBigNumber ) < 0 ) {
+        minBigNumber = value;
+      }
+      if ( maxBigNumber == null || value.compareTo( maxBigNumber ) > 0 ) {
+        maxBigNumber = value;
+      }
+      appendBytes( value.toString().getBytes( StandardCharsets.UTF_8 ) );
+    }
+
+    private void appendBytes( byte[] value ) {
+      if ( valueCount == bytes.length ) {
+        bytes = Arrays.copyOf( bytes, valueCount * 2 );
+      }
+      bytes[ valueCount++ ] = value;
+      setInRow = true;
+    }
+
+    private void appendLong( long value ) {
+      checkNotSet();
+      if ( valueCount == longs.length ) {
+        longs = Arrays.copyOf( longs, valueCount * 2 );
+      }
+      longs[ valueCount++ ] = value;
+      setInRow = true;
+    }
+
+    private void checkKind( byte expected ) {
+      if ( kind != expected ) {
+        throw new IllegalArgumentException( "Column " + name + " doesn't store values of kind " + expected );
+      }
+    }
+
+    private void checkNotSet() {
+      if ( setInRow ) {
+        throw new IllegalStateException( "Column " + name + " is set twice in the same row" );
+      }
+    }
+
+    void endRow() {
+      if ( !setInRow ) {
+        nullRows.set( rowCount );
+      }
+      setInRow = false;
+      rowCount++;
+    }
+
+    ColumnStatistics getStatistics() {
+      long nullCount = rowCount - valueCount;
+      if ( kind == ColumnarFormat.KIND_BYTES ) {
+        byte[] min = minBytes;
+        byte[] max = maxBytes;
+        if ( minBigNumber != null ) {
+          min = minBigNumber.toString().getBytes( StandardCharsets.UTF_8 );
+          max = maxBigNumber.toString().getBytes( StandardCharsets.UTF_8 );
+        }
+        boolean keep = min != null && min.length <= ColumnarFormat.MAX_STATISTICS_LENGTH
+          && max.length <= ColumnarFormat.MAX_STATISTICS_LENGTH;
+        return new ColumnStatistics( nullCount, keep, 0L, 0L, keep ? min : null, keep ? max : null );
+      }
+      return new ColumnStatistics( nullCount, hasMinMax, min, max, null, null );
+    }
+
+    void reset() {
+      nullRows.clear();
+      if ( bytes != null ) {
+        Arrays.fill( bytes, 0, valueCount, null );
+      }
+      valueCount = 0;
+      rowCount = 0;
+      hasMinMax = false;
+      minBytes = null;
+      maxBytes = null;
+      minBigNumber = null;
+      maxBigNumber = null;
+    }
+
+    /**
+     * Encodes the chunk: the flag byte, the null bitmap and the values.
+     */
+    ColumnarOutputBuffer encode( boolean deflate ) {
+      ColumnarOutputBuffer chunk = new ColumnarOutputBuffer( 64 + valueCount * 2 );
+      chunk.write( 0 );
+      chunk.writeVarLong( rowCount - valueCount );
+      if ( valueCount < rowCount ) {
+        long[] present = new long[ rowCount ];
+        for ( int row = 0; row < rowCount; row++ ) {
+          present[ row ] = nullRows.get( row ) ? 0L : 1L;
+        }
+        RleBitPackingHybrid.encode( present, rowCount, 1, chunk );
+      }
+      if ( kind == ColumnarFormat.KIND_BYTES ) {
+        encodeBytes( chunk );
+      } else {
+        encodeLongs( chunk );
+      }
+      return deflate ? deflate( chunk ) : chunk;
+    }
+
+    private void encodeLongs( ColumnarOutputBuffer chunk ) {
+      ColumnarOutputBuffer best = null;
+      if ( kind == ColumnarFormat.KIND_LONG && hasMinMax && max - min >= 0 ) {
+        // The differences with the minimum fit in 63 bits
+        best = new ColumnarOutputBuffer( valueCount + 16 );
+        best.write( ColumnarFormat.ENCODING_BIT_PACKED );
+        best.writeZigZag( min );
+        int width = RleBitPackingHybrid.bitWidth( max - min );
+        best.write( width );
+        long[] deltas = new long[ valueCount ];
+        for ( int i = 0; i < valueCount; i++ ) {
+          deltas[ i ] = longs[ i ] - min;
+        }
+        RleBitPackingHybrid.encode( deltas, valueCount, width, best );
+      }
+
+      Map<Long, Integer> dictionary = new HashMap<>();
+      long[] indexes = new long[ valueCount ];
+      for ( int i = 0; i < valueCount && dictionary != null; i++ ) {
+        Integer index = dictionary.get( longs[ i ] );
+        if ( index == null ) {
+          if ( dictionary.size() == ColumnarFormat.MAX_DICTIONARY_SIZE ) {
+            dictionary = null;
+            break;
+          }
+          index = dictionary.size();
+          dictionary.put( longs[ i ], index );
+        }
+        indexes[ i ] = index;
+      }
+      if ( dictionary != null && ( best == null || dictionary.size() * 8 < best.size() ) ) {
+        ColumnarOutputBuffer encoded = new ColumnarOutputBuffer( dictionary.size() * 8 + valueCount + 16 );
+        encoded.write( ColumnarFormat.ENCODING_DICTIONARY );
+        long[] values = new long[ dictionary.size() ];
+        for ( Map.Entry<Long, Integer> entry : dictionary.entrySet() ) {
+          values[ entry.getValue() ] = entry.getKey();
+        }
+        encoded.writeVarLong( values.length );
+        for ( long value : values ) {
+          encoded.writeLong( value );
+        }
+        int width = RleBitPackingHybrid.bitWidth( values.length - 1 );
+        encoded.write( width );
+        RleBitPackingHybrid.encode( indexes, valueCount, width, encoded );
+        if ( best == null || encoded.size() < best.size() ) {
+          best = encoded;
+        }
+      }
+
+      if ( best != null && best.size() < 1 + valueCount * 8L ) {
+        chunk.write( best );
+        return;
+      }
+      chunk.write( ColumnarFormat.ENCODING_PLAIN );
+      for ( int i = 0; i < valueCount; i++ ) {
+        chunk.writeLong( longs[ i ] );
+      }
+    }
+
+    private void encodeBytes( ColumnarOutputBuffer chunk ) {
+      long plainSize = 1;
+      Map<ByteBuffer, Integer> dictionary = new HashMap<>();
+      List<byte[]> values = new ArrayList<>();
+      long[] indexes = new long[ valueCount ];
+      for ( int i = 0; i < valueCount; i++ ) {
+        plainSize += bytes[ i ].length + 1;
+        if ( dictionary != null ) {
+          ByteBuffer key = ByteBuffer.wrap( bytes[ i ] );
+          Integer index = dictionary.get( key );
+          if ( index == null ) {
+            if ( dictionary.size() == ColumnarFormat.MAX_DICTIONARY_SIZE ) {
+              dictionary = null;
+              continue;
+            }
+            index = dictionary.size();
+            dictionary.put( key, index );
+            values.add( bytes[ i ] );
+          }
+          indexes[ i ] = index;
+        }
+      }
+
+      if ( dictionary != null && dictionary.size() < valueCount ) {
+        ColumnarOutputBuffer encoded = new ColumnarOutputBuffer( valueCount + 16 );
+        encoded.write( ColumnarFormat.ENCODING_DICTIONARY );
+        encoded.writeVarLong( values.size() );
+        for ( byte[] value : values ) {
+          encoded.writeBytesWithLength( value );
+        }
+        int width = RleBitPackingHybrid.bitWidth( values.size() - 1 );
+        encoded.write( width );
+        RleBitPackingHybrid.encode( indexes, valueCount, width, encoded );
+        if ( encoded.size() < plainSize ) {
+          chunk.write( encoded );
+          return;
+        }
+      }
+
+      chunk.write( ColumnarFormat.ENCODING_PLAIN );
+      for ( int i = 0; i < valueCount; i++ ) {
+        chunk.writeBytesWithLength( bytes[ i ] );
+      }
+    }
+
+    /**
+     * Deflates everything after the flag byte if that makes the chunk smaller.
+     */
+    private static ColumnarOutputBuffer deflate( ColumnarOutputBuffer chunk ) {
+      int length = chunk.size() - 1;
+      if ( length < 64 ) {
+        return chunk;
+      }
+      Deflater deflater = new Deflater( Deflater.BEST_SPEED );
+      try {
+        deflater.setInput( chunk.getBuffer(), 1, length );
+        deflater.finish();
+        ColumnarOutputBuffer deflated = new ColumnarOutputBuffer( length / 2 + 16 );
+        deflated.write( ColumnarFormat.FLAG_DEFLATED );
+        deflated.writeVarLong( length );
+        byte[] buffer = new byte[ 8192 ];
+        while ( !deflater.finished() ) {
+          int n = deflater.deflate( buffer );
+          deflated.write( buffer, 0, n );
+          if ( deflated.size() >= chunk.size() ) {
+            return chunk;
+          }
+        }
+        return deflated;
+      } finally {
+        deflater.end();
+      }
+    }
+
+    private static int compare( byte[] a, byte[] b ) {
+      int n = Math.min( a.length, b.length );
+      for ( int i = 0; i < n; i++ ) {
+        int c = ( a[ i ] & 0xFF ) - ( b[ i ] & 0xFF );
+        if ( c != 0 ) {
+          return c;
+        }
+      }
+      return a.length - b.length;
+    }
+  }
+}
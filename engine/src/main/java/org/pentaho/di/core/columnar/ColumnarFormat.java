@@ -0,0 +1,63 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.core.columnar;
+
+/**
+ * Constants of the columnar file format written by {@link ColumnarFileWriter}.
+ * <p>
+ * A file starts with the magic bytes and the version, followed by the row groups. A row group holds one chunk per
+ * column with the values of that column for all the rows of the group. The footer at the end of the file lists the
+ * columns, and per row group the row count and the position, length and statistics of every column chunk. The file
+ * ends with the length of the footer and the magic bytes again, so a reader finds the footer from the end of the file
+ * and only reads the chunks of the columns it needs.
+ * <p>
+ * A column chunk starts with a flag byte telling whether the rest of the chunk is deflated. Inside, the positions of
+ * the null values are stored as a run length / bit packed bitmap, followed by the values that are not null in one of
+ * the encodings below; the writer picks the smallest one for every chunk.
+ */
+public final class ColumnarFormat {
+
+  public static final byte[] MAGIC = { 'K', 'C', 'O', 'L' };
+  public static final byte VERSION = 1;
+
+  public static final String DEFAULT_EXTENSION = "kcol";
+  public static final int DEFAULT_ROW_GROUP_SIZE = 100000;
+
+  /** The values are stored as 64 bit integers */
+  public static final byte KIND_LONG = 0;
+  /** The values are stored as doubles */
+  public static final byte KIND_DOUBLE = 1;
+  /** The values are stored as byte arrays */
+  public static final byte KIND_BYTES = 2;
+
+  /** Every value as is: 8 bytes for longs and doubles, the length and the bytes for byte arrays */
+  public static final byte ENCODING_PLAIN = 0;
+  /** The distinct values once, then the bit packed index of the value of every row */
+  public static final byte ENCODING_DICTIONARY = 1;
+  /** Longs only: the minimum, then the bit packed difference between every value and the minimum */
+  public static final byte ENCODING_BIT_PACKED = 2;
+
+  static final byte FLAG_DEFLATED = 1;
+
+  static final int HEADER_LENGTH = MAGIC.length + 1;
+  static final int TRAILER_LENGTH = 4 + MAGIC.length;
+
+  /** The largest dictionary built for a column chunk */
+  static final int MAX_DICTIONARY_SIZE = 1 << 16;
+  /** Byte array statistics that are longer are left out of the footer */
+  static final int MAX_STATISTICS_LENGTH = 64;
+
+  private ColumnarFormat() {
+  }
+}
@@ -0,0 +1,115 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.core.columnar;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Reads the primitives of the columnar format from a byte array.
+ */
+class ColumnarInputBuffer {
+
+  private final byte[] buffer;
+  private final int limit;
+  private int position;
+
+  ColumnarInputBuffer( byte[] buffer ) {
+    this( buffer, 0, buffer.length );
+  }
+
+  ColumnarInputBuffer( byte[] buffer, int offset, int length ) {
+    this.buffer = buffer;
+    this.position = offset;
+    this.limit = offset + length;
+  }
+
+  int readByte() throws IOException {
+    ensure( 1 );
+    return buffer[ position++ ] & 0xFF;
+  }
+
+  long readVarLong() throws IOException {
+    long value = 0;
+    for ( int shift = 0; shift < 64; shift += 7 ) {
+      int b = readByte();
+      value |= (long) ( b & 0x7F ) << shift;
+      if ( ( b & 0x80 ) == 0 ) {
+        return value;
+      }
+    }
+    throw new IOException( "Malformed variable length number" );
+  }
+
+  int readVarInt() throws IOException {
+    long value = readVarLong();
+    if ( value < 0 || value > Integer.MAX_VALUE ) {
+      throw new IOException( "Number out of range: " + value );
+    }
+    return (int) value;
+  }
+
+  long readZigZag() throws IOException {
+    long value = readVarLong();
+    return ( value >>> 1 ) ^ -( value & 1 );
+  }
+
+  long readLong() throws IOException {
+    ensure( 8 );
+    long value = 0;
+    for ( int i = 0; i < 8; i++ ) {
+      value |= ( buffer[ position++ ] & 0xFFL ) << ( i * 8 );
+    }
+    return value;
+  }
+
+  int readInt() throws IOException {
+    ensure( 4 );
+    int value = 0;
+    for ( int i = 0; i < 4; i++ ) {
+      value |= ( buffer[ position++ ] & 0xFF ) << ( i * 8 );
+    }
+    return value;
+  }
+
+  byte[] readBytes( int length ) throws IOException {
+    ensure( length );
+    byte[] bytes = Arrays.copyOfRange( buffer, position, position + length );
+    position += length;
+    return bytes;
+  }
+
+  byte[] readBytesWithLength() throws IOException {
+    return readBytes( readVarInt() );
+  }
+
+  int getPosition() {
+    return position;
+  }
+
+  int remaining() {
+    return limit - position;
+  }
+
+  byte[] getBuffer() {
+    return buffer;
+  }
+
+  private void ensure( int length ) throws IOException {
+    if ( length < 0 || length > limit - position ) {
+      throw new EOFException( "Unexpected end of columnar data" );
+    }
+  }
+}
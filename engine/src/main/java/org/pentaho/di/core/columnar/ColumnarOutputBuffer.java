@@ -0,0 +1,70 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.core.columnar;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Growing byte buffer with the primitive writes of the columnar format. Multi byte values are little endian.
+ */
+class ColumnarOutputBuffer extends ByteArrayOutputStream {
+
+  ColumnarOutputBuffer() {
+    super( 1024 );
+  }
+
+  ColumnarOutputBuffer( int size ) {
+    super( size );
+  }
+
+  void writeVarLong( long value ) {
+    while ( ( value & ~0x7FL ) != 0 ) {
+      write( (int) ( ( value & 0x7F ) | 0x80 ) );
+      value >>>= 7;
+    }
+    write( (int) value );
+  }
+
+  void writeZigZag( long value ) {
+    writeVarLong( ( value << 1 ) ^ ( value >> 63 ) );
+  }
+
+  void writeLong( long value ) {
+    for ( int i = 0; i < 8; i++ ) {
+      write( (int) ( value >>> ( i * 8 ) ) );
+    }
+  }
+
+  void writeInt( int value ) {
+    for ( int i = 0; i < 4; i++ ) {
+      write( value >>> ( i * 8 ) );
+    }
+  }
+
+  void writeBytesWithLength( byte[] bytes ) {
+    writeVarLong( bytes.length );
+    write( bytes, 0, bytes.length );
+  }
+
+  /**
+   * Appends the content of another buffer.
+   */
+  void write( ColumnarOutputBuffer other ) {
+    write( other.buf, 0, other.count );
+  }
+
+  byte[] getBuffer() {
+    return buf;
+  }
+}
@@ -0,0 +1,171 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.core.columnar;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.Date;
+
+import org.pentaho.di.core.exception.KettleValueException;
+import org.pentaho.di.core.row.ValueMetaInterface;
+import org.pentaho.di.core.row.value.ValueMetaTimestamp;
+
+/**
+ * Converts Kettle values to the values of columnar files and back.
+ * <ul>
+ * <li>Integers, dates (milliseconds), timestamps (nanoseconds) and booleans (0 or 1) are stored as longs;</li>
+ * <li>numbers as doubles;</li>
+ * <li>strings and big numbers as UTF-8 text, binaries as is;</li>
+ * <li>the other types are stored as strings.</li>
+ * </ul>
+ */
+public final class ColumnarValues {
+
+  private static final long NANOS_PER_SECOND = 1000000000L;
+
+  private ColumnarValues() {
+  }
+
+  /**
+   * @return the type a value of the given type is read back as
+   */
+  public static int getStoredType( int type ) {
+    switch ( type ) {
+      case ValueMetaInterface.TYPE_INTEGER:
+      case ValueMetaInterface.TYPE_DATE:
+      case ValueMetaInterface.TYPE_TIMESTAMP:
+      case ValueMetaInterface.TYPE_BOOLEAN:
+      case ValueMetaInterface.TYPE_NUMBER:
+      case ValueMetaInterface.TYPE_BIGNUMBER:
+      case ValueMetaInterface.TYPE_BINARY:
+        return type;
+      default:
+        return ValueMetaInterface.TYPE_STRING;
+    }
+  }
+
+  /**
+   * @return one of the ColumnarFormat.KIND_ constants
+   */
+  public static byte getKind( int type ) {
+    switch ( getStoredType( type ) ) {
+      case ValueMetaInterface.TYPE_INTEGER:
+      case ValueMetaInterface.TYPE_DATE:
+      case ValueMetaInterface.TYPE_TIMESTAMP:
+      case ValueMetaInterface.TYPE_BOOLEAN:
+        return ColumnarFormat.KIND_LONG;
+      case ValueMetaInterface.TYPE_NUMBER:
+        return ColumnarFormat.KIND_DOUBLE;
+      default:
+        return ColumnarFormat.KIND_BYTES;
+    }
+  }
+
+  /**
+   * Adds a column for values of the given metadata.
+   *
+   * @return the index of the column
+   */
+  public static int addColumn( ColumnarFileWriter writer, ValueMetaInterface valueMeta ) {
+    int type = getStoredType( valueMeta.getType() );
+    return writer.addColumn( valueMeta.getName(), getKind( type ), type, valueMeta.getLength(),
+      valueMeta.getPrecision() );
+  }
+
+  /**
+   * Sets the value of a column added with {@link #addColumn(ColumnarFileWriter, ValueMetaInterface)}.
+   */
+  public static void setValue( ColumnarFileWriter writer, int column, ValueMetaInterface valueMeta, Object value )
+    throws KettleValueException {
+    if ( valueMeta.isNull( value ) ) {
+      return;
+    }
+    switch ( getStoredType( valueMeta.getType() ) ) {
+      case ValueMetaInterface.TYPE_INTEGER:
+        writer.setLong( column, valueMeta.getInteger( value ) );
+        break;
+      case ValueMetaInterface.TYPE_DATE:
+        writer.setLong( column, valueMeta.getDate( value ).getTime() );
+        break;
+      case ValueMetaInterface.TYPE_TIMESTAMP:
+        writer.setLong( column, toNanos( valueMeta, value ) );
+        break;
+      case ValueMetaInterface.TYPE_BOOLEAN:
+        writer.setLong( column, valueMeta.getBoolean( value ) ? 1L : 0L );
+        break;
+      case ValueMetaInterface.TYPE_NUMBER:
+        writer.setDouble( column, valueMeta.getNumber( value ) );
+        break;
+      case ValueMetaInterface.TYPE_BIGNUMBER:
+        writer.setBigNumber( column, valueMeta.getBigNumber( value ) );
+        break;
+      case ValueMetaInterface.TYPE_BINARY:
+        writer.setBytes( column, valueMeta.getBinary( value ) );
+        break;
+      default:
+        writer.setBytes( column, valueMeta.getString( value ).getBytes( StandardCharsets.UTF_8 ) );
+        break;
+    }
+  }
+
+  /**
+   * @param vector the values of a column
+   * @param row    the row in the row group
+   * @param type   the type stored in the column
+   * @return the Kettle value
+   */
+  public static Object getValue( ColumnVector vector, int row, int type ) {
+    if ( vector.isNull( row ) ) {
+      return null;
+    }
+    switch ( type ) {
+      case ValueMetaInterface.TYPE_INTEGER:
+        return vector.getLong( row );
+      case ValueMetaInterface.TYPE_DATE:
+        return new Date( vector.getLong( row ) );
+      case ValueMetaInterface.TYPE_TIMESTAMP:
+        long nanos = vector.getLong( row );
+        Timestamp timestamp = new Timestamp( Math.floorDiv( nanos, NANOS_PER_SECOND ) * 1000L );
+        timestamp.setNanos( (int) Math.floorMod( nanos, NANOS_PER_SECOND ) );
+        return timestamp;
+      case ValueMetaInterface.TYPE_BOOLEAN:
+        return vector.getLong( row ) != 0L;
+      case ValueMetaInterface.TYPE_NUMBER:
+        return vector.getDouble( row );
+      case ValueMetaInterface.TYPE_BIGNUMBER:
+        return new BigDecimal( new String( vector.getBytes( row ), StandardCharsets.UTF_8 ) );
+      case ValueMetaInterface.TYPE_BINARY:
+        // Rows with the same dictionary value share the array
+        return vector.getBytes( row ).clone();
+      default:
+        return new String( vector.getBytes( row ), StandardCharsets.UTF_8 );
+    }
+  }
+
+  private static long toNanos( ValueMetaInterface valueMeta, Object value ) throws KettleValueException {
+    Timestamp timestamp;
+    if ( valueMeta instanceof ValueMetaTimestamp ) {
+      timestamp = ( (ValueMetaTimestamp) valueMeta ).getTimestamp( value );
+    } else {
+      timestamp = new Timestamp( valueMeta.getDate( value ).getTime() );
+    }
+    try {
+      long seconds = Math.floorDiv( timestamp.getTime(), 1000L );
+      return Math.addExact( Math.multiplyExact( seconds, NANOS_PER_SECOND ), timestamp.getNanos() );
+    } catch ( ArithmeticException e ) {
+      throw new KettleValueException( "Timestamp " + timestamp + " is out of the range of a columnar file" );
+    }
+  }
+}
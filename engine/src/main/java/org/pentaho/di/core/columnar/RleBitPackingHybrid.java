@@ -0,0 +1,146 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.core.columnar;
+
+import java.io.IOException;
+
+/**
+ * Run length / bit packing hybrid encoding of unsigned integers that all fit in the same number of bits, like the
+ * one of Parquet. The values are written as a sequence of runs, each starting with a variable length header:
+ * <ul>
+ * <li>a repeated run: header {@code count << 1}, followed by the value in the smallest number of whole bytes;</li>
+ * <li>a bit packed run: header {@code groups << 1 | 1}, followed by groups of 8 values packed in {@code bitWidth}
+ * bits each, least significant bit first. The last group is padded with zeros.</li>
+ * </ul>
+ * Runs of 8 or more equal values are repeated runs, everything else is bit packed.
+ */
+final class RleBitPackingHybrid {
+
+  private static final int MIN_REPEAT = 8;
+
+  private RleBitPackingHybrid() {
+  }
+
+  /**
+   * @return the number of bits needed for the unsigned value
+   */
+  static int bitWidth( long maxValue ) {
+    return 64 - Long.numberOfLeadingZeros( maxValue );
+  }
+
+  static void encode( long[] values, int count, int bitWidth, ColumnarOutputBuffer out ) {
+    int literalStart = 0;
+    int literalGroups = 0;
+    int i = 0;
+    while ( i < count ) {
+      long value = values[ i ];
+      int run = 1;
+      while ( i + run < count && values[ i + run ] == value ) {
+        run++;
+      }
+      if ( run >= MIN_REPEAT ) {
+        writeLiterals( values, count, literalStart, literalGroups, bitWidth, out );
+        literalGroups = 0;
+        out.writeVarLong( (long) run << 1 );
+        for ( int b = 0; b < bitWidth; b += 8 ) {
+          out.write( (int) ( value >>> b ) );
+        }
+        i += run;
+      } else {
+        if ( literalGroups == 0 ) {
+          literalStart = i;
+        }
+        literalGroups++;
+        i += 8;
+      }
+    }
+    writeLiterals( values, count, literalStart, literalGroups, bitWidth, out );
+  }
+
+  private static void writeLiterals( long[] values, int count, int start, int groups, int bitWidth,
+    ColumnarOutputBuffer out ) {
+    if ( groups == 0 ) {
+      return;
+    }
+    out.writeVarLong( (long) groups << 1 | 1 );
+    int current = 0;
+    int bitsInCurrent = 0;
+    int end = start + groups * 8;
+    for ( int i = start; i < end; i++ ) {
+      long value = i < count ? values[ i ] : 0L;
+      int bits = bitWidth;
+      while ( bits > 0 ) {
+        int take = Math.min( bits, 8 - bitsInCurrent );
+        current |= (int) ( value & ( ( 1 << take ) - 1 ) ) << bitsInCurrent;
+        value >>>= take;
+        bits -= take;
+        bitsInCurrent += take;
+        if ( bitsInCurrent == 8 ) {
+          out.write( current );
+          current = 0;
+          bitsInCurrent = 0;
+        }
+      }
+    }
+  }
+
+  static void decode( ColumnarInputBuffer in, int bitWidth, long[] values, int count ) throws IOException {
+    int i = 0;
+    while ( i < count ) {
+      long header = in.readVarLong();
+      if ( ( header & 1 ) == 0 ) {
+        long run = header >>> 1;
+        if ( run > count - i ) {
+          throw new IOException( "Run of " + run + " values exceeds the " + count + " values of the chunk" );
+        }
+        long value = 0;
+        for ( int b = 0; b < bitWidth; b += 8 ) {
+          value |= (long) in.readByte() << b;
+        }
+        for ( int end = i + (int) run; i < end; i++ ) {
+          values[ i ] = value;
+        }
+      } else {
+        long groups = header >>> 1;
+        if ( groups * 8 > count - i + 7 ) {
+          throw new IOException( "Bit packed run of " + groups + " groups exceeds the " + count
+            + " values of the chunk" );
+        }
+        int length = (int) groups * bitWidth;
+        byte[] packed = in.readBytes( length );
+        int n = Math.min( (int) groups * 8, count - i );
+        unpack( packed, bitWidth, values, i, n );
+        i += n;
+      }
+    }
+  }
+
+  private static void unpack( byte[] packed, int bitWidth, long[] values, int offset, int n ) {
+    long bitPosition = 0;
+    for ( int k = 0; k < n; k++ ) {
+      long value = 0;
+      int got = 0;
+      while ( got < bitWidth ) {
+        int index = (int) ( bitPosition >>> 3 );
+        int bitOffset = (int) ( bitPosition & 7 );
+        int take = Math.min( 8 - bitOffset, bitWidth - got );
+        long bits = ( ( packed[ index ] & 0xFF ) >>> bitOffset ) & ( ( 1 << take ) - 1 );
+        value |= bits << got;
+        got += take;
+        bitPosition += take;
+      }
+      values[ offset + k ] = value;
+    }
+  }
+}
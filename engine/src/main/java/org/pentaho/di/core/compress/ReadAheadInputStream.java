@@ -0,0 +1,187 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.core.compress;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.pentaho.di.core.util.ExecutorUtil;
+
+/**
+ * Reads a stream ahead of its consumer on a background thread. Wrapped around a decompressing stream, the data is
+ * inflated on that thread while the consumer parses the buffers that are ready, so decompression and parsing overlap.
+ * At most the given number of buffers is read ahead.
+ */
+public class ReadAheadInputStream extends InputStream {
+
+  public static final int DEFAULT_BUFFER_SIZE = 256 * 1024;
+  public static final int DEFAULT_BUFFER_COUNT = 4;
+
+  private static final byte[] END = new byte[ 0 ];
+
+  private final InputStream delegate;
+  private final int bufferSize;
+  private final BlockingQueue<byte[]> buffers;
+  private final CountDownLatch readerDone = new CountDownLatch( 1 );
+
+  private volatile boolean closed;
+  private volatile IOException error;
+
+  private byte[] buffer = END;
+  private int position;
+  private boolean endOfStream;
+
+  public ReadAheadInputStream( InputStream delegate ) {
+    this( delegate, DEFAULT_BUFFER_SIZE, DEFAULT_BUFFER_COUNT );
+  }
+
+  /**
+   * @param delegate    the stream to read from
+   * @param bufferSize  the number of bytes read at a time
+   * @param bufferCount the number of buffers that can be read ahead
+   */
+  public ReadAheadInputStream( InputStream delegate, int bufferSize, int bufferCount ) {
+    this.delegate = delegate;
+    this.bufferSize = Math.max( 1, bufferSize );
+    this.buffers = new ArrayBlockingQueue<>( Math.max( 1, bufferCount ) );
+    ExecutorUtil.getExecutor().execute( this::readAhead );
+  }
+
+  @Override
+  public int read() throws IOException {
+    if ( !nextBuffer() ) {
+      return -1;
+    }
+    return buffer[ position++ ] & 0xFF;
+  }
+
+  @Override
+  public int read( byte[] b, int off, int len ) throws IOException {
+    if ( len == 0 ) {
+      return 0;
+    }
+    if ( !nextBuffer() ) {
+      return -1;
+    }
+    int n = Math.min( len, buffer.length - position );
+    System.arraycopy( buffer, position, b, off, n );
+    position += n;
+    return n;
+  }
+
+  @Override
+  public int available() {
+    return buffer.length - position;
+  }
+
+  /**
+   * Stops reading ahead and closes the wrapped stream once the background thread let go of it.
+   */
+  @Override
+  public void close() throws IOException {
+    if ( closed ) {
+      return;
+    }
+    closed = true;
+    buffers.clear();
+    try {
+      readerDone.await();
+    } catch ( InterruptedException e ) {
+      Thread.currentThread().interrupt();
+    } finally {
+      delegate.close();
+    }
+  }
+
+  /**
+   * Makes sure there is something left to read in the current buffer.
+   *
+   * @return false at the end of the stream
+   */
+  private boolean nextBuffer() throws IOException {
+    if ( closed ) {
+      throw new IOException( "Stream closed" );
+    }
+    while ( position == buffer.length ) {
+      if ( endOfStream ) {
+        return false;
+      }
+      try {
+        buffer = buffers.take();
+      } catch ( InterruptedException e ) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException( "Interrupted while waiting for data" );
+      }
+      position = 0;
+      if ( buffer == END ) {
+        endOfStream = true;
+        if ( error != null ) {
+          throw new IOException( error.getMessage(), error );
+        }
+      }
+    }
+    return true;
+  }
+
+  private void readAhead() {
+    try {
+      while ( !closed ) {
+        byte[] data = new byte[ bufferSize ];
+        int length = 0;
+        int n = 0;
+        while ( length < bufferSize && ( n = delegate.read( data, length, bufferSize - length ) ) >= 0 ) {
+          length += n;
+        }
+        if ( length > 0 && !put( length == bufferSize ? data : Arrays.copyOf( data, length ) ) ) {
+          return;
+        }
+        if ( n < 0 ) {
+          break;
+        }
+      }
+    } catch ( IOException e ) {
+      error = e;
+    } catch ( RuntimeException e ) {
+      error = new IOException( e );
+    } finally {
+      try {
+        put( END );
+      } finally {
+        readerDone.countDown();
+      }
+    }
+  }
+
+  /**
+   * Waits for room in the queue, giving up when the stream is closed.
+   */
+  private boolean put( byte[] data ) {
+    try {
+      while ( !closed ) {
+        if ( buffers.offer( data, 100, TimeUnit.MILLISECONDS ) ) {
+          return true;
+        }
+      }
+    } catch ( InterruptedException e ) {
+      Thread.currentThread().interrupt();
+    }
+    return false;
+  }
+}
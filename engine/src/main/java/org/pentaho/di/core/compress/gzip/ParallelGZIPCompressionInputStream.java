@@ -0,0 +1,238 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.core.compress.gzip;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.SequenceInputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+import org.pentaho.di.core.compress.CompressionInputStream;
+import org.pentaho.di.core.compress.CompressionProvider;
+import org.pentaho.di.core.util.ExecutorUtil;
+
+/**
+ * GZIP input stream that inflates the members of a block compressed GZIP file (BGZF, as written by bgzip and the
+ * htslib tools) on a number of threads at the same time. Every BGZF member carries its compressed size in the header,
+ * so the members can be cut out of the file without inflating them first. The members are handed out in order.
+ * <p>
+ * As soon as a member without a BGZF header turns up, the rest of the file is read with a {@link GZIPInputStream} on
+ * the calling thread; plain and multi-member GZIP files are read the way {@link GZIPCompressionInputStream} reads them.
+ */
+public class ParallelGZIPCompressionInputStream extends CompressionInputStream {
+
+  private static final int HEADER_LENGTH = 18;
+  private static final int TRAILER_LENGTH = 8;
+  private static final int FEXTRA = 4;
+
+  private static final byte[] EMPTY = new byte[ 0 ];
+
+  private final int maxPendingBlocks;
+
+  /** The members that are being inflated, in the order of the file */
+  private final Deque<Future<byte[]>> pending = new ArrayDeque<>();
+
+  private InputStream sequential;
+  private boolean endOfMembers;
+  private boolean closed;
+
+  private byte[] block = EMPTY;
+  private int position;
+
+  /**
+   * @param in       the compressed stream
+   * @param provider the compression provider
+   * @param threads  the number of members that are inflated at the same time
+   */
+  public ParallelGZIPCompressionInputStream( InputStream in, CompressionProvider provider, int threads ) {
+    super( new BufferedInputStream( in, 128 * 1024 ), provider );
+    this.maxPendingBlocks = Math.max( 1, threads );
+  }
+
+  @Override
+  public int read() throws IOException {
+    byte[] one = new byte[ 1 ];
+    return read( one, 0, 1 ) < 0 ? -1 : one[ 0 ] & 0xFF;
+  }
+
+  @Override
+  public int read( byte[] b ) throws IOException {
+    return read( b, 0, b.length );
+  }
+
+  @Override
+  public int read( byte[] b, int off, int len ) throws IOException {
+    if ( closed ) {
+      throw new IOException( "Stream closed" );
+    }
+    if ( len == 0 ) {
+      return 0;
+    }
+    while ( position == block.length ) {
+      fillPending();
+      if ( !pending.isEmpty() ) {
+        block = takeFirstBlock();
+        position = 0;
+      } else if ( sequential != null ) {
+        return sequential.read( b, off, len );
+      } else {
+        return -1;
+      }
+    }
+    int n = Math.min( len, block.length - position );
+    System.arraycopy( block, position, b, off, n );
+    position += n;
+    return n;
+  }
+
+  @Override
+  public void close() throws IOException {
+    if ( closed ) {
+      return;
+    }
+    closed = true;
+    for ( Future<byte[]> future : pending ) {
+      future.cancel( true );
+    }
+    pending.clear();
+    if ( sequential != null ) {
+      sequential.close();
+    } else {
+      delegate.close();
+    }
+  }
+
+  /**
+   * Cuts members out of the file until enough of them are being inflated, the file ends or a member turns out not
+   * to be a BGZF block.
+   */
+  private void fillPending() throws IOException {
+    while ( pending.size() < maxPendingBlocks && !endOfMembers && sequential == null ) {
+      byte[] header = new byte[ HEADER_LENGTH ];
+      int length = readFully( delegate, header, 0, header.length );
+      if ( length == 0 ) {
+        endOfMembers = true;
+      } else if ( length < HEADER_LENGTH || !isBlockHeader( header ) ) {
+        sequential =
+          new GZIPInputStream( new SequenceInputStream( new ByteArrayInputStream( header, 0, length ), delegate ) );
+      } else {
+        int blockSize = ( ( header[ 16 ] & 0xFF ) | ( header[ 17 ] & 0xFF ) << 8 ) + 1;
+        if ( blockSize < HEADER_LENGTH + TRAILER_LENGTH ) {
+          throw new ZipException( "Invalid BGZF block size " + blockSize );
+        }
+        final byte[] member = new byte[ blockSize - HEADER_LENGTH ];
+        if ( readFully( delegate, member, 0, member.length ) < member.length ) {
+          throw new EOFException( "Unexpected end of BGZF block" );
+        }
+        pending.addLast( ExecutorUtil.getExecutor().submit( () -> inflate( member ) ) );
+      }
+    }
+  }
+
+  private byte[] takeFirstBlock() throws IOException {
+    Future<byte[]> future = pending.removeFirst();
+    try {
+      return future.get();
+    } catch ( InterruptedException e ) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException( "Interrupted while decompressing" );
+    } catch ( ExecutionException e ) {
+      if ( e.getCause() instanceof IOException ) {
+        throw (IOException) e.getCause();
+      }
+      throw new IOException( "Error decompressing block", e.getCause() );
+    }
+  }
+
+  /**
+   * @return true for the header of a BGZF member: a GZIP header with only the extra field, holding just the BC
+   * subfield with the size of the member
+   */
+  static boolean isBlockHeader( byte[] header ) {
+    return ( header[ 0 ] & 0xFF ) == 0x1F && ( header[ 1 ] & 0xFF ) == 0x8B && header[ 2 ] == 8
+      && header[ 3 ] == FEXTRA && header[ 10 ] == 6 && header[ 11 ] == 0
+      && header[ 12 ] == 'B' && header[ 13 ] == 'C' && header[ 14 ] == 2 && header[ 15 ] == 0;
+  }
+
+  /**
+   * Inflates the deflated data and checks it against the trailer of the member.
+   *
+   * @param member the member after the header: the deflated data followed by the CRC32 and the uncompressed size
+   */
+  static byte[] inflate( byte[] member ) throws IOException {
+    int trailer = member.length - TRAILER_LENGTH;
+    long expectedCrc = readInt( member, trailer ) & 0xFFFFFFFFL;
+    int size = readInt( member, trailer + 4 );
+    if ( size < 0 ) {
+      throw new ZipException( "Invalid BGZF block length " + ( size & 0xFFFFFFFFL ) );
+    }
+    if ( size == 0 ) {
+      return EMPTY;
+    }
+
+    byte[] data = new byte[ size ];
+    Inflater inflater = new Inflater( true );
+    try {
+      inflater.setInput( member, 0, trailer );
+      int length = 0;
+      while ( length < size ) {
+        int n = inflater.inflate( data, length, size - length );
+        if ( n == 0 && ( inflater.finished() || inflater.needsInput() || inflater.needsDictionary() ) ) {
+          throw new ZipException( "Corrupt BGZF block" );
+        }
+        length += n;
+      }
+    } catch ( DataFormatException e ) {
+      throw new ZipException( e.getMessage() );
+    } finally {
+      inflater.end();
+    }
+
+    CRC32 crc = new CRC32();
+    crc.update( data, 0, size );
+    if ( crc.getValue() != expectedCrc ) {
+      throw new ZipException( "Corrupt BGZF block (CRC mismatch)" );
+    }
+    return data;
+  }
+
+  private static int readInt( byte[] b, int offset ) {
+    return ( b[ offset ] & 0xFF ) | ( b[ offset + 1 ] & 0xFF ) << 8 | ( b[ offset + 2 ] & 0xFF ) << 16
+      | ( b[ offset + 3 ] & 0xFF ) << 24;
+  }
+
+  private static int readFully( InputStream in, byte[] b, int off, int len ) throws IOException {
+    int total = 0;
+    while ( total < len ) {
+      int n = in.read( b, off + total, len - total );
+      if ( n < 0 ) {
+        break;
+      }
+      total += n;
+    }
+    return total;
+  }
+}
@@ -0,0 +1,160 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.core.compress.gzip;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPOutputStream;
+
+import org.pentaho.di.core.compress.CompressionOutputStream;
+import org.pentaho.di.core.compress.CompressionProvider;
+import org.pentaho.di.core.util.ExecutorUtil;
+
+/**
+ * GZIP output stream that cuts the data in blocks and compresses the blocks on a number of threads at the same time.
+ * Every block becomes a complete GZIP member; the members are written in order, so the result is a multi-member GZIP
+ * file that gunzip and {@link java.util.zip.GZIPInputStream} read as one stream. The compression ratio is a little
+ * lower than that of a single member, as every block starts with an empty dictionary.
+ */
+public class ParallelGZIPCompressionOutputStream extends CompressionOutputStream {
+
+  public static final int DEFAULT_BLOCK_SIZE = 1024 * 1024;
+
+  private final int blockSize;
+  private final int maxPendingBlocks;
+
+  /** The compressed blocks in the order they have to be written */
+  private final Deque<Future<byte[]>> pending = new ArrayDeque<>();
+
+  private byte[] block;
+  private int length;
+  private boolean anyBlock;
+  private boolean closed;
+
+  /**
+   * @param out       the stream to write the compressed data to
+   * @param provider  the compression provider
+   * @param threads   the number of blocks that are compressed at the same time
+   * @param blockSize the number of uncompressed bytes per block
+   */
+  public ParallelGZIPCompressionOutputStream( OutputStream out, CompressionProvider provider, int threads,
+    int blockSize ) {
+    super( out, provider );
+    this.blockSize = Math.max( 1024, blockSize );
+    this.maxPendingBlocks = Math.max( 1, threads );
+    this.block = new byte[ this.blockSize ];
+  }
+
+  @Override
+  public void write( int b ) throws IOException {
+    if ( length == blockSize ) {
+      submitBlock();
+    }
+    block[ length++ ] = (byte) b;
+  }
+
+  @Override
+  public void write( byte[] b ) throws IOException {
+    write( b, 0, b.length );
+  }
+
+  @Override
+  public void write( byte[] b, int off, int len ) throws IOException {
+    while ( len > 0 ) {
+      if ( length == blockSize ) {
+        submitBlock();
+      }
+      int chunk = Math.min( len, blockSize - length );
+      System.arraycopy( b, off, block, length, chunk );
+      length += chunk;
+      off += chunk;
+      len -= chunk;
+    }
+  }
+
+  /**
+   * Writes the blocks that are compressed already. The block that is being filled is not cut short, so the data
+   * written since the last full block only reaches the file when the stream is closed.
+   */
+  @Override
+  public void flush() throws IOException {
+    while ( !pending.isEmpty() && pending.peekFirst().isDone() ) {
+      writeFirstBlock();
+    }
+    delegate.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    if ( closed ) {
+      return;
+    }
+    closed = true;
+    try {
+      if ( length > 0 || !anyBlock ) {
+        // An empty stream still needs one member to be a valid GZIP file
+        submitBlock();
+      }
+      while ( !pending.isEmpty() ) {
+        writeFirstBlock();
+      }
+    } finally {
+      for ( Future<byte[]> future : pending ) {
+        future.cancel( true );
+      }
+      pending.clear();
+      delegate.close();
+    }
+  }
+
+  private void submitBlock() throws IOException {
+    final byte[] data = block;
+    final int dataLength = length;
+    pending.addLast( ExecutorUtil.getExecutor().submit( () -> compress( data, dataLength ) ) );
+    anyBlock = true;
+    block = new byte[ blockSize ];
+    length = 0;
+
+    // Don't run ahead of the compression threads
+    while ( pending.size() > maxPendingBlocks ) {
+      writeFirstBlock();
+    }
+  }
+
+  private void writeFirstBlock() throws IOException {
+    Future<byte[]> future = pending.removeFirst();
+    try {
+      delegate.write( future.get() );
+    } catch ( InterruptedException e ) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException( "Interrupted while compressing" );
+    } catch ( ExecutionException e ) {
+      throw new IOException( "Error compressing block", e.getCause() );
+    }
+  }
+
+  static byte[] compress( byte[] data, int length ) throws IOException {
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream( length / 2 + 64 );
+    try ( GZIPOutputStream gzip = new GZIPOutputStream( compressed, 8192 ) ) {
+      gzip.write( data, 0, length );
+    }
+    return compressed.toByteArray();
+  }
+}
@@ -0,0 +1,195 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.core.logging;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.pentaho.di.core.Const;
+import org.pentaho.di.core.exception.KettleException;
+import org.pentaho.di.core.util.EnvUtil;
+
+/**
+ * Shared writer that performs log table writes in the background, so that a slow logging database doesn't hold up the
+ * timers and threads of the transformations that produce the log records.
+ * <p>
+ * Writes are executed in order on one daemon thread per logging connection. A write that is submitted while an
+ * earlier write with the same owner and kind is still waiting in the queue replaces that write: interval log records
+ * always describe the latest state, so there is no point in writing the intermediate ones. When the queue of a
+ * connection is full, detail writes (step performance records and such) are dropped while status writes are always
+ * accepted.
+ */
+public class AsyncLogTableWriter {
+
+  /**
+   * A write of one or more log records, typically including connecting to the logging database and disconnecting.
+   */
+  public interface LogTableWrite {
+    void write() throws KettleException;
+  }
+
+  private static final int DEFAULT_QUEUE_SIZE = 1000;
+
+  private static AsyncLogTableWriter instance;
+
+  private final int maxQueueSize;
+
+  private final Map<String, Worker> workers = new HashMap<>();
+
+  private final AtomicLong droppedWrites = new AtomicLong();
+
+  private final LogChannelInterface log = new LogChannel( "AsyncLogTableWriter" );
+
+  public static synchronized AsyncLogTableWriter getInstance() {
+    if ( instance == null ) {
+      instance = new AsyncLogTableWriter( Const.toInt( EnvUtil.getSystemProperty(
+        Const.KETTLE_LOG_TABLE_ASYNC_QUEUE_SIZE ), DEFAULT_QUEUE_SIZE ) );
+    }
+    return instance;
+  }
+
+  @VisibleForTesting
+  AsyncLogTableWriter( int maxQueueSize ) {
+    this.maxQueueSize = maxQueueSize;
+  }
+
+  /**
+   * Queues a log table write.
+   *
+   * @param connectionName the name of the logging connection, writes on the same connection are executed in order
+   * @param ownerId        the log channel ID of the transformation or job the records belong to
+   * @param kind           the kind of records, a queued write of the same owner and kind is replaced by this one
+   * @param detail         true if the write may be dropped when the queue is full
+   * @param write          the write to perform
+   * @return false if the write was dropped
+   */
+  public boolean submit( String connectionName, String ownerId, String kind, boolean detail, LogTableWrite write ) {
+    return getWorker( connectionName ).submit( ownerId + "/" + kind, detail, write );
+  }
+
+  /**
+   * Waits until all writes on the given logging connection that were submitted before this call have been executed.
+   *
+   * @param connectionName the name of the logging connection
+   */
+  public void flush( String connectionName ) throws InterruptedException {
+    Worker worker;
+    synchronized ( workers ) {
+      worker = workers.get( String.valueOf( connectionName ) );
+    }
+    if ( worker != null ) {
+      worker.flush();
+    }
+  }
+
+  /**
+   * @return the number of detail writes that were dropped because the queue of their connection was full
+   */
+  public long getDroppedWrites() {
+    return droppedWrites.get();
+  }
+
+  private Worker getWorker( String connectionName ) {
+    String key = String.valueOf( connectionName );
+    synchronized ( workers ) {
+      return workers.computeIfAbsent( key, Worker::new );
+    }
+  }
+
+  private static class PendingWrite {
+    private final String key;
+    private LogTableWrite write;
+    private final CountDownLatch done = new CountDownLatch( 1 );
+
+    PendingWrite( String key, LogTableWrite write ) {
+      this.key = key;
+      this.write = write;
+    }
+  }
+
+  private class Worker implements Runnable {
+    private final BlockingQueue<PendingWrite> queue = new LinkedBlockingQueue<>();
+
+    // The writes waiting in the queue, by owner and kind
+    private final Map<String, PendingWrite> waiting = new HashMap<>();
+
+    private final Thread thread;
+
+    Worker( String connectionName ) {
+      thread = new Thread( this, "Log table writer: " + connectionName );
+      thread.setDaemon( true );
+      thread.start();
+    }
+
+    synchronized boolean submit( String key, boolean detail, LogTableWrite write ) {
+      PendingWrite pendingWrite = waiting.get( key );
+      if ( pendingWrite != null ) {
+        pendingWrite.write = write;
+        return true;
+      }
+      if ( detail && queue.size() >= maxQueueSize ) {
+        if ( droppedWrites.incrementAndGet() == 1 ) {
+          log.logError( "The log table write queue is full, detail log records are being dropped" );
+        }
+        return false;
+      }
+      pendingWrite = new PendingWrite( key, write );
+      waiting.put( key, pendingWrite );
+      queue.add( pendingWrite );
+      return true;
+    }
+
+    void flush() throws InterruptedException {
+      if ( Thread.currentThread() == thread ) {
+        return;
+      }
+      PendingWrite marker = new PendingWrite( null, null );
+      queue.add( marker );
+      marker.done.await();
+    }
+
+    @Override
+    public void run() {
+      while ( true ) {
+        PendingWrite pendingWrite;
+        try {
+          pendingWrite = queue.take();
+        } catch ( InterruptedException e ) {
+          return;
+        }
+        LogTableWrite write;
+        synchronized ( this ) {
+          write = pendingWrite.write;
+          if ( pendingWrite.key != null ) {
+            waiting.remove( pendingWrite.key );
+          }
+        }
+        try {
+          if ( write != null ) {
+            write.write();
+          }
+        } catch ( Exception e ) {
+          log.logError( "Error writing log records to the log table", e );
+        } finally {
+          pendingWrite.done.countDown();
+        }
+      }
+    }
+  }
+}
@@ -1462,6 +1462,7 @@ public class KettleDatabaseRepository extends KettleDatabaseRepositoryBase {
   }
 
   public synchronized void deleteTransformation( ObjectId id_transformation ) throws KettleException {
+    transDelegate.clearTransBufferCache();
     delTransNotes( id_transformation );
     delStepAttributes( id_transformation );
     delSteps( id_transformation );
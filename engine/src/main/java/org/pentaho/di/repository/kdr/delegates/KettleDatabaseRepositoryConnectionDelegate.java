@@ -85,6 +85,8 @@ public class KettleDatabaseRepositoryConnectionDelegate extends KettleDatabaseRe
   protected List<Object[]> stepAttributesBuffer;
   protected RowMetaInterface stepAttributesRowMeta;
 
+  protected KettleDatabaseRepositoryTransBuffer transBuffer;
+
   protected PreparedStatement pstmt_entry_attributes;
 
   protected boolean useBatchProcessing;
@@ -407,6 +409,62 @@ public class KettleDatabaseRepositoryConnectionDelegate extends KettleDatabaseRe
     this.stepAttributesBuffer = stepAttributesBuffer;
   }
 
+  /**
+   * @return the rows of the step attributes buffer that belong to one step, an empty list if there is no buffer
+   */
+  public synchronized List<Object[]> getStepAttributesBuffer( ObjectId id_step ) throws KettleValueException {
+    if ( stepAttributesBuffer == null ) {
+      return Collections.emptyList();
+    }
+    // The buffer is sorted on the step id first: find the first row of the step, then the first of the next one
+    long id = new LongObjectId( id_step ).longValue();
+    int start = 0;
+    int end = stepAttributesBuffer.size();
+    while ( start < end ) {
+      int middle = ( start + end ) >>> 1;
+      if ( stepAttributesRowMeta.getInteger( stepAttributesBuffer.get( middle ), 0 ) < id ) {
+        start = middle + 1;
+      } else {
+        end = middle;
+      }
+    }
+    end = start;
+    while ( end < stepAttributesBuffer.size()
+      && stepAttributesRowMeta.getInteger( stepAttributesBuffer.get( end ), 0 ) == id ) {
+      end++;
+    }
+    return stepAttributesBuffer.subList( start, end );
+  }
+
+  /**
+   * Makes the lookups of steps, hops, notes and attributes use the rows of a transformation that were read in one go.
+   *
+   * @param transBuffer the rows of the transformation that is being loaded or null to query the repository again
+   */
+  public synchronized void setTransBuffer( KettleDatabaseRepositoryTransBuffer transBuffer ) {
+    this.transBuffer = transBuffer;
+    if ( transBuffer != null ) {
+      stepAttributesBuffer = transBuffer.getStepAttributes();
+      stepAttributesRowMeta = transBuffer.getStepAttributesRowMeta();
+    } else {
+      stepAttributesBuffer = null;
+    }
+  }
+
+  public KettleDatabaseRepositoryTransBuffer getTransBuffer() {
+    return transBuffer;
+  }
+
+  /**
+   * @return the buffered row of the table with the given id or null if it has to be read from the repository
+   */
+  public synchronized RowMetaAndData getBufferedRow( String tablename, ObjectId id ) {
+    if ( transBuffer == null ) {
+      return null;
+    }
+    return transBuffer.getRow( tablename, id );
+  }
+
   private synchronized RowMetaAndData searchStepAttributeInBuffer( ObjectId id_step, String code, long nr )
     throws KettleValueException {
     int index = searchStepAttributeIndexInBuffer( id_step, code, nr );
@@ -596,6 +654,11 @@ public class KettleDatabaseRepositoryConnectionDelegate extends KettleDatabaseRe
   }
 
   public RowMetaAndData getTransAttributeRow( ObjectId id_transformation, int nr, String code ) throws KettleException {
+    KettleDatabaseRepositoryTransBuffer buffer = transBuffer;
+    if ( buffer != null && buffer.containsTransAttributes( id_transformation ) ) {
+      return buffer.getTransAttribute( code, nr );
+    }
+
     RowMetaAndData par = new RowMetaAndData();
     par.addValue(
       new ValueMetaInteger(
@@ -1631,6 +1694,35 @@ public class KettleDatabaseRepositoryConnectionDelegate extends KettleDatabaseRe
     } );
   }
 
+  /**
+   * Reads all the rows of a query with ids as parameters.
+   *
+   * @return the rows, each with the layout of the result set
+   */
+  public List<RowMetaAndData> getRowsWithMeta( String sql, ObjectId... objectId ) throws KettleException {
+    PreparedStatement ps = getPreparedStatement( sql );
+
+    RowMetaInterface parameterMeta = new RowMeta();
+    Object[] parameterData = new Object[ objectId.length ];
+    for ( int i = 0; i < objectId.length; i++ ) {
+      parameterMeta.addValueMeta( new ValueMetaInteger( "id" + ( i + 1 ) ) );
+      parameterData[ i ] = new LongObjectId( objectId[ i ] ).longValue();
+    }
+
+    return callRead( () -> {
+      ResultSet resultSet = database.openQuery( ps, parameterMeta, parameterData );
+      List<Object[]> rows = database.getRows( resultSet, 0, null );
+      RowMetaInterface rowMeta = database.getReturnRowMeta();
+      List<RowMetaAndData> result = new ArrayList<>( rows == null ? 0 : rows.size() );
+      if ( rows != null ) {
+        for ( Object[] row : rows ) {
+          result.add( new RowMetaAndData( rowMeta, row ) );
+        }
+      }
+      return result;
+    } );
+  }
+
   public String[] getStrings( String sql, ObjectId... objectId ) throws KettleException {
     // Get the prepared statement
     //
@@ -38,6 +38,11 @@ public class KettleDatabaseRepositoryNotePadDelegate extends KettleDatabaseRepos
   }
 
   public RowMetaAndData getNote( ObjectId id_note ) throws KettleException {
+    RowMetaAndData buffered =
+      repository.connectionDelegate.getBufferedRow( KettleDatabaseRepository.TABLE_R_NOTE, id_note );
+    if ( buffered != null ) {
+      return buffered;
+    }
     return repository.connectionDelegate.getOneRow(
       quoteTable( KettleDatabaseRepository.TABLE_R_NOTE ), quote( KettleDatabaseRepository.FIELD_NOTE_ID_NOTE ),
       id_note );
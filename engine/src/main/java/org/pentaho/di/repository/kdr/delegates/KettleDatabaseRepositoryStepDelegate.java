@@ -94,12 +94,22 @@ public class KettleDatabaseRepositoryStepDelegate extends KettleDatabaseReposito
   }
 
   public RowMetaAndData getStep( ObjectId id_step ) throws KettleException {
+    RowMetaAndData buffered =
+      repository.connectionDelegate.getBufferedRow( KettleDatabaseRepository.TABLE_R_STEP, id_step );
+    if ( buffered != null ) {
+      return buffered;
+    }
     return repository.connectionDelegate.getOneRow(
       quoteTable( KettleDatabaseRepository.TABLE_R_STEP ), quote( KettleDatabaseRepository.FIELD_STEP_ID_STEP ),
       id_step );
   }
 
   public RowMetaAndData getStepType( ObjectId id_step_type ) throws KettleException {
+    RowMetaAndData buffered =
+      repository.connectionDelegate.getBufferedRow( KettleDatabaseRepository.TABLE_R_STEP_TYPE, id_step_type );
+    if ( buffered != null ) {
+      return buffered;
+    }
     return repository.connectionDelegate.getOneRow(
       quoteTable( KettleDatabaseRepository.TABLE_R_STEP_TYPE ),
       quote( KettleDatabaseRepository.FIELD_STEP_TYPE_ID_STEP_TYPE ), id_step_type );
@@ -430,7 +440,7 @@ public class KettleDatabaseRepositoryStepDelegate extends KettleDatabaseReposito
   private Map<String, Map<String, String>> loadStepAttributesMap( ObjectId stepId ) throws KettleException {
     Map<String, Map<String, String>> attributesMap = new HashMap<String, Map<String, String>>();
 
-    List<Object[]> attributeRows = repository.connectionDelegate.getStepAttributesBuffer();
+    List<Object[]> attributeRows = repository.connectionDelegate.getStepAttributesBuffer( stepId );
     RowMetaInterface rowMeta = repository.connectionDelegate.getStepAttributesRowMeta();
     for ( Object[] attributeRow : attributeRows ) {
       String code = rowMeta.getString( attributeRow, KettleDatabaseRepository.FIELD_STEP_ATTRIBUTE_CODE, null );
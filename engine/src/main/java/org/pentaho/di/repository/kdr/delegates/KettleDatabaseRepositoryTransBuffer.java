@@ -0,0 +1,149 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.repository.kdr.delegates;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.pentaho.di.core.RowMetaAndData;
+import org.pentaho.di.core.exception.KettleValueException;
+import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.di.repository.LongObjectId;
+import org.pentaho.di.repository.ObjectId;
+import org.pentaho.di.repository.kdr.KettleDatabaseRepository;
+
+/**
+ * The repository rows of one transformation, read with one query per table and indexed in memory. While the
+ * transformation is loaded the delegates look its steps, step types, hops, notes, step attributes and transformation
+ * attributes up here instead of querying the repository for every single object.
+ */
+public class KettleDatabaseRepositoryTransBuffer {
+
+  private final ObjectId transformationId;
+  private final Date modifiedDate;
+
+  /** The rows by table name and id, in the order they were read */
+  private final Map<String, Map<Long, RowMetaAndData>> tables = new HashMap<>();
+
+  /** The transformation attributes by code and nr */
+  private final Map<String, RowMetaAndData> transAttributes = new HashMap<>();
+
+  private List<Object[]> stepAttributes = Collections.emptyList();
+  private RowMetaInterface stepAttributesRowMeta;
+
+  /**
+   * @param transformationId the transformation the rows belong to
+   * @param modifiedDate     the modification date of the transformation when the rows were read
+   */
+  public KettleDatabaseRepositoryTransBuffer( ObjectId transformationId, Date modifiedDate ) {
+    this.transformationId = transformationId;
+    this.modifiedDate = modifiedDate;
+  }
+
+  /**
+   * Indexes rows of a table by their id field, a row with an id that is indexed already replaces the old one.
+   */
+  public void addRows( String tablename, String idfield, List<RowMetaAndData> rows ) throws KettleValueException {
+    Map<Long, RowMetaAndData> byId = tables.get( tablename );
+    if ( byId == null ) {
+      byId = new LinkedHashMap<>();
+      tables.put( tablename, byId );
+    }
+    for ( RowMetaAndData row : rows ) {
+      byId.put( row.getInteger( idfield, -1L ), row );
+    }
+  }
+
+  /**
+   * @return the row of the table with the given id or null if the table isn't buffered or has no such row
+   */
+  public RowMetaAndData getRow( String tablename, ObjectId id ) {
+    Map<Long, RowMetaAndData> byId = tables.get( tablename );
+    if ( byId == null || id == null ) {
+      return null;
+    }
+    return byId.get( new LongObjectId( id ).longValue() );
+  }
+
+  /**
+   * @return the ids of the rows of a table in the order they were read
+   */
+  public ObjectId[] getIDs( String tablename ) {
+    Map<Long, RowMetaAndData> byId = tables.get( tablename );
+    if ( byId == null ) {
+      return new ObjectId[ 0 ];
+    }
+    return KettleDatabaseRepositoryConnectionDelegate.convertLongList( new ArrayList<>( byId.keySet() ) );
+  }
+
+  public void addTransAttributes( List<RowMetaAndData> rows ) throws KettleValueException {
+    for ( RowMetaAndData row : rows ) {
+      String key = getAttributeKey(
+        row.getString( KettleDatabaseRepository.FIELD_TRANS_ATTRIBUTE_CODE, null ),
+        row.getInteger( KettleDatabaseRepository.FIELD_TRANS_ATTRIBUTE_NR, 0L ) );
+      // A lookup in the repository returns the first row as well
+      if ( !transAttributes.containsKey( key ) ) {
+        transAttributes.put( key, row );
+      }
+    }
+  }
+
+  /**
+   * @return true if the attributes of the given transformation are buffered
+   */
+  public boolean containsTransAttributes( ObjectId id_transformation ) {
+    return transformationId.equals( id_transformation );
+  }
+
+  /**
+   * @return the attribute row with the value fields or null if the transformation doesn't have the attribute
+   */
+  public RowMetaAndData getTransAttribute( String code, long nr ) {
+    return transAttributes.get( getAttributeKey( code, nr ) );
+  }
+
+  private static String getAttributeKey( String code, long nr ) {
+    return nr + "\t" + code;
+  }
+
+  /**
+   * @param stepAttributes the step attribute rows, sorted the way the connection delegate searches them
+   * @param rowMeta        the layout of the step attribute rows
+   */
+  public void setStepAttributes( List<Object[]> stepAttributes, RowMetaInterface rowMeta ) {
+    this.stepAttributes = stepAttributes;
+    this.stepAttributesRowMeta = rowMeta;
+  }
+
+  public List<Object[]> getStepAttributes() {
+    return stepAttributes;
+  }
+
+  public RowMetaInterface getStepAttributesRowMeta() {
+    return stepAttributesRowMeta;
+  }
+
+  public ObjectId getTransformationId() {
+    return transformationId;
+  }
+
+  public Date getModifiedDate() {
+    return modifiedDate;
+  }
+}
@@ -14,7 +14,11 @@
 package org.pentaho.di.repository.kdr.delegates;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -37,6 +41,7 @@ import org.pentaho.di.core.row.value.ValueMetaDate;
 import org.pentaho.di.core.row.value.ValueMetaInteger;
 import org.pentaho.di.core.row.value.ValueMetaNumber;
 import org.pentaho.di.core.row.value.ValueMetaString;
+import org.pentaho.di.core.util.EnvUtil;
 import org.pentaho.di.i18n.BaseMessages;
 import org.pentaho.di.partition.PartitionSchema;
 import org.pentaho.di.repository.LongObjectId;
@@ -64,17 +69,31 @@ public class KettleDatabaseRepositoryTransDelegate extends KettleDatabaseReposit
 
   public static final String TRANS_ATTRIBUTE_PREFIX = "_ATTR_" + TRANS_ATTRIBUTE_PREFIX_DELIMITER;
 
+  /** The rows of recently loaded transformations by id, the least recently used first */
+  private final Map<Long, KettleDatabaseRepositoryTransBuffer> transBufferCache =
+    new LinkedHashMap<>( 16, 0.75f, true );
+
   public KettleDatabaseRepositoryTransDelegate( KettleDatabaseRepository repository ) {
     super( repository );
   }
 
   public RowMetaAndData getTransformation( ObjectId id_transformation ) throws KettleException {
+    RowMetaAndData buffered = repository.connectionDelegate.getBufferedRow(
+      KettleDatabaseRepository.TABLE_R_TRANSFORMATION, id_transformation );
+    if ( buffered != null ) {
+      return buffered;
+    }
     return repository.connectionDelegate.getOneRow(
       quoteTable( KettleDatabaseRepository.TABLE_R_TRANSFORMATION ),
       quote( KettleDatabaseRepository.FIELD_TRANSFORMATION_ID_TRANSFORMATION ), id_transformation );
   }
 
   public RowMetaAndData getTransHop( ObjectId id_trans_hop ) throws KettleException {
+    RowMetaAndData buffered =
+      repository.connectionDelegate.getBufferedRow( KettleDatabaseRepository.TABLE_R_TRANS_HOP, id_trans_hop );
+    if ( buffered != null ) {
+      return buffered;
+    }
     return repository.connectionDelegate.getOneRow(
       quoteTable( KettleDatabaseRepository.TABLE_R_TRANS_HOP ),
       quote( KettleDatabaseRepository.FIELD_TRANS_HOP_ID_TRANS_HOP ), id_trans_hop );
@@ -155,6 +174,7 @@ public class KettleDatabaseRepositoryTransDelegate extends KettleDatabaseReposit
 
       // Clear attribute id cache
       repository.connectionDelegate.clearNextIDCounters(); // force repository lookup.
+      clearTransBufferCache();
 
       // Do we have a valid directory?
       if ( transMeta.getRepositoryDirectory().getObjectId() == null ) {
@@ -443,6 +463,7 @@ public class KettleDatabaseRepositoryTransDelegate extends KettleDatabaseReposit
     transMeta.setMetaStore( repository.metaStore );
 
     synchronized ( repository ) {
+      KettleDatabaseRepositoryTransBuffer previousTransBuffer = repository.connectionDelegate.getTransBuffer();
       try {
         String pathAndName =
           repdir.isRoot() ? repdir + transname : repdir + RepositoryDirectory.DIRECTORY_SEPARATOR + transname;
@@ -466,9 +487,13 @@ public class KettleDatabaseRepositoryTransDelegate extends KettleDatabaseReposit
 
         // If no valid id is available in the database, then give error...
         if ( transMeta.getObjectId() != null ) {
-          ObjectId[] noteids = repository.getTransNoteIDs( transMeta.getObjectId() );
-          ObjectId[] stepids = repository.getStepIDs( transMeta.getObjectId() );
-          ObjectId[] hopids = getTransHopIDs( transMeta.getObjectId() );
+          // Read the rows of the transformation in one go, the steps, hops and notes are built from memory
+          KettleDatabaseRepositoryTransBuffer transBuffer = readTransBuffer( transMeta.getObjectId() );
+          repository.connectionDelegate.setTransBuffer( transBuffer );
+
+          ObjectId[] noteids = transBuffer.getIDs( KettleDatabaseRepository.TABLE_R_NOTE );
+          ObjectId[] stepids = transBuffer.getIDs( KettleDatabaseRepository.TABLE_R_STEP );
+          ObjectId[] hopids = transBuffer.getIDs( KettleDatabaseRepository.TABLE_R_TRANS_HOP );
 
           int nrWork = 3 + noteids.length + stepids.length + hopids.length;
 
@@ -509,8 +534,6 @@ public class KettleDatabaseRepositoryTransDelegate extends KettleDatabaseReposit
           if ( monitor != null ) {
             monitor.subTask( BaseMessages.getString( PKG, "TransMeta.Monitor.ReadingStepsTask.Title" ) );
           }
-          repository.connectionDelegate.fillStepAttributesBuffer( transMeta.getObjectId() ); // read all the attributes
-                                                                                             // on one go!
           for ( int i = 0; i < stepids.length; i++ ) {
             if ( log.isDetailed() ) {
               log.logDetailed( BaseMessages.getString( PKG, "TransMeta.Log.LoadingStepWithID" ) + stepids[i] );
@@ -536,7 +559,6 @@ public class KettleDatabaseRepositoryTransDelegate extends KettleDatabaseReposit
           if ( monitor != null ) {
             monitor.worked( 1 );
           }
-          repository.connectionDelegate.setStepAttributesBuffer( null ); // clear the buffer (should be empty anyway)
 
           // Have all StreamValueLookups, etc. reference the correct source steps...
           for ( int i = 0; i < transMeta.nrSteps(); i++ ) {
@@ -657,6 +679,8 @@ public class KettleDatabaseRepositoryTransDelegate extends KettleDatabaseReposit
         throw new KettleException( BaseMessages.getString(
           PKG, "TransMeta.Exception.DatabaseErrorOccuredReadingTransformation2" ), e );
       } finally {
+        // Back to the transformation that was being loaded when this one was asked for, if any
+        repository.connectionDelegate.setTransBuffer( previousTransBuffer );
         transMeta.initializeVariablesFrom( null );
         if ( setInternalVariables ) {
           transMeta.setInternalKettleVariables();
@@ -665,6 +689,77 @@ public class KettleDatabaseRepositoryTransDelegate extends KettleDatabaseReposit
     }
   }
 
+  /**
+   * Reads the steps, step attributes, hops, notes and attributes of a transformation with one query per table. When
+   * the cache is enabled with {@link Const#KETTLE_REPOSITORY_TRANS_CACHE_SIZE} the rows are kept and used again as
+   * long as the modification date of the transformation doesn't change.
+   */
+  synchronized KettleDatabaseRepositoryTransBuffer readTransBuffer( ObjectId id_transformation )
+    throws KettleException {
+    RowMetaAndData transRow = getTransformation( id_transformation );
+    Date modifiedDate = transRow.getDate( KettleDatabaseRepository.FIELD_TRANSFORMATION_MODIFIED_DATE, null );
+    Long cacheKey = new LongObjectId( id_transformation ).longValue();
+    int cacheSize = Const.toInt( EnvUtil.getSystemProperty( Const.KETTLE_REPOSITORY_TRANS_CACHE_SIZE ), 0 );
+
+    KettleDatabaseRepositoryTransBuffer buffer = cacheSize > 0 ? transBufferCache.get( cacheKey ) : null;
+    if ( buffer == null || modifiedDate == null || !modifiedDate.equals( buffer.getModifiedDate() ) ) {
+      buffer = new KettleDatabaseRepositoryTransBuffer( id_transformation, modifiedDate );
+      fillTransBuffer( buffer, id_transformation );
+      if ( cacheSize > 0 && modifiedDate != null ) {
+        transBufferCache.put( cacheKey, buffer );
+      }
+    }
+    Iterator<Long> eldest = transBufferCache.keySet().iterator();
+    while ( transBufferCache.size() > cacheSize && eldest.hasNext() ) {
+      eldest.next();
+      eldest.remove();
+    }
+
+    // The name, description and so on can change without a new modification date, they are never cached
+    buffer.addRows( KettleDatabaseRepository.TABLE_R_TRANSFORMATION,
+      KettleDatabaseRepository.FIELD_TRANSFORMATION_ID_TRANSFORMATION, Collections.singletonList( transRow ) );
+    return buffer;
+  }
+
+  private void fillTransBuffer( KettleDatabaseRepositoryTransBuffer buffer, ObjectId id_transformation )
+    throws KettleException {
+    KettleDatabaseRepositoryConnectionDelegate connection = repository.connectionDelegate;
+
+    buffer.addRows( KettleDatabaseRepository.TABLE_R_STEP, KettleDatabaseRepository.FIELD_STEP_ID_STEP,
+      connection.getRowsWithMeta( "SELECT * FROM " + quoteTable( KettleDatabaseRepository.TABLE_R_STEP )
+        + " WHERE " + quote( KettleDatabaseRepository.FIELD_STEP_ID_TRANSFORMATION ) + " = ?"
+        + " ORDER BY " + quote( KettleDatabaseRepository.FIELD_STEP_ID_STEP ), id_transformation ) );
+    // The step types are few and the same for every transformation
+    buffer.addRows( KettleDatabaseRepository.TABLE_R_STEP_TYPE, KettleDatabaseRepository.FIELD_STEP_TYPE_ID_STEP_TYPE,
+      connection.getRowsWithMeta( "SELECT * FROM " + quoteTable( KettleDatabaseRepository.TABLE_R_STEP_TYPE ) ) );
+    buffer.addRows( KettleDatabaseRepository.TABLE_R_TRANS_HOP, KettleDatabaseRepository.FIELD_TRANS_HOP_ID_TRANS_HOP,
+      connection.getRowsWithMeta( "SELECT * FROM " + quoteTable( KettleDatabaseRepository.TABLE_R_TRANS_HOP )
+        + " WHERE " + quote( KettleDatabaseRepository.FIELD_TRANS_HOP_ID_TRANSFORMATION ) + " = ?"
+        + " ORDER BY " + quote( KettleDatabaseRepository.FIELD_TRANS_HOP_ID_TRANS_HOP ), id_transformation ) );
+    buffer.addRows( KettleDatabaseRepository.TABLE_R_NOTE, KettleDatabaseRepository.FIELD_NOTE_ID_NOTE,
+      connection.getRowsWithMeta( "SELECT * FROM " + quoteTable( KettleDatabaseRepository.TABLE_R_NOTE )
+        + " WHERE " + quote( KettleDatabaseRepository.FIELD_NOTE_ID_NOTE ) + " IN ( SELECT "
+        + quote( KettleDatabaseRepository.FIELD_TRANS_NOTE_ID_NOTE ) + " FROM "
+        + quoteTable( KettleDatabaseRepository.TABLE_R_TRANS_NOTE ) + " WHERE "
+        + quote( KettleDatabaseRepository.FIELD_TRANS_NOTE_ID_TRANSFORMATION ) + " = ? )"
+        + " ORDER BY " + quote( KettleDatabaseRepository.FIELD_NOTE_ID_NOTE ), id_transformation ) );
+    buffer.addTransAttributes(
+      connection.getRowsWithMeta( "SELECT * FROM " + quoteTable( KettleDatabaseRepository.TABLE_R_TRANS_ATTRIBUTE )
+        + " WHERE " + quote( KettleDatabaseRepository.FIELD_TRANS_ATTRIBUTE_ID_TRANSFORMATION ) + " = ?"
+        + " ORDER BY " + quote( KettleDatabaseRepository.FIELD_TRANS_ATTRIBUTE_ID_TRANS_ATTRIBUTE ),
+        id_transformation ) );
+
+    connection.fillStepAttributesBuffer( id_transformation );
+    buffer.setStepAttributes( connection.getStepAttributesBuffer(), connection.getStepAttributesRowMeta() );
+  }
+
+  /**
+   * Forgets the rows of the transformations that were read before, they are read again on the next load.
+   */
+  public synchronized void clearTransBufferCache() {
+    transBufferCache.clear();
+  }
+
   /**
    * Load the transformation name & other details from a repository.
    */
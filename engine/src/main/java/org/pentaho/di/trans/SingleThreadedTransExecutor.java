@@ -14,24 +14,50 @@
 package org.pentaho.di.trans;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
+import com.google.common.annotations.VisibleForTesting;
+import org.pentaho.di.core.Const;
 import org.pentaho.di.core.Result;
 import org.pentaho.di.core.RowSet;
 import org.pentaho.di.core.exception.KettleException;
 import org.pentaho.di.core.logging.LogChannelInterface;
+import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.di.core.util.EnvUtil;
 import org.pentaho.di.trans.TransMeta.TransformationType;
 import org.pentaho.di.trans.step.StepDataInterface;
 import org.pentaho.di.trans.step.StepMetaDataCombi;
 import org.pentaho.di.trans.step.StepMetaInterface;
 import org.pentaho.di.trans.step.errorhandling.StreamInterface;
 
+/**
+ * Runs a transformation on the calling thread, one batch of rows at a time.
+ * <p>
+ * In every iteration the steps take their turn in the order of the hops. A step doesn't process all the rows of the
+ * batch in one go: it processes a chunk of rows that fits in the CPU cache and the next steps take over those rows
+ * while they're still in the cache. A step completes the batch when the steps before it have completed it and it has
+ * no more rows on input. The time spent in every step is measured and logged when the executor is disposed.
+ */
 public class SingleThreadedTransExecutor {
 
+  public static final int DEFAULT_CHUNK_BYTES = 256 * 1024;
+
+  /** A rough estimate of the memory used by a value in a row: the reference and a small object */
+  private static final int BYTES_PER_VALUE = 32;
+
+  private static final int MIN_CHUNK_ROWS = 64;
+
   private Trans trans;
   private List<StepMetaDataCombi> steps;
   private boolean[] done;
   private int nrDone;
+  private boolean[] batchDone;
+  private boolean[] stepDone;
+  private long[] stepNanos;
+  private long[] stepCalls;
+  private int chunkBytes;
   private List<List<StreamInterface>> stepInfoStreams;
   private List<List<RowSet>> stepInfoRowSets;
   private LogChannelInterface log;
@@ -52,6 +78,12 @@ public class SingleThreadedTransExecutor {
 
     done = new boolean[steps.size()];
     nrDone = 0;
+    batchDone = new boolean[ steps.size() ];
+    stepDone = new boolean[ steps.size() ];
+    stepNanos = new long[ steps.size() ];
+    stepCalls = new long[ steps.size() ];
+    chunkBytes = Const.toInt( EnvUtil.getSystemProperty( Const.KETTLE_SINGLE_THREADED_CHUNK_BYTES ),
+      DEFAULT_CHUNK_BYTES );
 
     stepInfoStreams = new ArrayList<List<StreamInterface>>();
     stepInfoRowSets = new ArrayList<List<RowSet>>();
@@ -294,84 +326,152 @@ public class SingleThreadedTransExecutor {
    * @return true if more iterations can be performed. False if this is not the case.
    */
   public boolean oneIteration() throws KettleException {
+    Arrays.fill( batchDone, false );
+    Arrays.fill( stepDone, false );
 
-    for ( int s = 0; s < steps.size() && !trans.isStopped(); s++ ) {
-      if ( !done[s] ) {
+    // Keep passing over the steps until they have all completed the batch
+    //
+    boolean pending = true;
+    while ( pending && !trans.isStopped() ) {
+      pending = false;
+      boolean previousStepsDone = true;
+      for ( int s = 0; s < steps.size() && !trans.isStopped(); s++ ) {
+        if ( !done[s] && !batchDone[s] ) {
+          long start = System.nanoTime();
+          boolean ok = processStep( s, previousStepsDone );
+          stepNanos[s] += System.nanoTime() - start;
+          if ( !ok ) {
+            return false;
+          }
+          pending |= !batchDone[s];
+        }
+        previousStepsDone &= done[s] || batchDone[s];
+      }
+    }
 
-        StepMetaDataCombi combi = steps.get( s );
+    return nrDone < steps.size() && !trans.isStopped();
+  }
 
-        // If this step is waiting for data (text, db, and so on), we simply read all the data
-        // This means that it is impractical to use this transformation type to load large files.
-        //
-        boolean stepDone = false;
-        // For every input row we call the processRow() method of the step.
-        //
-        List<RowSet> infoRowSets = stepInfoRowSets.get( s );
+  /**
+   * Lets a step process a chunk of its input rows, and completes the batch for the step once the steps before it have
+   * completed it and its input is empty.
+   *
+   * @return false if the step has errors
+   */
+  private boolean processStep( int s, boolean previousStepsDone ) throws KettleException {
+    StepMetaDataCombi combi = steps.get( s );
+    List<RowSet> infoRowSets = stepInfoRowSets.get( s );
+    List<RowSet> rowSets = combi.step.getInputRowSets();
 
-        // Loop over info-rowsets FIRST to make sure we support the "Stream Lookup" step and so on.
-        //
-        for ( RowSet rowSet : infoRowSets ) {
-          boolean once = true;
-          while ( once || ( rowSet.size() > 0 && !stepDone ) ) {
-            once = false;
-            stepDone = !combi.step.processRow( combi.meta, combi.data );
-            if ( combi.step.getErrors() > 0 ) {
-              return false;
-            }
+    if ( chunkBytes <= 0 || !infoRowSets.isEmpty() || rowSets.isEmpty() ) {
+      // This step reads all its rows in one go, after the steps before it are done with the batch
+      //
+      if ( !previousStepsDone ) {
+        return true;
+      }
+
+      // Loop over info-rowsets FIRST to make sure we support the "Stream Lookup" step and so on.
+      //
+      for ( RowSet rowSet : infoRowSets ) {
+        boolean once = true;
+        while ( once || ( rowSet.size() > 0 && !stepDone[s] ) ) {
+          once = false;
+          if ( !callProcessRow( s, combi ) ) {
+            return false;
           }
         }
+      }
 
-        // Do normal processing of input rows...
-        //
-        List<RowSet> rowSets = combi.step.getInputRowSets();
-
-        // If there are no input row sets, we read all rows until finish.
-        // This applies to steps like "Table Input", "Text File Input" and so on.
-        // If they do have an input row set, to get filenames or other parameters,
-        // we need to handle this in the batchComplete() methods.
-        //
-        if ( rowSets.size() == 0 ) {
-          while ( !stepDone && !trans.isStopped() ) {
-            stepDone = !combi.step.processRow( combi.meta, combi.data );
-            if ( combi.step.getErrors() > 0 ) {
-              return false;
-            }
-          }
-        } else {
-          // Since we can't be sure that the step actually reads from the row sets where we measure rows,
-          // we simply count the total nr of rows on input. The steps will find the rows in either row set.
-          //
-          int nrRows = 0;
-          for ( RowSet rowSet : rowSets ) {
-            nrRows += rowSet.size();
+      // If there are no input row sets, we read all rows until finish.
+      // This applies to steps like "Table Input", "Text File Input" and so on.
+      // If they do have an input row set, to get filenames or other parameters,
+      // we need to handle this in the batchComplete() methods.
+      //
+      if ( rowSets.isEmpty() ) {
+        while ( !stepDone[s] && !trans.isStopped() ) {
+          if ( !callProcessRow( s, combi ) ) {
+            return false;
           }
-
-          // Now do the number of processRows() calls.
-          //
-          for ( int i = 0; i < nrRows; i++ ) {
-            stepDone = !combi.step.processRow( combi.meta, combi.data );
-            if ( combi.step.getErrors() > 0 ) {
-              return false;
-            }
+        }
+      } else {
+        // Since we can't be sure that the step actually reads from the row sets where we measure rows,
+        // we simply count the total nr of rows on input. The steps will find the rows in either row set.
+        //
+        int nrRows = getTotalRows( rowSets );
+        for ( int i = 0; i < nrRows; i++ ) {
+          if ( !callProcessRow( s, combi ) ) {
+            return false;
           }
         }
+      }
+    } else {
+      // Process the rows that are waiting, a chunk at a time
+      //
+      int waiting = getTotalRows( rowSets );
+      int nrRows = Math.min( waiting, getChunkRows( rowSets ) );
+      for ( int i = 0; i < nrRows; i++ ) {
+        if ( !callProcessRow( s, combi ) ) {
+          return false;
+        }
+      }
+      int left = getTotalRows( rowSets );
+      if ( !stepDone[s] && ( !previousStepsDone || left > 0 && left < waiting ) ) {
+        // More rows to come in this batch. A step that doesn't read the rows that are left completes the batch
+        // without them, like it does when it gets all the rows in one go.
+        return true;
+      }
+    }
 
-        // Signal the step that a batch of rows has passed for this iteration (sort rows and all)
-        //
-        combi.step.batchComplete();
+    // Signal the step that a batch of rows has passed for this iteration (sort rows and all)
+    //
+    combi.step.batchComplete();
+    batchDone[s] = true;
 
-        // System.out.println(combi.step.toString()+" : input="+getTotalRows(combi.step.getInputRowSets())+",
-        // output="+getTotalRows(combi.step.getOutputRowSets()));
+    if ( stepDone[s] ) {
+      nrDone++;
+      done[s] = true;
+    }
+    return true;
+  }
 
-        if ( stepDone ) {
-          nrDone++;
-        }
+  private boolean callProcessRow( int s, StepMetaDataCombi combi ) throws KettleException {
+    stepDone[s] = !combi.step.processRow( combi.meta, combi.data );
+    stepCalls[s]++;
+    return combi.step.getErrors() == 0;
+  }
 
-        done[s] = stepDone;
+  /**
+   * @return the number of rows of the given row sets that fit in a chunk
+   */
+  @VisibleForTesting
+  int getChunkRows( List<RowSet> rowSets ) {
+    int values = 1;
+    for ( RowSet rowSet : rowSets ) {
+      RowMetaInterface rowMeta = rowSet.getRowMeta();
+      if ( rowMeta != null ) {
+        values = Math.max( values, rowMeta.size() );
       }
     }
+    return Math.max( MIN_CHUNK_ROWS, chunkBytes / ( values * BYTES_PER_VALUE ) );
+  }
 
-    return nrDone < steps.size() && !trans.isStopped();
+  @VisibleForTesting
+  void setChunkBytes( int chunkBytes ) {
+    this.chunkBytes = chunkBytes;
+  }
+
+  /**
+   * @return the nanoseconds spent in the step at the given position in {@link #getSteps()}
+   */
+  public long getStepNanos( int s ) {
+    return stepNanos[s];
+  }
+
+  /**
+   * @return the steps in the order they are executed
+   */
+  public List<StepMetaDataCombi> getSteps() {
+    return steps;
   }
 
   protected int getTotalRows( List<RowSet> rowSets ) {
@@ -419,6 +519,12 @@ public class SingleThreadedTransExecutor {
   public void dispose() throws KettleException {
 
     log.logBasic( "Single Threaded Executor Disposing Trans: [" + trans.getName( ) + "]" );
+    if ( log.isDetailed() ) {
+      for ( int s = 0; s < steps.size(); s++ ) {
+        log.logDetailed( "Step [" + steps.get( s ).stepname + "] processRow() calls: " + stepCalls[s] + ", time: "
+          + TimeUnit.NANOSECONDS.toMillis( stepNanos[s] ) + "ms" );
+      }
+    }
     // Call output done.
     //
     for ( StepMetaDataCombi combi : trans.getSteps() ) {
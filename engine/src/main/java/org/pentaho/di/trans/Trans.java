@@ -49,6 +49,7 @@ import org.apache.commons.vfs2.FileName;
 import org.apache.commons.vfs2.FileObject;
 import org.pentaho.di.base.IMetaFileCache;
 import org.pentaho.di.cluster.SlaveServer;
+import org.pentaho.di.core.AdaptiveRowSet;
 import org.pentaho.di.core.BlockingBatchingRowSet;
 import org.pentaho.di.core.BlockingRowSet;
 import org.pentaho.di.core.bowl.Bowl;
@@ -65,6 +66,7 @@ import org.pentaho.di.core.Result;
 import org.pentaho.di.core.ResultFile;
 import org.pentaho.di.core.RowMetaAndData;
 import org.pentaho.di.core.RowSet;
+import org.pentaho.di.core.RowSetMemoryBudget;
 import org.pentaho.di.core.SingleRowRowSet;
 import org.pentaho.di.core.database.Database;
 import org.pentaho.di.core.database.DatabaseMeta;
@@ -77,6 +79,8 @@ import org.pentaho.di.core.exception.KettleTransException;
 import org.pentaho.di.core.exception.KettleValueException;
 import org.pentaho.di.core.extension.ExtensionPointHandler;
 import org.pentaho.di.core.extension.KettleExtensionPoint;
+import org.pentaho.di.core.logging.AsyncLogTableWriter;
+import org.pentaho.di.core.logging.BaseLogTable;
 import org.pentaho.di.core.logging.ChannelLogTable;
 import org.pentaho.di.core.logging.HasLogChannelInterface;
 import org.pentaho.di.core.logging.KettleLogStore;
@@ -477,6 +481,29 @@ public class Trans implements VariableSpace, NamedParams, HasLogChannelInterface
    */
   private Database transLogTableDatabaseConnection;
 
+  /**
+   * Serializes the writes to the transformation log table. A separate lock is used so that a slow logging database
+   * doesn't block the steps that need to synchronize on the transformation itself.
+   */
+  private final Object transLogTableLock = new Object();
+
+  /**
+   * Serializes the writes to the step performance log table, so that an interval write and the final write don't
+   * write the same snapshots.
+   */
+  private final Object stepPerformanceLogLock = new Object();
+
+  /**
+   * The timers that write the log records at intervals, cancelled before the final records are written.
+   */
+  private Timer intervalLoggingTimer;
+  private Timer performanceLoggingTimer;
+
+  /**
+   * Flag to indicate that interval log records are written by the shared background log table writer.
+   */
+  private boolean asyncLogTableWrites;
+
   /**
    * The step performance snapshot sequence number.
    */
@@ -889,6 +916,12 @@ public class Trans implements VariableSpace, NamedParams, HasLogChannelInterface
 
     List<StepMeta> hopsteps = transMeta.getTransHopSteps( false );
 
+    // Size the row sets in bytes within a memory budget if there is one
+    //
+    int rowSetBudgetMb = Const.toInt( EnvUtil.getSystemProperty( Const.KETTLE_ROWSET_MEMORY_BUDGET ), 0 );
+    RowSetMemoryBudget rowSetBudget = rowSetBudgetMb > 0 ? new RowSetMemoryBudget( rowSetBudgetMb * 1024L * 1024L )
+      : null;
+
     if ( log.isDetailed() ) {
       log.logDetailed( BaseMessages.getString( PKG, "Trans.Log.FoundDefferentSteps", String.valueOf( hopsteps
         .size() ) ) );
@@ -979,6 +1012,8 @@ public class Trans implements VariableSpace, NamedParams, HasLogChannelInterface
                   ValueMetaString.convertStringToBoolean( System.getProperty( Const.KETTLE_BATCHING_ROWSET ) );
                 if ( batchingRowSet != null && batchingRowSet.booleanValue() ) {
                   rowSet = new BlockingBatchingRowSet( transMeta.getSizeRowset() );
+                } else if ( rowSetBudget != null ) {
+                  rowSet = new AdaptiveRowSet( rowSetBudget );
                 } else {
                   rowSet = new BlockingRowSet( transMeta.getSizeRowset() );
                 }
@@ -1026,7 +1061,8 @@ public class Trans implements VariableSpace, NamedParams, HasLogChannelInterface
           // distribution...
           for ( int s = 0; s < thisCopies; s++ ) {
             for ( int t = 0; t < nextCopies; t++ ) {
-              BlockingRowSet rowSet = new BlockingRowSet( transMeta.getSizeRowset() );
+              RowSet rowSet = rowSetBudget != null ? new AdaptiveRowSet( rowSetBudget )
+                : new BlockingRowSet( transMeta.getSizeRowset() );
               rowSet.setThreadNameFromToCopy( thisStep.getName(), s, nextStep.getName(), t );
               rowsets.add( rowSet );
               if ( log.isDetailed() ) {
@@ -2460,6 +2496,7 @@ public class Trans implements VariableSpace, NamedParams, HasLogChannelInterface
   public void beginProcessing() throws KettleTransException {
     TransLogTable transLogTable = transMeta.getTransLogTable();
     int intervalInSeconds = Const.toInt( environmentSubstitute( transLogTable.getLogInterval() ), -1 );
+    asyncLogTableWrites = "Y".equalsIgnoreCase( getVariable( Const.KETTLE_LOG_TABLE_ASYNC_WRITES, "N" ) );
 
     try {
       String logTable = transLogTable.getActualTableName();
@@ -2482,29 +2519,19 @@ public class Trans implements VariableSpace, NamedParams, HasLogChannelInterface
           // If we need to do periodic logging, make sure to install a timer for this...
           //
           if ( intervalInSeconds > 0 ) {
-            final Timer timer = new Timer( getName() + " - interval logging timer" );
+            intervalLoggingTimer = new Timer( getName() + " - interval logging timer" );
             TimerTask timerTask = new TimerTask() {
               @Override
               public void run() {
-                try {
-                  endProcessing();
-                } catch ( Exception e ) {
-                  log.logError( BaseMessages.getString( PKG, "Trans.Exception.UnableToPerformIntervalLogging" ), e );
-                  // Also stop the show...
-                  //
-                  errors.incrementAndGet();
-                  stopAll();
+                if ( asyncLogTableWrites ) {
+                  AsyncLogTableWriter.getInstance().submit( getLogTableConnectionName( transLogTable ),
+                    getLogChannelId(), "interval", false, Trans.this::performIntervalLogging );
+                } else {
+                  performIntervalLogging();
                 }
               }
             };
-            timer.schedule( timerTask, intervalInSeconds * 1000, intervalInSeconds * 1000 );
-
-            addTransListener( new TransAdapter() {
-              @Override
-              public void transFinished( Trans trans ) {
-                timer.cancel();
-              }
-            } );
+            intervalLoggingTimer.schedule( timerTask, intervalInSeconds * 1000, intervalInSeconds * 1000 );
           }
 
           // Add a listener to make sure that the last record is also written when transformation finishes...
@@ -2513,10 +2540,14 @@ public class Trans implements VariableSpace, NamedParams, HasLogChannelInterface
             @Override
             public void transFinished( Trans trans ) throws KettleException {
               try {
+                // No interval write may be queued after the final ones
+                //
+                cancelLogIntervalTimers();
+                waitForAsyncLogTableWrites();
+
                 endProcessing();
 
-                lastWrittenStepPerformanceSequenceNr =
-                  writeStepPerformanceLogRecords( lastWrittenStepPerformanceSequenceNr, LogStatus.END );
+                writeStepPerformanceLogRecords( LogStatus.END );
 
               } catch ( KettleException e ) {
                 throw new KettleException( BaseMessages.getString( PKG,
@@ -2566,32 +2597,31 @@ public class Trans implements VariableSpace, NamedParams, HasLogChannelInterface
         PerformanceLogTable performanceLogTable = transMeta.getPerformanceLogTable();
         int perfLogInterval = Const.toInt( environmentSubstitute( performanceLogTable.getLogInterval() ), -1 );
         if ( performanceLogTable.isDefined() && perfLogInterval > 0 ) {
-          final Timer timer = new Timer( getName() + " - step performance log interval timer" );
+          performanceLoggingTimer = new Timer( getName() + " - step performance log interval timer" );
           TimerTask timerTask = new TimerTask() {
             @Override
             public void run() {
-              try {
-                lastWrittenStepPerformanceSequenceNr =
-                  writeStepPerformanceLogRecords( lastWrittenStepPerformanceSequenceNr, LogStatus.RUNNING );
-              } catch ( Exception e ) {
-                log.logError( BaseMessages.getString( PKG,
-                  "Trans.Exception.UnableToPerformIntervalPerformanceLogging" ), e );
-                // Also stop the show...
+              if ( asyncLogTableWrites ) {
+                // The snapshots stay in memory, a dropped write is simply caught up with by the next one
                 //
-                errors.incrementAndGet();
-                stopAll();
+                AsyncLogTableWriter.getInstance().submit( getLogTableConnectionName( performanceLogTable ),
+                  getLogChannelId(), "performance", true, Trans.this::performIntervalPerformanceLogging );
+              } else {
+                performIntervalPerformanceLogging();
               }
             }
           };
-          timer.schedule( timerTask, perfLogInterval * 1000, perfLogInterval * 1000 );
-
-          addTransListener( new TransAdapter() {
-            @Override
-            public void transFinished( Trans trans ) {
-              timer.cancel();
-            }
-          } );
+          performanceLoggingTimer.schedule( timerTask, perfLogInterval * 1000, perfLogInterval * 1000 );
         }
+
+        // Without a transformation log table there is no final record listener to stop the timers
+        //
+        addTransListener( new TransAdapter() {
+          @Override
+          public void transFinished( Trans trans ) {
+            cancelLogIntervalTimers();
+          }
+        } );
       } catch ( KettleException e ) {
         throw new KettleTransException( BaseMessages.getString( PKG, "Trans.Exception.ErrorWritingLogRecordToTable",
           logTable ), e );
@@ -2609,6 +2639,84 @@ public class Trans implements VariableSpace, NamedParams, HasLogChannelInterface
     }
   }
 
+  /**
+   * Writes a transformation log record with the current status, at a log interval.
+   */
+  private void performIntervalLogging() {
+    try {
+      endProcessing();
+    } catch ( Exception e ) {
+      log.logError( BaseMessages.getString( PKG, "Trans.Exception.UnableToPerformIntervalLogging" ), e );
+      // Also stop the show...
+      //
+      errors.incrementAndGet();
+      stopAll();
+    }
+  }
+
+  /**
+   * Writes the step performance records gathered since the last write, at a log interval.
+   */
+  private void performIntervalPerformanceLogging() {
+    try {
+      writeStepPerformanceLogRecords( LogStatus.RUNNING );
+    } catch ( Exception e ) {
+      log.logError( BaseMessages.getString( PKG,
+        "Trans.Exception.UnableToPerformIntervalPerformanceLogging" ), e );
+      // Also stop the show...
+      //
+      errors.incrementAndGet();
+      stopAll();
+    }
+  }
+
+  /**
+   * Stops the timers that write log records at intervals.
+   */
+  private void cancelLogIntervalTimers() {
+    if ( intervalLoggingTimer != null ) {
+      intervalLoggingTimer.cancel();
+    }
+    if ( performanceLoggingTimer != null ) {
+      performanceLoggingTimer.cancel();
+    }
+  }
+
+  /**
+   * Writes the step performance records from the last written sequence number on, and moves that number past them.
+   *
+   * @param status the logging status. If this is End, perform cleanup
+   * @throws KettleException if any errors occur during logging
+   */
+  private void writeStepPerformanceLogRecords( LogStatus status ) throws KettleException {
+    synchronized ( stepPerformanceLogLock ) {
+      lastWrittenStepPerformanceSequenceNr =
+        writeStepPerformanceLogRecords( lastWrittenStepPerformanceSequenceNr, status );
+    }
+  }
+
+  /**
+   * Waits for the interval log records queued on the background log table writer, so that the final records are
+   * written after them.
+   */
+  private void waitForAsyncLogTableWrites() throws KettleException {
+    if ( !asyncLogTableWrites ) {
+      return;
+    }
+    try {
+      AsyncLogTableWriter.getInstance().flush( getLogTableConnectionName( transMeta.getTransLogTable() ) );
+      AsyncLogTableWriter.getInstance().flush( getLogTableConnectionName( transMeta.getPerformanceLogTable() ) );
+    } catch ( InterruptedException e ) {
+      Thread.currentThread().interrupt();
+      throw new KettleException( e );
+    }
+  }
+
+  private static String getLogTableConnectionName( BaseLogTable logTable ) {
+    DatabaseMeta databaseMeta = logTable.getDatabaseMeta();
+    return databaseMeta == null ? null : databaseMeta.getName();
+  }
+
   /**
    * Writes log channel information to a channel logging table (if one has been configured).
    *
@@ -2642,9 +2750,7 @@ public class Trans implements VariableSpace, NamedParams, HasLogChannelInterface
       db.setCommit( logCommitSize );
 
       List<LoggingHierarchy> loggingHierarchyList = getLoggingHierarchy();
-      for ( LoggingHierarchy loggingHierarchy : loggingHierarchyList ) {
-        db.writeLogRecord( channelLogTable, LogStatus.START, loggingHierarchy, null );
-      }
+      db.writeLogRecords( channelLogTable, LogStatus.START, loggingHierarchyList, null );
 
       // Also time-out the log records in here...
       //
@@ -2671,9 +2777,7 @@ public class Trans implements VariableSpace, NamedParams, HasLogChannelInterface
       db.connect();
       db.setCommit( logCommitSize );
 
-      for ( StepMetaDataCombi combi : getSteps() ) {
-        db.writeLogRecord( stepLogTable, LogStatus.START, combi, null );
-      }
+      db.writeLogRecords( stepLogTable, LogStatus.START, getSteps(), null );
 
       db.cleanupLogRecords( stepLogTable, getName() );
     } catch ( Exception e ) {
@@ -2833,7 +2937,13 @@ public class Trans implements VariableSpace, NamedParams, HasLogChannelInterface
    * @return true if all end processing is successful, false otherwise
    * @throws KettleException if any errors occur during processing
    */
-  private synchronized boolean endProcessing() throws KettleException {
+  private boolean endProcessing() throws KettleException {
+    synchronized ( transLogTableLock ) {
+      return writeTransLogRecord();
+    }
+  }
+
+  private boolean writeTransLogRecord() throws KettleException {
     LogStatus status;
 
     if ( isStopped() ) {
@@ -2924,6 +3034,27 @@ public class Trans implements VariableSpace, NamedParams, HasLogChannelInterface
       return 0; // nothing to do here!
     }
 
+    // Gather the records first so that the snapshot lists aren't locked while the logging database is busy
+    //
+    List<RowMetaAndData> rows = new ArrayList<>();
+    synchronized ( stepPerformanceSnapShots ) {
+      Iterator<List<StepPerformanceSnapShot>> iterator = stepPerformanceSnapShots.values().iterator();
+      while ( iterator.hasNext() ) {
+        List<StepPerformanceSnapShot> snapshots = iterator.next();
+        synchronized ( snapshots ) {
+          Iterator<StepPerformanceSnapShot> snapshotsIterator = snapshots.iterator();
+          while ( snapshotsIterator.hasNext() ) {
+            StepPerformanceSnapShot snapshot = snapshotsIterator.next();
+            if ( snapshot.getSeqNr() >= startSequenceNr && snapshot
+              .getSeqNr() <= lastStepPerformanceSnapshotSeqNrAdded ) {
+              rows.add( performanceLogTable.getLogRecord( LogStatus.START, snapshot, null ) );
+            }
+            lastSeqNr = snapshot.getSeqNr();
+          }
+        }
+      }
+    }
+
     try {
       ldb = new Database( this, performanceLogTable.getDatabaseMeta() );
       ldb.shareVariablesWith( this );
@@ -2935,26 +3066,9 @@ public class Trans implements VariableSpace, NamedParams, HasLogChannelInterface
       RowMetaInterface rowMeta = performanceLogTable.getLogRecord( LogStatus.START, null, null ).getRowMeta();
       ldb.prepareInsert( rowMeta, performanceLogTable.getActualSchemaName(), performanceLogTable.getActualTableName() );
 
-      synchronized ( stepPerformanceSnapShots ) {
-        Iterator<List<StepPerformanceSnapShot>> iterator = stepPerformanceSnapShots.values().iterator();
-        while ( iterator.hasNext() ) {
-          List<StepPerformanceSnapShot> snapshots = iterator.next();
-          synchronized ( snapshots ) {
-            Iterator<StepPerformanceSnapShot> snapshotsIterator = snapshots.iterator();
-            while ( snapshotsIterator.hasNext() ) {
-              StepPerformanceSnapShot snapshot = snapshotsIterator.next();
-              if ( snapshot.getSeqNr() >= startSequenceNr && snapshot
-                .getSeqNr() <= lastStepPerformanceSnapshotSeqNrAdded ) {
-
-                RowMetaAndData row = performanceLogTable.getLogRecord( LogStatus.START, snapshot, null );
-
-                ldb.setValuesInsert( row.getRowMeta(), row.getData() );
-                ldb.insertRow( true );
-              }
-              lastSeqNr = snapshot.getSeqNr();
-            }
-          }
-        }
+      for ( RowMetaAndData row : rows ) {
+        ldb.setValuesInsert( row.getRowMeta(), row.getData() );
+        ldb.insertRow( true );
       }
 
       ldb.insertFinished( true );
@@ -23,7 +23,9 @@ import java.util.List;
 import jakarta.xml.bind.annotation.XmlRootElement;
 
 import org.owasp.encoder.Encode;
+import org.pentaho.di.core.AdaptiveRowSet;
 import org.pentaho.di.core.Const;
+import org.pentaho.di.core.RowSet;
 import org.pentaho.di.core.exception.KettleException;
 import org.pentaho.di.core.row.RowMeta;
 import org.pentaho.di.core.row.RowMetaInterface;
@@ -53,6 +55,15 @@ public class StepStatus {
   private boolean paused;
   private long accumlatedRuntime;
 
+  /** The rows waiting in the row sets in front of the step */
+  private long inputBufferRows;
+  /** The number of rows that fit in the row sets in front of the step, when they are sized in bytes */
+  private long inputBufferCapacity;
+  /** The estimated memory used by the rows waiting in front of the step, when the row sets are sized in bytes */
+  private long inputBufferBytes;
+  /** The number of times the previous steps had to wait for room in front of the step: this step is a bottleneck */
+  private long inputBufferWaits;
+
   private RowMetaInterface sampleRowMeta;
   private List<Object[]> sampleRows;
   private final DecimalFormat speedDf = new DecimalFormat( "#,###,###,###,##0" );
@@ -100,6 +111,19 @@ public class StepStatus {
       baseStep.isRunning() ? "   " + baseStep.rowsetInputSize() + "/" + baseStep.rowsetOutputSize() : "-";
     this.stopped = baseStep.isStopped();
     this.paused = baseStep.isPaused();
+
+    List<RowSet> inputRowSets = baseStep.getInputRowSets();
+    if ( inputRowSets != null ) {
+      for ( RowSet rowSet : new ArrayList<>( inputRowSets ) ) {
+        this.inputBufferRows += rowSet.size();
+        if ( rowSet instanceof AdaptiveRowSet ) {
+          AdaptiveRowSet adaptiveRowSet = (AdaptiveRowSet) rowSet;
+          this.inputBufferCapacity += adaptiveRowSet.getCapacity();
+          this.inputBufferBytes += adaptiveRowSet.getBufferedBytes();
+          this.inputBufferWaits += adaptiveRowSet.getFullWaits();
+        }
+      }
+    }
   }
 
   public String getHTMLTableRow( boolean urlInStepname ) {
@@ -132,6 +156,10 @@ public class StepStatus {
       xml.append( XMLHandler.addTagValue( "priority", priority, false ) );
       xml.append( XMLHandler.addTagValue( "stopped", stopped, false ) );
       xml.append( XMLHandler.addTagValue( "paused", paused, false ) );
+      xml.append( XMLHandler.addTagValue( "inputBufferRows", inputBufferRows, false ) );
+      xml.append( XMLHandler.addTagValue( "inputBufferCapacity", inputBufferCapacity, false ) );
+      xml.append( XMLHandler.addTagValue( "inputBufferBytes", inputBufferBytes, false ) );
+      xml.append( XMLHandler.addTagValue( "inputBufferWaits", inputBufferWaits, false ) );
 
       if ( sampleRowMeta != null ) {
         xml.append( XMLHandler.openTag( "samples" ) );
@@ -173,6 +201,10 @@ public class StepStatus {
     priority = XMLHandler.getTagValue( node, "priority" );
     stopped = "Y".equalsIgnoreCase( XMLHandler.getTagValue( node, "stopped" ) );
     paused = "Y".equalsIgnoreCase( XMLHandler.getTagValue( node, "paused" ) );
+    inputBufferRows = Const.toLong( XMLHandler.getTagValue( node, "inputBufferRows" ), 0L );
+    inputBufferCapacity = Const.toLong( XMLHandler.getTagValue( node, "inputBufferCapacity" ), 0L );
+    inputBufferBytes = Const.toLong( XMLHandler.getTagValue( node, "inputBufferBytes" ), 0L );
+    inputBufferWaits = Const.toLong( XMLHandler.getTagValue( node, "inputBufferWaits" ), 0L );
 
     Node samplesNode = XMLHandler.getSubNode( node, "samples" );
     if ( samplesNode != null ) {
@@ -483,6 +515,51 @@ public class StepStatus {
     this.paused = paused;
   }
 
+  /**
+   * @return the rows waiting in the row sets in front of the step
+   */
+  public long getInputBufferRows() {
+    return inputBufferRows;
+  }
+
+  public void setInputBufferRows( long inputBufferRows ) {
+    this.inputBufferRows = inputBufferRows;
+  }
+
+  /**
+   * @return the number of rows that fit in the row sets in front of the step, 0 if they are not sized in bytes
+   */
+  public long getInputBufferCapacity() {
+    return inputBufferCapacity;
+  }
+
+  public void setInputBufferCapacity( long inputBufferCapacity ) {
+    this.inputBufferCapacity = inputBufferCapacity;
+  }
+
+  /**
+   * @return the estimated memory used by the rows waiting in front of the step, 0 if the row sets are not sized in
+   *         bytes
+   */
+  public long getInputBufferBytes() {
+    return inputBufferBytes;
+  }
+
+  public void setInputBufferBytes( long inputBufferBytes ) {
+    this.inputBufferBytes = inputBufferBytes;
+  }
+
+  /**
+   * @return the number of times the previous steps had to wait for room in front of the step
+   */
+  public long getInputBufferWaits() {
+    return inputBufferWaits;
+  }
+
+  public void setInputBufferWaits( long inputBufferWaits ) {
+    this.inputBufferWaits = inputBufferWaits;
+  }
+
   public RowMetaInterface getSampleRowMeta() {
     return sampleRowMeta;
   }
@@ -0,0 +1,154 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.columnarinput;
+
+import java.io.IOException;
+
+import org.pentaho.di.core.columnar.ColumnarValues;
+import org.pentaho.di.core.exception.KettleException;
+import org.pentaho.di.core.row.RowDataUtil;
+import org.pentaho.di.core.row.RowMeta;
+import org.pentaho.di.core.row.ValueMetaInterface;
+import org.pentaho.di.i18n.BaseMessages;
+import org.pentaho.di.trans.Trans;
+import org.pentaho.di.trans.TransMeta;
+import org.pentaho.di.trans.step.BaseStep;
+import org.pentaho.di.trans.step.StepDataInterface;
+import org.pentaho.di.trans.step.StepInterface;
+import org.pentaho.di.trans.step.StepMeta;
+import org.pentaho.di.trans.step.StepMetaInterface;
+
+/**
+ * Reads the rows of a columnar file. A row group is read at a time, and of every row group only the chunks of the
+ * columns of the output fields are read and decoded.
+ */
+public class ColumnarInput extends BaseStep implements StepInterface {
+  private static Class<?> PKG = ColumnarInputMeta.class; // for i18n purposes, needed by Translator2!!
+
+  private ColumnarInputMeta meta;
+  private ColumnarInputData data;
+
+  public ColumnarInput( StepMeta stepMeta, StepDataInterface stepDataInterface, int copyNr, TransMeta transMeta,
+    Trans trans ) {
+    super( stepMeta, stepDataInterface, copyNr, transMeta, trans );
+  }
+
+  @Override
+  public boolean processRow( StepMetaInterface smi, StepDataInterface sdi ) throws KettleException {
+    meta = (ColumnarInputMeta) smi;
+    data = (ColumnarInputData) sdi;
+
+    if ( first ) {
+      first = false;
+      openFile();
+    }
+
+    if ( meta.getRowLimit() > 0 && data.rowsRead >= meta.getRowLimit() ) {
+      closeFile();
+      setOutputDone();
+      return false;
+    }
+
+    while ( data.vectors == null || data.rowInGroup >= data.vectors[ 0 ].getRowCount() ) {
+      if ( data.rowGroup >= data.reader.getRowGroupCount() ) {
+        closeFile();
+        setOutputDone();
+        return false;
+      }
+      try {
+        data.vectors = data.reader.readRowGroup( data.rowGroup++, data.columns );
+      } catch ( IOException e ) {
+        throw new KettleException( BaseMessages.getString( PKG, "ColumnarInput.Log.ErrorReadingFile",
+          meta.getFileName() ), e );
+      }
+      data.rowInGroup = 0;
+    }
+
+    Object[] r = RowDataUtil.allocateRowData( data.outputRowMeta.size() );
+    for ( int i = 0; i < data.columns.length; i++ ) {
+      Object value = ColumnarValues.getValue( data.vectors[ i ], data.rowInGroup, data.columnTypes[ i ] );
+      if ( data.conversionMeta[ i ] != null ) {
+        value = data.outputRowMeta.getValueMeta( i ).convertData( data.conversionMeta[ i ], value );
+      }
+      r[ i ] = value;
+    }
+    data.rowInGroup++;
+    data.rowsRead++;
+
+    putRow( data.outputRowMeta, r );
+    incrementLinesInput();
+
+    if ( checkFeedback( getLinesInput() ) && log.isBasic() ) {
+      logBasic( BaseMessages.getString( PKG, "ColumnarInput.Log.LineNumber", getLinesInput() ) );
+    }
+    return true;
+  }
+
+  private void openFile() throws KettleException {
+    try {
+      data.reader = meta.openReader( getTransMeta().getBowl(), this );
+    } catch ( IOException e ) {
+      throw new KettleException( BaseMessages.getString( PKG, "ColumnarInput.Log.ErrorOpeningFile",
+        environmentSubstitute( meta.getFileName() ) ), e );
+    }
+
+    data.outputRowMeta = new RowMeta();
+    meta.getFields( getTransMeta().getBowl(), data.outputRowMeta, getStepname(), null, null, this, repository,
+      metaStore );
+
+    int nrFields = data.outputRowMeta.size();
+    data.columns = new int[ nrFields ];
+    data.columnTypes = new int[ nrFields ];
+    data.conversionMeta = new ValueMetaInterface[ nrFields ];
+    for ( int i = 0; i < nrFields; i++ ) {
+      String name = meta.getFieldName().length == 0 ? data.outputRowMeta.getValueMeta( i ).getName()
+        : meta.getFieldName()[ i ];
+      int column = data.reader.indexOfColumn( name );
+      if ( column < 0 ) {
+        throw new KettleException( BaseMessages.getString( PKG, "ColumnarInput.Log.ColumnNotFound", name,
+          environmentSubstitute( meta.getFileName() ) ) );
+      }
+      data.columns[ i ] = column;
+      data.columnTypes[ i ] = ColumnarValues.getStoredType( data.reader.getColumnType( column ) );
+      if ( data.columnTypes[ i ] != data.outputRowMeta.getValueMeta( i ).getType() ) {
+        data.conversionMeta[ i ] =
+          ColumnarInputMeta.createValueMeta( data.reader, column, getStepname() );
+      }
+    }
+    if ( log.isDetailed() ) {
+      logDetailed( BaseMessages.getString( PKG, "ColumnarInput.Log.FileOpened",
+        environmentSubstitute( meta.getFileName() ) ) );
+    }
+  }
+
+  private void closeFile() {
+    if ( data.reader != null ) {
+      try {
+        data.reader.close();
+      } catch ( IOException e ) {
+        // Ignore
+      }
+      data.reader = null;
+    }
+    data.vectors = null;
+  }
+
+  @Override
+  public void dispose( StepMetaInterface smi, StepDataInterface sdi ) {
+    meta = (ColumnarInputMeta) smi;
+    data = (ColumnarInputData) sdi;
+    closeFile();
+    super.dispose( smi, sdi );
+  }
+}
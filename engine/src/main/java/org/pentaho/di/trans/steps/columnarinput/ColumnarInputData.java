@@ -0,0 +1,45 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.columnarinput;
+
+import org.pentaho.di.core.columnar.ColumnVector;
+import org.pentaho.di.core.columnar.ColumnarFileReader;
+import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.di.core.row.ValueMetaInterface;
+import org.pentaho.di.trans.step.BaseStepData;
+import org.pentaho.di.trans.step.StepDataInterface;
+
+public class ColumnarInputData extends BaseStepData implements StepDataInterface {
+  public RowMetaInterface outputRowMeta;
+
+  public ColumnarFileReader reader;
+
+  /** The column in the file of every output field */
+  public int[] columns;
+
+  /** The type the columns are stored as */
+  public int[] columnTypes;
+
+  /** The values as they are stored in the file, null where no conversion is needed */
+  public ValueMetaInterface[] conversionMeta;
+
+  public int rowGroup;
+  public ColumnVector[] vectors;
+  public int rowInGroup;
+  public long rowsRead;
+
+  public ColumnarInputData() {
+    super();
+  }
+}
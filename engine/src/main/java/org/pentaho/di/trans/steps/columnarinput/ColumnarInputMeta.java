@@ -0,0 +1,334 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.columnarinput;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+import org.apache.commons.vfs2.FileObject;
+import org.pentaho.di.core.CheckResult;
+import org.pentaho.di.core.CheckResultInterface;
+import org.pentaho.di.core.Const;
+import org.pentaho.di.core.bowl.Bowl;
+import org.pentaho.di.core.columnar.ColumnarFileReader;
+import org.pentaho.di.core.columnar.ColumnarFormat;
+import org.pentaho.di.core.columnar.ColumnarValues;
+import org.pentaho.di.core.database.DatabaseMeta;
+import org.pentaho.di.core.exception.KettleException;
+import org.pentaho.di.core.exception.KettleStepException;
+import org.pentaho.di.core.exception.KettleXMLException;
+import org.pentaho.di.core.injection.Injection;
+import org.pentaho.di.core.injection.InjectionSupported;
+import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.di.core.row.ValueMetaInterface;
+import org.pentaho.di.core.row.value.ValueMetaFactory;
+import org.pentaho.di.core.util.Utils;
+import org.pentaho.di.core.variables.VariableSpace;
+import org.pentaho.di.core.vfs.KettleVFS;
+import org.pentaho.di.core.xml.XMLHandler;
+import org.pentaho.di.i18n.BaseMessages;
+import org.pentaho.di.repository.ObjectId;
+import org.pentaho.di.repository.Repository;
+import org.pentaho.di.trans.Trans;
+import org.pentaho.di.trans.TransMeta;
+import org.pentaho.di.trans.step.BaseStepMeta;
+import org.pentaho.di.trans.step.StepDataInterface;
+import org.pentaho.di.trans.step.StepInterface;
+import org.pentaho.di.trans.step.StepMeta;
+import org.pentaho.di.trans.step.StepMetaInterface;
+import org.pentaho.metastore.api.IMetaStore;
+import org.w3c.dom.Node;
+
+/**
+ * Reads a columnar file, see {@link ColumnarFormat}. Only the columns of the fields are read from the file; without
+ * fields, all the columns are read.
+ */
+@InjectionSupported( localizationPrefix = "ColumnarInput.Injection.", groups = { "FIELDS" } )
+public class ColumnarInputMeta extends BaseStepMeta implements StepMetaInterface {
+  private static Class<?> PKG = ColumnarInputMeta.class; // for i18n purposes, needed by Translator2!!
+
+  /** The file to read */
+  @Injection( name = "FILENAME" )
+  private String fileName;
+
+  /** The columns to read */
+  @Injection( name = "FIELD_NAME", group = "FIELDS" )
+  private String[] fieldName;
+
+  /** The type of the fields, empty for the type in the file */
+  @Injection( name = "FIELD_TYPE", group = "FIELDS" )
+  private String[] fieldType;
+
+  /** The maximum number of rows to read, 0 for all */
+  @Injection( name = "ROW_LIMIT" )
+  private long rowLimit;
+
+  public ColumnarInputMeta() {
+    super(); // allocate BaseStepMeta
+  }
+
+  public String getFileName() {
+    return fileName;
+  }
+
+  public void setFileName( String fileName ) {
+    this.fileName = fileName;
+  }
+
+  public String[] getFieldName() {
+    return fieldName;
+  }
+
+  public void setFieldName( String[] fieldName ) {
+    this.fieldName = fieldName;
+  }
+
+  public String[] getFieldType() {
+    return fieldType;
+  }
+
+  public void setFieldType( String[] fieldType ) {
+    this.fieldType = fieldType;
+  }
+
+  public long getRowLimit() {
+    return rowLimit;
+  }
+
+  public void setRowLimit( long rowLimit ) {
+    this.rowLimit = rowLimit;
+  }
+
+  public void allocate( int nrfields ) {
+    fieldName = new String[ nrfields ];
+    fieldType = new String[ nrfields ];
+  }
+
+  @Override
+  public Object clone() {
+    ColumnarInputMeta retval = (ColumnarInputMeta) super.clone();
+    int nrfields = fieldName.length;
+    retval.allocate( nrfields );
+    System.arraycopy( fieldName, 0, retval.fieldName, 0, nrfields );
+    System.arraycopy( fieldType, 0, retval.fieldType, 0, nrfields );
+    return retval;
+  }
+
+  @Override
+  public void setDefault() {
+    fileName = "";
+    rowLimit = 0;
+    allocate( 0 );
+  }
+
+  @Override
+  public void loadXML( Node stepnode, List<DatabaseMeta> databases, IMetaStore metaStore ) throws KettleXMLException {
+    try {
+      fileName = XMLHandler.getTagValue( stepnode, "filename" );
+      rowLimit = Const.toLong( XMLHandler.getTagValue( stepnode, "limit" ), 0L );
+
+      Node fields = XMLHandler.getSubNode( stepnode, "fields" );
+      int nrfields = XMLHandler.countNodes( fields, "field" );
+      allocate( nrfields );
+      for ( int i = 0; i < nrfields; i++ ) {
+        Node fnode = XMLHandler.getSubNodeByNr( fields, "field", i );
+        fieldName[ i ] = XMLHandler.getTagValue( fnode, "name" );
+        fieldType[ i ] = XMLHandler.getTagValue( fnode, "type" );
+      }
+    } catch ( Exception e ) {
+      throw new KettleXMLException( "Unable to load step info from XML", e );
+    }
+  }
+
+  @Override
+  public String getXML() {
+    StringBuilder retval = new StringBuilder();
+
+    retval.append( "    " ).append( XMLHandler.addTagValue( "filename", fileName ) );
+    retval.append( "    " ).append( XMLHandler.addTagValue( "limit", rowLimit ) );
+    retval.append( "    <fields>" ).append( Const.CR );
+    for ( int i = 0; i < fieldName.length; i++ ) {
+      retval.append( "      <field>" ).append( Const.CR );
+      retval.append( "        " ).append( XMLHandler.addTagValue( "name", fieldName[ i ] ) );
+      retval.append( "        " ).append( XMLHandler.addTagValue( "type", fieldType[ i ] ) );
+      retval.append( "      </field>" ).append( Const.CR );
+    }
+    retval.append( "    </fields>" ).append( Const.CR );
+
+    return retval.toString();
+  }
+
+  @Override
+  public void readRep( Repository rep, IMetaStore metaStore, ObjectId id_step, List<DatabaseMeta> databases )
+    throws KettleException {
+    try {
+      fileName = rep.getStepAttributeString( id_step, "filename" );
+      rowLimit = rep.getStepAttributeInteger( id_step, "limit" );
+
+      int nrfields = rep.countNrStepAttributes( id_step, "field_name" );
+      allocate( nrfields );
+      for ( int i = 0; i < nrfields; i++ ) {
+        fieldName[ i ] = rep.getStepAttributeString( id_step, i, "field_name" );
+        fieldType[ i ] = rep.getStepAttributeString( id_step, i, "field_type" );
+      }
+    } catch ( Exception e ) {
+      throw new KettleException( "Unexpected error reading step information from the repository", e );
+    }
+  }
+
+  @Override
+  public void saveRep( Repository rep, IMetaStore metaStore, ObjectId id_transformation, ObjectId id_step )
+    throws KettleException {
+    try {
+      rep.saveStepAttribute( id_transformation, id_step, "filename", fileName );
+      rep.saveStepAttribute( id_transformation, id_step, "limit", rowLimit );
+      for ( int i = 0; i < fieldName.length; i++ ) {
+        rep.saveStepAttribute( id_transformation, id_step, i, "field_name", fieldName[ i ] );
+        rep.saveStepAttribute( id_transformation, id_step, i, "field_type", fieldType[ i ] );
+      }
+    } catch ( Exception e ) {
+      throw new KettleException( "Unable to save step information to the repository for id_step=" + id_step, e );
+    }
+  }
+
+  /**
+   * Adds the fields. Fields without a type, or no fields at all, need the footer of the file.
+   */
+  @Override
+  public void getFields( Bowl bowl, RowMetaInterface r, String name, RowMetaInterface[] info, StepMeta nextStep,
+    VariableSpace space, Repository repository, IMetaStore metaStore ) throws KettleStepException {
+    ColumnarFileReader reader = null;
+    try {
+      boolean needFile = fieldName.length == 0;
+      for ( int i = 0; i < fieldName.length; i++ ) {
+        needFile |= getType( i ) == ValueMetaInterface.TYPE_NONE;
+      }
+      if ( needFile ) {
+        reader = openReader( bowl, space );
+      }
+
+      if ( fieldName.length == 0 ) {
+        for ( int column = 0; column < reader.getColumnCount(); column++ ) {
+          r.addValueMeta( createValueMeta( reader, column, name ) );
+        }
+        return;
+      }
+      for ( int i = 0; i < fieldName.length; i++ ) {
+        int type = getType( i );
+        if ( type != ValueMetaInterface.TYPE_NONE ) {
+          ValueMetaInterface v = ValueMetaFactory.createValueMeta( fieldName[ i ], type );
+          v.setOrigin( name );
+          r.addValueMeta( v );
+          continue;
+        }
+        int column = reader.indexOfColumn( fieldName[ i ] );
+        if ( column < 0 ) {
+          throw new KettleStepException( BaseMessages.getString( PKG, "ColumnarInput.Log.ColumnNotFound",
+            fieldName[ i ], space.environmentSubstitute( fileName ) ) );
+        }
+        r.addValueMeta( createValueMeta( reader, column, name ) );
+      }
+    } catch ( KettleStepException e ) {
+      throw e;
+    } catch ( Exception e ) {
+      throw new KettleStepException( e );
+    } finally {
+      if ( reader != null ) {
+        try {
+          reader.close();
+        } catch ( IOException e ) {
+          // Ignore
+        }
+      }
+    }
+  }
+
+  /**
+   * @return the type of the field, or TYPE_NONE to take it from the file
+   */
+  int getType( int field ) {
+    return Utils.isEmpty( fieldType[ field ] ) ? ValueMetaInterface.TYPE_NONE
+      : ValueMetaFactory.getIdForValueMeta( fieldType[ field ] );
+  }
+
+  /**
+   * @return the metadata of the values of a column as they are read from the file
+   */
+  static ValueMetaInterface createValueMeta( ColumnarFileReader reader, int column, String origin )
+    throws KettleException {
+    int type = ColumnarValues.getStoredType( reader.getColumnType( column ) );
+    ValueMetaInterface v = ValueMetaFactory.createValueMeta( reader.getColumnName( column ), type,
+      reader.getColumnLength( column ), reader.getColumnPrecision( column ) );
+    v.setOrigin( origin );
+    return v;
+  }
+
+  /**
+   * Opens the file with the footer read.
+   */
+  ColumnarFileReader openReader( Bowl bowl, VariableSpace space ) throws KettleException, IOException {
+    String realFileName = space.environmentSubstitute( fileName );
+    if ( Utils.isEmpty( realFileName ) ) {
+      throw new KettleException( BaseMessages.getString( PKG, "ColumnarInput.Log.FilenameEmpty" ) );
+    }
+    final FileObject file = KettleVFS.getInstance( bowl ).getFileObject( realFileName, space );
+    return new ColumnarFileReader( new ColumnarFileReader.Source() {
+      @Override
+      public long getSize() throws IOException {
+        return file.getContent().getSize();
+      }
+
+      @Override
+      public InputStream open() throws IOException {
+        return file.getContent().getInputStream();
+      }
+    } );
+  }
+
+  @Override
+  public void check( List<CheckResultInterface> remarks, TransMeta transMeta, StepMeta stepMeta,
+    RowMetaInterface prev, String[] input, String[] output, RowMetaInterface info, VariableSpace space,
+    Repository repository, IMetaStore metaStore ) {
+    CheckResult cr;
+    if ( input.length > 0 ) {
+      cr = new CheckResult( CheckResultInterface.TYPE_RESULT_ERROR, BaseMessages.getString(
+        PKG, "ColumnarInputMeta.CheckResult.NoInputExpected" ), stepMeta );
+    } else {
+      cr = new CheckResult( CheckResultInterface.TYPE_RESULT_OK, BaseMessages.getString(
+        PKG, "ColumnarInputMeta.CheckResult.NoInput" ), stepMeta );
+    }
+    remarks.add( cr );
+
+    if ( !Utils.isEmpty( fileName ) ) {
+      cr = new CheckResult( CheckResultInterface.TYPE_RESULT_OK, BaseMessages.getString(
+        PKG, "ColumnarInputMeta.CheckResult.FilenameOk" ), stepMeta );
+    } else {
+      cr = new CheckResult( CheckResultInterface.TYPE_RESULT_ERROR, BaseMessages.getString(
+        PKG, "ColumnarInputMeta.CheckResult.FilenameError" ), stepMeta );
+    }
+    remarks.add( cr );
+  }
+
+  @Override
+  public StepInterface getStep( StepMeta stepMeta, StepDataInterface stepDataInterface, int cnr, TransMeta tr,
+    Trans trans ) {
+    return new ColumnarInput( stepMeta, stepDataInterface, cnr, tr, trans );
+  }
+
+  @Override
+  public StepDataInterface getStepData() {
+    return new ColumnarInputData();
+  }
+}
@@ -0,0 +1,152 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.columnaroutput;
+
+import org.apache.commons.vfs2.FileObject;
+import org.pentaho.di.core.ResultFile;
+import org.pentaho.di.core.columnar.ColumnarFileWriter;
+import org.pentaho.di.core.columnar.ColumnarFormat;
+import org.pentaho.di.core.columnar.ColumnarValues;
+import org.pentaho.di.core.exception.KettleException;
+import org.pentaho.di.core.util.Utils;
+import org.pentaho.di.core.vfs.KettleVFS;
+import org.pentaho.di.i18n.BaseMessages;
+import org.pentaho.di.trans.Trans;
+import org.pentaho.di.trans.TransMeta;
+import org.pentaho.di.trans.step.BaseStep;
+import org.pentaho.di.trans.step.StepDataInterface;
+import org.pentaho.di.trans.step.StepInterface;
+import org.pentaho.di.trans.step.StepMeta;
+import org.pentaho.di.trans.step.StepMetaInterface;
+
+/**
+ * Writes the incoming rows to a columnar file and passes them on.
+ */
+public class ColumnarOutput extends BaseStep implements StepInterface {
+  private static Class<?> PKG = ColumnarOutputMeta.class; // for i18n purposes, needed by Translator2!!
+
+  private ColumnarOutputMeta meta;
+  private ColumnarOutputData data;
+
+  public ColumnarOutput( StepMeta stepMeta, StepDataInterface stepDataInterface, int copyNr, TransMeta transMeta,
+    Trans trans ) {
+    super( stepMeta, stepDataInterface, copyNr, transMeta, trans );
+  }
+
+  @Override
+  public boolean processRow( StepMetaInterface smi, StepDataInterface sdi ) throws KettleException {
+    meta = (ColumnarOutputMeta) smi;
+    data = (ColumnarOutputData) sdi;
+
+    Object[] r = getRow(); // this also waits for a previous step to be finished.
+    if ( r == null ) { // no more input to be expected...
+      closeFile();
+      setOutputDone();
+      return false;
+    }
+
+    if ( first ) {
+      first = false;
+      data.inputRowMeta = getInputRowMeta();
+      openFile();
+    }
+
+    try {
+      for ( int i = 0; i < data.inputRowMeta.size(); i++ ) {
+        ColumnarValues.setValue( data.writer, i, data.inputRowMeta.getValueMeta( i ), r[ i ] );
+      }
+      data.writer.endRow();
+    } catch ( Exception e ) {
+      throw new KettleException( BaseMessages.getString( PKG, "ColumnarOutput.Log.ErrorWritingRow", data.filename ),
+        e );
+    }
+
+    putRow( data.inputRowMeta, r ); // in case we want it to go further...
+    incrementLinesOutput();
+
+    if ( checkFeedback( getLinesRead() ) && log.isBasic() ) {
+      logBasic( BaseMessages.getString( PKG, "ColumnarOutput.Log.LineNumber", getLinesRead() ) );
+    }
+    return true;
+  }
+
+  private void openFile() throws KettleException {
+    data.filename = meta.buildFilename( this, getCopy(), getPartitionID() );
+    if ( Utils.isEmpty( data.filename ) ) {
+      throw new KettleException( BaseMessages.getString( PKG, "ColumnarOutput.Log.FilenameEmpty" ) );
+    }
+    try {
+      data.file = KettleVFS.getInstance( getTransMeta().getBowl() ).getFileObject( data.filename, this );
+      if ( meta.isCreateParentFolder() ) {
+        FileObject parentFolder = data.file.getParent();
+        if ( parentFolder != null && !parentFolder.exists() ) {
+          if ( log.isDetailed() ) {
+            logDetailed( BaseMessages.getString( PKG, "ColumnarOutput.Log.CreatingParentFolder",
+              parentFolder.getName().getFriendlyURI() ) );
+          }
+          parentFolder.createFolder();
+        }
+      }
+
+      int rowGroupSize = meta.getRowGroupSize() > 0 ? meta.getRowGroupSize() : ColumnarFormat.DEFAULT_ROW_GROUP_SIZE;
+      data.writer = new ColumnarFileWriter( KettleVFS.getInstance( getTransMeta().getBowl() )
+        .getOutputStream( data.file, false ), rowGroupSize, meta.isCompressed() );
+      for ( int i = 0; i < data.inputRowMeta.size(); i++ ) {
+        ColumnarValues.addColumn( data.writer, data.inputRowMeta.getValueMeta( i ) );
+      }
+      if ( log.isDetailed() ) {
+        logDetailed( BaseMessages.getString( PKG, "ColumnarOutput.Log.FileOpened", data.filename ) );
+      }
+    } catch ( Exception e ) {
+      throw new KettleException( BaseMessages.getString( PKG, "ColumnarOutput.Log.ErrorOpeningFile", data.filename ),
+        e );
+    }
+
+    if ( meta.isAddToResult() ) {
+      ResultFile resultFile =
+        new ResultFile( ResultFile.FILE_TYPE_GENERAL, data.file, getTransMeta().getName(), getStepname() );
+      resultFile.setComment( BaseMessages.getString( PKG, "ColumnarOutput.Log.FileAddedResult" ) );
+      addResultFile( resultFile );
+    }
+  }
+
+  private void closeFile() {
+    try {
+      if ( data.writer != null ) {
+        data.writer.close();
+      }
+    } catch ( Exception e ) {
+      logError( BaseMessages.getString( PKG, "ColumnarOutput.Log.ErrorClosingFile", data.filename ), e );
+      setErrors( 1 );
+    } finally {
+      data.writer = null;
+      if ( data.file != null ) {
+        try {
+          data.file.close();
+        } catch ( Exception e ) {
+          // Ignore
+        }
+        data.file = null;
+      }
+    }
+  }
+
+  @Override
+  public void dispose( StepMetaInterface smi, StepDataInterface sdi ) {
+    meta = (ColumnarOutputMeta) smi;
+    data = (ColumnarOutputData) sdi;
+    closeFile();
+    super.dispose( smi, sdi );
+  }
+}
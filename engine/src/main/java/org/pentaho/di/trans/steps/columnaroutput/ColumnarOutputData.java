@@ -0,0 +1,32 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.columnaroutput;
+
+import org.apache.commons.vfs2.FileObject;
+import org.pentaho.di.core.columnar.ColumnarFileWriter;
+import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.di.trans.step.BaseStepData;
+import org.pentaho.di.trans.step.StepDataInterface;
+
+public class ColumnarOutputData extends BaseStepData implements StepDataInterface {
+  public RowMetaInterface inputRowMeta;
+
+  public String filename;
+  public FileObject file;
+  public ColumnarFileWriter writer;
+
+  public ColumnarOutputData() {
+    super();
+  }
+}
@@ -0,0 +1,304 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.columnaroutput;
+
+import java.util.List;
+
+import org.pentaho.di.core.CheckResult;
+import org.pentaho.di.core.CheckResultInterface;
+import org.pentaho.di.core.Const;
+import org.pentaho.di.core.columnar.ColumnarFormat;
+import org.pentaho.di.core.database.DatabaseMeta;
+import org.pentaho.di.core.exception.KettleException;
+import org.pentaho.di.core.exception.KettleXMLException;
+import org.pentaho.di.core.injection.Injection;
+import org.pentaho.di.core.injection.InjectionSupported;
+import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.di.core.util.Utils;
+import org.pentaho.di.core.variables.VariableSpace;
+import org.pentaho.di.core.xml.XMLHandler;
+import org.pentaho.di.i18n.BaseMessages;
+import org.pentaho.di.repository.ObjectId;
+import org.pentaho.di.repository.Repository;
+import org.pentaho.di.trans.Trans;
+import org.pentaho.di.trans.TransMeta;
+import org.pentaho.di.trans.step.BaseStepMeta;
+import org.pentaho.di.trans.step.StepDataInterface;
+import org.pentaho.di.trans.step.StepInterface;
+import org.pentaho.di.trans.step.StepMeta;
+import org.pentaho.di.trans.step.StepMetaInterface;
+import org.pentaho.metastore.api.IMetaStore;
+import org.w3c.dom.Node;
+
+/**
+ * Writes the incoming rows to a columnar file, see {@link ColumnarFormat}. The rows are passed on unchanged.
+ */
+@InjectionSupported( localizationPrefix = "ColumnarOutput.Injection." )
+public class ColumnarOutputMeta extends BaseStepMeta implements StepMetaInterface {
+  private static Class<?> PKG = ColumnarOutputMeta.class; // for i18n purposes, needed by Translator2!!
+
+  /** The base name of the output file */
+  @Injection( name = "FILENAME" )
+  private String fileName;
+
+  /** The file extension */
+  @Injection( name = "EXTENSION" )
+  private String extension;
+
+  /** Flag: add the step copy number in the filename */
+  @Injection( name = "INC_STEPNR_IN_FILENAME" )
+  private boolean stepNrInFilename;
+
+  /** Flag: add the partition number in the filename */
+  @Injection( name = "INC_PARTNR_IN_FILENAME" )
+  private boolean partNrInFilename;
+
+  /** Flag: create parent folder if needed */
+  @Injection( name = "CREATE_PARENT_FOLDER" )
+  private boolean createParentFolder;
+
+  /** Flag: add the file to the result files */
+  @Injection( name = "ADD_TO_RESULT" )
+  private boolean addToResult;
+
+  /** The number of rows that are buffered and written together, column by column */
+  @Injection( name = "ROW_GROUP_SIZE" )
+  private int rowGroupSize;
+
+  /** Flag: deflate the column chunks */
+  @Injection( name = "COMPRESSED" )
+  private boolean compressed;
+
+  public ColumnarOutputMeta() {
+    super(); // allocate BaseStepMeta
+  }
+
+  public String getFileName() {
+    return fileName;
+  }
+
+  public void setFileName( String fileName ) {
+    this.fileName = fileName;
+  }
+
+  public String getExtension() {
+    return extension;
+  }
+
+  public void setExtension( String extension ) {
+    this.extension = extension;
+  }
+
+  public boolean isStepNrInFilename() {
+    return stepNrInFilename;
+  }
+
+  public void setStepNrInFilename( boolean stepNrInFilename ) {
+    this.stepNrInFilename = stepNrInFilename;
+  }
+
+  public boolean isPartNrInFilename() {
+    return partNrInFilename;
+  }
+
+  public void setPartNrInFilename( boolean partNrInFilename ) {
+    this.partNrInFilename = partNrInFilename;
+  }
+
+  public boolean isCreateParentFolder() {
+    return createParentFolder;
+  }
+
+  public void setCreateParentFolder( boolean createParentFolder ) {
+    this.createParentFolder = createParentFolder;
+  }
+
+  public boolean isAddToResult() {
+    return addToResult;
+  }
+
+  public void setAddToResult( boolean addToResult ) {
+    this.addToResult = addToResult;
+  }
+
+  public int getRowGroupSize() {
+    return rowGroupSize;
+  }
+
+  public void setRowGroupSize( int rowGroupSize ) {
+    this.rowGroupSize = rowGroupSize;
+  }
+
+  public boolean isCompressed() {
+    return compressed;
+  }
+
+  public void setCompressed( boolean compressed ) {
+    this.compressed = compressed;
+  }
+
+  /**
+   * @param space   the variables to resolve the filename with
+   * @param stepnr  the step copy number
+   * @param partnr  the partition ID
+   * @return the name of the file written by the step copy
+   */
+  public String buildFilename( VariableSpace space, int stepnr, String partnr ) {
+    String retval = space.environmentSubstitute( fileName );
+    if ( stepNrInFilename ) {
+      retval += "_" + stepnr;
+    }
+    if ( partNrInFilename && !Utils.isEmpty( partnr ) ) {
+      retval += "_" + partnr;
+    }
+    String realExtension = space.environmentSubstitute( extension );
+    if ( !Utils.isEmpty( realExtension ) ) {
+      retval += "." + realExtension;
+    }
+    return retval;
+  }
+
+  @Override
+  public Object clone() {
+    return super.clone();
+  }
+
+  @Override
+  public void setDefault() {
+    fileName = "file";
+    extension = ColumnarFormat.DEFAULT_EXTENSION;
+    stepNrInFilename = false;
+    partNrInFilename = false;
+    createParentFolder = true;
+    addToResult = true;
+    rowGroupSize = ColumnarFormat.DEFAULT_ROW_GROUP_SIZE;
+    compressed = true;
+  }
+
+  @Override
+  public void loadXML( Node stepnode, List<DatabaseMeta> databases, IMetaStore metaStore ) throws KettleXMLException {
+    try {
+      fileName = XMLHandler.getTagValue( stepnode, "file", "name" );
+      extension = XMLHandler.getTagValue( stepnode, "file", "extension" );
+      stepNrInFilename = "Y".equalsIgnoreCase( XMLHandler.getTagValue( stepnode, "file", "split" ) );
+      partNrInFilename = "Y".equalsIgnoreCase( XMLHandler.getTagValue( stepnode, "file", "haspartno" ) );
+      createParentFolder = "Y".equalsIgnoreCase( XMLHandler.getTagValue( stepnode, "file", "create_parent_folder" ) );
+      addToResult = "Y".equalsIgnoreCase( XMLHandler.getTagValue( stepnode, "file", "add_to_result" ) );
+      rowGroupSize = Const.toInt( XMLHandler.getTagValue( stepnode, "row_group_size" ),
+        ColumnarFormat.DEFAULT_ROW_GROUP_SIZE );
+      compressed = "Y".equalsIgnoreCase( XMLHandler.getTagValue( stepnode, "compressed" ) );
+    } catch ( Exception e ) {
+      throw new KettleXMLException( "Unable to load step info from XML", e );
+    }
+  }
+
+  @Override
+  public String getXML() {
+    StringBuilder retval = new StringBuilder();
+
+    retval.append( "    <file>" ).append( Const.CR );
+    retval.append( "      " ).append( XMLHandler.addTagValue( "name", fileName ) );
+    retval.append( "      " ).append( XMLHandler.addTagValue( "extension", extension ) );
+    retval.append( "      " ).append( XMLHandler.addTagValue( "split", stepNrInFilename ) );
+    retval.append( "      " ).append( XMLHandler.addTagValue( "haspartno", partNrInFilename ) );
+    retval.append( "      " ).append( XMLHandler.addTagValue( "create_parent_folder", createParentFolder ) );
+    retval.append( "      " ).append( XMLHandler.addTagValue( "add_to_result", addToResult ) );
+    retval.append( "    </file>" ).append( Const.CR );
+    retval.append( "    " ).append( XMLHandler.addTagValue( "row_group_size", rowGroupSize ) );
+    retval.append( "    " ).append( XMLHandler.addTagValue( "compressed", compressed ) );
+
+    return retval.toString();
+  }
+
+  @Override
+  public void readRep( Repository rep, IMetaStore metaStore, ObjectId id_step, List<DatabaseMeta> databases )
+    throws KettleException {
+    try {
+      fileName = rep.getStepAttributeString( id_step, "file_name" );
+      extension = rep.getStepAttributeString( id_step, "file_extension" );
+      stepNrInFilename = rep.getStepAttributeBoolean( id_step, "file_add_stepnr" );
+      partNrInFilename = rep.getStepAttributeBoolean( id_step, "file_add_partnr" );
+      createParentFolder = rep.getStepAttributeBoolean( id_step, "create_parent_folder" );
+      addToResult = rep.getStepAttributeBoolean( id_step, "add_to_result" );
+      rowGroupSize = (int) rep.getStepAttributeInteger( id_step, "row_group_size" );
+      if ( rowGroupSize <= 0 ) {
+        rowGroupSize = ColumnarFormat.DEFAULT_ROW_GROUP_SIZE;
+      }
+      compressed = rep.getStepAttributeBoolean( id_step, "compressed" );
+    } catch ( Exception e ) {
+      throw new KettleException( "Unexpected error reading step information from the repository", e );
+    }
+  }
+
+  @Override
+  public void saveRep( Repository rep, IMetaStore metaStore, ObjectId id_transformation, ObjectId id_step )
+    throws KettleException {
+    try {
+      rep.saveStepAttribute( id_transformation, id_step, "file_name", fileName );
+      rep.saveStepAttribute( id_transformation, id_step, "file_extension", extension );
+      rep.saveStepAttribute( id_transformation, id_step, "file_add_stepnr", stepNrInFilename );
+      rep.saveStepAttribute( id_transformation, id_step, "file_add_partnr", partNrInFilename );
+      rep.saveStepAttribute( id_transformation, id_step, "create_parent_folder", createParentFolder );
+      rep.saveStepAttribute( id_transformation, id_step, "add_to_result", addToResult );
+      rep.saveStepAttribute( id_transformation, id_step, "row_group_size", rowGroupSize );
+      rep.saveStepAttribute( id_transformation, id_step, "compressed", compressed );
+    } catch ( Exception e ) {
+      throw new KettleException( "Unable to save step information to the repository for id_step=" + id_step, e );
+    }
+  }
+
+  @Override
+  public void check( List<CheckResultInterface> remarks, TransMeta transMeta, StepMeta stepMeta,
+    RowMetaInterface prev, String[] input, String[] output, RowMetaInterface info, VariableSpace space,
+    Repository repository, IMetaStore metaStore ) {
+    CheckResult cr;
+    if ( prev != null && prev.size() > 0 ) {
+      cr = new CheckResult( CheckResultInterface.TYPE_RESULT_OK, BaseMessages.getString(
+        PKG, "ColumnarOutputMeta.CheckResult.FieldsReceived", "" + prev.size() ), stepMeta );
+    } else {
+      cr = new CheckResult( CheckResultInterface.TYPE_RESULT_ERROR, BaseMessages.getString(
+        PKG, "ColumnarOutputMeta.CheckResult.NoFields" ), stepMeta );
+    }
+    remarks.add( cr );
+
+    if ( input.length > 0 ) {
+      cr = new CheckResult( CheckResultInterface.TYPE_RESULT_OK, BaseMessages.getString(
+        PKG, "ColumnarOutputMeta.CheckResult.ExpectedInputOk" ), stepMeta );
+    } else {
+      cr = new CheckResult( CheckResultInterface.TYPE_RESULT_ERROR, BaseMessages.getString(
+        PKG, "ColumnarOutputMeta.CheckResult.ExpectedInputError" ), stepMeta );
+    }
+    remarks.add( cr );
+
+    if ( !Utils.isEmpty( fileName ) ) {
+      cr = new CheckResult( CheckResultInterface.TYPE_RESULT_OK, BaseMessages.getString(
+        PKG, "ColumnarOutputMeta.CheckResult.FilenameOk" ), stepMeta );
+    } else {
+      cr = new CheckResult( CheckResultInterface.TYPE_RESULT_ERROR, BaseMessages.getString(
+        PKG, "ColumnarOutputMeta.CheckResult.FilenameError" ), stepMeta );
+    }
+    remarks.add( cr );
+  }
+
+  @Override
+  public StepInterface getStep( StepMeta stepMeta, StepDataInterface stepDataInterface, int cnr, TransMeta tr,
+    Trans trans ) {
+    return new ColumnarOutput( stepMeta, stepDataInterface, cnr, tr, trans );
+  }
+
+  @Override
+  public StepDataInterface getStepData() {
+    return new ColumnarOutputData();
+  }
+}
@@ -55,6 +55,7 @@ import org.pentaho.di.trans.step.StepMeta;
 import org.pentaho.di.trans.step.StepMetaInterface;
 import org.pentaho.di.trans.steps.common.CsvInputAwareMeta;
 import org.pentaho.di.trans.steps.common.CsvInputAwareStep;
+import org.pentaho.di.trans.steps.csvinput.QuotedChunkScanner.ChunkParities;
 import org.pentaho.di.trans.steps.fileinput.text.BOMDetector;
 import org.pentaho.di.trans.steps.fileinput.text.BufferedInputStreamReader;
 import org.pentaho.di.trans.steps.fileinput.text.CsvFileImportProcessor;
@@ -102,6 +103,11 @@ public class CsvInput extends BaseStep implements StepInterface, CsvInputAwareSt
       //
       data.parallel = meta.isRunningInParallel() && data.totalNumberOfSteps > 1;
 
+      // Enclosed new lines can only be handled in parallel if we can tell enclosures and new lines apart byte by byte
+      //
+      data.quoteAwareSplit = data.parallel && meta.isNewlinePossibleInFields() && data.enclosure != null
+        && data.enclosure.length == 1 && data.encodingType == EncodingType.SINGLE;
+
       // The conversion logic for when the lazy conversion is turned of is simple:
       // Pretend it's a lazy conversion object anyway and get the native type during conversion.
       //
@@ -131,6 +137,10 @@ public class CsvInput extends BaseStep implements StepInterface, CsvInputAwareSt
       //
       if ( data.parallel ) {
         prepareToRunInParallel();
+        if ( data.quoteAwareSplit && !findFirstRowOfBlock() ) {
+          setOutputDone();
+          return false;
+        }
       }
 
       // Open the next file...
@@ -265,6 +275,116 @@ public class CsvInput extends BaseStep implements StepInterface, CsvInputAwareSt
     }
   }
 
+  /**
+   * When enclosed fields can contain new lines, the first new line of the block doesn't necessarily end a row. Every copy
+   * scans its own block for the first row start assuming the block starts outside and inside an enclosure, and counts
+   * the enclosures in it. The counts of the blocks before us in the same file tell which of the two row starts is the
+   * right one. The copies on this server share their counts, so every block is only scanned once; when the blocks
+   * before us are read on another server we count the enclosures in front of our block ourselves.
+   *
+   * @return false if we stopped before the counts of the other copies were known
+   */
+  private boolean findFirstRowOfBlock() throws KettleException {
+    try {
+      ChunkParities parities = getChunkParities();
+      long blockStart = data.startPosition;
+      long blockEnd = Math.min( data.endPosition, data.totalFileSize );
+      if ( data.filenames.length == 0 ) {
+        return true;
+      }
+      if ( blockStart >= data.totalFileSize ) {
+        if ( parities != null ) {
+          parities.publish( data.stepNumber, false );
+        }
+        return true;
+      }
+
+      // Scan our part of the first file, and the part of the file the block ends in if that is another one
+      //
+      long fileStart = blockStart - data.bytesToSkipInFirstFile;
+      long fileSize = data.fileSizes.get( data.filenr );
+      QuotedChunkScanner firstScan = scanChunk( data.filenr, data.bytesToSkipInFirstFile,
+        Math.min( fileSize, blockEnd - fileStart ), data.bytesToSkipInFirstFile > 0 );
+      long enclosures = firstScan.getEnclosures();
+      int lastFilenr = data.filenr;
+      long lastFileStart = fileStart;
+      while ( lastFilenr + 1 < data.fileSizes.size() && lastFileStart + data.fileSizes.get( lastFilenr ) < blockEnd ) {
+        lastFileStart += data.fileSizes.get( lastFilenr );
+        lastFilenr++;
+      }
+      if ( lastFilenr != data.filenr ) {
+        enclosures = scanChunk( lastFilenr, 0L, blockEnd - lastFileStart, false ).getEnclosures();
+      }
+      if ( parities != null ) {
+        parities.publish( data.stepNumber, ( enclosures & 1 ) == 1 );
+      }
+
+      if ( data.bytesToSkipInFirstFile <= 0 ) {
+        return true;
+      }
+
+      // Did the blocks before us in this file leave an enclosure open?
+      //
+      boolean inside = false;
+      if ( parities != null ) {
+        for ( int chunk = 0; chunk < data.stepNumber; chunk++ ) {
+          if ( data.blockToRead * ( chunk + 1 ) > fileStart ) {
+            Boolean odd = parities.isOdd( chunk, this::isStopped );
+            if ( odd == null ) {
+              return false;
+            }
+            inside ^= odd;
+          }
+        }
+      } else {
+        inside = ( scanChunk( data.filenr, 0L, data.bytesToSkipInFirstFile, false ).getEnclosures() & 1 ) == 1;
+      }
+
+      long rowStart = firstScan.getRowStart( inside );
+      if ( rowStart < 0 ) {
+        // No row starts in our part of this file
+        rowStart = fileSize;
+      }
+      data.totalBytesRead += rowStart - data.bytesToSkipInFirstFile;
+      data.bytesToSkipInFirstFile = rowStart;
+      return true;
+    } catch ( InterruptedException e ) {
+      Thread.currentThread().interrupt();
+      return false;
+    } catch ( Exception e ) {
+      throw new KettleException( BaseMessages.getString( PKG, "CsvInput.Exception.ErrorPreparingParallelRun" ), e );
+    }
+  }
+
+  /**
+   * @return the enclosure counts shared by the copies of this step, null if not all copies run in this transformation
+   */
+  private ChunkParities getChunkParities() {
+    Map<String, Object> shared = getTrans() == null ? null : getTrans().getExtensionDataMap();
+    if ( shared == null || data.totalNumberOfSteps != getStepMeta().getCopies() ) {
+      return null;
+    }
+    String key = CsvInput.class.getName() + ".parities." + getStepname();
+    synchronized ( shared ) {
+      ChunkParities parities = (ChunkParities) shared.get( key );
+      if ( parities == null ) {
+        parities = new ChunkParities( data.totalNumberOfSteps );
+        shared.put( key, parities );
+      }
+      return parities;
+    }
+  }
+
+  private QuotedChunkScanner scanChunk( int filenr, long from, long to, boolean findRowStarts ) throws Exception {
+    FileObject fileObject = KettleVFS.getInstance( getTransMeta().getBowl() )
+      .getFileObject( data.filenames[ filenr ], getTransMeta() );
+    try ( FileInputStream fis = new FileInputStream( KettleVFS.getFilename( fileObject ) ) ) {
+      QuotedChunkScanner scanner = new QuotedChunkScanner( fis.getChannel(), data.enclosure[ 0 ] );
+      scanner.scan( from, to, findRowStarts );
+      return scanner;
+    }
+  }
+
   private void getFilenamesFromPreviousSteps() throws KettleException {
     List<String> filenames = new ArrayList<>();
     boolean firstRow = true;
@@ -356,7 +476,14 @@ public class CsvInput extends BaseStep implements StepInterface, CsvInputAwareSt
       }
 
       data.fc = data.fis.getChannel();
-      data.bb = ByteBuffer.allocateDirect( data.preferredBufferSize );
+      if ( data.memoryMapped && !data.parallel ) {
+        data.mappedScanner = new MappedCsvScanner( data.fc, data.fc.position(), data.delimiter[ 0 ], data.enclosure,
+          meta.isNewlinePossibleInFields(),
+          StringUtils.isBlank( meta.getFileFormat() )
+            || meta.getFileFormatTypeNr() == TextFileInputMeta.FILE_FORMAT_MIXED );
+      } else {
+        data.bb = ByteBuffer.allocateDirect( data.preferredBufferSize );
+      }
 
       // If we are running in parallel and we need to skip bytes in the first file, let's do so here.
       //
@@ -364,10 +491,10 @@ public class CsvInput extends BaseStep implements StepInterface, CsvInputAwareSt
         if ( data.bytesToSkipInFirstFile > 0 ) {
           data.fc.position( data.bytesToSkipInFirstFile );
 
-          // evaluate whether there is a need to skip a row
-          if ( needToSkipRow() ) {
+          // evaluate whether there is a need to skip a row, findFirstRowOfBlock() already moved us to the first row
+          if ( !data.quoteAwareSplit && needToSkipRow() ) {
             // PDI-16589 - when reading in parallel, the previous code would introduce additional rows and / or invalid data in the output.
-            // in parallel mode we don't support new lines inside field data so it's safe to fast forward until we find a new line.
+            // without enclosed new lines it's safe to fast forward until we find a new line.
             // when a newline is found we need to check for an additional new line character, while in unix systems it's just a single '\n',
             // on windows systems, it's a sequence of '\r' and '\n'. finally we set the start of the buffer to the end buffer position.
             while ( !data.newLineFound() ) {
@@ -568,6 +695,9 @@ public class CsvInput extends BaseStep implements StepInterface, CsvInputAwareSt
    * @throws KettleException
    */
   private Object[] readOneRow( boolean skipRow, boolean ignoreEnclosures ) throws KettleException {
+    if ( data.mappedScanner != null ) {
+      return readOneMappedRow( skipRow );
+    }
 
     try {
 
@@ -601,19 +731,9 @@ public class CsvInput extends BaseStep implements StepInterface, CsvInputAwareSt
             // Make certain that at least one record exists before
             // filling the rest of them with null
             if ( outputIndex > 0 ) {
-              // Optionally add the current filename to the mix as well...
+              // Optionally add the current filename and row number to the mix as well...
               //
-              if ( meta.isIncludingFilename() && !Utils.isEmpty( meta.getFilenameField() ) ) {
-                if ( meta.isLazyConversionActive() ) {
-                  outputRowData[ data.filenameFieldIndex ] = data.binaryFilename;
-                } else {
-                  outputRowData[ data.filenameFieldIndex ] = data.filenames[ data.filenr - 1 ];
-                }
-              }
-
-              if ( data.isAddingRowNumber ) {
-                outputRowData[data.rownumFieldIndex] = data.rowNumber++;
-              }
+              addFilenameAndRowNumber( outputRowData );
 
               incrementLinesInput();
               return outputRowData;
@@ -835,19 +955,9 @@ public class CsvInput extends BaseStep implements StepInterface, CsvInputAwareSt
         data.setStartBuffer( data.getEndBuffer() );
       }
 
-      // Optionally add the current filename to the mix as well...
+      // Optionally add the current filename and row number to the mix as well...
       //
-      if ( meta.isIncludingFilename() && !Utils.isEmpty( meta.getFilenameField() ) ) {
-        if ( meta.isLazyConversionActive() ) {
-          outputRowData[ data.filenameFieldIndex ] = data.binaryFilename;
-        } else {
-          outputRowData[ data.filenameFieldIndex ] = data.filenames[ data.filenr - 1 ];
-        }
-      }
-
-      if ( data.isAddingRowNumber ) {
-        outputRowData[ data.rownumFieldIndex ] = data.rowNumber++;
-      }
+      addFilenameAndRowNumber( outputRowData );
 
       if ( !ignoreEnclosures ) {
         incrementLinesInput();
@@ -869,6 +979,82 @@ public class CsvInput extends BaseStep implements StepInterface, CsvInputAwareSt
     }
   }
 
+  /**
+   * Read a single row of data with the memory mapped scanner. The scanner only gives the positions of the fields, so
+   * the fields we don't need (skipped rows and columns) are never copied out of the file.
+   *
+   * @param skipRow if row should be skipped: header row
+   * @return a row of data or null if there are no more rows in the file
+   * @throws KettleException
+   */
+  private Object[] readOneMappedRow( boolean skipRow ) throws KettleException {
+    try {
+      MappedCsvScanner scanner = data.mappedScanner;
+      if ( !scanner.nextRow( data.fieldsMapping.size() ) ) {
+        return null;
+      }
+
+      Object[] outputRowData = RowDataUtil.allocateRowData( data.outputRowMeta.size() );
+      List<Exception> conversionExceptions = null;
+      List<ValueMetaInterface> exceptionFields = null;
+
+      for ( int i = 0; i < scanner.getFieldCount() && !skipRow; i++ ) {
+        final int actualFieldIndex = data.fieldsMapping.fieldMetaIndex( i );
+        if ( actualFieldIndex == FieldsMapping.FIELD_DOES_NOT_EXIST ) {
+          continue;
+        }
+        byte[] field = scanner.getField( i );
+        if ( meta.isLazyConversionActive() ) {
+          outputRowData[ actualFieldIndex ] = field;
+        } else {
+          ValueMetaInterface sourceValueMeta = data.convertRowMeta.getValueMeta( actualFieldIndex );
+          try {
+            outputRowData[ actualFieldIndex ] = sourceValueMeta.convertBinaryStringToNativeType( field );
+          } catch ( KettleValueException e ) {
+            // There was a conversion error,
+            //
+            outputRowData[ actualFieldIndex ] = null;
+
+            if ( conversionExceptions == null ) {
+              conversionExceptions = new ArrayList<>();
+              exceptionFields = new ArrayList<>();
+            }
+
+            conversionExceptions.add( e );
+            exceptionFields.add( sourceValueMeta );
+          }
+        }
+      }
+
+      addFilenameAndRowNumber( outputRowData );
+      incrementLinesInput();
+
+      if ( conversionExceptions != null ) {
+        throw new KettleConversionException(
+          "There were " + conversionExceptions.size() + " conversion errors on line " + getLinesInput(),
+          conversionExceptions, exceptionFields, outputRowData );
+      }
+
+      return outputRowData;
+    } catch ( IOException e ) {
+      throw new KettleFileException( "Exception reading line from memory mapped file", e );
+    }
+  }
+
+  private void addFilenameAndRowNumber( Object[] outputRowData ) {
+    if ( meta.isIncludingFilename() && !Utils.isEmpty( meta.getFilenameField() ) ) {
+      if ( meta.isLazyConversionActive() ) {
+        outputRowData[ data.filenameFieldIndex ] = data.binaryFilename;
+      } else {
+        outputRowData[ data.filenameFieldIndex ] = data.filenames[ data.filenr - 1 ];
+      }
+    }
+
+    if ( data.isAddingRowNumber ) {
+      outputRowData[ data.rownumFieldIndex ] = data.rowNumber++;
+    }
+  }
+
 
   public boolean init( StepMetaInterface smi, StepDataInterface sdi ) {
     meta = (CsvInputMeta) smi;
@@ -968,6 +1154,19 @@ public class CsvInput extends BaseStep implements StepInterface, CsvInputAwareSt
           break;
       }
 
+      // The memory mapped scanner looks for single byte separators, so it can only read files where a new line is a
+      // single byte as well. The DOS format checks every line end, so that one is left to the regular reader.
+      //
+      if ( meta.isMemoryMapped() ) {
+        data.memoryMapped = data.encodingType == EncodingType.SINGLE && data.delimiter.length == 1
+          && ( data.enclosure == null || data.enclosure.length == 1 )
+          && ( StringUtils.isBlank( meta.getFileFormat() )
+            || meta.getFileFormatTypeNr() != TextFileInputMeta.FILE_FORMAT_DOS );
+        if ( !data.memoryMapped ) {
+          logBasic( BaseMessages.getString( PKG, "CsvInput.Log.MemoryMappedNotSupported" ) );
+        }
+      }
+
       return true;
 
     }
@@ -65,6 +65,8 @@ public class CsvInputData extends BaseStepData implements StepDataInterface {
   public long totalBytesRead;
 
   public boolean parallel;
+  /** True if a parallel copy has to find its first row taking enclosed new lines into account */
+  public boolean quoteAwareSplit;
   public int filenameFieldIndex;
   public int rownumFieldIndex;
   public EncodingType encodingType;
@@ -74,6 +76,10 @@ public class CsvInputData extends BaseStepData implements StepDataInterface {
 
   public FieldsMapping fieldsMapping;
 
+  /** True if the files are read with the {@link MappedCsvScanner} */
+  public boolean memoryMapped;
+  public MappedCsvScanner mappedScanner;
+
   /**
    * Data class for CsvInput step
    *
@@ -258,6 +264,7 @@ public class CsvInputData extends BaseStepData implements StepDataInterface {
   }
 
   void closeFile() throws KettleException {
+    mappedScanner = null;
     try {
       if ( fc != null ) {
         fc.close();
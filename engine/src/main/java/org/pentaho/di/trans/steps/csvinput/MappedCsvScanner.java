@@ -0,0 +1,379 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.csvinput;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * Splits a memory mapped CSV file in rows and fields without copying the data first.
+ * <p>
+ * The file is mapped in windows. The separators are found 8 bytes at a time: every byte of a long is compared with
+ * the delimiter, carriage return and line feed in one go (SWAR, SIMD within a register), so the bytes in between are
+ * never looked at one by one. A row is kept as a list of field offsets in the window; a field is only copied into a
+ * byte[] when it is asked for, so fields that are not used never leave the file mapping.
+ * <p>
+ * The scanner reads single byte delimiters and enclosures in files where a line feed and a carriage return are single
+ * bytes (single byte encodings and UTF-8), and splits the lines the same way {@link CsvInput} does for the Unix and
+ * mixed file formats.
+ */
+public class MappedCsvScanner {
+
+  public static final int DEFAULT_WINDOW_SIZE = 32 * 1024 * 1024;
+
+  private static final int MAX_WINDOW_SIZE = Integer.MAX_VALUE - 8;
+
+  private static final byte CR = '\r';
+  private static final byte LF = '\n';
+
+  private static final long ONES = 0x0101010101010101L;
+  private static final long HIGHS = 0x8080808080808080L;
+  private static final long CR_PATTERN = CR * ONES;
+  private static final long LF_PATTERN = LF * ONES;
+
+  private static final int ROW = 0;
+  private static final int END_OF_FILE = 1;
+  private static final int NEED_MORE_DATA = 2;
+
+  private final FileChannel channel;
+  private final long fileSize;
+  private final byte delimiter;
+  private final long delimiterPattern;
+  private final boolean hasEnclosure;
+  private final byte enclosure;
+  private final long enclosurePattern;
+  private final boolean newlinePossibleInFields;
+  private final boolean mixedFormat;
+
+  private int windowSize;
+  private ByteBuffer window;
+  private long windowStart;
+  private int limit;
+  private boolean windowAtEndOfFile;
+  private int position;
+
+  private int fieldCount;
+  private int[] fieldStarts = new int[ 16 ];
+  private int[] fieldEnds = new int[ 16 ];
+  private int[] fieldEscapes = new int[ 16 ];
+
+  /**
+   * @param channel                 the file to read
+   * @param startPosition           the position in the file to start reading from
+   * @param delimiter               the field delimiter
+   * @param enclosure               the enclosure or null if there is none
+   * @param newlinePossibleInFields true if only the last field of a row ends at a new line
+   * @param mixedFormat             true for the mixed file format, false for Unix
+   */
+  public MappedCsvScanner( FileChannel channel, long startPosition, byte delimiter, byte[] enclosure,
+    boolean newlinePossibleInFields, boolean mixedFormat ) throws IOException {
+    this( channel, startPosition, delimiter, enclosure, newlinePossibleInFields, mixedFormat, DEFAULT_WINDOW_SIZE );
+  }
+
+  MappedCsvScanner( FileChannel channel, long startPosition, byte delimiter, byte[] enclosure,
+    boolean newlinePossibleInFields, boolean mixedFormat, int windowSize ) throws IOException {
+    this.channel = channel;
+    this.fileSize = channel.size();
+    this.delimiter = delimiter;
+    this.delimiterPattern = ( delimiter & 0xFFL ) * ONES;
+    this.hasEnclosure = enclosure != null && enclosure.length > 0;
+    this.enclosure = hasEnclosure ? enclosure[ 0 ] : 0;
+    this.enclosurePattern = ( this.enclosure & 0xFFL ) * ONES;
+    this.newlinePossibleInFields = newlinePossibleInFields;
+    this.mixedFormat = mixedFormat;
+    this.windowSize = Math.max( 16, windowSize );
+    map( startPosition );
+  }
+
+  /**
+   * Reads the next row.
+   *
+   * @param maxFields the number of fields to read; the rest of the line is skipped
+   * @return false if the end of the file was reached before the row started
+   */
+  public boolean nextRow( int maxFields ) throws IOException {
+    while ( true ) {
+      int result = scanRow( maxFields );
+      if ( result != NEED_MORE_DATA ) {
+        return result == ROW;
+      }
+      if ( position == 0 ) {
+        // The row doesn't fit in the window
+        if ( windowSize == MAX_WINDOW_SIZE ) {
+          throw new IOException( "Row at position " + windowStart + " is too long to map" );
+        }
+        windowSize = (int) Math.min( MAX_WINDOW_SIZE, windowSize * 2L );
+      }
+      map( windowStart + position );
+    }
+  }
+
+  /**
+   * @return the number of fields read in the current row, fields after that are null
+   */
+  public int getFieldCount() {
+    return fieldCount;
+  }
+
+  /**
+   * Copies a field of the current row, without enclosures and with the escaped enclosures replaced.
+   */
+  public byte[] getField( int index ) {
+    int start = fieldStarts[ index ];
+    byte[] field = new byte[ fieldEnds[ index ] - start ];
+    window.position( start );
+    window.get( field );
+    if ( fieldEscapes[ index ] > 0 ) {
+      return removeEscapedEnclosures( field );
+    }
+    return field;
+  }
+
+  /**
+   * @return the position in the file right after the current row
+   */
+  public long getFilePosition() {
+    return windowStart + position;
+  }
+
+  private void map( long start ) throws IOException {
+    windowStart = start;
+    long size = Math.max( 0L, Math.min( windowSize, fileSize - start ) );
+    window = channel.map( FileChannel.MapMode.READ_ONLY, start, size ).order( ByteOrder.LITTLE_ENDIAN );
+    limit = (int) size;
+    windowAtEndOfFile = start + size >= fileSize;
+    position = 0;
+  }
+
+  private int scanRow( int maxFields ) {
+    int p = position;
+    fieldCount = 0;
+    boolean lineEnded = false;
+
+    while ( fieldCount < maxFields ) {
+      if ( p >= limit ) {
+        if ( !windowAtEndOfFile ) {
+          return NEED_MORE_DATA;
+        }
+        if ( fieldCount == 0 ) {
+          position = p;
+          return END_OF_FILE;
+        }
+        lineEnded = true;
+        break;
+      }
+
+      int start = p;
+      int escapes = 0;
+      boolean enclosed = false;
+      if ( hasEnclosure && window.get( p ) == enclosure ) {
+        // Skip over the enclosed part, a doubled enclosure is an escaped one
+        int q = p + 1;
+        while ( true ) {
+          q = findEnclosure( q );
+          if ( q < 0 ) {
+            if ( !windowAtEndOfFile ) {
+              return NEED_MORE_DATA;
+            }
+            // No closing enclosure, the field runs to the end of the file
+            q = limit;
+            break;
+          }
+          if ( q + 1 >= limit ) {
+            if ( !windowAtEndOfFile ) {
+              return NEED_MORE_DATA;
+            }
+            enclosed = true;
+            q++;
+            break;
+          }
+          if ( window.get( q + 1 ) != enclosure ) {
+            enclosed = true;
+            q++;
+            break;
+          }
+          escapes++;
+          q += 2;
+        }
+        p = q;
+      }
+
+      boolean newlines = !newlinePossibleInFields || fieldCount == maxFields - 1;
+      int end = p < limit ? findSeparator( p, newlines ) : -1;
+      boolean newlineFound = false;
+      if ( end < 0 ) {
+        if ( !windowAtEndOfFile ) {
+          return NEED_MORE_DATA;
+        }
+        end = limit;
+        p = limit;
+        lineEnded = true;
+      } else if ( window.get( end ) == delimiter ) {
+        p = end + 1;
+        if ( mixedFormat && fieldCount < maxFields - 1 ) {
+          // A carriage return right after a delimiter is skipped in the mixed format
+          if ( p >= limit && !windowAtEndOfFile ) {
+            return NEED_MORE_DATA;
+          }
+          if ( p < limit && window.get( p ) == CR ) {
+            p++;
+          }
+        }
+      } else {
+        newlineFound = true;
+        p = end + 1;
+        if ( p >= limit ) {
+          if ( !windowAtEndOfFile ) {
+            return NEED_MORE_DATA;
+          }
+        } else if ( mixedFormat && isNewline( window.get( p ) ) ) {
+          // CR+LF, or an empty line that is folded into this one like the NIO reader does
+          p++;
+        }
+      }
+
+      addField( enclosed ? start + 1 : start, enclosed ? end - 1 : end, escapes );
+
+      if ( newlineFound ) {
+        position = p;
+        return ROW;
+      }
+      if ( lineEnded ) {
+        break;
+      }
+    }
+
+    if ( !lineEnded ) {
+      // We have all the fields we need, skip the rest of the line
+      int q = findNewline( p );
+      if ( q < 0 ) {
+        if ( !windowAtEndOfFile ) {
+          return NEED_MORE_DATA;
+        }
+        q = limit;
+      }
+      while ( q < limit && isNewline( window.get( q ) ) ) {
+        q++;
+      }
+      if ( q >= limit && !windowAtEndOfFile ) {
+        return NEED_MORE_DATA;
+      }
+      p = q;
+    }
+
+    position = p;
+    return ROW;
+  }
+
+  private void addField( int start, int end, int escapes ) {
+    if ( fieldCount == fieldStarts.length ) {
+      int size = fieldCount * 2;
+      fieldStarts = Arrays.copyOf( fieldStarts, size );
+      fieldEnds = Arrays.copyOf( fieldEnds, size );
+      fieldEscapes = Arrays.copyOf( fieldEscapes, size );
+    }
+    fieldStarts[ fieldCount ] = start;
+    fieldEnds[ fieldCount ] = Math.max( start, end );
+    fieldEscapes[ fieldCount ] = escapes;
+    fieldCount++;
+  }
+
+  /**
+   * Finds the next delimiter, or the next delimiter or new line character.
+   *
+   * @return the position in the window or -1 if there is none
+   */
+  private int findSeparator( int from, boolean newlines ) {
+    int i = from;
+    for ( ; i + 8 <= limit; i += 8 ) {
+      long word = window.getLong( i );
+      long found = matches( word, delimiterPattern );
+      if ( newlines ) {
+        found |= matches( word, CR_PATTERN ) | matches( word, LF_PATTERN );
+      }
+      if ( found != 0 ) {
+        return i + ( Long.numberOfTrailingZeros( found ) >>> 3 );
+      }
+    }
+    for ( ; i < limit; i++ ) {
+      byte b = window.get( i );
+      if ( b == delimiter || newlines && isNewline( b ) ) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private int findNewline( int from ) {
+    int i = from;
+    for ( ; i + 8 <= limit; i += 8 ) {
+      long word = window.getLong( i );
+      long found = matches( word, CR_PATTERN ) | matches( word, LF_PATTERN );
+      if ( found != 0 ) {
+        return i + ( Long.numberOfTrailingZeros( found ) >>> 3 );
+      }
+    }
+    for ( ; i < limit; i++ ) {
+      if ( isNewline( window.get( i ) ) ) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private int findEnclosure( int from ) {
+    int i = from;
+    for ( ; i + 8 <= limit; i += 8 ) {
+      long found = matches( window.getLong( i ), enclosurePattern );
+      if ( found != 0 ) {
+        return i + ( Long.numberOfTrailingZeros( found ) >>> 3 );
+      }
+    }
+    for ( ; i < limit; i++ ) {
+      if ( window.get( i ) == enclosure ) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Sets the high bit of every byte of the word that equals the byte repeated in the pattern. Only the lowest set bit
+   * is exact, a borrow can flag the bytes above a match as well; that's all we need to find the first match in the
+   * little endian word.
+   */
+  static long matches( long word, long pattern ) {
+    long x = word ^ pattern;
+    return ( x - ONES ) & ~x & HIGHS;
+  }
+
+  private static boolean isNewline( byte b ) {
+    return b == CR || b == LF;
+  }
+
+  private byte[] removeEscapedEnclosures( byte[] field ) {
+    byte[] result = new byte[ field.length ];
+    int length = 0;
+    for ( int i = 0; i < field.length; i++ ) {
+      result[ length++ ] = field[ i ];
+      if ( field[ i ] == enclosure && i + 1 < field.length && field[ i + 1 ] == enclosure ) {
+        i++;
+      }
+    }
+    return length == result.length ? result : Arrays.copyOf( result, length );
+  }
+}
@@ -0,0 +1,245 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.csvinput;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Scans the block of a file a parallel CSV Input copy reads, to find where its first row starts when enclosed fields
+ * can contain new lines.
+ * <p>
+ * A new line only ends a row if it is outside of the enclosures, and whether the block starts inside an enclosure
+ * depends on the number of enclosures before it. Rather than waiting for the blocks before it, a copy scans its block
+ * for both start states at once: it remembers the first row start assuming the block starts outside an enclosure and
+ * the first assuming it starts inside one, and counts the enclosures in the block. Once the counts of the blocks
+ * before it are known ({@link ChunkParities}) the right row start is picked. Escaped (doubled) enclosures don't change
+ * the count parity, so this is exact for RFC 4180 files.
+ */
+public class QuotedChunkScanner {
+
+  private static final byte CR = '\r';
+  private static final byte LF = '\n';
+
+  private static final long ONES = 0x0101010101010101L;
+  private static final long LOWS = 0x7F7F7F7F7F7F7F7FL;
+  private static final long CR_PATTERN = CR * ONES;
+  private static final long LF_PATTERN = LF * ONES;
+
+  private final FileChannel channel;
+  private final long fileSize;
+  private final byte enclosure;
+  private final long enclosurePattern;
+  private final int windowSize;
+
+  private ByteBuffer window;
+  private long windowStart;
+  private int windowLength;
+
+  private long enclosures;
+  private long rowStartOutside;
+  private long rowStartInside;
+
+  public QuotedChunkScanner( FileChannel channel, byte enclosure ) throws IOException {
+    this( channel, enclosure, MappedCsvScanner.DEFAULT_WINDOW_SIZE );
+  }
+
+  QuotedChunkScanner( FileChannel channel, byte enclosure, int windowSize ) throws IOException {
+    this.channel = channel;
+    this.fileSize = channel.size();
+    this.enclosure = enclosure;
+    this.enclosurePattern = ( enclosure & 0xFFL ) * ONES;
+    this.windowSize = Math.max( 16, windowSize );
+  }
+
+  /**
+   * Scans the bytes from position from up to position to.
+   *
+   * @param findRowStarts true to look for the first row start in the range as well
+   */
+  public void scan( long from, long to, boolean findRowStarts ) throws IOException {
+    to = Math.min( to, fileSize );
+    enclosures = 0;
+    rowStartOutside = -1;
+    rowStartInside = -1;
+    boolean outsideOpen = findRowStarts;
+    boolean insideOpen = findRowStarts;
+
+    // A row starts right at the beginning of the block if the byte before ends a line and this one doesn't
+    if ( findRowStarts && from > 0 && from < to && isNewline( get( from - 1 ) ) && !isNewline( get( from ) ) ) {
+      rowStartOutside = from;
+      outsideOpen = false;
+    }
+
+    long position = from;
+    while ( position < to && ( outsideOpen || insideOpen ) ) {
+      long next = findSpecial( position, to );
+      if ( next >= to ) {
+        position = to;
+        break;
+      }
+      if ( get( next ) == enclosure ) {
+        enclosures++;
+      } else {
+        // This new line ends a row for the start state that puts us outside the enclosures here
+        boolean outside = ( enclosures & 1 ) == 0;
+        if ( outside ? outsideOpen : insideOpen ) {
+          long rowStart = next + 1;
+          while ( rowStart < to && isNewline( get( rowStart ) ) ) {
+            rowStart++;
+          }
+          if ( outside ) {
+            rowStartOutside = rowStart < to ? rowStart : -1;
+            outsideOpen = false;
+          } else {
+            rowStartInside = rowStart < to ? rowStart : -1;
+            insideOpen = false;
+          }
+        }
+      }
+      position = next + 1;
+    }
+
+    enclosures += countEnclosures( position, to );
+  }
+
+  /**
+   * @return the number of enclosures in the last scanned range
+   */
+  public long getEnclosures() {
+    return enclosures;
+  }
+
+  /**
+   * @param inside true if the range starts inside an enclosure
+   * @return the position of the first row that starts in the last scanned range or -1 if there is none
+   */
+  public long getRowStart( boolean inside ) {
+    return inside ? rowStartInside : rowStartOutside;
+  }
+
+  private byte get( long position ) throws IOException {
+    if ( position < windowStart || position >= windowStart + windowLength ) {
+      map( position );
+    }
+    return window.get( (int) ( position - windowStart ) );
+  }
+
+  private void map( long position ) throws IOException {
+    windowStart = position;
+    windowLength = (int) Math.max( 0L, Math.min( windowSize, fileSize - position ) );
+    window = channel.map( FileChannel.MapMode.READ_ONLY, position, windowLength ).order( ByteOrder.LITTLE_ENDIAN );
+  }
+
+  /**
+   * @return the position of the next enclosure or new line character or to if there is none
+   */
+  private long findSpecial( long from, long to ) throws IOException {
+    long position = from;
+    while ( position < to ) {
+      get( position );
+      int i = (int) ( position - windowStart );
+      int limit = (int) Math.min( windowLength, to - windowStart );
+      for ( ; i + 8 <= limit; i += 8 ) {
+        long word = window.getLong( i );
+        long found = MappedCsvScanner.matches( word, enclosurePattern ) | MappedCsvScanner.matches( word, CR_PATTERN )
+          | MappedCsvScanner.matches( word, LF_PATTERN );
+        if ( found != 0 ) {
+          return windowStart + i + ( Long.numberOfTrailingZeros( found ) >>> 3 );
+        }
+      }
+      for ( ; i < limit; i++ ) {
+        byte b = window.get( i );
+        if ( b == enclosure || isNewline( b ) ) {
+          return windowStart + i;
+        }
+      }
+      position = windowStart + limit;
+    }
+    return to;
+  }
+
+  private long countEnclosures( long from, long to ) throws IOException {
+    long count = 0;
+    long position = from;
+    while ( position < to ) {
+      get( position );
+      int i = (int) ( position - windowStart );
+      int limit = (int) Math.min( windowLength, to - windowStart );
+      for ( ; i + 8 <= limit; i += 8 ) {
+        count += Long.bitCount( exactMatches( window.getLong( i ), enclosurePattern ) );
+      }
+      for ( ; i < limit; i++ ) {
+        if ( window.get( i ) == enclosure ) {
+          count++;
+        }
+      }
+      position = windowStart + limit;
+    }
+    return count;
+  }
+
+  /**
+   * Sets the high bit of exactly the bytes of the word that equal the byte repeated in the pattern, so the matches can
+   * be counted.
+   */
+  static long exactMatches( long word, long pattern ) {
+    long x = word ^ pattern;
+    return ~( ( ( x & LOWS ) + LOWS ) | x | LOWS );
+  }
+
+  private static boolean isNewline( byte b ) {
+    return b == CR || b == LF;
+  }
+
+  /**
+   * The parity of the enclosure counts of the blocks of all copies of a step. Every copy publishes the parity of the
+   * part of its block in the file its block ends in; a copy that starts in the middle of a file combines the parities
+   * of the blocks before it in that file.
+   */
+  public static class ChunkParities {
+    private final boolean[] odd;
+    private final boolean[] published;
+
+    public ChunkParities( int chunks ) {
+      odd = new boolean[ chunks ];
+      published = new boolean[ chunks ];
+    }
+
+    public synchronized void publish( int chunk, boolean oddEnclosures ) {
+      odd[ chunk ] = oddEnclosures;
+      published[ chunk ] = true;
+      notifyAll();
+    }
+
+    /**
+     * Waits for the given chunk to be published.
+     *
+     * @param stopped tells if we should stop waiting
+     * @return true if the chunk has an odd number of enclosures, null if we stopped waiting
+     */
+    public synchronized Boolean isOdd( int chunk, BooleanSupplier stopped ) throws InterruptedException {
+      while ( !published[ chunk ] ) {
+        if ( stopped.getAsBoolean() ) {
+          return null;
+        }
+        wait( 100 );
+      }
+      return odd[ chunk ];
+    }
+  }
+}
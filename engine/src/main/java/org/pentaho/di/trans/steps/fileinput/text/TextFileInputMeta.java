@@ -146,6 +146,10 @@ public class TextFileInputMeta extends BaseFileInputMeta<BaseFileInputAdditional
     @Injection( name = "COMPRESSION_TYPE" )
     public String fileCompression;
 
+    /** Flag indicating that compressed files are decompressed on background threads, ahead of the parsing */
+    @Injection( name = "PARALLEL_DECOMPRESSION" )
+    public boolean parallelDecompression;
+
     /** Flag indicating that we should skip all empty lines */
     @Injection( name = "NO_EMPTY_LINES" )
     public boolean noEmptyLines;
@@ -330,6 +334,8 @@ public class TextFileInputMeta extends BaseFileInputMeta<BaseFileInputAdditional
           content.fileCompression = "Zip";
         }
       }
+      content.parallelDecompression =
+        YES.equalsIgnoreCase( XMLHandler.getTagValue( stepnode, "file", "parallel_decompression" ) );
 
       // Backward compatibility : just one filter
       if ( XMLHandler.getTagValue( stepnode, "filter" ) != null ) {
@@ -483,6 +489,7 @@ public class TextFileInputMeta extends BaseFileInputMeta<BaseFileInputAdditional
     content.nrLinesPerPage = 80;
     content.nrLinesDocHeader = 0;
     content.fileCompression = "None";
+    content.parallelDecompression = false;
     content.noEmptyLines = true;
     content.fileFormat = "DOS";
     content.fileType = "CSV";
@@ -731,6 +738,8 @@ public class TextFileInputMeta extends BaseFileInputMeta<BaseFileInputAdditional
     retval.append( "      " ).append( XMLHandler.addTagValue( "type", content.fileType ) );
     retval.append( "      " ).append( XMLHandler.addTagValue( "compression", ( content.fileCompression == null )
         ? "None" : content.fileCompression ) );
+    retval.append( "      " ).append( XMLHandler.addTagValue( "parallel_decompression",
+        content.parallelDecompression ) );
     retval.append( "    </file>" ).append( Const.CR );
 
     retval.append( "    <filters>" ).append( Const.CR );
@@ -916,6 +925,7 @@ public class TextFileInputMeta extends BaseFileInputMeta<BaseFileInputAdditional
           content.fileCompression = "Zip";
         }
       }
+      content.parallelDecompression = rep.getStepAttributeBoolean( id_step, "parallel_decompression" );
 
       for ( int i = 0; i < nrfilters; i++ ) {
         filter[i] = new TextFileFilter();
@@ -1037,6 +1047,7 @@ public class TextFileInputMeta extends BaseFileInputMeta<BaseFileInputAdditional
       rep.saveStepAttribute( id_transformation, id_step, "file_type", content.fileType );
       rep.saveStepAttribute( id_transformation, id_step, "compression", ( content.fileCompression == null ) ? "None"
           : content.fileCompression );
+      rep.saveStepAttribute( id_transformation, id_step, "parallel_decompression", content.parallelDecompression );
 
       for ( int i = 0; i < filter.length; i++ ) {
         rep.saveStepAttribute( id_transformation, id_step, i, "filter_position", filter[i].getFilterPosition() );
@@ -14,12 +14,16 @@
 package org.pentaho.di.trans.steps.fileinput.text;
 
 import java.io.BufferedInputStream;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 
 import org.apache.commons.vfs2.FileObject;
 import org.pentaho.di.core.compress.CompressionInputStream;
 import org.pentaho.di.core.compress.CompressionProvider;
 import org.pentaho.di.core.compress.CompressionProviderFactory;
+import org.pentaho.di.core.compress.ReadAheadInputStream;
+import org.pentaho.di.core.compress.gzip.GZIPCompressionProvider;
+import org.pentaho.di.core.compress.gzip.ParallelGZIPCompressionInputStream;
 import org.pentaho.di.core.exception.KettleException;
 import org.pentaho.di.core.exception.KettleFileException;
 import org.pentaho.di.core.logging.LogChannelInterface;
@@ -37,6 +41,8 @@ import org.pentaho.di.trans.steps.file.IBaseFileInputStepControl;
 public class TextFileInputReader implements IBaseFileInputReader {
   private static final int BUFFER_SIZE_INPUT_STREAM = 8192;
 
+  private static final String NONE_COMPRESSION = "None";
+
   private final IBaseFileInputStepControl step;
   private final TextFileInputMeta meta;
   private final TextFileInputData data;
@@ -69,11 +75,21 @@ public class TextFileInputReader implements IBaseFileInputReader {
       log.logDetailed( "This is a compressed file being handled by the " + provider.getName() + " provider" );
     }
 
-    in = provider.createInputStream( KettleVFS.getInputStream( file ) );
+    boolean decompressInParallel = meta.content.parallelDecompression && !NONE_COMPRESSION.equals( provider.getName() );
+    if ( decompressInParallel && provider instanceof GZIPCompressionProvider ) {
+      // Block compressed (BGZF) members are inflated on several threads at once
+      in = new ParallelGZIPCompressionInputStream( KettleVFS.getInputStream( file ), provider,
+        Runtime.getRuntime().availableProcessors() );
+    } else {
+      in = provider.createInputStream( KettleVFS.getInputStream( file ) );
+    }
 
     in.nextEntry();
 
-    BufferedInputStream inStream = new BufferedInputStream( in, BUFFER_SIZE_INPUT_STREAM );
+    // Decompress on a background thread while this one parses the lines
+    InputStream decompressed = decompressInParallel ? new ReadAheadInputStream( in ) : in;
+
+    BufferedInputStream inStream = new BufferedInputStream( decompressed, BUFFER_SIZE_INPUT_STREAM );
     BOMDetector bom = new BOMDetector( inStream );
 
     if ( bom.bomExist() ) {
@@ -374,10 +390,15 @@ public class TextFileInputReader implements IBaseFileInputReader {
          * } else if ( sFileCompression != null && sFileCompression.equals( "Snappy" ) && data.sis != null ) {
          * data.sis.close(); }
          */
-        if ( in != null ) {
-          BaseStep.closeQuietly( in );
+        // The reader goes first: with parallel decompression it waits for the read-ahead thread to stop reading from
+        // the decompressor before that is closed
+        try {
+          isr.close();
+        } finally {
+          if ( in != null ) {
+            BaseStep.closeQuietly( in );
+          }
         }
-        isr.close();
         data.filename = null; // send it down the next time.
         if ( data.file != null ) {
           try {
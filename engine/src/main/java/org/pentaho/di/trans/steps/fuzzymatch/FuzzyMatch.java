@@ -13,7 +13,11 @@
 
 package org.pentaho.di.trans.steps.fuzzymatch;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import org.apache.commons.codec.language.DoubleMetaphone;
 import org.apache.commons.codec.language.Metaphone;
@@ -30,6 +34,7 @@ import org.pentaho.di.core.row.RowDataUtil;
 import org.pentaho.di.core.row.RowMeta;
 import org.pentaho.di.core.row.RowMetaInterface;
 import org.pentaho.di.core.row.ValueMetaInterface;
+import org.pentaho.di.core.util.ExecutorUtil;
 import org.pentaho.di.i18n.BaseMessages;
 import org.pentaho.di.trans.Trans;
 import org.pentaho.di.trans.TransMeta;
@@ -234,13 +239,13 @@ public class FuzzyMatch extends BaseStep implements StepInterface {
     // Reserve room
     Object[] rowData = buildEmptyRow();
 
-    Iterator<Object[]> it = data.look.iterator();
-
     long distance = -1;
 
     // Object o=row[data.indexOfMainField];
     String lookupvalue = getInputRowMeta().getString( row, data.indexOfMainField );
 
+    Iterator<Object[]> it = getLookupIterator( lookupvalue );
+
     while ( it.hasNext() ) {
       // Get cached row data
       Object[] cachedData = it.next();
@@ -306,11 +311,11 @@ public class FuzzyMatch extends BaseStep implements StepInterface {
     // Reserve room
     Object[] rowData = buildEmptyRow();
 
-    Iterator<Object[]> it = data.look.iterator();
-
     Object o = row[data.indexOfMainField];
     String lookupvalue = (String) o;
 
+    Iterator<Object[]> it = getLookupIterator( lookupvalue );
+
     String lookupValueMF = getEncodedMF( lookupvalue, meta.getAlgorithmType() );
 
     while ( it.hasNext() ) {
@@ -345,7 +350,17 @@ public class FuzzyMatch extends BaseStep implements StepInterface {
     return rowData;
   }
 
-  private String getEncodedMF( String value, Integer algorithmType ) {
+  /**
+   * @return the cached lookup rows to compare the main stream value with, all of them unless there is an index
+   */
+  private Iterator<Object[]> getLookupIterator( String lookupvalue ) {
+    if ( data.index == null ) {
+      return data.look.iterator();
+    }
+    return data.index.getCandidates( lookupvalue );
+  }
+
+  static String getEncodedMF( String value, Integer algorithmType ) {
     String encodedValueMF = "";
     switch ( algorithmType ) {
       case FuzzyMatchMeta.OPERATION_TYPE_METAPHONE:
@@ -370,8 +385,6 @@ public class FuzzyMatch extends BaseStep implements StepInterface {
 
     // Reserve room
     Object[] rowData = buildEmptyRow();
-    // prepare to read from cache ...
-    Iterator<Object[]> it = data.look.iterator();
     double similarity = 0;
 
     // get current value from main stream
@@ -379,6 +392,9 @@ public class FuzzyMatch extends BaseStep implements StepInterface {
 
     String lookupvalue = o == null ? "" : (String) o;
 
+    // prepare to read from cache ...
+    Iterator<Object[]> it = getLookupIterator( lookupvalue );
+
     while ( it.hasNext() ) {
       // Get cached row data
       Object[] cachedData = it.next();
@@ -447,6 +463,19 @@ public class FuzzyMatch extends BaseStep implements StepInterface {
     return rowData;
   }
 
+  private void buildIndex() {
+    data.index =
+      FuzzyMatchIndex.build( data.look, meta.getAlgorithmType(), meta.isCaseSensitive(), data.maximalDistance,
+        data.minimalSimilarity );
+    if ( isDetailed() ) {
+      if ( data.index == null ) {
+        logDetailed( BaseMessages.getString( PKG, "FuzzyMatch.Log.NoIndexForAlgorithm" ) );
+      } else {
+        logDetailed( BaseMessages.getString( PKG, "FuzzyMatch.Log.IndexBuilt", data.index.size() ) );
+      }
+    }
+  }
+
   public boolean processRow( StepMetaInterface smi, StepDataInterface sdi ) throws KettleException {
     meta = (FuzzyMatchMeta) smi;
     data = (FuzzyMatchData) sdi;
@@ -464,6 +493,9 @@ public class FuzzyMatch extends BaseStep implements StepInterface {
       if ( isDetailed() ) {
         logDetailed( BaseMessages.getString( PKG, "FuzzyMatch.Log.ReadValuesInMemory", data.look.size() ) );
       }
+      if ( meta.isIndexLookup() ) {
+        buildIndex();
+      }
     }
 
     Object[] r = getRow(); // Get row from input rowset & set row busy!
@@ -476,6 +508,10 @@ public class FuzzyMatch extends BaseStep implements StepInterface {
       return false;
     }
 
+    if ( data.probeThreads > 1 && !first ) {
+      return lookupBatch( r );
+    }
+
     try {
 
       // Do the actual lookup in the hastable.
@@ -492,26 +528,111 @@ public class FuzzyMatch extends BaseStep implements StepInterface {
         }
       }
     } catch ( KettleException e ) {
-      boolean sendToErrorRow = false;
-      String errorMessage = null;
+      return handleLookupError( r, e );
+    }
 
-      if ( getStepMeta().isDoingErrorHandling() ) {
-        sendToErrorRow = true;
-        errorMessage = e.toString();
-      } else {
-        logError( BaseMessages.getString( PKG, "FuzzyMatch.Log.ErrorInStepRunning" ) + e.getMessage() );
-        setErrors( 1 );
-        stopAll();
-        setOutputDone(); // signal end to receiver(s)
-        return false;
+    return true;
+  }
+
+  /**
+   * Sends the row to the error stream, or stops the transformation when the step doesn't do error handling.
+   *
+   * @return false if the step has to stop
+   */
+  private boolean handleLookupError( Object[] r, KettleException e ) throws KettleStepException {
+    boolean sendToErrorRow = false;
+    String errorMessage = null;
+
+    if ( getStepMeta().isDoingErrorHandling() ) {
+      sendToErrorRow = true;
+      errorMessage = e.toString();
+    } else {
+      logError( BaseMessages.getString( PKG, "FuzzyMatch.Log.ErrorInStepRunning" ) + e.getMessage() );
+      setErrors( 1 );
+      stopAll();
+      setOutputDone(); // signal end to receiver(s)
+      return false;
+    }
+    if ( sendToErrorRow ) {
+      // Simply add this row to the error row
+      putError( getInputRowMeta(), r, 1, errorMessage, meta.getMainStreamField(), "FuzzyMatch001" );
+    }
+    return true;
+  }
+
+  /**
+   * Reads a batch of main stream rows, looks them up on a number of threads and passes the results in the order of
+   * the input. The cache and the index are not modified while looking up, so the threads can share them.
+   */
+  private boolean lookupBatch( Object[] r ) throws KettleException {
+    final List<Object[]> batch = new ArrayList<>( data.probeBatchSize );
+    batch.add( r );
+    boolean endOfInput = false;
+    while ( batch.size() < data.probeBatchSize ) {
+      Object[] next = getRow();
+      if ( next == null ) {
+        endOfInput = true;
+        break;
       }
-      if ( sendToErrorRow ) {
-        // Simply add this row to the error row
-        putError( getInputRowMeta(), r, 1, errorMessage, meta.getMainStreamField(), "FuzzyMatch001" );
+      batch.add( next );
+    }
+
+    final int size = batch.size();
+    final Object[][] outputRows = new Object[ size ][];
+    final KettleException[] errors = new KettleException[ size ];
+    final RowMetaInterface inputRowMeta = getInputRowMeta();
+    int chunkSize = ( size + data.probeThreads - 1 ) / data.probeThreads;
+
+    List<Future<?>> futures = new ArrayList<>( data.probeThreads );
+    for ( int start = 0; start < size; start += chunkSize ) {
+      final int from = start;
+      final int to = Math.min( size, start + chunkSize );
+      futures.add( ExecutorUtil.getExecutor().submit( () -> {
+        for ( int i = from; i < to && !isStopped(); i++ ) {
+          try {
+            outputRows[ i ] = lookupValues( inputRowMeta, batch.get( i ) );
+          } catch ( KettleException e ) {
+            errors[ i ] = e;
+          } catch ( RuntimeException e ) {
+            errors[ i ] = new KettleStepException( e );
+          }
+        }
+      } ) );
+    }
+    for ( Future<?> future : futures ) {
+      try {
+        future.get();
+      } catch ( InterruptedException e ) {
+        Thread.currentThread().interrupt();
+        throw new KettleException( e );
+      } catch ( ExecutionException e ) {
+        throw new KettleException( e.getCause() );
       }
+    }
 
+    for ( int i = 0; i < size && !isStopped(); i++ ) {
+      if ( errors[ i ] != null ) {
+        if ( !handleLookupError( batch.get( i ), errors[ i ] ) ) {
+          return false;
+        }
+        continue;
+      }
+      putRow( data.outputRowMeta, outputRows[ i ] ); // copy row to output rowset(s);
+
+      if ( checkFeedback( getLinesRead() ) ) {
+        if ( log.isBasic() ) {
+          logBasic( BaseMessages.getString( PKG, "FuzzyMatch.Log.LineNumber" ) + getLinesRead() );
+        }
+      }
     }
 
+    if ( endOfInput ) {
+      if ( isDetailed() ) {
+        logDetailed( BaseMessages.getString( PKG, "FuzzyMatch.Log.StoppedProcessingWithEmpty", getLinesRead() ) );
+      }
+      setOutputDone();
+      return false;
+    }
     return true;
   }
 
@@ -603,6 +724,12 @@ public class FuzzyMatch extends BaseStep implements StepInterface {
           break;
       }
 
+      data.probeThreads = Math.max( 1, Const.toInt( environmentSubstitute( meta.getProbeThreads() ), 1 ) );
+      data.probeBatchSize = data.probeThreads * FuzzyMatchData.PROBE_ROWS_PER_THREAD;
+      if ( data.probeThreads > 1 && isDetailed() ) {
+        logDetailed( BaseMessages.getString( PKG, "FuzzyMatch.Log.ProbeThreads", data.probeThreads ) );
+      }
+
       data.readLookupValues = true;
 
       return true;
@@ -614,6 +741,7 @@ public class FuzzyMatch extends BaseStep implements StepInterface {
     meta = (FuzzyMatchMeta) smi;
     data = (FuzzyMatchData) sdi;
     data.look.clear();
+    data.index = null;
     super.dispose( smi, sdi );
   }
 
@@ -58,6 +58,16 @@ public class FuzzyMatchData extends BaseStepData implements StepDataInterface {
   public int nrCachedFields;
   public RowMetaInterface infoCache;
 
+  /** The number of main stream rows per thread in a batch that is looked up in parallel */
+  static final int PROBE_ROWS_PER_THREAD = 200;
+
+  /** The index on the cached lookup values, null to compare with all of them */
+  public FuzzyMatchIndex index;
+
+  /** The number of threads that look up main stream rows */
+  public int probeThreads;
+  public int probeBatchSize;
+
   public FuzzyMatchData() {
     super();
     this.look = new HashSet<Object[]>();
@@ -66,6 +76,7 @@ public class FuzzyMatchData extends BaseStepData implements StepDataInterface {
     this.valueSeparator = "";
     this.nrCachedFields = 1;
     this.addAdditionalFields = false;
+    this.probeThreads = 1;
   }
 
 }
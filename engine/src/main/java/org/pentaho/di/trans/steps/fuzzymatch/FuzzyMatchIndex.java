@@ -0,0 +1,383 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.fuzzymatch;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang.StringUtils;
+import org.pentaho.di.core.util.Utils;
+
+/**
+ * Index on the cached lookup values of the Fuzzy match step that returns, for a main stream value, only the lookup rows
+ * that can possibly meet the thresholds of the algorithm. The exact measure is still calculated by the step for every
+ * candidate, so the results are the same as without the index:
+ * <ul>
+ * <li>Levenshtein and Damerau-Levenshtein: a BK-tree on the Levenshtein distance, searched with the maximal distance.
+ * A transposition counts as two Levenshtein edits, so the radius is doubled for Damerau-Levenshtein.</li>
+ * <li>Metaphone, Double metaphone, Soundex and Refined soundex: buckets by phonetic code.</li>
+ * <li>Pair letters similarity: an inverted index of letter pairs, a positive similarity needs a common pair.</li>
+ * <li>Jaro and Jaro-Winkler: the lengths of the values bound the similarity, only lookup values with a length in the
+ * admissible range are returned.</li>
+ * </ul>
+ * The candidates are returned in the iteration order of the cache, so ties are decided the same way as well. The index
+ * is read-only once built and can be used from several threads.
+ */
+public class FuzzyMatchIndex {
+
+  /** The cached lookup rows, the position in this list is the ordinal of a row */
+  private final List<Object[]> rows;
+  private final int algorithm;
+  private final boolean caseSensitive;
+  private final int radius;
+
+  /** Levenshtein and Damerau-Levenshtein */
+  private BKTreeNode root;
+
+  /** Phonetic codes and letter pairs */
+  private Map<String, int[]> postings;
+  private int[] emptyValues;
+
+  /** Jaro and Jaro-Winkler: the ordinals sorted by value length, with the lengths */
+  private int[] byLength;
+  private int[] lengths;
+  private double minimalLengthRatio;
+
+  private FuzzyMatchIndex( List<Object[]> rows, int algorithm, boolean caseSensitive, int radius ) {
+    this.rows = rows;
+    this.algorithm = algorithm;
+    this.caseSensitive = caseSensitive;
+    this.radius = radius;
+  }
+
+  /**
+   * Builds the index for the given algorithm and thresholds.
+   *
+   * @param look              the cached lookup rows, the key value comes first
+   * @param algorithm         the algorithm, one of the FuzzyMatchMeta.OPERATION_TYPE_ constants
+   * @param caseSensitive     false if the distance algorithms compare in lower case
+   * @param maximalDistance   the maximal distance of the distance algorithms
+   * @param minimalSimilarity the minimal similarity of the similarity algorithms
+   * @return the index, or null if the algorithm or the thresholds don't allow to prune any lookup value
+   */
+  public static FuzzyMatchIndex build( Collection<Object[]> look, int algorithm, boolean caseSensitive,
+    int maximalDistance, double minimalSimilarity ) {
+    List<Object[]> rows = new ArrayList<>( look );
+    FuzzyMatchIndex index;
+    switch ( algorithm ) {
+      case FuzzyMatchMeta.OPERATION_TYPE_LEVENSHTEIN:
+        index = new FuzzyMatchIndex( rows, algorithm, caseSensitive, maximalDistance );
+        index.buildTree();
+        return index;
+      case FuzzyMatchMeta.OPERATION_TYPE_DAMERAU_LEVENSHTEIN:
+        index = new FuzzyMatchIndex( rows, algorithm, caseSensitive, 2 * maximalDistance );
+        index.buildTree();
+        return index;
+      case FuzzyMatchMeta.OPERATION_TYPE_METAPHONE:
+      case FuzzyMatchMeta.OPERATION_TYPE_DOUBLE_METAPHONE:
+      case FuzzyMatchMeta.OPERATION_TYPE_SOUNDEX:
+      case FuzzyMatchMeta.OPERATION_TYPE_REFINED_SOUNDEX:
+        index = new FuzzyMatchIndex( rows, algorithm, caseSensitive, 0 );
+        index.buildPhoneticBuckets();
+        return index;
+      case FuzzyMatchMeta.OPERATION_TYPE_PAIR_SIMILARITY:
+        if ( minimalSimilarity <= 0 ) {
+          return null;
+        }
+        index = new FuzzyMatchIndex( rows, algorithm, caseSensitive, 0 );
+        index.buildLetterPairs();
+        return index;
+      case FuzzyMatchMeta.OPERATION_TYPE_JARO:
+      case FuzzyMatchMeta.OPERATION_TYPE_JARO_WINKLER:
+        // Jaro is at most ( 2 + shortest / longest ) / 3, Jaro-Winkler adds at most 0.4 * ( 1 - Jaro )
+        double minimalJaro = algorithm == FuzzyMatchMeta.OPERATION_TYPE_JARO
+          ? minimalSimilarity : ( minimalSimilarity - 0.4 ) / 0.6;
+        double ratio = 3 * minimalJaro - 2 - 1e-9;
+        if ( minimalSimilarity <= 0 || ratio <= 0 ) {
+          return null;
+        }
+        index = new FuzzyMatchIndex( rows, algorithm, caseSensitive, 0 );
+        index.minimalLengthRatio = ratio;
+        index.buildLengths();
+        return index;
+      default:
+        return null;
+    }
+  }
+
+  /**
+   * @param value the main stream value
+   * @return the lookup rows that can meet the thresholds, in the iteration order of the cache
+   */
+  public Iterator<Object[]> getCandidates( String value ) {
+    if ( value == null ) {
+      return rows.iterator();
+    }
+    switch ( algorithm ) {
+      case FuzzyMatchMeta.OPERATION_TYPE_LEVENSHTEIN:
+      case FuzzyMatchMeta.OPERATION_TYPE_DAMERAU_LEVENSHTEIN:
+        return toRows( searchTree( caseSensitive ? value : value.toLowerCase() ) );
+      case FuzzyMatchMeta.OPERATION_TYPE_PAIR_SIMILARITY:
+        return toRows( searchLetterPairs( value ) );
+      case FuzzyMatchMeta.OPERATION_TYPE_JARO:
+      case FuzzyMatchMeta.OPERATION_TYPE_JARO_WINKLER:
+        return toRows( searchLengths( value.length() ) );
+      default:
+        String code = FuzzyMatch.getEncodedMF( value, algorithm );
+        if ( code == null ) {
+          // Let the step handle this the way it does without index
+          return rows.iterator();
+        }
+        int[] ordinals = postings.get( code );
+        return toRows( ordinals == null ? new int[ 0 ] : ordinals );
+    }
+  }
+
+  public int size() {
+    return rows.size();
+  }
+
+  private Iterator<Object[]> toRows( int[] ordinals ) {
+    return new AbstractList<Object[]>() {
+      @Override
+      public Object[] get( int index ) {
+        return rows.get( ordinals[ index ] );
+      }
+
+      @Override
+      public int size() {
+        return ordinals.length;
+      }
+    }.iterator();
+  }
+
+  private String getKey( int ordinal ) {
+    String key = (String) rows.get( ordinal )[ 0 ];
+    return key == null ? "" : key;
+  }
+
+  private void buildTree() {
+    for ( int i = 0; i < rows.size(); i++ ) {
+      String key = getKey( i );
+      if ( !caseSensitive ) {
+        key = key.toLowerCase();
+      }
+      if ( root == null ) {
+        root = new BKTreeNode( key, i );
+        continue;
+      }
+      BKTreeNode node = root;
+      while ( true ) {
+        int distance = StringUtils.getLevenshteinDistance( node.key, key );
+        if ( distance == 0 ) {
+          node.add( i );
+          break;
+        }
+        BKTreeNode child = node.children.get( distance );
+        if ( child == null ) {
+          node.children.put( distance, new BKTreeNode( key, i ) );
+          break;
+        }
+        node = child;
+      }
+    }
+  }
+
+  private int[] searchTree( String key ) {
+    IntBuffer result = new IntBuffer();
+    if ( root == null || radius < 0 ) {
+      return result.toArray();
+    }
+    List<BKTreeNode> stack = new ArrayList<>();
+    stack.add( root );
+    while ( !stack.isEmpty() ) {
+      BKTreeNode node = stack.remove( stack.size() - 1 );
+      int distance = StringUtils.getLevenshteinDistance( node.key, key );
+      if ( distance <= radius ) {
+        for ( int i = 0; i < node.size; i++ ) {
+          result.add( node.ordinals[ i ] );
+        }
+      }
+      // By the triangle inequality only the children at distance - radius to distance + radius can be in range
+      for ( Map.Entry<Integer, BKTreeNode> child : node.children.entrySet() ) {
+        int edge = child.getKey();
+        if ( edge >= distance - radius && edge <= distance + radius ) {
+          stack.add( child.getValue() );
+        }
+      }
+    }
+    return result.toSortedArray();
+  }
+
+  private void buildPhoneticBuckets() {
+    Map<String, IntBuffer> buckets = new HashMap<>();
+    for ( int i = 0; i < rows.size(); i++ ) {
+      // The step compares with the code of the cached value, a null code never matches
+      String code = FuzzyMatch.getEncodedMF( (String) rows.get( i )[ 0 ], algorithm );
+      if ( code != null ) {
+        buckets.computeIfAbsent( code, k -> new IntBuffer() ).add( i );
+      }
+    }
+    postings = toPostings( buckets );
+  }
+
+  private void buildLetterPairs() {
+    Map<String, IntBuffer> pairs = new HashMap<>();
+    IntBuffer empty = new IntBuffer();
+    for ( int i = 0; i < rows.size(); i++ ) {
+      String key = (String) rows.get( i )[ 0 ];
+      if ( Utils.isEmpty( key ) ) {
+        empty.add( i );
+        continue;
+      }
+      for ( String pair : LetterPairSimilarity.wordLetterPairs( key.toUpperCase() ) ) {
+        IntBuffer ordinals = pairs.computeIfAbsent( pair, k -> new IntBuffer() );
+        if ( ordinals.size == 0 || ordinals.last() != i ) {
+          ordinals.add( i );
+        }
+      }
+    }
+    postings = toPostings( pairs );
+    emptyValues = empty.toArray();
+  }
+
+  private int[] searchLetterPairs( String value ) {
+    if ( Utils.isEmpty( value ) ) {
+      // Only two empty values are similar
+      return emptyValues;
+    }
+    IntBuffer result = new IntBuffer();
+    for ( String pair : LetterPairSimilarity.wordLetterPairs( value.toUpperCase() ) ) {
+      int[] ordinals = postings.get( pair );
+      if ( ordinals != null ) {
+        for ( int ordinal : ordinals ) {
+          result.add( ordinal );
+        }
+      }
+    }
+    return result.toSortedArray();
+  }
+
+  private void buildLengths() {
+    Integer[] ordinals = new Integer[ rows.size() ];
+    for ( int i = 0; i < ordinals.length; i++ ) {
+      ordinals[ i ] = i;
+    }
+    Arrays.sort( ordinals, ( a, b ) -> Integer.compare( getKey( a ).length(), getKey( b ).length() ) );
+    byLength = new int[ ordinals.length ];
+    lengths = new int[ ordinals.length ];
+    for ( int i = 0; i < ordinals.length; i++ ) {
+      byLength[ i ] = ordinals[ i ];
+      lengths[ i ] = getKey( ordinals[ i ] ).length();
+    }
+  }
+
+  private int[] searchLengths( int length ) {
+    if ( length == 0 ) {
+      // The similarity with an empty value is zero
+      return new int[ 0 ];
+    }
+    int minimalLength = Math.max( 1, (int) Math.ceil( length * minimalLengthRatio ) );
+    long maximalLength = (long) Math.floor( length / minimalLengthRatio );
+    int from = lowerBound( minimalLength );
+    int to = maximalLength >= Integer.MAX_VALUE ? lengths.length : lowerBound( (int) maximalLength + 1 );
+    IntBuffer result = new IntBuffer();
+    for ( int i = from; i < to; i++ ) {
+      result.add( byLength[ i ] );
+    }
+    return result.toSortedArray();
+  }
+
+  private int lowerBound( int length ) {
+    int low = 0;
+    int high = lengths.length;
+    while ( low < high ) {
+      int middle = ( low + high ) >>> 1;
+      if ( lengths[ middle ] < length ) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  private static Map<String, int[]> toPostings( Map<String, IntBuffer> buffers ) {
+    Map<String, int[]> result = new HashMap<>( buffers.size() * 2 );
+    for ( Map.Entry<String, IntBuffer> entry : buffers.entrySet() ) {
+      result.put( entry.getKey(), entry.getValue().toArray() );
+    }
+    return result;
+  }
+
+  private static class BKTreeNode {
+    private final String key;
+    private int[] ordinals;
+    private int size;
+    private final Map<Integer, BKTreeNode> children = new HashMap<>( 4 );
+
+    BKTreeNode( String key, int ordinal ) {
+      this.key = key;
+      this.ordinals = new int[] { ordinal };
+      this.size = 1;
+    }
+
+    void add( int ordinal ) {
+      if ( size == ordinals.length ) {
+        ordinals = Arrays.copyOf( ordinals, size * 2 );
+      }
+      ordinals[ size++ ] = ordinal;
+    }
+  }
+
+  private static class IntBuffer {
+    private int[] values = new int[ 8 ];
+    private int size;
+
+    void add( int value ) {
+      if ( size == values.length ) {
+        values = Arrays.copyOf( values, size * 2 );
+      }
+      values[ size++ ] = value;
+    }
+
+    int last() {
+      return values[ size - 1 ];
+    }
+
+    int[] toArray() {
+      return Arrays.copyOf( values, size );
+    }
+
+    /**
+     * @return the distinct values in ascending order
+     */
+    int[] toSortedArray() {
+      Arrays.sort( values, 0, size );
+      int distinct = 0;
+      for ( int i = 0; i < size; i++ ) {
+        if ( distinct == 0 || values[ distinct - 1 ] != values[ i ] ) {
+          values[ distinct++ ] = values[ i ];
+        }
+      }
+      return Arrays.copyOf( values, distinct );
+    }
+  }
+}
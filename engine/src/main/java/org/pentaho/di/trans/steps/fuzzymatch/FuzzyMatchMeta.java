@@ -133,6 +133,12 @@ public class FuzzyMatchMeta extends BaseStepMeta implements StepMetaInterface {
   /** rename to this after lookup */
   private String[] valueName;
 
+  /** index the lookup values to compare with the candidates that can meet the thresholds only **/
+  private boolean indexLookup;
+
+  /** number of threads that look up main stream rows **/
+  private String probeThreads;
+
   public FuzzyMatchMeta() {
     super(); // allocate BaseStepMeta
   }
@@ -320,6 +326,36 @@ public class FuzzyMatchMeta extends BaseStepMeta implements StepMetaInterface {
     this.separator = separator;
   }
 
+  /**
+   * @return true if the lookup values are indexed
+   */
+  public boolean isIndexLookup() {
+    return indexLookup;
+  }
+
+  /**
+   * @param indexLookup
+   *          true to index the lookup values
+   */
+  public void setIndexLookup( boolean indexLookup ) {
+    this.indexLookup = indexLookup;
+  }
+
+  /**
+   * @return the number of threads that look up main stream rows
+   */
+  public String getProbeThreads() {
+    return probeThreads;
+  }
+
+  /**
+   * @param probeThreads
+   *          the number of threads that look up main stream rows
+   */
+  public void setProbeThreads( String probeThreads ) {
+    this.probeThreads = probeThreads;
+  }
+
   public void loadXML( Node stepnode, List<DatabaseMeta> databases, IMetaStore metaStore ) throws KettleXMLException {
     readData( stepnode, databases );
   }
@@ -381,6 +417,8 @@ public class FuzzyMatchMeta extends BaseStepMeta implements StepMetaInterface {
       minimalValue = XMLHandler.getTagValue( stepnode, "minimalValue" );
       maximalValue = XMLHandler.getTagValue( stepnode, "maximalValue" );
       separator = XMLHandler.getTagValue( stepnode, "separator" );
+      indexLookup = "Y".equalsIgnoreCase( XMLHandler.getTagValue( stepnode, "index_lookup" ) );
+      probeThreads = XMLHandler.getTagValue( stepnode, "probe_threads" );
 
       outputmatchfield = XMLHandler.getTagValue( stepnode, "outputmatchfield" );
       outputvaluefield = XMLHandler.getTagValue( stepnode, "outputvaluefield" );
@@ -423,6 +461,8 @@ public class FuzzyMatchMeta extends BaseStepMeta implements StepMetaInterface {
     minimalValue = "0";
     maximalValue = "1";
     caseSensitive = false;
+    indexLookup = false;
+    probeThreads = "1";
     lookupfield = null;
     mainstreamfield = null;
     outputmatchfield = BaseMessages.getString( PKG, "FuzzyMatchMeta.OutputMatchFieldname" );
@@ -520,6 +560,8 @@ public class FuzzyMatchMeta extends BaseStepMeta implements StepMetaInterface {
     retval.append( "    " + XMLHandler.addTagValue( "minimalValue", minimalValue ) );
     retval.append( "    " + XMLHandler.addTagValue( "maximalValue", maximalValue ) );
     retval.append( "    " + XMLHandler.addTagValue( "separator", separator ) );
+    retval.append( "    " + XMLHandler.addTagValue( "index_lookup", indexLookup ) );
+    retval.append( "    " + XMLHandler.addTagValue( "probe_threads", probeThreads ) );
 
     retval.append( "    " ).append( XMLHandler.addTagValue( "algorithm", getAlgorithmTypeCode( algorithm ) ) );
 
@@ -550,6 +592,8 @@ public class FuzzyMatchMeta extends BaseStepMeta implements StepMetaInterface {
       minimalValue = rep.getStepAttributeString( id_step, "minimalValue" );
       maximalValue = rep.getStepAttributeString( id_step, "maximalValue" );
       separator = rep.getStepAttributeString( id_step, "separator" );
+      indexLookup = rep.getStepAttributeBoolean( id_step, "index_lookup" );
+      probeThreads = rep.getStepAttributeString( id_step, "probe_threads" );
 
       algorithm = getAlgorithmTypeByCode( Const.NVL( rep.getStepAttributeString( id_step, "algorithm" ), "" ) );
 
@@ -580,6 +624,8 @@ public class FuzzyMatchMeta extends BaseStepMeta implements StepMetaInterface {
       rep.saveStepAttribute( id_transformation, id_step, "minimalValue", minimalValue );
       rep.saveStepAttribute( id_transformation, id_step, "maximalValue", maximalValue );
       rep.saveStepAttribute( id_transformation, id_step, "separator", separator );
+      rep.saveStepAttribute( id_transformation, id_step, "index_lookup", indexLookup );
+      rep.saveStepAttribute( id_transformation, id_step, "probe_threads", probeThreads );
       rep.saveStepAttribute( id_transformation, id_step, "algorithm", getAlgorithmTypeCode( algorithm ) );
 
       for ( int i = 0; i < value.length; i++ ) {
@@ -51,7 +51,7 @@ public class LetterPairSimilarity {
 
   /** @return an ArrayList of 2-character Strings. */
 
-  private static ArrayList<String> wordLetterPairs( String str ) {
+  static ArrayList<String> wordLetterPairs( String str ) {
     ArrayList<String> allPairs = new ArrayList<String>();
     // Tokenize the string and put the tokens/words into an array
     String[] words = str.split( "\\s" );
@@ -15,12 +15,13 @@ package org.pentaho.di.trans.steps.multimerge;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.PriorityQueue;
 
 import org.pentaho.di.core.RowSet;
 import org.pentaho.di.core.exception.KettleException;
 import org.pentaho.di.core.exception.KettleStepException;
 import org.pentaho.di.core.row.RowDataUtil;
+import org.pentaho.di.core.row.RowKeyComparator;
+import org.pentaho.di.core.row.RowMergeTree;
 import org.pentaho.di.core.row.RowMeta;
 import org.pentaho.di.core.row.RowMetaInterface;
 import org.pentaho.di.core.row.ValueMetaInterface;
@@ -115,11 +116,9 @@ public class MultiMergeJoin extends BaseStep implements StepInterface {
     data.rows = new Object[streamSize][];
     data.metas = new RowMetaInterface[streamSize];
     data.rowLengths = new int[streamSize];
-    MultiMergeJoinData.QueueComparator comparator = new MultiMergeJoinData.QueueComparator( data );
-    data.queue = new PriorityQueue<MultiMergeJoinData.QueueEntry>( streamSize, comparator );
+    data.comparators = new RowKeyComparator[streamSize];
+    data.mergeTree = new RowMergeTree( streamSize, new MultiMergeJoinData.StreamComparator( data ) );
     data.results = new ArrayList<List<Object[]>>( streamSize );
-    MultiMergeJoinData.QueueEntry queueEntry;
-    data.queueEntries = new MultiMergeJoinData.QueueEntry[streamSize];
     data.drainIndices = new int[streamSize];
     data.keyNrs = new int[streamSize][];
     data.dummy = new Object[streamSize][];
@@ -133,10 +132,6 @@ public class MultiMergeJoin extends BaseStep implements StepInterface {
         continue;
       }
 
-      queueEntry = new MultiMergeJoinData.QueueEntry();
-      queueEntry.index = j;
-      data.queueEntries[j] = queueEntry;
-
       data.results.add( new ArrayList<Object[]>() );
 
       rowSet = findInputRowSet( inputStepName );
@@ -152,7 +147,6 @@ public class MultiMergeJoin extends BaseStep implements StepInterface {
         rowMeta = getTransMeta().getStepFields( inputStepName );
         data.metas[j] = rowMeta;
       } else {
-        queueEntry.row = row;
         rowMeta = rowSet.getRowMeta();
 
         keyField = meta.getKeyFields()[i];
@@ -170,7 +164,8 @@ public class MultiMergeJoin extends BaseStep implements StepInterface {
           }
         }
         data.metas[j] = rowMeta;
-        data.queue.add( data.queueEntries[j] );
+        data.comparators[j] = new RowKeyComparator( rowMeta, data.keyNrs[j] );
+        data.mergeTree.set( j, row );
       }
       data.outputRowMeta.mergeRowMeta( rowMeta.clone() );
       data.rowLengths[j] = rowMeta.size();
@@ -208,20 +203,11 @@ public class MultiMergeJoin extends BaseStep implements StepInterface {
      */
     int streamSize = data.metas.length;
     if ( data.optional ) {
-      if ( data.queue.isEmpty() ) {
+      if ( data.mergeTree.size() == 0 ) {
         setOutputDone();
         return false;
       }
-      MultiMergeJoinData.QueueEntry minEntry = data.queue.poll();
-      int drainSize = 1;
-      data.rows[minEntry.index] = minEntry.row;
-      data.drainIndices[0] = minEntry.index;
-      MultiMergeJoinData.QueueComparator comparator = (MultiMergeJoinData.QueueComparator) data.queue.comparator();
-      while ( !data.queue.isEmpty() && comparator.compare( data.queue.peek(), minEntry ) == 0 ) {
-        MultiMergeJoinData.QueueEntry entry = data.queue.poll();
-        data.rows[entry.index] = entry.row;
-        data.drainIndices[drainSize++] = entry.index;
-      }
+      int drainSize = drainSmallestRows();
       int index;
       Object[] row = null;
       // rows from nonempty input streams match: get all equal rows and create result set
@@ -237,8 +223,7 @@ public class MultiMergeJoin extends BaseStep implements StepInterface {
           return false;
         }
         if ( row != null ) {
-          data.queueEntries[index].row = row;
-          data.queue.add( data.queueEntries[index] );
+          data.mergeTree.set( index, row );
         }
       }
       for ( int i = 0; i < streamSize; i++ ) {
@@ -273,8 +258,7 @@ public class MultiMergeJoin extends BaseStep implements StepInterface {
         data.results.get( i ).clear();
       }
     } else {
-      if ( data.queue.size() < streamSize ) {
-        data.queue.clear();
+      if ( data.mergeTree.size() < streamSize ) {
         for ( int i = 0; i < streamSize; i++ ) {
           while ( data.rows[i] != null && !isStopped() ) {
             data.rows[i] = getRowFrom( data.rowSets[i] );
@@ -284,18 +268,9 @@ public class MultiMergeJoin extends BaseStep implements StepInterface {
         return false;
       }
 
-      MultiMergeJoinData.QueueEntry minEntry = data.queue.poll();
-      int drainSize = 1;
-      data.rows[minEntry.index] = minEntry.row;
-      data.drainIndices[0] = minEntry.index;
-      MultiMergeJoinData.QueueComparator comparator = (MultiMergeJoinData.QueueComparator) data.queue.comparator();
-      while ( !data.queue.isEmpty() && comparator.compare( data.queue.peek(), minEntry ) == 0 ) {
-        MultiMergeJoinData.QueueEntry entry = data.queue.poll();
-        data.rows[entry.index] = entry.row;
-        data.drainIndices[drainSize++] = entry.index;
-      }
+      int drainSize = drainSmallestRows();
       Object[] row = null;
-      if ( data.queue.isEmpty() ) {
+      if ( data.mergeTree.size() == 0 ) {
         // rows from all input streams match: get all equal rows and create result set
         for ( int i = 0; i < streamSize; i++ ) {
           data.results.get( i ).add( data.rows[i] );
@@ -308,8 +283,7 @@ public class MultiMergeJoin extends BaseStep implements StepInterface {
             return false;
           }
           if ( row != null ) {
-            data.queueEntries[i].row = row;
-            data.queue.add( data.queueEntries[i] );
+            data.mergeTree.set( i, row );
           }
         }
         for ( int i = 0; i < streamSize; i++ ) {
@@ -352,8 +326,7 @@ public class MultiMergeJoin extends BaseStep implements StepInterface {
           if ( isStopped() || row == null ) {
             break;
           }
-          data.queueEntries[index].row = row;
-          data.queue.add( data.queueEntries[index] );
+          data.mergeTree.set( index, row );
         }
         if ( isStopped() ) {
           return false;
@@ -366,6 +339,27 @@ public class MultiMergeJoin extends BaseStep implements StepInterface {
     return true;
   }
 
+  /**
+   * Takes the smallest row and all the rows with the same key out of the merge tree. The rows are stored in data.rows
+   * and the indexes of their streams in data.drainIndices.
+   *
+   * @return the number of streams that were drained
+   */
+  private int drainSmallestRows() throws KettleException {
+    int minIndex = data.mergeTree.peekSlot();
+    Object[] minRow = data.mergeTree.peekRow();
+    int drainSize = 0;
+    int index = minIndex;
+    do {
+      data.rows[index] = data.mergeTree.getRow( index );
+      data.drainIndices[drainSize++] = index;
+      data.mergeTree.set( index, null );
+      index = data.mergeTree.peekSlot();
+    } while ( index >= 0
+      && data.mergeTree.getComparator().compare( index, data.mergeTree.getRow( index ), minIndex, minRow ) == 0 );
+    return drainSize;
+  }
+
   /**
    * @see StepInterface#init(org.pentaho.di.trans.step.StepMetaInterface , org.pentaho.di.trans.step.StepDataInterface)
    */
@@ -13,12 +13,12 @@
 
 package org.pentaho.di.trans.steps.multimerge;
 
-import java.util.Comparator;
 import java.util.List;
-import java.util.PriorityQueue;
 
 import org.pentaho.di.core.RowSet;
-import org.pentaho.di.core.exception.KettleException;
+import org.pentaho.di.core.exception.KettleValueException;
+import org.pentaho.di.core.row.RowKeyComparator;
+import org.pentaho.di.core.row.RowMergeTree;
 import org.pentaho.di.core.row.RowMetaInterface;
 import org.pentaho.di.trans.step.BaseStepData;
 import org.pentaho.di.trans.step.StepDataInterface;
@@ -30,28 +30,19 @@ import org.pentaho.di.trans.step.StepDataInterface;
  */
 
 public class MultiMergeJoinData extends BaseStepData implements StepDataInterface {
-  public static class QueueEntry {
-    public Object[] row;
-    public int index;
-  }
-
-  public static class QueueComparator implements Comparator<QueueEntry> {
+  /**
+   * Compares the current rows of two input streams on their keys, the streams can have different layouts.
+   */
+  public static class StreamComparator implements RowMergeTree.SlotComparator {
     MultiMergeJoinData data;
 
-    QueueComparator( MultiMergeJoinData data ) {
+    StreamComparator( MultiMergeJoinData data ) {
       this.data = data;
     }
 
     @Override
-    public int compare( QueueEntry a, QueueEntry b ) {
-      try {
-        int cmp =
-          data.metas[a.index].compare(
-            a.row, data.metas[b.index], b.row, data.keyNrs[a.index], data.keyNrs[b.index] );
-        return cmp > 0 ? 1 : cmp < 0 ? -1 : 0;
-      } catch ( KettleException e ) {
-        throw new RuntimeException( e.getMessage() );
-      }
+    public int compare( int index1, Object[] row1, int index2, Object[] row2 ) throws KettleValueException {
+      return data.comparators[index1].compare( row1, data.comparators[index2], row2 );
     }
   }
 
@@ -60,13 +51,14 @@ public class MultiMergeJoinData extends BaseStepData implements StepDataInterfac
   public RowMetaInterface outputRowMeta; // just for speed: oneMeta+twoMeta
   public Object[][] dummy;
   public List<List<Object[]>> results;
-  public PriorityQueue<QueueEntry> queue;
+  /** The current row of every input stream that still has rows, ordered on the keys */
+  public RowMergeTree mergeTree;
+  public RowKeyComparator[] comparators;
   public boolean optional;
   public int[][] keyNrs;
   public int[] drainIndices;
 
   public RowSet[] rowSets;
-  public QueueEntry[] queueEntries;
   public int[] rowLengths;
 
   /**
@@ -48,8 +48,7 @@ public class RowsToResult extends BaseStep implements StepInterface {
 
     Object[] r = getRow(); // get row, set busy!
     if ( r == null ) { // no more input to be expected...
-      getTrans().getResultRows().addAll( data.rows );
-      getTrans().setResultRowSet( true );
+      addRowsToResult();
       setOutputDone();
       return false;
     }
@@ -69,6 +68,21 @@ public class RowsToResult extends BaseStep implements StepInterface {
     return true;
   }
 
+  /**
+   * In a single threaded transformation the rows of every batch are handed over right away, so that a transformation
+   * that is reused for a number of batches returns the result rows of each batch.
+   */
+  @Override
+  public void batchComplete() throws KettleException {
+    addRowsToResult();
+  }
+
+  private void addRowsToResult() {
+    getTrans().getResultRows().addAll( data.rows );
+    getTrans().setResultRowSet( true );
+    data.rows.clear();
+  }
+
   public boolean init( StepMetaInterface smi, StepDataInterface sdi ) {
     meta = (RowsToResultMeta) smi;
     data = (RowsToResultData) sdi;
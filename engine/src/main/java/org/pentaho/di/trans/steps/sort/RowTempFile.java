@@ -15,7 +15,11 @@ package org.pentaho.di.trans.steps.sort;
 
 /**
  * Keeps track of which temporary file a row is coming from
+ *
+ * @deprecated Sort rows merges the temporary files with {@link org.pentaho.di.core.row.RowMergeTree}, which keeps the
+ *             file of a row as its slot. This class is no longer used and only kept for compatibility.
  */
+@Deprecated
 public class RowTempFile {
   public Object[] row;
   public int fileNumber;
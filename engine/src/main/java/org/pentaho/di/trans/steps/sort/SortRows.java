@@ -34,6 +34,8 @@ import org.pentaho.di.core.Const;
 import org.pentaho.di.core.exception.KettleException;
 import org.pentaho.di.core.exception.KettleFileException;
 import org.pentaho.di.core.exception.KettleValueException;
+import org.pentaho.di.core.row.RowKeyComparator;
+import org.pentaho.di.core.row.RowMergeTree;
 import org.pentaho.di.core.row.RowMetaInterface;
 import org.pentaho.di.core.row.ValueMetaInterface;
 import org.pentaho.di.core.vfs.KettleVFS;
@@ -240,6 +242,8 @@ public class SortRows extends BaseStep implements StepInterface {
         logBasic( BaseMessages.getString( PKG, "SortRows.Basic.OpeningTempFiles", data.files.size() ) );
       }
 
+      Object[][] firstRows = new Object[data.files.size()][];
+      data.mergeTree = new RowMergeTree( data.files.size(), data.comparator );
       try {
         for ( int f = 0; f < data.files.size() && !isStopped(); f++ ) {
           FileObject fileObject = data.files.get( f );
@@ -268,12 +272,12 @@ public class SortRows extends BaseStep implements StepInterface {
           if ( buffersize > 0 ) {
             Object[] row = data.outputRowMeta.readData( di );
             data.rowbuffer.add( row ); // new row from input stream
-            data.tempRows.add( new RowTempFile( row, f ) );
+            firstRows[f] = row;
           }
         }
 
-        // Sort the data row buffer
-        Collections.sort( data.tempRows, data.comparator );
+        // Every file keeps its slot in the merge tree until all files are read
+        data.mergeTree.setAll( firstRows );
       } catch ( Exception e ) {
         logError( BaseMessages.getString( PKG, "SortRows.Error.ErrorReadingBackTempFiles" ), e );
       }
@@ -291,7 +295,7 @@ public class SortRows extends BaseStep implements StepInterface {
     } else {
       // read from disk processing
 
-      if ( data.rowbuffer.size() == 0 ) {
+      if ( data.rowbuffer.size() == 0 || data.mergeTree.size() == 0 ) {
         retval = null;
       } else {
         // We now have "filenr" rows waiting: which one is the smallest?
@@ -304,9 +308,8 @@ public class SortRows extends BaseStep implements StepInterface {
           }
         }
 
-        RowTempFile rowTempFile = data.tempRows.remove( 0 );
-        retval = rowTempFile.row;
-        int smallest = rowTempFile.fileNumber;
+        int smallest = data.mergeTree.peekSlot();
+        retval = data.mergeTree.peekRow();
 
         // now get another Row for position smallest
 
@@ -316,14 +319,7 @@ public class SortRows extends BaseStep implements StepInterface {
 
         try {
           Object[] row2 = data.outputRowMeta.readData( di );
-          RowTempFile extra = new RowTempFile( row2, smallest );
-
-          int index = Collections.binarySearch( data.tempRows, extra, data.comparator );
-          if ( index < 0 ) {
-            data.tempRows.add( index * ( -1 ) - 1, extra );
-          } else {
-            data.tempRows.add( index, extra );
-          }
+          data.mergeTree.set( smallest, row2 );
         } catch ( KettleFileException fe ) { // empty file or EOF mostly
           GZIPInputStream gzfi = ( data.compressFiles ) ? data.gzis.get( smallest ) : null;
           try {
@@ -340,22 +336,14 @@ public class SortRows extends BaseStep implements StepInterface {
             return null;
           }
 
-          data.files.remove( smallest );
-          data.dis.remove( smallest );
-          data.fis.remove( smallest );
+          data.files.set( smallest, null );
+          data.dis.set( smallest, null );
+          data.fis.set( smallest, null );
 
           if ( gzfi != null ) {
-            data.gzis.remove( smallest );
-          }
-
-          // Also update all file numbers in in data.tempRows if they are larger
-          // than smallest.
-          //
-          for ( RowTempFile rtf : data.tempRows ) {
-            if ( rtf.fileNumber > smallest ) {
-              rtf.fileNumber--;
-            }
+            data.gzis.set( smallest, null );
           }
+          data.mergeTree.set( smallest, null );
         } catch ( SocketTimeoutException e ) {
           throw new KettleValueException( e ); // should never happen on local files
         }
@@ -411,7 +399,6 @@ public class SortRows extends BaseStep implements StepInterface {
       data.outputRowMeta = inputRowMeta.clone();
       meta.getFields( getTransMeta().getBowl(), data.outputRowMeta, getStepname(), null, null, this, repository,
         metaStore );
-      data.comparator = new RowTemapFileComparator( data.outputRowMeta, data.fieldnrs );
 
       for ( int i = 0; i < fieldNames.length; i++ ) {
         data.fieldnrs[i] = inputRowMeta.indexOfValue( fieldNames[i] );
@@ -431,6 +418,7 @@ public class SortRows extends BaseStep implements StepInterface {
         i++;
       }
       data.rowComparator = new RowObjectArrayComparator( data.outputRowMeta, data.fieldnrs );
+      data.comparator = new RowKeyComparator( data.outputRowMeta, data.fieldnrs );
     } // end if first
 
     // it is not first row and it is null
@@ -569,8 +557,6 @@ public class SortRows extends BaseStep implements StepInterface {
 
     data.compressFiles = getBooleanValueOfVariable( meta.getCompressFilesVariable(), meta.getCompressFiles() );
 
-    data.tempRows = new ArrayList<RowTempFile>();
-
     data.minSortSize = 5000;
 
     return true;
@@ -612,6 +598,14 @@ public class SortRows extends BaseStep implements StepInterface {
         logError( e.getLocalizedMessage(), e );
       }
     }
+
+    // Forget about the files of this batch, their slots stay in place during the merge
+    data.files.clear();
+    data.dis.clear();
+    data.fis.clear();
+    data.gzis.clear();
+    data.bufferSizes.clear();
+    data.mergeTree = null;
   }
 
   /**
@@ -680,22 +674,6 @@ public class SortRows extends BaseStep implements StepInterface {
     }
   }
 
-  private class RowTemapFileComparator extends SortRowsComparator implements Comparator<RowTempFile> {
-    RowTemapFileComparator( RowMetaInterface rowMeta, int[] fieldNrs ) {
-      super( rowMeta, fieldNrs );
-    }
-
-    @Override
-    public int compare( RowTempFile o1, RowTempFile o2 ) {
-      try {
-        return rowMeta.compare( o1.row, o2.row, fieldNrs );
-      } catch ( KettleValueException e ) {
-        logError( "Error comparing rows: " + e.toString() );
-        return 0;
-      }
-    }
-  }
-
   private class RowObjectArrayComparator extends SortRowsComparator implements Comparator<Object[]> {
     RowObjectArrayComparator( RowMetaInterface rowMeta, int[] fieldNrs ) {
       super( rowMeta, fieldNrs );
@@ -21,6 +21,8 @@ import java.util.List;
 import java.util.zip.GZIPInputStream;
 
 import org.apache.commons.vfs2.FileObject;
+import org.pentaho.di.core.row.RowKeyComparator;
+import org.pentaho.di.core.row.RowMergeTree;
 import org.pentaho.di.core.row.RowMetaInterface;
 import org.pentaho.di.trans.step.BaseStepData;
 import org.pentaho.di.trans.step.StepDataInterface;
@@ -40,8 +42,8 @@ public class SortRowsData extends BaseStepData implements StepDataInterface {
   public List<Object[]> rowbuffer;
   public List<Integer> bufferSizes;
 
-  // To store rows and file references
-  public List<RowTempFile> tempRows;
+  // The current row of every temporary file during the merge
+  public RowMergeTree mergeTree;
 
   public int[] fieldnrs; // the corresponding field numbers;
   public FileObject fil;
@@ -51,7 +53,7 @@ public class SortRowsData extends BaseStepData implements StepDataInterface {
   public int[] convertKeysToNative;
   public boolean convertAnyKeysToNative;
 
-  Comparator<RowTempFile> comparator;
+  RowKeyComparator comparator;
   Comparator<Object[]> rowComparator;
 
   public int freeCounter;
@@ -16,6 +16,11 @@ package org.pentaho.di.trans.steps.sortedmerge;
 import org.pentaho.di.core.RowSet;
 import org.pentaho.di.core.row.RowMetaInterface;
 
+/**
+ * @deprecated Sorted Merge merges the input rowsets with {@link org.pentaho.di.core.row.RowMergeTree}, which keeps the
+ *             rowset of a row as its slot. This class is no longer used and only kept for compatibility.
+ */
+@Deprecated
 public class RowSetRow {
   private RowSet rowSet;
   private RowMetaInterface rowMeta;
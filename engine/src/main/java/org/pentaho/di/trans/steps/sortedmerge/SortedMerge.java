@@ -14,14 +14,13 @@
 package org.pentaho.di.trans.steps.sortedmerge;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
 
 import org.pentaho.di.core.RowSet;
 import org.pentaho.di.core.exception.KettleException;
 import org.pentaho.di.core.exception.KettleStepException;
-import org.pentaho.di.core.exception.KettleValueException;
+import org.pentaho.di.core.row.RowKeyComparator;
+import org.pentaho.di.core.row.RowMergeTree;
 import org.pentaho.di.i18n.BaseMessages;
 import org.pentaho.di.trans.Trans;
 import org.pentaho.di.trans.TransMeta;
@@ -52,8 +51,8 @@ public class SortedMerge extends BaseStep implements StepInterface {
    * We read from all streams in the partition merge mode For that we need at least one row on all input rowsets... If
    * we don't have a row, we wait for one.
    *
-   * TODO: keep the inputRowSets() list sorted and go from there. That should dramatically improve speed as you only
-   * need half as many comparisons.
+   * The current row of every input rowset is kept in a merge tree, so that finding the smallest row and replacing it
+   * with the next row of the same rowset takes a logarithmic number of comparisons in the number of rowsets.
    *
    * @return the next row
    */
@@ -68,7 +67,8 @@ public class SortedMerge extends BaseStep implements StepInterface {
 
       // Read one row from all rowsets...
       //
-      data.sortedBuffer = new ArrayList<RowSetRow>();
+      List<RowSet> rowSets = new ArrayList<RowSet>();
+      List<Object[]> rows = new ArrayList<Object[]>();
       data.rowMeta = null;
 
       // PDI-1212:
@@ -84,10 +84,10 @@ public class SortedMerge extends BaseStep implements StepInterface {
         RowSet rowSet = inputRowSets.get( i );
         Object[] row = getRowFrom( rowSet );
         if ( row != null ) {
-          // Add this row to the sortedBuffer...
-          // Which is not yet sorted, we'll get to that later.
+          // Every rowset that has rows gets a slot in the merge tree
           //
-          data.sortedBuffer.add( new RowSetRow( rowSet, rowSet.getRowMeta(), row ) );
+          rowSets.add( rowSet );
+          rows.add( row );
           if ( data.rowMeta == null ) {
             data.rowMeta = rowSet.getRowMeta().clone();
           }
@@ -111,55 +111,34 @@ public class SortedMerge extends BaseStep implements StepInterface {
             }
           }
         }
+      }
 
-        data.comparator = new Comparator<RowSetRow>() {
-
-          public int compare( RowSetRow o1, RowSetRow o2 ) {
-            try {
-              return o1.getRowMeta().compare( o1.getRowData(), o2.getRowData(), data.fieldIndices );
-            } catch ( KettleValueException e ) {
-              return 0; // TODO see if we should fire off alarms over here... Perhaps throw a RuntimeException.
-            }
-          }
-        };
-
-        // Now sort the sortedBuffer for the first time.
+      data.rowSets = rowSets.toArray( new RowSet[ rowSets.size() ] );
+      if ( data.rowMeta != null ) {
+        // All the rowsets carry the same layout, compare them with the metadata that knows the sort direction
         //
-        Collections.sort( data.sortedBuffer, data.comparator );
+        data.comparator = new RowKeyComparator( data.rowMeta, data.fieldIndices );
+        data.mergeTree = new RowMergeTree( data.rowSets.length, data.comparator );
+        data.mergeTree.setAll( rows.toArray( new Object[ rows.size() ][] ) );
       }
     }
 
-    // If our sorted buffer is empty, it means we're done...
+    // If our merge tree is empty, it means we're done...
     //
-    if ( data.sortedBuffer.isEmpty() ) {
+    if ( data.mergeTree == null || data.mergeTree.size() == 0 ) {
       return null;
     }
 
-    // now that we have all rows sorted, all we need to do is find out what the smallest row is.
-    // The smallest row is the first in our case...
+    // The smallest row is at the top of the merge tree
     //
-    RowSetRow smallestRow = data.sortedBuffer.get( 0 );
-    data.sortedBuffer.remove( 0 );
-    Object[] outputRowData = smallestRow.getRowData();
+    int slot = data.mergeTree.peekSlot();
+    Object[] outputRowData = data.mergeTree.peekRow();
+    RowSet rowSet = data.rowSets[ slot ];
 
     // We read another row from the row set where the smallest row came from.
     // That we we exhaust all row sets.
     //
-    Object[] extraRow = getRowFrom( smallestRow.getRowSet() );
-
-    // Add it to the sorted buffer in the right position...
-    //
-    if ( extraRow != null ) {
-      // Add this one to the sortedBuffer
-      //
-      RowSetRow add = new RowSetRow( smallestRow.getRowSet(), smallestRow.getRowSet().getRowMeta(), extraRow );
-      int index = Collections.binarySearch( data.sortedBuffer, add, data.comparator );
-      if ( index < 0 ) {
-        data.sortedBuffer.add( -index - 1, add );
-      } else {
-        data.sortedBuffer.add( index, add );
-      }
-    }
+    data.mergeTree.set( slot, getRowFrom( rowSet ) );
 
     // This concludes the regular program...
     //
@@ -169,7 +148,7 @@ public class SortedMerge extends BaseStep implements StepInterface {
     if ( getTrans().isSafeModeEnabled() ) {
       // for checking we need to get data and meta
       //
-      safeModeChecking( smallestRow.getRowMeta() );
+      safeModeChecking( rowSet.getRowMeta() );
     }
 
     return outputRowData;
@@ -13,9 +13,9 @@
 
 package org.pentaho.di.trans.steps.sortedmerge;
 
-import java.util.Comparator;
-import java.util.List;
-
+import org.pentaho.di.core.RowSet;
+import org.pentaho.di.core.row.RowKeyComparator;
+import org.pentaho.di.core.row.RowMergeTree;
 import org.pentaho.di.core.row.RowMetaInterface;
 import org.pentaho.di.trans.step.BaseStepData;
 import org.pentaho.di.trans.step.StepDataInterface;
@@ -29,8 +29,10 @@ public class SortedMergeData extends BaseStepData implements StepDataInterface {
   public int[] fieldIndices;
   // public RowComparator rowComparator;
   public RowMetaInterface rowMeta;
-  public List<RowSetRow> sortedBuffer;
-  public Comparator<RowSetRow> comparator;
+  /** The input rowsets that had rows when the merge started, one slot in the merge tree each */
+  public RowSet[] rowSets;
+  public RowMergeTree mergeTree;
+  public RowKeyComparator comparator;
 
   public SortedMergeData() {
     super();
@@ -15,6 +15,7 @@ package org.pentaho.di.trans.steps.tableinput;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Map;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -138,10 +139,20 @@ public class TableInput extends BaseDatabaseStep implements StepInterface {
           return false; // stop immediately, nothing to do here.
         }
 
-        boolean success = doQuery( parametersMeta, parameters );
+        boolean success;
+        if ( data.splitter != null ) {
+          success = startPartitionedRead( parametersMeta, parameters );
+        } else {
+          success = doQuery( parametersMeta, parameters );
+        }
         if ( !success ) {
           return false;
         }
+        if ( data.merger != null ) {
+          return putMergedRow();
+        }
+      } else if ( data.merger != null ) {
+        return putMergedRow();
       } else {
         if ( data.thisrow != null ) { // We can expect more rows
 
@@ -191,6 +202,19 @@ public class TableInput extends BaseDatabaseStep implements StepInterface {
               }
             }
           }
+        } else if ( data.splits != null && data.splitNr + 1 < data.splits.size() && limitSplitQuery() ) {
+          // Continue with the next split of the query
+          closePreviousQuery();
+          data.splitNr++;
+
+          if ( !doSplitQuery() ) {
+            return false;
+          }
+
+          if ( data.thisrow != null ) {
+            putRow( data.rowMeta, data.thisrow ); // fill the rowset(s). (wait for empty)
+            data.thisrow = data.nextrow;
+          }
         } else {
           done = true;
         }
@@ -222,16 +246,22 @@ public class TableInput extends BaseDatabaseStep implements StepInterface {
     }
   }
 
-  private boolean doQuery( RowMetaInterface parametersMeta, Object[] parameters ) throws KettleDatabaseException {
-    boolean success = true;
-
-    // Open the query with the optional parameters received from the source steps.
-    String sql = null;
+  private String getSQL() {
     if ( meta.isVariableReplacementActive() ) {
-      sql = environmentSubstitute( meta.getSQL() );
+      return environmentSubstitute( meta.getSQL() );
     } else {
-      sql = meta.getSQL();
+      return meta.getSQL();
     }
+  }
+
+  private boolean doQuery( RowMetaInterface parametersMeta, Object[] parameters ) throws KettleDatabaseException {
+    // Open the query with the optional parameters received from the source steps.
+    return doQuery( getSQL(), parametersMeta, parameters );
+  }
+
+  private boolean doQuery( String sql, RowMetaInterface parametersMeta, Object[] parameters )
+    throws KettleDatabaseException {
+    boolean success = true;
 
     if ( log.isDetailed() ) {
       logDetailed( BaseMessages.getString( PKG, "TableInput.Log.SqlQuery", sql ) );
@@ -272,9 +302,156 @@ public class TableInput extends BaseDatabaseStep implements StepInterface {
     return success;
   }
 
+  /**
+   * Starts reading the splits of the query assigned to this step copy.
+   */
+  private boolean startPartitionedRead( RowMetaInterface parametersMeta, Object[] parameters )
+    throws KettleException {
+    data.parametersMeta = parametersMeta;
+    data.parameters = parameters;
+
+    if ( log.isBasic() ) {
+      logBasic( BaseMessages.getString( PKG, "TableInput.Log.ReadingSplits", data.splits.toString(),
+        String.valueOf( data.splitter.getSplitCount() ), environmentSubstitute( meta.getPartitionColumn() ) ) );
+    }
+
+    if ( data.splitter.isRangeMethod() ) {
+      computeRange();
+    }
+
+    if ( data.splits.isEmpty() ) {
+      data.thisrow = null;
+      return true;
+    }
+
+    if ( meta.isMergingPartitions() ) {
+      data.merger =
+        new TableInputSplitMerger( this, meta.getDatabaseMeta(), environmentSubstitute( meta.getPartitionColumn() ),
+          meta.isLazyConversionActive(), getTransMeta().getSizeRowset(),
+          Const.toInt( environmentSubstitute( meta.getRowLimit() ), 0 ), data.db.getFetchSize() );
+      for ( int split : data.splits ) {
+        data.merger.addSplit( split, data.splitter.getSplitSQL( getSQL(), split, true ),
+          getSplitParametersMeta( split ), getSplitParameters( split ) );
+      }
+      data.merger.start();
+      data.rowMeta = data.merger.getRowMeta();
+      return true;
+    }
+
+    data.splitNr = 0;
+    return doSplitQuery();
+  }
+
+  /**
+   * The row limit applies to all the splits read by this copy together: the next split query is limited to the rows
+   * that are left.
+   *
+   * @return false if the limit is reached
+   */
+  private boolean limitSplitQuery() {
+    int rowLimit = Const.toInt( environmentSubstitute( meta.getRowLimit() ), 0 );
+    if ( rowLimit <= 0 ) {
+      return true;
+    }
+    long rowsLeft = rowLimit - getLinesInput();
+    if ( rowsLeft <= 0 ) {
+      return false;
+    }
+    data.db.setQueryLimit( (int) rowsLeft );
+    return true;
+  }
+
+  private boolean doSplitQuery() throws KettleDatabaseException {
+    int split = data.splits.get( data.splitNr );
+    return doQuery( data.splitter.getSplitSQL( getSQL(), split, false ), getSplitParametersMeta( split ),
+      getSplitParameters( split ) );
+  }
+
+  private RowMetaInterface getSplitParametersMeta( int split ) {
+    RowMetaInterface splitParametersMeta = data.parametersMeta.clone();
+    splitParametersMeta.addRowMeta( data.splitter.getSplitParametersMeta( split ) );
+    return splitParametersMeta;
+  }
+
+  private Object[] getSplitParameters( int split ) {
+    return RowDataUtil.addRowData( data.parameters, data.parametersMeta.size(),
+      data.splitter.getSplitParameters( split ) );
+  }
+
+  /**
+   * The boundaries of the ranges have to be the same for all step copies. The first copy to get here reads the lowest
+   * and highest key, the other copies use the same values. Only the copies of this step wait for that query, the
+   * extension data map of the transformation is locked just long enough to find the shared holder of the range.
+   */
+  private void computeRange() throws KettleException {
+    Map<String, Object> shared = getTrans() == null ? null : getTrans().getExtensionDataMap();
+    if ( shared == null ) {
+      Object[] range = readRange();
+      data.splitter.setRange( (ValueMetaInterface) range[ 0 ], range[ 1 ], range[ 2 ] );
+      return;
+    }
+    String key = TableInput.class.getName() + ".range." + getStepname();
+    RangeHolder holder;
+    synchronized ( shared ) {
+      holder = (RangeHolder) shared.computeIfAbsent( key, k -> new RangeHolder() );
+    }
+    synchronized ( holder ) {
+      if ( holder.range == null ) {
+        holder.range = readRange();
+      }
+      data.splitter.setRange( (ValueMetaInterface) holder.range[ 0 ], holder.range[ 1 ], holder.range[ 2 ] );
+    }
+  }
+
+  /**
+   * The lowest and highest key shared by the copies of a step, read by the first copy.
+   */
+  private static class RangeHolder {
+    private Object[] range;
+  }
+
+  private Object[] readRange() throws KettleDatabaseException {
+    String sql = data.splitter.getRangeSQL( getSQL() );
+    if ( log.isDetailed() ) {
+      logDetailed( BaseMessages.getString( PKG, "TableInput.Log.SqlQuery", sql ) );
+    }
+    ResultSet rs;
+    if ( data.parametersMeta.isEmpty() ) {
+      rs = data.db.openQuery( sql, null, null, ResultSet.FETCH_FORWARD, false );
+    } else {
+      rs = data.db.openQuery( sql, data.parametersMeta, data.parameters, ResultSet.FETCH_FORWARD, false );
+    }
+    try {
+      RowMetaInterface rangeMeta = data.db.getReturnRowMeta();
+      Object[] row = data.db.getRow( rs );
+      return new Object[] { rangeMeta.getValueMeta( 0 ), row == null ? null : row[ 0 ], row == null ? null : row[ 1 ] };
+    } finally {
+      data.db.closeQuery( rs );
+    }
+  }
+
+  private boolean putMergedRow() throws KettleException {
+    Object[] row = data.merger.getRow();
+    if ( row == null ) {
+      setOutputDone(); // signal end to receiver(s)
+      return false;
+    }
+    putRow( data.rowMeta, row );
+
+    if ( checkFeedback( getLinesInput() ) ) {
+      if ( log.isBasic() ) {
+        logBasic( BaseMessages.getString( PKG, "TableInput.Log.LineNumber", String.valueOf( getLinesInput() ) ) );
+      }
+    }
+    return true;
+  }
+
   public void dispose( StepMetaInterface smi, StepDataInterface sdi ) {
     dbLock.lock();
     try {
+      if ( data.merger != null ) {
+        data.merger.dispose();
+      }
       if ( log.isBasic() ) {
         logBasic( BaseMessages.getString( PKG, "TableInput.Log.FinishedReadingQuery" ) );
       }
@@ -305,6 +482,10 @@ public class TableInput extends BaseDatabaseStep implements StepInterface {
 
       setStopped( true );
 
+      if ( data.merger != null ) {
+        data.merger.stop();
+      }
+
       if ( data.db != null  && data.db.getConnection() != null && !data.isCanceled ) {
         data.db.cancelQuery();
         data.isCanceled = true;
@@ -329,9 +510,15 @@ public class TableInput extends BaseDatabaseStep implements StepInterface {
         data.infoStream = meta.getStepIOMeta().getInfoStreams().get( 0 );
         data.db.setQueryLimit( Const.toInt( environmentSubstitute( meta.getRowLimit() ), 0 ) );
 
+        data.db.setFetchSize( Const.toInt( environmentSubstitute( meta.getFetchSize() ), 0 ) );
+
         if ( meta.getDatabaseMeta().isRequiringTransactionsOnQueries() ) {
           data.db.setCommitSize( 100 ); // needed for PGSQL it seems...
         }
+
+        if ( meta.isPartitionedRead() ) {
+          return initPartitionedRead();
+        }
         return true;
       }
       return false;
@@ -340,6 +527,37 @@ public class TableInput extends BaseDatabaseStep implements StepInterface {
     }
   }
 
+  /**
+   * Assigns the splits to the step copies: split i is read by copy i modulo the number of copies. With as many splits
+   * as copies, a partitioned step copy reads the rows of its own partition when it's partitioned on the same column
+   * with the remainder of division.
+   */
+  private boolean initPartitionedRead() {
+    String column = environmentSubstitute( meta.getPartitionColumn() );
+    if ( Utils.isEmpty( column ) ) {
+      logError( BaseMessages.getString( PKG, "TableInput.Exception.PartitionColumnMissing" ) );
+      return false;
+    }
+    if ( meta.isExecuteEachInputRow() ) {
+      logError( BaseMessages.getString( PKG, "TableInput.Exception.PartitionedExecuteEachRow" ) );
+      return false;
+    }
+
+    int copies = Math.max( 1, getUniqueStepCountAcrossSlaves() );
+    int copyNr = getUniqueStepNrAcrossSlaves();
+    int splitCount = Const.toInt( environmentSubstitute( meta.getPartitionCount() ), 0 );
+    if ( splitCount <= 0 ) {
+      splitCount = copies;
+    }
+
+    data.splitter = new TableInputSplitter( meta.getDatabaseMeta(), meta.getPartitionMethod(), column, splitCount );
+    data.splits = new ArrayList<>();
+    for ( int split = copyNr; split < splitCount; split += copies ) {
+      data.splits.add( split );
+    }
+    return true;
+  }
+
   @SuppressWarnings( "java:S1144" ) // Using reflection this method is being invoked
   public JSONObject getColumnsAction( Map<String, String> queryParams ) throws KettleException {
     JSONObject response = new JSONObject();
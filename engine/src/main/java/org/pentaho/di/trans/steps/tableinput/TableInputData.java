@@ -14,6 +14,7 @@
 package org.pentaho.di.trans.steps.tableinput;
 
 import java.sql.ResultSet;
+import java.util.List;
 
 import org.pentaho.di.core.RowSet;
 import org.pentaho.di.core.database.Database;
@@ -36,6 +37,14 @@ public class TableInputData extends BaseDatabaseStepData implements StepDataInte
   public boolean isCanceled;
   public StreamInterface infoStream;
 
+  /** Partitioned read: the splits of the query read by this step copy */
+  public TableInputSplitter splitter;
+  public List<Integer> splits;
+  public int splitNr;
+  public RowMetaInterface parametersMeta;
+  public Object[] parameters;
+  public TableInputSplitMerger merger;
+
   public TableInputData() {
     super();
 
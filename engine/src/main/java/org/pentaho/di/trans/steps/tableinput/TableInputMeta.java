@@ -62,6 +62,15 @@ import java.util.List;
 public class TableInputMeta extends BaseDatabaseStepMeta implements StepMetaInterface {
   private static Class<?> PKG = TableInputMeta.class; // for i18n purposes, needed by Translator2!!
 
+  /** The query is read as a whole */
+  public static final String PARTITION_METHOD_NONE = "NONE";
+
+  /** The range between the lowest and highest key is split in equal parts */
+  public static final String PARTITION_METHOD_RANGE = "RANGE";
+
+  /** The rows are split on the remainder of the division of the key by the number of splits */
+  public static final String PARTITION_METHOD_MOD = "MOD";
+
   private List<DatabaseMeta> databases;
 
   private DatabaseMeta databaseMeta;
@@ -87,6 +96,29 @@ public class TableInputMeta extends BaseDatabaseStepMeta implements StepMetaInte
 
   private RowMetaInterface cachedRowMeta;
 
+  /**
+   * How the query is split for a partitioned read: {@link #PARTITION_METHOD_NONE}, {@link #PARTITION_METHOD_RANGE} or
+   * {@link #PARTITION_METHOD_MOD}. Every step copy reads its own splits on its own connection.
+   */
+  @Injection( name = "PARTITION_METHOD" )
+  private String partitionMethod;
+
+  /** The numeric or date column to split the query on */
+  @Injection( name = "PARTITION_COLUMN" )
+  private String partitionColumn;
+
+  /** The number of splits, the number of step copies if empty */
+  @Injection( name = "PARTITION_COUNT" )
+  private String partitionCount;
+
+  /** Read the splits of a step copy in parallel and merge them in the order of the partition column */
+  @Injection( name = "MERGE_PARTITIONS" )
+  private boolean mergingPartitions;
+
+  /** The number of rows fetched per round trip, the default of the database if empty */
+  @Injection( name = "FETCH_SIZE" )
+  private String fetchSize;
+
   public TableInputMeta() {
     super();
   }
@@ -182,6 +214,11 @@ public class TableInputMeta extends BaseDatabaseStepMeta implements StepMetaInte
       lazyConversionActive = "Y".equals( XMLHandler.getTagValue( stepnode, "lazy_conversion_active" ) );
       cachedRowMetaActive = "Y".equals( XMLHandler.getTagValue( stepnode, "cached_row_meta_active" ) );
       cachedRowMeta = new RowMeta( XMLHandler.getSubNode( stepnode, RowMeta.XML_META_TAG ) );
+      partitionMethod = Const.NVL( XMLHandler.getTagValue( stepnode, "partition_method" ), PARTITION_METHOD_NONE );
+      partitionColumn = XMLHandler.getTagValue( stepnode, "partition_column" );
+      partitionCount = XMLHandler.getTagValue( stepnode, "partition_count" );
+      mergingPartitions = "Y".equals( XMLHandler.getTagValue( stepnode, "merge_partitions" ) );
+      fetchSize = XMLHandler.getTagValue( stepnode, "fetch_size" );
 
     } catch ( Exception e ) {
       throw new KettleXMLException( "Unable to load step info from XML", e );
@@ -192,6 +229,7 @@ public class TableInputMeta extends BaseDatabaseStepMeta implements StepMetaInte
     databaseMeta = null;
     sql = "SELECT <values> FROM <table name> WHERE <conditions>";
     rowLimit = "0";
+    partitionMethod = PARTITION_METHOD_NONE;
   }
 
   protected Database getDatabase() {
@@ -301,6 +339,11 @@ public class TableInputMeta extends BaseDatabaseStepMeta implements StepMetaInte
     retval.append( "    " + XMLHandler.addTagValue( "variables_active", variableReplacementActive ) );
     retval.append( "    " + XMLHandler.addTagValue( "lazy_conversion_active", lazyConversionActive ) );
     retval.append( "    " + XMLHandler.addTagValue( "cached_row_meta_active", cachedRowMetaActive ) );
+    retval.append( "    " + XMLHandler.addTagValue( "partition_method", partitionMethod ) );
+    retval.append( "    " + XMLHandler.addTagValue( "partition_column", partitionColumn ) );
+    retval.append( "    " + XMLHandler.addTagValue( "partition_count", partitionCount ) );
+    retval.append( "    " + XMLHandler.addTagValue( "merge_partitions", mergingPartitions ) );
+    retval.append( "    " + XMLHandler.addTagValue( "fetch_size", fetchSize ) );
     storeCachedRowMeta( retval );
     return retval.toString();
   }
@@ -354,6 +397,11 @@ public class TableInputMeta extends BaseDatabaseStepMeta implements StepMetaInte
       variableReplacementActive = rep.getStepAttributeBoolean( id_step, "variables_active" );
       lazyConversionActive = rep.getStepAttributeBoolean( id_step, "lazy_conversion_active" );
       cachedRowMetaActive = rep.getStepAttributeBoolean( id_step, "cached_row_meta_active" );
+      partitionMethod = Const.NVL( rep.getStepAttributeString( id_step, "partition_method" ), PARTITION_METHOD_NONE );
+      partitionColumn = rep.getStepAttributeString( id_step, "partition_column" );
+      partitionCount = rep.getStepAttributeString( id_step, "partition_count" );
+      mergingPartitions = rep.getStepAttributeBoolean( id_step, "merge_partitions" );
+      fetchSize = rep.getStepAttributeString( id_step, "fetch_size" );
 
       String sRowMeta = rep.getStepAttributeString( id_step, RowMeta.XML_META_TAG );
       if ( sRowMeta != null ) {
@@ -380,6 +428,11 @@ public class TableInputMeta extends BaseDatabaseStepMeta implements StepMetaInte
       rep.saveStepAttribute( id_transformation, id_step, "variables_active", variableReplacementActive );
       rep.saveStepAttribute( id_transformation, id_step, "lazy_conversion_active", lazyConversionActive );
       rep.saveStepAttribute( id_transformation, id_step, "cached_row_meta_active", cachedRowMetaActive );
+      rep.saveStepAttribute( id_transformation, id_step, "partition_method", partitionMethod );
+      rep.saveStepAttribute( id_transformation, id_step, "partition_column", partitionColumn );
+      rep.saveStepAttribute( id_transformation, id_step, "partition_count", partitionCount );
+      rep.saveStepAttribute( id_transformation, id_step, "merge_partitions", mergingPartitions );
+      rep.saveStepAttribute( id_transformation, id_step, "fetch_size", fetchSize );
       if ( cachedRowMeta != null ) {
         rep.saveStepAttribute( id_transformation, id_step, RowMeta.XML_META_TAG, cachedRowMeta.getMetaXML() );
       }
@@ -620,6 +673,84 @@ public class TableInputMeta extends BaseDatabaseStepMeta implements StepMetaInte
     this.cachedRowMeta = cachedRowMeta;
   }
 
+  /**
+   * @return the partition method: {@link #PARTITION_METHOD_NONE}, {@link #PARTITION_METHOD_RANGE} or
+   *         {@link #PARTITION_METHOD_MOD}
+   */
+  public String getPartitionMethod() {
+    return partitionMethod;
+  }
+
+  /**
+   * @param partitionMethod the partition method to set
+   */
+  public void setPartitionMethod( String partitionMethod ) {
+    this.partitionMethod = partitionMethod;
+  }
+
+  /**
+   * @return true if the query is split on the partition column
+   */
+  public boolean isPartitionedRead() {
+    return PARTITION_METHOD_RANGE.equals( partitionMethod ) || PARTITION_METHOD_MOD.equals( partitionMethod );
+  }
+
+  /**
+   * @return the column to split the query on
+   */
+  public String getPartitionColumn() {
+    return partitionColumn;
+  }
+
+  /**
+   * @param partitionColumn the column to split the query on
+   */
+  public void setPartitionColumn( String partitionColumn ) {
+    this.partitionColumn = partitionColumn;
+  }
+
+  /**
+   * @return the number of splits, the number of step copies if empty
+   */
+  public String getPartitionCount() {
+    return partitionCount;
+  }
+
+  /**
+   * @param partitionCount the number of splits to set
+   */
+  public void setPartitionCount( String partitionCount ) {
+    this.partitionCount = partitionCount;
+  }
+
+  /**
+   * @return true if the splits of a step copy are read in parallel and merged in the order of the partition column
+   */
+  public boolean isMergingPartitions() {
+    return mergingPartitions;
+  }
+
+  /**
+   * @param mergingPartitions true to merge the splits of a step copy in the order of the partition column
+   */
+  public void setMergingPartitions( boolean mergingPartitions ) {
+    this.mergingPartitions = mergingPartitions;
+  }
+
+  /**
+   * @return the number of rows fetched per round trip
+   */
+  public String getFetchSize() {
+    return fetchSize;
+  }
+
+  /**
+   * @param fetchSize the number of rows fetched per round trip
+   */
+  public void setFetchSize( String fetchSize ) {
+    this.fetchSize = fetchSize;
+  }
+
   /**
    * Returns the Input/Output metadata for this step. The generator step only produces output, does not accept input!
    */
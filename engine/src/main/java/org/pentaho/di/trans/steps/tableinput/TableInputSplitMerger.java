@@ -0,0 +1,270 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.tableinput;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.pentaho.di.core.database.Database;
+import org.pentaho.di.core.database.DatabaseMeta;
+import org.pentaho.di.core.exception.KettleException;
+import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.di.core.row.ValueMetaInterface;
+import org.pentaho.di.core.util.ExecutorUtil;
+import org.pentaho.di.i18n.BaseMessages;
+import org.pentaho.di.trans.step.BaseStep;
+
+/**
+ * Reads a number of splits of a query in parallel, each on its own connection and thread of the engine's executor,
+ * and merges the rows in the order of the key column. Every split query has to be ordered on the key. The row limit
+ * of the step applies to the merged rows.
+ */
+public class TableInputSplitMerger {
+  private static Class<?> PKG = TableInputMeta.class; // for i18n purposes, needed by Translator2!!
+
+  private static final Object[] END_OF_SPLIT = new Object[ 0 ];
+
+  private final BaseStep step;
+  private final DatabaseMeta databaseMeta;
+  private final String keyColumn;
+  private final boolean lazyConversion;
+  private final int queueSize;
+  private final int rowLimit;
+  private final int fetchSize;
+
+  private final List<SplitReader> readers = new ArrayList<>();
+
+  /** The readers that still have rows, with their current row */
+  private final List<SplitReader> active = new ArrayList<>();
+
+  private RowMetaInterface rowMeta;
+  private int keyIndex;
+  private ValueMetaInterface keyMeta;
+  private long rowsReturned;
+
+  private volatile boolean stopped;
+
+  public TableInputSplitMerger( BaseStep step, DatabaseMeta databaseMeta, String keyColumn, boolean lazyConversion,
+    int queueSize, int rowLimit, int fetchSize ) {
+    this.step = step;
+    this.databaseMeta = databaseMeta;
+    this.keyColumn = keyColumn;
+    this.lazyConversion = lazyConversion;
+    this.queueSize = Math.max( 1, queueSize );
+    this.rowLimit = rowLimit;
+    this.fetchSize = fetchSize;
+  }
+
+  /**
+   * Adds a split to read, call before {@link #start()}.
+   */
+  public void addSplit( int split, String sql, RowMetaInterface parametersMeta, Object[] parameters ) {
+    readers.add( new SplitReader( split, sql, parametersMeta, parameters ) );
+  }
+
+  /**
+   * Starts reading all the splits and waits for the first row of every split.
+   */
+  public void start() throws KettleException {
+    for ( SplitReader reader : readers ) {
+      ExecutorUtil.getExecutor().submit( reader );
+    }
+    for ( SplitReader reader : readers ) {
+      if ( reader.advance() ) {
+        active.add( reader );
+      }
+    }
+  }
+
+  /**
+   * @return the metadata of the merged rows, null if none of the splits returned metadata
+   */
+  public RowMetaInterface getRowMeta() {
+    return rowMeta;
+  }
+
+  /**
+   * @return the next row in key order, null if all splits are read or the row limit is reached
+   */
+  public Object[] getRow() throws KettleException {
+    if ( active.isEmpty() || ( rowLimit > 0 && rowsReturned >= rowLimit ) ) {
+      return null;
+    }
+    // The number of splits per step copy is small, a scan of the current rows is all it takes
+    //
+    SplitReader lowest = active.get( 0 );
+    for ( int i = 1; i < active.size(); i++ ) {
+      SplitReader reader = active.get( i );
+      if ( keyMeta.compare( reader.row[ keyIndex ], lowest.row[ keyIndex ] ) < 0 ) {
+        lowest = reader;
+      }
+    }
+    Object[] row = lowest.row;
+    rowsReturned++;
+    if ( !lowest.advance() ) {
+      active.remove( lowest );
+    }
+    return row;
+  }
+
+  /**
+   * Cancels the running queries and stops the readers. A reader that waits for room in its queue sees the stop flag
+   * within the polling interval, so the pooled threads are not interrupted.
+   */
+  public void stop() {
+    stopped = true;
+    for ( SplitReader reader : readers ) {
+      Database db = reader.db;
+      if ( db != null ) {
+        try {
+          db.cancelQuery();
+        } catch ( Exception e ) {
+          step.logDebug( e.getMessage() );
+        }
+      }
+    }
+  }
+
+  /**
+   * Stops reading and waits for the readers to close their connections.
+   */
+  public void dispose() {
+    stop();
+    for ( SplitReader reader : readers ) {
+      try {
+        reader.finished.await();
+      } catch ( InterruptedException e ) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+
+  private synchronized void setRowMeta( RowMetaInterface splitRowMeta ) throws KettleException {
+    if ( rowMeta == null ) {
+      int index = splitRowMeta.indexOfValue( keyColumn );
+      if ( index < 0 ) {
+        throw new KettleException( BaseMessages.getString( PKG, "TableInput.Exception.PartitionColumnNotFound",
+          keyColumn ) );
+      }
+      for ( ValueMetaInterface valueMeta : splitRowMeta.getValueMetaList() ) {
+        valueMeta.setOrigin( step.getStepname() );
+      }
+      rowMeta = splitRowMeta;
+      keyIndex = index;
+      keyMeta = splitRowMeta.getValueMeta( index );
+    }
+  }
+
+  private class SplitReader implements Runnable {
+    private final int split;
+    private final String sql;
+    private final RowMetaInterface parametersMeta;
+    private final Object[] parameters;
+    private final BlockingQueue<Object[]> queue = new ArrayBlockingQueue<>( queueSize );
+    private final CountDownLatch finished = new CountDownLatch( 1 );
+
+    private volatile Database db;
+    private volatile Exception error;
+
+    /** The current row, used by the merging thread only */
+    private Object[] row;
+
+    SplitReader( int split, String sql, RowMetaInterface parametersMeta, Object[] parameters ) {
+      this.split = split;
+      this.sql = sql;
+      this.parametersMeta = parametersMeta;
+      this.parameters = parameters;
+    }
+
+    @Override
+    public void run() {
+      Database database = new Database( step, databaseMeta );
+      database.shareVariablesWith( step );
+      // No split has to return more rows than the merged rows are limited to
+      database.setQueryLimit( rowLimit );
+      database.setFetchSize( fetchSize );
+      db = database;
+      try {
+        database.connect( step.getPartitionID() );
+        ResultSet rs;
+        if ( parametersMeta.isEmpty() ) {
+          rs = database.openQuery( sql, null, null, ResultSet.FETCH_FORWARD, lazyConversion );
+        } else {
+          rs = database.openQuery( sql, parametersMeta, parameters, ResultSet.FETCH_FORWARD, lazyConversion );
+        }
+        setRowMeta( database.getReturnRowMeta() );
+
+        Object[] r = database.getRow( rs, lazyConversion );
+        while ( r != null && !stopped ) {
+          put( r );
+          r = database.getRow( rs, lazyConversion );
+        }
+        database.closeQuery( rs );
+      } catch ( Exception e ) {
+        if ( !stopped ) {
+          error = e;
+        }
+      } finally {
+        database.close();
+        try {
+          put( END_OF_SPLIT );
+        } catch ( InterruptedException e ) {
+          Thread.currentThread().interrupt();
+        } finally {
+          finished.countDown();
+        }
+      }
+    }
+
+    private void put( Object[] r ) throws InterruptedException {
+      while ( !stopped && !queue.offer( r, 100, TimeUnit.MILLISECONDS ) ) {
+        // wait for the merging thread to catch up
+      }
+    }
+
+    /**
+     * Moves to the next row of the split, called by the merging thread.
+     *
+     * @return false if the split has no more rows
+     */
+    boolean advance() throws KettleException {
+      try {
+        Object[] next = null;
+        while ( next == null && !stopped ) {
+          next = queue.poll( 100, TimeUnit.MILLISECONDS );
+        }
+        if ( next == null || next == END_OF_SPLIT ) {
+          if ( error != null ) {
+            throw new KettleException( BaseMessages.getString( PKG, "TableInput.Exception.ErrorReadingSplit",
+              String.valueOf( split ) ), error );
+          }
+          row = null;
+          return false;
+        }
+        row = next;
+        step.incrementLinesInput();
+        return true;
+      } catch ( InterruptedException e ) {
+        Thread.currentThread().interrupt();
+        throw new KettleException( e );
+      }
+    }
+  }
+}
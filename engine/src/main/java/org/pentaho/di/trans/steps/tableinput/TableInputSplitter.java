@@ -0,0 +1,218 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.tableinput;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.util.Date;
+
+import org.pentaho.di.core.Const;
+import org.pentaho.di.core.database.DatabaseMeta;
+import org.pentaho.di.core.database.MSSQLServerDatabaseMeta;
+import org.pentaho.di.core.exception.KettleException;
+import org.pentaho.di.core.row.RowDataUtil;
+import org.pentaho.di.core.row.RowMeta;
+import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.di.core.row.ValueMetaInterface;
+import org.pentaho.di.i18n.BaseMessages;
+
+/**
+ * Splits the query of a Table Input step in a number of disjunct queries on a key column, so that the splits can be
+ * read in parallel on separate connections.
+ * <p>
+ * With the modulo method split <i>i</i> reads the rows for which <code>ABS(MOD(key, n)) = i</code>, the same
+ * assignment as the "Remainder of division" partitioner, so that the rows of a split match the partition of a step
+ * copy that is partitioned on the same column. With the range method the range between the minimum and maximum key is
+ * cut in <i>n</i> equal parts. Rows with a null key are always read by the first split.
+ */
+public class TableInputSplitter {
+  private static Class<?> PKG = TableInputMeta.class; // for i18n purposes, needed by Translator2!!
+
+  static final String SPLIT_ALIAS = "kettle_split";
+
+  private final DatabaseMeta databaseMeta;
+  private final String method;
+  private final String column;
+  private final int splitCount;
+
+  /** The bound value type and the n-1 boundaries between the ranges, only for the range method **/
+  private ValueMetaInterface boundaryMeta;
+  private Object[] boundaries;
+
+  public TableInputSplitter( DatabaseMeta databaseMeta, String method, String column, int splitCount ) {
+    this.databaseMeta = databaseMeta;
+    this.method = method;
+    this.column = column;
+    this.splitCount = Math.max( 1, splitCount );
+  }
+
+  public int getSplitCount() {
+    return splitCount;
+  }
+
+  public boolean isRangeMethod() {
+    return TableInputMeta.PARTITION_METHOD_RANGE.equals( method );
+  }
+
+  /**
+   * @return the query that returns the minimum and maximum key of the rows the original query returns
+   */
+  public String getRangeSQL( String sql ) {
+    String quotedColumn = databaseMeta.quoteField( column );
+    return "SELECT MIN(" + quotedColumn + "), MAX(" + quotedColumn + ") FROM ( " + stripSQL( sql ) + " ) "
+      + SPLIT_ALIAS;
+  }
+
+  /**
+   * Calculates the boundaries of the ranges from the lowest and highest key.
+   *
+   * @param valueMeta the type of the key
+   * @param min       the lowest key, null if there are no rows
+   * @param max       the highest key, null if there are no rows
+   */
+  public void setRange( ValueMetaInterface valueMeta, Object min, Object max ) throws KettleException {
+    boundaryMeta = valueMeta.clone();
+    boundaryMeta.setStorageType( ValueMetaInterface.STORAGE_TYPE_NORMAL );
+    if ( min == null || max == null ) {
+      boundaries = null; // nothing to split: the first split reads it all
+      return;
+    }
+
+    boundaries = new Object[ splitCount - 1 ];
+    switch ( valueMeta.getType() ) {
+      case ValueMetaInterface.TYPE_INTEGER:
+        BigInteger lowInteger = BigInteger.valueOf( valueMeta.getInteger( min ) );
+        BigInteger widthInteger = BigInteger.valueOf( valueMeta.getInteger( max ) ).subtract( lowInteger )
+          .add( BigInteger.ONE );
+        for ( int i = 1; i < splitCount; i++ ) {
+          boundaries[ i - 1 ] = lowInteger.add( widthInteger.multiply( BigInteger.valueOf( i ) )
+            .divide( BigInteger.valueOf( splitCount ) ) ).longValue();
+        }
+        break;
+      case ValueMetaInterface.TYPE_NUMBER:
+        double lowNumber = valueMeta.getNumber( min );
+        double widthNumber = valueMeta.getNumber( max ) - lowNumber;
+        for ( int i = 1; i < splitCount; i++ ) {
+          boundaries[ i - 1 ] = lowNumber + widthNumber * i / splitCount;
+        }
+        break;
+      case ValueMetaInterface.TYPE_BIGNUMBER:
+        BigDecimal lowBig = valueMeta.getBigNumber( min );
+        BigDecimal widthBig = valueMeta.getBigNumber( max ).subtract( lowBig );
+        for ( int i = 1; i < splitCount; i++ ) {
+          boundaries[ i - 1 ] = lowBig.add( widthBig.multiply( BigDecimal.valueOf( i ) )
+            .divide( BigDecimal.valueOf( splitCount ), Math.max( lowBig.scale(), 10 ), RoundingMode.FLOOR ) );
+        }
+        break;
+      case ValueMetaInterface.TYPE_DATE:
+      case ValueMetaInterface.TYPE_TIMESTAMP:
+        long lowTime = valueMeta.getDate( min ).getTime();
+        long widthTime = valueMeta.getDate( max ).getTime() - lowTime + 1;
+        boolean timestamp = min instanceof Timestamp;
+        for ( int i = 1; i < splitCount; i++ ) {
+          long time = lowTime + BigInteger.valueOf( widthTime ).multiply( BigInteger.valueOf( i ) )
+            .divide( BigInteger.valueOf( splitCount ) ).longValue();
+          boundaries[ i - 1 ] = timestamp ? new Timestamp( time ) : new Date( time );
+        }
+        break;
+      default:
+        throw new KettleException( BaseMessages.getString( PKG, "TableInput.Exception.RangeColumnType", column,
+          valueMeta.getTypeDesc() ) );
+    }
+  }
+
+  /**
+   * @param sql     the original query
+   * @param split   the split number, 0 to n-1
+   * @param ordered true if the rows need to be ordered on the key
+   * @return the query for the split, parameters of the original query come first
+   */
+  public String getSplitSQL( String sql, int split, boolean ordered ) {
+    String quotedColumn = databaseMeta.quoteField( column );
+    StringBuilder splitSql = new StringBuilder( sql.length() + 100 );
+    splitSql.append( "SELECT * FROM ( " ).append( stripSQL( sql ) ).append( " ) " ).append( SPLIT_ALIAS );
+    splitSql.append( Const.CR ).append( "WHERE " ).append( getPredicate( quotedColumn, split ) );
+    if ( ordered ) {
+      splitSql.append( Const.CR ).append( "ORDER BY " ).append( quotedColumn );
+    }
+    return splitSql.toString();
+  }
+
+  private String getPredicate( String quotedColumn, int split ) {
+    String nulls = split == 0 ? quotedColumn + " IS NULL OR " : "";
+    if ( !isRangeMethod() ) {
+      String modulo = databaseMeta.getDatabaseInterface() instanceof MSSQLServerDatabaseMeta
+        ? "( " + quotedColumn + " % " + splitCount + " )"
+        : "MOD( " + quotedColumn + ", " + splitCount + " )";
+      return "( " + nulls + "ABS( " + modulo + " ) = " + split + " )";
+    }
+    if ( boundaries == null ) {
+      return split == 0 ? "1 = 1" : "1 = 0";
+    }
+    if ( splitCount == 1 ) {
+      return "1 = 1";
+    }
+    if ( split == 0 ) {
+      return "( " + nulls + quotedColumn + " < ? )";
+    }
+    if ( split == splitCount - 1 ) {
+      return "( " + quotedColumn + " >= ? )";
+    }
+    return "( " + quotedColumn + " >= ? AND " + quotedColumn + " < ? )";
+  }
+
+  /**
+   * @return the metadata of the parameters of the split query, added after the parameters of the original query
+   */
+  public RowMetaInterface getSplitParametersMeta( int split ) {
+    RowMetaInterface parametersMeta = new RowMeta();
+    int count = getSplitParameterCount( split );
+    for ( int i = 0; i < count; i++ ) {
+      parametersMeta.addValueMeta( boundaryMeta.clone() );
+    }
+    return parametersMeta;
+  }
+
+  public Object[] getSplitParameters( int split ) {
+    int count = getSplitParameterCount( split );
+    Object[] parameters = RowDataUtil.allocateRowData( count );
+    if ( count == 1 ) {
+      parameters[ 0 ] = split == 0 ? boundaries[ 0 ] : boundaries[ split - 1 ];
+    } else if ( count == 2 ) {
+      parameters[ 0 ] = boundaries[ split - 1 ];
+      parameters[ 1 ] = boundaries[ split ];
+    }
+    return parameters;
+  }
+
+  private int getSplitParameterCount( int split ) {
+    if ( !isRangeMethod() || boundaries == null || splitCount == 1 ) {
+      return 0;
+    }
+    return split == 0 || split == splitCount - 1 ? 1 : 2;
+  }
+
+  /**
+   * Removes trailing whitespace and semicolons so that the query can be used as a sub-query.
+   */
+  static String stripSQL( String sql ) {
+    int end = sql.length();
+    while ( end > 0 && ( Character.isWhitespace( sql.charAt( end - 1 ) ) || sql.charAt( end - 1 ) == ';' ) ) {
+      end--;
+    }
+    return sql.substring( 0, end );
+  }
+}
@@ -16,10 +16,11 @@ package org.pentaho.di.trans.steps.textfileoutput;
 import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.io.UnsupportedEncodingException;
 import java.io.Writer;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.regex.Matcher;
@@ -37,6 +38,8 @@ import org.pentaho.di.core.WriterOutputStream;
 import org.pentaho.di.core.compress.CompressionOutputStream;
 import org.pentaho.di.core.compress.CompressionProvider;
 import org.pentaho.di.core.compress.CompressionProviderFactory;
+import org.pentaho.di.core.compress.gzip.GZIPCompressionProvider;
+import org.pentaho.di.core.compress.gzip.ParallelGZIPCompressionOutputStream;
 import org.pentaho.di.core.compress.zip.ZIPCompressionProvider;
 import org.pentaho.di.core.exception.KettleException;
 import org.pentaho.di.core.exception.KettleFileException;
@@ -72,6 +75,11 @@ public class TextFileOutput extends BaseStep implements StepInterface {
   private static final boolean COMPATIBILITY_APPEND_NO_HEADER = "Y".equals(
           Const.NVL( System.getProperty( Const.KETTLE_COMPATIBILITY_TEXT_FILE_OUTPUT_APPEND_NO_HEADER ), "N" ) );
 
+  private static final int DEFAULT_BUFFER_SIZE = 128 * 1024;
+
+  /** The charsets used to encode the fields, by encoding name */
+  private final Map<String, Charset> charsets = new HashMap<>();
+
   public TextFileOutputMeta meta;
 
   public TextFileOutputData data;
@@ -115,6 +123,41 @@ public class TextFileOutput extends BaseStep implements StepInterface {
     return compressionProvider;
   }
 
+  /**
+   * GZIP output is compressed in blocks on a number of threads when more than one compression thread is configured,
+   * all other compression types are applied on the step thread.
+   */
+  private CompressionOutputStream createCompressionOutputStream( CompressionProvider compressionProvider,
+    OutputStream fileOutputStream ) throws IOException {
+    if ( meta.getCompressionThreads() > 1 && compressionProvider instanceof GZIPCompressionProvider ) {
+      if ( log.isDetailed() ) {
+        logDetailed( "Compressing the output on " + meta.getCompressionThreads() + " threads" );
+      }
+      return new ParallelGZIPCompressionOutputStream( fileOutputStream, compressionProvider,
+        meta.getCompressionThreads(), ParallelGZIPCompressionOutputStream.DEFAULT_BLOCK_SIZE );
+    }
+    return compressionProvider.createOutputStream( fileOutputStream );
+  }
+
+  private BufferedOutputStream createBufferedOutputStream( OutputStream outputStream ) {
+    int bufferSize = meta.getBufferSize() > 0 ? meta.getBufferSize() : DEFAULT_BUFFER_SIZE;
+    return new BufferedOutputStream( outputStream, bufferSize );
+  }
+
+  private Charset getCharset( String encoding ) throws KettleValueException {
+    Charset charset = charsets.get( encoding );
+    if ( charset == null ) {
+      try {
+        charset = Charset.forName( encoding );
+      } catch ( IllegalArgumentException e ) {
+        throw new KettleValueException( "Unable to convert String to Binary with specified string encoding ["
+          + encoding + "]", e );
+      }
+      charsets.put( encoding, charset );
+    }
+    return charset;
+  }
+
   private void initServletStreamWriter(  ) throws KettleException {
     data.writer = null;
     try {
@@ -184,7 +227,8 @@ public class TextFileOutput extends BaseStep implements StepInterface {
 
           OutputStream fileOutputStream =
             getOutputStream( filename, getTransMeta(), !isZipFile && appendToExistingFile );
-          CompressionOutputStream compressionOutputStream = compressionProvider.createOutputStream( fileOutputStream );
+          CompressionOutputStream compressionOutputStream =
+            createCompressionOutputStream( compressionProvider, fileOutputStream );
 
           // The compression output stream may also archive entries. For this we create the filename
           // (with appropriate extension) and add it as an entry to the output stream. For providers
@@ -199,7 +243,7 @@ public class TextFileOutput extends BaseStep implements StepInterface {
             }
           }
 
-          BufferedOutputStream bufferedOutputStream = new BufferedOutputStream( compressionOutputStream, 5000 );
+          BufferedOutputStream bufferedOutputStream = createBufferedOutputStream( compressionOutputStream );
 
           fileStreams = data.new FileStream( fileOutputStream, compressionOutputStream, bufferedOutputStream );
 
@@ -217,9 +261,10 @@ public class TextFileOutput extends BaseStep implements StepInterface {
 
           OutputStream fileOutputStream = getOutputStream( filename, getTransMeta(), true );
           CompressionProvider compressionProvider = getCompressionProvider();
-          CompressionOutputStream compressionOutputStream = compressionProvider.createOutputStream( fileOutputStream );
+          CompressionOutputStream compressionOutputStream =
+            createCompressionOutputStream( compressionProvider, fileOutputStream );
           compressionOutputStream.addEntry( filename, environmentSubstitute( meta.getExtension() ) );
-          BufferedOutputStream bufferedOutputStream = new BufferedOutputStream( compressionOutputStream, 5000 );
+          BufferedOutputStream bufferedOutputStream = createBufferedOutputStream( compressionOutputStream );
 
           fileStreams.setFileOutputStream( fileOutputStream );
           fileStreams.setCompressedOutputStream( compressionOutputStream );
@@ -540,42 +585,23 @@ public class TextFileOutput extends BaseStep implements StepInterface {
       if ( Utils.isEmpty( v.getStringEncoding() ) ) {
         return tmp.getBytes();
       } else {
-        try {
-          return tmp.getBytes( v.getStringEncoding() );
-        } catch ( UnsupportedEncodingException e ) {
-          throw new KettleValueException( "Unable to convert String to Binary with specified string encoding ["
-              + v.getStringEncoding() + "]", e );
-        }
+        return tmp.getBytes( getCharset( v.getStringEncoding() ) );
       }
     } else {
       byte[] text;
-      if ( Utils.isEmpty( meta.getEncoding() ) ) {
+      Charset charset = Utils.isEmpty( meta.getEncoding() ) ? null : getCharset( meta.getEncoding() );
+      if ( charset == null ) {
         text = string.getBytes();
       } else {
-        try {
-          text = string.getBytes( meta.getEncoding() );
-        } catch ( UnsupportedEncodingException e ) {
-          throw new KettleValueException( "Unable to convert String to Binary with specified string encoding ["
-              + v.getStringEncoding() + "]", e );
-        }
+        text = string.getBytes( charset );
       }
       if ( length > string.length() ) {
         // we need to pad this
 
         // Also for PDI-170: not all encoding use single characters, so we need to cope
         // with this.
-        int size = 0;
-        byte[] filler = null;
-        try {
-          if ( !Utils.isEmpty( meta.getEncoding() ) ) {
-            filler = " ".getBytes( meta.getEncoding() );
-          } else {
-            filler = " ".getBytes();
-          }
-          size = text.length + filler.length * ( length - string.length() );
-        } catch ( UnsupportedEncodingException uee ) {
-          throw new KettleValueException( uee );
-        }
+        byte[] filler = charset == null ? " ".getBytes() : " ".getBytes( charset );
+        int size = text.length + filler.length * ( length - string.length() );
         byte[] bytes = new byte[size];
         System.arraycopy( text, 0, bytes, 0, text.length );
         if ( filler.length == 1 ) {
@@ -599,7 +625,7 @@ public class TextFileOutput extends BaseStep implements StepInterface {
   private byte[] getBinaryString( String string ) throws KettleStepException {
     try {
       if ( data.hasEncoding ) {
-        return string.getBytes( meta.getEncoding() );
+        return string.getBytes( getCharset( meta.getEncoding() ) );
       } else {
         return string.getBytes();
       }
@@ -65,6 +65,8 @@ public class TextFileOutputMeta extends BaseFileOutputMeta implements StepMetaIn
   private static final String CONST_STRING_ADD_TO_RESULT_FILENAMES = "add_to_result_filenames";
   private static final String CONST_STRING_APPEND = "append";
   private static final String CONST_STRING_COMPRESSION = "compression";
+  private static final String CONST_STRING_COMPRESSION_THREADS = "compression_threads";
+  private static final String CONST_STRING_BUFFER_SIZE = "buffer_size";
   private static final String CONST_STRING_CREATE_PARENT_FOLDER = "create_parent_folder";
   private static final String CONST_STRING_CURRENCY = "currency";
   private static final String CONST_STRING_DATE_TIME_FORMAT = "date_time_format";
@@ -234,6 +236,14 @@ public class TextFileOutputMeta extends BaseFileOutputMeta implements StepMetaIn
   @Injection( name = "DO_NOT_CREATE_FILE_AT_STARTUP" )
   private boolean doNotOpenNewFileInit;
 
+  /** The number of threads that compress blocks of the output in parallel, 0 or 1 to compress on the step thread */
+  @Injection( name = "COMPRESSION_THREADS" )
+  private int compressionThreads;
+
+  /** The size in bytes of the output buffer, 0 for the default */
+  @Injection( name = "BUFFER_SIZE" )
+  private int bufferSize;
+
   protected ValueMetaInterface[] metaWithFieldOptions = null;
 
   public TextFileOutputMeta() {
@@ -423,6 +433,37 @@ public class TextFileOutputMeta extends BaseFileOutputMeta implements StepMetaIn
     this.padded = padded;
   }
 
+  /**
+   * @return the number of threads that compress blocks of the output in parallel, 0 or 1 to compress on the step
+   *         thread
+   */
+  public int getCompressionThreads() {
+    return compressionThreads;
+  }
+
+  /**
+   * @param compressionThreads
+   *          the number of threads that compress blocks of the output in parallel
+   */
+  public void setCompressionThreads( int compressionThreads ) {
+    this.compressionThreads = compressionThreads;
+  }
+
+  /**
+   * @return the size in bytes of the output buffer, 0 for the default
+   */
+  public int getBufferSize() {
+    return bufferSize;
+  }
+
+  /**
+   * @param bufferSize
+   *          the size in bytes of the output buffer, 0 for the default
+   */
+  public void setBufferSize( int bufferSize ) {
+    this.bufferSize = bufferSize;
+  }
+
   /**
    * @return Returns the fastDump.
    */
@@ -669,6 +710,8 @@ public class TextFileOutputMeta extends BaseFileOutputMeta implements StepMetaIn
       footerEnabled = "Y".equalsIgnoreCase( XMLHandler.getTagValue( stepnode, CONST_STRING_FOOTER ) );
       fileFormat = XMLHandler.getTagValue( stepnode, CONST_STRING_FORMAT );
       setFileCompression( XMLHandler.getTagValue( stepnode, CONST_STRING_COMPRESSION ) );
+      compressionThreads = Const.toInt( XMLHandler.getTagValue( stepnode, CONST_STRING_COMPRESSION_THREADS ), 0 );
+      bufferSize = Const.toInt( XMLHandler.getTagValue( stepnode, CONST_STRING_BUFFER_SIZE ), 0 );
       if ( getFileCompression() == null ) {
         if ( "Y".equalsIgnoreCase( XMLHandler.getTagValue( stepnode, CONST_STRING_FILE, CONST_STRING_ZIPPED ) ) ) {
           setFileCompression(  fileCompressionTypeCodes[FILE_COMPRESSION_TYPE_ZIP] );
@@ -778,6 +821,8 @@ public class TextFileOutputMeta extends BaseFileOutputMeta implements StepMetaIn
     timeInFilename = false;
     padded = false;
     fastDump = false;
+    compressionThreads = 0;
+    bufferSize = 0;
     addToResultFilenames = true;
     fileAppended = false;
 
@@ -812,6 +857,8 @@ public class TextFileOutputMeta extends BaseFileOutputMeta implements StepMetaIn
     retval.append( "    " ).append( XMLHandler.addTagValue( CONST_STRING_FOOTER, footerEnabled ) );
     retval.append( "    " ).append( XMLHandler.addTagValue( CONST_STRING_FORMAT, fileFormat ) );
     retval.append( "    " ).append( XMLHandler.addTagValue( CONST_STRING_COMPRESSION, getFileCompression() ) );
+    retval.append( "    " ).append( XMLHandler.addTagValue( CONST_STRING_COMPRESSION_THREADS, compressionThreads ) );
+    retval.append( "    " ).append( XMLHandler.addTagValue( CONST_STRING_BUFFER_SIZE, bufferSize ) );
     retval.append( "    " ).append( XMLHandler.addTagValue( CONST_STRING_ENCODING, encoding ) );
     retval.append( "    " ).append( XMLHandler.addTagValue( CONST_STRING_ENDED_LINE, endedLine ) );
     retval.append( "    " ).append( XMLHandler.addTagValue( CONST_STRING_FILE_NAME_IN_FIELD, fileNameInField ) );
@@ -879,6 +926,8 @@ public class TextFileOutputMeta extends BaseFileOutputMeta implements StepMetaIn
       footerEnabled = rep.getStepAttributeBoolean( id_step, CONST_STRING_FOOTER );
       fileFormat = rep.getStepAttributeString( id_step, CONST_STRING_FORMAT );
       setFileCompression( rep.getStepAttributeString( id_step, CONST_STRING_COMPRESSION ) );
+      compressionThreads = (int) rep.getStepAttributeInteger( id_step, CONST_STRING_COMPRESSION_THREADS );
+      bufferSize = (int) rep.getStepAttributeInteger( id_step, CONST_STRING_BUFFER_SIZE );
       fileNameInField = rep.getStepAttributeBoolean( id_step, CONST_STRING_FILE_NAME_IN_FIELD );
       fileNameField = rep.getStepAttributeString( id_step, CONST_STRING_FILE_NAME_FIELD );
       if ( getFileCompression() == null ) {
@@ -959,6 +1008,8 @@ public class TextFileOutputMeta extends BaseFileOutputMeta implements StepMetaIn
       rep.saveStepAttribute( id_transformation, id_step, CONST_STRING_FOOTER, footerEnabled );
       rep.saveStepAttribute( id_transformation, id_step, CONST_STRING_FORMAT, fileFormat );
       rep.saveStepAttribute( id_transformation, id_step, CONST_STRING_COMPRESSION, getFileCompression() );
+      rep.saveStepAttribute( id_transformation, id_step, CONST_STRING_COMPRESSION_THREADS, compressionThreads );
+      rep.saveStepAttribute( id_transformation, id_step, CONST_STRING_BUFFER_SIZE, bufferSize );
       rep.saveStepAttribute( id_transformation, id_step, CONST_STRING_ENCODING, encoding );
       saveSourceRep( rep, id_transformation, id_step, fileName );
       rep.saveStepAttribute( id_transformation, id_step, CONST_STRING_FILE_SERVLET_OUTPUT, servletOutput );
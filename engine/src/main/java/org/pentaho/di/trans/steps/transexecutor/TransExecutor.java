@@ -33,16 +33,19 @@ import org.pentaho.di.core.row.RowMeta;
 import org.pentaho.di.core.util.Utils;
 import org.pentaho.di.i18n.BaseMessages;
 import org.pentaho.di.job.DelegationListener;
+import org.pentaho.di.trans.SingleThreadedTransExecutor;
 import org.pentaho.di.trans.StepWithMappingMeta;
 import org.pentaho.di.trans.Trans;
 import org.pentaho.di.trans.TransExecutionConfiguration;
 import org.pentaho.di.trans.TransMeta;
+import org.pentaho.di.trans.TransMeta.TransformationType;
 import org.pentaho.di.trans.step.BaseStep;
 import org.pentaho.di.trans.step.StepDataInterface;
 import org.pentaho.di.trans.step.StepInterface;
 import org.pentaho.di.trans.step.StepMeta;
 import org.pentaho.di.trans.step.StepMetaInterface;
 import org.pentaho.di.trans.steps.TransStepUtil;
+import org.pentaho.di.trans.steps.mappinginput.MappingInputData;
 
 /**
  * Execute a transformation for every input row, set parameters.
@@ -82,6 +85,7 @@ public class TransExecutor extends BaseStep implements StepInterface {
 
       if ( row == null ) {
         executeTransformation( null );
+        disposeReusedTransformation();
         setOutputDone();
         return false;
       }
@@ -173,6 +177,8 @@ public class TransExecutor extends BaseStep implements StepInterface {
       transExecutorData.setExecutorStepOutputRowSet( findOutputRowSet( meta.getExecutorsOutputStepMeta().getName() ) );
     }
 
+    transExecutorData.reuseTransformation = meta.isReuseTransformation() && canReuseTransformation();
+
     // Remember which column to group on, if any...
     transExecutorData.groupFieldIndex = -1;
     if ( !Utils.isEmpty( transExecutorData.groupField ) ) {
@@ -197,6 +203,11 @@ public class TransExecutor extends BaseStep implements StepInterface {
       discardLogLines( transExecutorData );
     }
 
+    if ( transExecutorData.reuseTransformation ) {
+      executeReusedTransformation();
+      return;
+    }
+
     Trans executorTrans = createInternalTrans();
     transExecutorData.setExecutorTrans( executorTrans );
     if ( incomingFieldValues != null ) {
@@ -251,6 +262,177 @@ public class TransExecutor extends BaseStep implements StepInterface {
     transExecutorData.groupBuffer.clear();
   }
 
+  /**
+   * A transformation can be reused for all the groups when it receives the rows in a Mapping Input step, runs in the
+   * single threaded engine and gets the same parameter values for every group.
+   */
+  @VisibleForTesting
+  boolean canReuseTransformation() {
+    int mappingInputs = 0;
+    for ( StepMeta stepMeta : getData().getExecutorTransMeta().getSteps() ) {
+      if ( stepMeta.isMappingInput() ) {
+        mappingInputs++;
+      }
+      if ( !Arrays.asList( stepMeta.getStepMetaInterface().getSupportedTransformationTypes() )
+        .contains( TransformationType.SingleThreaded ) ) {
+        logBasic( BaseMessages.getString( PKG, "TransExecutor.Log.NotReusingTransformation.NotSingleThreaded",
+          stepMeta.getName() ) );
+        return false;
+      }
+    }
+    if ( mappingInputs != 1 ) {
+      logBasic( BaseMessages.getString( PKG, "TransExecutor.Log.NotReusingTransformation.NoMappingInput" ) );
+      return false;
+    }
+    String[] fields = meta.getParameters().getField();
+    for ( int i = 0; fields != null && i < fields.length; i++ ) {
+      if ( !Utils.isEmpty( Const.trim( fields[ i ] ) ) ) {
+        logBasic( BaseMessages.getString( PKG, "TransExecutor.Log.NotReusingTransformation.ParameterFromField",
+          meta.getParameters().getVariable()[ i ] ) );
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Prepares the transformation once, the single threaded engine then runs it for every group of rows that is
+   * injected in the Mapping Input step. The steps stay initialized and the connections open between the groups.
+   */
+  @VisibleForTesting
+  void prepareReusedTransformation() throws KettleException {
+    TransExecutorData transExecutorData = getData();
+    TransMeta executorTransMeta = transExecutorData.getExecutorTransMeta();
+    executorTransMeta.setTransformationType( TransformationType.SingleThreaded );
+    executorTransMeta.setUsingThreadPriorityManagment( false );
+
+    Trans executorTrans = createInternalTrans();
+    transExecutorData.setExecutorTrans( executorTrans );
+    // None of the parameters comes from a field, they are the same for every group
+    passParametersToTrans( null );
+
+    // keep track for drill down in Spoon...
+    getTrans().addActiveSubTransformation( getStepname(), executorTrans );
+
+    executorTrans.prepareExecution( getTrans().getArguments() );
+
+    // The rows come from us, not from a parent step
+    StepMeta injectStepMeta = null;
+    for ( StepMeta stepMeta : executorTransMeta.getSteps() ) {
+      if ( stepMeta.isMappingInput() ) {
+        injectStepMeta = stepMeta;
+      }
+    }
+    MappingInputData mappingInputData =
+      (MappingInputData) executorTrans.findDataInterface( injectStepMeta.getName() );
+    mappingInputData.sourceSteps = new StepInterface[ 0 ];
+    mappingInputData.valueRenames = new ArrayList<>();
+    transExecutorData.rowProducer = executorTrans.addRowProducer( injectStepMeta.getName(), 0 );
+
+    executorTrans.startThreads();
+
+    for ( DelegationListener delegationListener : getTrans().getDelegationListeners() ) {
+      delegationListener.transformationDelegationStarted( executorTrans, new TransExecutionConfiguration() );
+    }
+
+    transExecutorData.executor = createSingleThreadedExecutor( executorTrans );
+    if ( !transExecutorData.executor.init() ) {
+      throw new KettleException( BaseMessages.getString(
+        PKG, "TransExecutor.Exception.UnableToInitReusedTransformation" ) );
+    }
+    transExecutorData.previousTotals = new Result();
+  }
+
+  @VisibleForTesting
+  SingleThreadedTransExecutor createSingleThreadedExecutor( Trans executorTrans ) {
+    return new SingleThreadedTransExecutor( executorTrans );
+  }
+
+  private void executeReusedTransformation() throws KettleException {
+    TransExecutorData transExecutorData = getData();
+    Result result;
+    try {
+      if ( transExecutorData.executor == null ) {
+        prepareReusedTransformation();
+      }
+      for ( RowMetaAndData row : transExecutorData.groupBuffer ) {
+        transExecutorData.rowProducer.putRow( row.getRowMeta(), row.getData() );
+      }
+      transExecutorData.executor.oneIteration();
+      result = getGroupResult( transExecutorData.getExecutorTrans() );
+    } catch ( KettleException e ) {
+      log.logError( "An error occurred executing the transformation: ", e );
+      result = new Result();
+      result.setResult( false );
+      result.setNrErrors( 1 );
+    }
+
+    if ( result.isSafeStop() ) {
+      getTrans().safeStop();
+    }
+
+    collectTransResults( result );
+    collectExecutionResults( result );
+    collectExecutionResultFiles( result );
+
+    transExecutorData.groupBuffer.clear();
+
+    if ( result.getNrErrors() > 0 ) {
+      // Don't feed the next group to a transformation that failed, the next group gets a fresh one
+      disposeReusedTransformation();
+    }
+  }
+
+  /**
+   * The reused transformation keeps counting, the result of a group is the difference with the totals after the
+   * previous group. The result rows are taken out of the transformation, so the next group starts without any.
+   */
+  @VisibleForTesting
+  Result getGroupResult( Trans executorTrans ) {
+    TransExecutorData transExecutorData = getData();
+    Result totals = executorTrans.getResult();
+    Result previous = transExecutorData.previousTotals;
+
+    Result result = new Result();
+    result.setNrErrors( totals.getNrErrors() );
+    result.setResult( totals.getNrErrors() == 0 );
+    result.setNrLinesRead( totals.getNrLinesRead() - previous.getNrLinesRead() );
+    result.setNrLinesWritten( totals.getNrLinesWritten() - previous.getNrLinesWritten() );
+    result.setNrLinesInput( totals.getNrLinesInput() - previous.getNrLinesInput() );
+    result.setNrLinesOutput( totals.getNrLinesOutput() - previous.getNrLinesOutput() );
+    result.setNrLinesUpdated( totals.getNrLinesUpdated() - previous.getNrLinesUpdated() );
+    result.setNrLinesRejected( totals.getNrLinesRejected() - previous.getNrLinesRejected() );
+    result.setSafeStop( totals.isSafeStop() );
+    result.setStopped( totals.isStopped() );
+    result.setLogChannelId( totals.getLogChannelId() );
+    for ( Map.Entry<String, ResultFile> entry : totals.getResultFiles().entrySet() ) {
+      if ( !previous.getResultFiles().containsKey( entry.getKey() ) ) {
+        result.getResultFiles().put( entry.getKey(), entry.getValue() );
+      }
+    }
+    result.setRows( new ArrayList<>( executorTrans.getResultRows() ) );
+    executorTrans.getResultRows().clear();
+
+    transExecutorData.previousTotals = totals;
+    return result;
+  }
+
+  @VisibleForTesting
+  void disposeReusedTransformation() {
+    TransExecutorData transExecutorData = getData();
+    if ( transExecutorData == null || transExecutorData.executor == null ) {
+      return;
+    }
+    try {
+      transExecutorData.executor.dispose();
+    } catch ( KettleException e ) {
+      logError( BaseMessages.getString( PKG, "TransExecutor.Log.ErrorDisposingReusedTransformation" ), e );
+    }
+    transExecutorData.executor = null;
+    transExecutorData.rowProducer = null;
+    transExecutorData.previousTotals = null;
+  }
+
   @VisibleForTesting
   void discardLogLines( TransExecutorData transExecutorData ) {
     // Keep the strain on the logging back-end conservative.
@@ -532,6 +714,7 @@ public class TransExecutor extends BaseStep implements StepInterface {
 
   public void dispose( StepMetaInterface smi, StepDataInterface sdi ) {
     TransExecutorData transExecutorData = getData();
+    disposeReusedTransformation();
     transExecutorData.groupBuffer = null;
     super.dispose( smi, sdi );
   }
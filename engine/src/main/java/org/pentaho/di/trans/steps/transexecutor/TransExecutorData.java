@@ -16,9 +16,12 @@ package org.pentaho.di.trans.steps.transexecutor;
 import java.util.List;
 
 import org.pentaho.di.core.RowMetaAndData;
+import org.pentaho.di.core.Result;
 import org.pentaho.di.core.RowSet;
 import org.pentaho.di.core.row.RowMetaInterface;
 import org.pentaho.di.core.row.ValueMetaInterface;
+import org.pentaho.di.trans.RowProducer;
+import org.pentaho.di.trans.SingleThreadedTransExecutor;
 import org.pentaho.di.trans.Trans;
 import org.pentaho.di.trans.TransMeta;
 import org.pentaho.di.trans.step.BaseStepData;
@@ -50,6 +53,13 @@ public class TransExecutorData extends BaseStepData implements StepDataInterface
 
   public Object prevGroupFieldData;
 
+  /** True if the transformation is prepared once and fed every group of rows in turn */
+  public boolean reuseTransformation;
+  public SingleThreadedTransExecutor executor;
+  public RowProducer rowProducer;
+  /** The totals of the reused transformation after the previous group, to report every group on its own */
+  public Result previousTotals;
+
   private RowSet executorStepOutputRowSet;
   private RowSet resultRowsRowSet;
   private RowSet resultFilesRowSet;
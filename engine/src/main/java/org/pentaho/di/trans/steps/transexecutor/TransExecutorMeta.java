@@ -94,6 +94,12 @@ public class TransExecutorMeta extends StepWithMappingMeta implements StepMetaIn
    */
   private String groupTime;
 
+  /**
+   * Prepare the transformation once and feed it every group of rows in turn, instead of running a new transformation
+   * for every group. This needs a single Mapping Input step in the transformation to receive the rows.
+   */
+  private boolean reuseTransformation;
+
   private TransExecutorParameters parameters;
 
   private String executionResultTargetStep;
@@ -263,6 +269,7 @@ public class TransExecutorMeta extends StepWithMappingMeta implements StepMetaIn
     retval.append( "    " ).append( XMLHandler.addTagValue( "group_size", groupSize ) );
     retval.append( "    " ).append( XMLHandler.addTagValue( "group_field", groupField ) );
     retval.append( "    " ).append( XMLHandler.addTagValue( "group_time", groupTime ) );
+    retval.append( "    " ).append( XMLHandler.addTagValue( "reuse_transformation", reuseTransformation ) );
 
     // Add the mapping parameters too
     //
@@ -331,6 +338,7 @@ public class TransExecutorMeta extends StepWithMappingMeta implements StepMetaIn
       groupSize = XMLHandler.getTagValue( stepnode, "group_size" );
       groupField = XMLHandler.getTagValue( stepnode, "group_field" );
       groupTime = XMLHandler.getTagValue( stepnode, "group_time" );
+      reuseTransformation = "Y".equalsIgnoreCase( XMLHandler.getTagValue( stepnode, "reuse_transformation" ) );
 
       // Load the mapping parameters too..
       //
@@ -392,6 +400,7 @@ public class TransExecutorMeta extends StepWithMappingMeta implements StepMetaIn
     groupSize = rep.getStepAttributeString( id_step, "group_size" );
     groupField = rep.getStepAttributeString( id_step, "group_field" );
     groupTime = rep.getStepAttributeString( id_step, "group_time" );
+    reuseTransformation = rep.getStepAttributeBoolean( id_step, "reuse_transformation" );
 
     parameters = new TransExecutorParameters( rep, id_step );
 
@@ -441,6 +450,7 @@ public class TransExecutorMeta extends StepWithMappingMeta implements StepMetaIn
     rep.saveStepAttribute( id_transformation, id_step, "group_size", groupSize );
     rep.saveStepAttribute( id_transformation, id_step, "group_field", groupField );
     rep.saveStepAttribute( id_transformation, id_step, "group_time", groupTime );
+    rep.saveStepAttribute( id_transformation, id_step, "reuse_transformation", reuseTransformation );
 
     // save the mapping parameters too
     //
@@ -493,6 +503,7 @@ public class TransExecutorMeta extends StepWithMappingMeta implements StepMetaIn
     groupSize = "1";
     groupField = "";
     groupTime = "";
+    reuseTransformation = false;
 
     executionTimeField = "ExecutionTime";
     executionResultField = "ExecutionResult";
@@ -1019,6 +1030,20 @@ public class TransExecutorMeta extends StepWithMappingMeta implements StepMetaIn
     this.groupTime = groupTime;
   }
 
+  /**
+   * @return true if the transformation is prepared once and reused for every group of rows
+   */
+  public boolean isReuseTransformation() {
+    return reuseTransformation;
+  }
+
+  /**
+   * @param reuseTransformation true to prepare the transformation once and reuse it for every group of rows
+   */
+  public void setReuseTransformation( boolean reuseTransformation ) {
+    this.reuseTransformation = reuseTransformation;
+  }
+
   @Override
   public boolean excludeFromCopyDistributeVerification() {
     return true;
@@ -0,0 +1,85 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.uniquerowsbyhashset;
+
+import org.pentaho.di.core.exception.KettleException;
+
+/**
+ * Approximate storage: a Bloom filter sized for the expected number of rows and false positive rate. The memory use
+ * is fixed and small, but a unique row is taken for a duplicate with the configured probability. Duplicates are
+ * never passed as unique rows.
+ */
+class BloomFilterRowStore implements DistinctRowStore {
+
+  private final RowKeyEncoder encoder;
+  private final long[] bits;
+  private final long bitCount;
+  private final int hashCount;
+
+  /**
+   * @param encoder           the encoder of the row keys
+   * @param expectedRows      the expected number of unique rows
+   * @param falsePositiveRate the probability that a unique row is taken for a duplicate, once the expected number of
+   *                          rows is reached
+   */
+  BloomFilterRowStore( RowKeyEncoder encoder, long expectedRows, double falsePositiveRate ) {
+    this.encoder = encoder;
+    long n = Math.max( 1L, expectedRows );
+    double p = Math.min( 0.5, Math.max( 1e-12, falsePositiveRate ) );
+    long m = (long) Math.ceil( -n * Math.log( p ) / ( Math.log( 2 ) * Math.log( 2 ) ) );
+    int words = (int) Math.min( Integer.MAX_VALUE - 8, Math.max( 1L, ( m + 63 ) / 64 ) );
+    bits = new long[ words ];
+    bitCount = (long) words * 64;
+    hashCount = (int) Math.max( 1, Math.round( (double) bitCount / n * Math.log( 2 ) ) );
+  }
+
+  @Override
+  public int add( Object[] row ) throws KettleException {
+    encoder.encode( row );
+    long hash1 = encoder.getHash1();
+    long hash2 = encoder.getHash2();
+
+    boolean present = true;
+    long combined = hash1;
+    for ( int i = 0; i < hashCount; i++ ) {
+      long index = ( combined & Long.MAX_VALUE ) % bitCount;
+      int word = (int) ( index >>> 6 );
+      long mask = 1L << index;
+      if ( ( bits[ word ] & mask ) == 0 ) {
+        present = false;
+        bits[ word ] |= mask;
+      }
+      combined += hash2;
+    }
+    return present ? DUPLICATE : UNIQUE;
+  }
+
+  @Override
+  public void finish( DeferredRowListener listener ) {
+    // Nothing is ever deferred
+  }
+
+  @Override
+  public void close() {
+    // The filter is released with the step data
+  }
+
+  int getHashCount() {
+    return hashCount;
+  }
+
+  long getBitCount() {
+    return bitCount;
+  }
+}
@@ -0,0 +1,53 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.uniquerowsbyhashset;
+
+import org.pentaho.di.core.exception.KettleException;
+
+/**
+ * Storage of the keys that were seen by the Unique Rows (HashSet) step, for the storage types other than the plain
+ * {@link java.util.HashSet} of {@link RowKey}s.
+ */
+interface DistinctRowStore {
+
+  /** The key was not seen before */
+  int UNIQUE = 0;
+
+  /** The key was seen before */
+  int DUPLICATE = 1;
+
+  /** The store can't decide right now, the row is handed to the listener of {@link #finish} later */
+  int DEFERRED = 2;
+
+  interface DeferredRowListener {
+    void rowDecided( Object[] row, boolean unique ) throws KettleException;
+  }
+
+  /**
+   * Adds the key of the given row.
+   *
+   * @return {@link #UNIQUE}, {@link #DUPLICATE} or {@link #DEFERRED}
+   */
+  int add( Object[] row ) throws KettleException;
+
+  /**
+   * Decides on the deferred rows, once all rows are added.
+   */
+  void finish( DeferredRowListener listener ) throws KettleException;
+
+  /**
+   * Releases the memory and the temporary files of the store.
+   */
+  void close();
+}
@@ -0,0 +1,369 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.uniquerowsbyhashset;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.pentaho.di.core.exception.KettleException;
+import org.pentaho.di.core.row.RowMetaInterface;
+
+/**
+ * Exact storage that keeps the 128-bit hash of the encoded key of every unique row in an open addressing table of
+ * primitive longs, instead of a {@link RowKey} object per row. When the values are stored as well, the encoded keys are
+ * appended to large byte arrays and only a reference is kept in the table.
+ * <p>
+ * Once the table would grow beyond the memory limit, keys that are already in the table are still detected as
+ * duplicates right away, but the rows with a new key are written to one of a number of partition files, chosen by the
+ * hash of the key. When all rows are added the table is released and every partition is deduplicated on its own, in
+ * the same way, so the rows of a partition can be spread over sub-partitions again.
+ */
+class FingerprintRowStore implements DistinctRowStore {
+
+  static final int PARTITION_BITS = 4;
+  static final int PARTITION_COUNT = 1 << PARTITION_BITS;
+  private static final int MAX_LEVEL = 64 / PARTITION_BITS - 1;
+
+  private final RowMetaInterface rowMeta;
+  private final RowKeyEncoder encoder;
+  private final boolean storeValues;
+  private final long memoryLimit;
+  private final File spillDirectory;
+
+  private Pass pass;
+  private final List<File> files = new ArrayList<>();
+  private long spilledRows;
+
+  /**
+   * @param rowMeta        the metadata of the rows
+   * @param encoder        the encoder of the row keys
+   * @param storeValues    true to compare the encoded keys, false to rely on the 128-bit hash
+   * @param memoryLimit    the number of bytes the table may use before rows are written to disk
+   * @param spillDirectory the directory of the partition files
+   */
+  FingerprintRowStore( RowMetaInterface rowMeta, RowKeyEncoder encoder, boolean storeValues, long memoryLimit,
+    File spillDirectory ) {
+    this.rowMeta = rowMeta;
+    this.encoder = encoder;
+    this.storeValues = storeValues;
+    this.memoryLimit = memoryLimit;
+    this.spillDirectory = spillDirectory;
+    this.pass = new Pass( 0 );
+  }
+
+  @Override
+  public int add( Object[] row ) throws KettleException {
+    return pass.add( row );
+  }
+
+  @Override
+  public void finish( DeferredRowListener listener ) throws KettleException {
+    Pass mainPass = pass;
+    pass = null;
+    mainPass.finish( listener );
+  }
+
+  @Override
+  public void close() {
+    if ( pass != null ) {
+      pass.closePartitions();
+      pass = null;
+    }
+    for ( File file : files ) {
+      file.delete();
+    }
+    files.clear();
+  }
+
+  /**
+   * @return the number of rows that were written to partition files
+   */
+  long getSpilledRows() {
+    return spilledRows;
+  }
+
+  /**
+   * @return true if rows were written to partition files
+   */
+  boolean isSpilling() {
+    return pass != null && pass.partitions != null;
+  }
+
+  /**
+   * Deduplication of one stream of rows: the input of the step or the rows of one partition file.
+   */
+  private class Pass {
+    private final int level;
+    private FingerprintTable table = new FingerprintTable( storeValues );
+    private Partition[] partitions;
+
+    Pass( int level ) {
+      this.level = level;
+    }
+
+    int add( Object[] row ) throws KettleException {
+      encoder.encode( row );
+      long hash1 = encoder.getHash1();
+      long hash2 = encoder.getHash2();
+      byte[] bytes = encoder.getBytes();
+      int length = encoder.getLength();
+
+      if ( table.contains( hash1, hash2, bytes, length ) ) {
+        return DUPLICATE;
+      }
+      if ( partitions == null ) {
+        if ( level >= MAX_LEVEL || table.fits( length, memoryLimit ) ) {
+          table.insert( hash1, hash2, bytes, length );
+          return UNIQUE;
+        }
+        partitions = new Partition[ PARTITION_COUNT ];
+      }
+      int shift = 64 - PARTITION_BITS * ( level + 1 );
+      int index = (int) ( ( hash1 >>> shift ) & ( PARTITION_COUNT - 1 ) );
+      if ( partitions[ index ] == null ) {
+        partitions[ index ] = new Partition();
+      }
+      partitions[ index ].write( row );
+      spilledRows++;
+      return DEFERRED;
+    }
+
+    void finish( DeferredRowListener listener ) throws KettleException {
+      table = null;
+      if ( partitions == null ) {
+        return;
+      }
+      for ( int i = 0; i < partitions.length; i++ ) {
+        Partition partition = partitions[ i ];
+        partitions[ i ] = null;
+        if ( partition == null ) {
+          continue;
+        }
+        partition.closeOutput();
+
+        Pass subPass = new Pass( level + 1 );
+        pass = subPass;
+        try ( DataInputStream inputStream = partition.openInput() ) {
+          for ( long r = 0; r < partition.rows; r++ ) {
+            Object[] row = rowMeta.readData( inputStream );
+            int result = subPass.add( row );
+            if ( result != DEFERRED ) {
+              listener.rowDecided( row, result == UNIQUE );
+            }
+          }
+        } catch ( IOException e ) {
+          throw new KettleException( e );
+        }
+        partition.delete();
+        pass = null;
+        subPass.finish( listener );
+      }
+    }
+
+    void closePartitions() {
+      if ( partitions != null ) {
+        for ( Partition partition : partitions ) {
+          if ( partition != null ) {
+            partition.closeOutput();
+          }
+        }
+      }
+    }
+  }
+
+  private class Partition {
+    private final File file;
+    private DataOutputStream outputStream;
+    private long rows;
+
+    Partition() throws KettleException {
+      try {
+        file = File.createTempFile( "unique-rows-", ".tmp", spillDirectory );
+        file.deleteOnExit();
+        files.add( file );
+        outputStream = new DataOutputStream( new BufferedOutputStream( new FileOutputStream( file ), 65536 ) );
+      } catch ( IOException e ) {
+        throw new KettleException( e );
+      }
+    }
+
+    void write( Object[] row ) throws KettleException {
+      rowMeta.writeData( outputStream, row );
+      rows++;
+    }
+
+    void closeOutput() {
+      if ( outputStream != null ) {
+        try {
+          outputStream.close();
+        } catch ( IOException e ) {
+          // The file is deleted anyway
+        }
+        outputStream = null;
+      }
+    }
+
+    DataInputStream openInput() throws IOException {
+      return new DataInputStream( new BufferedInputStream( new FileInputStream( file ), 65536 ) );
+    }
+
+    void delete() {
+      file.delete();
+      files.remove( file );
+    }
+  }
+
+  /**
+   * Open addressing hash table with linear probing on two parallel long arrays. The first holds the first half of the
+   * hash, zero marks an empty slot. The second holds the other half of the hash, or the reference of the encoded key
+   * when the values are stored.
+   */
+  static class FingerprintTable {
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int CHUNK_SIZE = 1 << 20;
+
+    private final boolean storeValues;
+
+    private long[] hashes = new long[ INITIAL_CAPACITY ];
+    private long[] values = new long[ INITIAL_CAPACITY ];
+    private int size;
+
+    private final List<byte[]> chunks = new ArrayList<>();
+    private byte[] chunk;
+    private int chunkOffset;
+    private long chunkBytes;
+
+    FingerprintTable( boolean storeValues ) {
+      this.storeValues = storeValues;
+    }
+
+    int size() {
+      return size;
+    }
+
+    /**
+     * @return the number of bytes used by the table and the stored keys
+     */
+    long getMemoryUsage() {
+      return 16L * hashes.length + chunkBytes;
+    }
+
+    /**
+     * @return true if one more key of the given length can be inserted without exceeding the limit
+     */
+    boolean fits( int length, long limit ) {
+      long usage = getMemoryUsage();
+      if ( size + 1 > hashes.length / 2 ) {
+        usage += 16L * hashes.length;
+      }
+      if ( storeValues && ( chunk == null || chunkOffset + length + 5 > chunk.length ) ) {
+        usage += Math.max( CHUNK_SIZE, length + 5 );
+      }
+      return usage <= limit;
+    }
+
+    boolean contains( long hash1, long hash2, byte[] bytes, int length ) {
+      long hash = hash1 == 0 ? 1 : hash1;
+      int mask = hashes.length - 1;
+      for ( int slot = (int) ( hash ^ ( hash >>> 32 ) ) & mask; hashes[ slot ] != 0; slot = ( slot + 1 ) & mask ) {
+        if ( hashes[ slot ] == hash && ( storeValues
+          ? equalsStored( values[ slot ], bytes, length ) : values[ slot ] == hash2 ) ) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    /**
+     * Inserts a key that is not in the table yet.
+     */
+    void insert( long hash1, long hash2, byte[] bytes, int length ) {
+      if ( size + 1 > hashes.length / 2 ) {
+        grow();
+      }
+      long hash = hash1 == 0 ? 1 : hash1;
+      int mask = hashes.length - 1;
+      int slot = (int) ( hash ^ ( hash >>> 32 ) ) & mask;
+      while ( hashes[ slot ] != 0 ) {
+        slot = ( slot + 1 ) & mask;
+      }
+      hashes[ slot ] = hash;
+      values[ slot ] = storeValues ? store( bytes, length ) : hash2;
+      size++;
+    }
+
+    private void grow() {
+      long[] oldHashes = hashes;
+      long[] oldValues = values;
+      hashes = new long[ oldHashes.length * 2 ];
+      values = new long[ oldHashes.length * 2 ];
+      int mask = hashes.length - 1;
+      for ( int i = 0; i < oldHashes.length; i++ ) {
+        long hash = oldHashes[ i ];
+        if ( hash != 0 ) {
+          int slot = (int) ( hash ^ ( hash >>> 32 ) ) & mask;
+          while ( hashes[ slot ] != 0 ) {
+            slot = ( slot + 1 ) & mask;
+          }
+          hashes[ slot ] = hash;
+          values[ slot ] = oldValues[ i ];
+        }
+      }
+    }
+
+    private long store( byte[] bytes, int length ) {
+      int needed = length + 5;
+      if ( chunk == null || chunkOffset + needed > chunk.length ) {
+        chunk = new byte[ Math.max( CHUNK_SIZE, needed ) ];
+        chunks.add( chunk );
+        chunkOffset = 0;
+        chunkBytes += chunk.length;
+      }
+      long reference = ( (long) ( chunks.size() - 1 ) << 32 ) | chunkOffset;
+      int value = length;
+      while ( ( value & ~0x7F ) != 0 ) {
+        chunk[ chunkOffset++ ] = (byte) ( ( value & 0x7F ) | 0x80 );
+        value >>>= 7;
+      }
+      chunk[ chunkOffset++ ] = (byte) value;
+      System.arraycopy( bytes, 0, chunk, chunkOffset, length );
+      chunkOffset += length;
+      return reference;
+    }
+
+    private boolean equalsStored( long reference, byte[] bytes, int length ) {
+      byte[] stored = chunks.get( (int) ( reference >>> 32 ) );
+      int offset = (int) reference;
+      int storedLength = 0;
+      int shift = 0;
+      byte b;
+      do {
+        b = stored[ offset++ ];
+        storedLength |= ( b & 0x7F ) << shift;
+        shift += 7;
+      } while ( ( b & 0x80 ) != 0 );
+      return storedLength == length
+        && Arrays.equals( stored, offset, offset + length, bytes, 0, length );
+    }
+  }
+}
@@ -0,0 +1,190 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.uniquerowsbyhashset;
+
+import java.math.BigDecimal;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Date;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import org.pentaho.di.core.exception.KettleValueException;
+import org.pentaho.di.core.row.RowMetaInterface;
+
+/**
+ * Encodes the key fields of a row into a compact byte representation and hashes it to 128 bits. The values are
+ * converted to their native type first, so lazily converted and normal values of the same key encode the same.
+ * <p>
+ * The encoder reuses its buffer: the bytes returned by {@link #getBytes()} are only valid until the next call to
+ * {@link #encode(Object[])}.
+ */
+class RowKeyEncoder {
+  private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+
+  private static final byte NULL = 0;
+  private static final byte STRING = 1;
+  private static final byte INTEGER = 2;
+  private static final byte NUMBER = 3;
+  private static final byte BIGNUMBER = 4;
+  private static final byte DATE = 5;
+  private static final byte TIMESTAMP = 6;
+  private static final byte BOOLEAN = 7;
+  private static final byte BINARY = 8;
+  private static final byte INET = 9;
+  private static final byte OTHER = 10;
+
+  private final RowMetaInterface rowMeta;
+  private final int[] fieldnrs;
+
+  private byte[] buffer = new byte[ 256 ];
+  private int length;
+
+  private long hash1;
+  private long hash2;
+
+  /**
+   * @param rowMeta  the metadata of the rows
+   * @param fieldnrs the indexes of the key fields, empty for the complete row
+   */
+  RowKeyEncoder( RowMetaInterface rowMeta, int[] fieldnrs ) {
+    this.rowMeta = rowMeta;
+    if ( fieldnrs.length == 0 ) {
+      this.fieldnrs = new int[ rowMeta.size() ];
+      for ( int i = 0; i < this.fieldnrs.length; i++ ) {
+        this.fieldnrs[ i ] = i;
+      }
+    } else {
+      this.fieldnrs = fieldnrs;
+    }
+  }
+
+  /**
+   * Encodes and hashes the key of the given row.
+   */
+  void encode( Object[] row ) throws KettleValueException {
+    length = 0;
+    for ( int fieldnr : fieldnrs ) {
+      Object value = rowMeta.getValueMeta( fieldnr ).getNativeDataType( row[ fieldnr ] );
+      writeValue( value );
+    }
+    long[] hash = hash( buffer, 0, length );
+    hash1 = hash[ 0 ];
+    hash2 = hash[ 1 ];
+  }
+
+  byte[] getBytes() {
+    return buffer;
+  }
+
+  int getLength() {
+    return length;
+  }
+
+  long getHash1() {
+    return hash1;
+  }
+
+  long getHash2() {
+    return hash2;
+  }
+
+  static long[] hash( byte[] bytes, int offset, int length ) {
+    byte[] hash = HASH_FUNCTION.hashBytes( bytes, offset, length ).asBytes();
+    return new long[] { toLong( hash, 0 ), toLong( hash, 8 ) };
+  }
+
+  private static long toLong( byte[] bytes, int offset ) {
+    long value = 0;
+    for ( int i = 0; i < 8; i++ ) {
+      value = ( value << 8 ) | ( bytes[ offset + i ] & 0xFF );
+    }
+    return value;
+  }
+
+  private void writeValue( Object value ) {
+    if ( value == null ) {
+      writeByte( NULL );
+    } else if ( value instanceof String ) {
+      writeByte( STRING );
+      writeBytes( ( (String) value ).getBytes( StandardCharsets.UTF_8 ) );
+    } else if ( value instanceof Long ) {
+      writeByte( INTEGER );
+      writeLong( (Long) value );
+    } else if ( value instanceof Double ) {
+      writeByte( NUMBER );
+      writeLong( Double.doubleToLongBits( (Double) value ) );
+    } else if ( value instanceof BigDecimal ) {
+      BigDecimal bigDecimal = (BigDecimal) value;
+      writeByte( BIGNUMBER );
+      writeVarInt( bigDecimal.scale() );
+      writeBytes( bigDecimal.unscaledValue().toByteArray() );
+    } else if ( value instanceof Timestamp ) {
+      writeByte( TIMESTAMP );
+      writeLong( ( (Timestamp) value ).getTime() );
+      writeVarInt( ( (Timestamp) value ).getNanos() );
+    } else if ( value instanceof Date ) {
+      writeByte( DATE );
+      writeLong( ( (Date) value ).getTime() );
+    } else if ( value instanceof Boolean ) {
+      writeByte( BOOLEAN );
+      writeByte( (Boolean) value ? (byte) 1 : (byte) 0 );
+    } else if ( value instanceof byte[] ) {
+      writeByte( BINARY );
+      writeBytes( (byte[]) value );
+    } else if ( value instanceof InetAddress ) {
+      writeByte( INET );
+      writeBytes( ( (InetAddress) value ).getAddress() );
+    } else {
+      writeByte( OTHER );
+      writeBytes( value.toString().getBytes( StandardCharsets.UTF_8 ) );
+    }
+  }
+
+  private void ensureCapacity( int extra ) {
+    if ( length + extra > buffer.length ) {
+      buffer = Arrays.copyOf( buffer, Math.max( buffer.length * 2, length + extra ) );
+    }
+  }
+
+  private void writeByte( byte b ) {
+    ensureCapacity( 1 );
+    buffer[ length++ ] = b;
+  }
+
+  private void writeLong( long value ) {
+    ensureCapacity( 8 );
+    for ( int i = 7; i >= 0; i-- ) {
+      buffer[ length++ ] = (byte) ( value >>> ( i * 8 ) );
+    }
+  }
+
+  private void writeVarInt( int value ) {
+    ensureCapacity( 5 );
+    while ( ( value & ~0x7F ) != 0 ) {
+      buffer[ length++ ] = (byte) ( ( value & 0x7F ) | 0x80 );
+      value >>>= 7;
+    }
+    buffer[ length++ ] = (byte) value;
+  }
+
+  private void writeBytes( byte[] bytes ) {
+    writeVarInt( bytes.length );
+    ensureCapacity( bytes.length );
+    System.arraycopy( bytes, 0, buffer, length, bytes.length );
+    length += bytes.length;
+  }
+}
@@ -13,6 +13,9 @@
 
 package org.pentaho.di.trans.steps.uniquerowsbyhashset;
 
+import java.io.File;
+
+import org.pentaho.di.core.Const;
 import org.pentaho.di.core.exception.KettleException;
 import org.pentaho.di.core.util.Utils;
 import org.pentaho.di.i18n.BaseMessages;
@@ -42,6 +45,51 @@ public class UniqueRowsByHashSet extends BaseStep implements StepInterface {
     return data.seen.add( new RowKey( row, data ) );
   }
 
+  private DistinctRowStore createStore() throws KettleException {
+    String storageType = Const.NVL( meta.getStorageType(), UniqueRowsByHashSetMeta.STORAGE_TYPE_HASHSET );
+    if ( UniqueRowsByHashSetMeta.STORAGE_TYPE_HASHSET.equals( storageType ) ) {
+      return null;
+    }
+    if ( log.isDetailed() ) {
+      logDetailed( BaseMessages.getString( PKG, "UniqueRowsByHashSet.Log.StorageType", storageType ) );
+    }
+    RowKeyEncoder encoder = new RowKeyEncoder( data.inputRowMeta, data.fieldnrs );
+    if ( UniqueRowsByHashSetMeta.STORAGE_TYPE_FINGERPRINT.equals( storageType ) ) {
+      long memoryLimit = Const.toLong( environmentSubstitute( meta.getMemoryLimit() ), -1L );
+      memoryLimit = memoryLimit > 0 ? memoryLimit * 1024 * 1024 : Runtime.getRuntime().maxMemory() / 4;
+      String spillDirectory = environmentSubstitute( meta.getSpillDirectory() );
+      File directory = new File( Utils.isEmpty( spillDirectory ) ? System.getProperty( "java.io.tmpdir" )
+        : spillDirectory );
+      return new FingerprintRowStore( data.inputRowMeta, encoder, data.storeValues, memoryLimit, directory );
+    }
+    if ( UniqueRowsByHashSetMeta.STORAGE_TYPE_APPROXIMATE.equals( storageType ) ) {
+      String rate = environmentSubstitute( meta.getFalsePositiveRate() );
+      double falsePositiveRate = Const.toDouble( rate, -1.0 );
+      if ( falsePositiveRate <= 0 || falsePositiveRate >= 1 ) {
+        throw new KettleException( BaseMessages.getString( PKG,
+          "UniqueRowsByHashSet.Exception.InvalidFalsePositiveRate", rate ) );
+      }
+      long expectedRows = Const.toLong( environmentSubstitute( meta.getExpectedRows() ),
+        Long.parseLong( UniqueRowsByHashSetMeta.DEFAULT_EXPECTED_ROWS ) );
+      return new BloomFilterRowStore( encoder, expectedRows, falsePositiveRate );
+    }
+    throw new KettleException( BaseMessages.getString( PKG, "UniqueRowsByHashSet.Exception.UnknownStorageType",
+      storageType ) );
+  }
+
+  private void putUniqueRow( Object[] row, boolean unique ) throws KettleException {
+    if ( unique ) {
+      putRow( data.outputRowMeta, row );
+    } else {
+      incrementLinesRejected();
+      if ( data.sendDuplicateRows ) {
+        // Simply add this row to the error row
+        putError( data.inputRowMeta, row, 1, data.realErrorDescription, Utils.isEmpty( data.compareFields )
+          ? null : data.compareFields, "UNRH001" );
+      }
+    }
+  }
+
   public boolean processRow( StepMetaInterface smi, StepDataInterface sdi ) throws KettleException {
     meta = (UniqueRowsByHashSetMeta) smi;
     data = (UniqueRowsByHashSetData) sdi;
@@ -49,6 +97,17 @@ public class UniqueRowsByHashSet extends BaseStep implements StepInterface {
     Object[] r = getRow(); // get row!
     if ( r == null ) { // no more input to be expected...
 
+      if ( data.store != null ) {
+        // Pass the rows the store couldn't decide on while there was input
+        //
+        if ( data.store instanceof FingerprintRowStore && log.isBasic() ) {
+          long spilledRows = ( (FingerprintRowStore) data.store ).getSpilledRows();
+          if ( spilledRows > 0 ) {
+            logBasic( BaseMessages.getString( PKG, "UniqueRowsByHashSet.Log.SpilledRows", spilledRows ) );
+          }
+        }
+        data.store.finish( this::putUniqueRow );
+      }
       data.clearHashSet();
       setOutputDone();
       return false;
@@ -85,17 +144,16 @@ public class UniqueRowsByHashSet extends BaseStep implements StepInterface {
       if ( data.sendDuplicateRows && !Utils.isEmpty( meta.getErrorDescription() ) ) {
         data.realErrorDescription = environmentSubstitute( meta.getErrorDescription() );
       }
+      data.store = createStore();
     }
 
-    if ( isUniqueRow( r ) ) {
-      putRow( data.outputRowMeta, r );
-    } else {
-      incrementLinesRejected();
-      if ( data.sendDuplicateRows ) {
-        // Simply add this row to the error row
-        putError( getInputRowMeta(), r, 1, data.realErrorDescription, Utils.isEmpty( data.compareFields )
-          ? null : data.compareFields, "UNRH001" );
+    if ( data.store != null ) {
+      int result = data.store.add( r );
+      if ( result != DistinctRowStore.DEFERRED ) {
+        putUniqueRow( r, result == DistinctRowStore.UNIQUE );
       }
+    } else {
+      putUniqueRow( r, isUniqueRow( r ) );
     }
 
     if ( checkFeedback( getLinesRead() ) ) {
@@ -119,4 +177,9 @@ public class UniqueRowsByHashSet extends BaseStep implements StepInterface {
     return false;
   }
 
+  @Override
+  public void dispose( StepMetaInterface smi, StepDataInterface sdi ) {
+    ( (UniqueRowsByHashSetData) sdi ).closeStore();
+    super.dispose( smi, sdi );
+  }
 }
@@ -30,6 +30,9 @@ public class UniqueRowsByHashSetData extends BaseStepData implements StepDataInt
 
   public HashSet<RowKey> seen = new HashSet<RowKey>();
 
+  /** The storage of the keys when the storage type isn't the hash set, null otherwise */
+  DistinctRowStore store;
+
   public UniqueRowsByHashSetData() {
     super();
   }
@@ -38,5 +41,13 @@ public class UniqueRowsByHashSetData extends BaseStepData implements StepDataInt
     sendDuplicateRows = false;
     compareFields = null;
     realErrorDescription = null;
+    closeStore();
+  }
+
+  void closeStore() {
+    if ( store != null ) {
+      store.close();
+      store = null;
+    }
   }
 }
@@ -18,6 +18,7 @@ import java.util.List;
 import org.pentaho.di.core.bowl.Bowl;
 import org.pentaho.di.core.CheckResult;
 import org.pentaho.di.core.CheckResultInterface;
+import org.pentaho.di.core.Const;
 import org.pentaho.di.core.database.DatabaseMeta;
 import org.pentaho.di.core.exception.KettleException;
 import org.pentaho.di.core.exception.KettleStepException;
@@ -41,6 +42,18 @@ import org.w3c.dom.Node;
 public class UniqueRowsByHashSetMeta extends BaseStepMeta implements StepMetaInterface {
   private static Class<?> PKG = UniqueRowsByHashSetMeta.class; // for i18n purposes, needed by Translator2!!
 
+  /** Keep a {@link RowKey} per unique row in a java.util.HashSet */
+  public static final String STORAGE_TYPE_HASHSET = "hashset";
+
+  /** Keep the hash of the key of every unique row in a compact table, spill to disk past the memory limit */
+  public static final String STORAGE_TYPE_FINGERPRINT = "fingerprint";
+
+  /** Keep a Bloom filter of the keys: fixed memory, but unique rows can be taken for duplicates */
+  public static final String STORAGE_TYPE_APPROXIMATE = "approximate";
+
+  public static final String DEFAULT_FALSE_POSITIVE_RATE = "0.001";
+  public static final String DEFAULT_EXPECTED_ROWS = "10000000";
+
   /** Whether to compare strictly by hash value or to store the row values for strict equality checking */
   private boolean storeValues;
 
@@ -50,6 +63,21 @@ public class UniqueRowsByHashSetMeta extends BaseStepMeta implements StepMetaInt
   private boolean rejectDuplicateRow;
   private String errorDescription;
 
+  /** How the keys of the unique rows are kept, one of the STORAGE_TYPE_ constants */
+  private String storageType;
+
+  /** The memory in MB the fingerprint storage may use before it writes rows to disk, empty for a quarter of the heap */
+  private String memoryLimit;
+
+  /** The directory of the partition files of the fingerprint storage, empty for the temporary directory */
+  private String spillDirectory;
+
+  /** The false positive rate of the approximate storage */
+  private String falsePositiveRate;
+
+  /** The expected number of unique rows, used to size the approximate storage */
+  private String expectedRows;
+
   public UniqueRowsByHashSetMeta() {
     super(); // allocate BaseStepMeta
   }
@@ -111,6 +139,46 @@ public class UniqueRowsByHashSetMeta extends BaseStepMeta implements StepMetaInt
     return errorDescription;
   }
 
+  public String getStorageType() {
+    return storageType;
+  }
+
+  public void setStorageType( String storageType ) {
+    this.storageType = storageType;
+  }
+
+  public String getMemoryLimit() {
+    return memoryLimit;
+  }
+
+  public void setMemoryLimit( String memoryLimit ) {
+    this.memoryLimit = memoryLimit;
+  }
+
+  public String getSpillDirectory() {
+    return spillDirectory;
+  }
+
+  public void setSpillDirectory( String spillDirectory ) {
+    this.spillDirectory = spillDirectory;
+  }
+
+  public String getFalsePositiveRate() {
+    return falsePositiveRate;
+  }
+
+  public void setFalsePositiveRate( String falsePositiveRate ) {
+    this.falsePositiveRate = falsePositiveRate;
+  }
+
+  public String getExpectedRows() {
+    return expectedRows;
+  }
+
+  public void setExpectedRows( String expectedRows ) {
+    this.expectedRows = expectedRows;
+  }
+
   public void loadXML( Node stepnode, List<DatabaseMeta> databases, IMetaStore metaStore ) throws KettleXMLException {
     readData( stepnode );
   }
@@ -131,6 +199,12 @@ public class UniqueRowsByHashSetMeta extends BaseStepMeta implements StepMetaInt
       storeValues = "Y".equalsIgnoreCase( XMLHandler.getTagValue( stepnode, "store_values" ) );
       rejectDuplicateRow = "Y".equalsIgnoreCase( XMLHandler.getTagValue( stepnode, "reject_duplicate_row" ) );
       errorDescription = XMLHandler.getTagValue( stepnode, "error_description" );
+      storageType = Const.NVL( XMLHandler.getTagValue( stepnode, "storage_type" ), STORAGE_TYPE_HASHSET );
+      memoryLimit = XMLHandler.getTagValue( stepnode, "memory_limit" );
+      spillDirectory = XMLHandler.getTagValue( stepnode, "spill_directory" );
+      falsePositiveRate = Const.NVL( XMLHandler.getTagValue( stepnode, "false_positive_rate" ),
+        DEFAULT_FALSE_POSITIVE_RATE );
+      expectedRows = Const.NVL( XMLHandler.getTagValue( stepnode, "expected_rows" ), DEFAULT_EXPECTED_ROWS );
 
       Node fields = XMLHandler.getSubNode( stepnode, "fields" );
       int nrfields = XMLHandler.countNodes( fields, "field" );
@@ -152,6 +226,11 @@ public class UniqueRowsByHashSetMeta extends BaseStepMeta implements StepMetaInt
   public void setDefault() {
     rejectDuplicateRow = false;
     errorDescription = null;
+    storageType = STORAGE_TYPE_HASHSET;
+    memoryLimit = null;
+    spillDirectory = null;
+    falsePositiveRate = DEFAULT_FALSE_POSITIVE_RATE;
+    expectedRows = DEFAULT_EXPECTED_ROWS;
     int nrfields = 0;
 
     allocate( nrfields );
@@ -172,6 +251,11 @@ public class UniqueRowsByHashSetMeta extends BaseStepMeta implements StepMetaInt
     retval.append( "      " + XMLHandler.addTagValue( "store_values", storeValues ) );
     retval.append( "      " + XMLHandler.addTagValue( "reject_duplicate_row", rejectDuplicateRow ) );
     retval.append( "      " + XMLHandler.addTagValue( "error_description", errorDescription ) );
+    retval.append( "      " + XMLHandler.addTagValue( "storage_type", storageType ) );
+    retval.append( "      " + XMLHandler.addTagValue( "memory_limit", memoryLimit ) );
+    retval.append( "      " + XMLHandler.addTagValue( "spill_directory", spillDirectory ) );
+    retval.append( "      " + XMLHandler.addTagValue( "false_positive_rate", falsePositiveRate ) );
+    retval.append( "      " + XMLHandler.addTagValue( "expected_rows", expectedRows ) );
     retval.append( "    <fields>" );
     for ( int i = 0; i < compareFields.length; i++ ) {
       retval.append( "      <field>" );
@@ -188,6 +272,12 @@ public class UniqueRowsByHashSetMeta extends BaseStepMeta implements StepMetaInt
       storeValues = rep.getStepAttributeBoolean( id_step, "store_values" );
       rejectDuplicateRow = rep.getStepAttributeBoolean( id_step, "reject_duplicate_row" );
       errorDescription = rep.getStepAttributeString( id_step, "error_description" );
+      storageType = Const.NVL( rep.getStepAttributeString( id_step, "storage_type" ), STORAGE_TYPE_HASHSET );
+      memoryLimit = rep.getStepAttributeString( id_step, "memory_limit" );
+      spillDirectory = rep.getStepAttributeString( id_step, "spill_directory" );
+      falsePositiveRate = Const.NVL( rep.getStepAttributeString( id_step, "false_positive_rate" ),
+        DEFAULT_FALSE_POSITIVE_RATE );
+      expectedRows = Const.NVL( rep.getStepAttributeString( id_step, "expected_rows" ), DEFAULT_EXPECTED_ROWS );
       int nrfields = rep.countNrStepAttributes( id_step, "field_name" );
 
       allocate( nrfields );
@@ -206,6 +296,11 @@ public class UniqueRowsByHashSetMeta extends BaseStepMeta implements StepMetaInt
       rep.saveStepAttribute( id_transformation, id_step, "store_values", storeValues );
       rep.saveStepAttribute( id_transformation, id_step, "reject_duplicate_row", rejectDuplicateRow );
       rep.saveStepAttribute( id_transformation, id_step, "error_description", errorDescription );
+      rep.saveStepAttribute( id_transformation, id_step, "storage_type", storageType );
+      rep.saveStepAttribute( id_transformation, id_step, "memory_limit", memoryLimit );
+      rep.saveStepAttribute( id_transformation, id_step, "spill_directory", spillDirectory );
+      rep.saveStepAttribute( id_transformation, id_step, "false_positive_rate", falsePositiveRate );
+      rep.saveStepAttribute( id_transformation, id_step, "expected_rows", expectedRows );
       for ( int i = 0; i < compareFields.length; i++ ) {
         rep.saveStepAttribute( id_transformation, id_step, i, "field_name", compareFields[i] );
       }
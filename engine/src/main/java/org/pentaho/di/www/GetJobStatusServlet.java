@@ -24,6 +24,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
 import com.google.common.annotations.VisibleForTesting;
+import org.apache.commons.lang3.mutable.MutableInt;
 import org.owasp.encoder.Encode;
 import org.pentaho.di.cluster.HttpUtil;
 import org.pentaho.di.core.Const;
@@ -48,6 +49,8 @@ public class GetJobStatusServlet extends BaseHttpServlet implements CartePluginI
 
   public static final String CONTEXT_PATH = "/kettle/jobStatus";
 
+  public static final String MAX_LOG_LINES = "maxLogLines";
+
   private static final byte[] XML_HEADER =
     XMLHandler.getXMLHeader( Const.XML_ENCODING ).getBytes( Charset.forName( Const.XML_ENCODING ) );
 
@@ -105,6 +108,12 @@ public class GetJobStatusServlet extends BaseHttpServlet implements CartePluginI
    <td>Start line number of the execution log to be included into response.</td>
    <td>integer, optional</td>
    </tr>
+   <tr>
+   <td>maxLogLines</td>
+   <td>Maximum number of log lines to include into response. When set, <code>last_log_line_nr</code> holds the
+   number of the last line returned so the next page can be requested with <code>from</code> set one higher.</td>
+   <td>integer, optional</td>
+   </tr>
    </tbody>
    </table>
 
@@ -207,6 +216,7 @@ public class GetJobStatusServlet extends BaseHttpServlet implements CartePluginI
     boolean useXML = "Y".equalsIgnoreCase( request.getParameter( "xml" ) );
     int numberOfTailLines = Const.toInt( request.getParameter( "tail" ), 0 );
     int startLineNr = Const.toInt( request.getParameter( "from" ), 0 );
+    int maxLogLines = Const.toInt( request.getParameter( MAX_LOG_LINES ), 0 );
 
     response.setStatus( HttpServletResponse.SC_OK );
 
@@ -271,15 +281,24 @@ public class GetJobStatusServlet extends BaseHttpServlet implements CartePluginI
           byte[] data = null;
           String logId = job.getLogChannelId();
           boolean finishedOrStopped = job.isFinished() || job.isStopped();
-          if ( finishedOrStopped && ( data = cache.get( logId, startLineNr ) ) != null ) {
+          boolean dontUseCache = maxLogLines > 0;
+          if ( finishedOrStopped && !dontUseCache && ( data = cache.get( logId, startLineNr ) ) != null ) {
             response.setContentLength( XML_HEADER.length + data.length );
             out = response.getOutputStream();
             out.write( XML_HEADER );
             out.write( data );
             out.flush();
           } else {
-            int lastLineNr = KettleLogStore.getLastBufferLineNr();
-            String logText = getLogText( job, startLineNr, lastLineNr, numberOfTailLines );
+            int lastLineNr;
+            String logText;
+            if ( maxLogLines > 0 ) {
+              MutableInt lastNr = new MutableInt( Math.max( 0, startLineNr - 1 ) );
+              logText = getLogTextAfter( job, lastNr, maxLogLines );
+              lastLineNr = lastNr.intValue();
+            } else {
+              lastLineNr = KettleLogStore.getLastBufferLineNr();
+              logText = getLogText( job, startLineNr, lastLineNr, numberOfTailLines );
+            }
 /*            if ( numberOfTailLines > 0 ) {
               //Only asking for last numberOfTailLines log lines
               logText = logText.substring( StringUtils.lastOrdinalIndexOf(  logText, "\n", numberOfTailLines + 1 ) + 1 );
@@ -313,7 +332,8 @@ public class GetJobStatusServlet extends BaseHttpServlet implements CartePluginI
             out.write( XML_HEADER );
             out.write( data );
             out.flush();
-            if ( finishedOrStopped && ( jobStatus.isFinished() || jobStatus.isStopped() ) && logId != null ) {
+            if ( finishedOrStopped && ( jobStatus.isFinished() || jobStatus.isStopped() ) && logId != null
+              && !dontUseCache ) {
               cache.put( logId, xml, startLineNr );
             }
           }
@@ -510,6 +530,15 @@ public class GetJobStatusServlet extends BaseHttpServlet implements CartePluginI
     }
   }
 
+  private String getLogTextAfter( Job job, MutableInt lastNr, int maxLogLines ) throws KettleException {
+    try {
+      return KettleLogStore.getAppender().getBufferAfter(
+        job.getLogChannel().getLogChannelId(), false, lastNr, maxLogLines ).toString();
+    } catch ( OutOfMemoryError error ) {
+      throw new KettleException( BaseMessages.getString( PKG, "GetJobStatusServlet.Error.LogStringIsTooLong" ) );
+    }
+  }
+
   private boolean isConflictingName( String jobName ) {
     try {
       getJobMap().getUniqueCarteObjectEntry( jobName );
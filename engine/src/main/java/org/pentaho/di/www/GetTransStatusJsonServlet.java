@@ -0,0 +1,268 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.www;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.json.simple.JSONValue;
+import org.pentaho.di.core.Const;
+import org.pentaho.di.core.util.Utils;
+import org.pentaho.di.i18n.BaseMessages;
+import org.pentaho.di.trans.Trans;
+
+
+public class GetTransStatusJsonServlet extends BaseHttpServlet implements CartePluginInterface {
+
+  private static Class<?> PKG = GetTransStatusServlet.class; // for i18n purposes, needed by Translator2!!
+
+  private static final long serialVersionUID = -6083286637213012843L;
+
+  public static final String CONTEXT_PATH = "/kettle/transStatusJson";
+
+  public static final String PARAMETER_WAIT = "wait";
+
+  public static final String PARAMETER_DELTA = "delta";
+
+  /**
+   * The maximum number of seconds a request is held open waiting for a change. The wait keeps a Carte request thread
+   * busy, so it is kept short: a client that wants to wait longer simply sends the request again.
+   **/
+  public static final int MAX_WAIT_SECONDS = 5;
+
+  private static final long POLL_INTERVAL_MS = 250L;
+
+  private static final String CONTENT_TYPE_JSON = "application/json";
+
+  private final Map<Trans, TransStatusTracker> trackers = Collections.synchronizedMap( new WeakHashMap<>() );
+
+  public GetTransStatusJsonServlet() {
+  }
+
+  public GetTransStatusJsonServlet( TransformationMap transformationMap ) {
+    super( transformationMap );
+  }
+
+  /**
+   <div id="mindtouch">
+   <h1>/kettle/transStatusJson</h1>
+   <a name="GET"></a>
+   <h2>GET</h2>
+   <p>Retrieves a compact JSON status of the specified transformation, meant for frequent polling by monitoring tools.
+   The response carries an <code>ETag</code> header. When it is sent back in an <code>If-None-Match</code> header and
+   nothing changed, <code>304 Not Modified</code> is returned without a body. With the <code>wait</code> parameter the
+   request is held open until something changes, for at most 5 seconds so that waiting clients don't take up the
+   request threads of Carte. With <code>delta=Y</code> only the steps whose counters or status
+   changed after the version of the <code>If-None-Match</code> tag are included.</p>
+
+   <p><b>Example Request:</b><br />
+   <pre function="syntax.xml">
+   GET /kettle/transStatusJson/?name=dummy-trans&wait=5&delta=Y
+   </pre>
+
+   </p>
+   <h3>Parameters</h3>
+   <table class="pentaho-table">
+   <tbody>
+   <tr>
+   <th>name</th>
+   <th>description</th>
+   <th>type</th>
+   </tr>
+   <tr>
+   <td>name</td>
+   <td>Name of the transformation to be used for status generation.</td>
+   <td>query</td>
+   </tr>
+   <tr>
+   <td>id</td>
+   <td>Carte id of the transformation to be used for status generation.</td>
+   <td>query, optional</td>
+   </tr>
+   <tr>
+   <td>wait</td>
+   <td>Number of seconds (at most 5) to wait for a change of the status seen in <code>If-None-Match</code>.</td>
+   <td>integer, optional</td>
+   </tr>
+   <tr>
+   <td>delta</td>
+   <td><code>Y</code> to only include the steps that changed after the version seen in <code>If-None-Match</code>.</td>
+   <td>boolean, optional</td>
+   </tr>
+   </tbody>
+   </table>
+
+   <h3>Response Body</h3>
+   <table class="pentaho-table">
+   <tbody>
+   <tr>
+   <td align="right">media types:</td>
+   <td>application/json</td>
+   </tr>
+   </tbody>
+   </table>
+
+   <p><b>Example Response:</b></p>
+   <pre function="syntax.xml">
+   {"id":"c56961b2-c848-49b8-abde-76c8015e29b0","name":"dummy-trans","status":"Running","paused":false,
+   "finished":false,"errors":0,"version":7,"delta":true,"steps":[{"name":"Dummy (do nothing)","copy":0,
+   "status":"Running","read":10000,"written":10000,"input":0,"output":0,"updated":0,"rejected":0,"errors":0,
+   "stopped":false,"paused":false}]}
+   </pre>
+
+   <h3>Status Codes</h3>
+   <table class="pentaho-table">
+   <tbody>
+   <tr>
+   <th>code</th>
+   <th>description</th>
+   </tr>
+   <tr>
+   <td>200</td>
+   <td>Request was processed.</td>
+   </tr>
+   <tr>
+   <td>304</td>
+   <td>The status did not change compared to the version in <code>If-None-Match</code>.</td>
+   </tr>
+   <tr>
+   <td>404</td>
+   <td>The transformation was not found.</td>
+   </tr>
+   </tbody>
+   </table>
+   </div>
+   */
+  public void doGet( HttpServletRequest request, HttpServletResponse response ) throws ServletException,
+    IOException {
+
+    if ( isJettyMode() && !request.getContextPath().startsWith( CONTEXT_PATH ) ) {
+      return;
+    }
+
+    if ( log.isDebug() ) {
+      logDebug( BaseMessages.getString( PKG, "TransStatusServlet.Log.TransStatusRequested" ) );
+    }
+
+    String transName = request.getParameter( "name" );
+    String id = request.getParameter( "id" );
+    int waitSeconds = Math.min( Const.toInt( request.getParameter( PARAMETER_WAIT ), 0 ), MAX_WAIT_SECONDS );
+    boolean delta = "Y".equalsIgnoreCase( request.getParameter( PARAMETER_DELTA ) );
+
+    response.setContentType( CONTENT_TYPE_JSON );
+    response.setCharacterEncoding( "UTF-8" );
+
+    // ID is optional...
+    //
+    Trans trans;
+    CarteObjectEntry entry;
+    if ( Utils.isEmpty( id ) ) {
+      // get the first transformation that matches...
+      //
+      entry = getTransformationMap().getFirstCarteObjectEntry( transName );
+      if ( entry == null ) {
+        trans = null;
+      } else {
+        id = entry.getId();
+        trans = getTransformationMap().getTransformation( entry );
+      }
+    } else {
+      // Take the ID into account!
+      //
+      entry = new CarteObjectEntry( transName, id );
+      trans = getTransformationMap().getTransformation( entry );
+    }
+
+    if ( trans == null ) {
+      response.setStatus( HttpServletResponse.SC_NOT_FOUND );
+      write( response, "{\"error\":" + JSONValue.toJSONString(
+        BaseMessages.getString( PKG, "TransStatusServlet.Log.CoundNotFindSpecTrans", transName ) ) + "}" );
+      return;
+    }
+
+    TransStatusTracker tracker = getTracker( trans );
+    long seenVersion = tracker.parseETag( request.getHeader( "If-None-Match" ) );
+    long version = tracker.refresh( trans );
+
+    if ( seenVersion == version && waitSeconds > 0 ) {
+      version = waitForChange( trans, tracker, seenVersion, waitSeconds * 1000L );
+    }
+
+    response.setHeader( "ETag", tracker.getETag( version ) );
+    response.setHeader( "Cache-Control", "no-cache" );
+    if ( seenVersion == version ) {
+      response.setStatus( HttpServletResponse.SC_NOT_MODIFIED );
+      return;
+    }
+
+    response.setStatus( HttpServletResponse.SC_OK );
+    write( response, tracker.getJSON( id, trans.getName(), delta ? seenVersion : -1 ) );
+  }
+
+  /**
+   * Long polling: the counters of the steps are not observable, so the (cheap) comparison is repeated at a short
+   * interval until something changed or the time is up. This holds the request thread, which is why the wait is
+   * limited to {@link #MAX_WAIT_SECONDS}.
+   */
+  private long waitForChange( Trans trans, TransStatusTracker tracker, long seenVersion, long timeoutMs ) {
+    long deadline = System.currentTimeMillis() + timeoutMs;
+    long version = seenVersion;
+    try {
+      while ( version == seenVersion && System.currentTimeMillis() < deadline ) {
+        Thread.sleep( POLL_INTERVAL_MS );
+        version = tracker.refresh( trans );
+      }
+    } catch ( InterruptedException e ) {
+      Thread.currentThread().interrupt();
+    }
+    return version;
+  }
+
+  @VisibleForTesting
+  TransStatusTracker getTracker( Trans trans ) {
+    synchronized ( trackers ) {
+      return trackers.computeIfAbsent( trans, t -> new TransStatusTracker() );
+    }
+  }
+
+  private void write( HttpServletResponse response, String json ) throws IOException {
+    byte[] data = json.getBytes( StandardCharsets.UTF_8 );
+    response.setContentLength( data.length );
+    OutputStream out = response.getOutputStream();
+    out.write( data );
+    out.flush();
+  }
+
+  public String toString() {
+    return "Trans Status JSON Handler";
+  }
+
+  public String getService() {
+    return CONTEXT_PATH + " (" + toString() + ")";
+  }
+
+  public String getContextPath() {
+    return CONTEXT_PATH;
+  }
+
+}
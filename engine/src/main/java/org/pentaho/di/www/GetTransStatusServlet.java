@@ -24,6 +24,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
 import com.google.common.annotations.VisibleForTesting;
+import org.apache.commons.lang3.mutable.MutableInt;
 import org.owasp.encoder.Encode;
 import org.pentaho.di.cluster.HttpUtil;
 import org.pentaho.di.core.Const;
@@ -51,6 +52,8 @@ public class GetTransStatusServlet extends BaseHttpServlet implements CartePlugi
 
   public static final String SEND_RESULT = "sendResult";
 
+  public static final String MAX_LOG_LINES = "maxLogLines";
+
   private static final byte[] XML_HEADER =
     XMLHandler.getXMLHeader( Const.XML_ENCODING ).getBytes( Charset.forName( Const.XML_ENCODING ) );
 
@@ -106,6 +109,12 @@ public class GetTransStatusServlet extends BaseHttpServlet implements CartePlugi
    <td>Start line number of the execution log to be included into response.</td>
    <td>integer, optional</td>
    </tr>
+   <tr>
+   <td>maxLogLines</td>
+   <td>Maximum number of log lines to include into response. When set, <code>last_log_line_nr</code> holds the
+   number of the last line returned so the next page can be requested with <code>from</code> set one higher.</td>
+   <td>integer, optional</td>
+   </tr>
    </tbody>
    </table>
 
@@ -208,6 +217,7 @@ public class GetTransStatusServlet extends BaseHttpServlet implements CartePlugi
     String prefix = isJettyMode() ? StatusServletUtils.STATIC_PATH : root + StatusServletUtils.RESOURCES_PATH;
     boolean useXML = "Y".equalsIgnoreCase( request.getParameter( "xml" ) );
     int startLineNr = Const.toInt( request.getParameter( "from" ), 0 );
+    int maxLogLines = Const.toInt( request.getParameter( MAX_LOG_LINES ), 0 );
 
     response.setStatus( HttpServletResponse.SC_OK );
 
@@ -249,7 +259,7 @@ public class GetTransStatusServlet extends BaseHttpServlet implements CartePlugi
           String logId = trans.getLogChannelId();
           boolean finishedOrStopped = trans.isFinishedOrStopped();
           boolean sendResultXmlWithStatus = "Y".equalsIgnoreCase( request.getParameter( SEND_RESULT ) );
-          boolean dontUseCache = sendResultXmlWithStatus;
+          boolean dontUseCache = sendResultXmlWithStatus || maxLogLines > 0;
           if ( finishedOrStopped && ( data = cache.get( logId, startLineNr ) ) != null && !dontUseCache ) {
             response.setContentLength( XML_HEADER.length + data.length );
             out = response.getOutputStream();
@@ -257,9 +267,16 @@ public class GetTransStatusServlet extends BaseHttpServlet implements CartePlugi
             out.write( data );
             out.flush();
           } else {
-            int lastLineNr = KettleLogStore.getLastBufferLineNr();
-
-            String logText = getLogText( trans, startLineNr, lastLineNr );
+            int lastLineNr;
+            String logText;
+            if ( maxLogLines > 0 ) {
+              MutableInt lastNr = new MutableInt( Math.max( 0, startLineNr - 1 ) );
+              logText = getLogTextAfter( trans, lastNr, maxLogLines );
+              lastLineNr = lastNr.intValue();
+            } else {
+              lastLineNr = KettleLogStore.getLastBufferLineNr();
+              logText = getLogText( trans, startLineNr, lastLineNr );
+            }
 
             response.setContentType( "text/xml" );
             response.setCharacterEncoding( Const.XML_ENCODING );
@@ -533,4 +550,13 @@ public class GetTransStatusServlet extends BaseHttpServlet implements CartePlugi
     }
   }
 
+  private String getLogTextAfter( Trans trans, MutableInt lastNr, int maxLogLines ) throws KettleException {
+    try {
+      return KettleLogStore.getAppender().getBufferAfter(
+        trans.getLogChannel().getLogChannelId(), false, lastNr, maxLogLines ).toString();
+    } catch ( OutOfMemoryError error ) {
+      throw new KettleException( "Log string is too long", error );
+    }
+  }
+
 }
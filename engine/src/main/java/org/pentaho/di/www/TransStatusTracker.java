@@ -0,0 +1,210 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.www;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.json.simple.JSONObject;
+import org.json.simple.JSONValue;
+import org.pentaho.di.trans.Trans;
+import org.pentaho.di.trans.step.BaseStepData.StepExecutionStatus;
+import org.pentaho.di.trans.step.StepInterface;
+
+/**
+ * Keeps the last known status of a running transformation for the compact status API. Every time something visible
+ * changes (transformation status or the counters of a step) the version number is increased. The JSON of a step is
+ * only rebuilt when its counters moved, and clients can ask for the steps that changed after a version they have
+ * seen.
+ * <p>
+ * The version is exposed as an entity tag which includes a tracker specific prefix, so that tags handed out before a
+ * Carte restart or for another transformation are never mistaken for a current one.
+ */
+public class TransStatusTracker {
+
+  private final String epoch = UUID.randomUUID().toString().substring( 0, 8 );
+
+  private long version;
+
+  /** The version at which steps were last removed: a delta against an older version has to be a full status **/
+  private long resetVersion;
+
+  private String status;
+  private boolean paused;
+  private boolean finished;
+  private int errors;
+
+  private final Map<String, StepEntry> steps = new LinkedHashMap<>();
+
+  private static class StepEntry {
+    private long[] counters;
+    private String statusDescription;
+    private long changedVersion;
+    private String json;
+  }
+
+  /**
+   * Compares the current state of the transformation with the last known one and updates the changed parts.
+   *
+   * @param trans the transformation to track
+   * @return the (possibly increased) version number
+   */
+  public synchronized long refresh( Trans trans ) {
+    boolean changed = false;
+
+    String newStatus = trans.getStatus();
+    boolean newPaused = trans.isPaused();
+    boolean newFinished = trans.isFinishedOrStopped();
+    int newErrors = trans.getErrors();
+    if ( !newStatus.equals( status ) || newPaused != paused || newFinished != finished || newErrors != errors ) {
+      status = newStatus;
+      paused = newPaused;
+      finished = newFinished;
+      errors = newErrors;
+      changed = true;
+    }
+
+    long newVersion = version + 1;
+    Set<String> seen = new HashSet<>();
+    for ( int i = 0; i < trans.nrSteps(); i++ ) {
+      StepInterface step = trans.getRunThread( i );
+      if ( step == null || ( !step.isRunning() && step.getStatus() == StepExecutionStatus.STATUS_EMPTY ) ) {
+        continue;
+      }
+      String key = step.getStepname() + "." + step.getCopy();
+      seen.add( key );
+
+      long[] counters = new long[] {
+        step.getLinesRead(), step.getLinesWritten(), step.getLinesInput(), step.getLinesOutput(),
+        step.getLinesUpdated(), step.getLinesRejected(), step.getErrors(), step.isStopped() ? 1 : 0,
+        step.isPaused() ? 1 : 0, };
+      String statusDescription = step.getStatus().getDescription();
+
+      StepEntry entry = steps.get( key );
+      if ( entry == null ) {
+        entry = new StepEntry();
+        steps.put( key, entry );
+      } else if ( Arrays.equals( entry.counters, counters ) && statusDescription.equals( entry.statusDescription ) ) {
+        continue;
+      }
+      entry.counters = counters;
+      entry.statusDescription = statusDescription;
+      entry.changedVersion = newVersion;
+      entry.json = getStepJSON( step.getStepname(), step.getCopy(), statusDescription, counters );
+      changed = true;
+    }
+
+    for ( Iterator<String> it = steps.keySet().iterator(); it.hasNext(); ) {
+      if ( !seen.contains( it.next() ) ) {
+        it.remove();
+        resetVersion = newVersion;
+        changed = true;
+      }
+    }
+
+    if ( changed ) {
+      version = newVersion;
+    }
+    return version;
+  }
+
+  /**
+   * @param sinceVersion the version the client has seen, -1 for a full status
+   * @return the status as JSON, with only the steps that changed after the given version if possible
+   */
+  public synchronized String getJSON( String id, String name, long sinceVersion ) {
+    boolean delta = sinceVersion >= 0 && sinceVersion >= resetVersion && sinceVersion <= version;
+
+    StringBuilder json = new StringBuilder( 128 + 256 * steps.size() );
+    json.append( "{\"id\":" ).append( JSONValue.toJSONString( id ) );
+    json.append( ",\"name\":" ).append( JSONValue.toJSONString( name ) );
+    json.append( ",\"status\":" ).append( JSONValue.toJSONString( status ) );
+    json.append( ",\"paused\":" ).append( paused );
+    json.append( ",\"finished\":" ).append( finished );
+    json.append( ",\"errors\":" ).append( errors );
+    json.append( ",\"version\":" ).append( version );
+    json.append( ",\"delta\":" ).append( delta );
+    json.append( ",\"steps\":[" );
+    boolean first = true;
+    for ( StepEntry entry : steps.values() ) {
+      if ( delta && entry.changedVersion <= sinceVersion ) {
+        continue;
+      }
+      if ( !first ) {
+        json.append( ',' );
+      }
+      json.append( entry.json );
+      first = false;
+    }
+    json.append( "]}" );
+    return json.toString();
+  }
+
+  public synchronized long getVersion() {
+    return version;
+  }
+
+  /**
+   * @return the entity tag for the given version
+   */
+  public String getETag( long version ) {
+    return "\"" + epoch + "-" + version + "\"";
+  }
+
+  /**
+   * @param eTag the value of an If-None-Match header, may be null
+   * @return the version encoded in the tag, or -1 if it's not a tag handed out by this tracker
+   */
+  public long parseETag( String eTag ) {
+    if ( eTag == null ) {
+      return -1;
+    }
+    String tag = eTag.trim();
+    if ( tag.startsWith( "W/" ) ) {
+      tag = tag.substring( 2 );
+    }
+    String prefix = "\"" + epoch + "-";
+    if ( !tag.startsWith( prefix ) || !tag.endsWith( "\"" ) || tag.length() <= prefix.length() + 1 ) {
+      return -1;
+    }
+    try {
+      return Long.parseLong( tag.substring( prefix.length(), tag.length() - 1 ) );
+    } catch ( NumberFormatException e ) {
+      return -1;
+    }
+  }
+
+  @SuppressWarnings( "unchecked" )
+  private static String getStepJSON( String stepname, int copy, String statusDescription, long[] counters ) {
+    JSONObject step = new JSONObject();
+    step.put( "name", stepname );
+    step.put( "copy", copy );
+    step.put( "status", statusDescription );
+    step.put( "read", counters[0] );
+    step.put( "written", counters[1] );
+    step.put( "input", counters[2] );
+    step.put( "output", counters[3] );
+    step.put( "updated", counters[4] );
+    step.put( "rejected", counters[5] );
+    step.put( "errors", counters[6] );
+    step.put( "stopped", counters[7] != 0 );
+    step.put( "paused", counters[8] != 0 );
+    return step.toJSONString();
+  }
+}
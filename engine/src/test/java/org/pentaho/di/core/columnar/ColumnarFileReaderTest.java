@@ -0,0 +1,321 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.core.columnar;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class ColumnarFileReaderTest {
+
+  private static final int ROWS = 2500;
+
+  @Test
+  public void testRoundTrip() throws IOException {
+    for ( boolean deflate : new boolean[] { false, true } ) {
+      Object[][] rows = createRows( new Random( 1 ) );
+      byte[] file = write( rows, 1000, deflate );
+
+      ColumnarFileReader reader = new ColumnarFileReader( source( file ) );
+      assertEquals( 6, reader.getColumnCount() );
+      assertEquals( "id", reader.getColumnName( 0 ) );
+      assertEquals( ColumnarFormat.KIND_BYTES, reader.getColumnKind( 3 ) );
+      assertEquals( 2, reader.getColumnType( 3 ) );
+      assertEquals( 20, reader.getColumnLength( 3 ) );
+      assertEquals( 3, reader.getRowGroupCount() );
+      assertEquals( 500, reader.getRowCount( 2 ) );
+
+      assertRowsEqual( rows, readAll( reader, new int[] { 0, 1, 2, 3, 4, 5 } ), new int[] { 0, 1, 2, 3, 4, 5 } );
+      reader.close();
+    }
+  }
+
+  @Test
+  public void testReadsOnlyTheProjectedColumns() throws IOException {
+    Object[][] rows = createRows( new Random( 2 ) );
+    byte[] file = write( rows, 700, true );
+
+    int[] opened = new int[ 1 ];
+    long[] read = new long[ 1 ];
+    ColumnarFileReader reader = new ColumnarFileReader( new ColumnarFileReader.Source() {
+      @Override
+      public long getSize() {
+        return file.length;
+      }
+
+      @Override
+      public InputStream open() {
+        opened[ 0 ]++;
+        return new ByteArrayInputStream( file ) {
+          @Override
+          public synchronized int read( byte[] b, int off, int len ) {
+            int n = super.read( b, off, len );
+            read[ 0 ] += Math.max( 0, n );
+            return n;
+          }
+        };
+      }
+    } );
+    opened[ 0 ] = 0;
+    read[ 0 ] = 0;
+
+    // Out of order and only two columns
+    int[] columns = { 4, 1 };
+    assertRowsEqual( rows, readAll( reader, columns ), columns );
+    assertEquals( 1, opened[ 0 ] );
+    long projected = 0;
+    for ( int group = 0; group < reader.getRowGroupCount(); group++ ) {
+      projected += chunkLength( reader, group, 4 ) + chunkLength( reader, group, 1 );
+    }
+    assertEquals( projected, read[ 0 ] );
+    assertTrue( read[ 0 ] < file.length / 2 );
+
+    // Going back reopens the file
+    reader.readRowGroup( 0, columns );
+    assertEquals( 2, opened[ 0 ] );
+    reader.close();
+  }
+
+  @Test
+  public void testStatistics() throws IOException {
+    Object[][] rows = createRows( new Random( 3 ) );
+    ColumnarFileReader reader = new ColumnarFileReader( source( write( rows, ROWS, false ) ) );
+
+    long minId = Long.MAX_VALUE;
+    long maxId = Long.MIN_VALUE;
+    long nullAmounts = 0;
+    double minAmount = Double.MAX_VALUE;
+    for ( Object[] row : rows ) {
+      minId = Math.min( minId, (Long) row[ 0 ] );
+      maxId = Math.max( maxId, (Long) row[ 0 ] );
+      if ( row[ 2 ] == null ) {
+        nullAmounts++;
+      } else {
+        minAmount = Math.min( minAmount, (Double) row[ 2 ] );
+      }
+    }
+    ColumnStatistics ids = reader.getStatistics( 0, 0 );
+    assertTrue( ids.hasMinMax() );
+    assertEquals( minId, ids.getMinLong() );
+    assertEquals( maxId, ids.getMaxLong() );
+    assertEquals( 0, ids.getNullCount() );
+
+    ColumnStatistics amounts = reader.getStatistics( 0, 2 );
+    assertEquals( nullAmounts, amounts.getNullCount() );
+    assertEquals( minAmount, amounts.getMinDouble(), 0.0 );
+
+    ColumnStatistics countries = reader.getStatistics( 0, 3 );
+    assertArrayEquals( "AT".getBytes( StandardCharsets.UTF_8 ), countries.getMinBytes() );
+    assertArrayEquals( "US".getBytes( StandardCharsets.UTF_8 ), countries.getMaxBytes() );
+
+    // Only nulls
+    assertFalse( reader.getStatistics( 0, 5 ).hasMinMax() );
+    assertEquals( ROWS, reader.getStatistics( 0, 5 ).getNullCount() );
+    reader.close();
+  }
+
+  @Test
+  public void testBigNumberStatisticsCompareNumerically() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    ColumnarFileWriter writer = new ColumnarFileWriter( out, 100, false );
+    writer.addColumn( "amount", ColumnarFormat.KIND_BYTES, 6, 20, 2 );
+    for ( String amount : new String[] { "9", "10.50", "-2", "-10", "100" } ) {
+      writer.setBigNumber( 0, new BigDecimal( amount ) );
+      writer.endRow();
+    }
+    writer.close();
+
+    ColumnarFileReader reader = new ColumnarFileReader( source( out.toByteArray() ) );
+    ColumnStatistics amounts = reader.getStatistics( 0, 0 );
+    assertTrue( amounts.hasMinMax() );
+    assertArrayEquals( "-10".getBytes( StandardCharsets.UTF_8 ), amounts.getMinBytes() );
+    assertArrayEquals( "100".getBytes( StandardCharsets.UTF_8 ), amounts.getMaxBytes() );
+    assertEquals( "10.50", new String( reader.readRowGroup( 0, new int[] { 0 } )[ 0 ].getBytes( 1 ),
+      StandardCharsets.UTF_8 ) );
+    reader.close();
+  }
+
+  @Test
+  public void testEncodingsAreSmall() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    ColumnarFileWriter writer = new ColumnarFileWriter( out, 100000, false );
+    writer.addColumn( "sequence", ColumnarFormat.KIND_LONG, 5, -1, -1 );
+    writer.addColumn( "status", ColumnarFormat.KIND_BYTES, 2, -1, -1 );
+    String[] statuses = { "OPEN", "CLOSED", "PENDING" };
+    for ( int i = 0; i < 100000; i++ ) {
+      writer.setLong( 0, 1000000L + i );
+      writer.setBytes( 1, statuses[ i % 3 ].getBytes( StandardCharsets.UTF_8 ) );
+      writer.endRow();
+    }
+    writer.close();
+
+    ColumnarFileReader reader = new ColumnarFileReader( source( out.toByteArray() ) );
+    // 17 bits per sequence number against 8 bytes, 2 bits per status against 5 bytes and more
+    assertTrue( chunkLength( reader, 0, 0 ) < 100000 * 17 / 8 + 100 );
+    assertTrue( chunkLength( reader, 0, 1 ) < 100000 * 2 / 8 + 100 );
+    ColumnVector[] vectors = reader.readRowGroup( 0, new int[] { 0, 1 } );
+    assertEquals( 1099999L, vectors[ 0 ].getLong( 99999 ) );
+    assertEquals( "PENDING", new String( vectors[ 1 ].getBytes( 99998 ), StandardCharsets.UTF_8 ) );
+    reader.close();
+  }
+
+  @Test
+  public void testEmptyFile() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    ColumnarFileWriter writer = new ColumnarFileWriter( out, 10, true );
+    writer.addColumn( "a", ColumnarFormat.KIND_LONG, 5, -1, -1 );
+    writer.close();
+
+    ColumnarFileReader reader = new ColumnarFileReader( source( out.toByteArray() ) );
+    assertEquals( 1, reader.getColumnCount() );
+    assertEquals( 0, reader.getRowGroupCount() );
+  }
+
+  @Test
+  public void testNotAColumnarFile() {
+    try {
+      new ColumnarFileReader( source( "id;name\n1;one\n".getBytes( StandardCharsets.UTF_8 ) ) );
+      fail( "A text file is not a columnar file" );
+    } catch ( IOException e ) {
+      // expected
+    }
+  }
+
+  /**
+   * Rows of a long id, a small integer, a double with nulls, a country code, a binary with nulls and a null column.
+   */
+  private static Object[][] createRows( Random random ) {
+    String[] countries = { "BE", "NL", "US", "AT", "DE", "FR" };
+    Object[][] rows = new Object[ ROWS ][];
+    for ( int i = 0; i < ROWS; i++ ) {
+      byte[] binary = null;
+      if ( random.nextInt( 4 ) > 0 ) {
+        binary = new byte[ random.nextInt( 30 ) ];
+        random.nextBytes( binary );
+      }
+      rows[ i ] = new Object[] {
+        random.nextLong(),
+        (long) random.nextInt( 100 ) - 50,
+        random.nextInt( 5 ) == 0 ? null : random.nextDouble() * 1000,
+        countries[ random.nextInt( countries.length ) ],
+        binary,
+        null };
+    }
+    return rows;
+  }
+
+  private static byte[] write( Object[][] rows, int rowGroupSize, boolean deflate ) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    ColumnarFileWriter writer = new ColumnarFileWriter( out, rowGroupSize, deflate );
+    writer.addColumn( "id", ColumnarFormat.KIND_LONG, 5, -1, -1 );
+    writer.addColumn( "small", ColumnarFormat.KIND_LONG, 5, 3, 0 );
+    writer.addColumn( "amount", ColumnarFormat.KIND_DOUBLE, 1, 10, 2 );
+    writer.addColumn( "country", ColumnarFormat.KIND_BYTES, 2, 20, -1 );
+    writer.addColumn( "data", ColumnarFormat.KIND_BYTES, 8, -1, -1 );
+    writer.addColumn( "nothing", ColumnarFormat.KIND_LONG, 5, -1, -1 );
+    for ( Object[] row : rows ) {
+      writer.setLong( 0, (Long) row[ 0 ] );
+      writer.setLong( 1, (Long) row[ 1 ] );
+      if ( row[ 2 ] != null ) {
+        writer.setDouble( 2, (Double) row[ 2 ] );
+      }
+      writer.setBytes( 3, ( (String) row[ 3 ] ).getBytes( StandardCharsets.UTF_8 ) );
+      writer.setBytes( 4, (byte[]) row[ 4 ] );
+      writer.endRow();
+    }
+    assertEquals( rows.length, writer.getRowCount() );
+    writer.close();
+    return out.toByteArray();
+  }
+
+  private static Object[][] readAll( ColumnarFileReader reader, int[] columns ) throws IOException {
+    Object[][] rows = new Object[ ROWS ][];
+    int next = 0;
+    for ( int group = 0; group < reader.getRowGroupCount(); group++ ) {
+      ColumnVector[] vectors = reader.readRowGroup( group, columns );
+      for ( int row = 0; row < reader.getRowCount( group ); row++ ) {
+        Object[] values = new Object[ columns.length ];
+        for ( int i = 0; i < columns.length; i++ ) {
+          ColumnVector vector = vectors[ i ];
+          if ( vector.isNull( row ) ) {
+            continue;
+          }
+          switch ( vector.getKind() ) {
+            case ColumnarFormat.KIND_LONG:
+              values[ i ] = vector.getLong( row );
+              break;
+            case ColumnarFormat.KIND_DOUBLE:
+              values[ i ] = vector.getDouble( row );
+              break;
+            default:
+              values[ i ] = vector.getBytes( row );
+              break;
+          }
+        }
+        rows[ next++ ] = values;
+      }
+    }
+    assertEquals( ROWS, next );
+    return rows;
+  }
+
+  private static void assertRowsEqual( Object[][] expected, Object[][] actual, int[] columns ) {
+    for ( int row = 0; row < expected.length; row++ ) {
+      for ( int i = 0; i < columns.length; i++ ) {
+        Object value = expected[ row ][ columns[ i ] ];
+        if ( value instanceof String ) {
+          value = ( (String) value ).getBytes( StandardCharsets.UTF_8 );
+        }
+        if ( value == null ) {
+          assertNull( actual[ row ][ i ] );
+        } else if ( value instanceof byte[] ) {
+          assertArrayEquals( (byte[]) value, (byte[]) actual[ row ][ i ] );
+        } else {
+          assertEquals( value, actual[ row ][ i ] );
+        }
+      }
+    }
+  }
+
+  private static long chunkLength( ColumnarFileReader reader, int group, int column ) {
+    return reader.getChunkLength( group, column );
+  }
+
+  private static ColumnarFileReader.Source source( byte[] file ) {
+    return new ColumnarFileReader.Source() {
+      @Override
+      public long getSize() {
+        return file.length;
+      }
+
+      @Override
+      public InputStream open() {
+        return new ByteArrayInputStream( file );
+      }
+    };
+  }
+}
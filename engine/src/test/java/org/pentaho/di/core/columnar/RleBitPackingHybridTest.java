@@ -0,0 +1,77 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.core.columnar;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class RleBitPackingHybridTest {
+
+  @Test
+  public void testRoundTripAllWidths() throws IOException {
+    Random random = new Random( 1 );
+    for ( int width = 0; width <= 64; width++ ) {
+      for ( int count : new int[] { 0, 1, 7, 8, 9, 100, 1001 } ) {
+        long[] values = new long[ count ];
+        for ( int i = 0; i < count; i++ ) {
+          // Mix runs with random values
+          if ( i > 0 && random.nextInt( 3 ) == 0 ) {
+            values[ i ] = values[ i - 1 ];
+          } else {
+            values[ i ] = width == 64 ? random.nextLong() : random.nextLong() & ( ( 1L << width ) - 1 );
+          }
+        }
+        assertArrayEquals( "width " + width + ", count " + count, values, roundTrip( values, width ) );
+      }
+    }
+  }
+
+  @Test
+  public void testRunsAreSmall() throws IOException {
+    long[] values = new long[ 100000 ];
+    for ( int i = 0; i < values.length; i++ ) {
+      values[ i ] = i / 10000;
+    }
+    ColumnarOutputBuffer out = new ColumnarOutputBuffer();
+    RleBitPackingHybrid.encode( values, values.length, 4, out );
+    // 10 repeated runs of a header and one byte
+    assertTrue( out.size() < 50 );
+    assertArrayEquals( values, roundTrip( values, 4 ) );
+  }
+
+  @Test
+  public void testBitWidth() {
+    assertEquals( 0, RleBitPackingHybrid.bitWidth( 0 ) );
+    assertEquals( 1, RleBitPackingHybrid.bitWidth( 1 ) );
+    assertEquals( 8, RleBitPackingHybrid.bitWidth( 255 ) );
+    assertEquals( 9, RleBitPackingHybrid.bitWidth( 256 ) );
+    assertEquals( 64, RleBitPackingHybrid.bitWidth( -1L ) );
+  }
+
+  private static long[] roundTrip( long[] values, int width ) throws IOException {
+    ColumnarOutputBuffer out = new ColumnarOutputBuffer();
+    RleBitPackingHybrid.encode( values, values.length, width, out );
+    ColumnarInputBuffer in = new ColumnarInputBuffer( out.toByteArray() );
+    long[] decoded = new long[ values.length ];
+    RleBitPackingHybrid.decode( in, width, decoded, values.length );
+    assertEquals( 0, in.remaining() );
+    return decoded;
+  }
+}
@@ -0,0 +1,105 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.core.compress;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+public class ReadAheadInputStreamTest {
+
+  @Test
+  public void testReadsEverything() throws IOException {
+    Random random = new Random( 1 );
+    byte[] data = new byte[ 100000 ];
+    random.nextBytes( data );
+
+    try ( ReadAheadInputStream in = new ReadAheadInputStream( new ByteArrayInputStream( data ), 1000, 3 ) ) {
+      ByteArrayOutputStream result = new ByteArrayOutputStream();
+      byte[] buffer = new byte[ 3000 ];
+      while ( true ) {
+        if ( random.nextBoolean() ) {
+          int b = in.read();
+          if ( b < 0 ) {
+            break;
+          }
+          result.write( b );
+        } else {
+          int n = in.read( buffer, 0, 1 + random.nextInt( buffer.length ) );
+          if ( n < 0 ) {
+            break;
+          }
+          result.write( buffer, 0, n );
+        }
+      }
+      assertArrayEquals( data, result.toByteArray() );
+      assertEquals( -1, in.read() );
+    }
+  }
+
+  @Test
+  public void testPassesOnErrors() throws IOException {
+    InputStream failing = new InputStream() {
+      private int count;
+
+      @Override
+      public int read() throws IOException {
+        if ( count++ >= 10 ) {
+          throw new IOException( "Broken" );
+        }
+        return 'x';
+      }
+    };
+    try ( ReadAheadInputStream in = new ReadAheadInputStream( failing, 4, 2 ) ) {
+      for ( int i = 0; i < 8; i++ ) {
+        assertEquals( 'x', in.read() );
+      }
+      in.read();
+      in.read();
+      fail( "The error should reach the reader" );
+    } catch ( IOException e ) {
+      assertEquals( "Broken", e.getMessage() );
+    }
+  }
+
+  @Test
+  public void testCloseStopsReadingAhead() throws IOException {
+    AtomicBoolean closed = new AtomicBoolean();
+    InputStream endless = new InputStream() {
+      @Override
+      public int read() {
+        return 'y';
+      }
+
+      @Override
+      public void close() {
+        closed.set( true );
+      }
+    };
+    ReadAheadInputStream in = new ReadAheadInputStream( endless, 16, 2 );
+    assertEquals( 'y', in.read() );
+    in.close();
+    assertTrue( closed.get() );
+  }
+}
@@ -0,0 +1,178 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.core.compress.gzip;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+
+import org.junit.Test;
+
+public class ParallelGZIPCompressionInputStreamTest {
+
+  @Test
+  public void testReadsBlockCompressedFile() throws IOException {
+    byte[] data = createData( 1, 300000 );
+    byte[] bgzf = createBlockCompressed( data, 20000 );
+    assertTrue( ParallelGZIPCompressionInputStream.isBlockHeader( bgzf ) );
+
+    for ( int threads = 1; threads <= 8; threads *= 2 ) {
+      assertArrayEquals( data, readAll( bgzf, threads, new Random( threads ) ) );
+    }
+  }
+
+  @Test
+  public void testReadsPlainAndMultiMemberGZIP() throws IOException {
+    byte[] data = createData( 2, 100000 );
+    byte[] gzip = gzip( data );
+    assertFalse( ParallelGZIPCompressionInputStream.isBlockHeader( gzip ) );
+    assertArrayEquals( data, readAll( gzip, 4, new Random( 1 ) ) );
+
+    ByteArrayOutputStream multiMember = new ByteArrayOutputStream();
+    ParallelGZIPCompressionOutputStream out =
+      new ParallelGZIPCompressionOutputStream( multiMember, new GZIPCompressionProvider(), 4, 4096 );
+    out.write( data );
+    out.close();
+    assertArrayEquals( data, readAll( multiMember.toByteArray(), 4, new Random( 2 ) ) );
+  }
+
+  @Test
+  public void testPlainMembersAfterBlocks() throws IOException {
+    byte[] first = createData( 3, 50000 );
+    byte[] second = createData( 4, 50000 );
+    ByteArrayOutputStream file = new ByteArrayOutputStream();
+    file.write( createBlockCompressed( first, 8000 ) );
+    file.write( gzip( second ) );
+
+    byte[] expected = new byte[ first.length + second.length ];
+    System.arraycopy( first, 0, expected, 0, first.length );
+    System.arraycopy( second, 0, expected, first.length, second.length );
+    assertArrayEquals( expected, readAll( file.toByteArray(), 3, new Random( 3 ) ) );
+  }
+
+  @Test
+  public void testEmptyFile() throws IOException {
+    assertEquals( 0, readAll( createBlockCompressed( new byte[ 0 ], 1000 ), 2, new Random( 4 ) ).length );
+    assertEquals( 0, readAll( new byte[ 0 ], 2, new Random( 4 ) ).length );
+  }
+
+  @Test
+  public void testCorruptBlock() throws IOException {
+    byte[] bgzf = createBlockCompressed( createData( 5, 10000 ), 4000 );
+    // Flip a bit in the CRC of the first block
+    int blockSize = ( ( bgzf[ 16 ] & 0xFF ) | ( bgzf[ 17 ] & 0xFF ) << 8 ) + 1;
+    bgzf[ blockSize - 8 ] ^= 1;
+    try {
+      readAll( bgzf, 2, new Random( 5 ) );
+      fail( "A corrupt block should not be read" );
+    } catch ( ZipException e ) {
+      // expected
+    }
+  }
+
+  private static byte[] readAll( byte[] compressed, int threads, Random random ) throws IOException {
+    ByteArrayOutputStream result = new ByteArrayOutputStream();
+    try ( ParallelGZIPCompressionInputStream in = new ParallelGZIPCompressionInputStream(
+      new ByteArrayInputStream( compressed ), new GZIPCompressionProvider(), threads ) ) {
+      byte[] buffer = new byte[ 5000 ];
+      while ( true ) {
+        if ( random.nextInt( 10 ) == 0 ) {
+          int b = in.read();
+          if ( b < 0 ) {
+            break;
+          }
+          result.write( b );
+        } else {
+          int n = in.read( buffer, 0, 1 + random.nextInt( buffer.length ) );
+          if ( n < 0 ) {
+            break;
+          }
+          result.write( buffer, 0, n );
+        }
+      }
+    }
+    return result.toByteArray();
+  }
+
+  private static byte[] createData( int seed, int length ) {
+    Random random = new Random( seed );
+    byte[] data = new byte[ length ];
+    for ( int i = 0; i < length; i++ ) {
+      data[ i ] = (byte) ( 'a' + random.nextInt( 8 ) );
+    }
+    return data;
+  }
+
+  private static byte[] gzip( byte[] data ) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try ( GZIPOutputStream gzip = new GZIPOutputStream( out ) ) {
+      gzip.write( data );
+    }
+    return out.toByteArray();
+  }
+
+  /**
+   * Writes the data as BGZF blocks of the given size, followed by the empty end of file block.
+   */
+  private static byte[] createBlockCompressed( byte[] data, int blockSize ) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for ( int offset = 0; offset < data.length; offset += blockSize ) {
+      writeBlock( out, data, offset, Math.min( blockSize, data.length - offset ) );
+    }
+    writeBlock( out, data, 0, 0 );
+    return out.toByteArray();
+  }
+
+  private static void writeBlock( ByteArrayOutputStream out, byte[] data, int offset, int length ) {
+    Deflater deflater = new Deflater( Deflater.DEFAULT_COMPRESSION, true );
+    deflater.setInput( data, offset, length );
+    deflater.finish();
+    byte[] deflated = new byte[ length + 1024 ];
+    int deflatedLength = 0;
+    while ( !deflater.finished() ) {
+      deflatedLength += deflater.deflate( deflated, deflatedLength, deflated.length - deflatedLength );
+    }
+    deflater.end();
+
+    CRC32 crc = new CRC32();
+    crc.update( data, offset, length );
+    int blockSize = 18 + deflatedLength + 8;
+    out.write( new byte[] { 0x1F, (byte) 0x8B, 8, 4, 0, 0, 0, 0, 0, (byte) 0xFF, 6, 0, 'B', 'C', 2, 0 }, 0, 16 );
+    writeShort( out, blockSize - 1 );
+    out.write( deflated, 0, deflatedLength );
+    writeInt( out, (int) crc.getValue() );
+    writeInt( out, length );
+  }
+
+  private static void writeShort( ByteArrayOutputStream out, int value ) {
+    out.write( value & 0xFF );
+    out.write( ( value >> 8 ) & 0xFF );
+  }
+
+  private static void writeInt( ByteArrayOutputStream out, int value ) {
+    writeShort( out, value );
+    writeShort( out, value >>> 16 );
+  }
+}
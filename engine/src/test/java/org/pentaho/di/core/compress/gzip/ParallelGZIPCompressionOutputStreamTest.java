@@ -0,0 +1,72 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.core.compress.gzip;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+public class ParallelGZIPCompressionOutputStreamTest {
+
+  @Test
+  public void testRoundTrip() throws IOException {
+    Random random = new Random( 1 );
+    byte[] data = new byte[ 100000 ];
+    for ( int i = 0; i < data.length; i++ ) {
+      data[ i ] = (byte) ( 'a' + random.nextInt( 5 ) );
+    }
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    ParallelGZIPCompressionOutputStream gzip =
+      new ParallelGZIPCompressionOutputStream( out, new GZIPCompressionProvider(), 4, 1024 );
+    int offset = 0;
+    while ( offset < data.length ) {
+      int length = Math.min( data.length - offset, 1 + random.nextInt( 3000 ) );
+      gzip.write( data, offset, length );
+      offset += length;
+      if ( random.nextInt( 10 ) == 0 ) {
+        gzip.flush();
+      }
+    }
+    gzip.write( 'z' );
+    gzip.close();
+    gzip.close();
+
+    byte[] expected = new byte[ data.length + 1 ];
+    System.arraycopy( data, 0, expected, 0, data.length );
+    expected[ data.length ] = 'z';
+    assertArrayEquals( expected, gunzip( out.toByteArray() ) );
+  }
+
+  @Test
+  public void testEmptyStreamIsValidGZIP() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    new ParallelGZIPCompressionOutputStream( out, new GZIPCompressionProvider(), 2, 1024 ).close();
+    assertEquals( 0, gunzip( out.toByteArray() ).length );
+  }
+
+  private static byte[] gunzip( byte[] compressed ) throws IOException {
+    try ( GZIPInputStream in = new GZIPInputStream( new ByteArrayInputStream( compressed ) ) ) {
+      return IOUtils.toByteArray( in );
+    }
+  }
+}
@@ -0,0 +1,73 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.core.logging;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class AsyncLogTableWriterTest {
+
+  @Test
+  public void testWritesAreExecutedInOrderBeforeFlushReturns() throws Exception {
+    AsyncLogTableWriter writer = new AsyncLogTableWriter( 10 );
+    List<String> written = new CopyOnWriteArrayList<>();
+    writer.submit( "db", "trans1", "interval", false, () -> written.add( "a" ) );
+    writer.submit( "db", "trans2", "interval", false, () -> written.add( "b" ) );
+    writer.flush( "db" );
+    assertEquals( 2, written.size() );
+    assertEquals( "a", written.get( 0 ) );
+    assertEquals( "b", written.get( 1 ) );
+  }
+
+  @Test
+  public void testQueuedWriteIsReplacedAndDetailIsDroppedWhenFull() throws Exception {
+    AsyncLogTableWriter writer = new AsyncLogTableWriter( 1 );
+    List<String> written = new CopyOnWriteArrayList<>();
+
+    // Keep the worker busy so that the next writes stay in the queue
+    CountDownLatch started = new CountDownLatch( 1 );
+    CountDownLatch release = new CountDownLatch( 1 );
+    writer.submit( "db", "blocker", "interval", false, () -> {
+      started.countDown();
+      try {
+        release.await();
+      } catch ( InterruptedException e ) {
+        Thread.currentThread().interrupt();
+      }
+    } );
+    started.await();
+
+    assertTrue( writer.submit( "db", "trans", "interval", false, () -> written.add( "old" ) ) );
+    assertTrue( writer.submit( "db", "trans", "interval", false, () -> written.add( "new" ) ) );
+    assertFalse( writer.submit( "db", "trans", "performance", true, () -> written.add( "detail" ) ) );
+    assertEquals( 1, writer.getDroppedWrites() );
+
+    release.countDown();
+    writer.flush( "db" );
+    assertEquals( 1, written.size() );
+    assertEquals( "new", written.get( 0 ) );
+  }
+
+  @Test
+  public void testFlushOfUnknownConnectionReturns() throws Exception {
+    new AsyncLogTableWriter( 10 ).flush( "unknown" );
+  }
+}
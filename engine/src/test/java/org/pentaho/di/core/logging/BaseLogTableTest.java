@@ -21,8 +21,6 @@ import org.springframework.util.ReflectionUtils;
 
 import java.lang.reflect.Field;
 import java.util.List;
-import java.util.concurrent.ConcurrentSkipListMap;
-import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
@@ -54,20 +52,11 @@ public class BaseLogTableTest {
       privateLoggingRegistryField.setAccessible( true );
       ReflectionUtils.setField( privateLoggingRegistryField, lb, lr );
 
-      ConcurrentSkipListMap<Integer, BufferLine> bl = new ConcurrentSkipListMap<>();
-      Field privateLBufferField = LoggingBuffer.class.getDeclaredField( "buffer" );
-      privateLBufferField.setAccessible( true );
-      ReflectionUtils.setField( privateLBufferField, lb, bl );
-
       KettleLoggingEvent kLE1 = spy( KettleLoggingEvent.class );
       LogMessage lm = new LogMessage( "First Job Execution Logging Event", "1", LogLevel.BASIC );
       kLE1.setMessage( lm );
-      BufferLine firstBufferLine = new BufferLine( kLE1 );
-      Field bufferSequenceNum = BufferLine.class.getDeclaredField( "sequence" );
-      ReflectionUtils.makeAccessible( bufferSequenceNum );
-      int startingBufferSequence =
-        ( (AtomicInteger) ReflectionUtils.getField( bufferSequenceNum, firstBufferLine ) ).intValue();
-      addToBuffer( bl, firstBufferLine );
+      lb.doAppend( kLE1 );
+      int startingBufferSequence = lb.getLastBufferLineNr();
 
       VariableSpace vs = mock( VariableSpace.class );
 
@@ -79,7 +68,7 @@ public class BaseLogTableTest {
       KettleLoggingEvent kLE2 = spy( KettleLoggingEvent.class );
       LogMessage lm2 = new LogMessage( "Second Job Execution Logging Event", "1", LogLevel.BASIC );
       kLE2.setMessage( lm2 );
-      addToBuffer( bl, new BufferLine( kLE2 ) );
+      lb.doAppend( kLE2 );
 
       String s2 = baseLogTable.getLogBuffer( vs, "1", LogStatus.START, "", startingBufferSequence + 1 );
       assertFalse( s2.contains( "First Job Execution Logging Event" ) );
@@ -87,10 +76,6 @@ public class BaseLogTableTest {
     }
   }
 
-  private void addToBuffer( ConcurrentSkipListMap bl, BufferLine bufferLine ) {
-    bl.put( bufferLine.getNr(), bufferLine );
-  }
-
   // this may not be essential but it's easier to debug than a mocked abstract class
   class BaseLogTableTestImpl extends BaseLogTable {
 
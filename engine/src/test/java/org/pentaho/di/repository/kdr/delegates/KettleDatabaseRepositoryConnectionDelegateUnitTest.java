@@ -14,24 +14,34 @@
 package org.pentaho.di.repository.kdr.delegates;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import java.sql.ResultSet;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
 
 import org.junit.Before;
 import org.junit.Test;
 import org.pentaho.di.core.ProgressMonitorListener;
+import org.pentaho.di.core.RowMetaAndData;
 import org.pentaho.di.core.database.Database;
 import org.pentaho.di.core.database.DatabaseMeta;
 import org.pentaho.di.core.exception.KettleException;
+import org.pentaho.di.core.row.RowMeta;
 import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.di.core.row.value.ValueMetaInteger;
+import org.pentaho.di.core.row.value.ValueMetaString;
 import org.pentaho.di.repository.LongObjectId;
 import org.pentaho.di.repository.kdr.KettleDatabaseRepository;
 
@@ -85,4 +95,65 @@ public class KettleDatabaseRepositoryConnectionDelegateUnitTest {
     assertEquals( 1, valueToIdMap.size() );
     assertEquals( longObjectId, valueToIdMap.get( lookupfield ) );
   }
+
+  @Test
+  public void testGetStepAttributesBufferOfOneStep() throws Exception {
+    RowMetaInterface rowMeta = new RowMeta();
+    rowMeta.addValueMeta( new ValueMetaInteger( KettleDatabaseRepository.FIELD_STEP_ATTRIBUTE_ID_STEP ) );
+    rowMeta.addValueMeta( new ValueMetaString( KettleDatabaseRepository.FIELD_STEP_ATTRIBUTE_CODE ) );
+    List<Object[]> rows = Arrays.asList(
+      new Object[] { 1L, "a" }, new Object[] { 3L, "a" }, new Object[] { 3L, "b" }, new Object[] { 3L, "c" },
+      new Object[] { 7L, "a" } );
+    KettleDatabaseRepositoryTransBuffer transBuffer =
+      new KettleDatabaseRepositoryTransBuffer( new LongObjectId( 9 ), null );
+    transBuffer.setStepAttributes( rows, rowMeta );
+    KettleDatabaseRepositoryConnectionDelegate delegate = kettleDatabaseRepositoryConnectionDelegate;
+    delegate.setTransBuffer( transBuffer );
+
+    assertEquals( rows.subList( 1, 4 ), delegate.getStepAttributesBuffer( new LongObjectId( 3 ) ) );
+    assertEquals( rows.subList( 4, 5 ), delegate.getStepAttributesBuffer( new LongObjectId( 7 ) ) );
+    assertTrue( delegate.getStepAttributesBuffer( new LongObjectId( 2 ) ).isEmpty() );
+    assertTrue( delegate.getStepAttributesBuffer( new LongObjectId( 8 ) ).isEmpty() );
+
+    delegate.setTransBuffer( null );
+    assertNull( delegate.getStepAttributesBuffer() );
+  }
+
+  @Test
+  public void testLookupsUseTransBuffer() throws Exception {
+    RowMetaInterface stepMeta = new RowMeta();
+    stepMeta.addValueMeta( new ValueMetaInteger( KettleDatabaseRepository.FIELD_STEP_ID_STEP ) );
+    stepMeta.addValueMeta( new ValueMetaString( KettleDatabaseRepository.FIELD_STEP_NAME ) );
+    RowMetaAndData step = new RowMetaAndData( stepMeta, 5L, "step" );
+
+    RowMetaInterface attributeMeta = new RowMeta();
+    attributeMeta.addValueMeta( new ValueMetaInteger( KettleDatabaseRepository.FIELD_TRANS_ATTRIBUTE_NR ) );
+    attributeMeta.addValueMeta( new ValueMetaString( KettleDatabaseRepository.FIELD_TRANS_ATTRIBUTE_CODE ) );
+    attributeMeta.addValueMeta( new ValueMetaString( KettleDatabaseRepository.FIELD_TRANS_ATTRIBUTE_VALUE_STR ) );
+
+    KettleDatabaseRepositoryTransBuffer transBuffer =
+      new KettleDatabaseRepositoryTransBuffer( new LongObjectId( 9 ), new Date() );
+    transBuffer.addRows( KettleDatabaseRepository.TABLE_R_STEP, KettleDatabaseRepository.FIELD_STEP_ID_STEP,
+      Collections.singletonList( step ) );
+    transBuffer.addTransAttributes( Arrays.asList(
+      new RowMetaAndData( attributeMeta, 0L, "SIZE_ROWSET", "100" ),
+      new RowMetaAndData( attributeMeta, 0L, "SIZE_ROWSET", "200" ),
+      new RowMetaAndData( attributeMeta, 1L, "SIZE_ROWSET", "300" ) ) );
+    kettleDatabaseRepositoryConnectionDelegate.setTransBuffer( transBuffer );
+
+    assertSame( step, kettleDatabaseRepositoryConnectionDelegate.getBufferedRow(
+      KettleDatabaseRepository.TABLE_R_STEP, new LongObjectId( 5 ) ) );
+    assertNull( kettleDatabaseRepositoryConnectionDelegate.getBufferedRow(
+      KettleDatabaseRepository.TABLE_R_TRANS_HOP, new LongObjectId( 5 ) ) );
+    assertEquals( 1, transBuffer.getIDs( KettleDatabaseRepository.TABLE_R_STEP ).length );
+
+    // The first row of a code and nr wins, like a lookup in the database
+    assertEquals( "100",
+      kettleDatabaseRepositoryConnectionDelegate.getTransAttributeString( new LongObjectId( 9 ), 0, "SIZE_ROWSET" ) );
+    assertEquals( "300",
+      kettleDatabaseRepositoryConnectionDelegate.getTransAttributeString( new LongObjectId( 9 ), 1, "SIZE_ROWSET" ) );
+    assertNull(
+      kettleDatabaseRepositoryConnectionDelegate.getTransAttributeString( new LongObjectId( 9 ), 0, "UNKNOWN" ) );
+    verifyNoInteractions( database );
+  }
 }
@@ -0,0 +1,110 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.pentaho.di.core.KettleEnvironment;
+import org.pentaho.di.core.QueueRowSet;
+import org.pentaho.di.core.RowMetaAndData;
+import org.pentaho.di.core.RowSet;
+import org.pentaho.di.core.row.RowMeta;
+import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.di.core.row.value.ValueMetaInteger;
+import org.pentaho.di.core.row.value.ValueMetaString;
+import org.pentaho.di.junit.rules.RestorePDIEngineEnvironment;
+import org.pentaho.di.trans.TransMeta.TransformationType;
+import org.pentaho.di.trans.steps.dummytrans.DummyTransMeta;
+import org.pentaho.di.trans.steps.sort.SortRowsMeta;
+
+public class SingleThreadedTransExecutorTest {
+  @ClassRule public static RestorePDIEngineEnvironment env = new RestorePDIEngineEnvironment();
+
+  @BeforeClass
+  public static void initKettle() throws Exception {
+    KettleEnvironment.init();
+  }
+
+  @Test
+  public void testChunksCompleteTheBatchInOrder() throws Exception {
+    SortRowsMeta sortMeta = new SortRowsMeta();
+    sortMeta.setDefault();
+    sortMeta.allocate( 1 );
+    sortMeta.setFieldName( new String[] { "id" } );
+    sortMeta.setAscending( new boolean[] { true } );
+    sortMeta.setCaseSensitive( new boolean[] { true } );
+    sortMeta.setCollatorEnabled( new boolean[] { false } );
+    sortMeta.setCollatorStrength( new int[] { 0 } );
+    sortMeta.setPreSortedField( new boolean[] { false } );
+
+    TransMeta transMeta = TransTestFactory.generateTestTransformation( null, sortMeta, "sort" );
+    transMeta.setTransformationType( TransformationType.SingleThreaded );
+
+    Trans trans = new Trans( transMeta );
+    trans.prepareExecution( null );
+    RowStepCollector collector = new RowStepCollector();
+    trans.getStepInterface( TransTestFactory.DUMMY_STEPNAME, 0 ).addRowListener( collector );
+    RowProducer producer = trans.addRowProducer( TransTestFactory.INJECTOR_STEPNAME, 0 );
+    trans.startThreads();
+
+    SingleThreadedTransExecutor executor = new SingleThreadedTransExecutor( trans );
+    // The smallest chunks, so that the rows of the batch go through the steps in many chunks
+    executor.setChunkBytes( 1 );
+    assertTrue( executor.init() );
+
+    RowMetaInterface rowMeta = new RowMeta();
+    rowMeta.addValueMeta( new ValueMetaInteger( "id" ) );
+    for ( long i = 1000; i > 0; i-- ) {
+      producer.putRow( rowMeta, new Object[] { i } );
+    }
+    executor.oneIteration();
+
+    // The sort only passes the rows on when the batch is complete, so it got all of them
+    List<RowMetaAndData> rows = collector.getRowsWritten();
+    assertEquals( 1000, rows.size() );
+    for ( int i = 0; i < rows.size(); i++ ) {
+      assertEquals( Long.valueOf( i + 1 ), rows.get( i ).getInteger( 0 ) );
+    }
+    assertEquals( 0, trans.getErrors() );
+    executor.dispose();
+  }
+
+  @Test
+  public void testChunkRowsDependOnTheRowSize() throws Exception {
+    TransMeta transMeta = TransTestFactory.generateTestTransformation( null, new DummyTransMeta(), "middle" );
+    transMeta.setTransformationType( TransformationType.SingleThreaded );
+    Trans trans = new Trans( transMeta );
+    trans.prepareExecution( null );
+    SingleThreadedTransExecutor executor = new SingleThreadedTransExecutor( trans );
+    executor.setChunkBytes( 64 * 1024 );
+
+    RowSet rowSet = new QueueRowSet();
+    RowMetaInterface rowMeta = new RowMeta();
+    rowMeta.addValueMeta( new ValueMetaString( "a" ) );
+    rowMeta.addValueMeta( new ValueMetaString( "b" ) );
+    rowSet.setRowMeta( rowMeta );
+    assertEquals( 1024, executor.getChunkRows( Collections.singletonList( rowSet ) ) );
+
+    // Never less than a minimum number of rows
+    executor.setChunkBytes( 1 );
+    assertEquals( 64, executor.getChunkRows( Collections.singletonList( rowSet ) ) );
+  }
+}
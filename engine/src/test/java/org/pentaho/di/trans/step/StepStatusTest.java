@@ -12,9 +12,18 @@
 
 package org.pentaho.di.trans.step;
 
+import java.util.Arrays;
+
 import org.junit.Test;
+import org.pentaho.di.core.AdaptiveRowSet;
+import org.pentaho.di.core.QueueRowSet;
+import org.pentaho.di.core.RowSet;
+import org.pentaho.di.core.RowSetMemoryBudget;
+import org.pentaho.di.trans.step.BaseStepData.StepExecutionStatus;
 
 import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 public class StepStatusTest {
 
@@ -25,4 +34,28 @@ public class StepStatusTest {
     String[] overrides = status.getTransLogFields( "Override" );
     assertEquals( "Override", overrides[10] );
   }
+
+  @Test
+  public void testInputBufferStatistics() throws Exception {
+    AdaptiveRowSet adaptiveRowSet = new AdaptiveRowSet( new RowSetMemoryBudget( 1024 * 1024 ) );
+    adaptiveRowSet.putRow( null, new Object[] { 1L } );
+    adaptiveRowSet.putRow( null, new Object[] { 2L } );
+    RowSet queueRowSet = new QueueRowSet();
+    queueRowSet.putRow( null, new Object[] { 3L } );
+
+    StepInterface step = mock( StepInterface.class );
+    when( step.getStatus() ).thenReturn( StepExecutionStatus.STATUS_RUNNING );
+    when( step.getInputRowSets() ).thenReturn( Arrays.asList( adaptiveRowSet, queueRowSet ) );
+
+    StepStatus status = new StepStatus( step );
+    assertEquals( 3, status.getInputBufferRows() );
+    assertEquals( adaptiveRowSet.getCapacity(), status.getInputBufferCapacity() );
+    assertEquals( adaptiveRowSet.getBufferedBytes(), status.getInputBufferBytes() );
+    assertEquals( 0, status.getInputBufferWaits() );
+
+    StepStatus copy = new StepStatus().fromXML( status.getXML() );
+    assertEquals( 3, copy.getInputBufferRows() );
+    assertEquals( status.getInputBufferCapacity(), copy.getInputBufferCapacity() );
+    assertEquals( status.getInputBufferBytes(), copy.getInputBufferBytes() );
+  }
 }
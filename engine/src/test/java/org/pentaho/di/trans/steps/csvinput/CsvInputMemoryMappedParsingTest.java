@@ -0,0 +1,28 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.csvinput;
+
+import org.junit.Before;
+
+/**
+ * Runs the content parsing tests with the memory mapped scanner. The settings it can't read (the DOS format, multi
+ * byte delimiters) fall back to the regular reader.
+ */
+public class CsvInputMemoryMappedParsingTest extends CsvInputContentParsingTest {
+
+  @Before
+  public void enableMemoryMapping() {
+    meta.setMemoryMapped( true );
+  }
+}
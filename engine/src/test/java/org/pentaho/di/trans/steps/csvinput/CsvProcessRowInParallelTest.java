@@ -28,7 +28,16 @@ import org.pentaho.di.trans.steps.mock.StepMockHelper;
 import org.pentaho.di.trans.steps.textfileinput.TextFileInputField;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
 import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.when;
 
 /**
  *  We take file with content
@@ -56,6 +65,14 @@ import static org.junit.Assert.assertEquals;
  *  - file ends with new line or not
  */
 public class CsvProcessRowInParallelTest extends CsvInputUnitTestBase {
+  private static final String ENCLOSED_NEW_LINES =
+    "\"first\nline\nof\nfree text\",1\n"
+      + "\"a \"\"quoted\"\"\nword\",2\n"
+      + "plain,3\r\n"
+      + "\"\n\n\n\",4\n"
+      + "\"last,\r\none\",5\n"
+      + "x,\"6\nsix\"\n";
+
   private StepMockHelper<CsvInputMeta, StepDataInterface> stepMockHelper;
 
   @ClassRule public static RestorePDIEngineEnvironment env = new RestorePDIEngineEnvironment();
@@ -262,6 +279,44 @@ public class CsvProcessRowInParallelTest extends CsvInputUnitTestBase {
     assertEquals( 11, t1 + t2 + t3 + t4 );
   }
 
+  @Test
+  public void enclosedNewLines_CopiesOneAfterAnother() throws Exception {
+    File sharedFile = createTestFile( "UTF-8", ENCLOSED_NEW_LINES );
+
+    for ( int totalNumberOfSteps = 2; totalNumberOfSteps <= 8; totalNumberOfSteps++ ) {
+      int rows = 0;
+      for ( int stepNr = 0; stepNr < totalNumberOfSteps; stepNr++ ) {
+        rows += createAndRunOneQuotedStep( sharedFile, stepNr, totalNumberOfSteps );
+      }
+      assertEquals( "copies: " + totalNumberOfSteps, 6, rows );
+    }
+  }
+
+  @Test
+  public void enclosedNewLines_CopiesAtTheSameTime() throws Exception {
+    File sharedFile = createTestFile( "UTF-8", ENCLOSED_NEW_LINES );
+    final int totalNumberOfSteps = 4;
+    when( stepMockHelper.trans.getExtensionDataMap() ).thenReturn( new HashMap<>() );
+    when( stepMockHelper.stepMeta.getCopies() ).thenReturn( totalNumberOfSteps );
+
+    // The copies wait for the enclosure counts of the copies before them, so they have to run at the same time
+    ExecutorService executor = Executors.newFixedThreadPool( totalNumberOfSteps );
+    try {
+      List<Future<Integer>> results = new ArrayList<>();
+      for ( int stepNr = totalNumberOfSteps - 1; stepNr >= 0; stepNr-- ) {
+        final int nr = stepNr;
+        results.add( executor.submit( () -> createAndRunOneQuotedStep( sharedFile, nr, totalNumberOfSteps ) ) );
+      }
+      int rows = 0;
+      for ( Future<Integer> result : results ) {
+        rows += result.get( 30, TimeUnit.SECONDS );
+      }
+      assertEquals( 6, rows );
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
   /**
    * So as not to heap up list of taken parameters, we are passing combi, but we expect to see CsvInput class instances
    * in it's content.
@@ -310,6 +365,14 @@ public class CsvProcessRowInParallelTest extends CsvInputUnitTestBase {
     return processRows( combiStep1 );
   }
 
+  private int createAndRunOneQuotedStep( File sharedFile, int stepNr, int totalNumberOfSteps ) throws Exception {
+    StepMetaDataCombi combiStep = createBaseCombi( sharedFile, false, "," );
+    ( (CsvInputMeta) combiStep.meta ).setNewlinePossibleInFields( true );
+    configureData( (CsvInputData) combiStep.data, stepNr, totalNumberOfSteps );
+
+    return processRows( combiStep );
+  }
+
   private StepMetaDataCombi createBaseCombi( File sharedFile, boolean headerPresent, String delimiter ) {
 
     StepMetaDataCombi combi = new StepMetaDataCombi();
@@ -0,0 +1,167 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.csvinput;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class MappedCsvScannerTest {
+
+  private static final byte[] ENCLOSURE = { '"' };
+
+  @Test
+  public void testMatches() {
+    Random random = new Random( 3 );
+    for ( int n = 0; n < 10000; n++ ) {
+      byte[] bytes = new byte[ 8 ];
+      for ( int i = 0; i < 8; i++ ) {
+        bytes[ i ] = (byte) ( random.nextInt( 4 ) == 0 ? ',' : random.nextInt( 256 ) );
+      }
+      long word = 0;
+      for ( int i = 7; i >= 0; i-- ) {
+        word = ( word << 8 ) | ( bytes[ i ] & 0xFF );
+      }
+      long found = MappedCsvScanner.matches( word, ',' * 0x0101010101010101L );
+
+      int expected = 8;
+      for ( int i = 7; i >= 0; i-- ) {
+        if ( bytes[ i ] == ',' ) {
+          expected = i;
+        }
+      }
+      assertEquals( expected, Long.numberOfTrailingZeros( found ) >>> 3 );
+    }
+  }
+
+  @Test
+  public void testNarrowRows() throws Exception {
+    assertRandomRows( 3, 2000, 7 );
+  }
+
+  @Test
+  public void testWideRows() throws Exception {
+    assertRandomRows( 200, 100, 11 );
+  }
+
+  @Test
+  public void testMixedFormat() throws Exception {
+    List<String[]> rows = scan( "a,b\r\nc,d\n\ne,\r\nf\r\n\r\ng,h,i,j\n\n\nk,l", 2, true, 16 );
+    assertRows( rows,
+      new String[] { "a", "b" },
+      new String[] { "c", "d" },
+      new String[] { "e", "" },
+      new String[] { "f" },
+      new String[] { "" },
+      new String[] { "g", "h" },
+      new String[] { "k", "l" } );
+  }
+
+  @Test
+  public void testUnixFormat() throws Exception {
+    List<String[]> rows = scan( "a,b\n\nc\n", 2, false, 16 );
+    assertRows( rows, new String[] { "a", "b" }, new String[] { "" }, new String[] { "c" } );
+  }
+
+  @Test
+  public void testEnclosures() throws Exception {
+    List<String[]> rows = scan( "\"a,\"\"b\"\"\",\"c\nd\"\n\"\",x\"y\"\n\"open", 2, false, 16 );
+    assertRows( rows,
+      new String[] { "a,\"b\"", "c\nd" },
+      new String[] { "", "x\"y\"" },
+      new String[] { "\"open" } );
+  }
+
+  @Test
+  public void testEmptyFile() throws Exception {
+    assertEquals( 0, scan( "", 3, true, 16 ).size() );
+  }
+
+  private static void assertRandomRows( int fieldCount, int rowCount, long seed ) throws Exception {
+    Random random = new Random( seed );
+    List<String[]> expected = new ArrayList<>();
+    StringBuilder content = new StringBuilder();
+    for ( int r = 0; r < rowCount; r++ ) {
+      String[] row = new String[ fieldCount ];
+      for ( int f = 0; f < fieldCount; f++ ) {
+        StringBuilder value = new StringBuilder();
+        int length = random.nextInt( 12 );
+        boolean enclosed = random.nextInt( 5 ) == 0;
+        for ( int i = 0; i < length; i++ ) {
+          char c = (char) ( 'a' + random.nextInt( 26 ) );
+          if ( enclosed && random.nextInt( 8 ) == 0 ) {
+            c = ",\"\n\u00e9".charAt( random.nextInt( 4 ) );
+          }
+          value.append( c );
+        }
+        row[ f ] = value.toString();
+        if ( f > 0 ) {
+          content.append( ',' );
+        }
+        content.append( enclosed ? "\"" + row[ f ].replace( "\"", "\"\"" ) + "\"" : row[ f ] );
+      }
+      content.append( random.nextBoolean() ? "\n" : "\r\n" );
+      expected.add( row );
+    }
+
+    // A small window makes the rows cross the window boundaries and grow the window now and then
+    List<String[]> rows = scan( content.toString(), fieldCount, true, 64 );
+    assertEquals( expected.size(), rows.size() );
+    for ( int r = 0; r < rows.size(); r++ ) {
+      assertArrayEquals( "row " + r, expected.get( r ), rows.get( r ) );
+    }
+  }
+
+  private static List<String[]> scan( String content, int maxFields, boolean mixedFormat, int windowSize )
+    throws IOException {
+    File file = File.createTempFile( "MappedCsvScannerTest", ".csv" );
+    file.deleteOnExit();
+    Files.write( file.toPath(), content.getBytes( StandardCharsets.UTF_8 ) );
+
+    List<String[]> rows = new ArrayList<>();
+    try ( RandomAccessFile raf = new RandomAccessFile( file, "r" ); FileChannel channel = raf.getChannel() ) {
+      MappedCsvScanner scanner =
+        new MappedCsvScanner( channel, 0L, (byte) ',', ENCLOSURE, false, mixedFormat, windowSize );
+      while ( scanner.nextRow( maxFields ) ) {
+        String[] row = new String[ scanner.getFieldCount() ];
+        for ( int i = 0; i < row.length; i++ ) {
+          row[ i ] = new String( scanner.getField( i ), StandardCharsets.UTF_8 );
+        }
+        rows.add( row );
+      }
+      assertFalse( scanner.nextRow( maxFields ) );
+      assertEquals( channel.size(), scanner.getFilePosition() );
+    }
+    return rows;
+  }
+
+  private static void assertRows( List<String[]> rows, String[]... expected ) {
+    assertEquals( expected.length, rows.size() );
+    for ( int r = 0; r < expected.length; r++ ) {
+      assertArrayEquals( "row " + r, expected[ r ], rows.get( r ) );
+    }
+  }
+}
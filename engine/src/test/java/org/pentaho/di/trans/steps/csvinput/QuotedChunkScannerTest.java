@@ -0,0 +1,136 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.csvinput;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class QuotedChunkScannerTest {
+
+  @Test
+  public void testExactMatches() {
+    Random random = new Random( 5 );
+    long pattern = '"' * 0x0101010101010101L;
+    for ( int n = 0; n < 10000; n++ ) {
+      long word = 0;
+      int expected = 0;
+      for ( int i = 0; i < 8; i++ ) {
+        int b = random.nextInt( 3 ) == 0 ? '"' : random.nextInt( 256 );
+        if ( b == '"' ) {
+          expected++;
+        }
+        word = ( word << 8 ) | b;
+      }
+      assertEquals( expected, Long.bitCount( QuotedChunkScanner.exactMatches( word, pattern ) ) );
+    }
+  }
+
+  /**
+   * Splits generated files with enclosed new lines in blocks and checks that every block finds the first row that
+   * starts in it, given the enclosure count of everything before it.
+   */
+  @Test
+  public void testFindsFirstRowOfEveryBlock() throws Exception {
+    Random random = new Random( 9 );
+    for ( int file = 0; file < 20; file++ ) {
+      List<Long> rowStarts = new ArrayList<>();
+      byte[] content = createContent( random, 50 + random.nextInt( 200 ), rowStarts );
+      try ( RandomAccessFile raf = new RandomAccessFile( write( content ), "r" );
+            FileChannel channel = raf.getChannel() ) {
+        // A small window makes the scans cross window boundaries
+        QuotedChunkScanner scanner = new QuotedChunkScanner( channel, (byte) '"', 64 );
+        for ( int blocks = 2; blocks <= 16; blocks++ ) {
+          long blockSize = ( content.length + blocks - 1 ) / blocks;
+          long before = 0;
+          for ( long start = 0; start < content.length; start += blockSize ) {
+            long end = Math.min( start + blockSize, content.length );
+            scanner.scan( start, end, start > 0 );
+            if ( start > 0 ) {
+              assertEquals( "file " + file + ", block at " + start, firstRowStart( rowStarts, start, end ),
+                scanner.getRowStart( ( before & 1 ) == 1 ) );
+            }
+            before += scanner.getEnclosures();
+          }
+          assertEquals( countEnclosures( content ), before );
+        }
+      }
+    }
+  }
+
+  private static byte[] createContent( Random random, int rows, List<Long> rowStarts ) {
+    StringBuilder content = new StringBuilder();
+    for ( int r = 0; r < rows; r++ ) {
+      rowStarts.add( (long) content.length() );
+      for ( int f = 0; f < 3; f++ ) {
+        if ( f > 0 ) {
+          content.append( ',' );
+        }
+        boolean enclosed = random.nextInt( 3 ) == 0;
+        if ( enclosed ) {
+          content.append( '"' );
+        }
+        int length = 1 + random.nextInt( 10 );
+        for ( int i = 0; i < length; i++ ) {
+          if ( enclosed && random.nextInt( 4 ) == 0 ) {
+            content.append( new String[] { "\n", "\r\n", "\"\"", "," }[ random.nextInt( 4 ) ] );
+          } else {
+            content.append( (char) ( 'a' + random.nextInt( 26 ) ) );
+          }
+        }
+        if ( enclosed ) {
+          content.append( '"' );
+        }
+      }
+      content.append( random.nextBoolean() ? "\n" : "\r\n" );
+    }
+    return content.toString().getBytes( StandardCharsets.UTF_8 );
+  }
+
+  private static long firstRowStart( List<Long> rowStarts, long start, long end ) {
+    for ( long rowStart : rowStarts ) {
+      if ( rowStart >= start ) {
+        return rowStart < end ? rowStart : -1;
+      }
+    }
+    return -1;
+  }
+
+  private static long countEnclosures( byte[] content ) {
+    long count = 0;
+    for ( byte b : content ) {
+      if ( b == '"' ) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  private static File write( byte[] content ) throws IOException {
+    File file = File.createTempFile( "QuotedChunkScannerTest", ".csv" );
+    file.deleteOnExit();
+    Files.write( file.toPath(), content );
+    return file;
+  }
+}
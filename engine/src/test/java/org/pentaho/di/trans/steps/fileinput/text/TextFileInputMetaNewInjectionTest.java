@@ -122,6 +122,12 @@ public class TextFileInputMetaNewInjectionTest extends BaseMetadataInjectionTest
       }
     } );
 
+    check( "PARALLEL_DECOMPRESSION", new BooleanGetter() {
+      public boolean get() {
+        return meta.content.parallelDecompression;
+      }
+    } );
+
     check( "NO_EMPTY_LINES", new BooleanGetter() {
       public boolean get() {
         return meta.content.noEmptyLines;
@@ -0,0 +1,145 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.fuzzymatch;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.apache.commons.lang.StringUtils;
+import org.junit.Test;
+import org.pentaho.di.core.util.Utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class FuzzyMatchIndexTest {
+
+  private static Set<Object[]> createLookup( int count ) {
+    Random random = new Random( 42 );
+    Set<Object[]> look = new LinkedHashSet<>();
+    String[] syllables = { "ca", "tri", "ne", "jo", "hn", "Ma", "ry", "an", "ne ", "pe", "ter", "" };
+    for ( int i = 0; i < count; i++ ) {
+      StringBuilder value = new StringBuilder();
+      int length = random.nextInt( 5 );
+      for ( int j = 0; j < length; j++ ) {
+        value.append( syllables[ random.nextInt( syllables.length ) ] );
+      }
+      look.add( new Object[] { value.toString(), i } );
+    }
+    return look;
+  }
+
+  private static List<Object[]> toList( Iterator<Object[]> iterator ) {
+    List<Object[]> list = new ArrayList<>();
+    iterator.forEachRemaining( list::add );
+    return list;
+  }
+
+  /**
+   * The candidates have to be the rows that meet the condition, in the iteration order of the cache, and may have some
+   * extra rows only.
+   */
+  private interface Condition {
+    boolean matches( String cacheValue, String value );
+  }
+
+  private static void assertCandidates( Set<Object[]> look, FuzzyMatchIndex index, String value,
+    Condition condition ) {
+    List<Object[]> candidates = toList( index.getCandidates( value ) );
+    List<Object[]> expected = new ArrayList<>();
+    for ( Object[] row : look ) {
+      if ( condition.matches( (String) row[ 0 ], value ) ) {
+        expected.add( row );
+      }
+    }
+    int position = 0;
+    for ( Object[] row : candidates ) {
+      if ( position < expected.size() && row == expected.get( position ) ) {
+        position++;
+      }
+    }
+    assertEquals( "Missing candidates for " + value, expected.size(), position );
+
+    int previous = -1;
+    for ( Object[] row : candidates ) {
+      int ordinal = (Integer) row[ 1 ];
+      assertTrue( ordinal > previous );
+      previous = ordinal;
+    }
+  }
+
+  @Test
+  public void testLevenshtein() {
+    Set<Object[]> look = createLookup( 2000 );
+    FuzzyMatchIndex index =
+      FuzzyMatchIndex.build( look, FuzzyMatchMeta.OPERATION_TYPE_LEVENSHTEIN, false, 2, 0 );
+    for ( String value : new String[] { "catrine", "JOHN", "", "mary anne", "petertri" } ) {
+      assertCandidates( look, index, value,
+        ( cacheValue, v ) -> StringUtils.getLevenshteinDistance( cacheValue.toLowerCase(), v.toLowerCase() ) <= 2 );
+    }
+    assertTrue( toList( index.getCandidates( "catrine" ) ).size() < look.size() );
+  }
+
+  @Test
+  public void testDamerauLevenshtein() {
+    Set<Object[]> look = createLookup( 2000 );
+    FuzzyMatchIndex index =
+      FuzzyMatchIndex.build( look, FuzzyMatchMeta.OPERATION_TYPE_DAMERAU_LEVENSHTEIN, true, 1, 0 );
+    for ( String value : new String[] { "catrine", "cartine", "jonh", "" } ) {
+      assertCandidates( look, index, value,
+        ( cacheValue, v ) -> Utils.getDamerauLevenshteinDistance( cacheValue, v ) <= 1 );
+    }
+  }
+
+  @Test
+  public void testPhonetic() {
+    Set<Object[]> look = createLookup( 2000 );
+    FuzzyMatchIndex index = FuzzyMatchIndex.build( look, FuzzyMatchMeta.OPERATION_TYPE_SOUNDEX, false, 0, 0 );
+    for ( String value : new String[] { "catrine", "john", "mary" } ) {
+      assertCandidates( look, index, value, ( cacheValue, v ) -> FuzzyMatch.getEncodedMF( v,
+        FuzzyMatchMeta.OPERATION_TYPE_SOUNDEX ).equals( FuzzyMatch.getEncodedMF( cacheValue,
+        FuzzyMatchMeta.OPERATION_TYPE_SOUNDEX ) ) );
+    }
+  }
+
+  @Test
+  public void testPairSimilarity() {
+    Set<Object[]> look = createLookup( 2000 );
+    assertNull( FuzzyMatchIndex.build( look, FuzzyMatchMeta.OPERATION_TYPE_PAIR_SIMILARITY, false, 0, 0 ) );
+    FuzzyMatchIndex index =
+      FuzzyMatchIndex.build( look, FuzzyMatchMeta.OPERATION_TYPE_PAIR_SIMILARITY, false, 0, 0.3 );
+    for ( String value : new String[] { "catrine", "john peter", "", "x" } ) {
+      assertCandidates( look, index, value,
+        ( cacheValue, v ) -> LetterPairSimilarity.getSimiliarity( cacheValue, v ) >= 0.3 );
+    }
+  }
+
+  @Test
+  public void testJaroLengths() {
+    Set<Object[]> look = createLookup( 2000 );
+    assertNull( FuzzyMatchIndex.build( look, FuzzyMatchMeta.OPERATION_TYPE_JARO_WINKLER, false, 0, 0.8 ) );
+    FuzzyMatchIndex index = FuzzyMatchIndex.build( look, FuzzyMatchMeta.OPERATION_TYPE_JARO, false, 0, 0.9 );
+    for ( String value : new String[] { "catrine", "jo", "" } ) {
+      int length = value.length();
+      // ( 2 + shortest / longest ) / 3 >= 0.9 means shortest / longest >= 0.7
+      assertCandidates( look, index, value, ( cacheValue, v ) -> length > 0 && !cacheValue.isEmpty()
+        && Math.min( length, cacheValue.length() ) >= 0.7 * Math.max( length, cacheValue.length() ) );
+    }
+  }
+}
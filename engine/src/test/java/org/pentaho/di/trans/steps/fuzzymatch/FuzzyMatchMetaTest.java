@@ -38,7 +38,7 @@ public class FuzzyMatchMetaTest {
     List<String> attributes =
         Arrays.asList( "value", "valueName", "algorithm", "lookupfield", "mainstreamfield",
             "outputmatchfield", "outputvaluefield", "caseSensitive", "minimalValue",
-            "maximalValue", "separator", "closervalue" );
+            "maximalValue", "separator", "closervalue", "index_lookup", "probe_threads" );
 
     Map<String, String> getterMap = new HashMap<String, String>() {
       {
@@ -54,6 +54,8 @@ public class FuzzyMatchMetaTest {
         put( "maximalValue", "getMaximalValue" );
         put( "separator", "getSeparator" );
         put( "closervalue", "isGetCloserValue" );
+        put( "index_lookup", "isIndexLookup" );
+        put( "probe_threads", "getProbeThreads" );
       }
     };
 
@@ -71,6 +73,8 @@ public class FuzzyMatchMetaTest {
         put( "maximalValue", "setMaximalValue" );
         put( "separator", "setSeparator" );
         put( "closervalue", "setGetCloserValue" );
+        put( "index_lookup", "setIndexLookup" );
+        put( "probe_threads", "setProbeThreads" );
       }
     };
     FieldLoadSaveValidator<String[]> stringArrayLoadSaveValidator =
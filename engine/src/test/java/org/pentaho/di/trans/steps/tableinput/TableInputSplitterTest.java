@@ -0,0 +1,85 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.tableinput;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.pentaho.di.core.database.DatabaseMeta;
+import org.pentaho.di.core.database.MySQLDatabaseMeta;
+import org.pentaho.di.core.exception.KettleException;
+import org.pentaho.di.core.row.value.ValueMetaInteger;
+import org.pentaho.di.core.row.value.ValueMetaString;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TableInputSplitterTest {
+
+  private DatabaseMeta databaseMeta;
+
+  @Before
+  public void setUp() {
+    databaseMeta = new DatabaseMeta();
+    databaseMeta.setDatabaseInterface( new MySQLDatabaseMeta() );
+  }
+
+  @Test
+  public void testModSplits() {
+    TableInputSplitter splitter =
+      new TableInputSplitter( databaseMeta, TableInputMeta.PARTITION_METHOD_MOD, "id", 3 );
+    String sql = splitter.getSplitSQL( "SELECT * FROM customers;  ", 0, false );
+    assertEquals( "SELECT * FROM ( SELECT * FROM customers ) kettle_split\n"
+      + "WHERE ( id IS NULL OR ABS( MOD( id, 3 ) ) = 0 )", sql.replace( "\r", "" ) );
+    assertTrue( splitter.getSplitSQL( "SELECT * FROM customers", 2, true ).endsWith( "ORDER BY id" ) );
+    assertEquals( 0, splitter.getSplitParametersMeta( 2 ).size() );
+  }
+
+  @Test
+  public void testRangeSplits() throws KettleException {
+    TableInputSplitter splitter =
+      new TableInputSplitter( databaseMeta, TableInputMeta.PARTITION_METHOD_RANGE, "id", 4 );
+    splitter.setRange( new ValueMetaInteger( "min" ), 1L, 100L );
+
+    assertTrue( splitter.getSplitSQL( "SELECT * FROM t", 0, false ).contains( "( id IS NULL OR id < ? )" ) );
+    assertArrayEquals( new Object[] { 26L }, trim( splitter.getSplitParameters( 0 ), 1 ) );
+    assertTrue( splitter.getSplitSQL( "SELECT * FROM t", 1, false ).contains( "( id >= ? AND id < ? )" ) );
+    assertArrayEquals( new Object[] { 26L, 51L }, trim( splitter.getSplitParameters( 1 ), 2 ) );
+    assertTrue( splitter.getSplitSQL( "SELECT * FROM t", 3, false ).contains( "( id >= ? )" ) );
+    assertArrayEquals( new Object[] { 76L }, trim( splitter.getSplitParameters( 3 ), 1 ) );
+    assertEquals( 2, splitter.getSplitParametersMeta( 2 ).size() );
+  }
+
+  @Test
+  public void testEmptyRangeIsReadByFirstSplit() throws KettleException {
+    TableInputSplitter splitter =
+      new TableInputSplitter( databaseMeta, TableInputMeta.PARTITION_METHOD_RANGE, "id", 2 );
+    splitter.setRange( new ValueMetaInteger( "min" ), null, null );
+    assertTrue( splitter.getSplitSQL( "SELECT * FROM t", 0, false ).contains( "1 = 1" ) );
+    assertTrue( splitter.getSplitSQL( "SELECT * FROM t", 1, false ).contains( "1 = 0" ) );
+    assertEquals( 0, splitter.getSplitParametersMeta( 0 ).size() );
+  }
+
+  @Test( expected = KettleException.class )
+  public void testRangeNeedsNumericOrDateColumn() throws KettleException {
+    new TableInputSplitter( databaseMeta, TableInputMeta.PARTITION_METHOD_RANGE, "name", 2 )
+      .setRange( new ValueMetaString( "min" ), "a", "z" );
+  }
+
+  private static Object[] trim( Object[] row, int size ) {
+    Object[] trimmed = new Object[ size ];
+    System.arraycopy( row, 0, trimmed, 0, size );
+    return trimmed;
+  }
+}
@@ -228,6 +228,16 @@ public class TextFileOutputMetaInjectionTest extends BaseMetadataInjectionTest<T
         return meta.isFileAsCommand();
       }
     } );
+    check( "COMPRESSION_THREADS", new IntGetter() {
+      public int get() {
+        return meta.getCompressionThreads();
+      }
+    } );
+    check( "BUFFER_SIZE", new IntGetter() {
+      public int get() {
+        return meta.getBufferSize();
+      }
+    } );
 
     ValueMetaInterface mftt = new ValueMetaString( "f" );
     injector.setProperty( meta, "OUTPUT_TRIM", setValue( mftt, "left" ), "f" );
@@ -45,7 +45,7 @@ public class TextFileOutputMetaTest {
 
   public static List<String> getMetaAttributes() {
     return Arrays.asList( "separator", "enclosure", "enclosure_forced", "enclosure_fix_disabled", "header", "footer",
-      "format", "compression", "encoding", "endedLine", "fileNameInField", "fileNameField",
+      "format", "compression", "compression_threads", "buffer_size", "encoding", "endedLine", "fileNameInField", "fileNameField",
       "create_parent_folder", "fileName", "servlet_output", "do_not_open_new_file_init",
       "extention", "append", "split", "haspartno", "add_date", "add_time", "SpecifyFormat", "date_time_format",
       "add_to_result_filenames", "pad", "fast_dump", "splitevery", "OutputFields" );
@@ -61,6 +61,8 @@ public class TextFileOutputMetaTest {
     getterMap.put( "footer", "isFooterEnabled" );
     getterMap.put( "format", "getFileFormat" );
     getterMap.put( "compression", "getFileCompression" );
+    getterMap.put( "compression_threads", "getCompressionThreads" );
+    getterMap.put( "buffer_size", "getBufferSize" );
     getterMap.put( "encoding", "getEncoding" );
     getterMap.put( "endedLine", "getEndedLine" );
     getterMap.put( "fileNameInField", "isFileNameInField" );
@@ -95,6 +97,8 @@ public class TextFileOutputMetaTest {
     setterMap.put( "footer", "setFooterEnabled" );
     setterMap.put( "format", "setFileFormat" );
     setterMap.put( "compression", "setFileCompression" );
+    setterMap.put( "compression_threads", "setCompressionThreads" );
+    setterMap.put( "buffer_size", "setBufferSize" );
     setterMap.put( "encoding", "setEncoding" );
     setterMap.put( "endedLine", "setEndedLine" );
     setterMap.put( "fileNameInField", "setFileNameInField" );
@@ -73,7 +73,7 @@ public class TransExecutorMetaTest {
 
     List<String> attributes =
       Arrays.asList( "fileName", "transName", "directoryPath", "groupSize", "groupField", "groupTime",
-        "executionTimeField", "executionFilesRetrievedField", "executionLogTextField",
+        "reuseTransformation", "executionTimeField", "executionFilesRetrievedField", "executionLogTextField",
         "executionLogChannelIdField", "executionResultField", "executionNrErrorsField", "executionLinesReadField",
         "executionLinesWrittenField", "executionLinesInputField", "executionLinesOutputField",
         "executionLinesRejectedField", "executionLinesUpdatedField", "executionLinesDeletedField",
@@ -83,6 +83,7 @@ public class TransExecutorMetaTest {
     // executionResultTargetStepMeta -? (see for switch case meta)
     Map<String, String> getterMap = new HashMap<String, String>();
     Map<String, String> setterMap = new HashMap<String, String>();
+    getterMap.put( "reuseTransformation", "isReuseTransformation" );
     Map<String, FieldLoadSaveValidator<?>> attrValidatorMap = new HashMap<String, FieldLoadSaveValidator<?>>();
 
     FieldLoadSaveValidator<String[]> stringArrayLoadSaveValidator =
@@ -44,6 +44,8 @@ import org.pentaho.di.core.variables.VariableSpace;
 import org.pentaho.di.job.JobMeta;
 import org.pentaho.di.junit.rules.RestorePDIEngineEnvironment;
 import org.pentaho.di.repository.Repository;
+import org.pentaho.di.trans.RowProducer;
+import org.pentaho.di.trans.SingleThreadedTransExecutor;
 import org.pentaho.di.trans.Trans;
 import org.pentaho.di.trans.TransMeta;
 import org.pentaho.di.trans.step.StepInterface;
@@ -56,11 +58,13 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.nullable;
 import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
@@ -341,6 +345,58 @@ public class TransExecutorUnitTest {
     assertEquals( 0, data.groupBuffer.size() );
   }
 
+  @Test
+  public void shouldFeedEveryGroupToOneReusedTransformation() throws KettleException {
+    prepareMultipleRowsForExecutor();
+
+    meta.setGroupSize( "3" );
+    meta.setReuseTransformation( true );
+    doReturn( true ).when( executor ).canReuseTransformation();
+
+    SingleThreadedTransExecutor singleThreadedExecutor = mock( SingleThreadedTransExecutor.class );
+    RowProducer rowProducer = mock( RowProducer.class );
+    doAnswer( invocation -> {
+      data.setExecutorTrans( internalTrans );
+      data.executor = singleThreadedExecutor;
+      data.rowProducer = rowProducer;
+      data.previousTotals = new Result();
+      return null;
+    } ).when( executor ).prepareReusedTransformation();
+
+    Trans parent = new Trans();
+    Mockito.when( executor.getTrans() ).thenReturn( parent );
+
+    executor.init( meta, data );
+    while ( executor.processRow( meta, data ) ) {
+      // 7 rows in groups of 3, 3 and 1
+    }
+
+    verify( executor ).prepareReusedTransformation();
+    verify( executor, never() ).createInternalTrans();
+    verify( rowProducer, times( 7 ) ).putRow( any(), any() );
+    verify( singleThreadedExecutor, times( 3 ) ).oneIteration();
+    verify( singleThreadedExecutor ).dispose();
+    assertNull( data.executor );
+  }
+
+  @Test
+  public void groupResultOfReusedTransformationOnlyCountsTheGroup() throws KettleException {
+    executor.init( meta, data );
+
+    Result previous = new Result();
+    previous.setNrLinesWritten( 3 );
+    data.previousTotals = previous;
+    internalResult.setNrLinesWritten( 5 );
+    internalTrans.getResultRows().add( new RowMetaAndData( new RowMeta(), "fake result" ) );
+
+    Result result = executor.getGroupResult( internalTrans );
+
+    assertEquals( 2, result.getNrLinesWritten() );
+    assertEquals( 1, result.getRows().size() );
+    assertTrue( "The next group starts without result rows", internalTrans.getResultRows().isEmpty() );
+    assertSame( internalResult, data.previousTotals );
+  }
+
   @Test
   public void testCollectTransResultsDisabledHop() throws KettleException {
     StepMeta outputRowsSourceStepMeta = mock( StepMeta.class );
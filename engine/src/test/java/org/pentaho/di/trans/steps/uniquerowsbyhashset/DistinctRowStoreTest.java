@@ -0,0 +1,128 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.uniquerowsbyhashset;
+
+import java.io.File;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.pentaho.di.core.row.RowMeta;
+import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.di.core.row.value.ValueMetaInteger;
+import org.pentaho.di.core.row.value.ValueMetaString;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DistinctRowStoreTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private final RowMetaInterface rowMeta = createRowMeta();
+
+  private static RowMetaInterface createRowMeta() {
+    RowMetaInterface rowMeta = new RowMeta();
+    rowMeta.addValueMeta( new ValueMetaInteger( "id" ) );
+    rowMeta.addValueMeta( new ValueMetaString( "name" ) );
+    return rowMeta;
+  }
+
+  private static Object[] row( long id ) {
+    return new Object[] { id, "name " + ( id % 1000 ) };
+  }
+
+  @Test
+  public void testFingerprintStoreInMemory() throws Exception {
+    for ( boolean storeValues : new boolean[] { false, true } ) {
+      FingerprintRowStore store = new FingerprintRowStore( rowMeta, new RowKeyEncoder( rowMeta, new int[ 0 ] ),
+        storeValues, Long.MAX_VALUE, folder.getRoot() );
+      for ( long i = 0; i < 5000; i++ ) {
+        assertEquals( DistinctRowStore.UNIQUE, store.add( row( i ) ) );
+      }
+      for ( long i = 0; i < 5000; i++ ) {
+        assertEquals( DistinctRowStore.DUPLICATE, store.add( row( i ) ) );
+      }
+      assertFalse( store.isSpilling() );
+      store.close();
+    }
+  }
+
+  @Test
+  public void testKeyFields() throws Exception {
+    FingerprintRowStore store = new FingerprintRowStore( rowMeta, new RowKeyEncoder( rowMeta, new int[] { 1 } ),
+      true, Long.MAX_VALUE, folder.getRoot() );
+    assertEquals( DistinctRowStore.UNIQUE, store.add( new Object[] { 1L, "a" } ) );
+    assertEquals( DistinctRowStore.DUPLICATE, store.add( new Object[] { 2L, "a" } ) );
+    assertEquals( DistinctRowStore.UNIQUE, store.add( new Object[] { 1L, null } ) );
+    assertEquals( DistinctRowStore.DUPLICATE, store.add( new Object[] { 3L, null } ) );
+    store.close();
+  }
+
+  @Test
+  public void testFingerprintStoreSpills() throws Exception {
+    FingerprintRowStore store = new FingerprintRowStore( rowMeta, new RowKeyEncoder( rowMeta, new int[ 0 ] ),
+      true, 64 * 1024, folder.getRoot() );
+    Set<Long> unique = new HashSet<>();
+    int duplicates = 0;
+    for ( int pass = 0; pass < 2; pass++ ) {
+      for ( long i = 0; i < 20000; i++ ) {
+        int result = store.add( row( i ) );
+        if ( result == DistinctRowStore.UNIQUE ) {
+          assertTrue( unique.add( i ) );
+        } else if ( result == DistinctRowStore.DUPLICATE ) {
+          duplicates++;
+        }
+      }
+    }
+    assertTrue( store.isSpilling() );
+    assertTrue( store.getSpilledRows() > 0 );
+
+    int[] deferredDuplicates = new int[ 1 ];
+    store.finish( ( row, isUnique ) -> {
+      if ( isUnique ) {
+        assertTrue( unique.add( (Long) row[ 0 ] ) );
+      } else {
+        deferredDuplicates[ 0 ]++;
+      }
+    } );
+    assertEquals( 20000, unique.size() );
+    assertEquals( 20000, duplicates + deferredDuplicates[ 0 ] );
+
+    store.close();
+    File[] files = folder.getRoot().listFiles();
+    assertEquals( 0, files.length );
+  }
+
+  @Test
+  public void testBloomFilterStore() throws Exception {
+    BloomFilterRowStore store = new BloomFilterRowStore( new RowKeyEncoder( rowMeta, new int[ 0 ] ), 10000, 0.01 );
+    assertTrue( store.getHashCount() >= 1 );
+    int unique = 0;
+    for ( long i = 0; i < 10000; i++ ) {
+      if ( store.add( row( i ) ) == DistinctRowStore.UNIQUE ) {
+        unique++;
+      }
+    }
+    // Duplicates are never passed, a small fraction of the unique rows is taken for a duplicate
+    for ( long i = 0; i < 10000; i++ ) {
+      assertEquals( DistinctRowStore.DUPLICATE, store.add( row( i ) ) );
+    }
+    assertTrue( unique > 9800 );
+  }
+}
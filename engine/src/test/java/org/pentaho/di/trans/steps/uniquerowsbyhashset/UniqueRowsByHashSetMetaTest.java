@@ -33,19 +33,30 @@ public class UniqueRowsByHashSetMetaTest {
   @Test
   public void testRoundTrip() throws KettleException {
     List<String> attributes =
-      Arrays.asList( "store_values", "reject_duplicate_row", "error_description", "name" );
+      Arrays.asList( "store_values", "reject_duplicate_row", "error_description", "name", "storage_type",
+        "memory_limit", "spill_directory", "false_positive_rate", "expected_rows" );
 
     Map<String, String> getterMap = new HashMap<String, String>();
     getterMap.put( "store_values", "getStoreValues" );
     getterMap.put( "reject_duplicate_row", "isRejectDuplicateRow" );
     getterMap.put( "error_description", "getErrorDescription" );
     getterMap.put( "name", "getCompareFields" );
+    getterMap.put( "storage_type", "getStorageType" );
+    getterMap.put( "memory_limit", "getMemoryLimit" );
+    getterMap.put( "spill_directory", "getSpillDirectory" );
+    getterMap.put( "false_positive_rate", "getFalsePositiveRate" );
+    getterMap.put( "expected_rows", "getExpectedRows" );
 
     Map<String, String> setterMap = new HashMap<String, String>();
     setterMap.put( "store_values", "setStoreValues" );
     setterMap.put( "reject_duplicate_row", "setRejectDuplicateRow" );
     setterMap.put( "error_description", "setErrorDescription" );
     setterMap.put( "name", "setCompareFields" );
+    setterMap.put( "storage_type", "setStorageType" );
+    setterMap.put( "memory_limit", "setMemoryLimit" );
+    setterMap.put( "spill_directory", "setSpillDirectory" );
+    setterMap.put( "false_positive_rate", "setFalsePositiveRate" );
+    setterMap.put( "expected_rows", "setExpectedRows" );
 
     Map<String, FieldLoadSaveValidator<?>> fieldLoadSaveValidatorAttributeMap =
       new HashMap<String, FieldLoadSaveValidator<?>>();
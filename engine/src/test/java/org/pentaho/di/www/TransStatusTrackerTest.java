@@ -0,0 +1,97 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.www;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.pentaho.di.trans.Trans;
+import org.pentaho.di.trans.step.BaseStepData.StepExecutionStatus;
+import org.pentaho.di.trans.step.StepInterface;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TransStatusTrackerTest {
+
+  private Trans trans;
+  private StepInterface step1;
+  private StepInterface step2;
+
+  @Before
+  public void setUp() {
+    trans = mock( Trans.class );
+    step1 = mockStep( "step1" );
+    step2 = mockStep( "step2" );
+    when( trans.getStatus() ).thenReturn( Trans.STRING_RUNNING );
+    when( trans.nrSteps() ).thenReturn( 2 );
+    when( trans.getRunThread( 0 ) ).thenReturn( step1 );
+    when( trans.getRunThread( 1 ) ).thenReturn( step2 );
+  }
+
+  @Test
+  public void testVersionOnlyMovesOnChange() {
+    TransStatusTracker tracker = new TransStatusTracker();
+    long version = tracker.refresh( trans );
+    assertEquals( version, tracker.refresh( trans ) );
+
+    when( step1.getLinesWritten() ).thenReturn( 100L );
+    assertEquals( version + 1, tracker.refresh( trans ) );
+
+    when( trans.getStatus() ).thenReturn( Trans.STRING_FINISHED );
+    assertEquals( version + 2, tracker.refresh( trans ) );
+  }
+
+  @Test
+  public void testDeltaOnlyContainsChangedSteps() {
+    TransStatusTracker tracker = new TransStatusTracker();
+    long version = tracker.refresh( trans );
+    String full = tracker.getJSON( "id", "trans", -1 );
+    assertTrue( full.contains( "\"step1\"" ) );
+    assertTrue( full.contains( "\"step2\"" ) );
+
+    when( step2.getLinesRead() ).thenReturn( 5L );
+    tracker.refresh( trans );
+    String delta = tracker.getJSON( "id", "trans", version );
+    assertTrue( delta.contains( "\"delta\":true" ) );
+    assertFalse( delta.contains( "\"step1\"" ) );
+    assertTrue( delta.contains( "\"step2\"" ) );
+    assertTrue( delta.contains( "\"read\":5" ) );
+
+    // A version the tracker doesn't know results in the full status
+    assertTrue( tracker.getJSON( "id", "trans", version + 100 ).contains( "\"step1\"" ) );
+  }
+
+  @Test
+  public void testETag() {
+    TransStatusTracker tracker = new TransStatusTracker();
+    long version = tracker.refresh( trans );
+    String eTag = tracker.getETag( version );
+    assertEquals( version, tracker.parseETag( eTag ) );
+    assertEquals( version, tracker.parseETag( "W/" + eTag ) );
+    assertEquals( -1, tracker.parseETag( null ) );
+    assertEquals( -1, tracker.parseETag( new TransStatusTracker().getETag( version ) ) );
+    assertEquals( -1, tracker.parseETag( "\"garbage\"" ) );
+  }
+
+  private static StepInterface mockStep( String name ) {
+    StepInterface step = mock( StepInterface.class );
+    when( step.getStepname() ).thenReturn( name );
+    when( step.isRunning() ).thenReturn( true );
+    when( step.getStatus() ).thenReturn( StepExecutionStatus.STATUS_RUNNING );
+    return step;
+  }
+}
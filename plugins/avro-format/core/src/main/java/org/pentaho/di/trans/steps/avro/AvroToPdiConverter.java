@@ -32,6 +32,7 @@ import java.sql.Timestamp;
 import java.text.SimpleDateFormat;
 import java.time.LocalDate;
 import java.time.ZoneId;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 
@@ -121,7 +122,9 @@ public class AvroToPdiConverter {
           pentahoData = convertToPentahoType( pentahoType, (ByteBuffer) avroData, avroField );
           break;
         case FIXED:
-          pentahoData = convertToPentahoType( pentahoType, ( (GenericData.Fixed) avroData ).bytes(), avroField );
+          // The datum reader reuses the bytes of a fixed for the next record, the row gets its own copy
+          byte[] fixed = ( (GenericData.Fixed) avroData ).bytes();
+          pentahoData = convertToPentahoType( pentahoType, Arrays.copyOf( fixed, fixed.length ), avroField );
           break;
         case TIMESTAMP_MILLIS:
           pentahoData = convertToPentahoType( pentahoType, (Long) avroData );
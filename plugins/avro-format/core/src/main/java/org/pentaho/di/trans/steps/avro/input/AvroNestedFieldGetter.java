@@ -18,7 +18,9 @@ import org.pentaho.di.core.exception.KettleException;
 import org.pentaho.di.core.row.ValueMetaInterface;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 public class AvroNestedFieldGetter {
 
@@ -95,6 +97,69 @@ public class AvroNestedFieldGetter {
     return fields;
   }
 
+  /**
+   * Builds a reader schema for a record schema with only the top level fields the paths of the input fields start
+   * with. Reading with it, the datum reader skips the other fields of the records instead of decoding them.
+   *
+   * @param s      the schema of the records
+   * @param fields the fields to read
+   * @return the projected schema, or null if all the fields are needed or if the paths can't be resolved up front
+   */
+  public static Schema getProjectedSchema( Schema s, List<? extends IAvroInputField> fields ) {
+    if ( s == null || s.getType() != Schema.Type.RECORD || fields == null || fields.isEmpty() ) {
+      return null;
+    }
+
+    Set<String> names = new HashSet<>();
+    for ( IAvroInputField field : fields ) {
+      String name = getTopLevelFieldName( field.getAvroFieldName() );
+      if ( name == null || s.getField( name ) == null ) {
+        return null;
+      }
+      names.add( name );
+    }
+    if ( names.size() == s.getFields().size() ) {
+      return null;
+    }
+
+    List<Schema.Field> projectedFields = new ArrayList<>();
+    for ( Schema.Field f : s.getFields() ) {
+      if ( names.contains( f.name() ) ) {
+        projectedFields.add( new Schema.Field( f, f.schema() ) );
+      }
+    }
+    Schema projected = Schema.createRecord( s.getName(), s.getDoc(), s.getNamespace(), s.isError(), projectedFields );
+    for ( String alias : s.getAliases() ) {
+      projected.addAlias( alias );
+    }
+    return projected;
+  }
+
+  /**
+   * @return the name of the top level record field a path starts with, or null if the path starts with an array or
+   * map or contains variables
+   */
+  static String getTopLevelFieldName( String path ) {
+    if ( path == null || path.contains( "${" ) ) {
+      return null;
+    }
+    if ( path.startsWith( "$." ) ) {
+      path = path.substring( 2 );
+    } else if ( path.startsWith( "$" ) ) {
+      return null;
+    }
+    int end = path.length();
+    int dot = path.indexOf( '.' );
+    if ( dot >= 0 ) {
+      end = dot;
+    }
+    int bracket = path.indexOf( '[' );
+    if ( bracket >= 0 && bracket < end ) {
+      end = bracket;
+    }
+    return end > 0 ? path.substring( 0, end ) : null;
+  }
+
   /**
    * Helper function used to build paths automatically when extracting leaf fields from a schema
    *
@@ -70,6 +70,12 @@ public class AvroNestedReader {
    */
   protected DataFileStream m_containerReader;
 
+  /**
+   * Decodes the records of the container file ahead on another thread - will be null if the container file is read
+   * directly
+   */
+  protected AvroRecordPrefetcher m_prefetcher;
+
   /**
    * If the top level is a record
    */
@@ -1423,7 +1429,20 @@ public class AvroNestedReader {
    */
   public Object[][] avroObjectToKettle( Object[] incoming, VariableSpace space ) throws KettleException {
 
-    if ( m_containerReader != null ) {
+    if ( m_prefetcher != null ) {
+      // container file decoded ahead
+      try {
+        if ( m_prefetcher.hasNext() ) {
+          setTopLevelStructure( m_prefetcher.next() );
+          return setKettleFields( incoming, space );
+        } else {
+          return null; // no more input
+        }
+      } catch ( IOException e ) {
+        throw new KettleException( BaseMessages
+          .getString( PKG, "AvroInput.Error.ObjectReadError" ), e );
+      }
+    } else if ( m_containerReader != null ) {
       // container file
       try {
         if ( m_containerReader.hasNext() ) {
@@ -1603,7 +1622,9 @@ public class AvroNestedReader {
   }
 
   public void close() throws IOException {
-    if ( m_containerReader != null ) {
+    if ( m_prefetcher != null ) {
+      m_prefetcher.close();
+    } else if ( m_containerReader != null ) {
       m_containerReader.close();
     }
     if ( m_inStream != null ) {
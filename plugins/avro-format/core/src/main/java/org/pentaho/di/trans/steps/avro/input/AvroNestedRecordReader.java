@@ -12,6 +12,7 @@
 
 package org.pentaho.di.trans.steps.avro.input;
 
+import org.apache.avro.AvroRuntimeException;
 import org.apache.avro.Schema;
 import org.apache.avro.file.DataFileStream;
 import org.apache.avro.generic.GenericDatumReader;
@@ -35,6 +36,7 @@ public class AvroNestedRecordReader implements IPentahoInputFormat.IPentahoRecor
   private final Schema avroSchema;
   private final List<? extends IAvroInputField> fields;
   private final AvroNestedReader avroNestedReader;
+  private final AvroRecordPrefetcher prefetcher;
   private final VariableSpace avroInputStep;
   private Object[] incomingFields;
   private RowMetaAndData nextRow;
@@ -73,6 +75,10 @@ public class AvroNestedRecordReader implements IPentahoInputFormat.IPentahoRecor
     try {
       if ( nativeAvroRecordReader != null ) { // Is Avro File
         avroNestedReader.m_containerReader = nativeAvroRecordReader;
+        if ( fieldIndexForDataStream < 0 ) {
+          // Decode the records of the file on another thread while this one converts them to rows
+          avroNestedReader.m_prefetcher = new AvroRecordPrefetcher( nativeAvroRecordReader );
+        }
       } else {
 
         if ( avroSchema != null ) {
@@ -94,6 +100,7 @@ public class AvroNestedRecordReader implements IPentahoInputFormat.IPentahoRecor
     } catch ( Exception e ) {
       e.printStackTrace();
     }
+    prefetcher = avroNestedReader.m_prefetcher;
 
     ArrayList<AvroInputField> castedList = new ArrayList<AvroInputField>();
     for ( IAvroInputField field : fields ) {
@@ -130,7 +137,9 @@ public class AvroNestedRecordReader implements IPentahoInputFormat.IPentahoRecor
 
   @Override
   public void close() throws IOException {
-    if ( nativeAvroRecordReader != null ) {
+    if ( prefetcher != null ) {
+      prefetcher.close();
+    } else if ( nativeAvroRecordReader != null ) {
       nativeAvroRecordReader.close();
     }
   }
@@ -156,7 +165,15 @@ public class AvroNestedRecordReader implements IPentahoInputFormat.IPentahoRecor
         if ( hasExpandedRows() ) {
           return true;
         }
-        if ( nativeAvroRecordReader != null && nativeAvroRecordReader.hasNext() ) {
+        if ( prefetcher != null ) {
+          try {
+            if ( prefetcher.hasNext() ) {
+              return true;
+            }
+          } catch ( IOException e ) {
+            throw new AvroRuntimeException( e );
+          }
+        } else if ( nativeAvroRecordReader != null && nativeAvroRecordReader.hasNext() ) {
           return true;
         }
         if ( incomingFields != null ) {
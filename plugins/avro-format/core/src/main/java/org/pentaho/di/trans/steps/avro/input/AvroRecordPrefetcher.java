@@ -0,0 +1,178 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.avro.input;
+
+import org.apache.avro.file.DataFileStream;
+import org.pentaho.di.core.util.ExecutorUtil;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decodes the records of an Avro container file on a background thread, so reading and inflating the blocks and
+ * decoding the records overlaps with the conversion to Kettle rows.
+ * <p>
+ * The records are decoded in batches. A fixed number of batches goes round between the decoding thread and the reader,
+ * and every slot of a batch hands its previous record to the datum reader to be reused, so after the first rounds no
+ * new records are created. A record stays valid until the reader moves on to the next batch.
+ */
+public class AvroRecordPrefetcher implements Closeable {
+
+  public static final int DEFAULT_BATCH_SIZE = 256;
+
+  private static final int BATCHES = 3;
+  private static final long WAIT_MILLIS = 100;
+
+  private static class Batch {
+    final Object[] records;
+    int size;
+    boolean last;
+    Throwable error;
+
+    Batch( int batchSize ) {
+      records = new Object[ batchSize ];
+    }
+  }
+
+  private final Iterator<Object> records;
+  private final Closeable stream;
+  private final BlockingQueue<Batch> free = new ArrayBlockingQueue<>( BATCHES );
+  private final BlockingQueue<Batch> ready = new ArrayBlockingQueue<>( BATCHES );
+  private final CountDownLatch decoderDone = new CountDownLatch( 1 );
+
+  private volatile boolean closed;
+  private boolean started;
+  private Batch current;
+  private int position;
+
+  public AvroRecordPrefetcher( DataFileStream<Object> stream ) {
+    this( stream, stream, DEFAULT_BATCH_SIZE );
+  }
+
+  /**
+   * @param records   the records to decode, a {@link DataFileStream} to reuse the records
+   * @param stream    closed with the prefetcher
+   * @param batchSize the number of records in a batch
+   */
+  AvroRecordPrefetcher( Iterator<Object> records, Closeable stream, int batchSize ) {
+    this.records = records;
+    this.stream = stream;
+    for ( int i = 0; i < BATCHES; i++ ) {
+      free.add( new Batch( Math.max( 1, batchSize ) ) );
+    }
+  }
+
+  /**
+   * @return true if there is another record; waits for the decoding thread if needed
+   * @throws IOException if the decoding thread failed, after the records decoded before the failure are read
+   */
+  public boolean hasNext() throws IOException {
+    if ( !started ) {
+      started = true;
+      ExecutorUtil.getExecutor().submit( this::decode );
+    }
+    while ( true ) {
+      if ( current != null ) {
+        if ( position < current.size ) {
+          return true;
+        }
+        if ( current.error != null ) {
+          throw current.error instanceof IOException ? (IOException) current.error
+            : new IOException( current.error );
+        }
+        if ( current.last ) {
+          return false;
+        }
+        // The records of this batch are done with, decode the next batch in them
+        free.add( current );
+        current = null;
+      }
+      try {
+        current = ready.take();
+        position = 0;
+      } catch ( InterruptedException e ) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException( "Interrupted while waiting for Avro records" );
+      }
+    }
+  }
+
+  /**
+   * @return the next record; only valid after {@link #hasNext()} returned true
+   */
+  public Object next() {
+    return current.records[ position++ ];
+  }
+
+  private void decode() {
+    try {
+      while ( !closed ) {
+        Batch batch = free.poll( WAIT_MILLIS, TimeUnit.MILLISECONDS );
+        if ( batch == null ) {
+          continue;
+        }
+        batch.size = 0;
+        try {
+          while ( batch.size < batch.records.length && records.hasNext() ) {
+            batch.records[ batch.size ] = nextRecord( batch.records[ batch.size ] );
+            batch.size++;
+          }
+          batch.last = !records.hasNext();
+        } catch ( Throwable e ) {
+          batch.error = e;
+          batch.last = true;
+        }
+        while ( !closed && !ready.offer( batch, WAIT_MILLIS, TimeUnit.MILLISECONDS ) ) {
+          // The reader is busy, wait for it to take a batch
+        }
+        if ( batch.last ) {
+          return;
+        }
+      }
+    } catch ( InterruptedException e ) {
+      Thread.currentThread().interrupt();
+    } finally {
+      decoderDone.countDown();
+    }
+  }
+
+  @SuppressWarnings( "unchecked" )
+  private Object nextRecord( Object reuse ) throws IOException {
+    if ( records instanceof DataFileStream ) {
+      return ( (DataFileStream<Object>) records ).next( reuse );
+    }
+    return records.next();
+  }
+
+  @Override
+  public void close() throws IOException {
+    closed = true;
+    try {
+      if ( started ) {
+        ready.clear();
+        decoderDone.await();
+      }
+    } catch ( InterruptedException e ) {
+      Thread.currentThread().interrupt();
+    } finally {
+      stream.close();
+    }
+  }
+}
@@ -50,6 +50,7 @@ public class PentahoAvroInputFormat implements IPentahoAvroInputFormat {
   private boolean isDatum;
   private String schemaFieldName;
   private Bowl bowl;
+  private GenericDatumReader<Object> nestedDatumReader;
 
   private RowMetaInterface incomingRowMeta;
   private RowMetaInterface outputRowMeta;
@@ -67,7 +68,17 @@ public class PentahoAvroInputFormat implements IPentahoAvroInputFormat {
     Schema avroSchema = readAvroSchema();
     int dataFieldIndex = useFieldAsInputStream ? determineStringFieldIndex( inputStreamFieldName ) : -1;
 
-    return new AvroNestedRecordReader( bowl, nestedDfs, avroSchema, getFields(), variableSpace, incomingRowMeta,
+    List<? extends IAvroInputField> fields = getFields();
+    if ( nestedDfs != null ) {
+      // Only decode the fields we need, the datum reader skips the others
+      Schema projectedSchema = AvroNestedFieldGetter.getProjectedSchema( avroSchema, fields );
+      if ( projectedSchema != null ) {
+        nestedDatumReader.setExpected( projectedSchema );
+        avroSchema = projectedSchema;
+      }
+    }
+
+    return new AvroNestedRecordReader( bowl, nestedDfs, avroSchema, fields, variableSpace, incomingRowMeta,
       incomingFields, outputRowMeta, fileName, isDataBinaryEncoded, dataFieldIndex, isDatum );
 
   }
@@ -187,9 +198,10 @@ public class PentahoAvroInputFormat implements IPentahoAvroInputFormat {
   }
 
   private DataFileStream<Object> createNestedDataFileStream() throws Exception {
-    DatumReader<Object> datumReader;
+    GenericDatumReader<Object> datumReader;
     if ( useFieldAsInputStream ) {
       datumReader = new GenericDatumReader<Object>();
+      nestedDatumReader = datumReader;
       inputStream.reset();
       return new DataFileStream<Object>( inputStream, datumReader );
     }
@@ -200,6 +212,7 @@ public class PentahoAvroInputFormat implements IPentahoAvroInputFormat {
     } else {
       datumReader = new GenericDatumReader<Object>();
     }
+    nestedDatumReader = datumReader;
     FileObject fileObject = KettleVFS.getInstance( bowl ).getFileObject( fileName, variableSpace );
     if ( fileObject.isFile() ) {
       this.inputStream = fileObject.getContent().getInputStream();
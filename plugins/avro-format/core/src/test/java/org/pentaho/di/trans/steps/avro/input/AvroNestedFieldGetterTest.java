@@ -0,0 +1,129 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.avro.input;
+
+import org.apache.avro.Schema;
+import org.apache.avro.file.DataFileStream;
+import org.apache.avro.file.DataFileWriter;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class AvroNestedFieldGetterTest {
+
+  private static final Schema SCHEMA = new Schema.Parser().parse( "{\"type\":\"record\",\"name\":\"person\","
+    + "\"namespace\":\"test\",\"fields\":["
+    + "{\"name\":\"id\",\"type\":\"long\"},"
+    + "{\"name\":\"name\",\"type\":[\"null\",\"string\"]},"
+    + "{\"name\":\"address\",\"type\":{\"type\":\"record\",\"name\":\"address\",\"fields\":["
+    + "{\"name\":\"city\",\"type\":\"string\"}]}},"
+    + "{\"name\":\"tags\",\"type\":{\"type\":\"array\",\"items\":\"string\"}}]}" );
+
+  @Test
+  public void testProjectedSchemaKeepsTheTopLevelFieldsOfThePaths() {
+    Schema projected = AvroNestedFieldGetter.getProjectedSchema( SCHEMA, fields( "$.id", "$.address.city",
+      "$.tags[0]" ) );
+
+    assertNotNull( projected );
+    assertEquals( SCHEMA.getFullName(), projected.getFullName() );
+    assertEquals( 3, projected.getFields().size() );
+    assertEquals( "id", projected.getFields().get( 0 ).name() );
+    assertEquals( "address", projected.getFields().get( 1 ).name() );
+    assertEquals( "tags", projected.getFields().get( 2 ).name() );
+    assertNull( projected.getField( "name" ) );
+  }
+
+  @Test
+  public void testNoProjection() {
+    // All the fields are needed
+    assertNull( AvroNestedFieldGetter.getProjectedSchema( SCHEMA, fields( "$.id", "$.name", "$.address.city",
+      "$.tags[*]" ) ) );
+    // Paths that can't be resolved before reading
+    assertNull( AvroNestedFieldGetter.getProjectedSchema( SCHEMA, fields( "$.id", "$.${field}" ) ) );
+    assertNull( AvroNestedFieldGetter.getProjectedSchema( SCHEMA, fields( "$.id", "$.missing" ) ) );
+    assertNull( AvroNestedFieldGetter.getProjectedSchema( SCHEMA, fields( "$[0]" ) ) );
+    assertNull( AvroNestedFieldGetter.getProjectedSchema( Schema.createArray( SCHEMA ), fields( "$[0].id" ) ) );
+  }
+
+  @Test
+  public void testTopLevelFieldName() {
+    assertEquals( "id", AvroNestedFieldGetter.getTopLevelFieldName( "$.id" ) );
+    assertEquals( "id", AvroNestedFieldGetter.getTopLevelFieldName( "id" ) );
+    assertEquals( "address", AvroNestedFieldGetter.getTopLevelFieldName( "$.address.city" ) );
+    assertEquals( "tags", AvroNestedFieldGetter.getTopLevelFieldName( "$.tags[*]" ) );
+    assertEquals( "map", AvroNestedFieldGetter.getTopLevelFieldName( "$.map[key].value" ) );
+    assertNull( AvroNestedFieldGetter.getTopLevelFieldName( "$" ) );
+    assertNull( AvroNestedFieldGetter.getTopLevelFieldName( "$[0]" ) );
+    assertNull( AvroNestedFieldGetter.getTopLevelFieldName( "${var}" ) );
+  }
+
+  @Test
+  public void testReadsWithTheProjectedSchema() throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try ( DataFileWriter<GenericRecord> writer =
+            new DataFileWriter<>( new GenericDatumWriter<GenericRecord>( SCHEMA ) ) ) {
+      writer.create( SCHEMA, out );
+      for ( long i = 0; i < 100; i++ ) {
+        GenericRecord address = new GenericData.Record( SCHEMA.getField( "address" ).schema() );
+        address.put( "city", "city" + i );
+        GenericRecord record = new GenericData.Record( SCHEMA );
+        record.put( "id", i );
+        record.put( "name", i % 2 == 0 ? null : "name" + i );
+        record.put( "address", address );
+        record.put( "tags", Arrays.asList( "a" + i, "b" + i ) );
+        writer.append( record );
+      }
+    }
+
+    Schema projected = AvroNestedFieldGetter.getProjectedSchema( SCHEMA, fields( "$.tags[1]", "$.id" ) );
+    GenericDatumReader<Object> datumReader = new GenericDatumReader<>();
+    try ( DataFileStream<Object> stream =
+            new DataFileStream<>( new ByteArrayInputStream( out.toByteArray() ), datumReader ) ) {
+      datumReader.setExpected( projected );
+      Object reuse = null;
+      long expected = 0;
+      while ( stream.hasNext() ) {
+        reuse = stream.next( reuse );
+        GenericRecord record = (GenericRecord) reuse;
+        assertEquals( 2, record.getSchema().getFields().size() );
+        assertEquals( expected, record.get( "id" ) );
+        assertEquals( "b" + expected, ( (List<?>) record.get( "tags" ) ).get( 1 ).toString() );
+        expected++;
+      }
+      assertEquals( 100, expected );
+    }
+  }
+
+  private static List<IAvroInputField> fields( String... paths ) {
+    List<IAvroInputField> fields = new ArrayList<>();
+    for ( String path : paths ) {
+      AvroInputField field = new AvroInputField();
+      field.setAvroFieldName( path );
+      fields.add( field );
+    }
+    return fields;
+  }
+}
@@ -0,0 +1,156 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.avro.input;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.file.DataFileStream;
+import org.apache.avro.file.DataFileWriter;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.junit.Test;
+import org.pentaho.di.core.row.ValueMetaInterface;
+import org.pentaho.di.trans.steps.avro.AvroToPdiConverter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class AvroRecordPrefetcherTest {
+
+  @Test
+  public void testReadsAllRecordsInOrder() throws IOException {
+    AtomicBoolean closed = new AtomicBoolean();
+    AvroRecordPrefetcher prefetcher = new AvroRecordPrefetcher( count( 1000, -1 ), () -> closed.set( true ), 7 );
+
+    for ( int i = 0; i < 1000; i++ ) {
+      assertTrue( prefetcher.hasNext() );
+      assertEquals( i, prefetcher.next() );
+    }
+    assertFalse( prefetcher.hasNext() );
+    assertFalse( prefetcher.hasNext() );
+
+    prefetcher.close();
+    assertTrue( closed.get() );
+  }
+
+  @Test
+  public void testEmpty() throws IOException {
+    AvroRecordPrefetcher prefetcher = new AvroRecordPrefetcher( count( 0, -1 ), () -> { }, 7 );
+    assertFalse( prefetcher.hasNext() );
+    prefetcher.close();
+  }
+
+  @Test
+  public void testErrorAfterTheRecordsBeforeIt() throws IOException {
+    AvroRecordPrefetcher prefetcher = new AvroRecordPrefetcher( count( 100, 50 ), () -> { }, 16 );
+    for ( int i = 0; i < 50; i++ ) {
+      assertTrue( prefetcher.hasNext() );
+      assertEquals( i, prefetcher.next() );
+    }
+    try {
+      prefetcher.hasNext();
+      fail( "The decoding error should be thrown" );
+    } catch ( IOException e ) {
+      assertEquals( "record 50", e.getCause().getMessage() );
+    }
+    prefetcher.close();
+  }
+
+  @Test
+  public void testCloseBeforeTheEnd() throws IOException {
+    AtomicBoolean closed = new AtomicBoolean();
+    AvroRecordPrefetcher prefetcher = new AvroRecordPrefetcher( count( 100000, -1 ), () -> closed.set( true ), 4 );
+    assertTrue( prefetcher.hasNext() );
+    assertEquals( 0, prefetcher.next() );
+    prefetcher.close();
+    assertTrue( closed.get() );
+  }
+
+  @Test
+  public void testFixedValuesOfEarlierRowsAreNotReused() throws IOException {
+    Schema fixedSchema = SchemaBuilder.fixed( "id" ).size( 4 );
+    Schema schema = SchemaBuilder.record( "row" ).fields().name( "id" ).type( fixedSchema ).noDefault().endRecord();
+    int nrRecords = 4 * AvroRecordPrefetcher.DEFAULT_BATCH_SIZE;
+
+    ByteArrayOutputStream file = new ByteArrayOutputStream();
+    try ( DataFileWriter<GenericRecord> writer = new DataFileWriter<>( new GenericDatumWriter<>( schema ) ) ) {
+      writer.create( schema, file );
+      for ( int i = 0; i < nrRecords; i++ ) {
+        GenericRecord record = new GenericData.Record( schema );
+        record.put( "id", new GenericData.Fixed( fixedSchema, toBytes( i ) ) );
+        writer.append( record );
+      }
+    }
+
+    AvroInputField field = new AvroInputField();
+    field.setPathParts( Collections.singletonList( "id" ) );
+    field.setPentahoType( ValueMetaInterface.TYPE_BINARY );
+    AvroToPdiConverter converter = new AvroToPdiConverter( schema );
+
+    List<Object> values = new ArrayList<>();
+    DataFileStream<Object> stream =
+      new DataFileStream<>( new ByteArrayInputStream( file.toByteArray() ), new GenericDatumReader<>( schema ) );
+    try ( AvroRecordPrefetcher prefetcher = new AvroRecordPrefetcher( stream ) ) {
+      while ( prefetcher.hasNext() ) {
+        GenericRecord record = (GenericRecord) prefetcher.next();
+        values.add( converter.converAvroToPdi( record.get( "id" ), field, fixedSchema ) );
+      }
+    }
+
+    assertEquals( nrRecords, values.size() );
+    for ( int i = 0; i < nrRecords; i++ ) {
+      assertArrayEquals( toBytes( i ), (byte[]) values.get( i ) );
+    }
+  }
+
+  private static byte[] toBytes( int i ) {
+    return new byte[] { (byte) ( i >>> 24 ), (byte) ( i >>> 16 ), (byte) ( i >>> 8 ), (byte) i };
+  }
+
+  /**
+   * @return the numbers up to count, failing at the given number
+   */
+  private static Iterator<Object> count( int count, int failAt ) {
+    return new Iterator<Object>() {
+      private int next;
+
+      @Override
+      public boolean hasNext() {
+        return next < count;
+      }
+
+      @Override
+      public Object next() {
+        if ( next == failAt ) {
+          throw new IllegalStateException( "record " + next );
+        }
+        return next++;
+      }
+    };
+  }
+}
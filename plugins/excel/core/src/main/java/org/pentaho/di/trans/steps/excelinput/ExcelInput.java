@@ -56,6 +56,7 @@ import org.pentaho.di.trans.step.errorhandling.CompositeFileErrorHandler;
 import org.pentaho.di.trans.step.errorhandling.FileErrorHandler;
 import org.pentaho.di.trans.step.errorhandling.FileErrorHandlerContentLineNumber;
 import org.pentaho.di.trans.step.errorhandling.FileErrorHandlerMissingFiles;
+import org.pentaho.di.trans.steps.excelinput.staxpoi.StaxPoiSheet;
 import org.pentaho.di.trans.steps.utils.CommonExcelUtils;
 import org.springframework.util.CollectionUtils;
 
@@ -578,7 +579,8 @@ public class ExcelInput extends BaseStep implements StepInterface {
       }
 
       String sheetName = data.sheetNames[data.sheetnr];
-      KSheet sheet = data.workbook.getSheet( sheetName );
+      // A sheet that another copy of the step reads is not opened
+      KSheet sheet = isSheetForThisCopy() ? data.workbook.getSheet( sheetName ) : null;
       if ( sheet != null ) {
         // at what row do we continue reading?
         if ( data.rownr < 0 ) {
@@ -588,6 +590,11 @@ public class ExcelInput extends BaseStep implements StepInterface {
           if ( meta.startsWithHeader() ) {
             data.rownr++;
           }
+
+          if ( sheet instanceof StaxPoiSheet ) {
+            // Only the cells of the fields are converted
+            ( (StaxPoiSheet) sheet ).setColumnRange( data.startColumn[data.sheetnr], meta.getField().length );
+          }
         }
         // Start at the specified column
         data.colnr = data.startColumn[data.sheetnr];
@@ -672,6 +679,18 @@ public class ExcelInput extends BaseStep implements StepInterface {
     return retval;
   }
 
+  /**
+   * With the sheets spread over the copies of the step, every copy takes its turn at the next sheet of the files. The
+   * decision is taken at the start of the sheet, rows of a sheet that is being read always belong to this copy.
+   */
+  private boolean isSheetForThisCopy() {
+    if ( !meta.isDistributeSheets() || meta.isAcceptingFilenames() || data.totalNumberOfSteps <= 1
+      || data.rownr >= 0 ) {
+      return true;
+    }
+    return data.sheetCounter++ % data.totalNumberOfSteps == data.stepNumber;
+  }
+
   private boolean isLineEmpty( KCell[] line ) {
     if ( line.length == 0 ) {
       return true;
@@ -745,6 +764,8 @@ public class ExcelInput extends BaseStep implements StepInterface {
       initErrorHandling();
       initReplayFactory();
       data.files = meta.getFileList( getTransMeta().getBowl(), this );
+      data.stepNumber = getUniqueStepNrAcrossSlaves();
+      data.totalNumberOfSteps = getUniqueStepCountAcrossSlaves();
       if ( data.files.nrOfFiles() == 0 && data.files.nrOfMissingFiles() > 0 && !meta.isAcceptingFilenames() ) {
 
         logError( BaseMessages.getString( PKG, "ExcelInput.Error.NoFileSpecified" ) );
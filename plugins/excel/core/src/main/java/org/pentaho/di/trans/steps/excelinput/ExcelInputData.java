@@ -79,6 +79,17 @@ public class ExcelInputData extends BaseStepData implements StepDataInterface {
    */
   public KSheet sheet;
 
+  /**
+   * The number of sheets come across so far, in all files, when the sheets are spread over the step copies
+   */
+  public int sheetCounter;
+
+  /**
+   * The number of this step copy and the number of copies, to spread the sheets
+   */
+  public int stepNumber;
+  public int totalNumberOfSteps;
+
   /**
    * The row where we left off the previous time...
    */
@@ -283,6 +283,13 @@ public class ExcelInputMeta extends BaseStepMeta implements StepMetaInterface {
   @Injection( name = "SPREADSHEET_TYPE" )
   private SpreadSheetType spreadSheetType;
 
+  /**
+   * Spread the sheets over the copies of the step: every copy reads its own sheets, instead of all copies reading all
+   * sheets
+   */
+  @Injection( name = "DISTRIBUTE_SHEETS" )
+  private boolean distributeSheets;
+
   private String password;
 
   public ExcelInputMeta() {
@@ -803,6 +810,7 @@ public class ExcelInputMeta extends BaseStepMeta implements StepMetaInterface {
       } catch ( Exception e ) {
         spreadSheetType = SpreadSheetType.JXL;
       }
+      distributeSheets = YES.equalsIgnoreCase( XMLHandler.getTagValue( stepnode, "distribute_sheets" ) );
     } catch ( Exception e ) {
       throw new KettleXMLException( "Unable to read step information from XML", e );
     }
@@ -901,6 +909,7 @@ public class ExcelInputMeta extends BaseStepMeta implements StepMetaInterface {
     lineNumberFilesExtension = "line";
 
     spreadSheetType = SpreadSheetType.JXL; // default.
+    distributeSheets = false;
   }
 
   @Override
@@ -1112,6 +1121,7 @@ public class ExcelInputMeta extends BaseStepMeta implements StepMetaInterface {
 
     retval.append( "    " ).append( XMLHandler.addTagValue( "spreadsheet_type",
       ( spreadSheetType != null ? spreadSheetType.toString() : StringUtil.EMPTY_STRING ) ) );
+    retval.append( "    " ).append( XMLHandler.addTagValue( "distribute_sheets", distributeSheets ) );
 
     retval.append( "    " )
       .append( XMLHandler.addTagValue( "password", Encr.encryptPasswordIfNotUsingVariables( password ) ) );
@@ -1214,6 +1224,7 @@ public class ExcelInputMeta extends BaseStepMeta implements StepMetaInterface {
       } catch ( Exception e ) {
         spreadSheetType = SpreadSheetType.JXL;
       }
+      distributeSheets = rep.getStepAttributeBoolean( id_step, "distribute_sheets" );
     } catch ( Exception e ) {
       throw new KettleException( "Unexpected error reading step information from the repository", e );
     }
@@ -1296,6 +1307,7 @@ public class ExcelInputMeta extends BaseStepMeta implements StepMetaInterface {
 
       rep.saveStepAttribute( id_transformation, id_step, "spreadsheet_type",
         ( spreadSheetType != null ? spreadSheetType.toString() : StringUtil.EMPTY_STRING ) );
+      rep.saveStepAttribute( id_transformation, id_step, "distribute_sheets", distributeSheets );
 
       rep.saveStepAttribute( id_transformation, id_step, "password", Encr
         .encryptPasswordIfNotUsingVariables( password ) );
@@ -1683,6 +1695,20 @@ public class ExcelInputMeta extends BaseStepMeta implements StepMetaInterface {
     this.spreadSheetType = spreadSheetType;
   }
 
+  /**
+   * @return true if the sheets are spread over the copies of the step
+   */
+  public boolean isDistributeSheets() {
+    return distributeSheets;
+  }
+
+  /**
+   * @param distributeSheets true to spread the sheets over the copies of the step
+   */
+  public void setDistributeSheets( boolean distributeSheets ) {
+    this.distributeSheets = distributeSheets;
+  }
+
   /**
    * If we use injection we can have different arrays lengths. We need synchronize them for consistency behavior with
    * UI
@@ -0,0 +1,63 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.excelinput.staxpoi;
+
+import java.util.Arrays;
+
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.xssf.model.StylesTable;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTXf;
+
+/**
+ * Tells the cell styles of a workbook that format a number as a date.<br>
+ * A style is looked up in the styles table, and its number format matched, the first time a cell uses it; after that
+ * it's an array lookup. The styles are shared by all the sheets of the workbook.
+ */
+class StaxPoiDateStyles {
+
+  private static final byte UNKNOWN = 0;
+  private static final byte DATE = 1;
+  private static final byte NOT_DATE = 2;
+
+  private final StylesTable styles;
+  private byte[] dateStyles = new byte[ 64 ];
+
+  StaxPoiDateStyles( StylesTable styles ) {
+    this.styles = styles;
+  }
+
+  boolean isDateStyle( int styleIdx ) {
+    if ( styles == null || styleIdx < 0 ) {
+      return false;
+    }
+    if ( styleIdx >= dateStyles.length ) {
+      dateStyles = Arrays.copyOf( dateStyles, Math.max( styleIdx + 1, dateStyles.length * 2 ) );
+    }
+    if ( dateStyles[ styleIdx ] == UNKNOWN ) {
+      dateStyles[ styleIdx ] = lookup( styleIdx ) ? DATE : NOT_DATE;
+    }
+    return dateStyles[ styleIdx ] == DATE;
+  }
+
+  private boolean lookup( int styleIdx ) {
+    CTXf cellXf = styles.getCellXfAt( styleIdx );
+    if ( cellXf != null ) {
+      // need id for builtin types, format if custom
+      short formatId = (short) cellXf.getNumFmtId();
+      String format = styles.getNumberFormatAt( formatId );
+      return DateUtil.isADateFormat( formatId, format );
+    }
+    return false;
+  }
+}
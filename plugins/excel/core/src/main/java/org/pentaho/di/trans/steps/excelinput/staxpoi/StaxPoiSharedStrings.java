@@ -0,0 +1,186 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.excelinput.staxpoi;
+
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.poi.xssf.model.SharedStrings;
+import org.pentaho.di.core.xml.XMLParserFactoryProducer;
+
+/**
+ * The shared strings table of a workbook, read once for all its sheets.<br>
+ * The strings are kept back to back in one char array with an offset per string, instead of an XML bean per string.
+ * A String is only made when a cell asks for it; the strings asked for last are kept, so a column that repeats a few
+ * labels gets the same String instances.
+ */
+public class StaxPoiSharedStrings {
+
+  private static final Pattern UTF_PATTERN = Pattern.compile( "_x([0-9A-Fa-f]{4})_" );
+
+  private static final int CACHE_SIZE = 4096;
+
+  private static final String TAG_SI = "si";
+  private static final String TAG_T = "t";
+  private static final String TAG_RPH = "rPh";
+
+  private char[] chars = new char[ 1024 ];
+  private int length;
+  private int[] offsets = new int[ 65 ];
+  private int count;
+
+  private final String[] cache = new String[ CACHE_SIZE ];
+  private final int[] cachedIndexes = new int[ CACHE_SIZE ];
+
+  private StaxPoiSharedStrings() {
+    Arrays.fill( cachedIndexes, -1 );
+  }
+
+  /**
+   * Reads the shared strings part of a workbook.
+   *
+   * @param sharedStringsData the shared strings part, or null if the workbook has none
+   */
+  public static StaxPoiSharedStrings read( InputStream sharedStringsData ) throws XMLStreamException {
+    StaxPoiSharedStrings strings = new StaxPoiSharedStrings();
+    if ( sharedStringsData == null ) {
+      return strings;
+    }
+    XMLInputFactory factory = XMLParserFactoryProducer.createSecureXMLInputFactory();
+    XMLStreamReader reader = factory.createXMLStreamReader( sharedStringsData );
+    try {
+      StringBuilder item = new StringBuilder();
+      boolean inItem = false;
+      int phoneticDepth = 0;
+      while ( reader.hasNext() ) {
+        int event = reader.next();
+        if ( event == XMLStreamConstants.START_ELEMENT ) {
+          String name = reader.getLocalName();
+          if ( TAG_SI.equals( name ) ) {
+            inItem = true;
+            item.setLength( 0 );
+          } else if ( TAG_RPH.equals( name ) ) {
+            phoneticDepth++;
+          } else if ( TAG_T.equals( name ) && inItem && phoneticDepth == 0 ) {
+            // the text of the item, or of one of its runs
+            item.append( reader.getElementText() );
+          }
+        } else if ( event == XMLStreamConstants.END_ELEMENT ) {
+          String name = reader.getLocalName();
+          if ( TAG_SI.equals( name ) ) {
+            inItem = false;
+            // decoded once for the item and once more for the rich text string the sheet used to wrap it in
+            strings.add( decode( decode( item.toString() ) ) );
+          } else if ( TAG_RPH.equals( name ) ) {
+            phoneticDepth--;
+          }
+        }
+      }
+    } finally {
+      reader.close();
+    }
+    return strings;
+  }
+
+  /**
+   * Copies a shared strings table that was read already.
+   */
+  public static StaxPoiSharedStrings copyOf( SharedStrings sst ) {
+    StaxPoiSharedStrings strings = new StaxPoiSharedStrings();
+    if ( sst != null && sst.getCount() > 0 ) {
+      for ( int i = 0; i < sst.getUniqueCount(); i++ ) {
+        strings.add( decode( sst.getItemAt( i ).getString() ) );
+      }
+    }
+    return strings;
+  }
+
+  private void add( String value ) {
+    if ( length + value.length() > chars.length ) {
+      chars = Arrays.copyOf( chars, Math.max( chars.length * 2, length + value.length() ) );
+    }
+    value.getChars( 0, value.length(), chars, length );
+    length += value.length();
+    if ( count + 1 == offsets.length ) {
+      offsets = Arrays.copyOf( offsets, offsets.length * 2 );
+    }
+    count++;
+    offsets[ count ] = length;
+  }
+
+  /**
+   * @return the number of strings in the table
+   */
+  public int size() {
+    return count;
+  }
+
+  /**
+   * @return true if the string is empty, without making the string
+   */
+  public boolean isEmpty( int index ) {
+    checkIndex( index );
+    return offsets[ index ] == offsets[ index + 1 ];
+  }
+
+  public String get( int index ) {
+    checkIndex( index );
+    int slot = index & ( CACHE_SIZE - 1 );
+    if ( cachedIndexes[ slot ] == index ) {
+      return cache[ slot ];
+    }
+    String value = new String( chars, offsets[ index ], offsets[ index + 1 ] - offsets[ index ] );
+    cache[ slot ] = value;
+    cachedIndexes[ slot ] = index;
+    return value;
+  }
+
+  private void checkIndex( int index ) {
+    if ( index < 0 || index >= count ) {
+      throw new IndexOutOfBoundsException( "Shared string " + index + " of " + count );
+    }
+  }
+
+  /**
+   * Replaces the _xHHHH_ escapes of characters that can't be in XML, the way the rich text strings of POI do.
+   */
+  static String decode( String value ) {
+    if ( value == null || !value.contains( "_x" ) ) {
+      return value;
+    }
+    Matcher matcher = UTF_PATTERN.matcher( value );
+    StringBuilder decoded = null;
+    int index = 0;
+    while ( matcher.find() ) {
+      if ( decoded == null ) {
+        decoded = new StringBuilder( value.length() );
+      }
+      decoded.append( value, index, matcher.start() );
+      decoded.append( (char) Integer.parseInt( matcher.group( 1 ), 16 ) );
+      index = matcher.end();
+    }
+    if ( decoded == null ) {
+      return value;
+    }
+    decoded.append( value, index, value.length() );
+    return decoded.toString();
+  }
+}
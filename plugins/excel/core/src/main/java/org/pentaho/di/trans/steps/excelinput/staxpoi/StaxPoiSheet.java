@@ -33,10 +33,7 @@ import org.apache.commons.lang.StringUtils;
 import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
 import org.apache.poi.ss.usermodel.DateUtil;
 import org.apache.poi.xssf.eventusermodel.XSSFReader;
-import org.apache.poi.xssf.model.SharedStrings;
-import org.apache.poi.xssf.model.StylesTable;
 import org.apache.poi.xssf.usermodel.XSSFRichTextString;
-import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTXf;
 import org.pentaho.di.core.spreadsheet.KCell;
 import org.pentaho.di.core.spreadsheet.KCellType;
 import org.pentaho.di.core.spreadsheet.KSheet;
@@ -78,17 +75,30 @@ public class StaxPoiSheet implements KSheet {
   private KCell[] currentRowCells;
 
   // full shared strings table
-  private SharedStrings sst;
+  private final StaxPoiSharedStrings sharedStrings;
   // custom styles
-  private StylesTable styles;
+  private final StaxPoiDateStyles dateStyles;
+
+  // 0-based columns that are read, the cells of other columns are only checked for content
+  private int firstColumn = 0;
+  private int endColumn = Integer.MAX_VALUE;
 
   public StaxPoiSheet( XSSFReader reader, String sheetName, String sheetID )
       throws InvalidFormatException, IOException, XMLStreamException {
+    this( reader, sheetName, sheetID, StaxPoiSharedStrings.copyOf( reader.getSharedStringsTable() ),
+      new StaxPoiDateStyles( reader.getStylesTable() ) );
+  }
+
+  /**
+   * Opens a sheet with the shared strings and styles of its workbook, which are read once for all sheets.
+   */
+  StaxPoiSheet( XSSFReader reader, String sheetName, String sheetID, StaxPoiSharedStrings sharedStrings,
+    StaxPoiDateStyles dateStyles ) throws InvalidFormatException, IOException, XMLStreamException {
     this.sheetName = sheetName;
     xssfReader = reader;
     sheetId = sheetID;
-    sst = reader.getSharedStringsTable();
-    styles = reader.getStylesTable();
+    this.sharedStrings = sharedStrings;
+    this.dateStyles = dateStyles;
     sheetStream = reader.getSheet( sheetID );
     XMLInputFactory factory = XMLParserFactoryProducer.createSecureXMLInputFactory();
     sheetReader = factory.createXMLStreamReader( sheetStream );
@@ -128,9 +138,8 @@ public class StaxPoiSheet implements KSheet {
                     event = sheetReader.next();
                     if ( event == XMLStreamConstants.START_ELEMENT && sheetReader.getLocalName().equals( TAG_V ) ) {
                       int idx = Integer.parseInt( sheetReader.getElementText() );
-                      if (sst != null && sst.getCount() > 0) {
-                        String content = new XSSFRichTextString(sst.getItemAt(idx).getString()).toString();
-                        headerRow.add( content );
+                      if ( sharedStrings.size() > 0 ) {
+                        headerRow.add( sharedStrings.get( idx ) );
                       }
                       break;
                     }
@@ -184,6 +193,19 @@ public class StaxPoiSheet implements KSheet {
     }
   }
 
+  /**
+   * Limits the cells that are read to a range of columns. The cells outside the range are not converted to values:
+   * they only tell whether the row is empty, and the rest of a row that has content is skipped.
+   *
+   * @param firstColumn the 0-based first column to read
+   * @param count       the number of columns to read
+   */
+  public void setColumnRange( int firstColumn, int count ) {
+    this.firstColumn = Math.max( 0, firstColumn );
+    this.endColumn = count < 0 || this.firstColumn + (long) count > Integer.MAX_VALUE
+      ? Integer.MAX_VALUE : this.firstColumn + count;
+  }
+
   boolean isMaxColsNumberDefined() {
     return maxColsNumberDefined;
   }
@@ -251,6 +273,7 @@ public class StaxPoiSheet implements KSheet {
     }
 
     int undefinedColIndex = 0;
+    boolean hasContent = false;
     for ( int i = 0; i < numCols; i++ ) {
       // go to the "c" cell tag
       while ( sheetReader.hasNext() ) {
@@ -266,6 +289,11 @@ public class StaxPoiSheet implements KSheet {
       // We're on the "c" cell tag
       String cellLocation = sheetReader.getAttributeValue( null, "r" );
       int columnIndex = StaxUtil.extractColumnNumber( cellLocation ) - 1;
+      if ( columnIndex >= endColumn && hasContent ) {
+        // the row is not empty and the columns we need are read, the rest of the row is skipped
+        return cells.toArray( new StaxPoiCell[cells.size()] );
+      }
+      boolean projected = columnIndex >= firstColumn && columnIndex < endColumn;
 
       String cellType = sheetReader.getAttributeValue( null, ATTRIBUTE_T );
       String cellStyle = sheetReader.getAttributeValue( null, "s" );
@@ -279,9 +307,10 @@ public class StaxPoiSheet implements KSheet {
           if ( sheetReader.getLocalName().equals( TAG_V ) ) {
             // read content as string
             if ( cellType != null && cellType.equals( "s" ) ) {
-              int idx = Integer.parseInt( sheetReader.getElementText() );
-              if (sst != null && sst.getCount() > 0) {
-                content = new XSSFRichTextString(sst.getItemAt(idx).getString()).toString();
+              String index = sheetReader.getElementText();
+              if ( sharedStrings.size() > 0 ) {
+                int idx = Integer.parseInt( index );
+                content = projected ? sharedStrings.get( idx ) : ( sharedStrings.isEmpty( idx ) ? "" : index );
               }
             } else {
               content = sheetReader.getElementText();
@@ -290,7 +319,7 @@ public class StaxPoiSheet implements KSheet {
             while ( sheetReader.hasNext() ) {
               event = sheetReader.next();
               if ( event == XMLStreamConstants.CHARACTERS ) {
-                content = new XSSFRichTextString( sheetReader.getText() ).toString();
+                content = projected ? new XSSFRichTextString( sheetReader.getText() ).toString() : sheetReader.getText();
                 break;
               }
               if ( event == XMLStreamConstants.END_ELEMENT ) {
@@ -314,7 +343,12 @@ public class StaxPoiSheet implements KSheet {
           break;
         }
       }
-      if ( content != null ) {
+      if ( content != null && !projected ) {
+        // not converted, only the content is kept
+        hasContent |= !content.isEmpty();
+        setCells( cells, undefinedColIndex, columnIndex, new StaxPoiCell( content, currentRow ) );
+      } else if ( content != null ) {
+        hasContent |= !content.isEmpty();
         KCellType kcType = getCellType( cellType, cellStyle, isFormula );
         setCells( cells, undefinedColIndex, columnIndex, new StaxPoiCell( parseValue( kcType, content ), kcType, currentRow ) );
       } else {
@@ -384,17 +418,7 @@ public class StaxPoiSheet implements KSheet {
 
   @VisibleForTesting
   protected boolean isDateCell( String cellStyle ) {
-    if ( cellStyle != null ) {
-      int styleIdx = Integer.parseInt( cellStyle );
-      CTXf cellXf = styles.getCellXfAt( styleIdx );
-      if ( cellXf != null ) {
-        // need id for builtin types, format if custom
-        short formatId = (short) cellXf.getNumFmtId();
-        String format = styles.getNumberFormatAt( formatId );
-        return DateUtil.isADateFormat( formatId, format );
-      }
-    }
-    return false;
+    return cellStyle != null && dateStyles.isDateStyle( Integer.parseInt( cellStyle ) );
   }
 
   private Object parseValue( KCellType type, String vContent ) {
@@ -21,6 +21,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import javax.xml.stream.XMLInputFactory;
@@ -29,7 +30,9 @@ import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
 
 import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackagePart;
 import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.usermodel.XSSFRelation;
 import org.pentaho.di.core.exception.KettleException;
 import org.pentaho.di.core.logging.KettleLogStore;
 import org.pentaho.di.core.logging.LogChannelInterface;
@@ -59,6 +62,10 @@ public class StaxPoiWorkbook implements KWorkbook {
 
   private OPCPackage opcpkg;
 
+  // shared by all the sheets, read when the first sheet is opened
+  private StaxPoiSharedStrings sharedStrings;
+  private StaxPoiDateStyles dateStyles;
+
   protected StaxPoiWorkbook() {
     openSheetsMap = new HashMap<String, StaxPoiSheet>();
     this.log = KettleLogStore.getLogChannelInterfaceFactory().create( this );
@@ -138,7 +145,11 @@ public class StaxPoiWorkbook implements KWorkbook {
     StaxPoiSheet sheet = openSheetsMap.get( sheetID );
     if ( sheet == null ) {
       try {
-        sheet = new StaxPoiSheet( reader, sheetName, sheetID );
+        if ( sharedStrings == null ) {
+          sharedStrings = readSharedStrings();
+          dateStyles = new StaxPoiDateStyles( reader.getStylesTable() );
+        }
+        sheet = new StaxPoiSheet( reader, sheetName, sheetID, sharedStrings, dateStyles );
         openSheetsMap.put( sheetID, sheet );
       } catch ( Exception e ) {
         log.logError( sheetName, e );
@@ -147,6 +158,19 @@ public class StaxPoiWorkbook implements KWorkbook {
     return sheet;
   }
 
+  /**
+   * Reads the shared strings part straight into the compact table, without building the XML beans of the POI table.
+   */
+  private StaxPoiSharedStrings readSharedStrings() throws IOException, XMLStreamException {
+    List<PackagePart> parts = opcpkg.getPartsByContentType( XSSFRelation.SHARED_STRINGS.getContentType() );
+    if ( parts.isEmpty() ) {
+      return StaxPoiSharedStrings.read( null );
+    }
+    try ( InputStream sharedStringsData = parts.get( 0 ).getInputStream() ) {
+      return StaxPoiSharedStrings.read( sharedStringsData );
+    }
+  }
+
   @Override
   public String[] getSheetNames() {
     String[] sheets = new String[sheetNameIDMap.size()];
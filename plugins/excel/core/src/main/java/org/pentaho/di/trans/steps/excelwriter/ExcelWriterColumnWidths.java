@@ -0,0 +1,100 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.excelwriter;
+
+import java.util.Arrays;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.Sheet;
+
+/**
+ * Keeps the width of the widest value written in every column, for auto sizing the columns of a streamed sheet.<br>
+ * A streamed sheet only holds the last rows in memory, so the columns can't be measured when the file is closed. The
+ * formatted values are measured while the rows are written instead: every row at first, then one row in
+ * {@link #SAMPLE_EVERY}.
+ */
+class ExcelWriterColumnWidths {
+
+  static final int ALL_ROWS_SAMPLED = 1000;
+  static final int SAMPLE_EVERY = 100;
+
+  /** The widest column Excel allows, in 1/256th of a character */
+  private static final int MAX_WIDTH = 255 * 256;
+
+  private final DataFormatter formatter = new DataFormatter();
+  private int[] widths = new int[ 16 ];
+  private long rows;
+  private boolean sampling;
+
+  /**
+   * Starts a new row.
+   *
+   * @param always true to measure the row whatever its number, as for the header and footer
+   */
+  void startRow( boolean always ) {
+    if ( always ) {
+      sampling = true;
+      return;
+    }
+    sampling = rows < ALL_ROWS_SAMPLED || rows % SAMPLE_EVERY == 0;
+    rows++;
+  }
+
+  /**
+   * Measures a cell of the current row, once its value is set.
+   */
+  void add( Cell cell ) {
+    if ( !sampling || cell.getCellType() == CellType.FORMULA ) {
+      // the value of a formula is not known before the file is opened
+      return;
+    }
+    int column = cell.getColumnIndex();
+    if ( column >= widths.length ) {
+      widths = Arrays.copyOf( widths, Math.max( column + 1, widths.length * 2 ) );
+    }
+    widths[ column ] = Math.max( widths[ column ], measure( formatter.formatCellValue( cell ) ) );
+  }
+
+  /**
+   * Sets the width of the columns that have values, a little wider than the widest value.
+   */
+  void apply( Sheet sheet ) {
+    for ( int column = 0; column < widths.length; column++ ) {
+      if ( widths[ column ] > 0 ) {
+        sheet.setColumnWidth( column, Math.min( MAX_WIDTH, ( widths[ column ] + 2 ) * 256 ) );
+      }
+    }
+  }
+
+  int getWidth( int column ) {
+    return column < widths.length ? widths[ column ] : 0;
+  }
+
+  /**
+   * @return the number of characters of the longest line of the text
+   */
+  static int measure( String text ) {
+    int longest = 0;
+    int start = 0;
+    for ( int i = 0; i <= text.length(); i++ ) {
+      if ( i == text.length() || text.charAt( i ) == '\n' ) {
+        longest = Math.max( longest, i - start );
+        start = i + 1;
+      }
+    }
+    return longest;
+  }
+}
@@ -54,7 +54,6 @@ import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.ss.util.CellRangeAddress;
 import org.apache.poi.ss.util.CellRangeAddressList;
 import org.apache.poi.ss.util.CellReference;
-import org.apache.poi.xssf.streaming.SXSSFSheet;
 import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.XSSFSheet;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
@@ -86,6 +85,7 @@ public class ExcelWriterStep extends BaseStep implements StepInterface {
   public static final String STREAMER_FORCE_RECALC_PROP_NAME = "KETTLE_EXCEL_WRITER_STREAMER_FORCE_RECALCULATE";
   public static final String XLSX = "xlsx";
   private static final int STREAMING_WINDOW_SIZE = SXSSFWorkbook.DEFAULT_WINDOW_SIZE;
+  private static final int MAX_STREAMING_WINDOW_SIZE = 1000000;
 
   private ExcelWriterStepData data;
   private ExcelWriterStepMeta meta;
@@ -235,6 +235,7 @@ public class ExcelWriterStep extends BaseStep implements StepInterface {
     data.innerSheet = Optional.empty();
     IOUtils.closeQuietly( data.wb );
     data.wb = null;
+    data.columnWidths = null;
     data.clearStyleCache( 0 );
   }
 
@@ -262,13 +263,10 @@ public class ExcelWriterStep extends BaseStep implements StepInterface {
         writeHeader();
       }
       // handle auto size for columns
-      if ( meta.isAutoSizeColums() ) {
-
-        // track all columns for autosizing if using streaming worksheet
-        if ( data.sheet instanceof SXSSFSheet ) {
-          ( (SXSSFSheet) data.sheet ).trackAllColumnsForAutoSizing();
-        }
-
+      if ( data.columnWidths != null ) {
+        // a streamed sheet was measured while writing
+        data.columnWidths.apply( data.sheet );
+      } else if ( meta.isAutoSizeColums() ) {
         if ( meta.getOutputFields() == null || meta.getOutputFields().length == 0 ) {
           for ( int i = 0; i < data.inputRowMeta.size(); i++ ) {
             data.sheet.autoSizeColumn( i + data.startingCol );
@@ -361,12 +359,18 @@ public class ExcelWriterStep extends BaseStep implements StepInterface {
     try {
       openLine();
       Row xlsRow = getOrCreateRow( data.posY );
+      if ( data.columnWidths != null ) {
+        data.columnWidths.startRow( false );
+      }
       if ( meta.getOutputFields() == null || meta.getOutputFields().length == 0 ) {
         // Write all values in stream to text file.
         int nr = data.inputRowMeta.size();
-        data.clearStyleCache( nr );
-        data.linkfieldnrs = new int[nr];
-        data.commentfieldnrs = new int[nr];
+        if ( data.linkfieldnrs == null || data.linkfieldnrs.length != nr ) {
+          // only once, the styles are cached for the next rows
+          data.clearStyleCache( nr );
+          data.linkfieldnrs = new int[nr];
+          data.commentfieldnrs = new int[nr];
+        }
         for ( int i = 0; i < nr; i++ ) {
           writeField( r[i], data.inputRowMeta.getValueMeta( i ), null, xlsRow, data.posX++, r, i, false );
         }
@@ -590,6 +594,9 @@ public class ExcelWriterStep extends BaseStep implements StepInterface {
             break;
         }
       }
+      if ( data.columnWidths != null ) {
+        data.columnWidths.add( cell );
+      }
     } catch ( Exception e ) {
       logError( "Error writing field (" + data.posX + "," + data.posY + ") : " + e.toString() );
       logError( Const.getStackTracker( e ) );
@@ -714,6 +721,9 @@ public class ExcelWriterStep extends BaseStep implements StepInterface {
           data.wb = new HSSFWorkbook( inputStream );
         }
       }
+      // a streamed sheet can't be measured at the end, the values are measured as they are written
+      data.columnWidths = meta.isAutoSizeColums() && meta.isStreamingData() && data.wb instanceof XSSFWorkbook
+        ? new ExcelWriterColumnWidths() : null;
 
       int existingActiveSheetIndex = data.wb.getActiveSheetIndex();
       int replacingSheetAt = -1;
@@ -768,7 +778,7 @@ public class ExcelWriterStep extends BaseStep implements StepInterface {
       // If it's to use streaming, initialize it now as we already made all necessary initial calculations.
       if ( data.wb instanceof XSSFWorkbook && meta.isStreamingData() ) {
         data.innerSheet = Optional.of( data.sheet );
-        data.wb = new SXSSFWorkbook( (XSSFWorkbook) data.wb, STREAMING_WINDOW_SIZE );
+        data.wb = new SXSSFWorkbook( (XSSFWorkbook) data.wb, data.streamingWindowSize, meta.isCompressTempFiles() );
         data.sheet = data.wb.getSheet( data.realSheetname );
       }
 
@@ -901,6 +911,9 @@ public class ExcelWriterStep extends BaseStep implements StepInterface {
     try {
       openLine();
       Row xlsRow = getOrCreateRow( data.posY );
+      if ( data.columnWidths != null ) {
+        data.columnWidths.startRow( true );
+      }
       int posX = data.posX;
       // If we have fields specified: list them in this order!
       if ( meta.getOutputFields() != null && meta.getOutputFields().length > 0 ) {
@@ -957,6 +970,13 @@ public class ExcelWriterStep extends BaseStep implements StepInterface {
       data.shiftExistingCells = ExcelWriterStepMeta.ROW_WRITE_PUSH_DOWN.equals( meta.getRowWritingMethod() );
       data.createNewSheet = ExcelWriterStepMeta.IF_SHEET_EXISTS_CREATE_NEW.equals( meta.getIfSheetExists() );
       data.createNewFile = ExcelWriterStepMeta.IF_FILE_EXISTS_CREATE_NEW.equals( meta.getIfFileExists() );
+      data.streamingWindowSize =
+        Const.toInt( environmentSubstitute( meta.getStreamingWindowSize() ), STREAMING_WINDOW_SIZE );
+      if ( data.streamingWindowSize < 1 || data.streamingWindowSize > MAX_STREAMING_WINDOW_SIZE ) {
+        logBasic( BaseMessages.getString( PKG, "ExcelWriterStep.Log.InvalidStreamingWindowSize",
+          String.valueOf( data.streamingWindowSize ), String.valueOf( STREAMING_WINDOW_SIZE ) ) );
+        data.streamingWindowSize = STREAMING_WINDOW_SIZE;
+      }
       return true;
     }
     return false;
@@ -52,6 +52,10 @@ public class ExcelWriterStepData extends BaseStepData implements StepDataInterfa
   public String realPassword;
   public String realProtectedBy;
   public int[] linkfieldnrs;
+  /** the number of rows kept in memory when streaming */
+  public int streamingWindowSize;
+  /** the widths of the columns of a streamed sheet that is auto sized */
+  ExcelWriterColumnWidths columnWidths;
   private CellStyle[] cellStyleCache;
   private CellStyle[] cellLinkStyleCache;
 
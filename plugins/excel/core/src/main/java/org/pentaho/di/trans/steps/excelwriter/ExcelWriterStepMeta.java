@@ -90,6 +90,14 @@ public class ExcelWriterStepMeta extends BaseStepMeta implements StepMetaInterfa
   @Injection( name = "STREAM_XSLX_DATA" )
   private boolean streamingData;
 
+  /** The number of rows kept in memory when streaming, empty for the default */
+  @Injection( name = "STREAM_WINDOW_SIZE" )
+  private String streamingWindowSize;
+
+  /** Compress the temporary files of the rows that are flushed when streaming? */
+  @Injection( name = "STREAM_COMPRESS_TEMP_FILES" )
+  private boolean compressTempFiles;
+
   /** if this value is larger then 0, the text file is split up into parts of this number of lines */
   @Injection( name = "SPLIT_EVERY_DATA_ROWS" )
   private int splitEvery;
@@ -724,6 +732,8 @@ public class ExcelWriterStepMeta extends BaseStepMeta implements StepMetaInterfa
       autosizecolums = "Y".equalsIgnoreCase( XMLHandler.getTagValue( stepnode, "file", "autosizecolums" ) );
       retainNullValues = getBooleanValue( fileNode, Tags.RETAIN_NULL_VALUES, true );
       streamingData = "Y".equalsIgnoreCase( XMLHandler.getTagValue( stepnode, "file", "stream_data" ) );
+      streamingWindowSize = XMLHandler.getTagValue( stepnode, "file", "stream_window_size" );
+      compressTempFiles = "Y".equalsIgnoreCase( XMLHandler.getTagValue( stepnode, "file", "stream_compress_temp" ) );
       protectsheet = "Y".equalsIgnoreCase( XMLHandler.getTagValue( stepnode, "file", "protect_sheet" ) );
       password = Encr.decryptPasswordOptionallyEncrypted( XMLHandler.getTagValue( stepnode, "file", "password" ) );
       protectedBy = XMLHandler.getTagValue( stepnode, "file", "protected_by" );
@@ -791,6 +801,8 @@ public class ExcelWriterStepMeta extends BaseStepMeta implements StepMetaInterfa
 
     autosizecolums = false;
     streamingData = false;
+    streamingWindowSize = "";
+    compressTempFiles = false;
     headerEnabled = true;
     footerEnabled = false;
     fileName = "file";
@@ -938,6 +950,8 @@ public class ExcelWriterStepMeta extends BaseStepMeta implements StepMetaInterfa
     retval.append( "      " ).append( XMLHandler.addTagValue( "autosizecolums", autosizecolums ) );
     retval.append( "      " ).append( XMLHandler.addTagValue( Tags.RETAIN_NULL_VALUES, retainNullValues ) );
     retval.append( "      " ).append( XMLHandler.addTagValue( "stream_data", streamingData ) );
+    retval.append( "      " ).append( XMLHandler.addTagValue( "stream_window_size", streamingWindowSize ) );
+    retval.append( "      " ).append( XMLHandler.addTagValue( "stream_compress_temp", compressTempFiles ) );
     retval.append( "      " ).append( XMLHandler.addTagValue( "protect_sheet", protectsheet ) );
     retval.append( "      " ).append(
       XMLHandler.addTagValue( "password", Encr.encryptPasswordIfNotUsingVariables( password ) ) );
@@ -1020,6 +1034,8 @@ public class ExcelWriterStepMeta extends BaseStepMeta implements StepMetaInterfa
       autosizecolums = rep.getStepAttributeBoolean( id_step, "autosizecolums" );
       retainNullValues = rep.getStepAttributeBoolean( id_step, 0, Tags.RETAIN_NULL_VALUES, true );
       streamingData = rep.getStepAttributeBoolean( id_step, "stream_data" );
+      streamingWindowSize = rep.getStepAttributeString( id_step, "stream_window_size" );
+      compressTempFiles = rep.getStepAttributeBoolean( id_step, "stream_compress_temp" );
       protectsheet = rep.getStepAttributeBoolean( id_step, "protect_sheet" );
       password = Encr.decryptPasswordOptionallyEncrypted( rep.getStepAttributeString( id_step, "password" ) );
       protectedBy = rep.getStepAttributeString( id_step, "protected_by" );
@@ -1091,6 +1107,8 @@ public class ExcelWriterStepMeta extends BaseStepMeta implements StepMetaInterfa
       rep.saveStepAttribute( id_transformation, id_step, "autosizecolums", autosizecolums );
       rep.saveStepAttribute( id_transformation, id_step, Tags.RETAIN_NULL_VALUES, retainNullValues );
       rep.saveStepAttribute( id_transformation, id_step, "stream_data", streamingData );
+      rep.saveStepAttribute( id_transformation, id_step, "stream_window_size", streamingWindowSize );
+      rep.saveStepAttribute( id_transformation, id_step, "stream_compress_temp", compressTempFiles );
       rep.saveStepAttribute( id_transformation, id_step, "protect_sheet", protectsheet );
       rep.saveStepAttribute( id_transformation, id_step, "protected_by", protectedBy );
       rep.saveStepAttribute( id_transformation, id_step, "password", Encr
@@ -1254,6 +1272,36 @@ public class ExcelWriterStepMeta extends BaseStepMeta implements StepMetaInterfa
     this.streamingData = streamingData;
   }
 
+  /**
+   * @return the number of rows kept in memory when streaming, empty for the default
+   */
+  public String getStreamingWindowSize() {
+    return streamingWindowSize;
+  }
+
+  /**
+   * @param streamingWindowSize
+   *          the number of rows kept in memory when streaming, empty for the default
+   */
+  public void setStreamingWindowSize( String streamingWindowSize ) {
+    this.streamingWindowSize = streamingWindowSize;
+  }
+
+  /**
+   * @return true if the temporary files are compressed when streaming
+   */
+  public boolean isCompressTempFiles() {
+    return compressTempFiles;
+  }
+
+  /**
+   * @param compressTempFiles
+   *          true to compress the temporary files when streaming
+   */
+  public void setCompressTempFiles( boolean compressTempFiles ) {
+    this.compressTempFiles = compressTempFiles;
+  }
+
   public boolean isTemplateSheetHidden() {
     return templateSheetHidden;
   }
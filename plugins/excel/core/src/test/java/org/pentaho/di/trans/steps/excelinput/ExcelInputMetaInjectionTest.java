@@ -127,5 +127,10 @@ public class ExcelInputMetaInjectionTest extends BaseMetadataInjectionTest<Excel
         return meta.getSpreadSheetType();
       }
     }, SpreadSheetType.class );
+    check( "DISTRIBUTE_SHEETS", new BooleanGetter() {
+      public boolean get() {
+        return meta.isDistributeSheets();
+      }
+    } );
   }
 }
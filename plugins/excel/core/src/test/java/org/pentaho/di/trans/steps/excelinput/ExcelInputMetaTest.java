@@ -63,7 +63,8 @@ public class ExcelInputMetaTest {
       Arrays.asList( "fileName", "fileMask", "excludeFileMask", "fileRequired", "includeSubFolders", "field",
         "sheetName", "startRow", "startColumn", "spreadSheetType", "fileField", "sheetField", "sheetRowNumberField",
         "rowNumberField", "shortFileFieldName", "extensionFieldName", "pathFieldName", "sizeFieldName",
-        "hiddenFieldName", "lastModificationTimeFieldName", "uriNameFieldName", "rootUriNameFieldName" );
+        "hiddenFieldName", "lastModificationTimeFieldName", "uriNameFieldName", "rootUriNameFieldName",
+        "distributeSheets" );
 
     Map<String, String> getterMap = new HashMap<String, String>() {
       {
@@ -168,7 +169,8 @@ public class ExcelInputMetaTest {
       Arrays.asList( "fileName", "fileMask", "excludeFileMask", "fileRequired", "includeSubFolders", "field",
         "sheetName", "startRow", "startColumn", "spreadSheetType", "fileField", "sheetField", "sheetRowNumberField",
         "rowNumberField", "shortFileFieldName", "extensionFieldName", "pathFieldName", "sizeFieldName",
-        "hiddenFieldName", "lastModificationTimeFieldName", "uriNameFieldName", "rootUriNameFieldName" );
+        "hiddenFieldName", "lastModificationTimeFieldName", "uriNameFieldName", "rootUriNameFieldName",
+        "distributeSheets" );
 
     Map<String, String> getterMap = new HashMap<String, String>() {
       {
@@ -389,6 +391,7 @@ public class ExcelInputMetaTest {
         + "    <extensionFieldName/>" + SystemUtils.LINE_SEPARATOR
         + "    <sizeFieldName/>" + SystemUtils.LINE_SEPARATOR
         + "    <spreadsheet_type/>" + SystemUtils.LINE_SEPARATOR
+        + "    <distribute_sheets>N</distribute_sheets>" + SystemUtils.LINE_SEPARATOR
         + "    <password>Encrypted </password>" + SystemUtils.LINE_SEPARATOR, meta.getXML() );
   }
 
@@ -0,0 +1,87 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.excelinput.staxpoi;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.poi.xssf.model.SharedStringsTable;
+import org.apache.poi.xssf.usermodel.XSSFRichTextString;
+import org.junit.Test;
+
+public class StaxPoiSharedStringsTest {
+
+  private static final String SST = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+    + "<sst xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\" count=\"6\" uniqueCount=\"5\">"
+    + "<si><t>One</t></si>"
+    + "<si><r><rPr><b/></rPr><t>Rich</t></r><r><t xml:space=\"preserve\"> text</t></r></si>"
+    + "<si><t>Kanji</t><rPh sb=\"0\" eb=\"1\"><t>KANA</t></rPh></si>"
+    + "<si><t/></si>"
+    + "<si><t>Tab_x0009_here</t></si>"
+    + "</sst>";
+
+  @Test
+  public void testRead() throws Exception {
+    StaxPoiSharedStrings strings = StaxPoiSharedStrings.read( IOUtils.toInputStream( SST, "UTF-8" ) );
+    assertEquals( 5, strings.size() );
+    assertEquals( "One", strings.get( 0 ) );
+    assertEquals( "Rich text", strings.get( 1 ) );
+    // the phonetic reading is not part of the text
+    assertEquals( "Kanji", strings.get( 2 ) );
+    assertEquals( "", strings.get( 3 ) );
+    assertTrue( strings.isEmpty( 3 ) );
+    assertFalse( strings.isEmpty( 0 ) );
+    assertEquals( "Tab\there", strings.get( 4 ) );
+  }
+
+  @Test
+  public void testReadNoSharedStrings() throws Exception {
+    assertEquals( 0, StaxPoiSharedStrings.read( null ).size() );
+  }
+
+  @Test
+  public void testSameStringReturned() throws Exception {
+    StaxPoiSharedStrings strings = StaxPoiSharedStrings.read( IOUtils.toInputStream( SST, "UTF-8" ) );
+    assertSame( strings.get( 1 ), strings.get( 1 ) );
+  }
+
+  @Test( expected = IndexOutOfBoundsException.class )
+  public void testIndexOutOfBounds() throws Exception {
+    StaxPoiSharedStrings.read( IOUtils.toInputStream( SST, "UTF-8" ) ).get( 5 );
+  }
+
+  @Test
+  public void testCopyOf() {
+    SharedStringsTable sst = new SharedStringsTable();
+    sst.addSharedStringItem( new XSSFRichTextString( "One" ) );
+    sst.addSharedStringItem( new XSSFRichTextString( "Two" ) );
+    sst.addSharedStringItem( new XSSFRichTextString( "One" ) );
+
+    StaxPoiSharedStrings strings = StaxPoiSharedStrings.copyOf( sst );
+    assertEquals( 2, strings.size() );
+    assertEquals( "One", strings.get( 0 ) );
+    assertEquals( "Two", strings.get( 1 ) );
+    assertEquals( 0, StaxPoiSharedStrings.copyOf( null ).size() );
+  }
+
+  @Test
+  public void testDecode() {
+    assertEquals( "a\u0001b", StaxPoiSharedStrings.decode( "a_x0001_b" ) );
+    assertEquals( "_x00_", StaxPoiSharedStrings.decode( "_x00_" ) );
+    assertEquals( "plain", StaxPoiSharedStrings.decode( "plain" ) );
+  }
+}
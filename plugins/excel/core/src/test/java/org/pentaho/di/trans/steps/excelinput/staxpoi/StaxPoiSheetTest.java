@@ -21,6 +21,8 @@ import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.InputStream;
@@ -274,6 +276,49 @@ public class StaxPoiSheetTest {
     }
   }
 
+  @Test
+  public void testReadColumnRange() throws Exception {
+    StaxPoiSheet sheet = getSampleSheet();
+    sheet.setColumnRange( 2, 2 );
+
+    KCell[] row = sheet.getRow( 2 );
+    // the rest of the row is skipped
+    assertEquals( 4, row.length );
+    assertNull( row[ 0 ] );
+    // the shared string of a column that is not read is not looked up
+    assertEquals( KCellType.STRING_FORMULA, row[ 1 ].getType() );
+    assertEquals( "5", row[ 1 ].getValue() );
+    assertEquals( KCellType.DATE, row[ 2 ].getType() );
+    assertEquals( new Date( 1283817600000L ), row[ 2 ].getValue() );
+    assertEquals( KCellType.NUMBER, row[ 3 ].getType() );
+    assertEquals( Double.valueOf( "75" ), row[ 3 ].getValue() );
+
+    sheet.setColumnRange( 3, 1 );
+    row = sheet.getRow( 3 );
+    assertEquals( 4, row.length );
+    assertEquals( "6", row[ 1 ].getValue() );
+    assertEquals( KCellType.STRING_FORMULA, row[ 2 ].getType() );
+    assertEquals( "40429", row[ 2 ].getValue() );
+    assertEquals( KCellType.NUMBER, row[ 3 ].getType() );
+    assertEquals( Double.valueOf( "42" ), row[ 3 ].getValue() );
+  }
+
+  @Test
+  public void testDateStyleLookedUpOnce() throws Exception {
+    String sheetId = "sheet1";
+    StylesTable styles =
+      mockStylesTable( Collections.singletonMap( 1, 14 ), Collections.<Integer, String>emptyMap() );
+    XSSFReader reader = mockXSSFReader( sheetId, SHEET_1,
+      mockSharedStringsTable(
+        "Col1Label", "Col2Date", "Col3Number", "Col4Boolean", "Col5NumFormula", "One", "Two", "Three" ),
+      styles );
+    StaxPoiSheet sheet = new StaxPoiSheet( reader, "Sheet 1", sheetId );
+    for ( int rownr = 2; rownr <= 4; rownr++ ) {
+      assertEquals( KCellType.DATE, sheet.getRow( rownr )[ 2 ].getType() );
+    }
+    verify( styles, times( 1 ) ).getCellXfAt( 1 );
+  }
+
   private StaxPoiSheet getSampleSheet() throws Exception {
     String sheetId = "sheet1";
     XSSFReader reader = mockXSSFReader( sheetId, SHEET_1,
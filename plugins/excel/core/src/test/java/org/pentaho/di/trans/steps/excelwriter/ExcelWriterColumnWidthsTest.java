@@ -0,0 +1,79 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.excelwriter;
+
+import static org.junit.Assert.assertEquals;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Test;
+
+public class ExcelWriterColumnWidthsTest {
+
+  @Test
+  public void testMeasure() {
+    assertEquals( 0, ExcelWriterColumnWidths.measure( "" ) );
+    assertEquals( 5, ExcelWriterColumnWidths.measure( "hello" ) );
+    assertEquals( 6, ExcelWriterColumnWidths.measure( "one\nlonger\nab" ) );
+  }
+
+  @Test
+  public void testSampledRows() throws Exception {
+    try ( XSSFWorkbook wb = new XSSFWorkbook() ) {
+      Sheet sheet = wb.createSheet( "test" );
+      ExcelWriterColumnWidths widths = new ExcelWriterColumnWidths();
+
+      Row header = sheet.createRow( 0 );
+      widths.startRow( true );
+      widths.add( setValue( header.createCell( 1 ), "title" ) );
+
+      for ( int i = 0; i < ExcelWriterColumnWidths.ALL_ROWS_SAMPLED + 50; i++ ) {
+        Row row = sheet.createRow( i + 1 );
+        widths.startRow( false );
+        // the longest value is in a row that is not sampled
+        String value = i == ExcelWriterColumnWidths.ALL_ROWS_SAMPLED + 1 ? "a much longer value" : "v" + i;
+        widths.add( setValue( row.createCell( 1 ), value ) );
+        Cell number = row.createCell( 2 );
+        number.setCellValue( 12345.5 );
+        widths.add( number );
+      }
+      assertEquals( 5, widths.getWidth( 1 ) );
+      assertEquals( 7, widths.getWidth( 2 ) );
+      assertEquals( 0, widths.getWidth( 0 ) );
+
+      widths.apply( sheet );
+      assertEquals( 7 * 256, sheet.getColumnWidth( 1 ) );
+      assertEquals( 9 * 256, sheet.getColumnWidth( 2 ) );
+    }
+  }
+
+  @Test
+  public void testFormulaNotMeasured() throws Exception {
+    try ( XSSFWorkbook wb = new XSSFWorkbook() ) {
+      Cell cell = wb.createSheet( "test" ).createRow( 0 ).createCell( 0 );
+      cell.setCellFormula( "SUM(B1:B1000)" );
+      ExcelWriterColumnWidths widths = new ExcelWriterColumnWidths();
+      widths.startRow( true );
+      widths.add( cell );
+      assertEquals( 0, widths.getWidth( 0 ) );
+    }
+  }
+
+  private static Cell setValue( Cell cell, String value ) {
+    cell.setCellValue( value );
+    return cell;
+  }
+}
@@ -61,7 +61,8 @@ public class ExcelWriterStepMetaTest {
       "header", "footer", "makeSheetActive", "rowWritingMethod", "startingCell", "appendOmitHeader", "appendOffset",
       "appendEmpty", "rowWritingMethod", "forceFormulaRecalculation", "leaveExistingStylesUnchanged",
       "appendLines", "add_to_result_filenames", "name", "extention", "do_not_open_newfile_init", "split", "add_date",
-      "add_time", "SpecifyFormat", "date_time_format", "sheetname", "autosizecolums", "stream_data", "protect_sheet",
+      "add_time", "SpecifyFormat", "date_time_format", "sheetname", "autosizecolums", "stream_data",
+      "stream_window_size", "stream_compress_temp", "protect_sheet",
       "password", "protected_by", "splitevery", "if_file_exists", "if_sheet_exists", "enabled", "sheet_enabled",
       "filename", "sheetname", "outputfields", "TemplateSheetHidden", "extend_data_validation", "retain_null_values",
       "create_parent" );
@@ -91,6 +92,8 @@ public class ExcelWriterStepMetaTest {
     getterMap.put( "sheetname", "getSheetname" );
     getterMap.put( "autosizecolums", "isAutoSizeColums" );
     getterMap.put( "stream_data", "isStreamingData" );
+    getterMap.put( "stream_window_size", "getStreamingWindowSize" );
+    getterMap.put( "stream_compress_temp", "isCompressTempFiles" );
     getterMap.put( "protect_sheet", "isSheetProtected" );
     getterMap.put( "password", "getPassword" );
     getterMap.put( "protected_by", "getProtectedBy" );
@@ -131,6 +134,8 @@ public class ExcelWriterStepMetaTest {
     setterMap.put( "sheetname", "setSheetname" );
     setterMap.put( "autosizecolums", "setAutoSizeColums" );
     setterMap.put( "stream_data", "setStreamingData" );
+    setterMap.put( "stream_window_size", "setStreamingWindowSize" );
+    setterMap.put( "stream_compress_temp", "setCompressTempFiles" );
     setterMap.put( "protect_sheet", "setProtectSheet" );
     setterMap.put( "password", "setPassword" );
     setterMap.put( "protected_by", "setProtectedBy" );
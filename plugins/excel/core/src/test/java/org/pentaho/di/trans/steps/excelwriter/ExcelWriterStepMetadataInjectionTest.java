@@ -33,6 +33,8 @@ public class ExcelWriterStepMetadataInjectionTest extends BaseMetadataInjectionT
     check( "FILENAME", () -> meta.getFileName() );
     check( "EXTENSION", () -> meta.getExtension() );
     check( "STREAM_XSLX_DATA", () -> meta.isStreamingData() );
+    check( "STREAM_WINDOW_SIZE", () -> meta.getStreamingWindowSize() );
+    check( "STREAM_COMPRESS_TEMP_FILES", () -> meta.isCompressTempFiles() );
     check( "SPLIT_EVERY_DATA_ROWS", () -> meta.getSplitEvery() );
     check( "INCLUDE_STEPNR_IN_FILENAME", () -> meta.isStepNrInFilename() );
     check( "INCLUDE_DATE_IN_FILENAME", () -> meta.isDateInFilename() );
@@ -14,6 +14,7 @@
 package org.pentaho.di.trans.steps.jsoninput;
 
 import java.io.ByteArrayInputStream;
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Arrays;
@@ -55,8 +56,10 @@ import org.pentaho.di.trans.steps.jsoninput.json.JsonSampler;
 import org.pentaho.di.trans.steps.jsoninput.json.node.Node;
 import org.pentaho.di.trans.steps.jsoninput.json.node.ValueNode;
 import org.pentaho.di.trans.steps.jsoninput.reader.FastJsonReader;
+import org.pentaho.di.trans.steps.jsoninput.reader.IJsonReader;
 import org.pentaho.di.trans.steps.jsoninput.reader.InputsReader;
 import org.pentaho.di.trans.steps.jsoninput.reader.RowOutputConverter;
+import org.pentaho.di.trans.steps.jsoninput.reader.StreamingJsonReader;
 
 /**
  * Read Json files, parse them and convert them to rows and writes these to one or more output streams.
@@ -93,9 +96,12 @@ public class JsonInput extends BaseFileInputStep<JsonInputMeta, JsonInputData> i
     }
     try {
       // Init a new JSON reader
-      data.reader =
-        new FastJsonReader( this, meta.getInputFields(), meta.isDefaultPathLeafToNull(), meta.isIgnoreMissingPath(),
-          meta.isIncludeNulls(), log );
+      data.reader = createStreamingReader();
+      if ( data.reader == null ) {
+        data.reader =
+          new FastJsonReader( this, meta.getInputFields(), meta.isDefaultPathLeafToNull(), meta.isIgnoreMissingPath(),
+            meta.isIncludeNulls(), log );
+      }
     } catch ( KettleException e ) {
       logError( e.getMessage() );
       return false;
@@ -103,6 +109,27 @@ public class JsonInput extends BaseFileInputStep<JsonInputMeta, JsonInputData> i
     return true;
   }
 
+  /**
+   * The streaming reader gives the same rows as the JSON path reader only when missing paths give nulls.
+   *
+   * @return the streaming reader or null if the JSON path reader is needed
+   */
+  private IJsonReader createStreamingReader() {
+    if ( !meta.isStreaming() ) {
+      return null;
+    }
+    StreamingJsonReader reader = null;
+    if ( meta.isDefaultPathLeafToNull() && meta.isIgnoreMissingPath() ) {
+      reader = StreamingJsonReader.create( this, meta.getInputFields(), meta.isIncludeNulls(), log );
+    }
+    if ( reader == null ) {
+      logBasic( BaseMessages.getString( PKG, "JsonInput.Log.Streaming.NotPossible" ) );
+    } else if ( isDetailed() ) {
+      logDetailed( BaseMessages.getString( PKG, "JsonInput.Log.Streaming.Activated" ) );
+    }
+    return reader;
+  }
+
   @Override
   public boolean processRow( StepMetaInterface smi, StepDataInterface sdi ) throws KettleException {
     if ( first ) {
@@ -399,16 +426,38 @@ public class JsonInput extends BaseFileInputStep<JsonInputMeta, JsonInputData> i
   private void parseNextInputToRowSet( InputStream input ) throws KettleException {
     try {
       data.readerRowSet = data.reader.parse( input );
-      input.close();
+      if ( !( data.readerRowSet instanceof Closeable ) ) {
+        // a streaming row set reads the input as the rows are asked for and closes it at the end
+        input.close();
+      }
     } catch ( KettleException ke ) {
+      closeQuietly( input );
       logInputError( ke );
       throw new JsonInputException( ke );
     } catch ( Exception e ) {
+      closeQuietly( input );
       logInputError( e );
       throw new JsonInputException( e );
     }
   }
 
+  private Object[] getReaderRow() throws KettleException {
+    try {
+      return data.readerRowSet.getRow();
+    } catch ( StreamingJsonReader.StreamingReadException e ) {
+      // the streaming reader parses the input while the rows are read
+      Exception cause = (Exception) e.getCause();
+      logInputError( cause );
+      throw new JsonInputException( cause );
+    }
+  }
+
+  private void closeReaderRowSet() {
+    if ( data.readerRowSet instanceof Closeable ) {
+      closeQuietly( (Closeable) data.readerRowSet );
+    }
+  }
+
   private void logInputError( KettleException e ) {
     logError( e.getLocalizedMessage(), e );
     inputError( e.getLocalizedMessage() );
@@ -464,19 +513,13 @@ public class JsonInput extends BaseFileInputStep<JsonInputMeta, JsonInputData> i
       return null;
     }
     Object[] rawReaderRow;
-    while ( ( rawReaderRow = data.readerRowSet.getRow() ) == null ) {
+    while ( ( rawReaderRow = getReaderRow() ) == null ) {
       if ( data.inputs.hasNext() && data.readerRowSet.isDone() ) {
-        try ( InputStream nextIn = data.inputs.next() ) {
-
-          if ( nextIn != null ) {
-            parseNextInputToRowSet( nextIn );
-          } else {
-            parseNextInputToRowSet( new ByteArrayInputStream( EMPTY_JSON ) );
-          }
-
-        } catch ( IOException e ) {
-          logError( BaseMessages.getString( PKG, "JsonInput.Log.UnexpectedError", e.toString() ), e );
-          incrementErrors();
+        InputStream nextIn = data.inputs.next();
+        if ( nextIn != null ) {
+          parseNextInputToRowSet( nextIn );
+        } else {
+          parseNextInputToRowSet( new ByteArrayInputStream( EMPTY_JSON ) );
         }
       } else {
         if ( isDetailed() ) {
@@ -622,6 +665,7 @@ public class JsonInput extends BaseFileInputStep<JsonInputMeta, JsonInputData> i
     }
     data.inputs = null;
     data.reader = null;
+    closeReaderRowSet();
     data.readerRowSet = null;
     data.repeatedFields = null;
     super.dispose( smi, sdi );
@@ -80,6 +80,8 @@ public class JsonInputMeta extends
 
   private static final String INCLUDE_NULLS = "includeNulls";
 
+  private static final String STREAMING = "streaming";
+
   // TextFileInputMeta.Content.includeFilename
   /** Flag indicating that we should include the filename in the output */
   @Injection( name = "FILE_NAME_OUTPUT" )
@@ -232,6 +234,10 @@ public class JsonInputMeta extends
 
   private boolean includeNulls;
 
+  /** Flag: read the rows from a streaming parser when all the paths select values in the same array */
+  @Injection( name = "STREAMING" )
+  private boolean streaming;
+
   public JsonInputMeta() {
     additionalOutputFields = new JsonInputMeta.AdditionalFileOutputFields();
     inputFiles = new JsonInputMeta.InputFiles();
@@ -266,6 +272,20 @@ public class JsonInputMeta extends
     this.includeNulls = includeNulls;
   }
 
+  /** Returns the streaming flag
+   * @return true if the rows are read from a streaming parser when the paths allow it
+   */
+  public boolean isStreaming() {
+    return streaming;
+  }
+
+  /** Sets the streaming flag
+   * @param streaming true to read the rows from a streaming parser when the paths allow it
+   */
+  public void setStreaming( boolean streaming ) {
+    this.streaming = streaming;
+  }
+
   /**
    * @return Returns the shortFileFieldName.
    */
@@ -636,6 +656,7 @@ public class JsonInputMeta extends
     retval.append( "    " + XMLHandler.addTagValue( "ignoreMissingPath", ignoreMissingPath ) );
     retval.append( "    " + XMLHandler.addTagValue( "defaultPathLeafToNull", defaultPathLeafToNull ) );
     retval.append( "    " + XMLHandler.addTagValue( INCLUDE_NULLS, includeNulls ) );
+    retval.append( "    " + XMLHandler.addTagValue( STREAMING, streaming ) );
     retval.append( "    " ).append( XMLHandler.addTagValue( "rownum_field", rowNumberField ) );
 
     retval.append( "    <file>" ).append( Const.CR );
@@ -696,6 +717,7 @@ public class JsonInputMeta extends
       ignoreMissingPath = "Y".equalsIgnoreCase( XMLHandler.getTagValue( stepnode, "ignoreMissingPath" ) );
       defaultPathLeafToNull = getDefaultPathLeafToNull( stepnode );
       includeNulls = getincludeNulls( stepnode );
+      streaming = "Y".equalsIgnoreCase( XMLHandler.getTagValue( stepnode, STREAMING ) );
       doNotFailIfNoFile = "Y".equalsIgnoreCase( XMLHandler.getTagValue( stepnode, "doNotFailIfNoFile" ) );
       includeRowNumber = "Y".equalsIgnoreCase( XMLHandler.getTagValue( stepnode, "rownum" ) );
       rowNumberField = XMLHandler.getTagValue( stepnode, "rownum_field" );
@@ -790,6 +812,7 @@ public class JsonInputMeta extends
     ignoreMissingPath = true;
     defaultPathLeafToNull = true;
     includeNulls = getIncludeNullsProperty();
+    streaming = false;
     doNotFailIfNoFile = true;
     includeFilename = false;
     filenameField = "";
@@ -874,6 +897,7 @@ public class JsonInputMeta extends
       ignoreMissingPath = rep.getStepAttributeBoolean( id_step, "ignoreMissingPath" );
       defaultPathLeafToNull = rep.getStepAttributeBoolean( id_step, 0, "defaultPathLeafToNull", true );
       includeNulls = rep.getStepAttributeBoolean( id_step, 0, INCLUDE_NULLS, getIncludeNullsProperty() );
+      streaming = rep.getStepAttributeBoolean( id_step, STREAMING );
 
       doNotFailIfNoFile = rep.getStepAttributeBoolean( id_step, "doNotFailIfNoFile" );
 
@@ -946,6 +970,7 @@ public class JsonInputMeta extends
       rep.saveStepAttribute( id_transformation, id_step, "ignoreMissingPath", ignoreMissingPath );
       rep.saveStepAttribute( id_transformation, id_step, "defaultPathLeafToNull", defaultPathLeafToNull );
       rep.saveStepAttribute( id_transformation, id_step, INCLUDE_NULLS, includeNulls );
+      rep.saveStepAttribute( id_transformation, id_step, STREAMING, streaming );
 
       rep.saveStepAttribute( id_transformation, id_step, "doNotFailIfNoFile", doNotFailIfNoFile );
 
@@ -0,0 +1,426 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.jsoninput.reader;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import net.minidev.json.JSONArray;
+import org.pentaho.di.core.Const;
+import org.pentaho.di.core.RowSet;
+import org.pentaho.di.core.SingleRowRowSet;
+import org.pentaho.di.core.exception.KettleException;
+import org.pentaho.di.core.logging.LogChannelInterface;
+import org.pentaho.di.i18n.BaseMessages;
+import org.pentaho.di.trans.steps.jsoninput.JsonInput;
+import org.pentaho.di.trans.steps.jsoninput.JsonInputField;
+import org.pentaho.di.trans.steps.jsoninput.JsonInputMeta;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reads the rows of the JSON Input step from the tokens of a streaming parser, without building the document.
+ * <p>
+ * The reader handles the common case where all the paths select a property of the elements of the same array, like
+ * <code>$.data.items[*].customer.name</code>: the parser is moved to the array and one row is read per element, so the
+ * memory used doesn't depend on the size of the document. The paths after the array are compiled in a tree of
+ * property names that is walked as the element is parsed; only the values that are selected are materialized.
+ * <p>
+ * The rows are the same as the ones of {@link FastJsonReader} with "default path leaf to null" and "ignore missing
+ * path" set, except that a missing value always gives a null instead of a shorter result list.
+ */
+public class StreamingJsonReader implements IJsonReader {
+  private static Class<?> PKG = JsonInputMeta.class; // for i18n purposes, needed by Translator2!!
+
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+  private static final Pattern PROPERTY = Pattern.compile( "[A-Za-z0-9_$\\-]+" );
+  private static final Pattern QUOTED_PROPERTY = Pattern.compile( "\\[(['\"])([^'\",\\\\]*)\\1]" );
+  private static final String WILDCARD = "*";
+
+  private final String[] containerPath;
+  private final PathNode root = new PathNode();
+  private final int fieldCount;
+  private final boolean includeNulls;
+  private final LogChannelInterface log;
+
+  /**
+   * A property in the tree of paths below the array element, with the fields that take its value.
+   */
+  private static final class PathNode {
+    private final Map<String, PathNode> children = new HashMap<>();
+    private int[] fields = new int[ 0 ];
+
+    private void addField( int field ) {
+      fields = Arrays.copyOf( fields, fields.length + 1 );
+      fields[ fields.length - 1 ] = field;
+    }
+  }
+
+  /**
+   * Thrown by the rows of a streaming reader when the input can't be parsed. The rows are read when they are asked
+   * for, so the parse errors come out of {@link RowSet#getRow()}.
+   */
+  public static class StreamingReadException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public StreamingReadException( Exception cause ) {
+      super( cause );
+    }
+  }
+
+  private StreamingJsonReader( String[] containerPath, List<String[]> fieldPaths, boolean includeNulls,
+                               LogChannelInterface log ) {
+    this.containerPath = containerPath;
+    this.fieldCount = fieldPaths.size();
+    this.includeNulls = includeNulls;
+    this.log = log;
+    for ( int field = 0; field < fieldCount; field++ ) {
+      PathNode node = root;
+      for ( String property : fieldPaths.get( field ) ) {
+        node = node.children.computeIfAbsent( property, p -> new PathNode() );
+      }
+      node.addField( field );
+    }
+  }
+
+  /**
+   * Creates a streaming reader if all the paths of the fields select a value in the elements of the same array.
+   *
+   * @return the reader or null if one of the paths needs the {@link FastJsonReader}
+   */
+  public static StreamingJsonReader create( JsonInput step, JsonInputField[] inputFields, boolean includeNulls,
+                                            LogChannelInterface log ) {
+    if ( inputFields == null || inputFields.length == 0 ) {
+      return null;
+    }
+    boolean legacyMode = System.getProperty( Const.KETTLE_COMPATIBILITY_JSON_INPUT_LEGACY_MODE, "N" ).equals( "Y" );
+    String[] containerPath = null;
+    List<String[]> fieldPaths = new ArrayList<>( inputFields.length );
+    for ( JsonInputField inputField : inputFields ) {
+      String path = legacyMode
+        ? step.environmentSubstitute( inputField.getPath(), false ).trim()
+        : step.environmentSubstitute( inputField.getPath(), true );
+      List<String> steps = parsePath( path );
+      int wildcard = steps == null ? -1 : steps.indexOf( WILDCARD );
+      if ( wildcard < 0 || steps.lastIndexOf( WILDCARD ) != wildcard ) {
+        return null;
+      }
+      String[] prefix = steps.subList( 0, wildcard ).toArray( new String[ 0 ] );
+      if ( containerPath == null ) {
+        containerPath = prefix;
+      } else if ( !Arrays.equals( containerPath, prefix ) ) {
+        return null;
+      }
+      fieldPaths.add( steps.subList( wildcard + 1, steps.size() ).toArray( new String[ 0 ] ) );
+    }
+    return new StreamingJsonReader( containerPath, fieldPaths, includeNulls, log );
+  }
+
+  /**
+   * Splits a path in property names, "*" stands for <code>[*]</code> and <code>.*</code>.
+   *
+   * @return the properties or null if the path uses anything else
+   */
+  static List<String> parsePath( String path ) {
+    if ( path == null || !path.startsWith( "$" ) ) {
+      return null;
+    }
+    List<String> steps = new ArrayList<>();
+    int i = 1;
+    while ( i < path.length() ) {
+      if ( path.startsWith( "[*]", i ) ) {
+        steps.add( WILDCARD );
+        i += 3;
+      } else if ( path.startsWith( ".*", i ) ) {
+        steps.add( WILDCARD );
+        i += 2;
+      } else if ( path.charAt( i ) == '.' ) {
+        int end = i + 1;
+        while ( end < path.length() && path.charAt( end ) != '.' && path.charAt( end ) != '[' ) {
+          end++;
+        }
+        String property = path.substring( i + 1, end );
+        if ( !PROPERTY.matcher( property ).matches() ) {
+          // Also rejects the deep scan ".."
+          return null;
+        }
+        steps.add( property );
+        i = end;
+      } else if ( path.charAt( i ) == '[' ) {
+        int end = path.indexOf( ']', i );
+        Matcher matcher = end < 0 ? null : QUOTED_PROPERTY.matcher( path.substring( i, end + 1 ) );
+        if ( matcher == null || !matcher.matches() ) {
+          // Indexes, slices, filters and unions
+          return null;
+        }
+        steps.add( matcher.group( 2 ) );
+        i = end + 1;
+      } else {
+        return null;
+      }
+    }
+    return steps;
+  }
+
+  @Override
+  public RowSet parse( InputStream in ) throws KettleException {
+    try {
+      return new StreamingRowSet( JSON_FACTORY.createParser( in ), in );
+    } catch ( IOException e ) {
+      throw new KettleException( e );
+    }
+  }
+
+  /**
+   * The rows of one input, parsed as they are asked for. The input is closed at the end of the rows.
+   */
+  private class StreamingRowSet extends SingleRowRowSet implements Closeable {
+    private final JsonParser parser;
+    private final InputStream in;
+    private boolean started;
+    private boolean closed;
+    private boolean objectContainer;
+    private int elements;
+    /** The first element when all its values are null: only a single element gives a row of nulls */
+    private Object[] nullRow;
+
+    StreamingRowSet( JsonParser parser, InputStream in ) {
+      this.parser = parser;
+      this.in = in;
+    }
+
+    @Override
+    public Object[] getRow() {
+      if ( closed ) {
+        return null;
+      }
+      try {
+        if ( !started ) {
+          started = true;
+          if ( !moveToContainer() ) {
+            return finish( new Object[ fieldCount ] );
+          }
+        }
+        while ( nextElement() ) {
+          elements++;
+          Object[] row = readElement();
+          if ( includeNulls || !isAllNull( row ) ) {
+            nullRow = null;
+            return row;
+          }
+          nullRow = elements == 1 ? row : null;
+        }
+        if ( elements == 0 ) {
+          return finish( new Object[ fieldCount ] );
+        }
+        return finish( nullRow );
+      } catch ( IOException e ) {
+        closeQuietly();
+        throw new StreamingReadException( e );
+      }
+    }
+
+    private Object[] finish( Object[] lastRow ) throws IOException {
+      if ( log.isDetailed() ) {
+        log.logDetailed( BaseMessages.getString( PKG, "JsonInput.Log.NrRecords", elements ) );
+      }
+      close();
+      return lastRow;
+    }
+
+    /**
+     * Moves the parser to the start of the array or object that holds the rows.
+     *
+     * @return false if there is no such array or object
+     */
+    private boolean moveToContainer() throws IOException {
+      JsonToken token = parser.nextToken();
+      for ( String property : containerPath ) {
+        if ( token != JsonToken.START_OBJECT || !moveToProperty( property ) ) {
+          return false;
+        }
+        token = parser.nextToken();
+      }
+      objectContainer = token == JsonToken.START_OBJECT;
+      return token == JsonToken.START_ARRAY || objectContainer;
+    }
+
+    /**
+     * Moves the parser from the start of an object to the name of a property.
+     */
+    private boolean moveToProperty( String property ) throws IOException {
+      while ( parser.nextToken() == JsonToken.FIELD_NAME ) {
+        if ( property.equals( parser.getCurrentName() ) ) {
+          return true;
+        }
+        parser.nextToken();
+        parser.skipChildren();
+      }
+      return false;
+    }
+
+    /**
+     * Moves the parser to the next element of the container, the values of an object container are its elements.
+     */
+    private boolean nextElement() throws IOException {
+      JsonToken token = parser.nextToken();
+      if ( objectContainer ) {
+        if ( token != JsonToken.FIELD_NAME ) {
+          return false;
+        }
+        token = parser.nextToken();
+      }
+      return token != null && token != JsonToken.END_ARRAY && token != JsonToken.END_OBJECT;
+    }
+
+    private Object[] readElement() throws IOException {
+      Object[] row = new Object[ fieldCount ];
+      readNode( root, row );
+      return row;
+    }
+
+    /**
+     * Reads the value the parser is at into the fields of the node and its children.
+     */
+    private void readNode( PathNode node, Object[] row ) throws IOException {
+      if ( node.fields.length > 0 ) {
+        Object value = readValue();
+        for ( int field : node.fields ) {
+          row[ field ] = value;
+        }
+        if ( !node.children.isEmpty() && value instanceof Map ) {
+          extract( node, (Map<?, ?>) value, row );
+        }
+      } else if ( parser.currentToken() == JsonToken.START_OBJECT && !node.children.isEmpty() ) {
+        while ( parser.nextToken() == JsonToken.FIELD_NAME ) {
+          PathNode child = node.children.get( parser.getCurrentName() );
+          parser.nextToken();
+          if ( child != null ) {
+            readNode( child, row );
+          } else {
+            parser.skipChildren();
+          }
+        }
+      } else {
+        parser.skipChildren();
+      }
+    }
+
+    /**
+     * Takes the values of the children of a node from an object that was read already.
+     */
+    private void extract( PathNode node, Map<?, ?> object, Object[] row ) {
+      for ( Map.Entry<String, PathNode> child : node.children.entrySet() ) {
+        Object value = object.get( child.getKey() );
+        for ( int field : child.getValue().fields ) {
+          row[ field ] = value;
+        }
+        if ( value instanceof Map ) {
+          extract( child.getValue(), (Map<?, ?>) value, row );
+        }
+      }
+    }
+
+    /**
+     * Reads the value the parser is at with the same types as the JSON path provider: objects are maps, arrays are
+     * {@link JSONArray}s.
+     */
+    private Object readValue() throws IOException {
+      switch ( parser.currentToken() ) {
+        case START_OBJECT:
+          Map<String, Object> object = new LinkedHashMap<>();
+          while ( parser.nextToken() == JsonToken.FIELD_NAME ) {
+            String name = parser.getCurrentName();
+            parser.nextToken();
+            object.put( name, readValue() );
+          }
+          return object;
+        case START_ARRAY:
+          JSONArray array = new JSONArray();
+          while ( parser.nextToken() != JsonToken.END_ARRAY ) {
+            array.add( readValue() );
+          }
+          return array;
+        case VALUE_STRING:
+          return parser.getText();
+        case VALUE_NUMBER_INT:
+          return parser.getNumberValue();
+        case VALUE_NUMBER_FLOAT:
+          return parser.getDoubleValue();
+        case VALUE_TRUE:
+          return Boolean.TRUE;
+        case VALUE_FALSE:
+          return Boolean.FALSE;
+        default:
+          return null;
+      }
+    }
+
+    private boolean isAllNull( Object[] row ) {
+      for ( Object value : row ) {
+        if ( value != null ) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    @Override
+    public int size() {
+      return closed ? 0 : 1;
+    }
+
+    @Override
+    public boolean isDone() {
+      return closed;
+    }
+
+    @Override
+    public void clear() {
+      closeQuietly();
+    }
+
+    @Override
+    public void close() throws IOException {
+      if ( closed ) {
+        return;
+      }
+      closed = true;
+      try {
+        parser.close();
+      } finally {
+        in.close();
+      }
+    }
+
+    private void closeQuietly() {
+      try {
+        close();
+      } catch ( IOException e ) {
+        // the error that made us stop is the one to report
+      }
+    }
+  }
+}
@@ -0,0 +1,100 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.jsonoutput;
+
+import java.io.CharArrayWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A file with one JSON object per line that the copies of a step write to at the same time.
+ * <p>
+ * Every copy encodes its rows into a buffer of its own and hands over complete lines, so the copies only wait on each
+ * other to copy the buffers into the file. The file is opened with the first lines and closed when the last copy lets
+ * go of it. Copies that write to files of their own each get a file of their own here as well.
+ */
+class JsonLinesFile {
+
+  interface Opener {
+    Writer open() throws Exception;
+  }
+
+  private static final Map<String, JsonLinesFile> FILES = new HashMap<>();
+
+  private final String key;
+  private final Opener opener;
+  private int users;
+  private Writer writer;
+
+  private JsonLinesFile( String key, Opener opener ) {
+    this.key = key;
+    this.opener = opener;
+  }
+
+  /**
+   * Starts using a file, call {@link #release()} when done.
+   *
+   * @param key    the name of the file and the transformation that writes it
+   * @param opener opens the file, called by the copy that writes the first lines
+   */
+  static JsonLinesFile acquire( String key, Opener opener ) {
+    synchronized ( FILES ) {
+      JsonLinesFile file = FILES.get( key );
+      if ( file == null ) {
+        file = new JsonLinesFile( key, opener );
+        FILES.put( key, file );
+      }
+      file.users++;
+      return file;
+    }
+  }
+
+  /**
+   * Opens the file if no copy did so yet, so that it exists even if no lines are written to it.
+   */
+  synchronized void open() throws Exception {
+    if ( writer == null ) {
+      writer = opener.open();
+    }
+  }
+
+  /**
+   * Appends the lines in the buffer to the file and empties the buffer.
+   */
+  synchronized void write( CharArrayWriter lines ) throws Exception {
+    open();
+    lines.writeTo( writer );
+    lines.reset();
+  }
+
+  /**
+   * Stops using the file, the last copy to do so closes it.
+   */
+  void release() throws IOException {
+    synchronized ( FILES ) {
+      if ( --users > 0 ) {
+        return;
+      }
+      FILES.remove( key );
+    }
+    synchronized ( this ) {
+      if ( writer != null ) {
+        writer.close();
+        writer = null;
+      }
+    }
+  }
+}
@@ -14,14 +14,19 @@
 package org.pentaho.di.trans.steps.jsonoutput;
 
 import java.io.BufferedOutputStream;
+import java.io.CharArrayWriter;
+import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import org.apache.commons.vfs2.FileObject;
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
@@ -31,7 +36,6 @@ import org.pentaho.di.core.ResultFile;
 import org.pentaho.di.core.exception.KettleException;
 import org.pentaho.di.core.exception.KettleStepException;
 import org.pentaho.di.core.row.RowDataUtil;
-import org.pentaho.di.core.row.ValueMetaInterface;
 import org.pentaho.di.core.vfs.KettleVFS;
 import org.pentaho.di.i18n.BaseMessages;
 import org.pentaho.di.trans.Trans;
@@ -51,118 +55,16 @@ import org.pentaho.di.trans.step.StepMetaInterface;
 public class JsonOutput extends BaseStep implements StepInterface {
   private static Class<?> PKG = JsonOutput.class; // for i18n purposes, needed by Translator2!!
 
+  /** The number of characters of lines a copy collects before it writes them to the file */
+  private static final int LINES_BUFFER_SIZE = 64 * 1024;
+
   private JsonOutputMeta meta;
   private JsonOutputData data;
   private Date startProcessingDate;
 
-  private interface CompatibilityFactory {
-    public void execute( Object[] row ) throws KettleException;
-  }
-
-  @SuppressWarnings( "unchecked" )
-  private class CompatibilityMode implements CompatibilityFactory {
-    public void execute( Object[] row ) throws KettleException {
-
-      for ( int i = 0; i < data.nrFields; i++ ) {
-        JsonOutputField outputField = meta.getOutputFields()[i];
-
-        ValueMetaInterface v = data.inputRowMeta.getValueMeta( data.fieldIndexes[i] );
-
-        // Create a new object with specified fields
-        JSONObject jo = new JSONObject();
-
-        switch ( v.getType() ) {
-          case ValueMetaInterface.TYPE_BOOLEAN:
-            jo.put( outputField.getElementName(), data.inputRowMeta.getBoolean( row, data.fieldIndexes[i] ) );
-            break;
-          case ValueMetaInterface.TYPE_INTEGER:
-            jo.put( outputField.getElementName(), data.inputRowMeta.getInteger( row, data.fieldIndexes[i] ) );
-            break;
-          case ValueMetaInterface.TYPE_NUMBER:
-            jo.put( outputField.getElementName(), data.inputRowMeta.getNumber( row, data.fieldIndexes[i] ) );
-            break;
-          case ValueMetaInterface.TYPE_BIGNUMBER:
-            jo.put( outputField.getElementName(), data.inputRowMeta.getBigNumber( row, data.fieldIndexes[i] ) );
-            break;
-          default:
-            jo.put( outputField.getElementName(), data.inputRowMeta.getString( row, data.fieldIndexes[i] ) );
-            break;
-        }
-        data.ja.add( jo );
-      }
-
-      data.nrRow++;
-
-      if ( data.nrRowsInBloc > 0 ) {
-        // System.out.println("data.nrRow%data.nrRowsInBloc = "+ data.nrRow%data.nrRowsInBloc);
-        if ( data.nrRow % data.nrRowsInBloc == 0 ) {
-          // We can now output an object
-          // System.out.println("outputting the row.");
-          outPutRow( row );
-        }
-      }
-    }
-  }
-
-  @SuppressWarnings( "unchecked" )
-  private class FixedMode implements CompatibilityFactory {
-    public void execute( Object[] row ) throws KettleException {
-
-      // Create a new object with specified fields
-      JSONObject jo = new JSONObject();
-
-      for ( int i = 0; i < data.nrFields; i++ ) {
-        JsonOutputField outputField = meta.getOutputFields()[i];
-
-        ValueMetaInterface v = data.inputRowMeta.getValueMeta( data.fieldIndexes[i] );
-
-        switch ( v.getType() ) {
-          case ValueMetaInterface.TYPE_BOOLEAN:
-            jo.put( outputField.getElementName(), data.inputRowMeta.getBoolean( row, data.fieldIndexes[i] ) );
-            break;
-          case ValueMetaInterface.TYPE_INTEGER:
-            jo.put( outputField.getElementName(), data.inputRowMeta.getInteger( row, data.fieldIndexes[i] ) );
-            break;
-          case ValueMetaInterface.TYPE_NUMBER:
-            jo.put( outputField.getElementName(), data.inputRowMeta.getNumber( row, data.fieldIndexes[i] ) );
-            break;
-          case ValueMetaInterface.TYPE_BIGNUMBER:
-            jo.put( outputField.getElementName(), data.inputRowMeta.getBigNumber( row, data.fieldIndexes[i] ) );
-            break;
-          default:
-            jo.put( outputField.getElementName(), data.inputRowMeta.getString( row, data.fieldIndexes[i] ) );
-            break;
-        }
-      }
-      data.ja.add( jo );
-
-      data.nrRow++;
-
-      if ( data.nrRowsInBloc > 0 ) {
-        // System.out.println("data.nrRow%data.nrRowsInBloc = "+ data.nrRow%data.nrRowsInBloc);
-        if ( data.nrRow % data.nrRowsInBloc == 0 ) {
-          // We can now output an object
-          // System.out.println("outputting the row.");
-          outPutRow( row );
-        }
-      }
-    }
-  }
-
-  private CompatibilityFactory compatibilityFactory;
-
   public JsonOutput( StepMeta stepMeta, StepDataInterface stepDataInterface, int copyNr, TransMeta transMeta,
                      Trans trans ) {
     super( stepMeta, stepDataInterface, copyNr, transMeta, trans );
-
-    // Here we decide whether or not to build the structure in
-    // compatible mode or fixed mode
-    JsonOutputMeta jsonOutputMeta = (JsonOutputMeta) ( stepMeta.getStepMetaInterface() );
-    if ( jsonOutputMeta.isCompatibilityMode() ) {
-      compatibilityFactory = new CompatibilityMode();
-    } else {
-      compatibilityFactory = new FixedMode();
-    }
   }
 
   @SuppressWarnings( "java:S1144" )
@@ -232,6 +134,10 @@ public class JsonOutput extends BaseStep implements StepInterface {
         // Let's output the remaining unsafe data
         outPutRow( r );
       }
+      if ( data.linesGenerator != null ) {
+        flushLines();
+      }
+      releaseLinesFile();
 
       setOutputDone();
       return false;
@@ -252,6 +158,7 @@ public class JsonOutput extends BaseStep implements StepInterface {
       //
       data.nrFields = meta.getOutputFields().length;
       data.fieldIndexes = new int[data.nrFields];
+      String[] elementNames = new String[data.nrFields];
       for ( int i = 0; i < data.nrFields; i++ ) {
         data.fieldIndexes[i] = data.inputRowMeta.indexOfValue( meta.getOutputFields()[i].getFieldName() );
         if ( data.fieldIndexes[i] < 0 ) {
@@ -259,11 +166,22 @@ public class JsonOutput extends BaseStep implements StepInterface {
         }
         JsonOutputField field = meta.getOutputFields()[i];
         field.setElementName( environmentSubstitute( field.getElementName() ) );
+        elementNames[i] = field.getElementName();
       }
+
+      // Work out once how every field is written
+      data.encoder =
+        new JsonRowEncoder( data.inputRowMeta, data.fieldIndexes, elementNames, meta.isCompatibilityMode() );
     }
 
     data.rowsAreSafe = false;
-    compatibilityFactory.execute( r );
+    writeRow( r );
+
+    data.nrRow++;
+    if ( data.nrRowsInBloc > 0 && data.nrRow % data.nrRowsInBloc == 0 ) {
+      // We can now output an object
+      outPutRow( r );
+    }
 
     if ( data.writeToFile && !data.outputValue ) {
       putRow( data.inputRowMeta, r ); // in case we want it go further...
@@ -272,43 +190,146 @@ public class JsonOutput extends BaseStep implements StepInterface {
     return true;
   }
 
-  @SuppressWarnings( "unchecked" )
-  private void outPutRow( Object[] rowData ) throws KettleStepException {
-    // We can now output an object
-    data.jg = new JSONObject();
-    String value;
-    if ( data.realBlocName == "" ) {
-      value = data.ja.toJSONString();
-    } else {
-      data.jg.put( data.realBlocName, data.ja );
-      value = data.jg.toJSONString();
+  /**
+   * Writes the row to the bloc of the output value, and straight to the file when the file doesn't get the output
+   * value. A bloc that is only written to a file is never held in memory, however many rows it has.
+   */
+  private void writeRow( Object[] row ) throws KettleException {
+    try {
+      if ( data.outputValue ) {
+        if ( data.valueGenerator == null ) {
+          data.valueBuffer = new StringWriter();
+          data.valueGenerator = JsonRowEncoder.createGenerator( data.valueBuffer );
+        }
+        if ( data.blocRows == 0 ) {
+          startBloc( data.valueGenerator );
+        }
+        data.encoder.writeRow( data.valueGenerator, row );
+      }
+      if ( data.writeToFile ) {
+        if ( data.lineDelimited ) {
+          writeLines( row );
+        } else if ( !data.outputValue ) {
+          if ( data.blocRows == 0 ) {
+            if ( !openNewFile() ) {
+              throw new KettleStepException( BaseMessages.getString(
+                PKG, "JsonOutput.Error.OpenNewFile", buildFilename() ) );
+            }
+            data.fileGenerator = JsonRowEncoder.createGenerator( data.writer );
+            startBloc( data.fileGenerator );
+          }
+          data.encoder.writeRow( data.fileGenerator, row );
+        }
+      }
+      data.blocRows++;
+    } catch ( IOException e ) {
+      throw new KettleStepException( BaseMessages.getString( PKG, "JsonOutput.Error.Writing" ), e );
     }
+  }
 
+  private void writeLines( Object[] row ) throws KettleException, IOException {
+    if ( data.linesGenerator == null ) {
+      acquireLinesFile();
+      data.linesBuffer = new CharArrayWriter( LINES_BUFFER_SIZE );
+      data.linesGenerator = JsonRowEncoder.createGenerator( data.linesBuffer );
+    }
+    data.encoder.writeLines( data.linesGenerator, row );
+    if ( data.linesBuffer.size() >= LINES_BUFFER_SIZE ) {
+      flushLines();
+    }
+  }
 
-    if ( data.outputValue && data.outputRowMeta != null ) {
-      Object[] outputRowData = RowDataUtil.addValueData( rowData, data.inputRowMetaSize, value );
-      incrementLinesOutput();
-      putRow( data.outputRowMeta, outputRowData );
+  private void flushLines() throws KettleStepException {
+    try {
+      data.linesGenerator.flush();
+      data.linesFile.write( data.linesBuffer );
+    } catch ( Exception e ) {
+      throw new KettleStepException( BaseMessages.getString( PKG, "JsonOutput.Error.Writing" ), e );
     }
+  }
 
-    if ( data.writeToFile && !data.ja.isEmpty() ) {
-      // Open a file
-      if ( !openNewFile() ) {
-        throw new KettleStepException( BaseMessages.getString(
-          PKG, "JsonOutput.Error.OpenNewFile", buildFilename() ) );
+  private void acquireLinesFile() {
+    if ( data.linesFile == null ) {
+      String filename = meta.isServletOutput() ? "servlet" : buildFilename();
+      data.linesFile = JsonLinesFile.acquire( getTrans().getLogChannelId() + ":" + filename, this::openWriter );
+    }
+  }
+
+  private void releaseLinesFile() {
+    if ( data.linesFile == null ) {
+      return;
+    }
+    try {
+      data.linesFile.release();
+    } catch ( Exception e ) {
+      logError( BaseMessages.getString( PKG, "JsonOutput.Error.ClosingFile", e.toString() ) );
+      setErrors( 1 );
+    }
+    data.linesFile = null;
+  }
+
+  private void startBloc( JsonGenerator generator ) throws IOException {
+    if ( !Utils.isEmpty( data.realBlocName ) ) {
+      generator.writeStartObject();
+      generator.writeFieldName( data.realBlocName );
+    }
+    generator.writeStartArray();
+  }
+
+  private void endBloc( JsonGenerator generator ) throws IOException {
+    generator.writeEndArray();
+    if ( !Utils.isEmpty( data.realBlocName ) ) {
+      generator.writeEndObject();
+    }
+    generator.flush();
+  }
+
+  private void outPutRow( Object[] rowData ) throws KettleStepException {
+    // We can now output an object
+    try {
+      String value = null;
+      if ( data.outputValue ) {
+        if ( data.valueGenerator == null ) {
+          data.valueBuffer = new StringWriter();
+          data.valueGenerator = JsonRowEncoder.createGenerator( data.valueBuffer );
+        }
+        if ( data.blocRows == 0 ) {
+          startBloc( data.valueGenerator );
+        }
+        endBloc( data.valueGenerator );
+        value = data.valueBuffer.toString();
+        data.valueBuffer.getBuffer().setLength( 0 );
       }
-      // Write data to file
-      try {
-        data.writer.write( value );
-      } catch ( Exception e ) {
-        throw new KettleStepException( BaseMessages.getString( PKG, "JsonOutput.Error.Writing" ), e );
+
+      if ( data.outputValue && data.outputRowMeta != null ) {
+        Object[] outputRowData = RowDataUtil.addValueData( rowData, data.inputRowMetaSize, value );
+        incrementLinesOutput();
+        putRow( data.outputRowMeta, outputRowData );
       }
-      // Close file
-      closeFile();
+
+      if ( data.writeToFile && !data.lineDelimited && data.blocRows > 0 ) {
+        if ( data.outputValue ) {
+          // Open a file
+          if ( !openNewFile() ) {
+            throw new KettleStepException( BaseMessages.getString(
+              PKG, "JsonOutput.Error.OpenNewFile", buildFilename() ) );
+          }
+          // Write data to file
+          data.writer.write( value );
+        } else {
+          endBloc( data.fileGenerator );
+          data.fileGenerator.close();
+          data.fileGenerator = null;
+        }
+        // Close file
+        closeFile();
+      }
+    } catch ( IOException e ) {
+      throw new KettleStepException( BaseMessages.getString( PKG, "JsonOutput.Error.Writing" ), e );
     }
     // Data are safe
     data.rowsAreSafe = true;
-    data.ja = new JSONArray();
+    data.blocRows = 0;
   }
 
   public boolean init( StepMetaInterface smi, StepDataInterface sdi ) {
@@ -336,7 +357,22 @@ public class JsonOutput extends BaseStep implements StepInterface {
           setErrors( 1 );
           return false;
         }
-        if ( !meta.isDoNotOpenNewFileInit() ) {
+        data.lineDelimited = meta.isLineDelimited();
+        if ( data.lineDelimited ) {
+          // The copies writing the same file all have it before any of them can close it
+          acquireLinesFile();
+          if ( !meta.isDoNotOpenNewFileInit() ) {
+            try {
+              data.linesFile.open();
+            } catch ( Exception e ) {
+              logError( BaseMessages.getString( PKG, "JsonOutput.Error.OpeningFile", e.toString() ) );
+              logError( BaseMessages.getString( PKG, "JsonOutput.Error.OpenNewFile", buildFilename() ) );
+              stopAll();
+              setErrors( 1 );
+              return false;
+            }
+          }
+        } else if ( !meta.isDoNotOpenNewFileInit() ) {
           if ( !openNewFile() ) {
             logError( BaseMessages.getString( PKG, "JsonOutput.Error.OpenNewFile", buildFilename() ) );
             stopAll();
@@ -357,12 +393,19 @@ public class JsonOutput extends BaseStep implements StepInterface {
   public void dispose( StepMetaInterface smi, StepDataInterface sdi ) {
     meta = (JsonOutputMeta) smi;
     data = (JsonOutputData) sdi;
-    if ( data.ja != null ) {
-      data.ja = null;
-    }
-    if ( data.jg != null ) {
-      data.jg = null;
+    if ( data.fileGenerator != null ) {
+      try {
+        data.fileGenerator.close();
+      } catch ( IOException e ) {
+        // Ignore, closing the file reports the error
+      }
+      data.fileGenerator = null;
     }
+    data.valueGenerator = null;
+    data.valueBuffer = null;
+    data.linesGenerator = null;
+    data.linesBuffer = null;
+    releaseLinesFile();
     closeFile();
     super.dispose( smi, sdi );
 
@@ -407,50 +450,53 @@ public class JsonOutput extends BaseStep implements StepInterface {
     boolean retval = false;
 
     try {
+      data.writer = openWriter();
+      retval = true;
+    } catch ( Exception e ) {
+      logError( BaseMessages.getString( PKG, "JsonOutput.Error.OpeningFile", e.toString() ) );
+    }
 
-      if ( meta.isServletOutput() ) {
-        data.writer = getTrans().getServletPrintWriter();
-      } else {
-        String filename = buildFilename();
-        createParentFolder( filename );
-        if ( meta.AddToResult() ) {
-          // Add this to the result file names...
-          ResultFile resultFile =
-            new ResultFile(
-              ResultFile.FILE_TYPE_GENERAL, KettleVFS.getInstance( getTransMeta().getBowl() )
-                .getFileObject( filename, getTransMeta() ),
-              getTransMeta().getName(), getStepname() );
-          resultFile.setComment( BaseMessages.getString( PKG, "JsonOutput.ResultFilenames.Comment" ) );
-          addResultFile( resultFile );
-        }
-
-        OutputStream outputStream;
-        OutputStream fos = KettleVFS.getInstance( getTransMeta().getBowl() )
-          .getOutputStream( filename, getTransMeta(), meta.isFileAppended() );
-        outputStream = fos;
+    return retval;
+  }
 
-        if ( !Utils.isEmpty( meta.getEncoding() ) ) {
-          data.writer =
-            new OutputStreamWriter( new BufferedOutputStream( outputStream, 5000 ), environmentSubstitute( meta
-              .getEncoding() ) );
-        } else {
-          data.writer = new OutputStreamWriter( new BufferedOutputStream( outputStream, 5000 ) );
-        }
+  private Writer openWriter() throws Exception {
+    Writer writer;
+    if ( meta.isServletOutput() ) {
+      writer = getTrans().getServletPrintWriter();
+    } else {
+      String filename = buildFilename();
+      createParentFolder( filename );
+      if ( meta.AddToResult() ) {
+        // Add this to the result file names...
+        ResultFile resultFile =
+          new ResultFile(
+            ResultFile.FILE_TYPE_GENERAL, KettleVFS.getInstance( getTransMeta().getBowl() )
+              .getFileObject( filename, getTransMeta() ),
+            getTransMeta().getName(), getStepname() );
+        resultFile.setComment( BaseMessages.getString( PKG, "JsonOutput.ResultFilenames.Comment" ) );
+        addResultFile( resultFile );
+      }
 
-        if ( log.isDetailed() ) {
-          logDetailed( BaseMessages.getString( PKG, "JsonOutput.FileOpened", filename ) );
-        }
+      OutputStream outputStream;
+      OutputStream fos = KettleVFS.getInstance( getTransMeta().getBowl() )
+        .getOutputStream( filename, getTransMeta(), meta.isFileAppended() );
+      outputStream = fos;
 
-        data.splitnr++;
+      if ( !Utils.isEmpty( meta.getEncoding() ) ) {
+        writer =
+          new OutputStreamWriter( new BufferedOutputStream( outputStream, 5000 ), environmentSubstitute( meta
+            .getEncoding() ) );
+      } else {
+        writer = new OutputStreamWriter( new BufferedOutputStream( outputStream, 5000 ) );
       }
 
-      retval = true;
+      if ( log.isDetailed() ) {
+        logDetailed( BaseMessages.getString( PKG, "JsonOutput.FileOpened", filename ) );
+      }
 
-    } catch ( Exception e ) {
-      logError( BaseMessages.getString( PKG, "JsonOutput.Error.OpeningFile", e.toString() ) );
+      data.splitnr++;
     }
-
-    return retval;
+    return writer;
   }
 
   public String buildFilename() {
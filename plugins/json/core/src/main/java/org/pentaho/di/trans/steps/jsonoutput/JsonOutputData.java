@@ -13,6 +13,8 @@
 
 package org.pentaho.di.trans.steps.jsonoutput;
 
+import java.io.CharArrayWriter;
+import java.io.StringWriter;
 import java.io.Writer;
 import java.text.DateFormatSymbols;
 import java.text.DecimalFormat;
@@ -20,8 +22,7 @@ import java.text.DecimalFormatSymbols;
 import java.text.NumberFormat;
 import java.text.SimpleDateFormat;
 
-import org.json.simple.JSONArray;
-import org.json.simple.JSONObject;
+import com.fasterxml.jackson.core.JsonGenerator;
 import org.pentaho.di.core.row.RowMetaInterface;
 import org.pentaho.di.trans.step.BaseStepData;
 import org.pentaho.di.trans.step.StepDataInterface;
@@ -38,9 +39,10 @@ public class JsonOutputData extends BaseStepData implements StepDataInterface {
   public int nrFields;
 
   public int[] fieldIndexes;
-  public JSONObject jg;
-  public JSONArray ja;
+  public JsonRowEncoder encoder;
   public int nrRow;
+  /** The number of rows written in the current bloc */
+  public int blocRows;
   public boolean rowsAreSafe;
   public NumberFormat nf;
   public DecimalFormat df;
@@ -63,12 +65,23 @@ public class JsonOutputData extends BaseStepData implements StepDataInterface {
   public Writer writer;
   public int nrRowsInBloc;
 
+  /** Writes the bloc straight into the file */
+  public JsonGenerator fileGenerator;
+  /** Collects the bloc for the output value */
+  public JsonGenerator valueGenerator;
+  public StringWriter valueBuffer;
+
+  /** Write one object per line */
+  public boolean lineDelimited;
+  public JsonLinesFile linesFile;
+  public JsonGenerator linesGenerator;
+  public CharArrayWriter linesBuffer;
+
   /**
    *
    */
   public JsonOutputData() {
     super();
-    this.ja = new JSONArray();
     this.nrRow = 0;
     this.outputValue = false;
     this.writeToFile = false;
@@ -103,6 +103,9 @@ public class JsonOutputMeta extends BaseFileOutputMeta {
   /** Flag to indicate whether or not to create JSON structures compatible with pre PDI-4.3.0 */
   private boolean compatibilityMode;
 
+  /** Flag to indicate that the file gets one JSON object per line instead of blocs */
+  private boolean lineDelimited;
+
   /** Flag: create parent folder if needed */
   private boolean createparentfolder;
 
@@ -266,6 +269,7 @@ public class JsonOutputMeta extends BaseFileOutputMeta {
       nrRowsInBloc = XMLHandler.getTagValue( stepnode, "nrRowsInBloc" );
       operationType = getOperationTypeByCode( Const.NVL( XMLHandler.getTagValue( stepnode, "operation_type" ), "" ) );
       compatibilityMode = "Y".equalsIgnoreCase( XMLHandler.getTagValue( stepnode, "compatibility_mode" ) );
+      lineDelimited = "Y".equalsIgnoreCase( XMLHandler.getTagValue( stepnode, "line_delimited" ) );
 
       encoding = XMLHandler.getTagValue( stepnode, "encoding" );
       AddToResult = "Y".equalsIgnoreCase( XMLHandler.getTagValue( stepnode, "AddToResult" ) );
@@ -335,6 +339,7 @@ public class JsonOutputMeta extends BaseFileOutputMeta {
     retval.append( "    " ).append( XMLHandler.addTagValue( "nrRowsInBloc", nrRowsInBloc ) );
     retval.append( "    " ).append( XMLHandler.addTagValue( "operation_type", getOperationTypeCode( operationType ) ) );
     retval.append( "    " ).append( XMLHandler.addTagValue( "compatibility_mode", compatibilityMode ) );
+    retval.append( "    " ).append( XMLHandler.addTagValue( "line_delimited", lineDelimited ) );
     retval.append( "    " ).append( XMLHandler.addTagValue( "encoding", encoding ) );
     retval.append( "    " ).append( XMLHandler.addTagValue( "addtoresult", AddToResult ) );
     retval.append( "    <file>" + Const.CR );
@@ -374,6 +379,7 @@ public class JsonOutputMeta extends BaseFileOutputMeta {
 
       operationType = getOperationTypeByCode( Const.NVL( rep.getStepAttributeString( id_step, "operation_type" ), "" ) );
       compatibilityMode = rep.getStepAttributeBoolean( id_step, "compatibility_mode" );
+      lineDelimited = rep.getStepAttributeBoolean( id_step, "line_delimited" );
       encoding = rep.getStepAttributeString( id_step, "encoding" );
       AddToResult = rep.getStepAttributeBoolean( id_step, "addtoresult" );
 
@@ -419,6 +425,7 @@ public class JsonOutputMeta extends BaseFileOutputMeta {
 
       rep.saveStepAttribute( id_transformation, id_step, "operation_type", getOperationTypeCode( operationType ) );
       rep.saveStepAttribute( id_transformation, id_step, "compatibility_mode", compatibilityMode );
+      rep.saveStepAttribute( id_transformation, id_step, "line_delimited", lineDelimited );
       rep.saveStepAttribute( id_transformation, id_step, "encoding", encoding );
       rep.saveStepAttribute( id_transformation, id_step, "addtoresult", AddToResult );
 
@@ -620,6 +627,17 @@ public class JsonOutputMeta extends BaseFileOutputMeta {
     this.compatibilityMode = compatibilityMode;
   }
 
+  /**
+   * @return true if the file gets one JSON object per line, the copies of the step can then write to the same file
+   */
+  public boolean isLineDelimited() {
+    return lineDelimited;
+  }
+
+  public void setLineDelimited( boolean lineDelimited ) {
+    this.lineDelimited = lineDelimited;
+  }
+
   public StepMetaInjectionInterface getStepMetaInjectionInterface() {
     return new JsonOutputMetaInjection( this );
   }
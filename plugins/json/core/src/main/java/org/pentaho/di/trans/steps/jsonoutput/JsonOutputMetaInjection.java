@@ -36,6 +36,7 @@ public class JsonOutputMetaInjection implements StepMetaInjectionInterface {
       NR_ROWS_IN_BLOC( ValueMetaInterface.TYPE_STRING, "The number of rows in a bloc" ),
       OUTPUT_VALUE( ValueMetaInterface.TYPE_STRING, "The field to contain the output JSON" ),
       COMPATIBILITY_MODE( ValueMetaInterface.TYPE_STRING, "Run in Compatibility Mode? (Y/N)" ),
+      LINE_DELIMITED( ValueMetaInterface.TYPE_STRING, "Write one JSON object per line to the file? (Y/N)" ),
 
       FILE_NAME( ValueMetaInterface.TYPE_STRING, "The output file name" ),
       APPEND( ValueMetaInterface.TYPE_STRING, "Append if the file exists? (Y/N)" ),
@@ -94,7 +95,7 @@ public class JsonOutputMetaInjection implements StepMetaInjectionInterface {
     Entry[] topEntries =
       new Entry[] {
         Entry.OPERATION, Entry.JSON_BLOC_NAME, Entry.NR_ROWS_IN_BLOC, Entry.OUTPUT_VALUE,
-        Entry.COMPATIBILITY_MODE, Entry.FILE_NAME, Entry.APPEND, Entry.CREATE_PARENT_FOLDER,
+        Entry.COMPATIBILITY_MODE, Entry.LINE_DELIMITED, Entry.FILE_NAME, Entry.APPEND, Entry.CREATE_PARENT_FOLDER,
         Entry.DONT_CREATE_AT_START, Entry.EXTENSION, Entry.ENCODING,
         Entry.PASS_TO_SERVLET, Entry.INC_DATE_IN_FILENAME, Entry.INC_TIME_IN_FILENAME,
         Entry.ADD_TO_RESULT, };
@@ -185,6 +186,9 @@ public class JsonOutputMetaInjection implements StepMetaInjectionInterface {
         case COMPATIBILITY_MODE:
           meta.setCompatibilityMode( "Y".equalsIgnoreCase( lookValue ) );
           break;
+        case LINE_DELIMITED:
+          meta.setLineDelimited( "Y".equalsIgnoreCase( lookValue ) );
+          break;
         case FILE_NAME:
           meta.setFileName( lookValue );
           break;
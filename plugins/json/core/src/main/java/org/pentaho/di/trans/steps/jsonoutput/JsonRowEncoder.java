@@ -0,0 +1,212 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.jsonoutput;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.CharacterEscapes;
+import com.fasterxml.jackson.core.io.SerializedString;
+import org.pentaho.di.core.exception.KettleValueException;
+import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.di.core.row.ValueMetaInterface;
+
+/**
+ * Writes rows as JSON objects on a streaming generator, without building a json-simple object for every row.
+ * <p>
+ * The element names and the way every field is written are worked out once, from the row metadata. The text is the
+ * same as json-simple writes: no white space, '/' escaped, NaN and infinite numbers written as null. In the fixed mode a
+ * row becomes one object with the fields in the order of the step, an element name that is used twice keeps the value
+ * of the last field with that name. In compatibility mode every field becomes an object of its own.
+ */
+public class JsonRowEncoder {
+
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+  static {
+    JSON_FACTORY.setRootValueSeparator( null );
+    JSON_FACTORY.disable( JsonGenerator.Feature.AUTO_CLOSE_TARGET );
+    JSON_FACTORY.setCharacterEscapes( new JsonSimpleEscapes() );
+  }
+
+  private interface FieldEncoder {
+    void write( JsonGenerator generator, Object[] row ) throws IOException, KettleValueException;
+  }
+
+  private final boolean compatibilityMode;
+  private final String[] names;
+  private final FieldEncoder[] encoders;
+
+  /**
+   * @param rowMeta           the metadata of the input rows
+   * @param fieldIndexes      the indexes of the fields to write in the input rows
+   * @param elementNames      the element name of every field to write
+   * @param compatibilityMode true to write every field as an object of its own
+   */
+  public JsonRowEncoder( RowMetaInterface rowMeta, int[] fieldIndexes, String[] elementNames,
+    boolean compatibilityMode ) {
+    this.compatibilityMode = compatibilityMode;
+
+    Map<String, Integer> fields = new LinkedHashMap<>();
+    for ( int i = 0; i < fieldIndexes.length; i++ ) {
+      if ( compatibilityMode ) {
+        fields.put( String.valueOf( i ), i );
+      } else {
+        fields.put( String.valueOf( elementNames[ i ] ), i );
+      }
+    }
+
+    names = new String[ fields.size() ];
+    encoders = new FieldEncoder[ fields.size() ];
+    int n = 0;
+    for ( int i : fields.values() ) {
+      names[ n ] = String.valueOf( elementNames[ i ] );
+      encoders[ n ] = createEncoder( rowMeta.getValueMeta( fieldIndexes[ i ] ), fieldIndexes[ i ] );
+      n++;
+    }
+  }
+
+  /**
+   * @return a generator that writes to the writer the way json-simple does, closing it leaves the writer open
+   */
+  public static JsonGenerator createGenerator( Writer writer ) throws IOException {
+    return JSON_FACTORY.createGenerator( writer );
+  }
+
+  /**
+   * Writes a row as the next value of the array or as a root value.
+   */
+  public void writeRow( JsonGenerator generator, Object[] row ) throws IOException, KettleValueException {
+    if ( compatibilityMode ) {
+      for ( int i = 0; i < encoders.length; i++ ) {
+        generator.writeStartObject();
+        generator.writeFieldName( names[ i ] );
+        encoders[ i ].write( generator, row );
+        generator.writeEndObject();
+      }
+    } else {
+      generator.writeStartObject();
+      for ( int i = 0; i < encoders.length; i++ ) {
+        generator.writeFieldName( names[ i ] );
+        encoders[ i ].write( generator, row );
+      }
+      generator.writeEndObject();
+    }
+  }
+
+  /**
+   * Writes a row as lines of JSON, one object per line.
+   */
+  public void writeLines( JsonGenerator generator, Object[] row ) throws IOException, KettleValueException {
+    if ( compatibilityMode ) {
+      for ( int i = 0; i < encoders.length; i++ ) {
+        generator.writeStartObject();
+        generator.writeFieldName( names[ i ] );
+        encoders[ i ].write( generator, row );
+        generator.writeEndObject();
+        generator.writeRaw( '\n' );
+      }
+    } else {
+      writeRow( generator, row );
+      generator.writeRaw( '\n' );
+    }
+  }
+
+  private static FieldEncoder createEncoder( ValueMetaInterface valueMeta, int index ) {
+    switch ( valueMeta.getType() ) {
+      case ValueMetaInterface.TYPE_BOOLEAN:
+        return ( generator, row ) -> {
+          Boolean value = valueMeta.getBoolean( row[ index ] );
+          if ( value == null ) {
+            generator.writeNull();
+          } else {
+            generator.writeBoolean( value );
+          }
+        };
+      case ValueMetaInterface.TYPE_INTEGER:
+        return ( generator, row ) -> {
+          Long value = valueMeta.getInteger( row[ index ] );
+          if ( value == null ) {
+            generator.writeNull();
+          } else {
+            generator.writeNumber( value );
+          }
+        };
+      case ValueMetaInterface.TYPE_NUMBER:
+        return ( generator, row ) -> {
+          Double value = valueMeta.getNumber( row[ index ] );
+          if ( value == null || value.isNaN() || value.isInfinite() ) {
+            generator.writeNull();
+          } else {
+            generator.writeNumber( value );
+          }
+        };
+      case ValueMetaInterface.TYPE_BIGNUMBER:
+        return ( generator, row ) -> {
+          BigDecimal value = valueMeta.getBigNumber( row[ index ] );
+          if ( value == null ) {
+            generator.writeNull();
+          } else {
+            generator.writeNumber( value );
+          }
+        };
+      default:
+        return ( generator, row ) -> {
+          String value = valueMeta.getString( row[ index ] );
+          if ( value == null ) {
+            generator.writeNull();
+          } else {
+            generator.writeString( value );
+          }
+        };
+    }
+  }
+
+  /**
+   * The characters json-simple escapes on top of the ones JSON needs escaped.
+   */
+  private static class JsonSimpleEscapes extends CharacterEscapes {
+    private static final SerializedString SLASH = new SerializedString( "\\/" );
+
+    private final int[] asciiEscapes;
+
+    JsonSimpleEscapes() {
+      asciiEscapes = standardAsciiEscapesForJSON();
+      asciiEscapes[ '/' ] = ESCAPE_CUSTOM;
+      asciiEscapes[ 0x7F ] = ESCAPE_STANDARD;
+    }
+
+    @Override
+    public int[] getEscapeCodesForAscii() {
+      return asciiEscapes;
+    }
+
+    @Override
+    public SerializableString getEscapeSequence( int ch ) {
+      if ( ch == '/' ) {
+        return SLASH;
+      }
+      if ( ch >= 0x80 && ch <= 0x9F || ch >= 0x2000 && ch <= 0x20FF ) {
+        return new SerializedString( String.format( "\\u%04X", ch ) );
+      }
+      return null;
+    }
+  }
+}
@@ -87,6 +87,11 @@ public class JsonInputMetaInjectionTest extends BaseMetadataInjectionTest<JsonIn
         return meta.isRemoveSourceField();
       }
     } );
+    check( "STREAMING", new BooleanGetter() {
+      public boolean get() {
+        return meta.isStreaming();
+      }
+    } );
     check( "FILE_SHORT_FILE_FIELDNAME", new StringGetter() {
       public String get() {
         return meta.additionalOutputFields.shortFilenameField;
@@ -0,0 +1,137 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.jsoninput.reader;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.pentaho.di.core.RowSet;
+import org.pentaho.di.core.logging.LogChannelInterface;
+import org.pentaho.di.trans.steps.jsoninput.JsonInput;
+import org.pentaho.di.trans.steps.jsoninput.JsonInputField;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class StreamingJsonReaderTest {
+  private static final String JSON = "{ \"meta\": { \"count\": 3 }, \"data\": { \"items\": ["
+    + "{ \"id\": 1, \"name\": \"Ann\", \"price\": 1.5, \"ok\": true, \"customer\": { \"city\": \"Oslo\" },"
+    + "  \"tags\": [ \"a\", \"b\" ] },"
+    + "{ \"id\": 2, \"name\": null, \"price\": 2, \"ok\": false, \"customer\": { \"city\": \"Rome\", \"zip\": 1 } },"
+    + "{ \"skip\": { \"id\": 9 }, \"customer\": { } },"
+    + "{ \"id\": 12345678901, \"name\": \"Cy\", \"customer\": { } } ] }, \"after\": [ 1, 2 ] }";
+
+  private final LogChannelInterface log = mock( LogChannelInterface.class );
+  private JsonInput step;
+
+  @Before
+  public void setUp() {
+    step = mock( JsonInput.class );
+    when( step.environmentSubstitute( anyString(), anyBoolean() ) )
+      .thenAnswer( invocation -> invocation.getArguments()[ 0 ] );
+  }
+
+  @Test
+  public void testSameRowsAsJsonPathReader() throws Exception {
+    assertSameRows( JSON, "$.data.items[*].id", "$.data.items[*].name", "$.data.items[*].price",
+      "$.data.items[*].ok", "$.data['items'][*].customer.city" );
+    assertSameRows( JSON, "$.data.items[*].id", "$.data['items'][*].name", "$.data.items[*].price",
+      "$.data.items[*].ok", "$.data.items[*]['customer'].city" );
+    assertSameRows( JSON, "$.data.items[*].customer", "$.data.items[*].customer.city", "$.data.items[*].tags" );
+    assertSameRows( "[ { \"a\": 1 }, { \"a\": null }, { \"a\": 3 } ]", "$[*].a" );
+    assertSameRows( "[ { \"a\": null } ]", "$[*].a" );
+    assertSameRows( "{ \"x\": { \"k1\": { \"a\": 1 }, \"k2\": { \"a\": 2 } } }", "$.x.*.a" );
+    assertSameRows( "{ \"x\": [ ] }", "$.x[*].a" );
+    assertSameRows( "{ }", "$.x[*].a" );
+  }
+
+  @Test
+  public void testReadsOnlyTheArray() throws Exception {
+    StreamingJsonReader reader = create( "$.data.items[*].name" );
+    RowSet rows = reader.parse( new ByteArrayInputStream( JSON.getBytes( StandardCharsets.UTF_8 ) ) );
+    assertTrue( rows instanceof Closeable );
+    assertEquals( "Ann", rows.getRow()[ 0 ] );
+    assertFalse( rows.isDone() );
+    assertEquals( "Cy", rows.getRow()[ 0 ] );
+    assertNull( rows.getRow() );
+    assertTrue( rows.isDone() );
+  }
+
+  @Test( expected = StreamingJsonReader.StreamingReadException.class )
+  public void testParseErrorWhileReadingRows() throws Exception {
+    RowSet rows = create( "$[*].a" ).parse( new ByteArrayInputStream( "[ { \"a\": 1 }, { \"a\" 2 } ]".getBytes() ) );
+    assertEquals( 1, rows.getRow()[ 0 ] );
+    rows.getRow();
+  }
+
+  @Test
+  public void testOnlySimplePathsAreStreamed() {
+    assertNotNull( create( "$.a[*].b", "$['a'][*].c.d", "$.a[*]" ) );
+    assertNull( create( "$.a[*].b", "$.x[*].c" ) );
+    assertNull( create( "$.a.b" ) );
+    assertNull( create( "$.a[*].b[*].c" ) );
+    assertNull( create( "$..a[*].b" ) );
+    assertNull( create( "$.a[0].b" ) );
+    assertNull( create( "$.a[?(@.b > 1)].b" ) );
+    assertNull( create( "$.a[*]['b','c']" ) );
+    assertNull( create( "$.a[*].length()" ) );
+  }
+
+  private StreamingJsonReader create( String... paths ) {
+    return StreamingJsonReader.create( step, fields( paths ), false, log );
+  }
+
+  private void assertSameRows( String json, String... paths ) throws Exception {
+    StreamingJsonReader streaming = create( paths );
+    assertNotNull( paths[ 0 ], streaming );
+    FastJsonReader jsonPath = new FastJsonReader( step, fields( paths ), true, true, false, log );
+    assertEquals( json, toStrings( jsonPath.parse( toStream( json ) ) ),
+      toStrings( streaming.parse( toStream( json ) ) ) );
+  }
+
+  private static JsonInputField[] fields( String... paths ) {
+    JsonInputField[] fields = new JsonInputField[ paths.length ];
+    for ( int i = 0; i < paths.length; i++ ) {
+      fields[ i ] = new JsonInputField( "field" + i );
+      fields[ i ].setPath( paths[ i ] );
+    }
+    return fields;
+  }
+
+  private static ByteArrayInputStream toStream( String json ) {
+    return new ByteArrayInputStream( json.getBytes( StandardCharsets.UTF_8 ) );
+  }
+
+  private static List<String> toStrings( RowSet rows ) {
+    List<String> result = new ArrayList<>();
+    Object[] row;
+    while ( ( row = rows.getRow() ) != null ) {
+      result.add( Arrays.toString( row ) );
+    }
+    return result;
+  }
+}
@@ -46,7 +46,7 @@ import org.pentaho.di.trans.steps.rowgenerator.RowGeneratorMeta;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.io.File;
-import java.io.Writer;
+import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
@@ -57,7 +57,6 @@ import java.lang.reflect.Method;
 
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.anyString;
-import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
@@ -401,23 +400,30 @@ public class JsonOutputTest extends TestCase {
 
     JsonOutputData stepData = new JsonOutputData();
     stepData.writeToFile = true;
-    JSONObject jsonObject = new JSONObject();
-    jsonObject.put( "key", "value" );
-    stepData.ja.add( jsonObject );
-    stepData.writer = mock( Writer.class );
+    StringWriter writer = new StringWriter();
+    stepData.writer = writer;
+
+    JsonOutputField field = new JsonOutputField();
+    field.setFieldName( "key" );
+    field.setElementName( "key" );
+    when( mockHelper.processRowsStepMetaInterface.getOutputFields() ).thenReturn( new JsonOutputField[] { field } );
+    RowMetaInterface inputRowMeta = new RowMeta();
+    inputRowMeta.addValueMeta( new ValueMetaString( "key" ) );
 
     JsonOutput step =
             new JsonOutput( mockHelper.stepMeta, stepData, 0, mockHelper.transMeta, mockHelper.trans );
     step = spy( step );
 
-    doReturn( null ).when( step ).getRow();
+    doReturn( new Object[] { "value" } ).doReturn( null ).when( step ).getRow();
+    doReturn( inputRowMeta ).when( step ).getInputRowMeta();
     doReturn( true ).when( step ).openNewFile();
     doReturn( true ).when( step ).closeFile();
-    doNothing().when( stepData.writer ).write( anyString() );
 
+    step.processRow( mockHelper.processRowsStepMetaInterface, stepData );
     step.processRow( mockHelper.processRowsStepMetaInterface, stepData );
     verify( step ).openNewFile();
     verify( step ).closeFile();
+    assertEquals( "[{\"key\":\"value\"}]", writer.toString() );
   }
 
   /**
@@ -0,0 +1,181 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.jsonoutput;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.CharArrayWriter;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.json.simple.JSONObject;
+import org.junit.Test;
+import org.pentaho.di.core.row.RowMeta;
+import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.di.core.row.value.ValueMetaBigNumber;
+import org.pentaho.di.core.row.value.ValueMetaBoolean;
+import org.pentaho.di.core.row.value.ValueMetaInteger;
+import org.pentaho.di.core.row.value.ValueMetaNumber;
+import org.pentaho.di.core.row.value.ValueMetaString;
+
+public class JsonRowEncoderTest {
+
+  private static final Object[] ROW = new Object[] { "a/b \"c\" \\ \t\u0001\u007F\u0085\u2028\u00E9", 42L, 1.5,
+    new BigDecimal( "12345678901234567890.5" ), true, null, Double.NaN };
+
+  private static RowMetaInterface createRowMeta() {
+    RowMetaInterface rowMeta = new RowMeta();
+    rowMeta.addValueMeta( new ValueMetaString( "string" ) );
+    rowMeta.addValueMeta( new ValueMetaInteger( "integer" ) );
+    rowMeta.addValueMeta( new ValueMetaNumber( "number" ) );
+    rowMeta.addValueMeta( new ValueMetaBigNumber( "bignumber" ) );
+    rowMeta.addValueMeta( new ValueMetaBoolean( "boolean" ) );
+    rowMeta.addValueMeta( new ValueMetaString( "null" ) );
+    rowMeta.addValueMeta( new ValueMetaNumber( "nan" ) );
+    return rowMeta;
+  }
+
+  private static String encode( JsonRowEncoder encoder, Object[] row ) throws Exception {
+    StringWriter writer = new StringWriter();
+    JsonGenerator generator = JsonRowEncoder.createGenerator( writer );
+    encoder.writeRow( generator, row );
+    generator.close();
+    return writer.toString();
+  }
+
+  @SuppressWarnings( "unchecked" )
+  private static String jsonSimple( String name, Object value ) {
+    JSONObject object = new JSONObject();
+    object.put( name, value );
+    return object.toJSONString();
+  }
+
+  @Test
+  public void testFieldsAreWrittenLikeJsonSimple() throws Exception {
+    RowMetaInterface rowMeta = createRowMeta();
+    for ( int i = 0; i < rowMeta.size(); i++ ) {
+      String name = "x/" + i;
+      JsonRowEncoder encoder = new JsonRowEncoder( rowMeta, new int[] { i }, new String[] { name }, false );
+      assertEquals( rowMeta.getValueMeta( i ).getName(), jsonSimple( name, ROW[ i ] ), encode( encoder, ROW ) );
+    }
+  }
+
+  @Test
+  public void testFixedModeWritesTheFieldsInOrder() throws Exception {
+    JsonRowEncoder encoder =
+      new JsonRowEncoder( createRowMeta(), new int[] { 1, 4, 5, 1 }, new String[] { "b", "a", "c", "d" }, false );
+    assertEquals( "{\"b\":42,\"a\":true,\"c\":null,\"d\":42}", encode( encoder, ROW ) );
+  }
+
+  @Test
+  public void testElementNameUsedTwiceKeepsTheLastValue() throws Exception {
+    JsonRowEncoder encoder =
+      new JsonRowEncoder( createRowMeta(), new int[] { 1, 4, 2 }, new String[] { "a", "b", "a" }, false );
+    assertEquals( "{\"a\":1.5,\"b\":true}", encode( encoder, ROW ) );
+  }
+
+  @Test
+  public void testCompatibilityModeWritesAnObjectPerField() throws Exception {
+    JsonRowEncoder encoder =
+      new JsonRowEncoder( createRowMeta(), new int[] { 1, 4, 1 }, new String[] { "a", "b", "a" }, true );
+    StringWriter writer = new StringWriter();
+    JsonGenerator generator = JsonRowEncoder.createGenerator( writer );
+    generator.writeStartArray();
+    encoder.writeRow( generator, ROW );
+    encoder.writeRow( generator, ROW );
+    generator.writeEndArray();
+    generator.close();
+    assertEquals( "[{\"a\":42},{\"b\":true},{\"a\":42},{\"a\":42},{\"b\":true},{\"a\":42}]", writer.toString() );
+  }
+
+  @Test
+  public void testLines() throws Exception {
+    JsonRowEncoder encoder =
+      new JsonRowEncoder( createRowMeta(), new int[] { 1, 4 }, new String[] { "a", "b" }, false );
+    StringWriter writer = new StringWriter();
+    JsonGenerator generator = JsonRowEncoder.createGenerator( writer );
+    encoder.writeLines( generator, ROW );
+    encoder.writeLines( generator, new Object[] { null, 7L, null, null, false } );
+    generator.close();
+    assertEquals( "{\"a\":42,\"b\":true}\n{\"a\":7,\"b\":false}\n", writer.toString() );
+  }
+
+  @Test
+  public void testCopiesWriteCompleteLinesToTheSameFile() throws Exception {
+    StringWriter file = new StringWriter();
+    int[] opened = new int[ 1 ];
+    JsonLinesFile.Opener opener = () -> {
+      opened[ 0 ]++;
+      return file;
+    };
+    int copies = 4;
+    int rows = 5000;
+    JsonLinesFile[] linesFiles = new JsonLinesFile[ copies ];
+    for ( int copy = 0; copy < copies; copy++ ) {
+      linesFiles[ copy ] = JsonLinesFile.acquire( "test:lines", opener );
+    }
+
+    Thread[] threads = new Thread[ copies ];
+    Exception[] errors = new Exception[ copies ];
+    for ( int copy = 0; copy < copies; copy++ ) {
+      final int c = copy;
+      threads[ copy ] = new Thread( () -> {
+        try {
+          JsonRowEncoder encoder = new JsonRowEncoder( createRowMeta(), new int[] { 1, 0 },
+            new String[] { "copy", "row" }, false );
+          CharArrayWriter buffer = new CharArrayWriter();
+          JsonGenerator generator = JsonRowEncoder.createGenerator( buffer );
+          for ( int i = 0; i < rows; i++ ) {
+            encoder.writeLines( generator, new Object[] { "row " + i, (long) c } );
+            if ( i % 100 == 99 ) {
+              generator.flush();
+              linesFiles[ c ].write( buffer );
+            }
+          }
+          generator.flush();
+          linesFiles[ c ].write( buffer );
+          linesFiles[ c ].release();
+        } catch ( Exception e ) {
+          errors[ c ] = e;
+        }
+      } );
+      threads[ copy ].start();
+    }
+    for ( Thread thread : threads ) {
+      thread.join();
+    }
+    for ( Exception error : errors ) {
+      if ( error != null ) {
+        throw error;
+      }
+    }
+
+    assertEquals( 1, opened[ 0 ] );
+    List<String> lines = Arrays.asList( file.toString().split( "\n" ) );
+    assertEquals( copies * rows, lines.size() );
+    for ( int copy = 0; copy < copies; copy++ ) {
+      int next = 0;
+      for ( String line : lines ) {
+        if ( line.startsWith( "{\"copy\":" + copy + "," ) ) {
+          assertEquals( "{\"copy\":" + copy + ",\"row\":\"row " + next + "\"}", line );
+          next++;
+        }
+      }
+      assertEquals( rows, next );
+    }
+  }
+}
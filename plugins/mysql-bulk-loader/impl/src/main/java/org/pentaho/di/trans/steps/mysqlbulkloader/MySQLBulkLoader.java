@@ -19,7 +19,10 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.sql.Statement;
 import java.util.Date;
 
 import org.pentaho.di.core.Const;
@@ -34,6 +37,7 @@ import org.pentaho.di.core.row.RowMetaInterface;
 import org.pentaho.di.core.row.ValueMetaInterface;
 import org.pentaho.di.core.row.value.ValueMetaDate;
 import org.pentaho.di.core.row.value.ValueMetaNumber;
+import org.pentaho.di.core.util.BufferedPipe;
 import org.pentaho.di.core.util.StreamLogger;
 import org.pentaho.di.i18n.BaseMessages;
 import org.pentaho.di.trans.Trans;
@@ -60,6 +64,9 @@ public class MySQLBulkLoader extends BaseStep implements StepInterface {
   private final long threadWaitTime = 300000;
   private final String threadWaitTimeText = "5min";
 
+  /** The file name in the LOAD DATA statement when the rows are streamed, the driver reads our stream instead */
+  static final String STREAM_FILE_NAME = "pdi-stream";
+
   public MySQLBulkLoader( StepMeta stepMeta, StepDataInterface stepDataInterface, int copyNr, TransMeta transMeta,
       Trans trans ) {
     super( stepMeta, stepDataInterface, copyNr, transMeta, trans );
@@ -71,11 +78,11 @@ public class MySQLBulkLoader extends BaseStep implements StepInterface {
     try {
       // 1) Create the FIFO file using the "mkfifo" command...
       // Make sure to log all the possible output, also from STDERR
+      // No FIFO is needed when the rows are streamed through the JDBC driver.
       //
-      data.fifoFilename = environmentSubstitute( meta.getFifoFileName() );
+      data.fifoFilename = meta.isStreamThroughJdbc() ? null : environmentSubstitute( meta.getFifoFileName() );
 
-      File fifoFile = new File( data.fifoFilename );
-      if ( !fifoFile.exists() ) {
+      if ( data.fifoFilename != null && !new File( data.fifoFilename ).exists() ) {
         // MKFIFO!
         //
         String mkFifoCmd = "mkfifo " + data.fifoFilename;
@@ -140,10 +147,12 @@ public class MySQLBulkLoader extends BaseStep implements StepInterface {
 
   private void executeLoadCommand() throws Exception {
 
+    boolean streaming = meta.isStreamThroughJdbc();
+
     String loadCommand = "";
     loadCommand +=
-        "LOAD DATA " + ( meta.isLocalFile() ? "LOCAL" : "" ) + " INFILE '"
-            + environmentSubstitute( meta.getFifoFileName() ) + "' ";
+        "LOAD DATA " + ( streaming || meta.isLocalFile() ? "LOCAL" : "" ) + " INFILE '"
+            + ( streaming ? STREAM_FILE_NAME : environmentSubstitute( meta.getFifoFileName() ) ) + "' ";
     if ( meta.isReplacingData() ) {
       loadCommand += "REPLACE ";
     } else if ( meta.isIgnoringErrors() ) {
@@ -179,6 +188,15 @@ public class MySQLBulkLoader extends BaseStep implements StepInterface {
 
     logBasic( BaseMessages.getString( PKG, "MySQLBulkLoader.Message.STARTING",  data.dbDescription, loadCommand ) );
 
+    if ( streaming ) {
+      // The driver reads one block while the rows are formatted into the other
+      data.pipe = new BufferedPipe( BufferedPipe.DEFAULT_BLOCK_SIZE, 2 );
+      data.sqlRunner = new SqlRunner( data, loadCommand, data.pipe.getInputStream() );
+      data.sqlRunner.start();
+      data.fifoStream = data.pipe.getOutputStream();
+      return;
+    }
+
     data.sqlRunner = new SqlRunner( data, loadCommand );
     data.sqlRunner.start();
 
@@ -297,8 +315,19 @@ public class MySQLBulkLoader extends BaseStep implements StepInterface {
     if ( data.fifoStream != null ) {
       // Close the fifo file...
       //
-      data.fifoStream.close();
+      OutputStream fifoStream = data.fifoStream;
       data.fifoStream = null;
+      data.pipe = null;
+      try {
+        fifoStream.close();
+      } catch ( IOException e ) {
+        // The load command stopped reading, its error tells what went wrong
+        if ( data.sqlRunner != null ) {
+          data.sqlRunner.join( this.threadWaitTime );
+          data.sqlRunner.checkExcn();
+        }
+        throw e;
+      }
     }
 
     if ( data.sqlRunner != null ) {
@@ -423,7 +452,8 @@ public class MySQLBulkLoader extends BaseStep implements StepInterface {
       //
       data.fifoStream.write( data.newline );
 
-      if ( ( getLinesOutput() % 5000 ) == 0 ) {
+      // The pipe hands over full blocks by itself, a flush would only cut them short
+      if ( data.pipe == null && ( getLinesOutput() % 5000 ) == 0 ) {
         data.fifoStream.flush();
       }
     } catch ( IOException e ) {
@@ -518,6 +548,12 @@ public class MySQLBulkLoader extends BaseStep implements StepInterface {
     // Close the output streams if still needed.
     //
     try {
+      if ( data.pipe != null && ( getErrors() > 0 || isStopped() ) ) {
+        // Don't let the load command see the end of the data, it would load the rows it got so far
+        data.pipe.abort( BaseMessages.getString( PKG, "MySQLBulkLoader.Message.STREAMABORTED" ) );
+        data.fifoStream = null;
+        data.pipe = null;
+      }
       if ( data.fifoStream != null ) {
         data.fifoStream.close();
       }
@@ -588,22 +624,56 @@ public class MySQLBulkLoader extends BaseStep implements StepInterface {
     }
   }
 
+  /**
+   * Hands the stream to read the data of LOAD DATA LOCAL INFILE from to the statement. Connector/J and the MariaDB
+   * driver have a setLocalInfileInputStream() method for this; it's looked up by name so that the step doesn't depend
+   * on either driver. The connection needs allowLoadLocalInfile=true.
+   */
+  static void setLocalInfileInputStream( Statement statement, InputStream in ) throws KettleException {
+    try {
+      statement.getClass().getMethod( "setLocalInfileInputStream", InputStream.class ).invoke( statement, in );
+    } catch ( ReflectiveOperationException e ) {
+      throw new KettleException( BaseMessages.getString( PKG, "MySQLBulkLoader.Message.NOLOCALINFILESTREAM",
+        statement.getClass().getName() ), e );
+    }
+  }
+
   static class SqlRunner extends Thread {
     private MySQLBulkLoaderData data;
 
     private String loadCommand;
 
+    private InputStream localInfile;
+
     private Exception ex;
 
     SqlRunner( MySQLBulkLoaderData data, String loadCommand ) {
+      this( data, loadCommand, null );
+    }
+
+    /**
+     * @param localInfile the data for LOAD DATA LOCAL INFILE or null to let the server read the file in the statement
+     */
+    SqlRunner( MySQLBulkLoaderData data, String loadCommand, InputStream localInfile ) {
       this.data = data;
       this.loadCommand = loadCommand;
+      this.localInfile = localInfile;
     }
 
     @Override
     public void run() {
       try {
-        data.db.execStatement( loadCommand );
+        if ( localInfile == null ) {
+          data.db.execStatement( loadCommand );
+        } else {
+          try ( Statement statement = data.db.getConnection().createStatement() ) {
+            setLocalInfileInputStream( statement, localInfile );
+            statement.execute( loadCommand );
+          } finally {
+            // Makes the step fail instead of wait if the driver stopped reading early
+            localInfile.close();
+          }
+        }
       } catch ( Exception ex ) {
         this.ex = ex;
       }
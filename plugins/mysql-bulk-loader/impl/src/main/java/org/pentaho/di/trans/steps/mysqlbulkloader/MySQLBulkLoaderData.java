@@ -17,6 +17,7 @@ import java.io.OutputStream;
 
 import org.pentaho.di.core.database.Database;
 import org.pentaho.di.core.row.ValueMetaInterface;
+import org.pentaho.di.core.util.BufferedPipe;
 import org.pentaho.di.core.util.StreamLogger;
 import org.pentaho.di.trans.step.BaseStepData;
 import org.pentaho.di.trans.step.StepDataInterface;
@@ -51,6 +52,9 @@ public class MySQLBulkLoaderData extends BaseStepData implements StepDataInterfa
 
   public OutputStream fifoStream;
 
+  /** The pipe to the JDBC driver when the rows are streamed without a FIFO file */
+  public BufferedPipe pipe;
+
   public MySQLBulkLoader.SqlRunner sqlRunner;
 
   public ValueMetaInterface[] bulkFormatMeta;
@@ -137,6 +137,10 @@ public class MySQLBulkLoaderMeta extends BaseStepMeta implements StepMetaInterfa
   @Injection( name = "LOCAL_FILE" )
   private boolean localFile;
 
+  /** Stream the rows to LOAD DATA LOCAL INFILE through the JDBC driver instead of a FIFO file */
+  @Injection( name = "STREAM_THROUGH_JDBC" )
+  private boolean streamThroughJdbc;
+
   /** The delimiter to use */
   @Injection( name = "DELIMITER" )
   private String delimiter;
@@ -255,6 +259,7 @@ public class MySQLBulkLoaderMeta extends BaseStepMeta implements StepMetaInterfa
       replacingData = "Y".equalsIgnoreCase( XMLHandler.getTagValue( stepnode, "replace" ) );
       ignoringErrors = "Y".equalsIgnoreCase( XMLHandler.getTagValue( stepnode, "ignore" ) );
       localFile = "Y".equalsIgnoreCase( XMLHandler.getTagValue( stepnode, "local" ) );
+      streamThroughJdbc = "Y".equalsIgnoreCase( XMLHandler.getTagValue( stepnode, "stream_through_jdbc" ) );
 
       int nrvalues = XMLHandler.countNodes( stepnode, "mapping" );
       allocate( nrvalues );
@@ -288,6 +293,7 @@ public class MySQLBulkLoaderMeta extends BaseStepMeta implements StepMetaInterfa
     replacingData = false;
     ignoringErrors = false;
     localFile = true;
+    streamThroughJdbc = false;
     bulkSize = null;
 
     allocate( 0 );
@@ -307,6 +313,7 @@ public class MySQLBulkLoaderMeta extends BaseStepMeta implements StepMetaInterfa
     retval.append( "    " ).append( XMLHandler.addTagValue( "replace", replacingData ) );
     retval.append( "    " ).append( XMLHandler.addTagValue( "ignore", ignoringErrors ) );
     retval.append( "    " ).append( XMLHandler.addTagValue( "local", localFile ) );
+    retval.append( "    " ).append( XMLHandler.addTagValue( "stream_through_jdbc", streamThroughJdbc ) );
     retval.append( "    " ).append( XMLHandler.addTagValue( "fifo_file_name", fifoFileName ) );
     retval.append( "    " ).append( XMLHandler.addTagValue( "bulk_size", bulkSize ) );
 
@@ -336,6 +343,7 @@ public class MySQLBulkLoaderMeta extends BaseStepMeta implements StepMetaInterfa
       replacingData = rep.getStepAttributeBoolean( id_step, "replace" );
       ignoringErrors = rep.getStepAttributeBoolean( id_step, "ignore" );
       localFile = rep.getStepAttributeBoolean( id_step, "local" );
+      streamThroughJdbc = rep.getStepAttributeBoolean( id_step, "stream_through_jdbc" );
       bulkSize = rep.getStepAttributeString( id_step, "bulk_size" );
 
       int nrvalues = rep.countNrStepAttributes( id_step, "stream_name" );
@@ -370,6 +378,7 @@ public class MySQLBulkLoaderMeta extends BaseStepMeta implements StepMetaInterfa
       rep.saveStepAttribute( id_transformation, id_step, "replace", replacingData );
       rep.saveStepAttribute( id_transformation, id_step, "ignore", ignoringErrors );
       rep.saveStepAttribute( id_transformation, id_step, "local", localFile );
+      rep.saveStepAttribute( id_transformation, id_step, "stream_through_jdbc", streamThroughJdbc );
       rep.saveStepAttribute( id_transformation, id_step, "bulk_size", bulkSize );
 
       for ( int i = 0; i < fieldTable.length; i++ ) {
@@ -818,6 +827,21 @@ public class MySQLBulkLoaderMeta extends BaseStepMeta implements StepMetaInterfa
     this.localFile = localFile;
   }
 
+  /**
+   * @return true if the rows are streamed to LOAD DATA LOCAL INFILE through the JDBC driver, without a FIFO file
+   */
+  public boolean isStreamThroughJdbc() {
+    return streamThroughJdbc;
+  }
+
+  /**
+   * @param streamThroughJdbc
+   *          true to stream the rows through the JDBC driver
+   */
+  public void setStreamThroughJdbc( boolean streamThroughJdbc ) {
+    this.streamThroughJdbc = streamThroughJdbc;
+  }
+
   @Override
   public String getMissingDatabaseConnectionInformationMessage() {
     // TODO Auto-generated method stub
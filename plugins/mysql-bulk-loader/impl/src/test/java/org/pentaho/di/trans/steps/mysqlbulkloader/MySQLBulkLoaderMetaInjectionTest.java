@@ -66,6 +66,11 @@ public class MySQLBulkLoaderMetaInjectionTest extends BaseMetadataInjectionTest<
         return meta.isLocalFile();
       }
     } );
+    check( "STREAM_THROUGH_JDBC", new BooleanGetter() {
+      public boolean get() {
+        return meta.isStreamThroughJdbc();
+      }
+    } );
     check( "DELIMITER", new StringGetter() {
       public String get() {
         return meta.getDelimiter();
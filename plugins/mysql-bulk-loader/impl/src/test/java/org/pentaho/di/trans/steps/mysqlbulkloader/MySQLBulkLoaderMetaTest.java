@@ -37,7 +37,7 @@ public class MySQLBulkLoaderMetaTest {
   public void testRoundTrip() throws KettleException {
     List<String> attributes =
       Arrays.asList( /*"connection",*/ "schema", "table", "encoding", "delimiter", "enclosure",
-        "escape_char", "replace", "ignore", "local", "fifo_file_name",  "bulk_size",
+        "escape_char", "replace", "ignore", "local", "stream_through_jdbc", "fifo_file_name",  "bulk_size",
         "stream_name", "field_name", "field_format_ok" );
 
     Map<String, String> getterMap = new HashMap<String, String>();
@@ -51,6 +51,7 @@ public class MySQLBulkLoaderMetaTest {
     getterMap.put( "replace", "isReplacingData" );
     getterMap.put( "ignore", "isIgnoringErrors" );
     getterMap.put( "local", "isLocalFile" );
+    getterMap.put( "stream_through_jdbc", "isStreamThroughJdbc" );
     getterMap.put( "fifo_file_name", "getFifoFileName" );
     getterMap.put( "bulk_size", "getBulkSize" );
     getterMap.put( "stream_name", "getFieldTable" );
@@ -68,6 +69,7 @@ public class MySQLBulkLoaderMetaTest {
     setterMap.put( "replace", "setReplacingData" );
     setterMap.put( "ignore", "setIgnoringErrors" );
     setterMap.put( "local", "setLocalFile" );
+    setterMap.put( "stream_through_jdbc", "setStreamThroughJdbc" );
     setterMap.put( "fifo_file_name", "setFifoFileName" );
     setterMap.put( "bulk_size", "setBulkSize" );
     setterMap.put( "stream_name", "setFieldTable" );
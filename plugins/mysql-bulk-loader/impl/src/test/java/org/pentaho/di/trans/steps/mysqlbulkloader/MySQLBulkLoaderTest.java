@@ -13,8 +13,11 @@
 
 package org.pentaho.di.trans.steps.mysqlbulkloader;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
+import java.sql.Statement;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -250,4 +253,22 @@ public class MySQLBulkLoaderTest {
     verify( sdi.fifoStream, times( 1 ) ).write( " 001.023".getBytes() );
     assertEquals( " #000.000;-#000.000", vmn.getDecimalFormat().toPattern() );
   }
+
+  @Test
+  public void testSetLocalInfileInputStream() throws Exception {
+    LocalInfileStatement statement = mock( LocalInfileStatement.class );
+    InputStream in = new ByteArrayInputStream( new byte[ 0 ] );
+    MySQLBulkLoader.setLocalInfileInputStream( statement, in );
+    verify( statement ).setLocalInfileInputStream( in );
+  }
+
+  @Test( expected = KettleException.class )
+  public void testSetLocalInfileInputStreamNotSupported() throws Exception {
+    MySQLBulkLoader.setLocalInfileInputStream( mock( Statement.class ), new ByteArrayInputStream( new byte[ 0 ] ) );
+  }
+
+  /** A statement of a driver that can read the data of LOAD DATA LOCAL INFILE from a stream */
+  public abstract static class LocalInfileStatement implements Statement {
+    public abstract void setLocalInfileInputStream( InputStream in );
+  }
 }
@@ -19,6 +19,8 @@ import org.pentaho.di.core.exception.KettleException;
 import org.pentaho.di.core.exception.KettleFileException;
 import org.pentaho.di.core.row.RowMetaInterface;
 import org.pentaho.di.core.row.ValueMetaInterface;
+import org.pentaho.di.core.util.BufferedPipe;
+import org.pentaho.di.core.util.ExecutorUtil;
 import org.pentaho.di.core.util.Utils;
 import org.pentaho.di.core.variables.VariableSpace;
 import org.pentaho.di.core.vfs.KettleVFS;
@@ -29,6 +31,7 @@ import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
@@ -36,6 +39,8 @@ import java.math.BigDecimal;
 import java.sql.Timestamp;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import org.apache.commons.vfs2.FileObject;
 
@@ -56,6 +61,8 @@ public class OraBulkDataOutput {
   private SimpleDateFormat sdfDate = null;
   private SimpleDateFormat sdfDateTime = null;
   private String recTerm;
+  private BufferedPipe pipe = null;
+  private Future<?> pump = null;
 
   public OraBulkDataOutput( OraBulkLoaderMeta meta, String recTerm ) {
     this.meta = meta;
@@ -68,7 +75,7 @@ public class OraBulkDataOutput {
       OutputStream os;
 
       if ( OraBulkLoaderMeta.METHOD_AUTO_CONCURRENT.equals( loadMethod ) ) {
-        os = sqlldrProcess.getOutputStream();
+        os = openPipe( sqlldrProcess.getOutputStream() );
       } else {
         // Else open the data file filled in.
         String dataFilePath = getFilename( getFileObject( bowl, space.environmentSubstitute( meta.getDataFile() ), space ) );
@@ -91,10 +98,45 @@ public class OraBulkDataOutput {
     }
   }
 
+  /**
+   * Puts a pipe in front of the standard input of sqlldr, so that the rows are formatted into one block while another
+   * thread writes the previous one to the process.
+   */
+  private OutputStream openPipe( OutputStream processInput ) {
+    pipe = new BufferedPipe( BufferedPipe.DEFAULT_BLOCK_SIZE, 2 );
+    final BufferedPipe pumpPipe = pipe;
+    pump = ExecutorUtil.getExecutor().submit( () -> {
+      try {
+        pumpPipe.writeTo( processInput );
+      } catch ( IOException e ) {
+        // Let the rows fail instead of wait for a process that stopped reading
+        pumpPipe.abort( "sqlldr stopped reading its input: " + e.getMessage() );
+        throw e;
+      } finally {
+        processInput.close();
+      }
+      return null;
+    } );
+    return pipe.getOutputStream();
+  }
+
   public void close() throws IOException {
     if ( output != null ) {
       output.close();
     }
+    if ( pump != null ) {
+      Future<?> waitFor = pump;
+      pump = null;
+      pipe = null;
+      try {
+        waitFor.get();
+      } catch ( InterruptedException e ) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException( "Interrupted while writing to sqlldr" );
+      } catch ( ExecutionException e ) {
+        throw new IOException( "Error writing to sqlldr", e.getCause() );
+      }
+    }
   }
 
   Writer getOutput() {
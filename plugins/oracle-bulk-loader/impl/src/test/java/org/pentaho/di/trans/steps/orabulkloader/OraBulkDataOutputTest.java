@@ -21,12 +21,16 @@ import org.pentaho.di.core.bowl.DefaultBowl;
 import org.pentaho.di.core.Const;
 import org.pentaho.di.core.KettleEnvironment;
 import org.pentaho.di.core.exception.KettleException;
+import org.pentaho.di.core.row.RowMeta;
+import org.pentaho.di.core.row.value.ValueMetaString;
 import org.pentaho.di.core.variables.VariableSpace;
 import org.pentaho.di.junit.rules.RestorePDIEngineEnvironment;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Mockito.doReturn;
@@ -96,4 +100,27 @@ public class OraBulkDataOutputTest {
       assertTrue( kex.getMessage().contains( "IO exception occured:" ) );
     }
   }
+
+  @Test
+  public void testConcurrentWritesToProcessInput() throws Exception {
+    ByteArrayOutputStream processInput = new ByteArrayOutputStream();
+    when( sqlldrProcess.getOutputStream() ).thenReturn( processInput );
+    when( oraBulkLoaderMeta.getLoadMethod() ).thenReturn( OraBulkLoaderMeta.METHOD_AUTO_CONCURRENT );
+    when( oraBulkLoaderMeta.getFieldStream() ).thenReturn( new String[] { "name" } );
+    when( oraBulkLoaderMeta.getEnclosure() ).thenReturn( "\"" );
+    when( oraBulkLoaderMeta.getDateMask() ).thenReturn( new String[] { null } );
+
+    RowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta( new ValueMetaString( "name" ) );
+
+    oraBulkDataOutput.open( DefaultBowl.getInstance(), space, sqlldrProcess );
+    StringBuilder expected = new StringBuilder();
+    for ( int i = 0; i < 20000; i++ ) {
+      oraBulkDataOutput.writeLine( rowMeta, new Object[] { "row" + i } );
+      expected.append( "\"row" ).append( i ).append( '"' ).append( Const.CR );
+    }
+    oraBulkDataOutput.close();
+
+    assertEquals( expected.toString(), processInput.toString() );
+  }
 }
@@ -0,0 +1,388 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.pgbulkloader;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Locale;
+import java.util.UUID;
+
+import org.pentaho.di.core.exception.KettleException;
+import org.pentaho.di.core.row.ValueMetaInterface;
+
+/**
+ * Encodes rows in the binary format of <code>COPY ... FROM STDIN WITH ( FORMAT binary )</code>.
+ * <p>
+ * Every field is written in the binary representation of the type of its target column, so numbers and dates are
+ * never formatted to text and parsed back by the server. A row is encoded in a buffer that is reused and written to
+ * the COPY stream in one go. Only the column types returned by {@link #isSupported(String)} can be encoded; the step
+ * falls back to the text format for the others.
+ */
+class PGBinaryCopyWriter {
+
+  private static final byte[] SIGNATURE = { 'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0 };
+
+  /** 2000-01-01, the epoch of the PostgreSQL dates and timestamps */
+  private static final long POSTGRES_EPOCH_DAYS = 10957L;
+  private static final long POSTGRES_EPOCH_MICROS = POSTGRES_EPOCH_DAYS * 86400L * 1000000L;
+
+  private static final int NUMERIC_NEGATIVE = 0x4000;
+
+  private static final int INT2 = 0;
+  private static final int INT4 = 1;
+  private static final int INT8 = 2;
+  private static final int FLOAT4 = 3;
+  private static final int FLOAT8 = 4;
+  private static final int NUMERIC = 5;
+  private static final int BOOL = 6;
+  private static final int DATE = 7;
+  private static final int TIMESTAMP = 8;
+  private static final int TIMESTAMPTZ = 9;
+  private static final int TEXT = 10;
+  private static final int BYTEA = 11;
+  private static final int UUID_TYPE = 12;
+
+  private final ValueMetaInterface[] valueMetas;
+  private final int[] fieldIndexes;
+  private final int[] kinds;
+  private final boolean[] dateOnly;
+  private final Charset charset;
+  private final ZoneId zone;
+
+  private byte[] buffer = new byte[ 1024 ];
+  private int length;
+
+  /**
+   * @param valueMetas        the metadata of the fields to load
+   * @param fieldIndexes      the index of every field in the rows that are written
+   * @param columnTypes       the type names of the target columns as the JDBC driver reports them
+   * @param dateFormatChoices the date mask choice of every field, see {@link PGBulkLoaderMeta#NR_DATE_MASK_DATE}
+   * @param charset           the client encoding for the text columns
+   */
+  PGBinaryCopyWriter( ValueMetaInterface[] valueMetas, int[] fieldIndexes, String[] columnTypes,
+    int[] dateFormatChoices, Charset charset ) throws KettleException {
+    this( valueMetas, fieldIndexes, columnTypes, dateFormatChoices, charset, ZoneId.systemDefault() );
+  }
+
+  PGBinaryCopyWriter( ValueMetaInterface[] valueMetas, int[] fieldIndexes, String[] columnTypes,
+    int[] dateFormatChoices, Charset charset, ZoneId zone ) throws KettleException {
+    this.valueMetas = valueMetas;
+    this.fieldIndexes = fieldIndexes;
+    this.charset = charset;
+    this.zone = zone;
+    this.kinds = new int[ valueMetas.length ];
+    this.dateOnly = new boolean[ valueMetas.length ];
+    for ( int i = 0; i < valueMetas.length; i++ ) {
+      kinds[ i ] = getKind( columnTypes[ i ] );
+      if ( kinds[ i ] < 0 ) {
+        throw new KettleException( "Column type " + columnTypes[ i ] + " of field " + valueMetas[ i ].getName()
+          + " can't be loaded in the binary format" );
+      }
+      dateOnly[ i ] = dateFormatChoices != null && dateFormatChoices[ i ] == PGBulkLoaderMeta.NR_DATE_MASK_DATE;
+    }
+  }
+
+  /**
+   * @return true if values for a column of the given type can be written in the binary format
+   */
+  static boolean isSupported( String columnType ) {
+    return getKind( columnType ) >= 0;
+  }
+
+  private static int getKind( String columnType ) {
+    if ( columnType == null ) {
+      return -1;
+    }
+    switch ( columnType.toLowerCase( Locale.ROOT ) ) {
+      case "int2":
+      case "smallserial":
+        return INT2;
+      case "int4":
+      case "serial":
+        return INT4;
+      case "int8":
+      case "bigserial":
+        return INT8;
+      case "float4":
+        return FLOAT4;
+      case "float8":
+        return FLOAT8;
+      case "numeric":
+        return NUMERIC;
+      case "bool":
+        return BOOL;
+      case "date":
+        return DATE;
+      case "timestamp":
+        return TIMESTAMP;
+      case "timestamptz":
+        return TIMESTAMPTZ;
+      case "text":
+      case "varchar":
+      case "bpchar":
+      case "name":
+      case "json":
+        return TEXT;
+      case "bytea":
+        return BYTEA;
+      case "uuid":
+        return UUID_TYPE;
+      default:
+        return -1;
+    }
+  }
+
+  void writeHeader( OutputStream out ) throws IOException {
+    length = 0;
+    putBytes( SIGNATURE, 0, SIGNATURE.length );
+    putInt( 0 ); // flags
+    putInt( 0 ); // header extension length
+    out.write( buffer, 0, length );
+  }
+
+  void writeTrailer( OutputStream out ) throws IOException {
+    length = 0;
+    putShort( -1 );
+    out.write( buffer, 0, length );
+  }
+
+  void writeRow( OutputStream out, Object[] row ) throws KettleException, IOException {
+    length = 0;
+    putShort( valueMetas.length );
+    for ( int i = 0; i < valueMetas.length; i++ ) {
+      ValueMetaInterface valueMeta = valueMetas[ i ];
+      Object valueData = row[ fieldIndexes[ i ] ];
+      if ( valueMeta.isNull( valueData ) ) {
+        putInt( -1 );
+      } else {
+        putValue( i, valueMeta, valueData );
+      }
+    }
+    out.write( buffer, 0, length );
+  }
+
+  private void putValue( int i, ValueMetaInterface valueMeta, Object valueData ) throws KettleException {
+    switch ( kinds[ i ] ) {
+      case INT2:
+        long shortValue = valueMeta.getInteger( valueData );
+        checkRange( valueMeta, shortValue, Short.MIN_VALUE, Short.MAX_VALUE, "int2" );
+        putInt( 2 );
+        putShort( (int) shortValue );
+        break;
+      case INT4:
+        long intValue = valueMeta.getInteger( valueData );
+        checkRange( valueMeta, intValue, Integer.MIN_VALUE, Integer.MAX_VALUE, "int4" );
+        putInt( 4 );
+        putInt( (int) intValue );
+        break;
+      case INT8:
+        putInt( 8 );
+        putLong( valueMeta.getInteger( valueData ) );
+        break;
+      case FLOAT4:
+        putInt( 4 );
+        putInt( Float.floatToIntBits( valueMeta.getNumber( valueData ).floatValue() ) );
+        break;
+      case FLOAT8:
+        putInt( 8 );
+        putLong( Double.doubleToLongBits( valueMeta.getNumber( valueData ) ) );
+        break;
+      case NUMERIC:
+        putNumeric( valueMeta.getBigNumber( valueData ) );
+        break;
+      case BOOL:
+        putInt( 1 );
+        putByte( valueMeta.getBoolean( valueData ) ? 1 : 0 );
+        break;
+      case DATE:
+        putInt( 4 );
+        putInt( (int) ( toLocalDate( valueMeta.getDate( valueData ) ).toEpochDay() - POSTGRES_EPOCH_DAYS ) );
+        break;
+      case TIMESTAMP:
+        putInt( 8 );
+        putLong( toLocalMicros( valueMeta.getDate( valueData ), dateOnly[ i ] ) );
+        break;
+      case TIMESTAMPTZ:
+        putInt( 8 );
+        putLong( toUtcMicros( valueMeta.getDate( valueData ), dateOnly[ i ] ) );
+        break;
+      case TEXT:
+        String string = valueMeta.getString( valueData );
+        if ( string == null ) {
+          putInt( -1 );
+        } else {
+          putVariable( string.getBytes( charset ) );
+        }
+        break;
+      case BYTEA:
+        putVariable( valueMeta.getBinary( valueData ) );
+        break;
+      case UUID_TYPE:
+        UUID uuid = UUID.fromString( valueMeta.getString( valueData ).trim() );
+        putInt( 16 );
+        putLong( uuid.getMostSignificantBits() );
+        putLong( uuid.getLeastSignificantBits() );
+        break;
+      default:
+        throw new KettleException( "Unknown binary COPY type for field " + valueMeta.getName() );
+    }
+  }
+
+  private static void checkRange( ValueMetaInterface valueMeta, long value, long min, long max, String type )
+    throws KettleException {
+    if ( value < min || value > max ) {
+      throw new KettleException( "Value " + value + " of field " + valueMeta.getName() + " is out of range for type "
+        + type );
+    }
+  }
+
+  private void putVariable( byte[] bytes ) {
+    putInt( bytes.length );
+    putBytes( bytes, 0, bytes.length );
+  }
+
+  /**
+   * Writes a numeric as its sign, scale and the digits in base 10000, the first of which is multiplied by 10000 to the
+   * power of the weight.
+   */
+  private void putNumeric( BigDecimal value ) {
+    int sign = value.signum() < 0 ? NUMERIC_NEGATIVE : 0;
+    BigDecimal abs = value.abs();
+    int scale = Math.max( 0, abs.scale() );
+    String plain = abs.setScale( scale ).toPlainString();
+    int dot = plain.indexOf( '.' );
+    int integerLength = dot < 0 ? plain.length() : dot;
+    int fractionLength = dot < 0 ? 0 : plain.length() - dot - 1;
+
+    // Align the digits on groups of 4 around the decimal point
+    int integerGroups = ( integerLength + 3 ) / 4;
+    int fractionGroups = ( fractionLength + 3 ) / 4;
+    int[] digits = new int[ integerGroups + fractionGroups ];
+    int position = integerGroups * 4 - integerLength;
+    for ( int c = 0; c < plain.length(); c++ ) {
+      char ch = plain.charAt( c );
+      if ( ch != '.' ) {
+        digits[ position / 4 ] = digits[ position / 4 ] * 10 + ( ch - '0' );
+        position++;
+      }
+    }
+    for ( ; position % 4 != 0; position++ ) {
+      digits[ position / 4 ] *= 10;
+    }
+
+    int first = 0;
+    int last = digits.length;
+    int weight = integerGroups - 1;
+    while ( first < last && digits[ first ] == 0 ) {
+      first++;
+      weight--;
+    }
+    while ( last > first && digits[ last - 1 ] == 0 ) {
+      last--;
+    }
+    if ( first == last ) {
+      sign = 0;
+      weight = 0;
+    }
+
+    putInt( 8 + 2 * ( last - first ) );
+    putShort( last - first );
+    putShort( weight );
+    putShort( sign );
+    putShort( scale );
+    for ( int d = first; d < last; d++ ) {
+      putShort( digits[ d ] );
+    }
+  }
+
+  private LocalDate toLocalDate( Date date ) {
+    return Instant.ofEpochMilli( date.getTime() ).atZone( zone ).toLocalDate();
+  }
+
+  private static long toMicros( long epochSeconds, int nanos ) {
+    return epochSeconds * 1000000L + nanos / 1000 - POSTGRES_EPOCH_MICROS;
+  }
+
+  private static int getNanos( Date date ) {
+    if ( date instanceof Timestamp ) {
+      return ( (Timestamp) date ).getNanos();
+    }
+    return (int) Math.floorMod( date.getTime(), 1000L ) * 1000000;
+  }
+
+  /**
+   * A timestamp without time zone is the wall clock time in the local time zone.
+   */
+  private long toLocalMicros( Date date, boolean dateOnly ) {
+    if ( dateOnly ) {
+      return toMicros( toLocalDate( date ).atStartOfDay().toEpochSecond( ZoneOffset.UTC ), 0 );
+    }
+    LocalDateTime local = LocalDateTime.ofEpochSecond( Math.floorDiv( date.getTime(), 1000L ), getNanos( date ),
+      zone.getRules().getOffset( Instant.ofEpochMilli( date.getTime() ) ) );
+    return toMicros( local.toEpochSecond( ZoneOffset.UTC ), local.getNano() );
+  }
+
+  private long toUtcMicros( Date date, boolean dateOnly ) {
+    if ( dateOnly ) {
+      return toMicros( toLocalDate( date ).atStartOfDay( zone ).toEpochSecond(), 0 );
+    }
+    return toMicros( Math.floorDiv( date.getTime(), 1000L ), getNanos( date ) );
+  }
+
+  private void ensureCapacity( int extra ) {
+    if ( length + extra > buffer.length ) {
+      buffer = Arrays.copyOf( buffer, Math.max( buffer.length * 2, length + extra ) );
+    }
+  }
+
+  private void putByte( int value ) {
+    ensureCapacity( 1 );
+    buffer[ length++ ] = (byte) value;
+  }
+
+  private void putShort( int value ) {
+    ensureCapacity( 2 );
+    buffer[ length++ ] = (byte) ( value >>> 8 );
+    buffer[ length++ ] = (byte) value;
+  }
+
+  private void putInt( int value ) {
+    ensureCapacity( 4 );
+    buffer[ length++ ] = (byte) ( value >>> 24 );
+    buffer[ length++ ] = (byte) ( value >>> 16 );
+    buffer[ length++ ] = (byte) ( value >>> 8 );
+    buffer[ length++ ] = (byte) value;
+  }
+
+  private void putLong( long value ) {
+    putInt( (int) ( value >>> 32 ) );
+    putInt( (int) value );
+  }
+
+  private void putBytes( byte[] bytes, int offset, int count ) {
+    ensureCapacity( count );
+    System.arraycopy( bytes, offset, buffer, length, count );
+    length += count;
+  }
+}
@@ -26,6 +26,7 @@ import java.math.BigDecimal;
 import java.nio.charset.Charset;
 import java.sql.Connection;
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
 
@@ -121,9 +122,13 @@ public class PGBulkLoader extends BaseStep implements StepInterface {
     contents.append( " FROM STDIN" ); // FIFO file
 
     // The "FORMAT" clause
-    contents.append( " WITH CSV DELIMITER AS '" ).append( environmentSubstitute( meta.getDelimiter() ) )
-        .append( "' QUOTE AS '" ).append(
-      environmentSubstitute( meta.getEnclosure() ) ).append( "'" );
+    if ( data.binaryWriter != null ) {
+      contents.append( " WITH ( FORMAT binary )" );
+    } else {
+      contents.append( " WITH CSV DELIMITER AS '" ).append( environmentSubstitute( meta.getDelimiter() ) )
+          .append( "' QUOTE AS '" ).append(
+        environmentSubstitute( meta.getEnclosure() ) ).append( "'" );
+    }
     contents.append( ";" ).append( Const.CR );
 
     return contents.toString();
@@ -154,7 +159,7 @@ public class PGBulkLoader extends BaseStep implements StepInterface {
 
   private void do_copy( PGBulkLoaderMeta meta, boolean wait ) throws KettleException {
     data.db = getDatabase( this, meta );
-    String copyCmd = getCopyCommand();
+    String copyCmd = null;
     try {
       connect();
 
@@ -162,11 +167,126 @@ public class PGBulkLoader extends BaseStep implements StepInterface {
 
       processTruncate();
 
-      logBasic( "Launching command: " + copyCmd );
-      pgCopyOut = new PGCopyOutputStream( (PGConnection) data.db.getConnection(), copyCmd );
+      String[] columnTypes = null;
+      if ( meta.isBinaryFormat() ) {
+        columnTypes = getColumnTypes();
+        data.binaryWriter = createBinaryWriter( columnTypes, false );
+      }
+      copyCmd = getCopyCommand();
+
+      int streams = getParallelStreamCount();
+      if ( streams > 1 ) {
+        startParallelCopy( streams, copyCmd, columnTypes );
+      } else {
+        logBasic( "Launching command: " + copyCmd );
+        pgCopyOut = new PGCopyOutputStream( (PGConnection) data.db.getConnection(), copyCmd );
+        if ( data.binaryWriter != null ) {
+          data.binaryWriter.writeHeader( pgCopyOut );
+        }
+      }
 
     } catch ( Exception ex ) {
-      throw new KettleException( "Error while preparing the COPY " + copyCmd, ex );
+      throw new KettleException( "Error while preparing the COPY " + Const.NVL( copyCmd, "" ), ex );
+    }
+  }
+
+  /**
+   * Looks up the types of the target columns, the binary format is written in the type of the column.
+   */
+  String[] getColumnTypes() throws Exception {
+    DatabaseMeta dm = meta.getDatabaseMeta();
+    String tableName =
+      dm.getQuotedSchemaTableCombination( environmentSubstitute( meta.getSchemaName() ),
+        environmentSubstitute( meta.getTableName() ) );
+    String[] tableFields = meta.getFieldTable();
+
+    StringBuilder sql = new StringBuilder( "SELECT " );
+    for ( int i = 0; i < data.keynrs.length; i++ ) {
+      if ( i != 0 ) {
+        sql.append( ", " );
+      }
+      sql.append( dm.quoteField( tableFields[i] ) );
+    }
+    sql.append( " FROM " ).append( tableName ).append( " WHERE 1 = 0" );
+
+    try ( Statement statement = data.db.getConnection().createStatement();
+          ResultSet rs = statement.executeQuery( sql.toString() ) ) {
+      ResultSetMetaData metaData = rs.getMetaData();
+      String[] columnTypes = new String[data.keynrs.length];
+      for ( int i = 0; i < columnTypes.length; i++ ) {
+        columnTypes[i] = metaData.getColumnTypeName( i + 1 );
+      }
+      return columnTypes;
+    }
+  }
+
+  /**
+   * @param columnTypes the types of the target columns
+   * @param projected   true for a writer of rows that only hold the loaded fields, with metadata of its own
+   * @return the writer or null if one of the columns can only be loaded as text
+   */
+  PGBinaryCopyWriter createBinaryWriter( String[] columnTypes, boolean projected ) throws KettleException {
+    boolean supported = true;
+    for ( int i = 0; i < columnTypes.length; i++ ) {
+      if ( !PGBinaryCopyWriter.isSupported( columnTypes[i] ) ) {
+        logBasic( BaseMessages.getString( PKG, "PGBulkLoader.Log.TextFormatForColumn", meta.getFieldTable()[i],
+          columnTypes[i] ) );
+        supported = false;
+      }
+    }
+    if ( !supported ) {
+      return null;
+    }
+
+    ValueMetaInterface[] valueMetas = new ValueMetaInterface[data.keynrs.length];
+    int[] fieldIndexes = new int[data.keynrs.length];
+    for ( int i = 0; i < valueMetas.length; i++ ) {
+      ValueMetaInterface valueMeta = getInputRowMeta().getValueMeta( data.keynrs[i] );
+      valueMetas[i] = projected ? valueMeta.clone() : valueMeta;
+      fieldIndexes[i] = projected ? i : data.keynrs[i];
+    }
+    return new PGBinaryCopyWriter( valueMetas, fieldIndexes, columnTypes, data.dateFormatChoices, clientEncoding );
+  }
+
+  int getParallelStreamCount() {
+    int streams = Const.toInt( environmentSubstitute( meta.getParallelStreams() ), 1 );
+    if ( streams <= 1 ) {
+      return 1;
+    }
+    if ( data.binaryWriter == null ) {
+      logBasic( BaseMessages.getString( PKG, "PGBulkLoader.Log.ParallelStreamsNeedBinaryFormat" ) );
+      return 1;
+    }
+    if ( getTransMeta().isUsingUniqueConnections() ) {
+      logBasic( BaseMessages.getString( PKG, "PGBulkLoader.Log.ParallelStreamsUniqueConnections" ) );
+      return 1;
+    }
+    return streams;
+  }
+
+  /**
+   * Opens a connection with a COPY of its own for every stream. The truncate is committed first, otherwise its lock
+   * keeps the other connections from loading.
+   */
+  private void startParallelCopy( int streams, String copyCmd, String[] columnTypes ) throws Exception {
+    if ( !data.db.getConnection().getAutoCommit() ) {
+      data.db.commit( true );
+    }
+
+    data.parallelCopy = new PGParallelCopy( data.keynrs );
+    for ( int i = 0; i < streams; i++ ) {
+      Database db = getDatabase( this, meta );
+      PGCopyOutputStream out;
+      try {
+        db.connect( getPartitionID() );
+        db.setAutoCommit( false );
+        logBasic( "Launching command on stream " + ( i + 1 ) + ": " + copyCmd );
+        out = new PGCopyOutputStream( (PGConnection) db.getConnection(), copyCmd );
+      } catch ( Exception e ) {
+        db.disconnect();
+        throw e;
+      }
+      data.parallelCopy.addStream( db, out, createBinaryWriter( columnTypes, true ) );
     }
   }
 
@@ -230,7 +350,12 @@ public class PGBulkLoader extends BaseStep implements StepInterface {
 
         // Close the output stream...
         // will be null if no records (empty stream)
-        if ( data != null && pgCopyOut != null ) {
+        if ( data != null && data.parallelCopy != null ) {
+          data.parallelCopy.finish();
+        } else if ( data != null && pgCopyOut != null ) {
+          if ( data.binaryWriter != null ) {
+            data.binaryWriter.writeTrailer( pgCopyOut );
+          }
           pgCopyOut.flush();
           pgCopyOut.endCopy();
 
@@ -258,7 +383,13 @@ public class PGBulkLoader extends BaseStep implements StepInterface {
         //
       }
 
-      writeRowToPostgres( getInputRowMeta(), r );
+      if ( data.parallelCopy != null ) {
+        data.parallelCopy.addRow( r );
+      } else if ( data.binaryWriter != null ) {
+        data.binaryWriter.writeRow( pgCopyOut, r );
+      } else {
+        writeRowToPostgres( getInputRowMeta(), r );
+      }
 
       putRow( getInputRowMeta(), r );
       incrementLinesOutput();
@@ -483,6 +614,11 @@ public class PGBulkLoader extends BaseStep implements StepInterface {
     meta = (PGBulkLoaderMeta) smi;
     data = (PGBulkLoaderData) sdi;
 
+    if ( data.parallelCopy != null ) {
+      data.parallelCopy.close();
+      data.parallelCopy = null;
+    }
+
     try {
       if ( pgCopyOut != null ) {
         pgCopyOut.close();
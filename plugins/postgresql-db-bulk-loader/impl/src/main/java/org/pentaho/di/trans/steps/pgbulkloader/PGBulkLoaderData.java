@@ -53,6 +53,12 @@ public class PGBulkLoaderData extends BaseStepData implements StepDataInterface
   public ValueMetaInterface dateMeta;
   public ValueMetaInterface dateTimeMeta;
 
+  /** The encoder of the binary COPY format, null when the rows are loaded as text */
+  PGBinaryCopyWriter binaryWriter;
+
+  /** The streams when the rows are loaded over more than one connection */
+  PGParallelCopy parallelCopy;
+
   /**
    * Default constructor.
    */
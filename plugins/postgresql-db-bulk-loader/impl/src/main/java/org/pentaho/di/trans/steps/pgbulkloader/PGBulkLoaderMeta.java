@@ -101,6 +101,12 @@ public class PGBulkLoaderMeta extends BaseStepMeta implements StepMetaInjectionI
   /** Stop On Error */
   private boolean stopOnError;
 
+  /** Load the rows in the binary COPY format */
+  private boolean binaryFormat;
+
+  /** The number of connections to load over at the same time, binary format only */
+  private String parallelStreams;
+
   /*
    * Do not translate following values!!! They are will end up in the job export.
    */
@@ -225,6 +231,8 @@ public class PGBulkLoaderMeta extends BaseStepMeta implements StepMetaInjectionI
       loadAction = XMLHandler.getTagValue( stepnode, "load_action" );
       dbNameOverride = XMLHandler.getTagValue( stepnode, "dbname_override" );
       stopOnError = "Y".equalsIgnoreCase( XMLHandler.getTagValue( stepnode, "stop_on_error" ) );
+      binaryFormat = "Y".equalsIgnoreCase( XMLHandler.getTagValue( stepnode, "binary_format" ) );
+      parallelStreams = XMLHandler.getTagValue( stepnode, "parallel_streams" );
 
       int nrvalues = XMLHandler.countNodes( stepnode, "mapping" );
       allocate( nrvalues );
@@ -265,6 +273,8 @@ public class PGBulkLoaderMeta extends BaseStepMeta implements StepMetaInjectionI
     delimiter = ";";
     enclosure = "\"";
     stopOnError = false;
+    binaryFormat = false;
+    parallelStreams = "1";
     int nrvalues = 0;
     allocate( nrvalues );
   }
@@ -282,6 +292,8 @@ public class PGBulkLoaderMeta extends BaseStepMeta implements StepMetaInjectionI
     retval.append( "    " ).append( XMLHandler.addTagValue( "enclosure", enclosure ) );
     retval.append( "    " ).append( XMLHandler.addTagValue( "delimiter", delimiter ) );
     retval.append( "    " ).append( XMLHandler.addTagValue( "stop_on_error", stopOnError ) );
+    retval.append( "    " ).append( XMLHandler.addTagValue( "binary_format", binaryFormat ) );
+    retval.append( "    " ).append( XMLHandler.addTagValue( "parallel_streams", parallelStreams ) );
 
     for ( int i = 0; i < fieldTable.length; i++ ) {
       retval.append( "      <mapping>" ).append( Const.CR );
@@ -301,6 +313,8 @@ public class PGBulkLoaderMeta extends BaseStepMeta implements StepMetaInjectionI
       tableName = rep.getStepAttributeString( id_step, "table" );
       loadAction = rep.getStepAttributeString( id_step, "load_action" );
       stopOnError = rep.getStepAttributeBoolean( id_step, "stop_on_error" );
+      binaryFormat = rep.getStepAttributeBoolean( id_step, "binary_format" );
+      parallelStreams = rep.getStepAttributeString( id_step, "parallel_streams" );
 
       dbNameOverride = rep.getStepAttributeString( id_step, "dbname_override" );
       enclosure = rep.getStepAttributeString( id_step, "enclosure" );
@@ -334,6 +348,8 @@ public class PGBulkLoaderMeta extends BaseStepMeta implements StepMetaInjectionI
       rep.saveStepAttribute( id_transformation, id_step, "enclosure", enclosure );
       rep.saveStepAttribute( id_transformation, id_step, "delimiter", delimiter );
       rep.saveStepAttribute( id_transformation, id_step, "stop_on_error", stopOnError );
+      rep.saveStepAttribute( id_transformation, id_step, "binary_format", binaryFormat );
+      rep.saveStepAttribute( id_transformation, id_step, "parallel_streams", parallelStreams );
 
       for ( int i = 0; i < fieldTable.length; i++ ) {
         rep.saveStepAttribute( id_transformation, id_step, i, "stream_name", fieldTable[i] );
@@ -680,6 +696,22 @@ public class PGBulkLoaderMeta extends BaseStepMeta implements StepMetaInjectionI
     this.stopOnError = value;
   }
 
+  public boolean isBinaryFormat() {
+    return binaryFormat;
+  }
+
+  public void setBinaryFormat( boolean binaryFormat ) {
+    this.binaryFormat = binaryFormat;
+  }
+
+  public String getParallelStreams() {
+    return parallelStreams;
+  }
+
+  public void setParallelStreams( String parallelStreams ) {
+    this.parallelStreams = parallelStreams;
+  }
+
   public StepMetaInjectionInterface getStepMetaInjectionInterface() {
     return this;
   }
@@ -713,6 +745,10 @@ public class PGBulkLoaderMeta extends BaseStepMeta implements StepMetaInjectionI
           delimiter = (String) entry.getValue();
         } else if ( entry.getKey().equals( "STOPONERROR" ) ) {
           stopOnError = (Boolean) entry.getValue();
+        } else if ( entry.getKey().equals( "BINARYFORMAT" ) ) {
+          binaryFormat = (Boolean) entry.getValue();
+        } else if ( entry.getKey().equals( "PARALLELSTREAMS" ) ) {
+          parallelStreams = (String) entry.getValue();
         } else {
           throw new RuntimeException( "Unhandled metadata injection of attribute: "
             + attr.toString() + " - " + attr.getDescription() );
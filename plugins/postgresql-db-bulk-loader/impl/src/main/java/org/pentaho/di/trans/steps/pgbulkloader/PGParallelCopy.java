@@ -0,0 +1,253 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.pgbulkloader;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.pentaho.di.core.database.Database;
+import org.pentaho.di.core.exception.KettleException;
+import org.pentaho.di.core.util.ExecutorUtil;
+import org.postgresql.copy.PGCopyOutputStream;
+
+/**
+ * Loads rows over a number of connections at the same time, with a binary COPY on every connection.
+ * <p>
+ * The step thread collects the rows in batches and hands the batches to the streams in turn. Every stream encodes its
+ * rows and writes them on a thread of its own, so the encoding is spread over the streams as well. The transactions
+ * of the streams are only committed once all of them have ended their COPY; when one of them fails, all of them are
+ * rolled back. The commits themselves follow one another, this is not a two-phase commit.
+ */
+class PGParallelCopy {
+
+  static final int BATCH_SIZE = 1000;
+
+  private static final int QUEUED_BATCHES = 4;
+  private static final Object[][] END = new Object[ 0 ][];
+
+  private final int[] fieldIndexes;
+  private final List<CopyStream> streams = new ArrayList<>();
+
+  private Object[][] batch = new Object[ BATCH_SIZE ][];
+  private int batchSize;
+  private int nextStream;
+  private boolean finished;
+
+  /**
+   * @param fieldIndexes the indexes of the fields to load in the input rows
+   */
+  PGParallelCopy( int[] fieldIndexes ) {
+    this.fieldIndexes = fieldIndexes;
+  }
+
+  /**
+   * Starts a stream. The writer has to be created for rows that hold the loaded fields only, in the order of the
+   * field indexes, and must not share value metadata with another stream.
+   *
+   * @param db     the connection, with auto commit disabled
+   * @param out    the COPY on that connection
+   * @param writer the encoder of the stream
+   */
+  void addStream( Database db, PGCopyOutputStream out, PGBinaryCopyWriter writer ) {
+    CopyStream stream = new CopyStream( db, out, writer );
+    streams.add( stream );
+    stream.future = ExecutorUtil.getExecutor().submit( stream );
+  }
+
+  int getStreamCount() {
+    return streams.size();
+  }
+
+  void addRow( Object[] row ) throws KettleException {
+    // Only the loaded values are handed over, the next steps are free to change the row
+    Object[] values = new Object[ fieldIndexes.length ];
+    for ( int i = 0; i < fieldIndexes.length; i++ ) {
+      values[ i ] = row[ fieldIndexes[ i ] ];
+    }
+    batch[ batchSize++ ] = values;
+    if ( batchSize == BATCH_SIZE ) {
+      handOver();
+    }
+  }
+
+  private void handOver() throws KettleException {
+    CopyStream stream = streams.get( nextStream );
+    nextStream = ( nextStream + 1 ) % streams.size();
+    stream.put( batch );
+    batch = new Object[ BATCH_SIZE ][];
+    batchSize = 0;
+  }
+
+  /**
+   * Ends the COPY of all streams and commits them, or rolls all of them back if one of them failed.
+   */
+  void finish() throws KettleException {
+    KettleException failure = null;
+    try {
+      if ( batchSize > 0 ) {
+        handOver();
+      }
+    } catch ( KettleException e ) {
+      failure = e;
+    }
+    for ( CopyStream stream : streams ) {
+      try {
+        stream.put( END );
+      } catch ( KettleException e ) {
+        failure = failure == null ? e : failure;
+      }
+    }
+    for ( CopyStream stream : streams ) {
+      try {
+        stream.checkResult();
+      } catch ( KettleException e ) {
+        failure = failure == null ? e : failure;
+      }
+    }
+    if ( failure != null ) {
+      rollback();
+      throw failure;
+    }
+    for ( CopyStream stream : streams ) {
+      stream.db.commit( true );
+    }
+    finished = true;
+  }
+
+  /**
+   * Stops the streams that are still running, rolls them back unless they were committed and closes the connections.
+   */
+  void close() {
+    for ( CopyStream stream : streams ) {
+      stream.cancel();
+    }
+    for ( CopyStream stream : streams ) {
+      try {
+        stream.done.await();
+      } catch ( InterruptedException e ) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    if ( !finished ) {
+      rollback();
+    }
+    for ( CopyStream stream : streams ) {
+      stream.db.disconnect();
+    }
+    streams.clear();
+  }
+
+  private void rollback() {
+    for ( CopyStream stream : streams ) {
+      try {
+        stream.db.rollback( true );
+      } catch ( Exception e ) {
+        // The connection is closed after this, which rolls back as well
+      }
+    }
+  }
+
+  private static class CopyStream implements Callable<Void> {
+    private final Database db;
+    private final PGCopyOutputStream out;
+    private final PGBinaryCopyWriter writer;
+    private final BlockingQueue<Object[][]> queue = new ArrayBlockingQueue<>( QUEUED_BATCHES );
+    private final CountDownLatch done = new CountDownLatch( 1 );
+
+    private Future<Void> future;
+    private volatile boolean cancelled;
+
+    CopyStream( Database db, PGCopyOutputStream out, PGBinaryCopyWriter writer ) {
+      this.db = db;
+      this.out = out;
+      this.writer = writer;
+    }
+
+    @Override
+    public Void call() throws Exception {
+      boolean ended = false;
+      try {
+        writer.writeHeader( out );
+        for ( Object[][] rows = queue.take(); rows != END; rows = queue.take() ) {
+          for ( Object[] row : rows ) {
+            if ( row == null || cancelled ) {
+              break;
+            }
+            writer.writeRow( out, row );
+          }
+        }
+        if ( !cancelled ) {
+          writer.writeTrailer( out );
+          out.flush();
+          out.endCopy();
+          ended = true;
+        }
+        return null;
+      } finally {
+        if ( !ended && out.isActive() ) {
+          try {
+            out.cancelCopy();
+          } catch ( SQLException e ) {
+            // The transaction is rolled back anyway
+          }
+        }
+        done.countDown();
+      }
+    }
+
+    void put( Object[][] rows ) throws KettleException {
+      try {
+        while ( !future.isDone() ) {
+          if ( queue.offer( rows, 100, TimeUnit.MILLISECONDS ) ) {
+            return;
+          }
+        }
+        checkResult();
+        throw new KettleException( "COPY stream stopped before the end of the rows" );
+      } catch ( InterruptedException e ) {
+        Thread.currentThread().interrupt();
+        throw new KettleException( "Interrupted while handing rows to a COPY stream", e );
+      }
+    }
+
+    void checkResult() throws KettleException {
+      try {
+        future.get();
+      } catch ( ExecutionException e ) {
+        throw new KettleException( "Error writing to a COPY stream", e.getCause() );
+      } catch ( InterruptedException e ) {
+        Thread.currentThread().interrupt();
+        throw new KettleException( "Interrupted while waiting for a COPY stream", e );
+      }
+    }
+
+    void cancel() {
+      if ( future.isDone() ) {
+        return;
+      }
+      cancelled = true;
+      // The step thread is the only one that adds to the queue, so after clearing it there is room for the end
+      queue.clear();
+      queue.offer( END );
+    }
+  }
+}
@@ -0,0 +1,168 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.pgbulkloader;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.ZoneOffset;
+import java.util.Date;
+
+import org.junit.Test;
+import org.pentaho.di.core.exception.KettleException;
+import org.pentaho.di.core.row.ValueMetaInterface;
+import org.pentaho.di.core.row.value.ValueMetaBigNumber;
+import org.pentaho.di.core.row.value.ValueMetaBoolean;
+import org.pentaho.di.core.row.value.ValueMetaDate;
+import org.pentaho.di.core.row.value.ValueMetaInteger;
+import org.pentaho.di.core.row.value.ValueMetaString;
+
+public class PGBinaryCopyWriterTest {
+
+  @Test
+  public void testHeaderAndTrailer() throws Exception {
+    PGBinaryCopyWriter writer = createWriter( new ValueMetaInterface[] { new ValueMetaInteger( "id" ) },
+      new String[] { "int4" } );
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    writer.writeHeader( out );
+    writer.writeTrailer( out );
+
+    ByteArrayOutputStream expected = new ByteArrayOutputStream();
+    DataOutputStream data = new DataOutputStream( expected );
+    data.write( "PGCOPY\n".getBytes( StandardCharsets.US_ASCII ) );
+    data.write( new byte[] { (byte) 0xFF, '\r', '\n', 0 } );
+    data.writeInt( 0 );
+    data.writeInt( 0 );
+    data.writeShort( -1 );
+    assertArrayEquals( expected.toByteArray(), out.toByteArray() );
+  }
+
+  @Test
+  public void testWriteRow() throws Exception {
+    ValueMetaInterface[] valueMetas = new ValueMetaInterface[] {
+      new ValueMetaInteger( "small" ), new ValueMetaInteger( "big" ), new ValueMetaBigNumber( "amount" ),
+      new ValueMetaBigNumber( "fraction" ), new ValueMetaBigNumber( "zero" ), new ValueMetaBoolean( "flag" ),
+      new ValueMetaDate( "day" ), new ValueMetaDate( "moment" ), new ValueMetaDate( "instant" ),
+      new ValueMetaString( "name" ), new ValueMetaString( "missing" ) };
+    String[] columnTypes = { "int4", "int8", "numeric", "numeric", "numeric", "bool", "date", "timestamp",
+      "timestamptz", "varchar", "text" };
+    PGBinaryCopyWriter writer = createWriter( valueMetas, columnTypes );
+
+    Timestamp moment = new Timestamp( 946684801000L );
+    moment.setNanos( 500001000 );
+    Object[] row = { 42L, -2L, new BigDecimal( "12345.678" ), new BigDecimal( "-0.5" ), BigDecimal.ZERO, true,
+      new Date( 946771200000L ), moment, new Date( 946684800000L - 1000L ), "h\u00e9", null };
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    writer.writeRow( out, row );
+
+    ByteArrayOutputStream expected = new ByteArrayOutputStream();
+    DataOutputStream data = new DataOutputStream( expected );
+    data.writeShort( 11 );
+    data.writeInt( 4 );
+    data.writeInt( 42 );
+    data.writeInt( 8 );
+    data.writeLong( -2L );
+    // 1 2345 . 6780
+    writeNumeric( data, 1, 0, 3, 1, 2345, 6780 );
+    // 5000 times 10000^-1
+    writeNumeric( data, -1, 0x4000, 1, 5000 );
+    writeNumeric( data, 0, 0, 0 );
+    data.writeInt( 1 );
+    data.writeByte( 1 );
+    // 2000-01-02
+    data.writeInt( 4 );
+    data.writeInt( 1 );
+    // 2000-01-01 00:00:01.500001
+    data.writeInt( 8 );
+    data.writeLong( 1500001L );
+    // One second before 2000-01-01
+    data.writeInt( 8 );
+    data.writeLong( -1000000L );
+    data.writeInt( 3 );
+    data.write( new byte[] { 'h', (byte) 0xC3, (byte) 0xA9 } );
+    data.writeInt( -1 );
+    assertArrayEquals( expected.toByteArray(), out.toByteArray() );
+  }
+
+  @Test
+  public void testDateMaskTruncatesTimestamp() throws Exception {
+    PGBinaryCopyWriter writer = new PGBinaryCopyWriter( new ValueMetaInterface[] { new ValueMetaDate( "day" ) },
+      new int[] { 0 }, new String[] { "timestamp" }, new int[] { PGBulkLoaderMeta.NR_DATE_MASK_DATE },
+      StandardCharsets.UTF_8, ZoneOffset.UTC );
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    writer.writeRow( out, new Object[] { new Date( 946771200000L + 3600000L ) } );
+
+    ByteArrayOutputStream expected = new ByteArrayOutputStream();
+    DataOutputStream data = new DataOutputStream( expected );
+    data.writeShort( 1 );
+    data.writeInt( 8 );
+    data.writeLong( 86400000000L );
+    assertArrayEquals( expected.toByteArray(), out.toByteArray() );
+  }
+
+  @Test
+  public void testIntegerOutOfRange() throws Exception {
+    PGBinaryCopyWriter writer = createWriter( new ValueMetaInterface[] { new ValueMetaInteger( "small" ) },
+      new String[] { "int2" } );
+    try {
+      writer.writeRow( new ByteArrayOutputStream(), new Object[] { 40000L } );
+      fail( "40000 doesn't fit in an int2" );
+    } catch ( KettleException e ) {
+      // expected
+    }
+  }
+
+  @Test
+  public void testUnsupportedColumnType() throws Exception {
+    assertTrue( PGBinaryCopyWriter.isSupported( "VARCHAR" ) );
+    assertFalse( PGBinaryCopyWriter.isSupported( "jsonb" ) );
+    assertFalse( PGBinaryCopyWriter.isSupported( null ) );
+    try {
+      createWriter( new ValueMetaInterface[] { new ValueMetaString( "doc" ) }, new String[] { "jsonb" } );
+      fail( "jsonb has no binary encoder" );
+    } catch ( KettleException e ) {
+      // expected
+    }
+  }
+
+  private static PGBinaryCopyWriter createWriter( ValueMetaInterface[] valueMetas, String[] columnTypes )
+    throws KettleException {
+    int[] fieldIndexes = new int[ valueMetas.length ];
+    for ( int i = 0; i < fieldIndexes.length; i++ ) {
+      fieldIndexes[ i ] = i;
+    }
+    return new PGBinaryCopyWriter( valueMetas, fieldIndexes, columnTypes, new int[ valueMetas.length ],
+      StandardCharsets.UTF_8, ZoneOffset.UTC );
+  }
+
+  private static void writeNumeric( DataOutputStream data, int weight, int sign, int scale, int... digits )
+    throws IOException {
+    data.writeInt( 8 + 2 * digits.length );
+    data.writeShort( digits.length );
+    data.writeShort( weight );
+    data.writeShort( sign );
+    data.writeShort( scale );
+    for ( int digit : digits ) {
+      data.writeShort( digit );
+    }
+  }
+}
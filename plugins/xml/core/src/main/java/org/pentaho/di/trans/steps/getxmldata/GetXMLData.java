@@ -13,6 +13,7 @@
 
 package org.pentaho.di.trans.steps.getxmldata;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.StringReader;
 import java.util.ArrayList;
@@ -20,6 +21,8 @@ import java.util.Date;
 import java.util.List;
 import java.util.zip.GZIPInputStream;
 
+import javax.xml.stream.XMLStreamException;
+
 import org.apache.http.Header;
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpResponse;
@@ -593,18 +596,25 @@ public class GetXMLData extends BaseStep implements StepInterface {
           logDetailed( BaseMessages.getString( PKG, "GetXMLData.Log.OpeningFile", data.file.toString() ) );
         }
 
-        // Open the XML document
-        if ( !setDocument( null, data.file, false, false ) ) {
-          if ( data.stopPruning ) {
-            return false; // ignore error when stopped while pruning
+        if ( data.staxPaths != null ) {
+          // Read the rows from the StAX events, see getStaxRow()
+          String encoding = Utils.isEmpty( meta.getEncoding() ) ? "UTF-8" : meta.getEncoding();
+          data.staxReader =
+            new GetXMLDataStaxReader( data.staxPaths, data.staxFactory, KettleVFS.getInputStream( data.file ), encoding );
+        } else {
+          // Open the XML document
+          if ( !setDocument( null, data.file, false, false ) ) {
+            if ( data.stopPruning ) {
+              return false; // ignore error when stopped while pruning
+            }
+            throw new KettleException( BaseMessages.getString( PKG, "GetXMLData.Log.UnableCreateDocument" ) );
           }
-          throw new KettleException( BaseMessages.getString( PKG, "GetXMLData.Log.UnableCreateDocument" ) );
-        }
 
-        // Apply XPath and set node list
-        if ( data.prunePath == null ) { // this was already done in processStreaming()
-          if ( !applyXPath() ) {
-            throw new KettleException( BaseMessages.getString( PKG, "GetXMLData.Log.UnableApplyXPath" ) );
+          // Apply XPath and set node list
+          if ( data.prunePath == null ) { // this was already done in processStreaming()
+            if ( !applyXPath() ) {
+              throw new KettleException( BaseMessages.getString( PKG, "GetXMLData.Log.UnableApplyXPath" ) );
+            }
           }
         }
 
@@ -682,6 +692,9 @@ public class GetXMLData extends BaseStep implements StepInterface {
 
   private Object[] getXMLRow() throws KettleException {
 
+    if ( data.staxPaths != null ) {
+      return getStaxRow();
+    }
     if ( !meta.isInFields() ) {
       while ( ( data.nodenr >= data.nodesize || data.file == null ) ) {
         if ( !openNextFile() ) {
@@ -693,6 +706,32 @@ public class GetXMLData extends BaseStep implements StepInterface {
     return getXMLRowPutRowWithErrorhandling();
   }
 
+  private Object[] getStaxRow() throws KettleException {
+    data.errorInRowButContinue = false;
+    try {
+      while ( data.staxReader == null || !data.staxReader.next() ) {
+        closeStaxReader();
+        if ( !openNextFile() ) {
+          return null;
+        }
+      }
+    } catch ( XMLStreamException e ) {
+      throw new KettleException( BaseMessages.getString( PKG, "GetXMLData.Error.UnableReadFile" ), e );
+    }
+    return processPutRow( null );
+  }
+
+  private void closeStaxReader() {
+    if ( data.staxReader != null ) {
+      try {
+        data.staxReader.close();
+      } catch ( IOException e ) {
+        // Ignore close errors
+      }
+      data.staxReader = null;
+    }
+  }
+
   private Object[] getXMLRowPutRowWithErrorhandling() throws KettleException {
     // Build an empty row based on the meta-data
     Object[] r;
@@ -752,8 +791,14 @@ public class GetXMLData extends BaseStep implements StepInterface {
         Boolean xmlMissingTagYieldsNullValue = convertStringToBoolean(
           Const.NVL( System.getProperty( Const.KETTLE_XML_MISSING_TAG_YIELDS_NULL_VALUE, "N" ), "N" ) );
 
-        // Handle namespaces
-        if ( meta.isNamespaceAware() ) {
+        if ( data.staxReader != null ) {
+          // Only value-of fields are read from the StAX events
+          nodevalue = data.staxReader.getValue( i );
+          if ( nodevalue == null && !xmlMissingTagYieldsNullValue ) {
+            nodevalue = "";
+          }
+        } else if ( meta.isNamespaceAware() ) {
+          // Handle namespaces
           XPath xpathField = node.createXPath( addNSPrefix( XPathValue, data.PathValue ) );
           xpathField.setNamespaceURIs( data.NAMESPACE );
           if ( xmlDataField.getResultType() == GetXMLDataField.RESULT_TYPE_VALUE_OF ) {
@@ -985,14 +1030,45 @@ public class GetXMLData extends BaseStep implements StepInterface {
         }
       }
 
+      if ( meta.isStaxStreaming() ) {
+        data.staxPaths = compileStaxPaths();
+        if ( data.staxPaths != null ) {
+          data.staxFactory = XMLParserFactoryProducer.createSecureXMLInputFactory();
+          if ( log.isDetailed() ) {
+            logDetailed( BaseMessages.getString( PKG, "GetXMLData.Log.StaxStreaming.Activated" ) );
+          }
+        } else {
+          logBasic( BaseMessages.getString( PKG, "GetXMLData.Log.StaxStreaming.NotPossible" ) );
+        }
+      }
+
       return true;
     }
     return false;
   }
 
+  /**
+   * @return the compiled paths if the files can be read from the StAX events, null if a document is needed
+   */
+  private GetXMLDataStaxReader.Paths compileStaxPaths() {
+    if ( meta.isInFields() || meta.isValidating() || meta.isNamespaceAware() || meta.isuseToken() ) {
+      return null;
+    }
+    String[] fieldPaths = new String[ data.nrInputFields ];
+    for ( int i = 0; i < data.nrInputFields; i++ ) {
+      GetXMLDataField xmlDataField = meta.getInputFields()[i];
+      if ( xmlDataField.getResultType() != GetXMLDataField.RESULT_TYPE_VALUE_OF ) {
+        return null;
+      }
+      fieldPaths[i] = xmlDataField.getResolvedXPath();
+    }
+    return GetXMLDataStaxReader.compile( data.PathValue, fieldPaths );
+  }
+
   public void dispose( StepMetaInterface smi, StepDataInterface sdi ) {
     meta = (GetXMLDataMeta) smi;
     data = (GetXMLDataData) sdi;
+    closeStaxReader();
     if ( data.file != null ) {
       try {
         data.file.close();
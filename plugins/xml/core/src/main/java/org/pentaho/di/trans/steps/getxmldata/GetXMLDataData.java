@@ -26,6 +26,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import javax.xml.stream.XMLInputFactory;
+
 import org.apache.commons.vfs2.FileObject;
 import org.dom4j.Document;
 import org.dom4j.Node;
@@ -56,6 +58,9 @@ public class GetXMLDataData extends BaseStepData implements StepDataInterface {
   public String PathValue;
   public String prunePath; // identical to meta.getPrunePath() with some conditions set at init(), null when no pruning
   public boolean stopPruning; // used for a trick to stop the reader in pruning mode
+  GetXMLDataStaxReader.Paths staxPaths; // the compiled paths when the files are read from the StAX events, else null
+  GetXMLDataStaxReader staxReader;
+  XMLInputFactory staxFactory;
   public boolean errorInRowButContinue; // true when actual row has an error and error handling is active: means
                                         // continue (error handling in this step should be redesigned)
   public String tokenStart;
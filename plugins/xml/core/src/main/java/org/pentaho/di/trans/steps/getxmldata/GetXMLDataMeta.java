@@ -85,6 +85,7 @@ public class GetXMLDataMeta extends BaseStepMeta implements StepMetaInterface {
   public static final String TAG_IS_A_FILE = "IsAFile";
   public static final String TAG_XML_FIELD = "XmlField";
   public static final String TAG_PRUNE_PATH = "prunePath";
+  public static final String TAG_STAX_STREAMING = "staxStreaming";
   public static final String TAG_SHORT_FILE_FIELD_NAME = "shortFileFieldName";
   public static final String TAG_PATH_FIELD_NAME = "pathFieldName";
   public static final String TAG_HIDDEN_FIELD_NAME = "hiddenFieldName";
@@ -197,6 +198,9 @@ public class GetXMLDataMeta extends BaseStepMeta implements StepMetaInterface {
   // Given this path activates the streaming algorithm to process large files
   private String prunePath;
 
+  // Read the rows from the StAX events of the files when the paths are simple enough, without building a document
+  private boolean staxStreaming;
+
   /** Additional fields **/
   private String shortFileFieldName;
   private String pathFieldName;
@@ -684,6 +688,21 @@ public class GetXMLDataMeta extends BaseStepMeta implements StepMetaInterface {
     this.prunePath = prunePath;
   }
 
+  /**
+   * @return true if the files are read from the StAX events when the loop and field paths allow it
+   */
+  public boolean isStaxStreaming() {
+    return staxStreaming;
+  }
+
+  /**
+   * @param staxStreaming
+   *          true to read the files from the StAX events when the loop and field paths allow it
+   */
+  public void setStaxStreaming( boolean staxStreaming ) {
+    this.staxStreaming = staxStreaming;
+  }
+
   public void loadXML( Node stepnode, List<DatabaseMeta> databases, IMetaStore metaStore ) throws KettleXMLException {
     readData( stepnode );
   }
@@ -754,6 +773,7 @@ public class GetXMLDataMeta extends BaseStepMeta implements StepMetaInterface {
     retval.append( TAG_4_SPACES ).append( XMLHandler.addTagValue( TAG_IS_A_FILE, IsAFile ) );
     retval.append( TAG_4_SPACES ).append( XMLHandler.addTagValue( TAG_XML_FIELD, xmlField ) );
     retval.append( TAG_4_SPACES ).append( XMLHandler.addTagValue( TAG_PRUNE_PATH, prunePath ) );
+    retval.append( TAG_4_SPACES ).append( XMLHandler.addTagValue( TAG_STAX_STREAMING, staxStreaming ) );
     retval.append( TAG_4_SPACES ).append( XMLHandler.addTagValue( TAG_SHORT_FILE_FIELD_NAME, shortFileFieldName ) );
     retval.append( TAG_4_SPACES ).append( XMLHandler.addTagValue( TAG_PATH_FIELD_NAME, pathFieldName ) );
     retval.append( TAG_4_SPACES ).append( XMLHandler.addTagValue( TAG_HIDDEN_FIELD_NAME, hiddenFieldName ) );
@@ -843,6 +863,7 @@ public class GetXMLDataMeta extends BaseStepMeta implements StepMetaInterface {
 
       xmlField = XMLHandler.getTagValue( stepnode, TAG_XML_FIELD );
       prunePath = XMLHandler.getTagValue( stepnode, TAG_PRUNE_PATH );
+      staxStreaming = "Y".equalsIgnoreCase( XMLHandler.getTagValue( stepnode, TAG_STAX_STREAMING ) );
 
       shortFileFieldName = XMLHandler.getTagValue( stepnode, TAG_SHORT_FILE_FIELD_NAME );
       pathFieldName = XMLHandler.getTagValue( stepnode, TAG_PATH_FIELD_NAME );
@@ -918,6 +939,7 @@ public class GetXMLDataMeta extends BaseStepMeta implements StepMetaInterface {
     inFields = false;
     xmlField = "";
     prunePath = "";
+    staxStreaming = false;
   }
 
   @Override
@@ -1077,6 +1099,7 @@ public class GetXMLDataMeta extends BaseStepMeta implements StepMetaInterface {
 
       xmlField = rep.getStepAttributeString( id_step, TAG_XML_FIELD );
       prunePath = rep.getStepAttributeString( id_step, TAG_PRUNE_PATH );
+      staxStreaming = rep.getStepAttributeBoolean( id_step, TAG_STAX_STREAMING );
 
       shortFileFieldName = rep.getStepAttributeString( id_step, TAG_SHORT_FILE_FIELD_NAME );
       extensionFieldName = rep.getStepAttributeString( id_step, TAG_EXTENSION_FIELD_NAME );
@@ -1142,6 +1165,7 @@ public class GetXMLDataMeta extends BaseStepMeta implements StepMetaInterface {
 
       rep.saveStepAttribute( id_transformation, id_step, TAG_XML_FIELD, xmlField );
       rep.saveStepAttribute( id_transformation, id_step, TAG_PRUNE_PATH, prunePath );
+      rep.saveStepAttribute( id_transformation, id_step, TAG_STAX_STREAMING, staxStreaming );
       rep.saveStepAttribute( id_transformation, id_step, TAG_SHORT_FILE_FIELD_NAME, shortFileFieldName );
       rep.saveStepAttribute( id_transformation, id_step, TAG_EXTENSION_FIELD_NAME, extensionFieldName );
       rep.saveStepAttribute( id_transformation, id_step, TAG_PATH_FIELD_NAME, pathFieldName );
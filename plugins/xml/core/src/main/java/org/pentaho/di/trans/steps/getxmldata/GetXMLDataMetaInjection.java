@@ -58,7 +58,9 @@ public class GetXMLDataMetaInjection extends BaseStepMetaInjection implements St
         ValueMetaInterface.TYPE_STRING, "Ignore missing files? (Y/N)" ), IGNORE_COMMENTS(
         ValueMetaInterface.TYPE_STRING, "Ignore comments? (Y/N)" ), READ_URL( ValueMetaInterface.TYPE_STRING,
         "Read URL as source? (Y/N)" ), PRUNE_PATH( ValueMetaInterface.TYPE_STRING,
-        "If you set this path, it activates the streaming algorithm to process large files" ), SHORT_FILE_FIELDNAME(
+        "If you set this path, it activates the streaming algorithm to process large files" ), STAX_STREAMING(
+        ValueMetaInterface.TYPE_STRING, "Read simple paths from the StAX events of the files? (Y/N)" ),
+        SHORT_FILE_FIELDNAME(
         ValueMetaInterface.TYPE_STRING, "Output field: short file name" ), FILE_PATH_FIELDNAME(
         ValueMetaInterface.TYPE_STRING, "Output field: file path" ), FILE_HIDDEN_FIELDNAME(
         ValueMetaInterface.TYPE_STRING, "Output field: hidden file" ), FILE_MODIFICATION_FIELDNAME(
@@ -338,6 +340,9 @@ public class GetXMLDataMetaInjection extends BaseStepMetaInjection implements St
           case PRUNE_PATH:
             meta.setPrunePath( lookFieldsValue );
             break;
+          case STAX_STREAMING:
+            meta.setStaxStreaming( "Y".equalsIgnoreCase( lookFieldsValue ) );
+            break;
           case SHORT_FILE_FIELDNAME:
             meta.setShortFileNameField( lookFieldsValue );
             break;
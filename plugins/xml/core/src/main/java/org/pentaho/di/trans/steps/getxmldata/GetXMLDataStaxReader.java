@@ -0,0 +1,422 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.getxmldata;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Reads the rows of the Get Data From XML step straight from the StAX events of a file, without building a document.
+ * <p>
+ * Only simple paths are handled: the loop path is an absolute path of element names, the field paths are relative
+ * element paths from the loop element, optionally ending with an attribute, and "../@attribute" can pick an attribute
+ * of a parent of the loop element. The field paths are compiled in a tree of element names that is walked as the
+ * elements start and end, so all fields are found in a single pass over the events. Anything else (predicates,
+ * functions, "//", namespaces) is left to the XPath evaluation on the document.
+ * <p>
+ * Like the XPath string value, a field takes the first match in document order and the value of an element is all the
+ * text inside it.
+ */
+class GetXMLDataStaxReader implements Closeable {
+
+  private static final String WILDCARD = "*";
+  private static final String PARENT = "..";
+  private static final String SELF = ".";
+  private static final String SEPARATOR = "/";
+  private static final String AT = "@";
+
+  private static final Pattern NAME = Pattern.compile( "[A-Za-z_][A-Za-z0-9_.\\-]*" );
+
+  /**
+   * The compiled loop and field paths, shared by all the files that are read.
+   */
+  static final class Paths {
+    private final String[] loopSteps;
+    private final int fieldCount;
+    private final PathNode root = new PathNode();
+    private final List<Integer> ancestorFields = new ArrayList<>();
+    private final List<Integer> ancestorDepths = new ArrayList<>();
+    private final List<String> ancestorAttributes = new ArrayList<>();
+    private int maxDepth;
+
+    private Paths( String[] loopSteps, int fieldCount ) {
+      this.loopSteps = loopSteps;
+      this.fieldCount = fieldCount;
+    }
+  }
+
+  /**
+   * A step in the tree of field paths, with the fields that end in it.
+   */
+  private static final class PathNode {
+    private final Map<String, PathNode> children = new HashMap<>();
+    private PathNode wildcard;
+    private int[] valueFields = new int[ 0 ];
+    private int[] attributeFields = new int[ 0 ];
+    private String[] attributeNames = new String[ 0 ];
+
+    private PathNode child( String name ) {
+      if ( WILDCARD.equals( name ) ) {
+        if ( wildcard == null ) {
+          wildcard = new PathNode();
+        }
+        return wildcard;
+      }
+      return children.computeIfAbsent( name, n -> new PathNode() );
+    }
+
+    private void addValueField( int field ) {
+      valueFields = Arrays.copyOf( valueFields, valueFields.length + 1 );
+      valueFields[ valueFields.length - 1 ] = field;
+    }
+
+    private void addAttributeField( int field, String attribute ) {
+      attributeFields = Arrays.copyOf( attributeFields, attributeFields.length + 1 );
+      attributeFields[ attributeFields.length - 1 ] = field;
+      attributeNames = Arrays.copyOf( attributeNames, attributeNames.length + 1 );
+      attributeNames[ attributeNames.length - 1 ] = attribute;
+    }
+  }
+
+  private final Paths paths;
+  private final InputStream inputStream;
+  private final XMLStreamReader xml;
+
+  /** The depth of the current element, the root element is at depth 1 */
+  private int depth;
+  /** The number of loop path steps matched by the open elements */
+  private int matched;
+  private boolean inLoop;
+
+  /** The path nodes reached by the open elements of the loop element, by depth below the loop element */
+  private final PathNode[][] states;
+  private final int[] stateCounts;
+
+  private final String[] values;
+  private final boolean[] found;
+  private final StringBuilder[] buffers;
+  private final int[] captureDepths;
+  private final int[] captures;
+  private int captureCount;
+  private final String[] ancestorValues;
+
+  /**
+   * Compiles the loop path and the field paths.
+   *
+   * @param loopPath   the absolute loop path
+   * @param fieldPaths the resolved field paths, relative to the loop path
+   * @return the compiled paths or null if one of the paths can only be evaluated on a document
+   */
+  static Paths compile( String loopPath, String[] fieldPaths ) {
+    if ( loopPath == null || !loopPath.startsWith( SEPARATOR ) ) {
+      return null;
+    }
+    String[] loopSteps = loopPath.substring( 1 ).split( SEPARATOR, -1 );
+    for ( String step : loopSteps ) {
+      if ( !isNameTest( step ) ) {
+        return null;
+      }
+    }
+
+    Paths paths = new Paths( loopSteps, fieldPaths.length );
+    for ( int field = 0; field < fieldPaths.length; field++ ) {
+      String path = fieldPaths[ field ] == null ? "" : fieldPaths[ field ].trim();
+      if ( path.isEmpty() || path.startsWith( SEPARATOR ) || path.endsWith( SEPARATOR ) ) {
+        return null;
+      }
+      List<String> steps = new ArrayList<>();
+      String attribute = null;
+      int up = 0;
+      String[] parts = path.split( SEPARATOR, -1 );
+      for ( int i = 0; i < parts.length; i++ ) {
+        String part = parts[ i ];
+        if ( SELF.equals( part ) ) {
+          continue;
+        }
+        if ( PARENT.equals( part ) && steps.isEmpty() ) {
+          up++;
+        } else if ( part.startsWith( AT ) && i == parts.length - 1 && NAME.matcher( part.substring( 1 ) ).matches() ) {
+          attribute = part.substring( 1 );
+        } else if ( isNameTest( part ) ) {
+          steps.add( part );
+        } else {
+          return null;
+        }
+      }
+
+      if ( up > 0 ) {
+        // Only the attributes of the parents of the loop element are kept
+        if ( attribute == null || !steps.isEmpty() || up >= loopSteps.length ) {
+          return null;
+        }
+        paths.ancestorFields.add( field );
+        paths.ancestorDepths.add( loopSteps.length - up );
+        paths.ancestorAttributes.add( attribute );
+        continue;
+      }
+
+      PathNode node = paths.root;
+      for ( String step : steps ) {
+        node = node.child( step );
+      }
+      if ( attribute == null ) {
+        node.addValueField( field );
+      } else {
+        node.addAttributeField( field, attribute );
+      }
+      paths.maxDepth = Math.max( paths.maxDepth, steps.size() );
+    }
+    return paths;
+  }
+
+  private static boolean isNameTest( String step ) {
+    return WILDCARD.equals( step ) || NAME.matcher( step ).matches();
+  }
+
+  /**
+   * @param paths       the compiled paths
+   * @param factory     the StAX factory to create the reader with
+   * @param inputStream the file to read, closed with this reader
+   * @param encoding    the encoding of the file
+   */
+  GetXMLDataStaxReader( Paths paths, XMLInputFactory factory, InputStream inputStream, String encoding )
+    throws XMLStreamException {
+    this.paths = paths;
+    this.inputStream = inputStream;
+    this.xml = factory.createXMLStreamReader( inputStream, encoding );
+
+    states = new PathNode[ paths.maxDepth + 1 ][];
+    stateCounts = new int[ paths.maxDepth + 1 ];
+    for ( int i = 0; i < states.length; i++ ) {
+      // With wildcards an element can reach more than one node at the same depth
+      states[ i ] = new PathNode[ 4 ];
+    }
+    values = new String[ paths.fieldCount ];
+    found = new boolean[ paths.fieldCount ];
+    buffers = new StringBuilder[ paths.fieldCount ];
+    captureDepths = new int[ paths.fieldCount ];
+    captures = new int[ paths.fieldCount ];
+    ancestorValues = new String[ paths.fieldCount ];
+  }
+
+  /**
+   * Reads up to the end of the next loop element.
+   *
+   * @return false at the end of the file
+   */
+  boolean next() throws XMLStreamException {
+    while ( xml.hasNext() ) {
+      switch ( xml.next() ) {
+        case XMLStreamConstants.START_ELEMENT:
+          startElement();
+          break;
+        case XMLStreamConstants.END_ELEMENT:
+          if ( endElement() ) {
+            return true;
+          }
+          break;
+        case XMLStreamConstants.CHARACTERS:
+        case XMLStreamConstants.CDATA:
+        case XMLStreamConstants.SPACE:
+          if ( captureCount > 0 ) {
+            appendText();
+          }
+          break;
+        default:
+          break;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @return the value of a field in the last loop element read, null if the path was not found
+   */
+  String getValue( int field ) {
+    return values[ field ];
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      xml.close();
+    } catch ( XMLStreamException e ) {
+      throw new IOException( e );
+    } finally {
+      inputStream.close();
+    }
+  }
+
+  private void startElement() {
+    depth++;
+    if ( inLoop ) {
+      enterChild( depth - paths.loopSteps.length );
+      return;
+    }
+    if ( matched != depth - 1 || depth > paths.loopSteps.length || !matches( paths.loopSteps[ depth - 1 ] ) ) {
+      return;
+    }
+    matched = depth;
+    if ( depth < paths.loopSteps.length ) {
+      for ( int i = 0; i < paths.ancestorFields.size(); i++ ) {
+        if ( paths.ancestorDepths.get( i ) == depth ) {
+          ancestorValues[ paths.ancestorFields.get( i ) ] = getAttribute( paths.ancestorAttributes.get( i ) );
+        }
+      }
+    } else {
+      startRow();
+    }
+  }
+
+  /**
+   * @return true at the end of a loop element
+   */
+  private boolean endElement() {
+    if ( inLoop ) {
+      int relativeDepth = depth - paths.loopSteps.length;
+      endCaptures( relativeDepth );
+      depth--;
+      if ( relativeDepth == 0 ) {
+        inLoop = false;
+        matched = depth;
+        return true;
+      }
+      return false;
+    }
+    if ( matched == depth ) {
+      matched--;
+    }
+    depth--;
+    return false;
+  }
+
+  private void startRow() {
+    inLoop = true;
+    Arrays.fill( values, null );
+    Arrays.fill( found, false );
+    captureCount = 0;
+    for ( int field : paths.ancestorFields ) {
+      values[ field ] = ancestorValues[ field ];
+      found[ field ] = true;
+    }
+    states[ 0 ][ 0 ] = paths.root;
+    stateCounts[ 0 ] = 1;
+    enter( paths.root, 0 );
+  }
+
+  private void enterChild( int relativeDepth ) {
+    if ( relativeDepth > paths.maxDepth ) {
+      return;
+    }
+    PathNode[] parents = states[ relativeDepth - 1 ];
+    int parentCount = stateCounts[ relativeDepth - 1 ];
+    boolean noNamespace = isEmpty( xml.getNamespaceURI() );
+    String name = xml.getLocalName();
+    int count = 0;
+    for ( int i = 0; i < parentCount; i++ ) {
+      PathNode parent = parents[ i ];
+      PathNode child = noNamespace ? parent.children.get( name ) : null;
+      if ( child != null ) {
+        count = addState( relativeDepth, count, child );
+      }
+      if ( parent.wildcard != null ) {
+        count = addState( relativeDepth, count, parent.wildcard );
+      }
+    }
+    stateCounts[ relativeDepth ] = count;
+    for ( int i = 0; i < count; i++ ) {
+      enter( states[ relativeDepth ][ i ], relativeDepth );
+    }
+  }
+
+  private int addState( int relativeDepth, int count, PathNode node ) {
+    if ( count == states[ relativeDepth ].length ) {
+      states[ relativeDepth ] = Arrays.copyOf( states[ relativeDepth ], count * 2 );
+    }
+    states[ relativeDepth ][ count ] = node;
+    return count + 1;
+  }
+
+  private void enter( PathNode node, int relativeDepth ) {
+    for ( int field : node.valueFields ) {
+      if ( !found[ field ] ) {
+        found[ field ] = true;
+        if ( buffers[ field ] == null ) {
+          buffers[ field ] = new StringBuilder();
+        }
+        buffers[ field ].setLength( 0 );
+        captureDepths[ field ] = relativeDepth;
+        captures[ captureCount++ ] = field;
+      }
+    }
+    for ( int i = 0; i < node.attributeFields.length; i++ ) {
+      int field = node.attributeFields[ i ];
+      if ( !found[ field ] ) {
+        String value = getAttribute( node.attributeNames[ i ] );
+        if ( value != null ) {
+          found[ field ] = true;
+          values[ field ] = value;
+        }
+      }
+    }
+  }
+
+  private void endCaptures( int relativeDepth ) {
+    for ( int i = captureCount - 1; i >= 0; i-- ) {
+      int field = captures[ i ];
+      if ( captureDepths[ field ] == relativeDepth ) {
+        values[ field ] = buffers[ field ].toString();
+        captures[ i ] = captures[ --captureCount ];
+      }
+    }
+  }
+
+  private void appendText() {
+    char[] text = xml.getTextCharacters();
+    int start = xml.getTextStart();
+    int length = xml.getTextLength();
+    for ( int i = 0; i < captureCount; i++ ) {
+      buffers[ captures[ i ] ].append( text, start, length );
+    }
+  }
+
+  private boolean matches( String step ) {
+    return WILDCARD.equals( step ) || isEmpty( xml.getNamespaceURI() ) && step.equals( xml.getLocalName() );
+  }
+
+  private String getAttribute( String name ) {
+    for ( int i = 0; i < xml.getAttributeCount(); i++ ) {
+      if ( name.equals( xml.getAttributeLocalName( i ) ) && isEmpty( xml.getAttributeNamespace( i ) ) ) {
+        return xml.getAttributeValue( i );
+      }
+    }
+    return null;
+  }
+
+  private static boolean isEmpty( String string ) {
+    return string == null || string.isEmpty();
+  }
+}
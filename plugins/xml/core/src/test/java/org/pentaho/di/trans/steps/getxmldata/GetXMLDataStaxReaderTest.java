@@ -0,0 +1,100 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 by Hitachi Vantara, LLC : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2029-07-20
+ ******************************************************************************/
+
+
+package org.pentaho.di.trans.steps.getxmldata;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+import org.pentaho.di.core.xml.XMLParserFactoryProducer;
+
+public class GetXMLDataStaxReaderTest {
+
+  private static final String XML = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+    + "<orders region=\"north\">"
+    + "  <!-- first -->"
+    + "  <order id=\"1\"><customer><name>Ann</name><city>Oslo</city></customer><total>10.5</total>"
+    + "    <line sku=\"a\"/><line sku=\"b\"/><note><![CDATA[x < y]]> &amp; z</note></order>"
+    + "  <skip><order id=\"9\"><total>99</total></order></skip>"
+    + "  <order id=\"2\"><customer><name>B<b>o</b>b</name></customer></order>"
+    + "</orders>";
+
+  @Test
+  public void testReadsFieldsOfLoopElements() throws Exception {
+    GetXMLDataStaxReader reader = open( "/orders/order",
+      "@id", "customer/name", "./customer/city", "total", "line/@sku", "note", "../@region", "missing" );
+
+    assertTrue( reader.next() );
+    assertEquals( "1", reader.getValue( 0 ) );
+    assertEquals( "Ann", reader.getValue( 1 ) );
+    assertEquals( "Oslo", reader.getValue( 2 ) );
+    assertEquals( "10.5", reader.getValue( 3 ) );
+    assertEquals( "a", reader.getValue( 4 ) );
+    assertEquals( "x < y & z", reader.getValue( 5 ) );
+    assertEquals( "north", reader.getValue( 6 ) );
+    assertNull( reader.getValue( 7 ) );
+
+    // The order inside skip is not on the loop path
+    assertTrue( reader.next() );
+    assertEquals( "2", reader.getValue( 0 ) );
+    assertEquals( "Bob", reader.getValue( 1 ) );
+    assertNull( reader.getValue( 2 ) );
+    assertNull( reader.getValue( 4 ) );
+    assertEquals( "north", reader.getValue( 6 ) );
+
+    assertFalse( reader.next() );
+    reader.close();
+  }
+
+  @Test
+  public void testWildcards() throws Exception {
+    GetXMLDataStaxReader reader = open( "/*/order", "*/name", "*/@sku", "." );
+    assertTrue( reader.next() );
+    assertEquals( "Ann", reader.getValue( 0 ) );
+    assertEquals( "a", reader.getValue( 1 ) );
+    assertTrue( reader.getValue( 2 ).startsWith( "AnnOslo10.5" ) );
+    assertTrue( reader.next() );
+    assertEquals( "Bob", reader.getValue( 0 ) );
+    assertFalse( reader.next() );
+    reader.close();
+  }
+
+  @Test
+  public void testOnlySimplePathsAreCompiled() {
+    assertNotNull( GetXMLDataStaxReader.compile( "/a/b/c", new String[] { "d", "./d/e", "@f", "../@g", "../../@h" } ) );
+    assertNull( GetXMLDataStaxReader.compile( "a/b", new String[] { "c" } ) );
+    assertNull( GetXMLDataStaxReader.compile( "//b", new String[] { "c" } ) );
+    assertNull( GetXMLDataStaxReader.compile( "/a/b[1]", new String[] { "c" } ) );
+    assertNull( GetXMLDataStaxReader.compile( "/a/b", new String[] { "c[@e='1']" } ) );
+    assertNull( GetXMLDataStaxReader.compile( "/a/b", new String[] { "c//d" } ) );
+    assertNull( GetXMLDataStaxReader.compile( "/a/b", new String[] { "c/text()" } ) );
+    assertNull( GetXMLDataStaxReader.compile( "/a/b", new String[] { "ns:c" } ) );
+    assertNull( GetXMLDataStaxReader.compile( "/a/b", new String[] { "../c" } ) );
+    assertNull( GetXMLDataStaxReader.compile( "/a/b", new String[] { "../../@g" } ) );
+    assertNull( GetXMLDataStaxReader.compile( "/a/b", new String[] { "/a/b/c" } ) );
+  }
+
+  private static GetXMLDataStaxReader open( String loopPath, String... fieldPaths ) throws Exception {
+    GetXMLDataStaxReader.Paths paths = GetXMLDataStaxReader.compile( loopPath, fieldPaths );
+    assertNotNull( paths );
+    return new GetXMLDataStaxReader( paths, XMLParserFactoryProducer.createSecureXMLInputFactory(),
+      new ByteArrayInputStream( XML.getBytes( StandardCharsets.UTF_8 ) ), "UTF-8" );
+  }
+}